@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.Random;
+
+/**
+ * Association of randomly generated descriptors.  SURF-like descriptors are 64 element float vectors and
+ * BRIEF-like descriptors are 512 bit binary strings.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AssociateBenchmark {
+
+	@Param({"SURF","BRIEF"})
+	public String descriptor;
+
+	@Param({"500","2000"})
+	public int numFeatures;
+
+	FastQueue src;
+	FastQueue dst;
+
+	AssociateDescription greedy;
+	AssociateDescription greedyBackwards;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		Class type;
+		if( descriptor.equals("SURF")) {
+			type = TupleDesc_F64.class;
+			src = createF64(rand, 64);
+			dst = createF64(rand, 64);
+		} else if( descriptor.equals("BRIEF")) {
+			type = TupleDesc_B.class;
+			src = createBinary(rand, 512);
+			dst = createBinary(rand, 512);
+		} else {
+			throw new IllegalArgumentException("Unknown descriptor "+descriptor);
+		}
+
+		ScoreAssociation score = FactoryAssociation.defaultScore(type);
+		greedy = FactoryAssociation.greedy(score, Double.MAX_VALUE, false);
+		greedyBackwards = FactoryAssociation.greedy(score, Double.MAX_VALUE, true);
+	}
+
+	private FastQueue<TupleDesc_F64> createF64( Random rand , final int length ) {
+		FastQueue<TupleDesc_F64> ret = new FastQueue<TupleDesc_F64>(numFeatures,TupleDesc_F64.class,true) {
+			@Override
+			protected TupleDesc_F64 createInstance() {
+				return new TupleDesc_F64(length);
+			}
+		};
+		for (int i = 0; i < numFeatures; i++) {
+			TupleDesc_F64 d = ret.grow();
+			for (int j = 0; j < length; j++) {
+				d.value[j] = rand.nextDouble()*2-1;
+			}
+		}
+		return ret;
+	}
+
+	private FastQueue<TupleDesc_B> createBinary( Random rand , final int numBits ) {
+		FastQueue<TupleDesc_B> ret = new FastQueue<TupleDesc_B>(numFeatures,TupleDesc_B.class,true) {
+			@Override
+			protected TupleDesc_B createInstance() {
+				return new TupleDesc_B(numBits);
+			}
+		};
+		for (int i = 0; i < numFeatures; i++) {
+			TupleDesc_B d = ret.grow();
+			for (int j = 0; j < d.data.length; j++) {
+				d.data[j] = rand.nextInt();
+			}
+		}
+		return ret;
+	}
+
+	@Benchmark
+	public int greedy() {
+		return associate(greedy);
+	}
+
+	@Benchmark
+	public int greedyBackwards() {
+		return associate(greedyBackwards);
+	}
+
+	private int associate( AssociateDescription<TupleDesc> alg ) {
+		alg.setSource(src);
+		alg.setDestination(dst);
+		alg.associate();
+		return alg.getMatches().size;
+	}
+}
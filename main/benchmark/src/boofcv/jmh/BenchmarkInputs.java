@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+
+import java.util.Random;
+
+/**
+ * Functions for creating the input used by benchmarks from their parameters.  Inputs are filled with
+ * random values from a fixed seed so that every run processes the same data.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkInputs {
+
+	/**
+	 * Converts the name of an image type into its class
+	 *
+	 * @param name Simple name of the image class, e.g. "GrayU8"
+	 */
+	public static Class<ImageGray> imageType( String name ) {
+		if( name.equals("GrayU8"))
+			return (Class)GrayU8.class;
+		else if( name.equals("GrayF32"))
+			return (Class)GrayF32.class;
+		else
+			throw new IllegalArgumentException("Unknown image type "+name);
+	}
+
+	/**
+	 * Parses an image size in the format "WIDTHxHEIGHT", e.g. "640x480"
+	 *
+	 * @return array containing width and height
+	 */
+	public static int[] imageSize( String size ) {
+		String[] words = size.toLowerCase().split("x");
+		if( words.length != 2 )
+			throw new IllegalArgumentException("Expected size in the format WIDTHxHEIGHT, not "+size);
+		return new int[]{Integer.parseInt(words[0]),Integer.parseInt(words[1])};
+	}
+
+	/**
+	 * Creates an image which has been filled with uniform noise
+	 */
+	public static <T extends ImageGray> T randomImage( Class<T> type , String size , long seed ) {
+		int[] shape = imageSize(size);
+		T image = GeneralizedImageOps.createSingleBand(type, shape[0], shape[1]);
+		GImageMiscOps.fillUniform(image, new Random(seed), 0, 255);
+		return image;
+	}
+
+	/**
+	 * Creates an image which contains rectangles of random intensity on a noisy background.  Unlike pure noise
+	 * this provides corners and blobs at multiple scales for feature detectors.
+	 */
+	public static <T extends ImageGray> T syntheticScene( Class<T> type , String size , long seed ) {
+		int[] shape = imageSize(size);
+		T image = GeneralizedImageOps.createSingleBand(type, shape[0], shape[1]);
+		Random rand = new Random(seed);
+
+		GImageMiscOps.fillUniform(image, rand, 0, 20);
+		int total = shape[0]*shape[1]/2000;
+		for (int i = 0; i < total; i++) {
+			int w = 5+rand.nextInt(60);
+			int h = 5+rand.nextInt(60);
+			int x = rand.nextInt(shape[0]);
+			int y = rand.nextInt(shape[1]);
+			GImageMiscOps.fillRectangle(image, 50+rand.nextInt(200), x, y, w, h);
+		}
+		return image;
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh;
+
+import boofcv.alg.filter.blur.GBlurImageOps;
+import boofcv.struct.image.ImageGray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Image blurring operations.  These are used by almost every higher level algorithm.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlurBenchmark {
+
+	@Param({"GrayU8","GrayF32"})
+	public String imageType;
+
+	@Param({"640x480","1920x1080"})
+	public String size;
+
+	@Param({"2","6"})
+	public int radius;
+
+	ImageGray input;
+	ImageGray output;
+	ImageGray storage;
+
+	@Setup
+	public void setup() {
+		Class<ImageGray> type = BenchmarkInputs.imageType(imageType);
+		input = BenchmarkInputs.randomImage(type, size, 234);
+		output = (ImageGray)input.createSameShape();
+		storage = (ImageGray)input.createSameShape();
+	}
+
+	@Benchmark
+	public ImageGray gaussian() {
+		return GBlurImageOps.gaussian(input, output, -1, radius, storage);
+	}
+
+	@Benchmark
+	public ImageGray mean() {
+		return GBlurImageOps.mean(input, output, radius, storage);
+	}
+
+	@Benchmark
+	public ImageGray median() {
+		return GBlurImageOps.median(input, output, radius);
+	}
+}
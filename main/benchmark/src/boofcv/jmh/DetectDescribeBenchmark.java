@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh;
+
+import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.abst.feature.detect.interest.ConfigFastHessian;
+import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.image.GrayF32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Combined feature detection and description.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DetectDescribeBenchmark {
+
+	@Param({"640x480","1920x1080"})
+	public String size;
+
+	GrayF32 input;
+
+	DetectDescribePoint<GrayF32,BrightFeature> surfFast;
+	DetectDescribePoint<GrayF32,BrightFeature> surfStable;
+	DetectDescribePoint<GrayF32,BrightFeature> sift;
+
+	@Setup
+	public void setup() {
+		input = BenchmarkInputs.syntheticScene(GrayF32.class, size, 234);
+
+		ConfigFastHessian configDetect = new ConfigFastHessian(1, 2, 300, 1, 9, 4, 4);
+		surfFast = FactoryDetectDescribe.surfFast(configDetect, null, null, GrayF32.class);
+		surfStable = FactoryDetectDescribe.surfStable(configDetect, null, null, GrayF32.class);
+		sift = FactoryDetectDescribe.sift(null);
+	}
+
+	@Benchmark
+	public int surfFast() {
+		surfFast.detect(input);
+		return surfFast.getNumberOfFeatures();
+	}
+
+	@Benchmark
+	public int surfStable() {
+		surfStable.detect(input);
+		return surfStable.getNumberOfFeatures();
+	}
+
+	@Benchmark
+	public int sift() {
+		sift.detect(input);
+		return sift.getNumberOfFeatures();
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh;
+
+import boofcv.abst.feature.detect.interest.ConfigFast;
+import boofcv.abst.feature.detect.interest.ConfigFastHessian;
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.abst.feature.detect.interest.InterestPointDetector;
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.factory.feature.detect.interest.FactoryDetectPoint;
+import boofcv.factory.feature.detect.interest.FactoryInterestPoint;
+import boofcv.struct.image.ImageGray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interest point detectors.  Includes computing the image derivatives when the detector requires them.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DetectPointBenchmark {
+
+	@Param({"GrayU8","GrayF32"})
+	public String imageType;
+
+	@Param({"640x480","1920x1080"})
+	public String size;
+
+	ImageGray input;
+
+	InterestPointDetector<ImageGray> fast;
+	InterestPointDetector<ImageGray> shiTomasi;
+	InterestPointDetector<ImageGray> fastHessian;
+
+	@Setup
+	public void setup() {
+		Class<ImageGray> type = BenchmarkInputs.imageType(imageType);
+		Class<ImageGray> derivType = GImageDerivativeOps.getDerivativeType(type);
+		input = BenchmarkInputs.syntheticScene(type, size, 234);
+
+		fast = FactoryInterestPoint.wrapPoint(
+				FactoryDetectPoint.<ImageGray,ImageGray>createFast(
+						new ConfigFast(20, 9), new ConfigGeneralDetector(-1, 3, 20), type), 1, type, derivType);
+		shiTomasi = FactoryInterestPoint.wrapPoint(
+				FactoryDetectPoint.<ImageGray,ImageGray>createShiTomasi(
+						new ConfigGeneralDetector(-1, 3, 1), false, derivType), 1, type, derivType);
+		fastHessian = FactoryInterestPoint.fastHessian(new ConfigFastHessian(1, 2, -1, 2, 9, 4, 4));
+	}
+
+	@Benchmark
+	public int fast() {
+		fast.detect(input);
+		return fast.getNumberOfFeatures();
+	}
+
+	@Benchmark
+	public int shiTomasi() {
+		shiTomasi.detect(input);
+		return shiTomasi.getNumberOfFeatures();
+	}
+
+	@Benchmark
+	public int fastHessian() {
+		fastHessian.detect(input);
+		return fastHessian.getNumberOfFeatures();
+	}
+}
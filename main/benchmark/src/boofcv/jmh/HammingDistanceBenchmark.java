@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh;
+
+import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.struct.feature.PackedTupleArray_B;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hamming distance between binary descriptors.  One descriptor is compared against a set, which is what brute
+ * force association and library lookups do.  Also see BenchmarkDescriptorDistance in the feature module.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HammingDistanceBenchmark {
+
+	@Param({"256","512"})
+	public int numBits;
+
+	@Param({"1000","10000"})
+	public int setSize;
+
+	TupleDesc_B query;
+	FastQueue<TupleDesc_B> set;
+	PackedTupleArray_B packed;
+	long[] packedQuery;
+	int[] distances;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		query = random(rand);
+		set = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+		packed = new PackedTupleArray_B(numBits,setSize);
+		for (int i = 0; i < setSize; i++) {
+			TupleDesc_B d = random(rand);
+			set.add(d);
+			packed.add(d);
+		}
+		packedQuery = new long[packed.getNumLongs()];
+		distances = new int[setSize];
+	}
+
+	private TupleDesc_B random( Random rand ) {
+		TupleDesc_B d = new TupleDesc_B(numBits);
+		for (int i = 0; i < d.data.length; i++) {
+			d.data[i] = rand.nextInt();
+		}
+		return d;
+	}
+
+	@Benchmark
+	public int pairwise() {
+		int total = 0;
+		for (int i = 0; i < set.size; i++) {
+			total += DescriptorDistance.hamming(query, set.data[i]);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int[] oneVsMany() {
+		DescriptorDistance.hamming(query, set, distances);
+		return distances;
+	}
+
+	@Benchmark
+	public int[] oneVsManyPacked() {
+		PackedTupleArray_B.pack(query, packedQuery, 0);
+		DescriptorDistance.hamming(packedQuery, packed, distances);
+		return distances;
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh;
+
+import boofcv.factory.transform.pyramid.FactoryPyramid;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import boofcv.struct.pyramid.PyramidFloat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of image pyramids.  Used by trackers and scale invariant feature detectors.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImagePyramidBenchmark {
+
+	@Param({"GrayU8","GrayF32"})
+	public String imageType;
+
+	@Param({"640x480","1920x1080"})
+	public String size;
+
+	ImageGray input;
+
+	PyramidDiscrete<ImageGray> discrete;
+	PyramidFloat<ImageGray> scaleSpace;
+
+	@Setup
+	public void setup() {
+		Class<ImageGray> type = BenchmarkInputs.imageType(imageType);
+		input = BenchmarkInputs.randomImage(type, size, 234);
+
+		discrete = FactoryPyramid.discreteGaussian(new int[]{1, 2, 4, 8}, -1, 2, true, type);
+		scaleSpace = FactoryPyramid.scaleSpacePyramid(new double[]{1, 2, 4, 8}, type);
+	}
+
+	@Benchmark
+	public PyramidDiscrete<ImageGray> discreteGaussian() {
+		discrete.process(input);
+		return discrete;
+	}
+
+	@Benchmark
+	public PyramidFloat<ImageGray> scaleSpace() {
+		scaleSpace.process(input);
+		return scaleSpace;
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh;
+
+import boofcv.abst.feature.disparity.StereoDisparity;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.disparity.ConfigDisparitySgm;
+import boofcv.factory.feature.disparity.FactoryStereoDisparity;
+import boofcv.factory.feature.disparity.SgmCostType;
+import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Semi-Global Matching stereo disparity.  Compare against {@link StereoDisparityBenchmark}.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SgmStereoBenchmark {
+
+	@Param({"640x480","1280x960"})
+	public String size;
+
+	@Param({"64","128"})
+	public int maxDisparity;
+
+	@Param({"CENSUS","ABSOLUTE_DIFFERENCE"})
+	public String cost;
+
+	@Param({"4","8"})
+	public int paths;
+
+	@Param({"false","true"})
+	public boolean concurrent;
+
+	GrayU8 left;
+	GrayU8 right;
+
+	StereoDisparity<GrayU8,GrayU8> sgm;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		left = BenchmarkInputs.syntheticScene(GrayU8.class, size, 234);
+		right = left.createSameShape();
+		ImageMiscOps.copy(10, 0, 0, 0, left.width - 10, left.height, left, right);
+
+		ConfigDisparitySgm config = new ConfigDisparitySgm(0, maxDisparity);
+		config.cost = SgmCostType.valueOf(cost);
+		config.paths = paths;
+		sgm = FactoryStereoDisparity.sgm(config, GrayU8.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		BoofConcurrency.USE_CONCURRENT = false;
+	}
+
+	@Benchmark
+	public GrayU8 sgm() {
+		sgm.process(left, right);
+		return sgm.getDisparity();
+	}
+}
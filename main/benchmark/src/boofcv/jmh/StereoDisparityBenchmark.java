@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh;
+
+import boofcv.abst.feature.disparity.StereoDisparity;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.feature.disparity.DisparityAlgorithms;
+import boofcv.factory.feature.disparity.FactoryStereoDisparity;
+import boofcv.struct.image.ImageGray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dense stereo disparity.  The right image is the left image shifted by a constant amount.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StereoDisparityBenchmark {
+
+	@Param({"GrayU8","GrayF32"})
+	public String imageType;
+
+	@Param({"640x480","1280x960"})
+	public String size;
+
+	@Param({"64","128"})
+	public int maxDisparity;
+
+	ImageGray left;
+	ImageGray right;
+
+	StereoDisparity<ImageGray,ImageGray> rect;
+	StereoDisparity<ImageGray,ImageGray> rectFive;
+	StereoDisparity<ImageGray,ImageGray> rectSubpixel;
+
+	@Setup
+	public void setup() {
+		Class<ImageGray> type = BenchmarkInputs.imageType(imageType);
+		left = BenchmarkInputs.syntheticScene(type, size, 234);
+		right = (ImageGray)left.createSameShape();
+		GImageMiscOps.copy(10, 0, 0, 0, left.width - 10, left.height, left, right);
+
+		rect = (StereoDisparity)FactoryStereoDisparity.regionWta(DisparityAlgorithms.RECT,
+				0, maxDisparity, 3, 3, 30, 1, 0.2, type);
+		rectFive = (StereoDisparity)FactoryStereoDisparity.regionWta(DisparityAlgorithms.RECT_FIVE,
+				0, maxDisparity, 2, 2, 30, 1, 0.2, type);
+		rectSubpixel = (StereoDisparity)FactoryStereoDisparity.regionSubpixelWta(DisparityAlgorithms.RECT,
+				0, maxDisparity, 3, 3, 30, 1, 0.2, type);
+	}
+
+	@Benchmark
+	public ImageGray rect() {
+		rect.process(left, right);
+		return rect.getDisparity();
+	}
+
+	@Benchmark
+	public ImageGray rectFive() {
+		rectFive.process(left, right);
+		return rectFive.getDisparity();
+	}
+
+	@Benchmark
+	public ImageGray rectSubpixel() {
+		rectSubpixel.process(left, right);
+		return rectSubpixel.getDisparity();
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.describe;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.describe.FactoryDescribeRegionPoint;
+import boofcv.misc.PerformerBase;
+import boofcv.misc.ProfileOperation;
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.image.GrayF32;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares describing features one at a time against describing them in a batch with
+ * {@link DescribeRegionPointBatch}.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkDescribeConcurrent {
+	static int width = 1920;
+	static int height = 1080;
+	static int NUM_POINTS = 4000;
+	static long TEST_TIME = 1000;
+
+	static GrayF32 image = new GrayF32(width,height);
+
+	static List<Point2D_F64> locations = new ArrayList<Point2D_F64>();
+	static GrowQueue_F64 orientations = new GrowQueue_F64();
+	static GrowQueue_F64 radii = new GrowQueue_F64();
+
+	public static class Single<D extends TupleDesc> extends PerformerBase {
+		DescribeRegionPoint<GrayF32,D> alg;
+		String name;
+
+		public Single(String name, DescribeRegionPoint<GrayF32, D> alg) {
+			this.alg = alg;
+			this.name = name;
+		}
+
+		@Override
+		public void process() {
+			alg.setImage(image);
+			D d = alg.createDescription();
+			for (int i = 0; i < locations.size(); i++) {
+				Point2D_F64 p = locations.get(i);
+				alg.process(p.x, p.y, orientations.get(i), radii.get(i), d);
+			}
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+	}
+
+	public static class Batch<D extends TupleDesc> extends PerformerBase {
+		final DescribeRegionPointBatch<GrayF32,D> alg;
+		String name;
+		FastQueue<D> descriptions;
+		GrowQueue_B success = new GrowQueue_B();
+
+		public Batch(String name, DescribeRegionPoint<GrayF32, D> alg) {
+			this.alg = (DescribeRegionPointBatch<GrayF32,D>)alg;
+			this.name = name+" Batch";
+			descriptions = new FastQueue<D>(alg.getDescriptionType(),true) {
+				@Override
+				protected D createInstance() {
+					return Batch.this.alg.createDescription();
+				}
+			};
+		}
+
+		@Override
+		public void process() {
+			alg.setImage(image);
+			alg.process(locations, orientations, radii, descriptions, success);
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+	}
+
+	public static void main( String args[] ) {
+		Random rand = new Random(234);
+		GImageMiscOps.fillUniform(image, rand, 0, 255);
+
+		for (int i = 0; i < NUM_POINTS; i++) {
+			locations.add(new Point2D_F64(rand.nextDouble()*width, rand.nextDouble()*height));
+			orientations.add((rand.nextDouble()-0.5)*2*Math.PI);
+			radii.add(2 + rand.nextDouble()*20);
+		}
+
+		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
+		System.out.println("     features = "+NUM_POINTS+"  max threads = "+BoofConcurrency.getMaxThreads());
+		System.out.println();
+
+		ProfileOperation.printOpsPerSec(new Single("SURF-F",
+				FactoryDescribeRegionPoint.surfFast(null, GrayF32.class)), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Single("SIFT",
+				FactoryDescribeRegionPoint.sift(null, null, GrayF32.class)), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Single("BRIEF",
+				FactoryDescribeRegionPoint.brief(null, GrayF32.class)), TEST_TIME);
+
+		BoofConcurrency.USE_CONCURRENT = true;
+		ProfileOperation.printOpsPerSec(new Batch("SURF-F",
+				FactoryDescribeRegionPoint.surfFast(null, GrayF32.class)), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Batch("SIFT",
+				FactoryDescribeRegionPoint.sift(null, null, GrayF32.class)), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Batch("BRIEF",
+				FactoryDescribeRegionPoint.brief(null, GrayF32.class)), TEST_TIME);
+	}
+}
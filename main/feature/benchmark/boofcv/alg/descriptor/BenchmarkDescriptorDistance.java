@@ -20,7 +20,9 @@ package boofcv.alg.descriptor;
 
 import boofcv.misc.PerformerBase;
 import boofcv.misc.ProfileOperation;
+import boofcv.struct.feature.PackedTupleArray_B;
 import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -38,10 +40,20 @@ public class BenchmarkDescriptorDistance {
 	static List<TupleDesc_B>  binaryA = new ArrayList<TupleDesc_B>();
 	static List<TupleDesc_B>  binaryB = new ArrayList<TupleDesc_B>();
 
+	// same as binaryB but in formats used for one vs many distance
+	static FastQueue<TupleDesc_B> queueB = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+	static PackedTupleArray_B packedB = new PackedTupleArray_B(512,NUM_FEATURES);
+	static int[] distances = new int[NUM_FEATURES];
+
+	// number of descriptors in binaryA which are compared against all of binaryB
+	static int NUM_ONE_VS_MANY = 20;
+
 	static {
 		for (int i = 0; i < NUM_FEATURES; i++) {
 			binaryA.add(randomFeature());
 			binaryB.add(randomFeature());
+			queueB.add(binaryB.get(i));
+			packedB.add(binaryB.get(i));
 		}
 	}
 
@@ -89,6 +101,39 @@ public class BenchmarkDescriptorDistance {
 		}
 	}
 
+	public static class OneVsManyOld extends PerformerBase {
+		@Override
+		public void process() {
+			for (int i = 0; i < NUM_ONE_VS_MANY; i++) {
+				TupleDesc_B a = binaryA.get(i);
+				for (int j = 0; j < queueB.size; j++) {
+					distances[j] = ExperimentalDescriptorDistance.hamming(a,queueB.data[j]);
+				}
+			}
+		}
+	}
+
+	public static class OneVsMany extends PerformerBase {
+		@Override
+		public void process() {
+			for (int i = 0; i < NUM_ONE_VS_MANY; i++) {
+				DescriptorDistance.hamming(binaryA.get(i),queueB,distances);
+			}
+		}
+	}
+
+	public static class OneVsManyPacked extends PerformerBase {
+		long[] query = new long[packedB.getNumLongs()];
+
+		@Override
+		public void process() {
+			for (int i = 0; i < NUM_ONE_VS_MANY; i++) {
+				PackedTupleArray_B.pack(binaryA.get(i),query,0);
+				DescriptorDistance.hamming(query,packedB,distances);
+			}
+		}
+	}
+
 	private static TupleDesc_B randomFeature() {
 		TupleDesc_B feat = new TupleDesc_B(512);
 		for (int j = 0; j < feat.data.length; j++) {
@@ -103,6 +148,9 @@ public class BenchmarkDescriptorDistance {
 		ProfileOperation.printOpsPerSec(new HammingTable(),TEST_TIME);
 		ProfileOperation.printOpsPerSec(new HammingEquationOld(),TEST_TIME);
 		ProfileOperation.printOpsPerSec(new HammingEquation(),TEST_TIME);
+		ProfileOperation.printOpsPerSec(new OneVsManyOld(),TEST_TIME);
+		ProfileOperation.printOpsPerSec(new OneVsMany(),TEST_TIME);
+		ProfileOperation.printOpsPerSec(new OneVsManyPacked(),TEST_TIME);
 	}
 
 
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.misc.Performer;
+import boofcv.misc.ProfileOperation;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Random;
+
+/**
+ * Compares the single threaded and concurrent implementations of {@link AssociateGreedy} using sets of
+ * SURF and BRIEF sized descriptors.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkAssociationGreedyConcurrent {
+
+	static final long TEST_TIME = 2000;
+	static final Random rand = new Random(234234);
+	static final int NUM_FEATURES = 2000;
+
+	static final FastQueue<BrightFeature> surfA = createSurf();
+	static final FastQueue<BrightFeature> surfB = createSurf();
+	static final FastQueue<TupleDesc_B> briefA = createBrief();
+	static final FastQueue<TupleDesc_B> briefB = createBrief();
+
+	public static class General<D> implements Performer {
+
+		AssociateDescription<D> alg;
+		FastQueue<D> listA, listB;
+		String name;
+
+		public General(String name, AssociateDescription<D> alg, FastQueue<D> listA, FastQueue<D> listB ) {
+			this.alg = alg;
+			this.name = name;
+			this.listA = listA;
+			this.listB = listB;
+		}
+
+		@Override
+		public void process() {
+			alg.setSource(listA);
+			alg.setDestination(listB);
+			alg.associate();
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+	}
+
+	private static FastQueue<BrightFeature> createSurf() {
+		FastQueue<BrightFeature> ret = new FastQueue<BrightFeature>(BrightFeature.class, false);
+		for( int i = 0; i < NUM_FEATURES; i++ ) {
+			BrightFeature t = new BrightFeature(64);
+			for( int j = 0; j < t.value.length; j++ ) {
+				t.value[j] = rand.nextDouble()-0.5;
+			}
+			ret.add(t);
+		}
+		return ret;
+	}
+
+	private static FastQueue<TupleDesc_B> createBrief() {
+		FastQueue<TupleDesc_B> ret = new FastQueue<TupleDesc_B>(TupleDesc_B.class, false);
+		for( int i = 0; i < NUM_FEATURES; i++ ) {
+			TupleDesc_B t = new TupleDesc_B(512);
+			for( int j = 0; j < t.data.length; j++ ) {
+				t.data[j] = rand.nextInt();
+			}
+			ret.add(t);
+		}
+		return ret;
+	}
+
+	private static void profileAll() {
+		// the factory selects the implementation based on BoofConcurrency.USE_CONCURRENT
+		AssociateDescription<BrightFeature> surf = FactoryAssociation.greedy(
+				FactoryAssociation.defaultScore(BrightFeature.class), Double.MAX_VALUE, false);
+		AssociateDescription<BrightFeature> surfBackwards = FactoryAssociation.greedy(
+				FactoryAssociation.defaultScore(BrightFeature.class), Double.MAX_VALUE, true);
+		AssociateDescription<TupleDesc_B> brief = FactoryAssociation.greedy(
+				FactoryAssociation.defaultScore(TupleDesc_B.class), Double.MAX_VALUE, false);
+		AssociateDescription<TupleDesc_B> briefBackwards = FactoryAssociation.greedy(
+				FactoryAssociation.defaultScore(TupleDesc_B.class), Double.MAX_VALUE, true);
+
+		ProfileOperation.printOpsPerSec(new General<BrightFeature>("SURF", surf, surfA, surfB), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new General<BrightFeature>("SURF Backwards", surfBackwards, surfA, surfB), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new General<TupleDesc_B>("BRIEF", brief, briefA, briefB), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new General<TupleDesc_B>("BRIEF Backwards", briefBackwards, briefA, briefB), TEST_TIME);
+	}
+
+	public static void main( String args[] ) {
+		System.out.println("=========  Profile Num Features " + NUM_FEATURES + " x " + NUM_FEATURES + " ==========");
+		System.out.println();
+
+		System.out.println("Single Thread");
+		BoofConcurrency.USE_CONCURRENT = false;
+		profileAll();
+
+		System.out.println();
+		System.out.println("Concurrent: max threads = "+BoofConcurrency.getMaxThreads());
+		BoofConcurrency.USE_CONCURRENT = true;
+		profileAll();
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.misc.Performer;
+import boofcv.misc.ProfileOperation;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Random;
+
+
+/**
+ * Binary descriptor version of {@link BenchmarkAssociationSpeedRandom}.  Destination features are noisy copies
+ * of source features, similar to matching features in an image against a large map.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkAssociationSpeedBinary {
+
+	static final long TEST_TIME = 1000;
+	static final Random rand = new Random(234234);
+	static final int NUM_BITS = 256;
+	static final int NUM_SOURCE = 20000;
+	static final int NUM_DESTINATION = 1000;
+	static final int NOISE_BITS = 20;
+
+	static final FastQueue<TupleDesc_B> listA = createSet();
+	static final FastQueue<TupleDesc_B> listB = createNoisy(listA);
+
+	public static class General implements Performer {
+
+		AssociateDescription<TupleDesc_B> alg;
+		String name;
+
+		public General(String name, AssociateDescription<TupleDesc_B> alg) {
+			this.alg = alg;
+			this.name = name;
+		}
+
+		@Override
+		public void process() {
+			alg.setSource(listA);
+			alg.setDestination(listB);
+			alg.associate();
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+	}
+
+	private static FastQueue<TupleDesc_B> createSet() {
+		FastQueue<TupleDesc_B> ret = new FastQueue<TupleDesc_B>(10,TupleDesc_B.class, true) {
+				@Override
+				protected TupleDesc_B createInstance() {
+					return new TupleDesc_B(NUM_BITS);
+				}
+		};
+
+		for( int i = 0; i < NUM_SOURCE; i++ ) {
+			TupleDesc_B t = ret.grow();
+			for( int j = 0; j < t.data.length; j++ ) {
+				t.data[j] = rand.nextInt();
+			}
+		}
+		return ret;
+	}
+
+	private static FastQueue<TupleDesc_B> createNoisy( FastQueue<TupleDesc_B> src ) {
+		FastQueue<TupleDesc_B> ret = new FastQueue<TupleDesc_B>(TupleDesc_B.class, false);
+
+		for( int i = 0; i < NUM_DESTINATION; i++ ) {
+			TupleDesc_B t = src.get(rand.nextInt(src.size)).copy();
+			for( int j = 0; j < NOISE_BITS; j++ ) {
+				int bit = rand.nextInt(NUM_BITS);
+				t.data[bit/32] ^= 1 << (bit%32);
+			}
+			ret.add(t);
+		}
+		return ret;
+	}
+
+	public static void main( String argsp[ ] ) {
+		System.out.println("=========  Profile Description Bits "+NUM_BITS+" ========== Source "+NUM_SOURCE+
+				" Destination "+NUM_DESTINATION);
+		System.out.println();
+
+		ScoreAssociation<TupleDesc_B> score = FactoryAssociation.scoreHamming(TupleDesc_B.class);
+
+		ProfileOperation.printOpsPerSec(new General("Greedy", FactoryAssociation.greedy(score, Double.MAX_VALUE, false)),TEST_TIME);
+		ProfileOperation.printOpsPerSec(new General("Multi-Index Exact", FactoryAssociation.hammingMultiIndex(NUM_BITS, 16, -1, Double.MAX_VALUE)),TEST_TIME);
+		ProfileOperation.printOpsPerSec(new General("Multi-Index Radius 1", FactoryAssociation.hammingMultiIndex(NUM_BITS, 16, 1, Double.MAX_VALUE)),TEST_TIME);
+		ProfileOperation.printOpsPerSec(new General("Multi-Index Radius 0", FactoryAssociation.hammingMultiIndex(NUM_BITS, 16, 0, Double.MAX_VALUE)),TEST_TIME);
+	}
+}
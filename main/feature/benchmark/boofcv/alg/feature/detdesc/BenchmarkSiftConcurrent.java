@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detdesc.ConfigCompleteSift;
+import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
+import boofcv.misc.PerformerBase;
+import boofcv.misc.ProfileOperation;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.image.GrayF32;
+
+import java.util.Random;
+
+/**
+ * Compares the single threaded and concurrent implementations of {@link CompleteSift} for different numbers
+ * of threads.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkSiftConcurrent {
+	static int width = 1920;
+	static int height = 1080;
+	static long TEST_TIME = 4000;
+
+	static GrayF32 input;
+
+	public static class Detect extends PerformerBase {
+		DetectDescribePoint<GrayF32,BrightFeature> alg;
+		int maxThreads;
+
+		public Detect( int maxThreads ) {
+			this.maxThreads = maxThreads;
+			ConfigCompleteSift config = new ConfigCompleteSift(0,5,500);
+			config.maxThreads = maxThreads;
+			alg = FactoryDetectDescribe.sift(config);
+		}
+
+		@Override
+		public void process() {
+			alg.detect(input);
+		}
+
+		@Override
+		public String getName() {
+			return "SIFT threads = "+maxThreads;
+		}
+	}
+
+	public static void main( String args[] ) {
+		Random rand = new Random(234);
+		input = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+		input = BlurImageOps.gaussian(input, null, -1, 2, null);
+
+		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
+		System.out.println();
+
+		int maxThreads = Runtime.getRuntime().availableProcessors();
+		BoofConcurrency.setMaxThreads(maxThreads);
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			ProfileOperation.printOpsPerSec(new Detect(threads), TEST_TIME);
+		}
+	}
+}
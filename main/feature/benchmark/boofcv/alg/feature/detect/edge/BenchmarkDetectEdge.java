@@ -19,6 +19,7 @@
 package boofcv.alg.feature.detect.edge;
 
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.detect.edge.FactoryEdgeDetectors;
 import boofcv.misc.PerformerBase;
 import boofcv.misc.ProfileOperation;
@@ -88,6 +89,15 @@ public class BenchmarkDetectEdge {
 		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
 		System.out.println();
 
+		// the implementation is selected when the detector is created
+		System.out.println("Single Thread");
+		BoofConcurrency.USE_CONCURRENT = false;
+		ProfileOperation.printOpsPerSec(new CannyMark(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new CannyTrace(), TEST_TIME);
+
+		System.out.println();
+		System.out.println("Concurrent: max threads = "+BoofConcurrency.getMaxThreads());
+		BoofConcurrency.USE_CONCURRENT = true;
 		ProfileOperation.printOpsPerSec(new CannyMark(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new CannyTrace(), TEST_TIME);
 	}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.interest.ConfigFastHessian;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.ii.IntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detect.interest.FactoryInterestPointAlgs;
+import boofcv.misc.PerformerBase;
+import boofcv.misc.ProfileOperation;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+
+import java.util.Random;
+
+/**
+ * Compares the single threaded and concurrent implementations of {@link FastHessianFeatureDetector} on a
+ * 4K image.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkFastHessianConcurrent {
+	static int width = 3840;
+	static int height = 2160;
+	static long TEST_TIME = 2000;
+
+	static GrayS32 integral;
+
+	public static class Detect extends PerformerBase {
+		FastHessianFeatureDetector<GrayS32> alg;
+
+		public Detect( ConfigFastHessian config ) {
+			alg = FactoryInterestPointAlgs.fastHessian(config);
+		}
+
+		@Override
+		public void process() {
+			alg.detect(integral);
+		}
+
+		@Override
+		public String getName() {
+			return alg.getClass().getSimpleName();
+		}
+	}
+
+	private static void profileAll() {
+		ProfileOperation.printOpsPerSec(new Detect(new ConfigFastHessian(1, 2, -1, 1, 9, 4, 4)), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Detect(new ConfigFastHessian(1, 2, 200, 1, 9, 4, 4)), TEST_TIME);
+	}
+
+	public static void main( String args[] ) {
+		Random rand = new Random(234);
+		GrayU8 input = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+		integral = IntegralImageOps.transform(BlurImageOps.gaussian(input, null, -1, 2, null),null);
+
+		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
+		System.out.println();
+
+		System.out.println("Single Thread");
+		BoofConcurrency.USE_CONCURRENT = false;
+		profileAll();
+
+		System.out.println();
+		System.out.println("Concurrent: max threads = "+BoofConcurrency.getMaxThreads());
+		BoofConcurrency.USE_CONCURRENT = true;
+		profileAll();
+	}
+}
@@ -38,8 +38,8 @@ public class BenchmarkTemplateIntensity<T extends ImageGray> {
 	Random rand = new Random(234);
 	long TEST_TIME = 2000;
 
-	int width = 320;
-	int height = 240;
+	int width = 640;
+	int height = 480;
 
 	Class<T> imageType;
 	T image;
@@ -48,10 +48,7 @@ public class BenchmarkTemplateIntensity<T extends ImageGray> {
 	public BenchmarkTemplateIntensity(Class<T> imageType) {
 		this.imageType = imageType;
 		image = GeneralizedImageOps.createSingleBand(imageType,width,height);
-		template = GeneralizedImageOps.createSingleBand(imageType,20,30);
-
 		GImageMiscOps.fillUniform(image, rand, 0, 200);
-		GImageMiscOps.fillUniform(template, rand, 0, 200);
 	}
 
 	public class TemplatePerformer implements Performer {
@@ -59,9 +56,9 @@ public class BenchmarkTemplateIntensity<T extends ImageGray> {
 		TemplateMatchingIntensity<T> alg;
 		String name;
 
-		public TemplatePerformer(TemplateScoreType type) {
-			this.alg = FactoryTemplateMatching.createIntensity(type,imageType);
-			this.name = type.toString();
+		public TemplatePerformer(TemplateMatchingIntensity<T> alg, String name) {
+			this.alg = alg;
+			this.name = name;
 		}
 
 		@Override
@@ -79,8 +76,19 @@ public class BenchmarkTemplateIntensity<T extends ImageGray> {
 		System.out.println("=========  Profile Image Size " + width + " x " + height + " ========== "+imageType.getSimpleName());
 		System.out.println();
 
-		ProfileOperation.printOpsPerSec(new TemplatePerformer(TemplateScoreType.SUM_DIFF_SQ), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new TemplatePerformer(TemplateScoreType.NCC), TEST_TIME);
+		for( int size : new int[]{8,16,24,32,64} ) {
+			template = GeneralizedImageOps.createSingleBand(imageType,size,size);
+			GImageMiscOps.fillUniform(template, rand, 0, 200);
+
+			System.out.println("Template "+size+" x "+size);
+			for( TemplateScoreType type : TemplateScoreType.values() ) {
+				ProfileOperation.printOpsPerSec(new TemplatePerformer(
+						FactoryTemplateMatching.createIntensity(type, imageType, false),type+" spatial"), TEST_TIME);
+				ProfileOperation.printOpsPerSec(new TemplatePerformer(
+						FactoryTemplateMatching.createIntensity(type, imageType, true),type+" fourier"), TEST_TIME);
+			}
+			System.out.println();
+		}
 	}
 
 	public static void main( String args[] ) {
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.segmentation;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.segmentation.ms.SegmentMeanShift;
+import boofcv.alg.segmentation.ms.SegmentMeanShiftSearch;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.segmentation.ConfigSegmentMeanShift;
+import boofcv.factory.segmentation.FactorySegmentationAlg;
+import boofcv.misc.PerformerBase;
+import boofcv.misc.ProfileOperation;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.Planar;
+
+import java.util.Random;
+
+/**
+ * Compares mean-shift segmentation using the single threaded and concurrent implementations of
+ * {@link SegmentMeanShiftSearch}, with and without spacial bins
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkSegmentMeanShift {
+	static int width = 640;
+	static int height = 480;
+	static long TEST_TIME = 5000;
+
+	static GrayS32 output = new GrayS32(width,height);
+
+	public static class Search<T extends ImageBase> extends PerformerBase {
+		T input;
+		boolean fast;
+		int binSize;
+		SegmentMeanShift<T> alg;
+
+		public Search(T input, boolean fast, int binSize) {
+			this.input = input;
+			this.fast = fast;
+			this.binSize = binSize;
+		}
+
+		@Override
+		public void process() {
+			// created here since the concurrent setting is checked by the factory
+			if( alg == null ) {
+				ConfigSegmentMeanShift config = new ConfigSegmentMeanShift();
+				config.fast = fast;
+				config.binSize = binSize;
+				alg = FactorySegmentationAlg.meanShift(config, input.getImageType());
+			}
+			alg.process(input,output);
+		}
+
+		@Override
+		public String getName() {
+			return input.getImageType().getFamily()+" fast = "+fast+" bins = "+binSize;
+		}
+	}
+
+	private static void profileAll( GrayU8 gray , Planar<GrayU8> color ) {
+		for( boolean fast : new boolean[]{true,false}) {
+			for( int binSize : new int[]{0,8} ) {
+				ProfileOperation.printOpsPerSec(new Search<GrayU8>(gray, fast, binSize), TEST_TIME);
+				ProfileOperation.printOpsPerSec(new Search<Planar<GrayU8>>(color, fast, binSize), TEST_TIME);
+			}
+		}
+	}
+
+	public static void main( String args[] ) {
+		Random rand = new Random(234);
+
+		GrayU8 gray = new GrayU8(width,height);
+		Planar<GrayU8> color = new Planar<GrayU8>(GrayU8.class,width,height,3);
+
+		// regions of constant color with a bit of noise, similar to a natural image
+		for (int i = 0; i < 200; i++) {
+			int x = rand.nextInt(width), y = rand.nextInt(height);
+			int w = rand.nextInt(150), h = rand.nextInt(150);
+			GImageMiscOps.fillRectangle(gray, rand.nextInt(256), x, y, w, h);
+			for (int band = 0; band < 3; band++) {
+				GImageMiscOps.fillRectangle(color.getBand(band), rand.nextInt(256), x, y, w, h);
+			}
+		}
+		GImageMiscOps.addUniform(gray, rand, 0, 10);
+		GImageMiscOps.addUniform(color, rand, 0, 10);
+
+		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
+		System.out.println();
+
+		System.out.println("Single Thread");
+		BoofConcurrency.USE_CONCURRENT = false;
+		profileAll(gray, color);
+
+		System.out.println();
+		System.out.println("Concurrent: max threads = "+BoofConcurrency.getMaxThreads());
+		BoofConcurrency.USE_CONCURRENT = true;
+		profileAll(gray, color);
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.segmentation;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.segmentation.slic.SegmentSlic;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.segmentation.ConfigSlic;
+import boofcv.factory.segmentation.FactorySegmentationAlg;
+import boofcv.misc.PerformerBase;
+import boofcv.misc.ProfileOperation;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+
+import java.util.Random;
+
+/**
+ * Compares the single threaded and concurrent implementations of {@link SegmentSlic} on a large image
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkSegmentSlic {
+	static int width = 4000;
+	static int height = 3000;
+	static int numberOfRegions = 2000;
+	static long TEST_TIME = 10000;
+
+	static GrayS32 output = new GrayS32(width,height);
+
+	public static class Slic<T extends ImageBase> extends PerformerBase {
+		T input;
+		ImageType<T> imageType;
+		SegmentSlic<T> alg;
+
+		public Slic(T input) {
+			this.input = input;
+			this.imageType = input.getImageType();
+			// the concurrent setting is checked when processing, so the instance can be reused
+			alg = FactorySegmentationAlg.slic(new ConfigSlic(numberOfRegions),imageType);
+		}
+
+		@Override
+		public void process() {
+			alg.process(input,output);
+		}
+
+		@Override
+		public String getName() {
+			return "SLIC "+imageType;
+		}
+	}
+
+	private static void profileAll( GrayU8 gray_U8 , GrayF32 gray_F32 ,
+									Planar<GrayU8> color_U8 , Planar<GrayF32> color_F32 ) {
+		ProfileOperation.printOpsPerSec(new Slic<GrayU8>(gray_U8), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Slic<GrayF32>(gray_F32), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Slic<Planar<GrayU8>>(color_U8), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Slic<Planar<GrayF32>>(color_F32), TEST_TIME);
+	}
+
+	public static void main( String args[] ) {
+		Random rand = new Random(234);
+
+		GrayU8 gray_U8 = new GrayU8(width,height);
+		GrayF32 gray_F32 = new GrayF32(width,height);
+		Planar<GrayU8> color_U8 = new Planar<GrayU8>(GrayU8.class,width,height,3);
+		Planar<GrayF32> color_F32 = new Planar<GrayF32>(GrayF32.class,width,height,3);
+
+		// blocky image so that the number of regions is similar to a natural image
+		for (int i = 0; i < 400; i++) {
+			int x = rand.nextInt(width), y = rand.nextInt(height);
+			int w = rand.nextInt(600), h = rand.nextInt(600);
+			double value = rand.nextInt(200);
+			GImageMiscOps.fillRectangle(gray_U8, value, x, y, w, h);
+			GImageMiscOps.fillRectangle(gray_F32, value, x, y, w, h);
+			GImageMiscOps.fillRectangle(color_U8, value, x, y, w, h);
+			GImageMiscOps.fillRectangle(color_F32, value, x, y, w, h);
+		}
+
+		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
+		System.out.println();
+
+		System.out.println("Single Thread");
+		BoofConcurrency.USE_CONCURRENT = false;
+		profileAll(gray_U8, gray_F32, color_U8, color_F32);
+
+		System.out.println();
+		System.out.println("Concurrent: max threads = "+BoofConcurrency.getMaxThreads());
+		BoofConcurrency.USE_CONCURRENT = true;
+		profileAll(gray_U8, gray_F32, color_U8, color_F32);
+	}
+}
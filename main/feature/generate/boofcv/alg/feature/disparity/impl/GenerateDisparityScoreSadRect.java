@@ -32,6 +32,7 @@ public class GenerateDisparityScoreSadRect extends CodeGeneratorBase {
 	String dataAbr;
 	String bitWise;
 	String sumType;
+	boolean restart;
 
 	@Override
 	public void generate() throws FileNotFoundException {
@@ -47,12 +48,16 @@ public class GenerateDisparityScoreSadRect extends CodeGeneratorBase {
 		sumType = image.getSumType();
 
 		dataAbr = image.isInteger() ? "S32" : "F32";
+		// integer sums are exact and don't need to be restarted
+		restart = !image.isInteger();
 
 		printPreamble();
 		printConstructor();
 		printProcess();
 		printComputeFirstRow();
 		printComputeRemainingRows();
+		if( restart )
+			printSumVertical();
 		printTheRest();
 
 		out.println("}");
@@ -138,15 +143,19 @@ public class GenerateDisparityScoreSadRect extends CodeGeneratorBase {
 				"\t\t\t\t\tminDisparity,maxDisparity,regionWidth,elementScore);\n" +
 				"\t\t}\n" +
 				"\n" +
-				"\t\t// compute score for the top possible row\n" +
-				"\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
-				"\t\t\t"+sumType+" sum = 0;\n" +
-				"\t\t\tfor( int row = 0; row < regionHeight; row++ ) {\n" +
-				"\t\t\t\tsum += horizontalScore[row][i];\n" +
-				"\t\t\t}\n" +
-				"\t\t\tverticalScore[i] = sum;\n" +
-				"\t\t}\n" +
-				"\n" +
+				"\t\t// compute score for the top possible row\n");
+		if( restart ) {
+			out.print("\t\tsumVertical(0, verticalScore);\n");
+		} else {
+			out.print("\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
+					"\t\t\t"+sumType+" sum = 0;\n" +
+					"\t\t\tfor( int row = 0; row < regionHeight; row++ ) {\n" +
+					"\t\t\t\tsum += horizontalScore[row][i];\n" +
+					"\t\t\t}\n" +
+					"\t\t\tverticalScore[i] = sum;\n" +
+					"\t\t}\n");
+		}
+		out.print("\n" +
 				"\t\t// compute disparity\n" +
 				"\t\tcomputeDisparity.process(radiusY, verticalScore);\n" +
 				"\t}\n\n");
@@ -161,28 +170,67 @@ public class GenerateDisparityScoreSadRect extends CodeGeneratorBase {
 				"\tprivate void computeRemainingRows( "+typeInput+" left, "+typeInput+" right )\n" +
 				"\t{\n" +
 				"\t\tfor( int row = regionHeight; row < left.height; row++ ) {\n" +
-				"\t\t\tint oldRow = row%regionHeight;\n" +
-				"\n" +
+				"\t\t\tint oldRow = row%regionHeight;\n");
+		if( restart ) {
+			out.print("\t\t\tint firstRow = row - regionHeight + 1;\n" +
+					"\t\t\tboolean restart = firstRow % RESTART_PERIOD == 0;\n");
+		}
+		out.print("\n" +
 				"\t\t\t// subtract first row from vertical score\n" +
-				"\t\t\t"+sumType+" scores[] = horizontalScore[oldRow];\n" +
-				"\t\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
-				"\t\t\t\tverticalScore[i] -= scores[i];\n" +
-				"\t\t\t}\n" +
-				"\n" +
+				"\t\t\t"+sumType+" scores[] = horizontalScore[oldRow];\n");
+		if( restart ) {
+			out.print("\t\t\tif( !restart ) {\n" +
+					"\t\t\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
+					"\t\t\t\t\tverticalScore[i] -= scores[i];\n" +
+					"\t\t\t\t}\n" +
+					"\t\t\t}\n");
+		} else {
+			out.print("\t\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
+					"\t\t\t\tverticalScore[i] -= scores[i];\n" +
+					"\t\t\t}\n");
+		}
+		out.print("\n" +
 				"\t\t\tUtilDisparityScore.computeScoreRow(left, right, row, scores,\n" +
 				"\t\t\t\t\tminDisparity,maxDisparity,regionWidth,elementScore);\n" +
-				"\n" +
-				"\t\t\t// add the new score\n" +
-				"\t\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
-				"\t\t\t\tverticalScore[i] += scores[i];\n" +
-				"\t\t\t}\n" +
-				"\n" +
+				"\n");
+		if( restart ) {
+			out.print("\t\t\tif( restart ) {\n" +
+					"\t\t\t\t// start over to remove accumulated round off error\n" +
+					"\t\t\t\tsumVertical(firstRow, verticalScore);\n" +
+					"\t\t\t} else {\n" +
+					"\t\t\t\t// add the new score\n" +
+					"\t\t\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
+					"\t\t\t\t\tverticalScore[i] += scores[i];\n" +
+					"\t\t\t\t}\n" +
+					"\t\t\t}\n");
+		} else {
+			out.print("\t\t\t// add the new score\n" +
+					"\t\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
+					"\t\t\t\tverticalScore[i] += scores[i];\n" +
+					"\t\t\t}\n");
+		}
+		out.print("\n" +
 				"\t\t\t// compute disparity\n" +
 				"\t\t\tcomputeDisparity.process(row - regionHeight + 1 + radiusY, verticalScore);\n" +
 				"\t\t}\n" +
 				"\t}\n\n");
 	}
 
+	private void printSumVertical() {
+		out.print("\t/**\n" +
+				"\t * Sums the horizontal scores of the region which starts at firstRow, from the top row to the bottom row\n" +
+				"\t */\n" +
+				"\tprivate void sumVertical( int firstRow , "+sumType+" sum[] ) {\n" +
+				"\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
+				"\t\t\t"+sumType+" total = 0;\n" +
+				"\t\t\tfor( int row = 0; row < regionHeight; row++ ) {\n" +
+				"\t\t\t\ttotal += horizontalScore[(firstRow + row)%regionHeight][i];\n" +
+				"\t\t\t}\n" +
+				"\t\t\tsum[i] = total;\n" +
+				"\t\t}\n" +
+				"\t}\n\n");
+	}
+
 	private void printTheRest() {
 		out.print("\t@Override\n" +
 				"\tpublic Class<"+typeInput+"> getInputType() {\n" +
@@ -32,6 +32,7 @@ public class GenerateDisparityScoreSadRectFive extends CodeGeneratorBase {
 	String dataAbr;
 	String bitWise;
 	String sumType;
+	boolean restart;
 
 	@Override
 	public void generate() throws FileNotFoundException {
@@ -47,11 +48,15 @@ public class GenerateDisparityScoreSadRectFive extends CodeGeneratorBase {
 		sumType = image.getSumType();
 
 		dataAbr = image.isInteger() ? "S32" : "F32";
+		// integer sums are exact and don't need to be restarted
+		restart = !image.isInteger();
 
 		printPreamble();
 		printProcess();
 		printFirstRow();
 		printComputeRemainingRows();
+		if( restart )
+			printSumVertical();
 		printScoreFive();
 		printTheRest();
 
@@ -141,15 +146,19 @@ public class GenerateDisparityScoreSadRectFive extends CodeGeneratorBase {
 				"\t\t\t\t\tminDisparity, maxDisparity, regionWidth, elementScore);\n" +
 				"\t\t}\n" +
 				"\n" +
-				"\t\t// compute score for the top possible row\n" +
-				"\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
-				"\t\t\t"+sumType+" sum = 0;\n" +
-				"\t\t\tfor( int row = 0; row < regionHeight; row++ ) {\n" +
-				"\t\t\t\tsum += horizontalScore[row][i];\n" +
-				"\t\t\t}\n" +
-				"\t\t\tfirstRow[i] = sum;\n" +
-				"\t\t}\n" +
-				"\t}\n\n");
+				"\t\t// compute score for the top possible row\n");
+		if( restart ) {
+			out.print("\t\tsumVertical(0, firstRow);\n");
+		} else {
+			out.print("\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
+					"\t\t\t"+sumType+" sum = 0;\n" +
+					"\t\t\tfor( int row = 0; row < regionHeight; row++ ) {\n" +
+					"\t\t\t\tsum += horizontalScore[row][i];\n" +
+					"\t\t\t}\n" +
+					"\t\t\tfirstRow[i] = sum;\n" +
+					"\t\t}\n");
+		}
+		out.print("\t}\n\n");
 	}
 
 	private void printComputeRemainingRows() {
@@ -161,24 +170,48 @@ public class GenerateDisparityScoreSadRectFive extends CodeGeneratorBase {
 				"\tprivate void computeRemainingRows( "+typeInput+" left, "+typeInput+" right )\n" +
 				"\t{\n" +
 				"\t\tfor( int row = regionHeight; row < left.height; row++ , activeVerticalScore++) {\n" +
-				"\t\t\tint oldRow = row%regionHeight;\n" +
-				"\t\t\t"+sumType+" previous[] = verticalScore[ (activeVerticalScore -1) % regionHeight ];\n" +
-				"\t\t\t"+sumType+" active[] = verticalScore[ activeVerticalScore % regionHeight ];\n" +
-				"\n" +
+				"\t\t\tint oldRow = row%regionHeight;\n");
+		if( restart ) {
+			out.print("\t\t\tint firstRow = row - regionHeight + 1;\n" +
+					"\t\t\tboolean restart = firstRow % RESTART_PERIOD == 0;\n");
+		}
+		out.print("\t\t\t"+sumType+" previous[] = verticalScore[ (activeVerticalScore -1) % regionHeight ];\n" +
+				"\t\t\t"+sumType+" active[] = verticalScore[ activeVerticalScore % regionHeight ];\n");
+		out.print("\n" +
 				"\t\t\t// subtract first row from vertical score\n" +
-				"\t\t\t"+sumType+" scores[] = horizontalScore[oldRow];\n" +
-				"\t\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
-				"\t\t\t\tactive[i] = previous[i] - scores[i];\n" +
-				"\t\t\t}\n" +
-				"\n" +
+				"\t\t\t"+sumType+" scores[] = horizontalScore[oldRow];\n");
+		if( restart ) {
+			out.print("\t\t\tif( !restart ) {\n" +
+					"\t\t\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
+					"\t\t\t\t\tactive[i] = previous[i] - scores[i];\n" +
+					"\t\t\t\t}\n" +
+					"\t\t\t}\n");
+		} else {
+			out.print("\t\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
+					"\t\t\t\tactive[i] = previous[i] - scores[i];\n" +
+					"\t\t\t}\n");
+		}
+		out.print("\n" +
 				"\t\t\tUtilDisparityScore.computeScoreRow(left, right, row, scores,\n" +
 				"\t\t\t\t\tminDisparity,maxDisparity,regionWidth,elementScore);\n" +
-				"\n" +
-				"\t\t\t// add the new score\n" +
-				"\t\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
-				"\t\t\t\tactive[i] += scores[i];\n" +
-				"\t\t\t}\n" +
-				"\n" +
+				"\n");
+		if( restart ) {
+			out.print("\t\t\tif( restart ) {\n" +
+					"\t\t\t\t// start over to remove accumulated round off error\n" +
+					"\t\t\t\tsumVertical(firstRow, active);\n" +
+					"\t\t\t} else {\n" +
+					"\t\t\t\t// add the new score\n" +
+					"\t\t\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
+					"\t\t\t\t\tactive[i] += scores[i];\n" +
+					"\t\t\t\t}\n" +
+					"\t\t\t}\n");
+		} else {
+			out.print("\t\t\t// add the new score\n" +
+					"\t\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
+					"\t\t\t\tactive[i] += scores[i];\n" +
+					"\t\t\t}\n");
+		}
+		out.print("\n" +
 				"\t\t\tif( activeVerticalScore >= regionHeight-1 ) {\n" +
 				"\t\t\t\t"+sumType+" top[] = verticalScore[ (activeVerticalScore -2*radiusY) % regionHeight ];\n" +
 				"\t\t\t\t"+sumType+" middle[] = verticalScore[ (activeVerticalScore -radiusY) % regionHeight ];\n" +
@@ -191,6 +224,21 @@ public class GenerateDisparityScoreSadRectFive extends CodeGeneratorBase {
 				"\t}\n\n");
 	}
 
+	private void printSumVertical() {
+		out.print("\t/**\n" +
+				"\t * Sums the horizontal scores of the region which starts at firstRow, from the top row to the bottom row\n" +
+				"\t */\n" +
+				"\tprivate void sumVertical( int firstRow , "+sumType+" sum[] ) {\n" +
+				"\t\tfor( int i = 0; i < lengthHorizontal; i++ ) {\n" +
+				"\t\t\t"+sumType+" total = 0;\n" +
+				"\t\t\tfor( int row = 0; row < regionHeight; row++ ) {\n" +
+				"\t\t\t\ttotal += horizontalScore[(firstRow + row)%regionHeight][i];\n" +
+				"\t\t\t}\n" +
+				"\t\t\tsum[i] = total;\n" +
+				"\t\t}\n" +
+				"\t}\n\n");
+	}
+
 	private void printScoreFive() {
 		out.print("\t/**\n" +
 				"\t * Compute the final score by sampling the 5 regions.  Four regions are sampled around the center\n" +
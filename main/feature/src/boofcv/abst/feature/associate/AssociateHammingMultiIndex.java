@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import boofcv.alg.feature.associate.FindUnassociated;
+import boofcv.alg.feature.associate.HammingMultiIndex;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.MatchScoreType;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Associates binary descriptors using {@link HammingMultiIndex}.  Source features are added to the index when
+ * {@link #setSource} is called, then each destination feature is matched to its nearest neighbor in the source
+ * set.  Since building the index is much less expensive than brute force association, a large set of source
+ * features, e.g. a map, can be indexed once and matched against many destination sets.  Multiple matches for
+ * source features are possible while there will only be a unique match for each destination feature.
+ * </p>
+ *
+ * <p>
+ * The score is the Hamming distance, the same as {@link ScoreAssociateHamming_B}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class AssociateHammingMultiIndex implements AssociateDescription<TupleDesc_B> {
+
+	// index of source features
+	private HammingMultiIndex index;
+
+	// list of features in destination set that are to be searched for in the source list
+	private FastQueue<TupleDesc_B> listDst;
+
+	// List of final associated points
+	private FastQueue<AssociatedIndex> matches = new FastQueue<AssociatedIndex>(100,AssociatedIndex.class,true);
+
+	// creates a list of unassociated features from the list of matches
+	private FindUnassociated unassociated = new FindUnassociated();
+	// unassociated source features with removed descriptors filtered out
+	private GrowQueue_I32 unassociatedSrc = new GrowQueue_I32();
+
+	// maximum allowed hamming distance. if < 0 then there is no limit
+	private int maxDistance = -1;
+
+	public AssociateHammingMultiIndex(HammingMultiIndex index) {
+		this.index = index;
+	}
+
+	@Override
+	public void setSource(FastQueue<TupleDesc_B> listSrc) {
+		index.reset();
+		for( int i = 0; i < listSrc.size; i++ ) {
+			index.add(listSrc.data[i]);
+		}
+	}
+
+	@Override
+	public void setDestination(FastQueue<TupleDesc_B> listDst) {
+		this.listDst = listDst;
+	}
+
+	@Override
+	public void associate() {
+		matches.reset();
+		for( int i = 0; i < listDst.size; i++ ) {
+			index.findNearest(listDst.data[i], 1, maxDistance);
+			if( index.getResultIndexes().size == 0 )
+				continue;
+
+			matches.grow().setAssociation(index.getResultIndexes().get(0),i,index.getResultDistances().get(0));
+		}
+	}
+
+	@Override
+	public FastQueue<AssociatedIndex> getMatches() {
+		return matches;
+	}
+
+	@Override
+	public GrowQueue_I32 getUnassociatedSource() {
+		GrowQueue_I32 found = unassociated.checkSource(matches,index.getIndexUpperBound());
+
+		// indexes of removed descriptors are not features
+		unassociatedSrc.reset();
+		for( int i = 0; i < found.size; i++ ) {
+			int which = found.data[i];
+			if( index.get(which) != null )
+				unassociatedSrc.add(which);
+		}
+		return unassociatedSrc;
+	}
+
+	@Override
+	public GrowQueue_I32 getUnassociatedDestination() {
+		return unassociated.checkDestination(matches,listDst.size());
+	}
+
+	@Override
+	public void setThreshold(double score) {
+		this.maxDistance = score < 0 || score >= Integer.MAX_VALUE ? -1 : (int)score;
+	}
+
+	@Override
+	public MatchScoreType getScoreType() {
+		return MatchScoreType.NORM_ERROR;
+	}
+
+	@Override
+	public boolean uniqueSource() {
+		return false;
+	}
+
+	@Override
+	public boolean uniqueDestination() {
+		return true;
+	}
+
+	/**
+	 * The index which source features are added to.  Features can be added and removed from the index
+	 * directly, in which case match indexes refer to the index of the feature inside of it.
+	 */
+	public HammingMultiIndex getIndex() {
+		return index;
+	}
+}
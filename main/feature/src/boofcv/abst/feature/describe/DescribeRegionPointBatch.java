@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.describe;
+
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.image.ImageBase;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import java.util.List;
+
+/**
+ * {@link DescribeRegionPoint} which can also describe an entire set of features with a single function call.
+ * Since each feature is described independently, implementations are free to split the set up and
+ * describe features in parallel.  The results must be the same as calling
+ * {@link #process(double, double, double, double, TupleDesc)} for each feature.
+ *
+ * @author Peter Abeles
+ */
+public interface DescribeRegionPointBatch<T extends ImageBase, Desc extends TupleDesc>
+	extends DescribeRegionPoint<T,Desc>
+{
+	/**
+	 * Extracts descriptions for a set of features in the image passed to {@link #setImage}.  The i<sup>th</sup>
+	 * element in each input list refers to the same feature.
+	 *
+	 * @param locations Coordinate of each feature.
+	 * @param orientations Direction each feature is pointing at in radians.
+	 * @param radii Radius of each feature in pixels.
+	 * @param descriptions (output) Storage for extracted features.  Reset and then grown to the number of features.
+	 *                     Must declare new instances using {@link #createDescription}.
+	 * @param success (output) true if the description of the feature at the same index was computed.
+	 */
+	void process( List<Point2D_F64> locations , GrowQueue_F64 orientations , GrowQueue_F64 radii ,
+				  FastQueue<Desc> descriptions , GrowQueue_B success );
+}
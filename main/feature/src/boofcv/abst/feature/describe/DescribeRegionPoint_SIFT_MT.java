@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.describe;
+
+import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace;
+import boofcv.alg.feature.detect.interest.UnrollSiftScaleSpaceGradient;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.BoofDefaults;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link DescribeRegionPoint_SIFT}.  The scale-space gradient is computed once and
+ * shared.  When a batch of features is described it's split into blocks and each block is described by its own
+ * {@link DescribePointSift}, since the gradient images it samples from are set for each feature.
+ *
+ * @author Peter Abeles
+ */
+public class DescribeRegionPoint_SIFT_MT<T extends ImageGray>
+		extends DescribeRegionPoint_SIFT<T> implements DescribeRegionPointBatch<T,TupleDesc_F64>
+{
+	/**
+	 * Minimum number of features described by a thread
+	 */
+	public static int MIN_FEATURES = 20;
+
+	// algorithm for each block.  Instances are created as needed
+	FastQueue<DescribePointSift<GrayF32>> algs;
+
+	/**
+	 * Configures the algorithm
+	 *
+	 * @param scaleSpace Used to compute the scale-space
+	 * @param algs Storage for the algorithm which describes each block.  Must declare new instances.
+	 * @param imageType Type of input image
+	 */
+	public DescribeRegionPoint_SIFT_MT(SiftScaleSpace scaleSpace,
+									   FastQueue<DescribePointSift<GrayF32>> algs,
+									   Class<T> imageType ) {
+		super(scaleSpace, grow(algs), imageType);
+		this.algs = algs;
+	}
+
+	private static DescribePointSift<GrayF32> grow( FastQueue<DescribePointSift<GrayF32>> algs ) {
+		if( !algs.isDeclareInstances() )
+			throw new IllegalArgumentException("The queue must declare new instances of the algorithm");
+		if( algs.size() == 0 )
+			algs.grow();
+		return algs.get(0);
+	}
+
+	@Override
+	public void process(final List<Point2D_F64> locations, final GrowQueue_F64 orientations,
+						final GrowQueue_F64 radii, final FastQueue<TupleDesc_F64> descriptions,
+						final GrowQueue_B success)
+	{
+		final int N = locations.size();
+		if( orientations.size() < N || radii.size() < N )
+			throw new IllegalArgumentException("There must be an orientation and radius for each location");
+
+		descriptions.reset();
+		descriptions.resize(N);
+		success.resize(N);
+
+		algs.resize(Math.max(1,BoofConcurrency.computeNumBlocks(0, N, MIN_FEATURES)));
+
+		BoofConcurrency.loopBlocks(0, N, MIN_FEATURES, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				DescribePointSift<GrayF32> alg = algs.get(block);
+				for (int i = idx0; i < idx1; i++) {
+					Point2D_F64 p = locations.get(i);
+
+					// same as the single feature version, see comments there
+					double sigma = radii.get(i) / BoofDefaults.SIFT_SCALE_TO_RADIUS;
+					UnrollSiftScaleSpaceGradient.ImageScale image = scaleSpace.lookup(sigma);
+
+					alg.setImageGradient(image.derivX,image.derivY);
+					alg.process(p.x/image.imageToInput,p.y/image.imageToInput,sigma/image.imageToInput,
+							orientations.get(i),descriptions.get(i));
+					success.data[i] = true;
+				}
+			}
+		});
+	}
+}
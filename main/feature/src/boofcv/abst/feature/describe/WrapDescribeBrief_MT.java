@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.describe;
+
+import boofcv.alg.feature.describe.DescribePointBrief;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link WrapDescribeBrief}.  The image is blurred once when it's set.  After that
+ * {@link DescribePointBrief} only reads from its internal state when describing a feature, so a single instance
+ * is shared by all the threads and no additional storage is needed.
+ *
+ * @author Peter Abeles
+ */
+public class WrapDescribeBrief_MT<T extends ImageGray>
+		extends WrapDescribeBrief<T> implements DescribeRegionPointBatch<T,TupleDesc_B>
+{
+	/**
+	 * Minimum number of features described by a thread
+	 */
+	public static int MIN_FEATURES = 50;
+
+	public WrapDescribeBrief_MT(DescribePointBrief<T> alg, Class<T> imageType) {
+		super(alg, imageType);
+	}
+
+	@Override
+	public void process(final List<Point2D_F64> locations, GrowQueue_F64 orientations, GrowQueue_F64 radii,
+						final FastQueue<TupleDesc_B> descriptions, final GrowQueue_B success)
+	{
+		final int N = locations.size();
+
+		descriptions.reset();
+		descriptions.resize(N);
+		success.resize(N);
+
+		BoofConcurrency.loopBlocks(0, N, MIN_FEATURES, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					Point2D_F64 p = locations.get(i);
+					alg.process(p.x, p.y, descriptions.get(i));
+					success.data[i] = true;
+				}
+			}
+		});
+	}
+}
@@ -37,6 +37,12 @@ public class ConfigCompleteSift implements Configuration{
 	public ConfigSiftOrientation orientation = new ConfigSiftOrientation();
 	public ConfigSiftDescribe describe = new ConfigSiftDescribe();
 
+	/**
+	 * Maximum number of threads used to compute the scale-space and describe features.  If &le; 0 then
+	 * {@link boofcv.concurrency.BoofConcurrency} decides, one thread unless concurrency has been turned on.
+	 */
+	public int maxThreads = 0;
+
 	/**
 	 * Creates a configuration similar to how it was originally described in the paper
 	 */
@@ -19,12 +19,14 @@
 package boofcv.abst.feature.detdesc;
 
 import boofcv.abst.feature.describe.DescribeRegionPoint;
+import boofcv.abst.feature.describe.DescribeRegionPointBatch;
 import boofcv.abst.feature.detect.interest.InterestPointDetector;
 import boofcv.abst.feature.orientation.OrientationImage;
 import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.image.ImageGray;
 import georegression.struct.point.Point2D_F64;
 import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
 import org.ddogleg.struct.GrowQueue_F64;
 
 /**
@@ -56,6 +58,9 @@ public class DetectDescribeFusion<T extends ImageGray, TD extends TupleDesc>
 	private GrowQueue_F64 featureAngles = new GrowQueue_F64(10);
 	private FastQueue<Point2D_F64> location = new FastQueue<Point2D_F64>(10,Point2D_F64.class,false);
 
+	// storage for describing all the features in a single batch
+	private GrowQueue_B success = new GrowQueue_B(10);
+
 	/**
 	 * Configures the algorithm.
 	 *
@@ -111,6 +116,11 @@ public class DetectDescribeFusion<T extends ImageGray, TD extends TupleDesc>
 
 		int N = detector.getNumberOfFeatures();
 
+		if( describe instanceof DescribeRegionPointBatch ) {
+			describeBatch((DescribeRegionPointBatch<T,TD>)describe, N);
+			return;
+		}
+
 		for( int i = 0; i < N; i++ ) {
 			Point2D_F64 p = detector.getLocation(i);
 			double radius = detector.getRadius(i);
@@ -131,6 +141,49 @@ public class DetectDescribeFusion<T extends ImageGray, TD extends TupleDesc>
 		}
 	}
 
+	/**
+	 * Computes the location, radius, and orientation of every feature first and then describes all of them
+	 * in a single batch.  Features which could not be described are then removed.
+	 */
+	private void describeBatch( DescribeRegionPointBatch<T,TD> describe , int N ) {
+		for( int i = 0; i < N; i++ ) {
+			Point2D_F64 p = detector.getLocation(i);
+			double radius = detector.getRadius(i);
+			double yaw = detector.getOrientation(i);
+
+			if( orientation != null ) {
+				orientation.setObjectRadius(radius);
+				yaw = orientation.compute(p.x,p.y);
+			}
+
+			featureRadiuses.push(radius);
+			featureAngles.push(yaw);
+			location.add(p);
+		}
+
+		describe.process(location.toList(), featureAngles, featureRadiuses, descs, success);
+
+		// remove features which could not be described while preserving the order
+		int count = 0;
+		for( int i = 0; i < N; i++ ) {
+			if( !success.get(i) )
+				continue;
+			if( count != i ) {
+				TD tmp = descs.data[count];
+				descs.data[count] = descs.data[i];
+				descs.data[i] = tmp;
+				location.data[count] = location.data[i];
+				featureRadiuses.data[count] = featureRadiuses.data[i];
+				featureAngles.data[count] = featureAngles.data[i];
+			}
+			count++;
+		}
+		descs.size = count;
+		location.size = count;
+		featureRadiuses.size = count;
+		featureAngles.size = count;
+	}
+
 	@Override
 	public int getNumberOfFeatures() {
 		return location.size();
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.disparity;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.feature.disparity.DisparityScoreRowFormat;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link WrapDisparitySadRect}.  The image is split into horizontal slices and the
+ * disparity of each slice is computed in parallel.  Each slice is processed by its own instance of
+ * {@link DisparityScoreRowFormat}, which owns the score buffers, and is applied to sub-images which overlap
+ * the neighboring slices by the algorithm's vertical border.  Each slice starts at a multiple of
+ * {@link DisparityScoreRowFormat#RESTART_PERIOD} rows, where floating point running sums are recomputed from
+ * scratch, so the output is identical to the single threaded implementation for all image types.
+ * </p>
+ *
+ * <p>
+ * Rows which overlap are scored twice.  To keep that overhead small each slice has at least
+ * {@link #getMinimumRows()} rows, rounded up to a multiple of the restart period.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class WrapDisparitySadRect_MT<T extends ImageGray, D extends ImageGray>
+		implements StereoDisparity<T,D>
+{
+	// algorithm for each slice.  Instances are created as needed
+	FastQueue<DisparityScoreRowFormat<T,D>> algs;
+	D disparity;
+
+	// minimum number of disparity rows computed by a slice
+	int minimumRows = 20;
+
+	/**
+	 * Configures the algorithm
+	 *
+	 * @param algs Storage for the algorithm which processes each slice.  Must declare new instances.
+	 */
+	public WrapDisparitySadRect_MT(FastQueue<DisparityScoreRowFormat<T,D>> algs) {
+		if( !algs.isDeclareInstances() )
+			throw new IllegalArgumentException("The queue must declare new instances of the algorithm");
+		this.algs = algs;
+		if( algs.size() == 0 )
+			algs.grow();
+	}
+
+	@Override
+	public void process(final T imageLeft, final T imageRight) {
+		InputSanityCheck.checkSameShape(imageLeft, imageRight);
+
+		if( disparity == null || disparity.width != imageLeft.width || disparity.height != imageLeft.height )  {
+			// make sure the image borders are marked as invalid
+			disparity = GeneralizedImageOps.createSingleBand(getDisparityType(),imageLeft.width,imageLeft.height);
+			GImageMiscOps.fill(disparity, getMaxDisparity() + 1);
+		}
+
+		// only rows inside the vertical border are written to
+		final int border = algs.get(0).getBorderY();
+		final int y0 = border;
+		final int y1 = imageLeft.height - border;
+
+		// slices are made out of whole periods so that each one starts where the running sums are restarted
+		final int period = DisparityScoreRowFormat.RESTART_PERIOD;
+		int numPeriods = (y1 - y0 + period - 1)/period;
+		int minPeriods = (minimumRows + period - 1)/period;
+
+		int numBlocks = BoofConcurrency.computeNumBlocks(0, numPeriods, minPeriods);
+		if( numBlocks <= 1 ) {
+			algs.get(0).process(imageLeft, imageRight, disparity);
+			return;
+		}
+
+		algs.resize(numBlocks);
+
+		BoofConcurrency.loopBlocks(0, numPeriods, minPeriods, new IntRangeTask() {
+			@Override
+			public void process(int block, int period0, int period1) {
+				int width = imageLeft.width;
+				int idx0 = y0 + period0*period;
+				int idx1 = Math.min(y1, y0 + period1*period);
+
+				// the slice is expanded by the border so that the algorithm writes to exactly rows idx0 to idx1-1
+				T left = (T)imageLeft.subimage(0, idx0 - border, width, idx1 + border, null);
+				T right = (T)imageRight.subimage(0, idx0 - border, width, idx1 + border, null);
+				D output = (D)disparity.subimage(0, idx0 - border, width, idx1 + border, null);
+
+				algs.get(block).process(left, right, output);
+			}
+		});
+	}
+
+	@Override
+	public D getDisparity() {
+		return disparity;
+	}
+
+	@Override
+	public int getBorderX() {
+		return algs.get(0).getBorderX();
+	}
+
+	@Override
+	public int getBorderY() {
+		return algs.get(0).getBorderY();
+	}
+
+	@Override
+	public int getMinDisparity() {
+		return algs.get(0).getMinDisparity();
+	}
+
+	@Override
+	public int getMaxDisparity() {
+		return algs.get(0).getMaxDisparity();
+	}
+
+	@Override
+	public Class<T> getInputType() {
+		return algs.get(0).getInputType();
+	}
+
+	@Override
+	public Class<D> getDisparityType() {
+		return algs.get(0).getDisparityType();
+	}
+
+	public int getMinimumRows() {
+		return minimumRows;
+	}
+
+	/**
+	 * Specifies the minimum number of disparity rows which a single thread will compute.
+	 */
+	public void setMinimumRows(int minimumRows) {
+		if( minimumRows < 1 )
+			throw new IllegalArgumentException("Must be at least one");
+		this.minimumRows = minimumRows;
+	}
+}
@@ -19,6 +19,7 @@
 package boofcv.alg.descriptor;
 
 import boofcv.struct.feature.*;
+import org.ddogleg.struct.FastQueue;
 
 /**
  * Series of simple functions for computing difference distance measures between two descriptors.
@@ -187,35 +188,101 @@ public class DescriptorDistance {
 	}
 
 	/**
-	 * Computes the hamming distance between two binary feature descriptors
+	 * Computes the hamming distance between two binary feature descriptors.  Two integers are combined into
+	 * a long so that the distance is computed 64-bits at a time.
 	 *
 	 * @param a First variable
 	 * @param b Second variable
 	 * @return The hamming distance
 	 */
 	public static int hamming( TupleDesc_B a, TupleDesc_B b ) {
+		final int[] dataA = a.data;
+		final int[] dataB = b.data;
+		final int N = dataA.length;
+
 		int score = 0;
-		final int N = a.data.length;
-		for( int i = 0; i < N; i++ ) {
-			score += hamming(a.data[i] ^ b.data[i]);
+		int i = 0;
+		for( ; i+1 < N; i += 2 ) {
+			long x0 = dataA[i] ^ dataB[i];
+			long x1 = dataA[i+1] ^ dataB[i+1];
+			score += Long.bitCount((x0 & 0xFFFFFFFFL) | (x1 << 32));
+		}
+		if( i < N ) {
+			score += Integer.bitCount(dataA[i] ^ dataB[i]);
 		}
 		return score;
 	}
 
 	/**
-	 * <p>Computes the hamming distance.  A bit = 0 is a match and 1 is not match<p>
+	 * Computes the hamming distance between one descriptor and every descriptor in the list.
+	 *
+	 * @param a The descriptor being compared against the list
+	 * @param list List of descriptors
+	 * @param distances (Output) Hamming distance to each descriptor in the list.  Must be at least list.size long.
+	 */
+	public static void hamming( TupleDesc_B a , FastQueue<TupleDesc_B> list , int[] distances ) {
+		final int N = list.size;
+		for( int i = 0; i < N; i++ ) {
+			distances[i] = hamming(a,list.data[i]);
+		}
+	}
+
+	/**
+	 * Computes the hamming distance between one descriptor and every descriptor in the packed array.
+	 *
+	 * @param a The descriptor being compared, packed using {@link PackedTupleArray_B#pack}
+	 * @param set Set of packed descriptors
+	 * @param distances (Output) Hamming distance to each descriptor in the set.  Must be at least set.size() long.
+	 */
+	public static void hamming( long[] a , PackedTupleArray_B set , int[] distances ) {
+		final long[] data = set.data;
+		final int numLongs = set.getNumLongs();
+		final int N = set.size();
+
+		int index = 0;
+		for( int i = 0; i < N; i++ ) {
+			int score = 0;
+			for( int j = 0; j < numLongs; j++ ) {
+				score += Long.bitCount(a[j] ^ data[index++]);
+			}
+			distances[i] = score;
+		}
+	}
+
+	/**
+	 * Computes the hamming distance between two bit strings packed into arrays of longs
 	 *
-	 * Based on code snippet from <a href="http://graphics.stanford.edu/~seander/bithacks.html">Sean Eron Anderson Bit Twiddling Hacks</a>.
+	 * @param a First bit string
+	 * @param b Second bit string.  Same length as a.
+	 * @return The hamming distance
+	 */
+	public static int hamming( long[] a , long[] b ) {
+		int score = 0;
+		final int N = a.length;
+		for( int i = 0; i < N; i++ ) {
+			score += Long.bitCount(a[i] ^ b[i]);
+		}
+		return score;
+	}
+
+	/**
+	 * Computes the hamming distance.  A bit = 0 is a match and 1 is not match.  Modern JVMs
+	 * replace {@link Integer#bitCount} with a single instruction.
 	 *
 	 * @param val Hamming encoding
 	 * @return The hamming distance
 	 */
 	public static int hamming( int val ) {
-		int c;
-		int v = val;
-		v = v - ((v >> 1) & 0x55555555);
-		v = (v & 0x33333333) + ((v >> 2) & 0x33333333);
-		c = ((v + (v >> 4) & 0xF0F0F0F) * 0x1010101) >> 24;
-		return c;
+		return Integer.bitCount(val);
+	}
+
+	/**
+	 * Computes the hamming distance of a 64-bit value.  A bit = 0 is a match and 1 is not match.
+	 *
+	 * @param val Hamming encoding
+	 * @return The hamming distance
+	 */
+	public static int hamming( long val ) {
+		return Long.bitCount(val);
 	}
 }
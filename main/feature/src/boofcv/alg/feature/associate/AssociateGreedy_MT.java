@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link AssociateGreedy}.  Source features are split into blocks of rows
+ * which are processed in parallel.  Each block only writes to its own rows in the score matrix and its own
+ * elements in the list of pairs, so no locking is needed and the results are identical to the single
+ * threaded version.  Backwards validation only reads from the score matrix and is done in parallel the
+ * same way.
+ * </p>
+ *
+ * <p>
+ * The {@link ScoreAssociation} is shared between threads and must not have any internal state.
+ * </p>
+ *
+ * @param <D> Feature description type.
+ *
+ * @author Peter Abeles
+ */
+public class AssociateGreedy_MT<D> extends AssociateGreedy<D> {
+
+	// minimum number of source features in each block
+	public static int MIN_ROWS = 20;
+
+	// input lists
+	private FastQueue<D> src;
+	private FastQueue<D> dst;
+
+	// scores each row in the score matrix
+	private IntRangeTask forward = new IntRangeTask() {
+		@Override
+		public void process(int block, int idx0, int idx1) {
+			forward(idx0, idx1);
+		}
+	};
+
+	// validates associations using the score matrix
+	private IntRangeTask backwards = new IntRangeTask() {
+		@Override
+		public void process(int block, int idx0, int idx1) {
+			backwards(idx0, idx1);
+		}
+	};
+
+	/**
+	 * Configure association
+	 *
+	 * @param score Computes the association score.  Must be thread safe.
+	 * @param backwardsValidation If true then backwards validation is performed.
+	 */
+	public AssociateGreedy_MT(ScoreAssociation<D> score, boolean backwardsValidation) {
+		super(score, backwardsValidation);
+	}
+
+	@Override
+	public void associate( FastQueue<D> src , FastQueue<D> dst ) {
+		this.src = src;
+		this.dst = dst;
+
+		// declare storage for every row before any thread writes to it
+		fitQuality.resize(src.size);
+		pairs.resize(src.size);
+		workBuffer.resize(src.size*dst.size);
+
+		BoofConcurrency.loopBlocks(0, src.size, MIN_ROWS, forward);
+
+		if( backwardsValidation ) {
+			BoofConcurrency.loopBlocks(0, src.size, MIN_ROWS, backwards);
+		}
+
+		this.src = null;
+		this.dst = null;
+	}
+
+	/**
+	 * Finds the best match for source features from idx0 to idx1-1
+	 */
+	private void forward( int idx0 , int idx1 ) {
+		final double[] work = workBuffer.data;
+
+		for( int i = idx0; i < idx1; i++ ) {
+			D a = src.data[i];
+			double bestScore = maxFitError;
+			int bestIndex = -1;
+
+			int index = i*dst.size;
+			for( int j = 0; j < dst.size; j++ ) {
+				double fit = score.score(a,dst.data[j]);
+				work[index++] = fit;
+
+				if( fit <= bestScore ) {
+					bestIndex = j;
+					bestScore = fit;
+				}
+			}
+			pairs.data[i] = bestIndex;
+			fitQuality.data[i] = bestScore;
+		}
+	}
+
+	/**
+	 * Backwards validation for source features from idx0 to idx1-1
+	 */
+	private void backwards( int idx0 , int idx1 ) {
+		final double[] work = workBuffer.data;
+
+		for( int i = idx0; i < idx1; i++ ) {
+			int match = pairs.data[i];
+			if( match == -1 )
+				continue;
+
+			double scoreToBeat = work[i*dst.size+match];
+
+			for( int j = 0; j < src.size; j++ , match += dst.size ) {
+				if( work[match] <= scoreToBeat && j != i) {
+					pairs.data[i] = -1;
+					fitQuality.data[i] = Double.MAX_VALUE;
+					break;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.struct.feature.AssociatedIndex;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Functions for manipulating the output of association.
+ *
+ * @author Peter Abeles
+ */
+public class AssociationOps {
+
+	private static final Comparator<AssociatedIndex> FIT_SCORE = new Comparator<AssociatedIndex>() {
+		@Override
+		public int compare(AssociatedIndex a, AssociatedIndex b) {
+			return Double.compare(a.fitScore, b.fitScore);
+		}
+	};
+
+	/**
+	 * Sorts matches so that the best match is first.  Scores from
+	 * {@link boofcv.abst.feature.associate.ScoreAssociation} are always lower for better matches.  The
+	 * sort is stable.  Used to order matches for PROSAC.
+	 *
+	 * @param matches Matches which are sorted in place
+	 */
+	public static void sortByFitScore( FastQueue<AssociatedIndex> matches ) {
+		Arrays.sort(matches.data, 0, matches.size, FIT_SCORE);
+	}
+}
@@ -0,0 +1,425 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Index for quickly finding binary descriptors which are close to each other in Hamming space using
+ * Multi-Index Hashing [1].  Each descriptor is split into m substrings and each substring is used as the key
+ * into its own hash table.  If two descriptors have a Hamming distance &le; r then by the pigeonhole principle
+ * at least one of their substrings have a distance &le; floor(r/m).  Candidates are found by looking up all
+ * keys within a small radius of each of the query's substrings, then the full distance is computed only for the
+ * candidates.
+ * </p>
+ *
+ * <p>
+ * Nearest neighbor searches increase the substring search radius until no better descriptor can exist and
+ * return exact results.  If {@link #setMaxSubstringRadius(int) max substring radius} is &ge; 0 then the search
+ * radius is limited.  This trades recall for speed.  A value of 0 or 1 is typically very fast and finds most
+ * matches for descriptors with a small distance.
+ * </p>
+ *
+ * <p>
+ * Descriptors can be added and removed at any time.  The index of a descriptor does not change when other
+ * descriptors are removed.  A reference to each descriptor is saved and they must not be modified while
+ * inside the index.
+ * </p>
+ *
+ * <p>
+ * [1] Norouzi, Mohammad, Ali Punjani, and David J. Fleet. "Fast search in hamming space with multi-index
+ * hashing." CVPR 2012
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HammingMultiIndex {
+
+	// number of bits in each descriptor
+	int numBits;
+	// number of bits in each substring. The last substring can be smaller
+	int substringBits;
+	// number of substrings and hash tables
+	int numTables;
+
+	// maximum radius which is searched for each substring. if < 0 then there is no limit
+	int maxSubstringRadius = -1;
+
+	// hash table for each substring.  Key is the substring's value.  Buckets are lazily created
+	GrowQueue_I32[][] tables;
+
+	// descriptors in the index.  null if removed
+	List<TupleDesc_B> items = new ArrayList<TupleDesc_B>();
+	int numItems;
+	// indexes which have been removed and can be recycled
+	GrowQueue_I32 unused = new GrowQueue_I32();
+
+	// marks which items have already been examined in the current search
+	GrowQueue_I32 visited = new GrowQueue_I32();
+	int searchID = 0;
+
+	// work space for enumerating keys inside a radius
+	int[] flipBits;
+
+	// results of nearest neighbor search sorted by distance
+	GrowQueue_I32 bestIndex = new GrowQueue_I32();
+	GrowQueue_I32 bestDistance = new GrowQueue_I32();
+
+	// search parameters
+	TupleDesc_B query;
+	int searchK;
+	int searchMaxDistance;
+	// if true it's a radius search, otherwise k-nearest neighbor
+	boolean searchRadius;
+
+	/**
+	 * Configures the index
+	 *
+	 * @param numBits Number of bits in each descriptor
+	 * @param substringBits Number of bits in each substring.  From 1 to 24.  Try log<sub>2</sub> of the expected
+	 *                      number of descriptors
+	 */
+	public HammingMultiIndex(int numBits, int substringBits) {
+		if( numBits <= 0 )
+			throw new IllegalArgumentException("numBits must be > 0");
+		if( substringBits <= 0 || substringBits > 24 )
+			throw new IllegalArgumentException("substringBits must be from 1 to 24");
+
+		substringBits = Math.min(substringBits,numBits);
+		this.numBits = numBits;
+		this.substringBits = substringBits;
+		this.numTables = (numBits + substringBits - 1)/substringBits;
+
+		tables = new GrowQueue_I32[numTables][];
+		for (int i = 0; i < numTables; i++) {
+			tables[i] = new GrowQueue_I32[1 << substringLength(i)];
+		}
+		flipBits = new int[substringBits];
+	}
+
+	/**
+	 * Removes all descriptors from the index
+	 */
+	public void reset() {
+		for (int i = 0; i < numTables; i++) {
+			GrowQueue_I32[] table = tables[i];
+			for (int j = 0; j < table.length; j++) {
+				if( table[j] != null )
+					table[j].reset();
+			}
+		}
+		items.clear();
+		unused.reset();
+		visited.reset();
+		numItems = 0;
+	}
+
+	/**
+	 * Adds a descriptor to the index
+	 *
+	 * @param desc Descriptor.  A reference is saved.
+	 * @return Index of the descriptor
+	 */
+	public int add( TupleDesc_B desc ) {
+		if( desc.numBits != numBits )
+			throw new IllegalArgumentException("Descriptor has an unexpected number of bits");
+
+		int index;
+		if( unused.size > 0 ) {
+			index = unused.pop();
+			items.set(index,desc);
+		} else {
+			index = items.size();
+			items.add(desc);
+			visited.add(searchID);
+		}
+		numItems++;
+
+		for (int i = 0; i < numTables; i++) {
+			GrowQueue_I32[] table = tables[i];
+			int key = substring(desc,i);
+			if( table[key] == null )
+				table[key] = new GrowQueue_I32(4);
+			table[key].add(index);
+		}
+		return index;
+	}
+
+	/**
+	 * Removes the descriptor with the specified index from the index.  The index can be assigned to a descriptor
+	 * which is added later on.
+	 *
+	 * @param index Index of the descriptor
+	 */
+	public void remove( int index ) {
+		TupleDesc_B desc = items.get(index);
+		if( desc == null )
+			throw new IllegalArgumentException("Descriptor has already been removed");
+
+		for (int i = 0; i < numTables; i++) {
+			GrowQueue_I32 bucket = tables[i][substring(desc,i)];
+			for (int j = 0; j < bucket.size; j++) {
+				if( bucket.data[j] == index ) {
+					bucket.remove(j);
+					break;
+				}
+			}
+		}
+		items.set(index,null);
+		unused.add(index);
+		numItems--;
+	}
+
+	/**
+	 * Finds the k-nearest neighbors which have a distance &le; maxDistance.  Results are found in
+	 * {@link #getResultIndexes()} and {@link #getResultDistances()}, sorted by distance.  Ties are broken
+	 * by the order they are found in.
+	 *
+	 * @param query The descriptor being searched for
+	 * @param k Maximum number of neighbors
+	 * @param maxDistance Maximum Hamming distance, inclusive.  If &lt; 0 then there is no limit.
+	 */
+	public void findNearest( TupleDesc_B query , int k , int maxDistance ) {
+		if( k <= 0 )
+			throw new IllegalArgumentException("k must be > 0");
+		search(query, k, maxDistance < 0 ? Integer.MAX_VALUE : maxDistance, false);
+	}
+
+	/**
+	 * Finds all descriptors which have a distance &le; radius.  Results are found in
+	 * {@link #getResultIndexes()} and {@link #getResultDistances()}, sorted by distance.
+	 *
+	 * @param query The descriptor being searched for
+	 * @param radius Maximum Hamming distance, inclusive.
+	 */
+	public void findRadius( TupleDesc_B query , int radius ) {
+		if( radius < 0 )
+			throw new IllegalArgumentException("radius must be >= 0");
+		search(query, Integer.MAX_VALUE, radius, true);
+	}
+
+	private void search( TupleDesc_B query , int k , int maxDistance , boolean searchRadius ) {
+		if( query.numBits != numBits )
+			throw new IllegalArgumentException("Descriptor has an unexpected number of bits");
+
+		this.query = query;
+		this.searchK = k;
+		this.searchMaxDistance = maxDistance;
+		this.searchRadius = searchRadius;
+
+		bestIndex.reset();
+		bestDistance.reset();
+		if( numItems == 0 )
+			return;
+
+		nextSearchID();
+
+		// if the distance is <= maxDistance then at least one substring must have a distance <= this
+		int maxRadius = Math.min(substringBits, maxDistance/numTables);
+		if( maxSubstringRadius >= 0 )
+			maxRadius = Math.min(maxRadius, maxSubstringRadius);
+
+		for (int radius = 0; radius <= maxRadius; radius++) {
+			for (int table = 0; table < numTables; table++) {
+				if( radius <= substringLength(table) )
+					probe(table, substring(query, table), radius);
+			}
+
+			// all descriptors which have not been examined have a distance of at least this
+			if( !searchRadius && bestIndex.size == k ) {
+				long lowerBound = (long)(radius+1)*numTables;
+				if( bestDistance.data[k-1] < lowerBound )
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Examines all the descriptors in buckets whose key has the specified Hamming distance from the key
+	 */
+	private void probe( int table , int key , int radius ) {
+		int length = substringLength(table);
+
+		// enumerate every combination of bits to flip in increasing order
+		for (int i = 0; i < radius; i++) {
+			flipBits[i] = i;
+		}
+
+		while( true ) {
+			int probeKey = key;
+			for (int i = 0; i < radius; i++) {
+				probeKey ^= 1 << flipBits[i];
+			}
+			examine(tables[table][probeKey]);
+
+			// next combination
+			int i = radius-1;
+			while( i >= 0 && flipBits[i] == length - radius + i )
+				i--;
+			if( i < 0 )
+				break;
+			flipBits[i]++;
+			for (int j = i+1; j < radius; j++) {
+				flipBits[j] = flipBits[j-1]+1;
+			}
+		}
+	}
+
+	private void examine( GrowQueue_I32 bucket ) {
+		if( bucket == null )
+			return;
+
+		for (int i = 0; i < bucket.size; i++) {
+			int index = bucket.data[i];
+			if( visited.data[index] == searchID )
+				continue;
+			visited.data[index] = searchID;
+
+			int distance = DescriptorDistance.hamming(query, items.get(index));
+			if( distance > searchMaxDistance )
+				continue;
+
+			if( searchRadius ) {
+				insert(index, distance, Integer.MAX_VALUE);
+			} else if( bestIndex.size < searchK || distance < bestDistance.data[bestIndex.size-1] ) {
+				insert(index, distance, searchK);
+			}
+		}
+	}
+
+	/**
+	 * Inserts the result into the sorted list of results
+	 */
+	private void insert( int index , int distance , int maxSize ) {
+		if( bestIndex.size < maxSize ) {
+			bestIndex.add(0);
+			bestDistance.add(0);
+		}
+
+		int i = bestIndex.size-1;
+		while( i > 0 && bestDistance.data[i-1] > distance ) {
+			bestIndex.data[i] = bestIndex.data[i-1];
+			bestDistance.data[i] = bestDistance.data[i-1];
+			i--;
+		}
+		bestIndex.data[i] = index;
+		bestDistance.data[i] = distance;
+	}
+
+	private void nextSearchID() {
+		searchID++;
+		if( searchID == Integer.MAX_VALUE ) {
+			searchID = 1;
+			for (int i = 0; i < visited.size; i++) {
+				visited.data[i] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Number of bits in the specified substring
+	 */
+	int substringLength( int table ) {
+		return Math.min(substringBits, numBits - table*substringBits);
+	}
+
+	/**
+	 * Extracts the value of a substring from the descriptor
+	 */
+	int substring( TupleDesc_B desc , int table ) {
+		int bit0 = table*substringBits;
+		int length = substringLength(table);
+
+		int index = bit0 / 32;
+		int offset = bit0 % 32;
+
+		long bits = desc.data[index] & 0xFFFFFFFFL;
+		if( offset + length > 32 )
+			bits |= (desc.data[index+1] & 0xFFFFFFFFL) << 32;
+
+		return (int)((bits >>> offset) & ((1L << length) - 1));
+	}
+
+	/**
+	 * Indexes of the descriptors found by the most recent search
+	 */
+	public GrowQueue_I32 getResultIndexes() {
+		return bestIndex;
+	}
+
+	/**
+	 * Hamming distance of the descriptors found by the most recent search
+	 */
+	public GrowQueue_I32 getResultDistances() {
+		return bestDistance;
+	}
+
+	/**
+	 * Returns the descriptor with the specified index or null if it has been removed
+	 */
+	public TupleDesc_B get( int index ) {
+		return items.get(index);
+	}
+
+	/**
+	 * Number of descriptors in the index
+	 */
+	public int size() {
+		return numItems;
+	}
+
+	/**
+	 * Upper bound on descriptor indexes.  All indexes ever assigned are less than this value, including
+	 * ones which have been removed.
+	 */
+	public int getIndexUpperBound() {
+		return items.size();
+	}
+
+	public int getNumTables() {
+		return numTables;
+	}
+
+	public int getSubstringBits() {
+		return substringBits;
+	}
+
+	public int getNumBits() {
+		return numBits;
+	}
+
+	public int getMaxSubstringRadius() {
+		return maxSubstringRadius;
+	}
+
+	/**
+	 * Maximum radius which is searched for each substring.  Smaller values are faster but can miss neighbors.
+	 *
+	 * @param maxSubstringRadius Maximum radius.  If &lt; 0 then there is no limit and results are exact.
+	 */
+	public void setMaxSubstringRadius(int maxSubstringRadius) {
+		this.maxSubstringRadius = maxSubstringRadius;
+	}
+}
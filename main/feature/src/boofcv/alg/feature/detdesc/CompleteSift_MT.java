@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detect.extract.NonMaxLimiter;
+import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace;
+import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link CompleteSift}.  Features are detected in each scale the same way as before,
+ * but instead of being described immediately they are saved.  Once all the features in a scale have been found
+ * their orientations are estimated and descriptors computed in parallel.  The list of detections is split into
+ * contiguous blocks, each with its own {@link OrientationHistogramSift}, {@link DescribePointSift}, and storage.
+ * Results from each block are then added in order, making the output identical to the single threaded version.
+ * </p>
+ *
+ * <p>
+ * Pair with {@link boofcv.alg.feature.detect.interest.SiftScaleSpace_MT} to compute the scale-space concurrently too.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CompleteSift_MT extends CompleteSift {
+
+	/**
+	 * Minimum number of detections processed by a thread
+	 */
+	public static int MIN_FEATURES = 10;
+
+	// maximum number of threads used at once
+	int maxThreads;
+
+	// algorithms used by each block.  Instances are created as needed
+	FastQueue<OrientationHistogramSift<GrayF32>> blockOrientation;
+	FastQueue<DescribePointSift<GrayF32>> blockDescribe;
+	FastQueue<BlockResults> blockResults;
+
+	// detections in the scale currently being processed
+	FastQueue<ScalePoint> candidates = new FastQueue<ScalePoint>(ScalePoint.class,false);
+
+	/**
+	 * Configures SIFT.  See {@link CompleteSift#CompleteSift} for a description of the other parameters.
+	 *
+	 * @param orientation Storage for the orientation algorithm used by each block. Must declare new instances.
+	 * @param describe Storage for the descriptor used by each block. Must declare new instances.
+	 * @param maxThreads Maximum number of threads it will use.  Also limited by
+	 * {@link BoofConcurrency#getMaxThreads()}.
+	 */
+	public CompleteSift_MT(SiftScaleSpace scaleSpace, double edgeR, NonMaxLimiter extractor,
+						   FastQueue<OrientationHistogramSift<GrayF32>> orientation,
+						   FastQueue<DescribePointSift<GrayF32>> describe,
+						   int maxThreads ) {
+		super(scaleSpace, edgeR, extractor, first(orientation), first(describe));
+
+		this.blockOrientation = orientation;
+		this.blockDescribe = describe;
+		this.maxThreads = maxThreads;
+
+		final int dof = getDescriptorLength();
+		blockResults = new FastQueue<BlockResults>(1,BlockResults.class,true) {
+			@Override
+			protected BlockResults createInstance() {
+				return new BlockResults(dof);
+			}
+		};
+	}
+
+	private static <T> T first( FastQueue<T> queue ) {
+		if( !queue.isDeclareInstances() )
+			throw new IllegalArgumentException("The queue must declare new instances of the algorithm");
+		if( queue.size() == 0 )
+			queue.grow();
+		return queue.get(0);
+	}
+
+	@Override
+	protected void detectFeatures(int scaleIndex) {
+		candidates.reset();
+
+		// computes the gradient and finds all the detections in this scale
+		super.detectFeatures(scaleIndex);
+
+		final int N = candidates.size;
+		int numBlocks = Math.max(1,BoofConcurrency.computeNumBlocks(0, N, MIN_FEATURES, maxThreads));
+		blockOrientation.resize(numBlocks);
+		blockDescribe.resize(numBlocks);
+		blockResults.resize(numBlocks);
+
+		BoofConcurrency.loopBlocks(0, N, MIN_FEATURES, maxThreads, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				OrientationHistogramSift<GrayF32> orientation = blockOrientation.get(block);
+				DescribePointSift<GrayF32> describe = blockDescribe.get(block);
+				BlockResults results = blockResults.get(block);
+				results.reset();
+
+				orientation.setImageGradient(derivX,derivY);
+				describe.setImageGradient(derivX,derivY);
+
+				for (int i = idx0; i < idx1; i++) {
+					ScalePoint p = candidates.get(i);
+
+					// same as the single threaded version.  See comments there
+					double localX = p.x / pixelScaleToInput;
+					double localY = p.y / pixelScaleToInput;
+					double localSigma = p.scale / pixelScaleToInput;
+
+					orientation.process(localX,localY,localSigma);
+
+					GrowQueue_F64 angles = orientation.getOrientations();
+					for (int j = 0; j < angles.size; j++) {
+						BrightFeature feature = results.features.grow();
+						feature.white = p.white;
+						describe.process(localX,localY,localSigma,angles.get(j),feature);
+
+						results.orientations.add(angles.get(j));
+						results.locations.add(p);
+					}
+				}
+			}
+		});
+
+		// add the results in the same order as they would have been in the single threaded version
+		for (int block = 0; block < blockResults.size; block++) {
+			BlockResults results = blockResults.get(block);
+			for (int i = 0; i < results.features.size; i++) {
+				features.grow().setTo(results.features.get(i));
+				orientations.add(results.orientations.get(i));
+				locations.add(results.locations.get(i));
+			}
+			results.reset();
+		}
+	}
+
+	@Override
+	protected void handleDetection(ScalePoint p) {
+		// orientation and description is done later in parallel
+		candidates.add(p);
+	}
+
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	/**
+	 * Features found by a single block
+	 */
+	private static class BlockResults {
+		FastQueue<BrightFeature> features;
+		GrowQueue_F64 orientations = new GrowQueue_F64();
+		FastQueue<ScalePoint> locations = new FastQueue<ScalePoint>(ScalePoint.class,false);
+
+		BlockResults( final int dof ) {
+			features = new FastQueue<BrightFeature>(BrightFeature.class,true) {
+				@Override
+				protected BrightFeature createInstance() {
+					return new BrightFeature(dof);
+				}
+			};
+		}
+
+		void reset() {
+			features.reset();
+			orientations.reset();
+			locations.reset();
+		}
+	}
+}
@@ -21,12 +21,15 @@ package boofcv.alg.feature.detect.edge;
 import boofcv.abst.filter.blur.BlurFilter;
 import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS8;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
 
 import java.util.List;
 
@@ -40,10 +43,21 @@ import java.util.List;
  * The output from this class can be configured to output a binary edge image and/or a set of contours
  * for each point in the contour image.
  *
+ * If it's allowed to use more than one thread then it will use a concurrent implementation, which
+ * produces identical results.  The blur and gradient are computed by the provided
+ * filters.  The edge intensity, direction, and non-maximum suppression are computed in bands of rows
+ * concurrently, and hysteresis thresholding is done by {@link HysteresisEdgeTraceMark_MT} or
+ * {@link HysteresisEdgeTracePoints_MT}.
+ *
  * @author Peter Abeles
  */
 public class CannyEdge<T extends ImageGray, D extends ImageGray> {
 
+	/**
+	 * Minimum number of rows in a band when edge features are computed concurrently
+	 */
+	public static int MIN_BAND_HEIGHT = 32;
+
 	// blurs the input image
 	private BlurFilter<T> blur;
 
@@ -67,6 +81,18 @@ public class CannyEdge<T extends ImageGray, D extends ImageGray> {
 	// work space
 	private GrayU8 work = new GrayU8(1,1);
 
+	// maximum number of threads used at once
+	private int maxThreads;
+	// should the concurrent implementation be used
+	private boolean concurrent;
+	// non-maximum suppression of each band and the rows around it
+	private FastQueue<GrayF32> bandSuppressed = new FastQueue<GrayF32>(GrayF32.class,true) {
+		@Override
+		protected GrayF32 createInstance() {
+			return new GrayF32(1,1);
+		}
+	};
+
 	// different algorithms for performing hysteresis thresholding
 	protected HysteresisEdgeTracePoints hysteresisPts; // saves a list of points
 	protected HysteresisEdgeTraceMark hysteresisMark; // just marks a binary image
@@ -79,6 +105,19 @@ public class CannyEdge<T extends ImageGray, D extends ImageGray> {
 	 * @param saveTrace Should it save a list of points that compose the objects contour/trace?
 	 */
 	public CannyEdge(BlurFilter<T> blur, ImageGradient<T, D> gradient, boolean saveTrace) {
+		this(blur, gradient, saveTrace, 1);
+	}
+
+	/**
+	 * Specify internal algorithms and behavior.
+	 *
+	 * @param blur Initial blur applied to image.
+	 * @param gradient Computes the image gradient.
+	 * @param saveTrace Should it save a list of points that compose the objects contour/trace?
+	 * @param maxThreads Maximum number of threads it will use.  Also limited by
+	 * {@link BoofConcurrency#getMaxThreads()}.
+	 */
+	public CannyEdge(BlurFilter<T> blur, ImageGradient<T, D> gradient, boolean saveTrace, int maxThreads) {
 		this.blur = blur;
 		this.gradient = gradient;
 
@@ -88,10 +127,15 @@ public class CannyEdge<T extends ImageGray, D extends ImageGray> {
 		derivX = gradient.getDerivativeType().createImage(1,1);
 		derivY = gradient.getDerivativeType().createImage(1, 1);
 
+		this.maxThreads = maxThreads;
+		concurrent = maxThreads > 1;
+
 		if( saveTrace ) {
-			hysteresisPts = new HysteresisEdgeTracePoints();
+			hysteresisPts = concurrent ?
+					new HysteresisEdgeTracePoints_MT(maxThreads) : new HysteresisEdgeTracePoints();
 		} else {
-			hysteresisMark = new HysteresisEdgeTraceMark();
+			hysteresisMark = concurrent ?
+					new HysteresisEdgeTraceMark_MT(maxThreads) : new HysteresisEdgeTraceMark();
 		}
 	}
 
@@ -131,14 +175,59 @@ public class CannyEdge<T extends ImageGray, D extends ImageGray> {
 		// run canny edge detector
 		blur.process(input,blurred);
 		gradient.process(blurred, derivX, derivY);
-		GGradientToEdgeFeatures.intensityAbs(derivX, derivY, intensity);
-		GGradientToEdgeFeatures.direction(derivX, derivY, angle);
-		GradientToEdgeFeatures.discretizeDirection4(angle, direction);
-		GradientToEdgeFeatures.nonMaxSuppression4(intensity, direction, suppressed);
+		if( concurrent ) {
+			computeEdgesConcurrent();
+		} else {
+			GGradientToEdgeFeatures.intensityAbs(derivX, derivY, intensity);
+			GGradientToEdgeFeatures.direction(derivX, derivY, angle);
+			GradientToEdgeFeatures.discretizeDirection4(angle, direction);
+			GradientToEdgeFeatures.nonMaxSuppression4(intensity, direction, suppressed);
+		}
 
 		performThresholding(threshLow, threshHigh, output);
 	}
 
+	/**
+	 * Computes the edge intensity, direction, and non-maximum suppression in bands of rows concurrently
+	 */
+	private void computeEdgesConcurrent() {
+		final int width = derivX.width;
+		final int height = derivX.height;
+
+		// intensity and direction only depend on the gradient at the same pixel
+		BoofConcurrency.loopBlocks(0, height, MIN_BAND_HEIGHT, maxThreads, new IntRangeTask() {
+			@Override
+			public void process(int block, int y0, int y1) {
+				D bandX = (D)derivX.subimage(0, y0, width, y1, null);
+				D bandY = (D)derivY.subimage(0, y0, width, y1, null);
+				GrayF32 bandAngle = angle.subimage(0, y0, width, y1, null);
+				GrayS8 bandDirection = direction.subimage(0, y0, width, y1, null);
+
+				GGradientToEdgeFeatures.intensityAbs(bandX, bandY, intensity.subimage(0, y0, width, y1, null));
+				GGradientToEdgeFeatures.direction(bandX, bandY, bandAngle);
+				GradientToEdgeFeatures.discretizeDirection4(bandAngle, bandDirection);
+			}
+		});
+
+		// non-maximum suppression also looks at the rows above and below.  Each band is processed with
+		// those rows included, which gives the same result as the whole image, then only its own rows are saved
+		bandSuppressed.resize(BoofConcurrency.computeNumBlocks(0, height, MIN_BAND_HEIGHT, maxThreads));
+		BoofConcurrency.loopBlocks(0, height, MIN_BAND_HEIGHT, maxThreads, new IntRangeTask() {
+			@Override
+			public void process(int block, int y0, int y1) {
+				int b0 = Math.max(0, y0-1);
+				int b1 = Math.min(height, y1+1);
+
+				GrayF32 out = bandSuppressed.get(block);
+				out.reshape(width, b1-b0);
+				GradientToEdgeFeatures.nonMaxSuppression4(intensity.subimage(0, b0, width, b1, null),
+						direction.subimage(0, b0, width, b1, null), out);
+
+				suppressed.subimage(0, y0, width, y1, null).setTo(out.subimage(0, y0-b0, width, y1-b0, null));
+			}
+		});
+	}
+
 	protected void performThresholding(float threshLow, float threshHigh, GrayU8 output) {
 		if( hysteresisPts != null ) {
 			hysteresisPts.process(suppressed,direction,threshLow,threshHigh);
@@ -160,4 +249,8 @@ public class CannyEdge<T extends ImageGray, D extends ImageGray> {
 	public List<EdgeContour> getContours() {
 		return hysteresisPts.getContours();
 	}
+
+	public int getMaxThreads() {
+		return maxThreads;
+	}
 }
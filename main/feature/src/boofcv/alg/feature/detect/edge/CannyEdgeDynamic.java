@@ -43,6 +43,17 @@ public class CannyEdgeDynamic<T extends ImageGray, D extends ImageGray> extends
 		super(blur, gradient,saveTrace);
 	}
 
+	/**
+	 * Constructor and configures algorithm
+	 *
+	 * @param blur Used during the image blur pre-process step.
+	 * @param gradient Computes image gradient.
+	 * @param maxThreads Maximum number of threads it will use.
+	 */
+	public CannyEdgeDynamic(BlurFilter<T> blur, ImageGradient<T, D> gradient, boolean saveTrace, int maxThreads) {
+		super(blur, gradient,saveTrace,maxThreads);
+	}
+
 	@Override
 	protected void performThresholding(float threshLow, float threshHigh, GrayU8 output) {
 
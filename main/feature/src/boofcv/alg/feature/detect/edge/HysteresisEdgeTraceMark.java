@@ -70,10 +70,7 @@ public class HysteresisEdgeTraceMark {
 		InputSanityCheck.checkSameShape(intensity,direction,output);
 
 		// set up internal data structures
-		this.intensity = intensity;
-		this.direction = direction;
-		this.output = output;
-		this.lower = lower;
+		setImages(intensity, direction, lower, output);
 		ImageMiscOps.fill(output,0);
 
 		// step through each pixel in the image
@@ -89,6 +86,16 @@ public class HysteresisEdgeTraceMark {
 		}
 	}
 
+	/**
+	 * Specifies the images which are traced.  Used when seeds are not found by scanning the whole image.
+	 */
+	protected void setImages( GrayF32 intensity , GrayS8 direction , float lower , GrayU8 output ) {
+		this.intensity = intensity;
+		this.direction = direction;
+		this.output = output;
+		this.lower = lower;
+	}
+
 	/**
 	 * Traces along object's contour starting at the specified seed.  As it does so it will set the intensity of
 	 * points which are below the lower threshold to zero and add points to contour.
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.edge;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS8;
+import boofcv.struct.image.GrayU8;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link HysteresisEdgeTraceMark}.  Seeds are split between threads using
+ * {@link HysteresisSeedPartition}, so that seeds which can reach the same pixels are traced by the same
+ * thread in raster order.  The output is identical to the single threaded implementation.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HysteresisEdgeTraceMark_MT extends HysteresisEdgeTraceMark {
+
+	/**
+	 * Minimum number of rows in a band which is processed by a thread
+	 */
+	public static int MIN_BAND_HEIGHT = 32;
+
+	private HysteresisSeedPartition partition = new HysteresisSeedPartition();
+
+	// maximum number of threads used at once
+	private int maxThreads;
+
+	// tracer used by each thread
+	private FastQueue<HysteresisEdgeTraceMark> workers =
+			new FastQueue<HysteresisEdgeTraceMark>(HysteresisEdgeTraceMark.class,true);
+
+	/**
+	 * Uses as many threads as {@link BoofConcurrency#getMaxThreads()} allows
+	 */
+	public HysteresisEdgeTraceMark_MT() {
+		this(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param maxThreads Maximum number of threads it will use.  Also limited by
+	 * {@link BoofConcurrency#getMaxThreads()}.
+	 */
+	public HysteresisEdgeTraceMark_MT( int maxThreads ) {
+		this.maxThreads = maxThreads;
+	}
+
+	@Override
+	public void process(final GrayF32 intensity, final GrayS8 direction, final float lower, float upper,
+						final GrayU8 output) {
+		if( lower < 0 )
+			throw new IllegalArgumentException("Lower must be >= 0!");
+		InputSanityCheck.checkSameShape(intensity,direction,output);
+
+		ImageMiscOps.fill(output,0);
+
+		partition.process(intensity, lower, upper, MIN_BAND_HEIGHT, maxThreads);
+		workers.resize(partition.numBands);
+
+		BoofConcurrency.loopBlocks(0, intensity.height, MIN_BAND_HEIGHT, maxThreads, new IntRangeTask() {
+			@Override
+			public void process(int block, int y0, int y1) {
+				HysteresisEdgeTraceMark worker = workers.get(block);
+				worker.setImages(intensity, direction, lower, output);
+
+				int width = intensity.width;
+				for (int band = 0; band < partition.numBands; band++) {
+					GrowQueue_I32 seeds = partition.seeds.get(band);
+					GrowQueue_I32 owners = partition.owners.get(band);
+
+					for (int i = 0; i < seeds.size; i++) {
+						if( owners.data[i] != block )
+							continue;
+						int x = seeds.data[i] % width;
+						int y = seeds.data[i] / width;
+						int indexInten = intensity.startIndex + y*intensity.stride + x;
+
+						// it might have been traversed by an earlier seed
+						if( intensity.data[indexInten] != MARK_TRAVERSED )
+							worker.trace(x, y, indexInten);
+					}
+				}
+			}
+		});
+	}
+
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+}
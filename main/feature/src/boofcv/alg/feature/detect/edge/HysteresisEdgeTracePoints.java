@@ -79,11 +79,7 @@ public class HysteresisEdgeTracePoints {
 		InputSanityCheck.checkSameShape(intensity, direction);
 
 		// set up internal data structures
-		this.intensity = intensity;
-		this.direction = direction;
-		this.lower = lower;
-		queuePoints.reset();
-		contours.clear();
+		setImages(intensity, direction, lower);
 
 		// step through each pixel in the image
 		for( int y = 0; y < intensity.height; y++ ) {
@@ -98,6 +94,18 @@ public class HysteresisEdgeTracePoints {
 		}
 	}
 
+	/**
+	 * Specifies the images which are traced and discards previously found contours.  Used when seeds are
+	 * not found by scanning the whole image.
+	 */
+	protected void setImages( GrayF32 intensity , GrayS8 direction , float lower ) {
+		this.intensity = intensity;
+		this.direction = direction;
+		this.lower = lower;
+		queuePoints.reset();
+		contours.clear();
+	}
+
 	/**
 	 * Traces along object's contour starting at the specified seed.  As it does so it will set the intensity of
 	 * points which are below the lower threshold to zero and add points to contour.
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.edge;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Splits the seeds used by hysteresis edge tracing between threads so that they can be traced concurrently
+ * and produce the same results as tracing them one at a time in raster order.  A trace only moves to pixels
+ * which are &ge; the lower threshold and are 8-connected to the previous pixel.  Which pixels it visits
+ * depends on the order seeds are traced in, but only on the order of seeds inside the same 8-connected
+ * region.  Seeds in different regions never interact.
+ * </p>
+ *
+ * <p>
+ * Regions are found with union-find.  The image is split into bands of rows which are labeled concurrently,
+ * then the rows where bands meet are joined.  Each region is assigned to the band which contains its first
+ * pixel in raster order.  Seeds, pixels &ge; the upper threshold, are saved in raster order for each band
+ * along with the band which owns their region.  A thread traces the seeds it owns from all bands in order.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+class HysteresisSeedPartition {
+
+	// union-find parent of each pixel.  -1 if below the lower threshold.  Roots are the first pixel in the region
+	private int[] parent = new int[0];
+	private int width;
+
+	// seeds and the band which owns them, for each band
+	FastQueue<GrowQueue_I32> seeds = createQueue();
+	FastQueue<GrowQueue_I32> owners = createQueue();
+
+	// first row in each band
+	private int[] bandStart = new int[0];
+	int numBands;
+
+	/**
+	 * Finds the regions and seeds
+	 *
+	 * @param intensity Intensity after non-maximum suppression. Not modified.
+	 * @param lower Lower threshold
+	 * @param upper Upper threshold
+	 * @param minBandHeight Minimum number of rows in a band
+	 * @param maxThreads Maximum number of threads used.  Also limited by {@link BoofConcurrency#getMaxThreads()}.
+	 */
+	public void process( final GrayF32 intensity , final float lower , final float upper ,
+						 int minBandHeight , int maxThreads ) {
+		final int height = intensity.height;
+		width = intensity.width;
+		if( parent.length < width*height )
+			parent = new int[width*height];
+
+		numBands = BoofConcurrency.computeNumBlocks(0, height, minBandHeight, maxThreads);
+		seeds.resize(numBands);
+		owners.resize(numBands);
+		if( bandStart.length < numBands+1 )
+			bandStart = new int[numBands+1];
+		for (int i = 0; i <= numBands; i++) {
+			bandStart[i] = BoofConcurrency.blockStart(0, height, numBands, i);
+		}
+
+		BoofConcurrency.loopBlocks(0, height, minBandHeight, maxThreads, new IntRangeTask() {
+			@Override
+			public void process(int block, int y0, int y1) {
+				labelBand(intensity, lower, upper, y0, y1, seeds.get(block));
+			}
+		});
+
+		// join regions which cross between bands
+		for (int band = 1; band < numBands; band++) {
+			joinRows(bandStart[band]);
+		}
+
+		BoofConcurrency.loopBlocks(0, height, minBandHeight, maxThreads, new IntRangeTask() {
+			@Override
+			public void process(int block, int y0, int y1) {
+				assignOwners(seeds.get(block), owners.get(block));
+			}
+		});
+	}
+
+	private void labelBand( GrayF32 intensity , float lower , float upper , int y0 , int y1 , GrowQueue_I32 seeds ) {
+		seeds.reset();
+		// a seed is traced even if it's below the lower threshold, so it must be part of a region
+		float minimum = Math.min(lower, upper);
+		for (int y = y0; y < y1; y++) {
+			int indexInten = intensity.startIndex + y*intensity.stride;
+			int index = y*width;
+			for (int x = 0; x < width; x++, index++, indexInten++) {
+				float value = intensity.data[indexInten];
+				if( value < minimum ) {
+					parent[index] = -1;
+					continue;
+				}
+				parent[index] = index;
+				if( value >= upper )
+					seeds.add(index);
+
+				if( x > 0 && parent[index-1] >= 0 )
+					union(index-1, index);
+				if( y > y0 )
+					unionAbove(x, index);
+			}
+		}
+	}
+
+	/**
+	 * Joins pixels in row y to 8-connected pixels in the row above it
+	 */
+	private void joinRows( int y ) {
+		int index = y*width;
+		for (int x = 0; x < width; x++, index++) {
+			if( parent[index] >= 0 )
+				unionAbove(x, index);
+		}
+	}
+
+	private void unionAbove( int x , int index ) {
+		int above = index-width;
+		if( x > 0 && parent[above-1] >= 0 )
+			union(above-1, index);
+		if( parent[above] >= 0 )
+			union(above, index);
+		if( x+1 < width && parent[above+1] >= 0 )
+			union(above+1, index);
+	}
+
+	private void assignOwners( GrowQueue_I32 seeds , GrowQueue_I32 owners ) {
+		owners.resize(seeds.size);
+		for (int i = 0; i < seeds.size; i++) {
+			int root = findNoCompress(seeds.data[i]);
+			owners.data[i] = bandOf(root/width);
+		}
+	}
+
+	private int bandOf( int row ) {
+		int band = 0;
+		while( bandStart[band+1] <= row )
+			band++;
+		return band;
+	}
+
+	/**
+	 * Union by minimum, so that the root is always the first pixel in raster order
+	 */
+	private void union( int a , int b ) {
+		int rootA = find(a);
+		int rootB = find(b);
+		if( rootA < rootB )
+			parent[rootB] = rootA;
+		else if( rootB < rootA )
+			parent[rootA] = rootB;
+	}
+
+	private int find( int index ) {
+		while( parent[index] != index ) {
+			// path halving
+			parent[index] = parent[parent[index]];
+			index = parent[index];
+		}
+		return index;
+	}
+
+	/**
+	 * Find which doesn't modify the tree and can be called by several threads at once
+	 */
+	private int findNoCompress( int index ) {
+		while( parent[index] != index ) {
+			index = parent[index];
+		}
+		return index;
+	}
+
+	private static FastQueue<GrowQueue_I32> createQueue() {
+		return new FastQueue<GrowQueue_I32>(GrowQueue_I32.class,true);
+	}
+}
@@ -47,4 +47,27 @@ public class GIntegralImageFeatureIntensity {
 			throw new IllegalArgumentException("Unsupported input type");
 		}
 	}
+
+	/**
+	 * Computes an approximation to the Hessian's determinant inside the specified range of rows.
+	 *
+	 * @param integral Integral image transform of input image. Not modified.
+	 * @param skip How many pixels should it skip over.
+	 * @param size Hessian kernel's size.
+	 * @param intensity Output intensity image.
+	 * @param y0 First row in intensity image, inclusive
+	 * @param y1 Last row in intensity image, exclusive
+	 */
+	public static <T extends ImageGray>
+	void hessian( T integral, int skip , int size ,
+				  GrayF32 intensity , int y0 , int y1 ) {
+
+		if( integral instanceof GrayF32) {
+			IntegralImageFeatureIntensity.hessian((GrayF32)integral,skip,size,intensity,y0,y1);
+		} else if( integral instanceof GrayS32) {
+			IntegralImageFeatureIntensity.hessian((GrayS32)integral,skip,size,intensity,y0,y1);
+		} else {
+			throw new IllegalArgumentException("Unsupported input type");
+		}
+	}
 }
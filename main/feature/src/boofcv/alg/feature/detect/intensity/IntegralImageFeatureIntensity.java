@@ -48,6 +48,24 @@ public class IntegralImageFeatureIntensity {
 		ImplIntegralImageFeatureIntensity.hessianInner(integral,skip,size,intensity);
 	}
 
+	/**
+	 * Computes an approximation to the Hessian's determinant inside the specified range of rows.  Different
+	 * ranges of rows can be processed independently, e.g. by different threads.
+	 *
+	 * @param integral Integral image transform of input image. Not modified.
+	 * @param skip How many pixels should it skip over.
+	 * @param size Hessian kernel's size.
+	 * @param intensity Output intensity image.
+	 * @param y0 First row in intensity image, inclusive
+	 * @param y1 Last row in intensity image, exclusive
+	 */
+	public static void hessian(GrayF32 integral, int skip , int size ,
+							   GrayF32 intensity, int y0 , int y1 )
+	{
+		ImplIntegralImageFeatureIntensity.hessianBorder(integral,skip,size,intensity,y0,y1);
+		ImplIntegralImageFeatureIntensity.hessianInner(integral,skip,size,intensity,y0,y1);
+	}
+
 	/**
 	 * Computes an approximation to the Hessian's determinant.
 	 *
@@ -65,4 +83,22 @@ public class IntegralImageFeatureIntensity {
 		ImplIntegralImageFeatureIntensity.hessianBorder(integral,skip,size,intensity);
 		ImplIntegralImageFeatureIntensity.hessianInner(integral,skip,size,intensity);
 	}
+
+	/**
+	 * Computes an approximation to the Hessian's determinant inside the specified range of rows.  Different
+	 * ranges of rows can be processed independently, e.g. by different threads.
+	 *
+	 * @param integral Integral image transform of input image. Not modified.
+	 * @param skip How many pixels should it skip over.
+	 * @param size Hessian kernel's size.
+	 * @param intensity Output intensity image.
+	 * @param y0 First row in intensity image, inclusive
+	 * @param y1 Last row in intensity image, exclusive
+	 */
+	public static void hessian(GrayS32 integral, int skip , int size ,
+							   GrayF32 intensity, int y0 , int y1 )
+	{
+		ImplIntegralImageFeatureIntensity.hessianBorder(integral,skip,size,intensity,y0,y1);
+		ImplIntegralImageFeatureIntensity.hessianInner(integral,skip,size,intensity,y0,y1);
+	}
 }
@@ -70,6 +70,18 @@ public class ImplIntegralImageFeatureIntensity {
 	 */
 	public static void hessianBorder(GrayF32 integral, int skip , int size ,
 									 GrayF32 intensity)
+	{
+		hessianBorder(integral,skip,size,intensity,0,intensity.height);
+	}
+
+	/**
+	 * Only computes the fast hessian along the border inside the specified range of rows in the output image
+	 *
+	 * @param y0 First row in intensity image, inclusive
+	 * @param y1 Last row in intensity image, exclusive
+	 */
+	public static void hessianBorder(GrayF32 integral, int skip , int size ,
+									 GrayF32 intensity, int y0 , int y1 )
 	{
 		final int w = intensity.width;
 		final int h = intensity.height;
@@ -85,7 +97,7 @@ public class ImplIntegralImageFeatureIntensity {
 
 		float norm = 1.0f/(size*size);
 
-		for( int y = 0; y < h; y++ ) {
+		for( int y = y0; y < y1; y++ ) {
 			int yy = y*skip;
 			for( int x = 0; x < border; x++ ) {
 				int xx = x*skip;
@@ -100,11 +112,11 @@ public class ImplIntegralImageFeatureIntensity {
 		for( int x = border; x < w-border; x++ ) {
 			int xx = x*skip;
 
-			for( int y = 0; y < border; y++ ) {
+			for( int y = y0; y < Math.min(border,y1); y++ ) {
 				int yy = y*skip;
 				computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
 			}
-			for( int y = h-border; y < h; y++ ) {
+			for( int y = Math.max(h-border,y0); y < y1; y++ ) {
 				int yy = y*skip;
 				computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
 			}
@@ -130,6 +142,18 @@ public class ImplIntegralImageFeatureIntensity {
 	 */
 	public static void hessianInner(GrayF32 integral, int skip , int size ,
 									GrayF32 intensity)
+	{
+		hessianInner(integral,skip,size,intensity,0,intensity.height);
+	}
+
+	/**
+	 * Optimizes intensity for the inner image inside the specified range of rows in the output image
+	 *
+	 * @param y0 First row in intensity image, inclusive
+	 * @param y1 Last row in intensity image, exclusive
+	 */
+	public static void hessianInner(GrayF32 integral, int skip , int size ,
+									GrayF32 intensity, int y0 , int y1 )
 	{
 		final int w = intensity.width;
 		final int h = intensity.height;
@@ -156,7 +180,7 @@ public class ImplIntegralImageFeatureIntensity {
 		final int endY = h - border;
 		final int endX = w - border;
 
-		for( int y = border; y < endY; y++ ) {
+		for( int y = Math.max(border,y0); y < Math.min(endY,y1); y++ ) {
 
 			// pixel location in original input image
 			int yy = y*skip;
@@ -243,6 +267,18 @@ public class ImplIntegralImageFeatureIntensity {
 	 */
 	public static void hessianBorder(GrayS32 integral, int skip , int size ,
 									 GrayF32 intensity)
+	{
+		hessianBorder(integral,skip,size,intensity,0,intensity.height);
+	}
+
+	/**
+	 * Only computes the fast hessian along the border inside the specified range of rows in the output image
+	 *
+	 * @param y0 First row in intensity image, inclusive
+	 * @param y1 Last row in intensity image, exclusive
+	 */
+	public static void hessianBorder(GrayS32 integral, int skip , int size ,
+									 GrayF32 intensity, int y0 , int y1 )
 	{
 		final int w = intensity.width;
 		final int h = intensity.height;
@@ -258,7 +294,7 @@ public class ImplIntegralImageFeatureIntensity {
 
 		float norm = 1.0f/(size*size);
 
-		for( int y = 0; y < h; y++ ) {
+		for( int y = y0; y < y1; y++ ) {
 			int yy = y*skip;
 			for( int x = 0; x < border; x++ ) {
 				int xx = x*skip;
@@ -273,11 +309,11 @@ public class ImplIntegralImageFeatureIntensity {
 		for( int x = border; x < w-border; x++ ) {
 			int xx = x*skip;
 
-			for( int y = 0; y < border; y++ ) {
+			for( int y = y0; y < Math.min(border,y1); y++ ) {
 				int yy = y*skip;
 				computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
 			}
-			for( int y = h-border; y < h; y++ ) {
+			for( int y = Math.max(h-border,y0); y < y1; y++ ) {
 				int yy = y*skip;
 				computeHessian(integral, intensity, kerXX, kerYY, kerXY, norm, y, yy, x, xx);
 			}
@@ -303,6 +339,18 @@ public class ImplIntegralImageFeatureIntensity {
 	 */
 	public static void hessianInner(GrayS32 integral, int skip , int size ,
 									GrayF32 intensity)
+	{
+		hessianInner(integral,skip,size,intensity,0,intensity.height);
+	}
+
+	/**
+	 * Optimizes intensity for the inner image inside the specified range of rows in the output image
+	 *
+	 * @param y0 First row in intensity image, inclusive
+	 * @param y1 Last row in intensity image, exclusive
+	 */
+	public static void hessianInner(GrayS32 integral, int skip , int size ,
+									GrayF32 intensity, int y0 , int y1 )
 	{
 		final int w = intensity.width;
 		final int h = intensity.height;
@@ -329,7 +377,7 @@ public class ImplIntegralImageFeatureIntensity {
 		final int endY = h - border;
 		final int endX = w - border;
 
-		for( int y = border; y < endY; y++ ) {
+		for( int y = Math.max(border,y0); y < Math.min(endY,y1); y++ ) {
 
 			// pixel location in original input image
 			int yy = y*skip;
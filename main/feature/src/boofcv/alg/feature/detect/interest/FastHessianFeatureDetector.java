@@ -85,33 +85,33 @@ import java.util.List;
 public class FastHessianFeatureDetector<II extends ImageGray> {
 
 	// finds features from 2D intensity image
-	private NonMaxSuppression extractor;
+	protected NonMaxSuppression extractor;
 	// sorts feature by their intensity
-	private SelectNBestFeatures sortBest;
+	protected SelectNBestFeatures sortBest;
 	// the maximum number of returned feature per scale
-	private int maxFeaturesPerScale;
+	protected int maxFeaturesPerScale;
 
 	// local sub-space
-	private GrayF32 intensity[];
-	private int spaceIndex = 0;
-	private QueueCorner foundFeatures = new QueueCorner(100);
+	protected GrayF32 intensity[];
+	protected int spaceIndex = 0;
+	protected QueueCorner foundFeatures = new QueueCorner(100);
 
 	// List of found feature points
-	private FastQueue<ScalePoint> foundPoints = new FastQueue<ScalePoint>(10,ScalePoint.class,true);
+	protected FastQueue<ScalePoint> foundPoints = new FastQueue<ScalePoint>(10,ScalePoint.class,true);
 
 	// size of detected feature at the smallest scale
-	private int initialSize;
+	protected int initialSize;
 	// increment between kernel sizes as it goes up in scale
-	private int scaleStepSize;
+	protected int scaleStepSize;
 	// the number of octaves it examines
-	private int numberOfOctaves;
+	protected int numberOfOctaves;
 
 	// local variables that are predeclared
-	private int sizes[];
+	protected int sizes[];
 
 	// how often the image is sampled in the first octave
 	// a value of 1 would mean every pixel is sampled
-	private int initialSampleRate;
+	protected int initialSampleRate;
 
 	/**
 	 * <p>
@@ -232,22 +232,45 @@ public class FastHessianFeatureDetector<II extends ImageGray> {
 		int index1 = (spaceIndex + 1) % 3;
 		int index2 = (spaceIndex + 2) % 3;
 
-		ImageBorder_F32 inten0 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensity[index0], 0);
-		GrayF32 inten1 = intensity[index1];
-		ImageBorder_F32 inten2 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensity[index2], 0);
+		findLocalScaleSpaceMax(size, level, skip, intensity[index0], intensity[index1], intensity[index2],
+				extractor, sortBest, foundFeatures, foundPoints);
+	}
+
+	/**
+	 * Looks for features which are local maximums in the image and scale-space.  All the work space is passed
+	 * in so that different levels can be processed at the same time.
+	 *
+	 * @param size Size of features in different scale-spaces.
+	 * @param level Which level in the scale-space
+	 * @param skip How many pixels are skipped over.
+	 * @param lower Intensity of the level below
+	 * @param middle Intensity of the level being searched
+	 * @param upper Intensity of the level above
+	 * @param extractor Finds local maximums in 2D image.  Its ignore border is modified.
+	 * @param sortBest Used to select the best features.  Can be null.
+	 * @param foundFeatures Storage for local maximums in 2D image
+	 * @param foundPoints Found features are added to this list
+	 */
+	protected void findLocalScaleSpaceMax(int []size, int level, int skip,
+										  GrayF32 lower , GrayF32 middle , GrayF32 upper ,
+										  NonMaxSuppression extractor , SelectNBestFeatures sortBest,
+										  QueueCorner foundFeatures , FastQueue<ScalePoint> foundPoints ) {
+		ImageBorder_F32 inten0 = (ImageBorder_F32)FactoryImageBorderAlgs.value(lower, 0);
+		GrayF32 inten1 = middle;
+		ImageBorder_F32 inten2 = (ImageBorder_F32)FactoryImageBorderAlgs.value(upper, 0);
 
 		// find local maximums in image 2D space.  Borders need to be ignored since
 		// false positives are found around them as an artifact of pixels outside being
 		// treated as being zero.
 		foundFeatures.reset();
 		extractor.setIgnoreBorder(size[level] / (2 * skip));
-		extractor.process(intensity[index1],null,null,null,foundFeatures);
+		extractor.process(middle,null,null,null,foundFeatures);
 
 		// Can't consider feature which are right up against the border since they might not be a true local
 		// maximum when you consider the features on the other side of the ignore border
 		int ignoreRadius = extractor.getIgnoreBorder() + extractor.getSearchRadius();
-		int ignoreWidth = intensity[index1].width-ignoreRadius;
-		int ignoreHeight = intensity[index1].height-ignoreRadius;
+		int ignoreWidth = middle.width-ignoreRadius;
+		int ignoreHeight = middle.height-ignoreRadius;
 
 		// number of features which can be added
 		int numberRemaining;
@@ -255,7 +278,7 @@ public class FastHessianFeatureDetector<II extends ImageGray> {
 		// if configured to do so, only select the features with the highest intensity
 		QueueCorner features;
 		if( sortBest != null ) {
-			sortBest.process(intensity[index1],foundFeatures,true);
+			sortBest.process(middle,foundFeatures,true);
 			features = sortBest.getBestCorners();
 			numberRemaining = maxFeaturesPerScale;
 		} else {
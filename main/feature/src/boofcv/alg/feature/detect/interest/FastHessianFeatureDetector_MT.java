@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.feature.detect.extract.SelectNBestFeatures;
+import boofcv.alg.feature.detect.intensity.GIntegralImageFeatureIntensity;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link FastHessianFeatureDetector}.  Processing is done one octave at a time.
+ * The intensity of every scale in the octave is computed at the same time, with each scale being split into
+ * bands of rows.  Then each level which features are detected in is searched for local maximums by a different
+ * thread.  Every level has its own {@link NonMaxSuppression} and storage.  Features found in each level
+ * are added to the list of found points in the same order as the single threaded version, producing identical
+ * results.
+ * </p>
+ *
+ * <p>
+ * Unlike the single threaded version, which only keeps three intensity images, an intensity image is saved
+ * for every scale inside an octave.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FastHessianFeatureDetector_MT<II extends ImageGray> extends FastHessianFeatureDetector<II> {
+
+	/**
+	 * Minimum number of rows in each band that intensity is computed in
+	 */
+	public static int MIN_ROWS = 20;
+
+	// storage for each level that features are detected inside of
+	private LevelStorage levels[];
+
+	/**
+	 * Configures the detector.  See {@link FastHessianFeatureDetector} for a description of the parameters.
+	 *
+	 * @param extractors Feature extractors used to find local maximums in 2D image.  One is required for each
+	 *                   level features are detected inside of, numberScalesPerOctave-2.
+	 */
+	public FastHessianFeatureDetector_MT(NonMaxSuppression extractors[], int maxFeaturesPerScale,
+										 int initialSampleRate, int initialSize,
+										 int numberScalesPerOctave,
+										 int numberOfOctaves, int scaleStepSize) {
+		super(extractors[0], maxFeaturesPerScale, initialSampleRate, initialSize,
+				numberScalesPerOctave, numberOfOctaves, scaleStepSize);
+
+		if( numberScalesPerOctave < 3 )
+			throw new IllegalArgumentException("There must be at least three scales per octave");
+		if( extractors.length != numberScalesPerOctave-2 )
+			throw new IllegalArgumentException("Expected "+(numberScalesPerOctave-2)+" extractors");
+
+		// intensity is resized to the correct shape as each octave is processed
+		intensity = new GrayF32[numberScalesPerOctave];
+		for (int i = 0; i < intensity.length; i++) {
+			intensity[i] = new GrayF32(1,1);
+		}
+
+		levels = new LevelStorage[numberScalesPerOctave-2];
+		for (int i = 0; i < levels.length; i++) {
+			levels[i] = new LevelStorage(extractors[i],maxFeaturesPerScale);
+		}
+	}
+
+	@Override
+	protected void detectOctave( final II integral , final int skip , final int ...featureSize ) {
+
+		final int w = integral.width/skip;
+		final int h = integral.height/skip;
+
+		for( int i = 0; i < featureSize.length; i++ ) {
+			intensity[i].reshape(w,h);
+		}
+
+		// Compute the intensity of every row in every scale.  Work is split up so that each thread processes
+		// about the same number of rows.  The cost of a row doesn't depend on the scale.
+		BoofConcurrency.loopBlocks(0, featureSize.length*h, MIN_ROWS, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				while( idx0 < idx1 ) {
+					int scale = idx0/h;
+					int y0 = idx0%h;
+					int y1 = Math.min(h, y0 + idx1 - idx0);
+					GIntegralImageFeatureIntensity.hessian(integral,skip,featureSize[scale],intensity[scale],y0,y1);
+					idx0 += y1-y0;
+				}
+			}
+		});
+
+		// find maximums in scale space.  Each level has its own storage
+		BoofConcurrency.loopBlocks(1, featureSize.length-1, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				for (int level = idx0; level < idx1; level++) {
+					LevelStorage s = levels[level-1];
+					s.points.reset();
+					findLocalScaleSpaceMax(featureSize, level, skip,
+							intensity[level - 1], intensity[level], intensity[level + 1],
+							s.extractor, s.sortBest, s.foundFeatures, s.points);
+				}
+			}
+		});
+
+		// add the results in the same order as the single threaded version
+		for (int level = 1; level < featureSize.length-1; level++) {
+			FastQueue<ScalePoint> points = levels[level-1].points;
+			for (int i = 0; i < points.size; i++) {
+				foundPoints.grow().set(points.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Work space for finding features inside a single level
+	 */
+	private static class LevelStorage {
+		NonMaxSuppression extractor;
+		SelectNBestFeatures sortBest;
+		QueueCorner foundFeatures = new QueueCorner(100);
+		FastQueue<ScalePoint> points = new FastQueue<ScalePoint>(10,ScalePoint.class,true);
+
+		LevelStorage(NonMaxSuppression extractor, int maxFeaturesPerScale) {
+			this.extractor = extractor;
+			if( maxFeaturesPerScale > 0 )
+				sortBest = new SelectNBestFeatures(maxFeaturesPerScale);
+		}
+	}
+}
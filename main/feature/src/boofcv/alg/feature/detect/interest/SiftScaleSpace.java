@@ -214,7 +214,7 @@ public class SiftScaleSpace {
 	/**
 	 * Computes all the scale images in an octave.  This includes DoG images.
 	 */
-	private void computeOctaveScales() {
+	protected void computeOctaveScales() {
 		octaveImages[0] = tempImage0;
 		for (int i = 1; i < numScales+3; i++) {
 			octaveImages[i].reshape(tempImage0.width, tempImage0.height);
@@ -238,7 +238,7 @@ public class SiftScaleSpace {
 	/**
 	 * Applies the separable kernel to the input image and stores the results in the output image.
 	 */
-	void applyGaussian(GrayF32 input, GrayF32 output, Kernel1D kernel) {
+	protected void applyGaussian(GrayF32 input, GrayF32 output, Kernel1D kernel) {
 		tempBlur.reshape(input.width, input.height);
 		GConvolveImageOps.horizontalNormalized(kernel, input, tempBlur);
 		GConvolveImageOps.verticalNormalized(kernel, tempBlur,output);
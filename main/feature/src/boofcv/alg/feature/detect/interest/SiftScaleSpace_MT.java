@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.alg.filter.convolve.noborder.ConvolveImageNoBorder_MT;
+import boofcv.alg.filter.convolve.normalized.ConvolveNormalized_JustBorder;
+import boofcv.alg.filter.kernel.KernelMath;
+import boofcv.alg.misc.PixelMath;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.GrayF32;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link SiftScaleSpace}.  Each scale in an octave is blurred from the one before it,
+ * so the scales are computed in sequence while the rows of each image are split between threads.  The inner part
+ * of each image is blurred by {@link ConvolveImageNoBorder_MT} and the pixels along the image border are then
+ * computed by the calling thread.  All the Difference-of-Gaussian images are computed at the same time.  The output
+ * is identical to the single threaded version.
+ * </p>
+ *
+ * <p>
+ * Images in the scale-space are resized as needed and reused when the next image is processed.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SiftScaleSpace_MT extends SiftScaleSpace {
+
+	/**
+	 * Minimum number of rows processed by a thread when computing the Difference-of-Gaussian images
+	 */
+	public static int MIN_ROWS = 20;
+
+	// maximum number of threads used at once
+	int maxThreads;
+
+	/**
+	 * Configures the scale-space.  See {@link SiftScaleSpace#SiftScaleSpace(int, int, int, double)}
+	 *
+	 * @param maxThreads Maximum number of threads it will use.  Also limited by
+	 * {@link BoofConcurrency#getMaxThreads()}.
+	 */
+	public SiftScaleSpace_MT(int firstOctave, int lastOctave, int numScales, double sigma0, int maxThreads) {
+		super(firstOctave, lastOctave, numScales, sigma0);
+		this.maxThreads = maxThreads;
+	}
+
+	@Override
+	protected void computeOctaveScales() {
+		octaveImages[0] = tempImage0;
+		for (int i = 1; i < numScales+3; i++) {
+			octaveImages[i].reshape(tempImage0.width, tempImage0.height);
+			applyGaussian(octaveImages[i - 1], octaveImages[i], kernelSigmaToK[i-1]);
+		}
+
+		final int width = tempImage0.width;
+		final int height = tempImage0.height;
+		for (int i = 0; i < numScales+2; i++) {
+			differenceOfGaussian[i].reshape(width, height);
+		}
+
+		// every row in every DoG image can be computed independently
+		BoofConcurrency.loopBlocks(0, (numScales+2)*height, MIN_ROWS, maxThreads, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				while( idx0 < idx1 ) {
+					int dog = idx0/height;
+					int y0 = idx0%height;
+					int y1 = Math.min(height, y0 + idx1 - idx0);
+
+					PixelMath.subtract(
+							octaveImages[dog+1].subimage(0,y0,width,y1,null),
+							octaveImages[dog].subimage(0,y0,width,y1,null),
+							differenceOfGaussian[dog].subimage(0,y0,width,y1,null));
+					idx0 += y1-y0;
+				}
+			}
+		});
+	}
+
+	@Override
+	protected void applyGaussian(GrayF32 input, GrayF32 output, Kernel1D kernel) {
+		Kernel1D_F32 k = (Kernel1D_F32)kernel;
+
+		// special cases are handled by the single threaded code
+		if( k.width >= input.width || k.width >= input.height ) {
+			super.applyGaussian(input, output, kernel);
+			return;
+		}
+
+		// same as what the normalized convolution does
+		if( Math.abs(k.computeSum() - 1.0f) > 1e-4f ) {
+			k = k.copy();
+			KernelMath.normalizeSumToOne(k);
+		}
+
+		tempBlur.reshape(input.width, input.height);
+
+		// the inner part of the image is convolved in bands and the border by the calling thread
+		ConvolveImageNoBorder_MT.horizontal(k, input, tempBlur, maxThreads);
+		ConvolveNormalized_JustBorder.horizontal(k, input, tempBlur);
+		ConvolveImageNoBorder_MT.vertical(k, tempBlur, output, maxThreads);
+		ConvolveNormalized_JustBorder.vertical(k, tempBlur, output);
+	}
+
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.template;
+
+import boofcv.alg.filter.convolve.CorrelateFourier;
+import boofcv.core.image.FactoryGImageGray;
+import boofcv.core.image.GImageGray;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayF64;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * Base class for template matching which computes the sums of products between the image and the template in the
+ * frequency domain using {@link CorrelateFourier}.  The time it takes grows with the log of the template's size
+ * instead of its area, making it much faster than {@link BaseTemplateIntensity} for large templates.  The same
+ * pixels in the intensity image are written to and the scores only differ due to numerical round off.
+ * </p>
+ *
+ * <p>
+ * Sums of image pixels inside the template's region are computed with a sliding window.  All internal
+ * computations are done in double precision.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class BaseTemplateIntensityFourier<T extends ImageGray>
+		implements TemplateMatchingIntensity<T>
+{
+	// Match intensity image
+	private GrayF32 intensity = new GrayF32(1, 1);
+
+	// computes the correlation between the image and a kernel
+	protected CorrelateFourier correlate;
+
+	// correlation between the image and kernels computed from the template
+	protected GrayF64 correlation = new GrayF64(1, 1);
+	protected GrayF64 correlation2 = new GrayF64(1, 1);
+	// storage for the kernel
+	protected GrayF64 kernel = new GrayF64(1, 1);
+
+	// references to the input
+	protected T image;
+	protected T template;
+	protected T mask;
+	protected GImageGray wrapImage;
+	protected GImageGray wrapTemplate;
+	protected GImageGray wrapMask;
+
+	// sum of pixels and squared pixels inside each column for the rows covered by the template
+	private double[] columnSum = new double[0];
+	private double[] columnSum2 = new double[0];
+	// sum of pixels and squared pixels inside the template's region, for each region along the current row
+	protected double[] windowSum = new double[0];
+	protected double[] windowSum2 = new double[0];
+
+	// thickness of the border along the lower extents of the image
+	private int borderX0,borderY0;
+	private int borderX1,borderY1;
+
+	public BaseTemplateIntensityFourier( CorrelateFourier correlate ) {
+		this.correlate = correlate;
+	}
+
+	public BaseTemplateIntensityFourier() {
+		this(new CorrelateFourier());
+	}
+
+	@Override
+	public void process(T image, T template) {
+		process(image, template, null);
+	}
+
+	@Override
+	public void process(T image, T template, T mask) {
+		intensity.reshape(image.width, image.height);
+
+		borderX0 = template.width / 2;
+		borderY0 = template.height / 2;
+		borderX1 = template.width-borderX0;
+		borderY1 = template.height-borderY0;
+
+		// same region as the spatial implementation
+		int w = image.width - template.width;
+		int h = image.height - template.height;
+		if( w <= 0 || h <= 0 )
+			return;
+
+		this.image = image;
+		this.template = template;
+		this.mask = mask;
+		wrapImage = FactoryGImageGray.wrap(image, wrapImage);
+		wrapTemplate = FactoryGImageGray.wrap(template, wrapTemplate);
+		if( mask != null )
+			wrapMask = FactoryGImageGray.wrap(mask, wrapMask);
+
+		correlation.reshape(w + 1, h + 1);
+		if( columnSum.length < image.width ) {
+			columnSum = new double[image.width];
+			columnSum2 = new double[image.width];
+		}
+		if( windowSum.length < w ) {
+			windowSum = new double[w];
+			windowSum2 = new double[w];
+		}
+
+		computeIntensity(w, h);
+
+		// deference to avoid causing a memory leak
+		this.image = null;
+		this.template = null;
+		this.mask = null;
+		wrapImage.wrap(null);
+		wrapTemplate.wrap(null);
+		if( mask != null )
+			wrapMask.wrap(null);
+	}
+
+	/**
+	 * Computes the intensity for every template location with a top left corner at (x,y) where
+	 * 0 &le; x &lt; width and 0 &le; y &lt; height.
+	 */
+	protected abstract void computeIntensity( int width , int height );
+
+	/**
+	 * Computes the sum of image pixels, and squared image pixels, inside the template's region for each region
+	 * with a top left corner along row y.  Must be called for y = 0, 1, 2, ... in that order.
+	 *
+	 * @param y Row of the template's top left corner
+	 * @param width Number of regions along the row
+	 */
+	protected void computeWindowSums( int y , int width ) {
+		int tw = template.width;
+		int th = template.height;
+
+		if( y == 0 ) {
+			for (int x = 0; x < image.width; x++) {
+				double sum = 0, sum2 = 0;
+				for (int i = 0; i < th; i++) {
+					double v = wrapImage.unsafe_getD(x, i);
+					sum += v;
+					sum2 += v*v;
+				}
+				columnSum[x] = sum;
+				columnSum2[x] = sum2;
+			}
+		} else {
+			// remove the row which left the window and add the one which entered it
+			for (int x = 0; x < image.width; x++) {
+				double a = wrapImage.unsafe_getD(x, y - 1);
+				double b = wrapImage.unsafe_getD(x, y + th - 1);
+				columnSum[x] += b - a;
+				columnSum2[x] += b*b - a*a;
+			}
+		}
+
+		double sum = 0, sum2 = 0;
+		for (int x = 0; x < tw; x++) {
+			sum += columnSum[x];
+			sum2 += columnSum2[x];
+		}
+		windowSum[0] = sum;
+		windowSum2[0] = sum2;
+		for (int x = 1; x < width; x++) {
+			sum += columnSum[x + tw - 1] - columnSum[x - 1];
+			sum2 += columnSum2[x + tw - 1] - columnSum2[x - 1];
+			windowSum[x] = sum;
+			windowSum2[x] = sum2;
+		}
+	}
+
+	/**
+	 * Saves the intensity of the template with its top left corner at (tl_x,tl_y)
+	 */
+	protected void setIntensity( int tl_x , int tl_y , float value ) {
+		intensity.data[intensity.startIndex + (tl_y + borderY0) * intensity.stride + tl_x + borderX0] = value;
+	}
+
+	@Override
+	public GrayF32 getIntensity() {
+		return intensity;
+	}
+
+	@Override
+	public boolean isBorderProcessed() {
+		return false;
+	}
+
+	@Override
+	public int getBorderX0() {
+		return borderX0;
+	}
+
+	@Override
+	public int getBorderY0() {
+		return borderY0;
+	}
+
+	@Override
+	public int getBorderX1() {
+		return borderX1;
+	}
+
+	@Override
+	public int getBorderY1() {
+		return borderY1;
+	}
+}
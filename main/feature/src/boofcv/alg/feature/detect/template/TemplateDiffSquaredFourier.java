@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.template;
+
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * Scores the difference between the template and the image using difference squared error, with the
+ * correlation computed in the frequency domain.  Produces the same scores as {@link TemplateDiffSquared},
+ * up to numerical round off, including the scaling applied to {@link GrayU8} images.
+ * </p>
+ *
+ * <p>
+ * The error is expanded into &sum;M(I-T)<sup>2</sup> = &sum;M&middot;I<sup>2</sup> - 2&sum;I&middot;(M&middot;T)
+ * + &sum;M&middot;T<sup>2</sup>, where M is the mask.  Without a mask the first term is a sum over the region and
+ * only one correlation is needed.  With a mask two correlations are needed.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TemplateDiffSquaredFourier<T extends ImageGray> extends BaseTemplateIntensityFourier<T> {
+
+	@Override
+	protected void computeIntensity(int width, int height) {
+		int tw = template.width;
+		int th = template.height;
+
+		// sum of the masked template squared and the kernel for the cross term
+		double templateSum2 = 0;
+		kernel.reshape(tw, th);
+		for (int y = 0; y < th; y++) {
+			for (int x = 0; x < tw; x++) {
+				double value = wrapTemplate.unsafe_getD(x, y);
+				double m = mask == null ? 1 : wrapMask.unsafe_getD(x, y);
+				templateSum2 += m*value*value;
+				kernel.unsafe_set(x, y, m*value);
+			}
+		}
+		correlate.setKernel(kernel);
+		correlate.process(image, false, correlation);
+
+		// Same scaling as TemplateDiffSquared.U8, which reduces the chance of numerical overflow
+		double scale = 1;
+		if( image instanceof GrayU8 )
+			scale = mask == null ? 1.0/(255.0*255.0) : 1.0/(255.0*255.0*255.0);
+
+		if( mask == null ) {
+			for (int y = 0; y < height; y++) {
+				computeWindowSums(y, width);
+
+				int indexCorr = correlation.startIndex + y*correlation.stride;
+				for (int x = 0; x < width; x++) {
+					double error = windowSum2[x] - 2*correlation.data[indexCorr++] + templateSum2;
+					setIntensity(x, y, (float)(-error*scale));
+				}
+			}
+		} else {
+			// masked sum of the squared image
+			for (int y = 0; y < th; y++) {
+				for (int x = 0; x < tw; x++) {
+					kernel.unsafe_set(x, y, wrapMask.unsafe_getD(x, y));
+				}
+			}
+			correlation2.reshape(correlation.width, correlation.height);
+			correlate.setKernel(kernel);
+			correlate.process(image, true, correlation2);
+
+			for (int y = 0; y < height; y++) {
+				int indexCorr = correlation.startIndex + y*correlation.stride;
+				int indexCorr2 = correlation2.startIndex + y*correlation2.stride;
+				for (int x = 0; x < width; x++) {
+					double error = correlation2.data[indexCorr2++] - 2*correlation.data[indexCorr++] + templateSum2;
+					setIntensity(x, y, (float)(-error*scale));
+				}
+			}
+		}
+	}
+}
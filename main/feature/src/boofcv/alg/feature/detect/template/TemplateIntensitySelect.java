@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.template;
+
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageBase;
+
+/**
+ * Selects between two implementations of {@link TemplateMatchingIntensity} based on the template's area.  Small
+ * templates are processed in the spatial domain and large templates in the frequency domain.  The two
+ * implementations must compute the same score.  Functions which describe the results are passed on to the
+ * implementation which processed the most recent image.
+ *
+ * @author Peter Abeles
+ */
+public class TemplateIntensitySelect<T extends ImageBase> implements TemplateMatchingIntensity<T> {
+
+	// used with small templates
+	private TemplateMatchingIntensity<T> spatial;
+	// used with large templates
+	private TemplateMatchingIntensity<T> fourier;
+	// templates with at least this many pixels are processed by the frequency domain implementation
+	private int minimumArea;
+
+	// the implementation which processed the most recent image
+	private TemplateMatchingIntensity<T> selected;
+
+	/**
+	 * Specifies the implementations
+	 *
+	 * @param spatial Implementation used with small templates
+	 * @param fourier Implementation used with large templates
+	 * @param minimumArea Templates with at least this many pixels are processed by the frequency domain
+	 *                    implementation.
+	 */
+	public TemplateIntensitySelect(TemplateMatchingIntensity<T> spatial,
+								   TemplateMatchingIntensity<T> fourier,
+								   int minimumArea ) {
+		this.spatial = spatial;
+		this.fourier = fourier;
+		this.minimumArea = minimumArea;
+		this.selected = spatial;
+	}
+
+	@Override
+	public void process(T image, T template) {
+		select(template);
+		selected.process(image, template);
+	}
+
+	@Override
+	public void process(T image, T template, T mask) {
+		select(template);
+		selected.process(image, template, mask);
+	}
+
+	private void select( T template ) {
+		if( template.width*template.height >= minimumArea )
+			selected = fourier;
+		else
+			selected = spatial;
+	}
+
+	@Override
+	public GrayF32 getIntensity() {
+		return selected.getIntensity();
+	}
+
+	@Override
+	public boolean isBorderProcessed() {
+		return selected.isBorderProcessed();
+	}
+
+	@Override
+	public int getBorderX0() {
+		return selected.getBorderX0();
+	}
+
+	@Override
+	public int getBorderX1() {
+		return selected.getBorderX1();
+	}
+
+	@Override
+	public int getBorderY0() {
+		return selected.getBorderY0();
+	}
+
+	@Override
+	public int getBorderY1() {
+		return selected.getBorderY1();
+	}
+
+	public TemplateMatchingIntensity<T> getSpatial() {
+		return spatial;
+	}
+
+	public TemplateMatchingIntensity<T> getFourier() {
+		return fourier;
+	}
+
+	public TemplateMatchingIntensity<T> getSelected() {
+		return selected;
+	}
+
+	public int getMinimumArea() {
+		return minimumArea;
+	}
+}
@@ -79,6 +79,10 @@ public abstract class TemplateNCC <T extends ImageBase>
 			}
 			imageSigma = (float)Math.sqrt(imageSigma/area);
 
+			// the correlation is undefined when the image has no variation
+			if( imageSigma == 0 )
+				return 0;
+
 			// technically top should be divided by area, but that won't change the solution
 			return top/(imageSigma*templateSigma);
 		}
@@ -116,6 +120,10 @@ public abstract class TemplateNCC <T extends ImageBase>
 			}
 			imageSigma = (float)Math.sqrt(imageSigma/area);
 
+			// the correlation is undefined when the image has no variation
+			if( imageSigma == 0 )
+				return 0;
+
 			// technically top should be divided by area, but that won't change the solution
 			return top/(imageSigma*templateSigma);
 		}
@@ -190,6 +198,10 @@ public abstract class TemplateNCC <T extends ImageBase>
 			}
 			imageSigma = (float)Math.sqrt(imageSigma/area);
 
+			// the correlation is undefined when the image has no variation
+			if( imageSigma == 0 )
+				return 0;
+
 			// technically top should be divided by area, but that won't change the solution
 			return top/(imageSigma*templateSigma);
 		}
@@ -229,6 +241,10 @@ public abstract class TemplateNCC <T extends ImageBase>
 			}
 			imageSigma = (float)Math.sqrt(imageSigma/area);
 
+			// the correlation is undefined when the image has no variation
+			if( imageSigma == 0 )
+				return 0;
+
 			// technically top should be divided by area, but that won't change the solution
 			return top/(imageSigma*templateSigma);
 		}
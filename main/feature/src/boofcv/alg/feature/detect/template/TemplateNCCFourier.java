@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.template;
+
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * Template matching which uses normalized cross correlation (NCC) and computes the correlation in the
+ * frequency domain.  Produces the same scores as {@link TemplateNCC}, up to numerical round off.
+ * </p>
+ *
+ * <p>
+ * The numerator of NCC is expanded into &sum;(I-&mu;<sub>I</sub>)(T-&mu;<sub>T</sub>) =
+ * &sum;I&middot;(T-&mu;<sub>T</sub>) - &mu;<sub>I</sub>&sum;(T-&mu;<sub>T</sub>). The first term is a correlation
+ * and the second term is zero when there is no mask.  The image's mean and standard deviation are found from
+ * sums over each region.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TemplateNCCFourier<T extends ImageGray> extends BaseTemplateIntensityFourier<T> {
+
+	/**
+	 * Image regions with a variance which is less than this fraction of E[x<sup>2</sup>] are treated as having
+	 * no variation and are given a score of zero.  Anything smaller can't be told apart from round off error.
+	 */
+	public static double EPS = 1e-12;
+
+	@Override
+	protected void computeIntensity(int width, int height) {
+		int tw = template.width;
+		int th = template.height;
+		double area = tw*th;
+
+		double templateMean = 0;
+		for (int y = 0; y < th; y++) {
+			for (int x = 0; x < tw; x++) {
+				templateMean += wrapTemplate.unsafe_getD(x, y);
+			}
+		}
+		templateMean /= area;
+
+		double templateSigma = 0;
+		for (int y = 0; y < th; y++) {
+			for (int x = 0; x < tw; x++) {
+				double diff = wrapTemplate.unsafe_getD(x, y) - templateMean;
+				templateSigma += diff*diff;
+			}
+		}
+		templateSigma = Math.sqrt(templateSigma/area);
+
+		// kernel is the template with its mean removed and weighted by the mask
+		kernel.reshape(tw, th);
+		double kernelSum = 0;
+		for (int y = 0; y < th; y++) {
+			for (int x = 0; x < tw; x++) {
+				double value = wrapTemplate.unsafe_getD(x, y) - templateMean;
+				if( mask != null )
+					value *= wrapMask.unsafe_getD(x, y);
+				kernel.unsafe_set(x, y, value);
+				kernelSum += value;
+			}
+		}
+		// without a mask this is zero, but round off would leave a small value
+		if( mask == null )
+			kernelSum = 0;
+
+		correlate.setKernel(kernel);
+		correlate.process(image, false, correlation);
+
+		for (int y = 0; y < height; y++) {
+			computeWindowSums(y, width);
+
+			int indexCorr = correlation.startIndex + y*correlation.stride;
+			for (int x = 0; x < width; x++) {
+				double imageMean = windowSum[x]/area;
+				double imageMean2 = windowSum2[x]/area;
+				double imageVariance = imageMean2 - imageMean*imageMean;
+
+				double top = correlation.data[indexCorr++] - imageMean*kernelSum;
+
+				// the variance is found by subtracting two large numbers, so flat regions are left with
+				// round off error relative to E[x^2] instead of zero
+				if( imageVariance <= EPS*imageMean2 ) {
+					setIntensity(x, y, 0);
+					continue;
+				}
+				double imageSigma = Math.sqrt(imageVariance);
+
+				// technically top should be divided by area, but that won't change the solution
+				setIntensity(x, y, (float)(top/(imageSigma*templateSigma)));
+			}
+		}
+	}
+}
@@ -41,6 +41,14 @@ import boofcv.struct.image.ImageGray;
 public abstract class DisparityScoreRowFormat
 		<Input extends ImageGray, Disparity extends ImageGray>
 {
+	/**
+	 * Floating point implementations recompute their vertical running sums from scratch each time the first row
+	 * of the region is a multiple of this number.  This stops round off error from building up.  The sums then
+	 * don't depend on any earlier rows, so an image can be split into slices which start at these rows without
+	 * changing the output.
+	 */
+	public static final int RESTART_PERIOD = 32;
+
 	// the minimum disparity that it will check
 	protected int minDisparity;
 	// maximum allowed image disparity
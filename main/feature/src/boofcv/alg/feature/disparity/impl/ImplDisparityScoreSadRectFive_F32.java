@@ -96,13 +96,7 @@ public class ImplDisparityScoreSadRectFive_F32<Disparity extends ImageGray>
 		}
 
 		// compute score for the top possible row
-		for( int i = 0; i < lengthHorizontal; i++ ) {
-			float sum = 0;
-			for( int row = 0; row < regionHeight; row++ ) {
-				sum += horizontalScore[row][i];
-			}
-			firstRow[i] = sum;
-		}
+		sumVertical(0, firstRow);
 	}
 
 	/**
@@ -114,21 +108,30 @@ public class ImplDisparityScoreSadRectFive_F32<Disparity extends ImageGray>
 	{
 		for( int row = regionHeight; row < left.height; row++ , activeVerticalScore++) {
 			int oldRow = row%regionHeight;
+			int firstRow = row - regionHeight + 1;
+			boolean restart = firstRow % RESTART_PERIOD == 0;
 			float previous[] = verticalScore[ (activeVerticalScore -1) % regionHeight ];
 			float active[] = verticalScore[ activeVerticalScore % regionHeight ];
 
 			// subtract first row from vertical score
 			float scores[] = horizontalScore[oldRow];
-			for( int i = 0; i < lengthHorizontal; i++ ) {
-				active[i] = previous[i] - scores[i];
+			if( !restart ) {
+				for( int i = 0; i < lengthHorizontal; i++ ) {
+					active[i] = previous[i] - scores[i];
+				}
 			}
 
 			UtilDisparityScore.computeScoreRow(left, right, row, scores,
 					minDisparity,maxDisparity,regionWidth,elementScore);
 
-			// add the new score
-			for( int i = 0; i < lengthHorizontal; i++ ) {
-				active[i] += scores[i];
+			if( restart ) {
+				// start over to remove accumulated round off error
+				sumVertical(firstRow, active);
+			} else {
+				// add the new score
+				for( int i = 0; i < lengthHorizontal; i++ ) {
+					active[i] += scores[i];
+				}
 			}
 
 			if( activeVerticalScore >= regionHeight-1 ) {
@@ -142,6 +145,19 @@ public class ImplDisparityScoreSadRectFive_F32<Disparity extends ImageGray>
 		}
 	}
 
+	/**
+	 * Sums the horizontal scores of the region which starts at firstRow, from the top row to the bottom row
+	 */
+	private void sumVertical( int firstRow , float sum[] ) {
+		for( int i = 0; i < lengthHorizontal; i++ ) {
+			float total = 0;
+			for( int row = 0; row < regionHeight; row++ ) {
+				total += horizontalScore[(firstRow + row)%regionHeight][i];
+			}
+			sum[i] = total;
+		}
+	}
+
 	/**
 	 * Compute the final score by sampling the 5 regions.  Four regions are sampled around the center
 	 * region.  Out of those four only the two with the smallest score are used.
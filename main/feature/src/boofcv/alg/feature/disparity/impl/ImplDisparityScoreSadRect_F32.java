@@ -91,13 +91,7 @@ public class ImplDisparityScoreSadRect_F32<Disparity extends ImageGray>
 		}
 
 		// compute score for the top possible row
-		for( int i = 0; i < lengthHorizontal; i++ ) {
-			float sum = 0;
-			for( int row = 0; row < regionHeight; row++ ) {
-				sum += horizontalScore[row][i];
-			}
-			verticalScore[i] = sum;
-		}
+		sumVertical(0, verticalScore);
 
 		// compute disparity
 		computeDisparity.process(radiusY, verticalScore);
@@ -112,19 +106,28 @@ public class ImplDisparityScoreSadRect_F32<Disparity extends ImageGray>
 	{
 		for( int row = regionHeight; row < left.height; row++ ) {
 			int oldRow = row%regionHeight;
+			int firstRow = row - regionHeight + 1;
+			boolean restart = firstRow % RESTART_PERIOD == 0;
 
 			// subtract first row from vertical score
 			float scores[] = horizontalScore[oldRow];
-			for( int i = 0; i < lengthHorizontal; i++ ) {
-				verticalScore[i] -= scores[i];
+			if( !restart ) {
+				for( int i = 0; i < lengthHorizontal; i++ ) {
+					verticalScore[i] -= scores[i];
+				}
 			}
 
 			UtilDisparityScore.computeScoreRow(left, right, row, scores,
 					minDisparity,maxDisparity,regionWidth,elementScore);
 
-			// add the new score
-			for( int i = 0; i < lengthHorizontal; i++ ) {
-				verticalScore[i] += scores[i];
+			if( restart ) {
+				// start over to remove accumulated round off error
+				sumVertical(firstRow, verticalScore);
+			} else {
+				// add the new score
+				for( int i = 0; i < lengthHorizontal; i++ ) {
+					verticalScore[i] += scores[i];
+				}
 			}
 
 			// compute disparity
@@ -132,6 +135,19 @@ public class ImplDisparityScoreSadRect_F32<Disparity extends ImageGray>
 		}
 	}
 
+	/**
+	 * Sums the horizontal scores of the region which starts at firstRow, from the top row to the bottom row
+	 */
+	private void sumVertical( int firstRow , float sum[] ) {
+		for( int i = 0; i < lengthHorizontal; i++ ) {
+			float total = 0;
+			for( int row = 0; row < regionHeight; row++ ) {
+				total += horizontalScore[(firstRow + row)%regionHeight][i];
+			}
+			sum[i] = total;
+		}
+	}
+
 	@Override
 	public Class<GrayF32> getInputType() {
 		return GrayF32.class;
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.struct.image.GrayU8;
+
+/**
+ * Cost is the sum of absolute difference (SAD) across a small square region.  Pixels outside the image are
+ * handled by clamping their coordinate to the image border.  Intended for regions with a small radius, e.g. 0
+ * to 2, since the sum is computed directly for every disparity.
+ *
+ * @author Peter Abeles
+ */
+public class SgmCostAbsoluteDifference_U8 implements SgmDisparityCost<GrayU8> {
+
+	// radius of the square region
+	int radius;
+
+	int minDisparity;
+	int rangeDisparity;
+
+	GrayU8 left,right;
+
+	/**
+	 * @param radius Radius of the square region.  0 for a single pixel.
+	 */
+	public SgmCostAbsoluteDifference_U8(int radius) {
+		if( radius < 0 )
+			throw new IllegalArgumentException("Radius must be >= 0");
+		this.radius = radius;
+	}
+
+	@Override
+	public void configure(int minDisparity, int rangeDisparity) {
+		this.minDisparity = minDisparity;
+		this.rangeDisparity = rangeDisparity;
+	}
+
+	@Override
+	public void setImages(GrayU8 left, GrayU8 right) {
+		this.left = left;
+		this.right = right;
+	}
+
+	@Override
+	public void process(int y0, int row0, int row1, short[] cost) {
+		final int w = left.width;
+		final int h = left.height;
+
+		for (int y = row0; y < row1; y++) {
+			int indexCost = (y-y0)*w*rangeDisparity;
+			for (int x = 0; x < w; x++) {
+				for (int d = 0; d < rangeDisparity; d++) {
+					int disparity = minDisparity + d;
+					if( x - disparity < 0 ) {
+						cost[indexCost++] = MAX_COST;
+						continue;
+					}
+
+					int sum = 0;
+					for (int i = -radius; i <= radius; i++) {
+						int yy = clamp(y+i,h);
+						int indexLeft = left.startIndex + yy*left.stride;
+						int indexRight = right.startIndex + yy*right.stride;
+						for (int j = -radius; j <= radius; j++) {
+							// clamp to the region both images have in common
+							int xx = x+j;
+							if( xx < disparity ) xx = disparity;
+							else if( xx >= w ) xx = w-1;
+
+							int l = left.data[indexLeft + xx] & 0xFF;
+							int r = right.data[indexRight + xx - disparity] & 0xFF;
+							sum += Math.abs(l-r);
+						}
+					}
+					cost[indexCost++] = (short)Math.min(MAX_COST,sum);
+				}
+			}
+		}
+	}
+
+	private static int clamp( int v , int length ) {
+		if( v < 0 ) return 0;
+		if( v >= length ) return length-1;
+		return v;
+	}
+
+	@Override
+	public Class<GrayU8> getInputType() {
+		return GrayU8.class;
+	}
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Aggregates the cost volume along 4 or 8 straight paths, as is done in Semi-Global Matching (SGM) [1].
+ * For a path with direction r the cost at pixel p and disparity d is:<br>
+ * L<sub>r</sub>(p,d) = C(p,d) + min( L<sub>r</sub>(p-r,d) , L<sub>r</sub>(p-r,d&plusmn;1) + P1 ,
+ * min<sub>i</sub> L<sub>r</sub>(p-r,i) + P2 ) - min<sub>k</sub> L<sub>r</sub>(p-r,k)<br>
+ * and the aggregated cost is the sum of L<sub>r</sub> across all paths.  Since C &le;
+ * {@link SgmDisparityCost#MAX_COST} and P2 &le; MAX_COST the sum can't overflow a short.
+ * </p>
+ *
+ * <p>
+ * Paths are processed one direction at a time.  Inside a direction each pixel belongs to exactly one path, so
+ * if {@link BoofConcurrency#USE_CONCURRENT} is true the paths are split between threads without any locking and
+ * the results are identical to the single threaded version.  All storage is reused between calls.
+ * </p>
+ *
+ * <p>
+ * [1] Hirschmuller, Heiko. "Stereo processing by semiglobal matching and mutual information."
+ * IEEE Transactions on Pattern Analysis and Machine Intelligence 30.2 (2008): 328-341.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmCostAggregation {
+
+	// minimum number of paths processed by a thread
+	public static int MIN_PATHS = 8;
+
+	// directions of each path.  The first 4 are used for 4-path aggregation
+	private static final int[] PATH_DX = new int[]{1,-1,0,0, 1,-1, 1,-1};
+	private static final int[] PATH_DY = new int[]{0,0,1,-1, 1,-1,-1, 1};
+
+	// penalty for a change in disparity of one
+	int penalty1;
+	// penalty for a change in disparity more than one
+	int penalty2;
+	// number of paths.  4 or 8
+	int numPaths;
+
+	// shape of the cost volume
+	int width,height,rangeDisparity;
+
+	// input cost volume
+	short[] cost;
+	// aggregated cost across all the paths
+	short[] aggregated = new short[0];
+
+	// work space for path cost at the previous and current pixel.  One for each thread
+	int[][] workPrevious = new int[0][];
+	int[][] workCurrent = new int[0][];
+
+	// processes all the paths in one direction
+	PathTask task = new PathTask();
+
+	/**
+	 * Configures aggregation
+	 *
+	 * @param penalty1 Penalty for a change in disparity of one.  &gt; 0
+	 * @param penalty2 Penalty for a change in disparity more than one.  &gt; penalty1 and &le; MAX_COST
+	 * @param numPaths Number of paths.  4 or 8.
+	 */
+	public SgmCostAggregation(int penalty1, int penalty2, int numPaths) {
+		if( penalty1 <= 0 || penalty2 <= penalty1 )
+			throw new IllegalArgumentException("Penalties must be 0 < penalty1 < penalty2");
+		if( penalty2 > SgmDisparityCost.MAX_COST )
+			throw new IllegalArgumentException("penalty2 must be <= MAX_COST");
+		if( numPaths != 4 && numPaths != 8 )
+			throw new IllegalArgumentException("Number of paths must be 4 or 8");
+		this.penalty1 = penalty1;
+		this.penalty2 = penalty2;
+		this.numPaths = numPaths;
+	}
+
+	/**
+	 * Aggregates the cost volume
+	 *
+	 * @param cost Cost volume.  See {@link SgmDisparityCost} for the format.
+	 * @param width Image width
+	 * @param height Number of rows in the cost volume
+	 * @param rangeDisparity Number of disparities
+	 */
+	public void process( short[] cost , int width , int height , int rangeDisparity ) {
+		this.cost = cost;
+		this.width = width;
+		this.height = height;
+		this.rangeDisparity = rangeDisparity;
+
+		int length = width*height*rangeDisparity;
+		if( aggregated.length < length )
+			aggregated = new short[length];
+		else
+			Arrays.fill(aggregated,0,length,(short)0);
+
+		for (int i = 0; i < numPaths; i++) {
+			task.dx = PATH_DX[i];
+			task.dy = PATH_DY[i];
+			int numStarts = task.numStarts();
+
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				declareWorkSpace(BoofConcurrency.computeNumBlocks(0,numStarts,MIN_PATHS));
+				BoofConcurrency.loopBlocks(0,numStarts,MIN_PATHS,task);
+			} else {
+				declareWorkSpace(1);
+				task.process(0,0,numStarts);
+			}
+		}
+	}
+
+	private void declareWorkSpace( int numBlocks ) {
+		if( workPrevious.length < numBlocks ) {
+			workPrevious = new int[numBlocks][];
+			workCurrent = new int[numBlocks][];
+		}
+		for (int i = 0; i < numBlocks; i++) {
+			if( workPrevious[i] == null || workPrevious[i].length < rangeDisparity ) {
+				workPrevious[i] = new int[rangeDisparity];
+				workCurrent[i] = new int[rangeDisparity];
+			}
+		}
+	}
+
+	/**
+	 * Computes the path cost along a single path and adds it to the aggregated cost
+	 *
+	 * @param x0 Pixel the path starts at. x-axis
+	 * @param y0 Pixel the path starts at. y-axis
+	 */
+	void aggregatePath( int x0 , int y0 , int dx , int dy , int[] previous , int[] current ) {
+		final int D = rangeDisparity;
+
+		// the first pixel has no previous pixel so the path cost is the pixel's cost
+		int index = (y0*width + x0)*D;
+		int minPrevious = Integer.MAX_VALUE;
+		for (int d = 0; d < D; d++) {
+			int l = cost[index+d];
+			previous[d] = l;
+			aggregated[index+d] += l;
+			if( l < minPrevious )
+				minPrevious = l;
+		}
+
+		int x = x0+dx, y = y0+dy;
+		while( x >= 0 && x < width && y >= 0 && y < height ) {
+			index = (y*width + x)*D;
+			int jump = minPrevious + penalty2;
+			int minCurrent = Integer.MAX_VALUE;
+
+			for (int d = 0; d < D; d++) {
+				int best = previous[d];
+				if( d > 0 && previous[d-1] + penalty1 < best )
+					best = previous[d-1] + penalty1;
+				if( d < D-1 && previous[d+1] + penalty1 < best )
+					best = previous[d+1] + penalty1;
+				if( jump < best )
+					best = jump;
+
+				int l = cost[index+d] + best - minPrevious;
+				current[d] = l;
+				aggregated[index+d] += l;
+				if( l < minCurrent )
+					minCurrent = l;
+			}
+
+			int[] tmp = previous;
+			previous = current;
+			current = tmp;
+			minPrevious = minCurrent;
+
+			x += dx;
+			y += dy;
+		}
+	}
+
+	/**
+	 * Processes every path with the same direction.  A path starts at each pixel whose previous pixel along the
+	 * direction is outside the image.
+	 */
+	private class PathTask implements IntRangeTask {
+		int dx,dy;
+
+		/**
+		 * Number of paths with this direction
+		 */
+		public int numStarts() {
+			if( dy == 0 )
+				return height;
+			else if( dx == 0 )
+				return width;
+			else
+				return width + height - 1;
+		}
+
+		@Override
+		public void process(int block, int idx0, int idx1) {
+			int[] previous = workPrevious[block];
+			int[] current = workCurrent[block];
+
+			// row or column which paths start from
+			int startX = dx > 0 ? 0 : width-1;
+			int startY = dy > 0 ? 0 : height-1;
+
+			for (int i = idx0; i < idx1; i++) {
+				if( dy == 0 ) {
+					aggregatePath(startX, i, dx, dy, previous, current);
+				} else if( dx == 0 ) {
+					aggregatePath(i, startY, dx, dy, previous, current);
+				} else if( i < width ) {
+					aggregatePath(i, startY, dx, dy, previous, current);
+				} else {
+					// skip the row which paths start at since its pixels were handled above
+					int y = i - width;
+					if( dy > 0 ) y += 1;
+					aggregatePath(startX, y, dx, dy, previous, current);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the aggregated cost.  Same format as the cost volume.
+	 */
+	public short[] getAggregated() {
+		return aggregated;
+	}
+
+	public int getNumPaths() {
+		return numPaths;
+	}
+
+	public int getPenalty1() {
+		return penalty1;
+	}
+
+	public int getPenalty2() {
+		return penalty2;
+	}
+}
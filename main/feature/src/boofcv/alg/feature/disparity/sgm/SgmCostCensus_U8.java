@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+
+/**
+ * <p>
+ * Cost is the hamming distance between the census transform of the two pixels.  The census transform
+ * of a pixel is a bit string which describes if each pixel in a 5x5 region is brighter than the center.  Pixels
+ * outside the image are handled by clamping their coordinate to the image border.  The census transform of both
+ * images is computed once in {@link #setImages}.
+ * </p>
+ *
+ * <p>
+ * The hamming distance is from 0 to 24.  It's scaled so that the penalties used during aggregation can be
+ * specified with more resolution.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmCostCensus_U8 implements SgmDisparityCost<GrayU8> {
+
+	// radius of the census region
+	public static final int RADIUS = 2;
+
+	// amount the hamming distance is multiplied by
+	int scale;
+
+	int minDisparity;
+	int rangeDisparity;
+
+	// census transform of each image
+	GrayS32 censusLeft = new GrayS32(1,1);
+	GrayS32 censusRight = new GrayS32(1,1);
+
+	/**
+	 * @param scale The hamming distance is multiplied by this value.  Try 4
+	 */
+	public SgmCostCensus_U8(int scale) {
+		if( scale <= 0 || scale*24 > MAX_COST )
+			throw new IllegalArgumentException("Scale must be > 0 and the maximum cost <= MAX_COST");
+		this.scale = scale;
+	}
+
+	@Override
+	public void configure(int minDisparity, int rangeDisparity) {
+		this.minDisparity = minDisparity;
+		this.rangeDisparity = rangeDisparity;
+	}
+
+	@Override
+	public void setImages(GrayU8 left, GrayU8 right) {
+		censusLeft.reshape(left.width,left.height);
+		censusRight.reshape(right.width,right.height);
+
+		transform(left,censusLeft);
+		transform(right,censusRight);
+	}
+
+	/**
+	 * Computes the census transform of each pixel in the image
+	 */
+	public static void transform( GrayU8 input , GrayS32 output ) {
+		final int w = input.width;
+		final int h = input.height;
+
+		for (int y = 0; y < h; y++) {
+			int indexOut = output.startIndex + y*output.stride;
+			for (int x = 0; x < w; x++) {
+				int center = input.data[input.startIndex + y*input.stride + x] & 0xFF;
+
+				int bits = 0;
+				for (int i = -RADIUS; i <= RADIUS; i++) {
+					int yy = y+i < 0 ? 0 : (y+i >= h ? h-1 : y+i);
+					int indexIn = input.startIndex + yy*input.stride;
+					for (int j = -RADIUS; j <= RADIUS; j++) {
+						if( i == 0 && j == 0 )
+							continue;
+						int xx = x+j < 0 ? 0 : (x+j >= w ? w-1 : x+j);
+						bits <<= 1;
+						if( (input.data[indexIn+xx] & 0xFF) > center )
+							bits |= 1;
+					}
+				}
+				output.data[indexOut + x] = bits;
+			}
+		}
+	}
+
+	@Override
+	public void process(int y0, int row0, int row1, short[] cost) {
+		final int w = censusLeft.width;
+
+		for (int y = row0; y < row1; y++) {
+			int indexCost = (y-y0)*w*rangeDisparity;
+			int indexLeft = y*censusLeft.stride;
+			int indexRight = y*censusRight.stride;
+			for (int x = 0; x < w; x++) {
+				int l = censusLeft.data[indexLeft + x];
+				for (int d = 0; d < rangeDisparity; d++) {
+					int xr = x - minDisparity - d;
+					if( xr < 0 ) {
+						cost[indexCost++] = (short)MAX_COST;
+					} else {
+						cost[indexCost++] = (short)(scale*Integer.bitCount(l ^ censusRight.data[indexRight+xr]));
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public Class<GrayU8> getInputType() {
+		return GrayU8.class;
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * Computes the matching cost between pixels in the left and right image for every disparity being considered.
+ * Costs are stored in a compact cost volume of shorts.  The cost for pixel (x,y) in the left image at disparity
+ * d is stored at index:<br>
+ * index = ((y-y0)*width + x)*rangeDisparity + d - minDisparity<br>
+ * where y0 is the first row being processed.  If x-d is outside the right image the cost is set to
+ * {@link #MAX_COST}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public interface SgmDisparityCost<T extends ImageGray> {
+
+	/**
+	 * The largest possible cost.  Limiting it ensures that the sum of the aggregated costs across all paths
+	 * can be stored in a short.
+	 */
+	int MAX_COST = 2047;
+
+	/**
+	 * Specifies the range of disparities being considered
+	 *
+	 * @param minDisparity Minimum disparity, inclusive
+	 * @param rangeDisparity Number of disparities being considered
+	 */
+	void configure( int minDisparity , int rangeDisparity );
+
+	/**
+	 * Specifies the input images and performs any image wide pre-processing.
+	 *
+	 * @param left Left rectified image
+	 * @param right Right rectified image
+	 */
+	void setImages( T left , T right );
+
+	/**
+	 * Computes the cost for the specified rows.  Must be safe to call from multiple threads at once with
+	 * rows which do not overlap.
+	 *
+	 * @param y0 First row in the cost volume, inclusive
+	 * @param row0 First row being computed, inclusive.  &ge; y0
+	 * @param row1 Last row being computed, exclusive.
+	 * @param cost (Output) cost volume
+	 */
+	void process( int y0 , int row0 , int row1 , short[] cost );
+
+	Class<T> getInputType();
+}
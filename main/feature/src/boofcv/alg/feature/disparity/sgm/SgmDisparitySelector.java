@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * Selects the disparity with the lowest aggregated cost for each pixel, winner takes all.  Optionally the
+ * disparity is validated by finding the best disparity from the right to the left image, which is computed
+ * from the same aggregated cost.  If the output image is {@link GrayF32} then the disparity is refined to
+ * sub-pixel accuracy by fitting a parabola, as is done in
+ * {@link boofcv.alg.feature.disparity.impl.SelectRectSubpixel}.
+ * </p>
+ *
+ * <p>
+ * Invalid pixels are assigned a value of rangeDisparity+1.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmDisparitySelector {
+
+	// tolerance for right to left validation.  if < 0 then it's disabled
+	int rightToLeftTolerance;
+
+	// shape of the aggregated cost volume
+	int minDisparity;
+	int rangeDisparity;
+	int width;
+	// first row in the cost volume
+	int y0;
+
+	short[] aggregated;
+	ImageGray disparity;
+
+	// selects the disparity for a range of rows
+	SelectTask task = new SelectTask();
+
+	/**
+	 * @param rightToLeftTolerance Tolerance for how different the left to right and right to left disparity can
+	 *                             be.  Set to &lt; 0 to disable.  Try 1
+	 */
+	public SgmDisparitySelector(int rightToLeftTolerance) {
+		this.rightToLeftTolerance = rightToLeftTolerance;
+	}
+
+	/**
+	 * Selects the disparity for the specified rows
+	 *
+	 * @param aggregated Aggregated cost volume
+	 * @param minDisparity Minimum disparity
+	 * @param rangeDisparity Number of disparities
+	 * @param y0 Image row which corresponds to the first row in the cost volume
+	 * @param row0 First row which is written to, inclusive
+	 * @param row1 Last row which is written to, exclusive
+	 * @param disparity (Output) disparity image.  {@link GrayU8} or {@link GrayF32}
+	 */
+	public void select( short[] aggregated , int minDisparity , int rangeDisparity ,
+						int y0 , int row0 , int row1 , ImageGray disparity ) {
+		this.aggregated = aggregated;
+		this.minDisparity = minDisparity;
+		this.rangeDisparity = rangeDisparity;
+		this.width = disparity.width;
+		this.y0 = y0;
+		this.disparity = disparity;
+
+		if( !(disparity instanceof GrayU8 || disparity instanceof GrayF32) )
+			throw new IllegalArgumentException("Disparity image must be GrayU8 or GrayF32");
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopBlocks(row0,row1,task);
+		} else {
+			task.process(0,row0,row1);
+		}
+	}
+
+	private class SelectTask implements IntRangeTask {
+		@Override
+		public void process(int block, int idx0, int idx1) {
+			for (int y = idx0; y < idx1; y++) {
+				selectRow(y);
+			}
+		}
+	}
+
+	/**
+	 * Selects the disparity for every pixel in a row
+	 */
+	void selectRow( int y ) {
+		final int D = rangeDisparity;
+		final int invalid = rangeDisparity + 1;
+		final int indexRow = (y-y0)*width*D;
+
+		for (int x = 0; x < width; x++) {
+			// only disparities which are inside the right image
+			int localMax = Math.min(D, x - minDisparity + 1);
+			if( localMax <= 0 ) {
+				setDisparity(x,y,invalid);
+				continue;
+			}
+
+			int index = indexRow + x*D;
+			int best = 0;
+			int bestCost = aggregated[index];
+			for (int d = 1; d < localMax; d++) {
+				if( aggregated[index+d] < bestCost ) {
+					bestCost = aggregated[index+d];
+					best = d;
+				}
+			}
+
+			if( rightToLeftTolerance >= 0 ) {
+				int bestRight = selectRightToLeft(indexRow, x - minDisparity - best);
+				if( Math.abs(bestRight-best) > rightToLeftTolerance ) {
+					setDisparity(x,y,invalid);
+					continue;
+				}
+			}
+
+			if( disparity instanceof GrayF32 && best > 0 && best < localMax-1 ) {
+				int c0 = aggregated[index+best-1];
+				int c1 = aggregated[index+best];
+				int c2 = aggregated[index+best+1];
+
+				int denominator = 2*(c0-2*c1+c2);
+				float offset = denominator == 0 ? 0 : (float)(c0-c2)/(float)denominator;
+				GrayF32 output = (GrayF32)disparity;
+				output.data[output.startIndex + y*output.stride + x] = best + offset;
+			} else {
+				setDisparity(x,y,best);
+			}
+		}
+	}
+
+	/**
+	 * Finds the best disparity for a pixel in the right image
+	 *
+	 * @param indexRow index of the row in the cost volume
+	 * @param xr x-coordinate of the pixel in the right image
+	 */
+	int selectRightToLeft( int indexRow , int xr ) {
+		final int D = rangeDisparity;
+
+		// only disparities which are inside the left image
+		int localMax = Math.min(D, width - xr - minDisparity);
+
+		int best = 0;
+		int bestCost = aggregated[indexRow + (xr+minDisparity)*D];
+		for (int d = 1; d < localMax; d++) {
+			int c = aggregated[indexRow + (xr+minDisparity+d)*D + d];
+			if( c < bestCost ) {
+				bestCost = c;
+				best = d;
+			}
+		}
+		return best;
+	}
+
+	private void setDisparity( int x , int y , int value ) {
+		if( disparity instanceof GrayU8 ) {
+			GrayU8 output = (GrayU8)disparity;
+			output.data[output.startIndex + y*output.stride + x] = (byte)value;
+		} else {
+			GrayF32 output = (GrayF32)disparity;
+			output.data[output.startIndex + y*output.stride + x] = value;
+		}
+	}
+
+	public int getRightToLeftTolerance() {
+		return rightToLeftTolerance;
+	}
+
+	public void setRightToLeftTolerance(int rightToLeftTolerance) {
+		this.rightToLeftTolerance = rightToLeftTolerance;
+	}
+}
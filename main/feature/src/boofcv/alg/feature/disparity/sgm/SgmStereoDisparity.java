@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * Dense stereo disparity using Semi-Global Matching (SGM).  The matching cost for each pixel and disparity is
+ * computed by {@link SgmDisparityCost}, aggregated along 4 or 8 paths by {@link SgmCostAggregation}, then the
+ * best disparity is selected by {@link SgmDisparitySelector}.
+ * </p>
+ *
+ * <p>
+ * To bound memory the image can be processed in horizontal tiles.  Each tile is extended by an overlap on
+ * its top and bottom so that the vertical and diagonal paths have a chance to converge before they reach the
+ * rows which are written to.  The cost volume and aggregated cost require 4*width*(tileHeight+2*overlap)*range
+ * bytes.  Set the tile height to &le; 0 to process the whole image at once, which is the standard algorithm.
+ * </p>
+ *
+ * <p>
+ * If {@link BoofConcurrency#USE_CONCURRENT} is true then cost, aggregation, and selection are all done
+ * concurrently.  Results are identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmStereoDisparity<T extends ImageGray> {
+
+	SgmDisparityCost<T> cost;
+	SgmCostAggregation aggregation;
+	SgmDisparitySelector selector;
+
+	// range of disparities considered
+	int minDisparity;
+	int maxDisparity;
+	int rangeDisparity;
+
+	// number of rows written to in each tile. if <= 0 then the whole image is one tile
+	int tileHeight;
+	// number of rows above and below a tile which are also processed
+	int tileOverlap;
+
+	// storage for the cost volume
+	short[] costVolume = new short[0];
+
+	// computes the cost for a range of rows
+	CostTask costTask = new CostTask();
+
+	/**
+	 * Configures the algorithm
+	 *
+	 * @param minDisparity Minimum disparity that it will check. Must be &ge; 0 and &lt; maxDisparity
+	 * @param maxDisparity Maximum disparity that it will calculate, exclusive. Must be &gt; 0
+	 * @param tileHeight Number of rows in a tile.  If &le; 0 then the whole image is processed at once.
+	 * @param tileOverlap Number of rows above and below a tile which are also processed.
+	 */
+	public SgmStereoDisparity(int minDisparity, int maxDisparity, int tileHeight, int tileOverlap,
+							  SgmDisparityCost<T> cost,
+							  SgmCostAggregation aggregation,
+							  SgmDisparitySelector selector) {
+		if( maxDisparity <= 0 )
+			throw new IllegalArgumentException("Max disparity must be greater than zero");
+		if( minDisparity < 0 || minDisparity >= maxDisparity )
+			throw new IllegalArgumentException("Min disparity must be >= 0 and < maxDisparity");
+		if( tileOverlap < 0 )
+			throw new IllegalArgumentException("Tile overlap must be >= 0");
+
+		this.minDisparity = minDisparity;
+		this.maxDisparity = maxDisparity;
+		this.rangeDisparity = maxDisparity - minDisparity;
+		this.tileHeight = tileHeight;
+		this.tileOverlap = tileOverlap;
+		this.cost = cost;
+		this.aggregation = aggregation;
+		this.selector = selector;
+
+		cost.configure(minDisparity, rangeDisparity);
+	}
+
+	/**
+	 * Computes the disparity between two rectified images
+	 *
+	 * @param left Left rectified stereo image. Input
+	 * @param right Right rectified stereo image. Input
+	 * @param disparity Disparity between the two images. Output
+	 */
+	public void process( T left , T right , ImageGray disparity ) {
+		InputSanityCheck.checkSameShape(left, right, disparity);
+
+		if( maxDisparity > left.width )
+			throw new IllegalArgumentException(
+					"The maximum disparity is too large for this image size: max size "+left.width);
+		if( disparity instanceof GrayU8 && rangeDisparity+1 > 255 )
+			throw new IllegalArgumentException("Disparity range is too large for GrayU8");
+
+		final int w = left.width;
+		final int h = left.height;
+		int rows = tileHeight <= 0 ? h : tileHeight;
+
+		cost.setImages(left, right);
+
+		for (int t0 = 0; t0 < h; t0 += rows) {
+			int t1 = Math.min(h, t0 + rows);
+			int y0 = Math.max(0, t0 - tileOverlap);
+			int y1 = Math.min(h, t1 + tileOverlap);
+
+			int length = w*(y1-y0)*rangeDisparity;
+			if( costVolume.length < length )
+				costVolume = new short[length];
+
+			costTask.y0 = y0;
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				BoofConcurrency.loopBlocks(y0, y1, costTask);
+			} else {
+				costTask.process(0, y0, y1);
+			}
+
+			aggregation.process(costVolume, w, y1-y0, rangeDisparity);
+			selector.select(aggregation.getAggregated(), minDisparity, rangeDisparity, y0, t0, t1, disparity);
+		}
+	}
+
+	private class CostTask implements IntRangeTask {
+		int y0;
+
+		@Override
+		public void process(int block, int idx0, int idx1) {
+			cost.process(y0, idx0, idx1, costVolume);
+		}
+	}
+
+	public int getMinDisparity() {
+		return minDisparity;
+	}
+
+	public int getMaxDisparity() {
+		return maxDisparity;
+	}
+
+	public int getTileHeight() {
+		return tileHeight;
+	}
+
+	public int getTileOverlap() {
+		return tileOverlap;
+	}
+
+	public Class<T> getInputType() {
+		return cost.getInputType();
+	}
+
+	public SgmDisparityCost<T> getCost() {
+		return cost;
+	}
+
+	public SgmCostAggregation getAggregation() {
+		return aggregation;
+	}
+
+	public SgmDisparitySelector getSelector() {
+		return selector;
+	}
+}
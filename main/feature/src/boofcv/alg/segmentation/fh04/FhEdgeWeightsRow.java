@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.segmentation.fh04;
+
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+/**
+ * <p>
+ * Computes the weight of edges in {@link SegmentFelzenszwalbHuttenlocher04} one row at a time and writes them
+ * into a primitive array, instead of creating an {@link SegmentFelzenszwalbHuttenlocher04.Edge} for each one.
+ * Only edges to neighbors which come after the pixel in raster order are computed, that way each edge is
+ * considered once.  Neighbor 'i' of a pixel is in the order (x+1,y), (x,y+1), (x+1,y+1), (x-1,y+1),
+ * the last two are only used by a {@link ConnectRule#EIGHT} rule.
+ * </p>
+ *
+ * <p>
+ * Once the image has been specified different rows can be computed at the same time by different threads.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class FhEdgeWeightsRow<T extends ImageBase> {
+
+	// connectivity rule.  Determines the number of neighbors
+	protected ConnectRule rule;
+
+	// the image being processed
+	protected T input;
+
+	protected FhEdgeWeightsRow(ConnectRule rule) {
+		if( rule != ConnectRule.FOUR && rule != ConnectRule.EIGHT )
+			throw new IllegalArgumentException("Unknown connect rule");
+		this.rule = rule;
+	}
+
+	/**
+	 * Specifies the image whose edges are computed
+	 */
+	public void setImage( T input ) {
+		this.input = input;
+	}
+
+	/**
+	 * Computes the weight of the edges from every pixel in row 'y' to its neighbors.  The weight of edge 'i' for
+	 * the pixel at 'x' is written to weights[x*getNumNeighbors() + i].  Edges which lead outside the image are
+	 * assigned a weight of -1.
+	 *
+	 * @param y The row
+	 * @param weights Storage for the weights.  Must have a length of at least width*getNumNeighbors().
+	 */
+	public void computeRow( int y , float[] weights ) {
+		final int width = input.width;
+		final int stride = input.stride;
+		final boolean below = y+1 < input.height;
+
+		int indexSrc = input.startIndex + y*stride;
+		int i = 0;
+
+		if( rule == ConnectRule.FOUR ) {
+			for( int x = 0; x < width; x++ , indexSrc++ ) {
+				weights[i++] = x+1 < width ? weight(indexSrc, indexSrc+1) : -1;
+				weights[i++] = below ? weight(indexSrc, indexSrc+stride) : -1;
+			}
+		} else {
+			for( int x = 0; x < width; x++ , indexSrc++ ) {
+				boolean right = x+1 < width;
+				weights[i++] = right ? weight(indexSrc, indexSrc+1) : -1;
+				weights[i++] = below ? weight(indexSrc, indexSrc+stride) : -1;
+				weights[i++] = right && below ? weight(indexSrc, indexSrc+stride+1) : -1;
+				weights[i++] = x > 0 && below ? weight(indexSrc, indexSrc+stride-1) : -1;
+			}
+		}
+	}
+
+	/**
+	 * Computes the weight of the edge between two pixels.
+	 *
+	 * @param indexA Index of the first pixel in the input image
+	 * @param indexB Index of the second pixel in the input image
+	 */
+	protected abstract float weight( int indexA , int indexB );
+
+	/**
+	 * Number of edges computed for each pixel.  2 for a 4-connect rule and 4 for an 8-connect rule.
+	 */
+	public int getNumNeighbors() {
+		return rule == ConnectRule.FOUR ? 2 : 4;
+	}
+
+	public ConnectRule getRule() {
+		return rule;
+	}
+
+	public abstract ImageType<T> getInputType();
+}
@@ -23,12 +23,14 @@ import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 import org.ddogleg.sorting.ApproximateSort_F32;
-import org.ddogleg.sorting.QuickSortObj_F32;
 import org.ddogleg.sorting.SortableParameter_F32;
 import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_F32;
 import org.ddogleg.struct.GrowQueue_I32;
 
+import java.util.Arrays;
+import java.util.Comparator;
+
 /**
  * <p>
  * Implementation of Felzenszwalb-Huttenlocher [1] image segmentation algorithm. It is fast and uses a graph based
@@ -64,7 +66,7 @@ import org.ddogleg.struct.GrowQueue_I32;
  * sensitivity of the algorithm to minor differences.  The sensitivity arises from it being a greedy algorithm.</p>
  *
  * <p>Here is a list of minor differences that cause different regions due to its sensitivity.  The order in which
- * edges with identical weights are sorted is arbitrary.  The order that edges are computed is arbitrary.  Floating
+ * edges with identical weights are sorted is arbitrary in the reference.  The order that edges are computed is arbitrary.  Floating
  * point error in weight calculation gradually causes segmentation to diverge to a different solution even
  * when given the same input.</p>
  *
@@ -81,10 +83,10 @@ import org.ddogleg.struct.GrowQueue_I32;
 public class SegmentFelzenszwalbHuttenlocher04<T extends ImageBase> {
 
 	// tuning parameter.  Determines the number of segments.  Larger number means larger regions
-	private float K;
+	protected float K;
 
 	// the minimum region size.  Regions smaller than this are merged into larger ones
-	private int minimumSize;
+	protected int minimumSize;
 
 	// Storage for the disjoint-set forest.  Same data structure as 'output', but renamed for convenience.
 	// Value stored in each pixel refers to the parent vertex.  A root vertex contains a reference to itself
@@ -93,7 +95,8 @@ public class SegmentFelzenszwalbHuttenlocher04<T extends ImageBase> {
 	// Function that computes the weight for each edge
 	private FhEdgeWeights<T> computeWeights;
 
-	private QuickSortObj_F32 sorter = new QuickSortObj_F32();
+	// sorts edges by weight, then by pixel, then by neighbor.  Same order as SegmentFelzenszwalbHuttenlocher04_MT
+	private EdgeOrder sorter = new EdgeOrder();
 	private ApproximateSort_F32 sorterApprox = null;
 	// storage for edges so that they can be recycled on the next call
 	protected FastQueue<Edge> edges = new FastQueue<Edge>(Edge.class,true);
@@ -191,12 +194,7 @@ public class SegmentFelzenszwalbHuttenlocher04<T extends ImageBase> {
 
 		// sort edges
 //		long time0 = System.currentTimeMillis();
-		if( sorterApprox != null ) {
-			sorterApprox.computeRange(edges.data,0,edges.size);
-			sorterApprox.sortObject(edges.data,0,edges.size);
-		} else {
-			sorter.sort(edges.data,edges.size);
-		}
+		sortEdges();
 //		long time1 = System.currentTimeMillis();
 
 //		System.out.println("Sort time " + (time1 - time0));
@@ -239,6 +237,20 @@ public class SegmentFelzenszwalbHuttenlocher04<T extends ImageBase> {
 //		System.out.println("Edge merge time " + (time2 - time1));
 	}
 
+	/**
+	 * Sorts the edges from smallest to largest weight.  Edges with the same weight are ordered by the index of
+	 * their first pixel and then by neighbor, so that the results don't depend on how the edges were computed.
+	 */
+	protected void sortEdges() {
+		if( sorterApprox != null ) {
+			sorterApprox.computeRange(edges.data,0,edges.size);
+			sorterApprox.sortObject(edges.data,0,edges.size);
+		} else {
+			sorter.width = graph.width;
+			Arrays.sort(edges.data,0,edges.size,sorter);
+		}
+	}
+
 	/**
 	 * Look at the remaining regions and if there are any small ones marge them into a larger region
 	 */
@@ -355,4 +367,37 @@ public class SegmentFelzenszwalbHuttenlocher04<T extends ImageBase> {
 			return sortValue;
 		}
 	}
+
+	/**
+	 * Orders edges by weight, then the index of the first pixel, then the neighbor.  Neighbors are in the order
+	 * (x+1,y), (x,y+1), (x+1,y+1), (x-1,y+1), the same as {@link FhEdgeWeightsRow}.
+	 */
+	static class EdgeOrder implements Comparator<Edge> {
+		// width of the image
+		int width;
+
+		@Override
+		public int compare(Edge a, Edge b) {
+			int value = Float.compare(a.sortValue, b.sortValue);
+			if( value != 0 )
+				return value;
+
+			int firstA = Math.min(a.indexA, a.indexB);
+			int firstB = Math.min(b.indexA, b.indexB);
+			if( firstA != firstB )
+				return firstA < firstB ? -1 : 1;
+
+			return neighbor(a) - neighbor(b);
+		}
+
+		private int neighbor( Edge e ) {
+			int first = Math.min(e.indexA, e.indexB);
+			int second = Math.max(e.indexA, e.indexB);
+
+			if( first/width == second/width )
+				return 0;
+			int dx = second%width - first%width;
+			return dx == 0 ? 1 : (dx == 1 ? 2 : 3);
+		}
+	}
 }
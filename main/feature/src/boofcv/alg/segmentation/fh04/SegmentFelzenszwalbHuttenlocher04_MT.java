@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.segmentation.fh04;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link SegmentFelzenszwalbHuttenlocher04}.  Computing and sorting the edges takes
+ * most of the time, so those steps are done by a parallel counting sort while the edges are merged by a single
+ * thread.  The image is split into bands of rows.  Each band computes the weights of its edges with
+ * {@link FhEdgeWeightsRow} and counts how many fall into each bin.  A prefix sum over all the bins and bands
+ * gives every band the location of its edges in the sorted list, then each band computes its edge weights a second
+ * time and writes them into their sorted location.  Recomputing the weights avoids storing an unsorted copy
+ * of the edges.  Edges are stored in primitive arrays with an edge encoded as the index of its first pixel and
+ * the neighbor it connects to.
+ * </p>
+ *
+ * <p>
+ * An edge's bin is found from the 16 most significant bits of its weight as a float, i.e. its exponent and
+ * the first 7 bits of its mantissa.  Integer weights up to 256, such as the ones from
+ * {@link boofcv.struct.image.GrayU8} images, have their own bin.  Bins which contain different weights are then
+ * sorted by weight in parallel.  Edges with the same weight are ordered by the index of the pixel and then the
+ * neighbor, which is the same order as the single threaded implementation, so the output is identical and
+ * independent of the number of threads.  If {@link #configureApproximateSort(int)} is called the bins are not
+ * sorted and weights are only ordered to within a relative error of 2<sup>-7</sup>.  The actual weight is
+ * always used when deciding if two regions should be merged.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SegmentFelzenszwalbHuttenlocher04_MT<T extends ImageBase> extends SegmentFelzenszwalbHuttenlocher04<T> {
+
+	/**
+	 * Minimum number of rows processed by a thread
+	 */
+	public static int MIN_BAND_HEIGHT = 16;
+
+	/**
+	 * Number of bins used to sort the edges.  One for every value of the 16 most significant bits of
+	 * a non-negative float.
+	 */
+	public static final int NUM_BINS = 1 << 15;
+
+	/**
+	 * Minimum number of bins sorted by a thread
+	 */
+	public static int MIN_SORT_BINS = 1024;
+
+	// Function that computes the weight for each edge
+	FhEdgeWeightsRow<T> computeWeights;
+
+	// Edges sorted by weight.  Edge 'i' of the pixel with index 'p' is encoded as (p << shift) + i
+	protected GrowQueue_I32 sortedEdges = new GrowQueue_I32();
+	// Weight of each sorted edge
+	protected GrowQueue_F32 sortedWeights = new GrowQueue_F32();
+	// Encoded edges which were not matched to anything.  used to merge small regions
+	protected GrowQueue_I32 unmatchedEdges = new GrowQueue_I32();
+
+	// index of the first edge in each bin.  The last element is the total number of edges
+	protected int[] binStart = new int[NUM_BINS+1];
+	// if true the edges inside each bin are sorted by weight
+	protected boolean exactSort = true;
+
+	// number of bits used to encode the neighbor in an edge
+	protected int shift;
+	// offset from a pixel's index to the index of each of its neighbors
+	protected int[] neighborOffset = new int[4];
+
+	// storage for each band of rows
+	FastQueue<BandStorage> bands = new FastQueue<BandStorage>(BandStorage.class,true) {
+		@Override
+		protected BandStorage createInstance() {
+			return new BandStorage();
+		}
+	};
+
+	// storage used to sort the bins in each block
+	FastQueue<SortStorage> sortStorage = new FastQueue<SortStorage>(SortStorage.class,true) {
+		@Override
+		protected SortStorage createInstance() {
+			return new SortStorage();
+		}
+	};
+
+	/**
+	 * Specifies tuning parameter
+	 *
+	 * @param k Tuning parameter.  Larger regions are preferred for larger values of K.  Try 300
+	 * @param minimumSize Regions smaller than this are merged into larger regions
+	 * @param computeWeights Function used to compute the weight for all the edges.
+	 */
+	public SegmentFelzenszwalbHuttenlocher04_MT(float k, int minimumSize, FhEdgeWeightsRow<T> computeWeights) {
+		super(k, minimumSize, null);
+		this.computeWeights = computeWeights;
+	}
+
+	/**
+	 * Edges are only sorted by bin, instead of exactly.  The number of bins is fixed at {@link #NUM_BINS}
+	 * so numBins is ignored.
+	 */
+	@Override
+	public void configureApproximateSort( int numBins ) {
+		exactSort = false;
+	}
+
+	@Override
+	public void process( T input , GrayS32 output ) {
+		if( output.isSubimage() )
+			throw new IllegalArgumentException("Output can't be a sub-image");
+		InputSanityCheck.checkSameShape(input, output);
+
+		initialize(input,output);
+		unmatchedEdges.reset();
+
+		// compute edges weights and sort them
+		computeWeights.setImage(input);
+		computeSortedEdges();
+
+		// Merge regions together
+		mergeRegions();
+
+		// Get rid of small ones
+		mergeSmallRegions();
+
+		// compute the final output
+		computeOutput();
+	}
+
+	/**
+	 * Computes the weight of every edge and sorts them using a counting sort.  If the sort is exact the edges
+	 * inside each bin are then sorted by weight.
+	 */
+	protected void computeSortedEdges() {
+		final int width = graph.width;
+		final int height = graph.height;
+		final int numNeighbors = computeWeights.getNumNeighbors();
+		final int rowLength = width*numNeighbors;
+
+		shift = numNeighbors == 2 ? 1 : 2;
+		if( width*height > (Integer.MAX_VALUE >> shift) )
+			throw new IllegalArgumentException("Image is too large");
+
+		neighborOffset[0] = 1;
+		neighborOffset[1] = width;
+		neighborOffset[2] = width+1;
+		neighborOffset[3] = width-1;
+
+		int numBands = Math.max(1,BoofConcurrency.computeNumBlocks(0, height, MIN_BAND_HEIGHT));
+		bands.resize(numBands);
+		for (int i = 0; i < numBands; i++) {
+			BandStorage band = bands.get(i);
+			if( band.weights.length < rowLength )
+				band.weights = new float[rowLength];
+		}
+
+		// count the number of edges in each bin for each band
+		BoofConcurrency.loopBlocks(0, height, MIN_BAND_HEIGHT, new IntRangeTask() {
+			@Override
+			public void process(int block, int y0, int y1) {
+				BandStorage band = bands.get(block);
+				int[] histogram = band.histogram;
+				float[] weights = band.weights;
+
+				Arrays.fill(histogram,0);
+				for (int y = y0; y < y1; y++) {
+					computeWeights.computeRow(y, weights);
+					for (int i = 0; i < rowLength; i++) {
+						float w = weights[i];
+						if( w < 0 )
+							continue;
+						histogram[bin(w)]++;
+					}
+				}
+			}
+		});
+
+		// convert the counts into the location of the first edge in each band's bins
+		int total = 0;
+		for (int bin = 0; bin < NUM_BINS; bin++) {
+			binStart[bin] = total;
+			for (int i = 0; i < numBands; i++) {
+				int[] histogram = bands.get(i).histogram;
+				int count = histogram[bin];
+				histogram[bin] = total;
+				total += count;
+			}
+		}
+		binStart[NUM_BINS] = total;
+
+		sortedEdges.resize(total);
+		sortedWeights.resize(total);
+
+		// write the edges into their sorted location
+		BoofConcurrency.loopBlocks(0, height, MIN_BAND_HEIGHT, new IntRangeTask() {
+			@Override
+			public void process(int block, int y0, int y1) {
+				BandStorage band = bands.get(block);
+				int[] location = band.histogram;
+				float[] weights = band.weights;
+				int[] edges = sortedEdges.data;
+				float[] sorted = sortedWeights.data;
+
+				for (int y = y0; y < y1; y++) {
+					computeWeights.computeRow(y, weights);
+					int edgeRow = (y*width) << shift;
+					for (int i = 0; i < rowLength; i++) {
+						float w = weights[i];
+						if( w < 0 )
+							continue;
+						int index = location[bin(w)]++;
+						edges[index] = edgeRow + i;
+						sorted[index] = w;
+					}
+				}
+			}
+		});
+
+		if( exactSort )
+			sortBins();
+	}
+
+	/**
+	 * Sorts the edges inside each bin by weight.  Edges in a bin are already ordered by pixel and neighbor, so
+	 * ties are broken by the encoded edge.  A bin is skipped if it's already sorted, e.g. all its edges have the
+	 * same weight.
+	 */
+	protected void sortBins() {
+		int numBlocks = Math.max(1,BoofConcurrency.computeNumBlocks(0, NUM_BINS, MIN_SORT_BINS));
+		sortStorage.resize(numBlocks);
+
+		BoofConcurrency.loopBlocks(0, NUM_BINS, MIN_SORT_BINS, new IntRangeTask() {
+			@Override
+			public void process(int block, int bin0, int bin1) {
+				SortStorage storage = sortStorage.get(block);
+				int[] edges = sortedEdges.data;
+				float[] weights = sortedWeights.data;
+
+				for (int bin = bin0; bin < bin1; bin++) {
+					int start = binStart[bin];
+					int end = binStart[bin+1];
+
+					if( isSorted(weights, start, end) )
+						continue;
+
+					// the bits of a non-negative float increase with its value.  Each key is unique
+					int length = end-start;
+					if( storage.keys.length < length )
+						storage.keys = new long[length];
+					long[] keys = storage.keys;
+					for (int i = 0; i < length; i++) {
+						long bits = Float.floatToIntBits(weights[start+i]);
+						keys[i] = (bits << 32) | (edges[start+i] & 0xFFFFFFFFL);
+					}
+					Arrays.sort(keys, 0, length);
+					for (int i = 0; i < length; i++) {
+						long key = keys[i];
+						weights[start+i] = Float.intBitsToFloat((int)(key >>> 32));
+						edges[start+i] = (int)key;
+					}
+				}
+			}
+		});
+	}
+
+	private static boolean isSorted( float[] weights , int start , int end ) {
+		for (int i = start+1; i < end; i++) {
+			if( weights[i-1] > weights[i] )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Bin that the weight is sorted into.  The bits of a non-negative float increase with its value.
+	 */
+	static int bin( float weight ) {
+		return Float.floatToIntBits(weight) >>> 16;
+	}
+
+	/**
+	 * Same as {@link SegmentFelzenszwalbHuttenlocher04#mergeRegions()} but goes through the sorted edges
+	 */
+	@Override
+	protected void mergeRegions() {
+		final int[] edges = sortedEdges.data;
+		final float[] weights = sortedWeights.data;
+		final int mask = (1 << shift)-1;
+
+		for( int i = 0; i < sortedEdges.size; i++ ) {
+			int edge = edges[i];
+			int indexA = edge >> shift;
+			int indexB = indexA + neighborOffset[edge & mask];
+
+			int rootA = find(indexA);
+			int rootB = find(indexB);
+
+			// see if they are already part of the same segment
+			if( rootA == rootB )
+				continue;
+
+			float weight = weights[i];
+
+			if( weight <= threshold.data[rootA] && weight <= threshold.data[rootB] )  {
+				// ----- Merge the two regions/components
+				int sizeA = regionSize.data[rootA];
+				int sizeB = regionSize.data[rootB];
+
+				// Everything is merged into region A, so update its threshold
+				threshold.data[rootA] = weight + K/(sizeA + sizeB);
+
+				// Point everything towards rootA
+				graph.data[indexB] = rootA;
+				graph.data[rootB] = rootA;
+
+				// Update the size of regionA
+				regionSize.data[rootA] = sizeA + sizeB;
+			} else {
+				unmatchedEdges.add(edge);
+			}
+		}
+	}
+
+	/**
+	 * Same as {@link SegmentFelzenszwalbHuttenlocher04#mergeSmallRegions()} but goes through the encoded edges
+	 */
+	@Override
+	protected void mergeSmallRegions() {
+		final int mask = (1 << shift)-1;
+
+		for( int i = 0; i < unmatchedEdges.size; i++ ) {
+			int edge = unmatchedEdges.data[i];
+			int indexA = edge >> shift;
+			int indexB = indexA + neighborOffset[edge & mask];
+
+			int rootA = find(indexA);
+			int rootB = find(indexB);
+
+			// see if they are already part of the same segment
+			if( rootA == rootB )
+				continue;
+
+			int sizeA = regionSize.data[rootA];
+			int sizeB = regionSize.data[rootB];
+
+			// merge if one of the regions is too small
+			if( sizeA < minimumSize || sizeB < minimumSize ) {
+				// Point everything towards rootA
+				graph.data[indexB] = rootA;
+				graph.data[rootB] = rootA;
+
+				// Update the size of regionA
+				regionSize.data[rootA] = sizeA + sizeB;
+			}
+		}
+	}
+
+	@Override
+	public ImageType<T> getInputType() {
+		return computeWeights.getInputType();
+	}
+
+	/**
+	 * Storage for a band of rows
+	 */
+	static class BandStorage {
+		// weights of the edges in a row
+		float[] weights = new float[0];
+		// number of edges in each bin, then the location the next edge in each bin is written to
+		int[] histogram = new int[NUM_BINS];
+	}
+
+	/**
+	 * Storage for sorting the edges inside of bins
+	 */
+	static class SortStorage {
+		// weight and encoded edge, packed so that they can be sorted together
+		long[] keys = new long[0];
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.segmentation.fh04.impl;
+
+import boofcv.alg.segmentation.fh04.FhEdgeWeightsRow;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+
+/**
+ * Computes edge weight as the F-norm different in pixel value for {@link Planar} images.
+ *
+ * @author Peter Abeles
+ */
+public class FhEdgeWeightsRow_PLF32 extends FhEdgeWeightsRow<Planar<GrayF32>> {
+
+	int numBands;
+
+	public FhEdgeWeightsRow_PLF32(ConnectRule rule, int numBands) {
+		super(rule);
+		this.numBands = numBands;
+	}
+
+	@Override
+	protected float weight(int indexA, int indexB) {
+		float total = 0;
+		for( int i = 0; i < numBands; i++ ) {
+			float[] data = input.bands[i].data;
+			float diff = data[indexA]-data[indexB];
+			total += diff*diff;
+		}
+		return (float)Math.sqrt(total);
+	}
+
+	@Override
+	public ImageType<Planar<GrayF32>> getInputType() {
+		return ImageType.pl(numBands,GrayF32.class);
+	}
+}
@@ -18,6 +18,9 @@
 
 package boofcv.alg.segmentation.ms;
 
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.core.image.FactoryGImageMultiBand;
+import boofcv.core.image.GImageMultiBand;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
@@ -25,6 +28,9 @@ import georegression.struct.point.Point2D_I32;
 import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_I32;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * <p>
  * Performs the search step in mean-shift image segmentation [1].  The mode of a pixel is the point at which mean-shift
@@ -48,6 +54,14 @@ import org.ddogleg.struct.GrowQueue_I32;
  * </p>
  *
  * <p>
+ * Optionally a grid of spacial bins can be used to reduce the number of kernel evaluations.  The minimum and maximum
+ * value of each color band inside each bin is computed once per image.  During each mean-shift iteration any bin
+ * which can't contain a color inside the maximum color distance is skipped, since all of its samples would have
+ * a weight of zero.  The results are identical to not using the grid, but this is only true if the interpolation
+ * never goes outside the range of the pixels it samples, e.g. bilinear or nearest-neighbor.
+ * </p>
+ *
+ * <p>
  * NOTES:
  * <ul>
  * <li>Spacial distance is normalized by dividing the found Euclidean distance squared by the maximum possible
@@ -114,6 +128,28 @@ public abstract class SegmentMeanShiftSearch<T extends ImageBase> {
 	// mode of mean-shift
 	protected float modeX, modeY;
 
+	// rows which the search can read from and write to in pixelToMode
+	protected int rowStart = 0, rowEnd = Integer.MAX_VALUE;
+
+	// If not null then modes are looked up using this table instead of quickMode.  Used by workers in a
+	// concurrent implementation, which only search a band of rows and can't share quickMode
+	protected Map<Integer,Integer> localModes;
+
+	// size of a spacial bin in pixels. If <= 0 then bins are not used
+	protected int binSize;
+	// number of bins along each axis
+	protected int binCols, binRows;
+	// minimum and maximum value of each band inside each bin.  Includes the pixels just outside the bin which
+	// are sampled by interpolation
+	protected float[] binMin = new float[0], binMax = new float[0];
+	// For the current iteration, true if the bin can be skipped.  Only bins inside the kernel are considered
+	protected boolean[] binSkip = new boolean[0];
+	// offset in binSkip for each row and column in the kernel
+	protected int[] kernelBinRow, kernelBinCol;
+	// used to read pixel values when computing the bins
+	private GImageMultiBand binImage;
+	private float[] binPixel;
+
 	/**
 	 * Configures mean-shift segmentation
 	 *
@@ -138,6 +174,9 @@ public abstract class SegmentMeanShiftSearch<T extends ImageBase> {
 
 		this.maxColorDistanceSq = maxColorDistance*maxColorDistance;
 
+		this.kernelBinRow = new int[widthY];
+		this.kernelBinCol = new int[widthX];
+
 		// precompute the distance each pixel is from the sample point
 		// normalize the values such that the maximum distance will be 1
 		spacialTable = new float[widthX*widthY];
@@ -162,6 +201,248 @@ public abstract class SegmentMeanShiftSearch<T extends ImageBase> {
 	 */
 	public abstract void process( T image );
 
+	/**
+	 * Specifies the size of the spacial bins used to skip samples which are too different in color.  Only
+	 * use with interpolation which never goes outside the range of the pixels it samples, e.g. bilinear.
+	 *
+	 * @param binSize Size of a bin in pixels.  If &le; 0 then bins are not used.
+	 */
+	public void setBinSize( int binSize ) {
+		this.binSize = binSize;
+	}
+
+	public int getBinSize() {
+		return binSize;
+	}
+
+	/**
+	 * Resets the list of modes and prepares images for processing
+	 */
+	protected void initialize( T image ) {
+		this.image = image;
+
+		modeLocation.reset();
+		modeColor.reset();
+		modeMemberCount.reset();
+
+		pixelToMode.reshape(image.width, image.height);
+		quickMode.reshape(image.width, image.height);
+		// mark as -1 so it knows which pixels have been assigned a mode already and can skip them
+		ImageMiscOps.fill(pixelToMode, -1);
+		// mark all pixels are not being a mode
+		ImageMiscOps.fill(quickMode,-1);
+
+		if( binSize > 0 )
+			computeBins();
+	}
+
+	/**
+	 * Performs mean-shift on every pixel in the specified rows.  Only the pixels in these rows will be read from
+	 * or written to in pixelToMode.
+	 *
+	 * @param y0 First row, inclusive
+	 * @param y1 Last row, exclusive
+	 */
+	protected abstract void searchRows( int y0 , int y1 );
+
+	/**
+	 * Index of the mode at the specified pixel.  -1 if there is no mode there
+	 */
+	protected int lookupMode( int pixelIndex ) {
+		if( localModes == null )
+			return quickMode.data[pixelIndex];
+		Integer modeIndex = localModes.get(pixelIndex);
+		return modeIndex == null ? -1 : modeIndex;
+	}
+
+	/**
+	 * Saves the index of the mode at the specified pixel
+	 */
+	protected void saveMode( int pixelIndex , int modeIndex ) {
+		if( localModes == null )
+			quickMode.data[pixelIndex] = modeIndex;
+		else
+			localModes.put(pixelIndex,modeIndex);
+	}
+
+	/**
+	 * Prepares a worker which will search a band of rows in the image being processed.  The worker writes to
+	 * this instance's pixelToMode but has its own list of modes.  The worker's interpolation must already
+	 * be set to the same image.
+	 */
+	protected void prepareWorker( SegmentMeanShiftSearch<T> worker ) {
+		worker.image = image;
+		worker.pixelToMode = pixelToMode;
+
+		worker.modeLocation.reset();
+		worker.modeColor.reset();
+		worker.modeMemberCount.reset();
+		if( worker.localModes == null )
+			worker.localModes = new HashMap<Integer, Integer>();
+		else
+			worker.localModes.clear();
+
+		worker.binSize = binSize;
+		worker.binCols = binCols;
+		worker.binRows = binRows;
+		worker.binMin = binMin;
+		worker.binMax = binMax;
+	}
+
+	/**
+	 * Adds the modes found by a worker to this instance's modes.  Must be called for the workers in the same order
+	 * as the rows they searched so that modes are in the same order as a single threaded search.
+	 *
+	 * @param worker The worker
+	 * @param localToGlobal (Output) Converts the worker's mode index into this instance's mode index
+	 */
+	protected void mergeWorker( SegmentMeanShiftSearch<T> worker , GrowQueue_I32 localToGlobal ) {
+		int numBands = getImageType().getNumBands();
+
+		localToGlobal.resize(worker.modeLocation.size);
+		for( int i = 0; i < worker.modeLocation.size; i++ ) {
+			Point2D_I32 p = worker.modeLocation.get(i);
+			int pixelIndex = p.y*image.width + p.x;
+
+			int modeIndex = quickMode.data[pixelIndex];
+			if( modeIndex < 0 ) {
+				modeIndex = modeLocation.size();
+				modeLocation.grow().set(p);
+				System.arraycopy(worker.modeColor.get(i),0,modeColor.grow(),0,numBands);
+				quickMode.data[pixelIndex] = modeIndex;
+				modeMemberCount.add(0);
+			}
+			modeMemberCount.data[modeIndex] += worker.modeMemberCount.data[i];
+			localToGlobal.data[i] = modeIndex;
+		}
+	}
+
+	/**
+	 * Converts the worker's mode indexes in pixelToMode into this instance's mode indexes
+	 */
+	protected void relabelRows( GrowQueue_I32 localToGlobal , int y0 , int y1 ) {
+		int[] data = pixelToMode.data;
+		for( int i = y0*pixelToMode.width; i < y1*pixelToMode.width; i++ ) {
+			data[i] = localToGlobal.data[data[i]];
+		}
+	}
+
+	/**
+	 * Computes the minimum and maximum color of each bin.  A bin includes the row and column of pixels after it
+	 * since they are sampled by bilinear interpolation.  The range is expanded a little bit to account for
+	 * round off errors in interpolation.
+	 */
+	protected void computeBins() {
+		int numBands = getImageType().getNumBands();
+
+		if( binImage == null ) {
+			binImage = FactoryGImageMultiBand.wrap(image);
+			binPixel = new float[numBands];
+		} else {
+			binImage.wrap(image);
+		}
+
+		binCols = (image.width + binSize - 1)/binSize;
+		binRows = (image.height + binSize - 1)/binSize;
+
+		int N = binCols*binRows*numBands;
+		if( binMin.length < N ) {
+			binMin = new float[N];
+			binMax = new float[N];
+		}
+
+		for( int by = 0; by < binRows; by++ ) {
+			int y0 = by*binSize, y1 = Math.min(image.height,y0+binSize+1);
+			for( int bx = 0; bx < binCols; bx++ ) {
+				int x0 = bx*binSize, x1 = Math.min(image.width,x0+binSize+1);
+				int indexBin = (by*binCols + bx)*numBands;
+
+				for( int band = 0; band < numBands; band++ ) {
+					binMin[indexBin+band] = Float.MAX_VALUE;
+					binMax[indexBin+band] = -Float.MAX_VALUE;
+				}
+
+				for( int y = y0; y < y1; y++ ) {
+					for( int x = x0; x < x1; x++ ) {
+						binImage.get(x,y,binPixel);
+						for( int band = 0; band < numBands; band++ ) {
+							float v = binPixel[band];
+							if( v < binMin[indexBin+band] ) binMin[indexBin+band] = v;
+							if( v > binMax[indexBin+band] ) binMax[indexBin+band] = v;
+						}
+					}
+				}
+
+				for( int band = 0; band < numBands; band++ ) {
+					binMin[indexBin+band] -= 1e-4f*(Math.abs(binMin[indexBin+band])+1);
+					binMax[indexBin+band] += 1e-4f*(Math.abs(binMax[indexBin+band])+1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Decides which bins inside the kernel can be skipped in the current iteration.  A bin is skipped if the
+	 * smallest possible distance to a color inside of it is more than the maximum color distance.  After
+	 * this is called a sample at kernel coordinate (xx,yy) can be skipped if
+	 * binSkip[kernelBinRow[yy]+kernelBinCol[xx]] is true.
+	 *
+	 * @param x0 x-coordinate of the kernel's first sample
+	 * @param y0 y-coordinate of the kernel's first sample
+	 * @param color The current mean color
+	 */
+	protected void selectBins( float x0 , float y0 , float[] color ) {
+		int numBands = color.length;
+
+		// bins which contain the kernel's samples
+		int bx0 = binOf(x0, binCols), bx1 = binOf(x0 + widthX - 1, binCols);
+		int by0 = binOf(y0, binRows), by1 = binOf(y0 + widthY - 1, binRows);
+		int cols = bx1-bx0+1;
+		int rows = by1-by0+1;
+
+		if( binSkip.length < rows*cols )
+			binSkip = new boolean[rows*cols];
+
+		for( int xx = 0; xx < widthX; xx++ ) {
+			kernelBinCol[xx] = binOf(x0+xx, binCols) - bx0;
+		}
+		for( int yy = 0; yy < widthY; yy++ ) {
+			kernelBinRow[yy] = (binOf(y0+yy, binRows) - by0)*cols;
+		}
+
+		for( int by = by0; by <= by1; by++ ) {
+			for( int bx = bx0; bx <= bx1; bx++ ) {
+				int indexBin = (by*binCols + bx)*numBands;
+
+				// smallest distance squared to a color inside the bin
+				float distance = 0;
+				for( int band = 0; band < numBands; band++ ) {
+					float c = color[band];
+					float d;
+					if( c < binMin[indexBin+band] )
+						d = binMin[indexBin+band] - c;
+					else if( c > binMax[indexBin+band] )
+						d = binMax[indexBin+band] - c;
+					else
+						d = 0;
+					distance += d*d;
+				}
+
+				binSkip[(by-by0)*cols + bx-bx0] = distance/maxColorDistanceSq > 1;
+			}
+		}
+	}
+
+	/**
+	 * Bin a sample along one axis is inside of.  Samples outside the image are assigned to the closest bin
+	 */
+	private int binOf( float sample , int numBins ) {
+		if( sample < 0 )
+			return 0;
+		int bin = (int)sample/binSize;
+		return bin >= numBins ? numBins-1 : bin;
+	}
+
 	/**
 	 * Returns the Euclidean distance squared between the two vectors
 	 */
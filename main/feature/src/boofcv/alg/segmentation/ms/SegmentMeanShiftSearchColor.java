@@ -19,7 +19,6 @@
 package boofcv.alg.segmentation.ms;
 
 import boofcv.alg.interpolate.InterpolatePixelMB;
-import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.feature.ColorQueue_F32;
 import boofcv.struct.image.ImageMultiBand;
 import boofcv.struct.image.ImageType;
@@ -76,24 +75,20 @@ public class SegmentMeanShiftSearchColor<T extends ImageMultiBand> extends Segme
 	@Override
 	public void process( T image ) {
 		// initialize data structures
-		this.image = image;
-
-		modeLocation.reset();
-		modeColor.reset();
-		modeMemberCount.reset();
-
+		initialize(image);
 		interpolate.setImage(image);
 
-		pixelToMode.reshape(image.width, image.height);
-		quickMode.reshape(image.width, image.height);
-		// mark as -1 so it knows which pixels have been assigned a mode already and can skip them
-		ImageMiscOps.fill(pixelToMode, -1);
-		// mark all pixels are not being a mode
-		ImageMiscOps.fill(quickMode,-1);
-
 		// use mean shift to find the peak of each pixel in the image
-		int indexImg = 0;
-		for( int y = 0; y < image.height; y++ ) {
+		searchRows(0,image.height);
+	}
+
+	@Override
+	protected void searchRows( int y0 , int y1 ) {
+		rowStart = y0;
+		rowEnd = y1;
+
+		int indexImg = y0*image.width;
+		for( int y = y0; y < y1; y++ ) {
 			for( int x = 0; x < image.width; x++ , indexImg++ ) {
 				if( pixelToMode.data[indexImg] != -1 ) {
 					int peakIndex = pixelToMode.data[indexImg];
@@ -111,7 +106,7 @@ public class SegmentMeanShiftSearchColor<T extends ImageMultiBand> extends Segme
 				int modePixelIndex = modeY*image.width + modeX;
 
 				// get index in the list of peaks
-				int modeIndex = quickMode.data[modePixelIndex];
+				int modeIndex = lookupMode(modePixelIndex);
 				// If the mode is new add it to the list
 				if( modeIndex < 0 ) {
 					modeIndex = this.modeLocation.size();
@@ -119,7 +114,7 @@ public class SegmentMeanShiftSearchColor<T extends ImageMultiBand> extends Segme
 					// Save the peak's color
 					savePeakColor(meanColor);
 					// Mark the mode in the segment image
-					quickMode.data[modePixelIndex] = modeIndex;
+					saveMode(modePixelIndex, modeIndex);
 					// Set the initial count to zero. This will be incremented when it is traversed later on
 					modeMemberCount.add(0);
 				}
@@ -134,6 +129,9 @@ public class SegmentMeanShiftSearchColor<T extends ImageMultiBand> extends Segme
 					int px = (int)(p.x+0.5f);
 					int py = (int)(p.y+0.5f);
 
+					if( py < rowStart || py >= rowEnd )
+						continue;
+
 					int index = pixelToMode.getIndex(px,py);
 					if( pixelToMode.data[index] == -1 ) {
 						pixelToMode.data[index] = modeIndex;
@@ -158,6 +156,8 @@ public class SegmentMeanShiftSearchColor<T extends ImageMultiBand> extends Segme
 		history.reset();
 		history.grow().set(cx,cy);
 
+		final boolean useBins = binSize > 0;
+
 		for( int i = 0; i < maxIterations; i++ ) {
 			float total = 0;
 			float sumX = 0, sumY = 0;
@@ -169,12 +169,17 @@ public class SegmentMeanShiftSearchColor<T extends ImageMultiBand> extends Segme
 			float x0 = cx - radiusX;
 			float y0 = cy - radiusY;
 
+			if( useBins )
+				selectBins(x0, y0, meanColor);
+
 			// If it is not near the image border it can use faster techniques
 			if( interpolate.isInFastBounds(x0, y0) &&
 					interpolate.isInFastBounds(x0 + widthX - 1, y0 + widthY - 1)) {
 				for( int yy = 0; yy < widthY; yy++ ) {
-					for( int xx = 0; xx < widthX; xx++ ) {
-						float ds = spacialTable[kernelIndex++];
+					for( int xx = 0; xx < widthX; xx++ , kernelIndex++ ) {
+						if( useBins && binSkip[kernelBinRow[yy]+kernelBinCol[xx]] )
+							continue;
+						float ds = spacialTable[kernelIndex];
 						interpolate.get(x0 + xx, y0 + yy, pixelColor);
 						float dc = distanceSq(pixelColor,meanColor)/ maxColorDistanceSq;
 						float weight = dc > 1 ? 0 : weight((ds+dc)/2f);
@@ -202,6 +207,8 @@ public class SegmentMeanShiftSearchColor<T extends ImageMultiBand> extends Segme
 						if( sampleX < 0 ||  sampleX > image.width-1 ) {
 							continue;
 						}
+						if( useBins && binSkip[kernelBinRow[yy]+kernelBinCol[xx]] )
+							continue;
 
 						float ds = spacialTable[kernelIndex];
 						interpolate.get(x0 + xx, y0 + yy, pixelColor);
@@ -228,8 +235,10 @@ public class SegmentMeanShiftSearchColor<T extends ImageMultiBand> extends Segme
 				int px = (int)(peakX+0.5f);
 				int py = (int)(peakY+0.5f);
 
-				int index = pixelToMode.getIndex(px,py);
-				int modeIndex = pixelToMode.data[index];
+				int modeIndex = -1;
+				if( py >= rowStart && py < rowEnd ) {
+					modeIndex = pixelToMode.data[pixelToMode.getIndex(px, py)];
+				}
 				if( modeIndex != -1 ) {
 					// it already knows the solution so stop searching
 					Point2D_I32 modeP = modeLocation.get(modeIndex);
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.segmentation.ms;
+
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageMultiBand;
+import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link SegmentMeanShiftSearchColor}.  The image is split into bands of rows and
+ * each band is searched by its own worker, which keeps its own table of modes.  The tables are then merged in
+ * the order of the bands, which is the same order that modes are found in the single threaded implementation.
+ * </p>
+ *
+ * <p>
+ * The bands have a fixed height and are handed out to the threads in blocks, so how the image is split up doesn't
+ * depend on the number of threads.  If the 'fast' approximation is turned off then the results are identical
+ * to the single threaded implementation.  If it's on then a worker only reuses trajectories inside of its own
+ * band, which produces slightly different results that depend on {@link #BAND_HEIGHT} but are the same on
+ * every machine.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SegmentMeanShiftSearchColor_MT<T extends ImageMultiBand> extends SegmentMeanShiftSearchColor<T> {
+
+	/**
+	 * Number of rows in each band
+	 */
+	public static int BAND_HEIGHT = 16;
+
+	// interpolation used by each block of bands
+	FastQueue<InterpolatePixelMB<T>> interpolators;
+
+	// searches each band
+	FastQueue<SegmentMeanShiftSearchColor<T>> workers;
+
+	// converts the mode index in each band into the mode index in the whole image
+	FastQueue<GrowQueue_I32> localToGlobal = new FastQueue<GrowQueue_I32>(GrowQueue_I32.class,true);
+
+	/**
+	 * Configures mean-shift segmentation
+	 *
+	 * @param interpolators Storage for the interpolation used by each block.  Must declare new instances.
+	 * @see SegmentMeanShiftSearchColor
+	 */
+	public SegmentMeanShiftSearchColor_MT(final int maxIterations, final float convergenceTol,
+										  FastQueue<InterpolatePixelMB<T>> interpolators,
+										  final int radiusX , final int radiusY , final float maxColorDistance,
+										  final boolean fast, final ImageType<T> imageType ) {
+		super(maxIterations, convergenceTol, grow(interpolators), radiusX, radiusY, maxColorDistance, fast,
+				imageType);
+		this.interpolators = interpolators;
+
+		workers = new FastQueue<SegmentMeanShiftSearchColor<T>>(1,(Class)SegmentMeanShiftSearchColor.class,true) {
+			@Override
+			protected SegmentMeanShiftSearchColor<T> createInstance() {
+				// the interpolation is assigned when the workers are prepared
+				return new SegmentMeanShiftSearchColor<T>(maxIterations, convergenceTol, null,
+						radiusX, radiusY, maxColorDistance, fast, imageType);
+			}
+		};
+	}
+
+	private static <T extends ImageMultiBand>
+	InterpolatePixelMB<T> grow( FastQueue<InterpolatePixelMB<T>> interpolators ) {
+		if( !interpolators.isDeclareInstances() )
+			throw new IllegalArgumentException("The queue must declare new instances of the interpolation");
+		if( interpolators.size() == 0 )
+			interpolators.grow();
+		return interpolators.get(0);
+	}
+
+	@Override
+	public void process( T image ) {
+		initialize(image);
+
+		final int height = image.height;
+		final int bandHeight = Math.max(1,BAND_HEIGHT);
+		final int numBands = (height + bandHeight - 1)/bandHeight;
+
+		int numBlocks = Math.max(1,BoofConcurrency.computeNumBlocks(0, numBands, 1));
+		interpolators.resize(numBlocks);
+		for( int i = 0; i < numBlocks; i++ ) {
+			interpolators.get(i).setImage(image);
+		}
+
+		workers.resize(numBands);
+		localToGlobal.resize(numBands);
+		for( int i = 0; i < numBands; i++ ) {
+			prepareWorker(workers.get(i));
+		}
+
+		BoofConcurrency.loopBlocks(0, numBands, new IntRangeTask() {
+			@Override
+			public void process(int block, int band0, int band1) {
+				InterpolatePixelMB<T> interpolate = interpolators.get(block);
+				for( int band = band0; band < band1; band++ ) {
+					SegmentMeanShiftSearchColor<T> w = workers.get(band);
+					w.interpolate = interpolate;
+					w.searchRows(band*bandHeight, Math.min(height, (band + 1)*bandHeight));
+				}
+			}
+		});
+
+		// modes are merged in the order of the bands so that they have a consistent order
+		for( int i = 0; i < numBands; i++ ) {
+			mergeWorker(workers.get(i), localToGlobal.get(i));
+		}
+
+		BoofConcurrency.loopBlocks(0, numBands, new IntRangeTask() {
+			@Override
+			public void process(int block, int band0, int band1) {
+				for( int band = band0; band < band1; band++ ) {
+					relabelRows(localToGlobal.get(band), band*bandHeight, Math.min(height, (band + 1)*bandHeight));
+				}
+			}
+		});
+	}
+}
@@ -19,7 +19,6 @@
 package boofcv.alg.segmentation.ms;
 
 import boofcv.alg.interpolate.InterpolatePixelS;
-import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.feature.ColorQueue_F32;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
@@ -41,6 +40,9 @@ public class SegmentMeanShiftSearchGray<T extends ImageGray> extends SegmentMean
 
 	protected float meanGray;
 
+	// storage for the mean color when selecting bins
+	private float[] binColor = new float[1];
+
 	// Mean-shift trajectory history
 	protected FastQueue<Point2D_F32> history = new FastQueue<Point2D_F32>(Point2D_F32.class,true);
 
@@ -62,24 +64,20 @@ public class SegmentMeanShiftSearchGray<T extends ImageGray> extends SegmentMean
 	@Override
 	public void process( T image ) {
 		// initialize data structures
-		this.image = image;
-
-		modeLocation.reset();
-		modeColor.reset();
-		modeMemberCount.reset();
-
+		initialize(image);
 		interpolate.setImage(image);
 
-		pixelToMode.reshape(image.width, image.height);
-		quickMode.reshape(image.width, image.height);
-		// mark as -1 so it knows which pixels have been assigned a mode already and can skip them
-		ImageMiscOps.fill(pixelToMode, -1);
-		// mark all pixels are not being a mode
-		ImageMiscOps.fill(quickMode,-1);
-
 		// use mean shift to find the peak of each pixel in the image
-		int indexImg = 0;
-		for( int y = 0; y < image.height; y++ ) {
+		searchRows(0,image.height);
+	}
+
+	@Override
+	protected void searchRows( int y0 , int y1 ) {
+		rowStart = y0;
+		rowEnd = y1;
+
+		int indexImg = y0*image.width;
+		for( int y = y0; y < y1; y++ ) {
 			for( int x = 0; x < image.width; x++ , indexImg++) {
 				if( pixelToMode.data[indexImg] != -1 ) {
 					int peakIndex = pixelToMode.data[indexImg];
@@ -97,7 +95,7 @@ public class SegmentMeanShiftSearchGray<T extends ImageGray> extends SegmentMean
 				int modePixelIndex = modeY*image.width + modeX;
 
 				// get index in the list of peaks
-				int modeIndex = quickMode.data[modePixelIndex];
+				int modeIndex = lookupMode(modePixelIndex);
 				// If the mode is new add it to the list
 				if( modeIndex < 0 ) {
 					modeIndex = this.modeLocation.size();
@@ -105,7 +103,7 @@ public class SegmentMeanShiftSearchGray<T extends ImageGray> extends SegmentMean
 					// Save the peak's color
 					modeColor.grow()[0] = meanGray;
 					// Mark the mode in the segment image
-					quickMode.data[modePixelIndex] = modeIndex;
+					saveMode(modePixelIndex, modeIndex);
 					// Set the initial count to zero. This will be incremented when it is traversed later on
 					modeMemberCount.add(0);
 				}
@@ -120,6 +118,9 @@ public class SegmentMeanShiftSearchGray<T extends ImageGray> extends SegmentMean
 					int px = (int)(p.x+0.5f);
 					int py = (int)(p.y+0.5f);
 
+					if( py < rowStart || py >= rowEnd )
+						continue;
+
 					int index = pixelToMode.getIndex(px,py);
 					if( pixelToMode.data[index] == -1 ) {
 						pixelToMode.data[index] = modeIndex;
@@ -144,6 +145,8 @@ public class SegmentMeanShiftSearchGray<T extends ImageGray> extends SegmentMean
 		history.reset();
 		history.grow().set(cx,cy);
 
+		final boolean useBins = binSize > 0;
+
 		for( int i = 0; i < maxIterations; i++ ) {
 			float total = 0;
 			float sumX = 0, sumY = 0, sumGray = 0;
@@ -153,12 +156,19 @@ public class SegmentMeanShiftSearchGray<T extends ImageGray> extends SegmentMean
 			float x0 = cx - radiusX;
 			float y0 = cy - radiusY;
 
+			if( useBins ) {
+				binColor[0] = gray;
+				selectBins(x0, y0, binColor);
+			}
+
 			// If it is not near the image border it can use faster techniques
 			if( interpolate.isInFastBounds(x0, y0) &&
 					interpolate.isInFastBounds(x0 + widthX - 1, y0 + widthY - 1)) {
 				for( int yy = 0; yy < widthY; yy++ ) {
-					for( int xx = 0; xx < widthX; xx++ ) {
-						float ds = spacialTable[kernelIndex++];
+					for( int xx = 0; xx < widthX; xx++ , kernelIndex++ ) {
+						if( useBins && binSkip[kernelBinRow[yy]+kernelBinCol[xx]] )
+							continue;
+						float ds = spacialTable[kernelIndex];
 						float pixelGray = interpolate.get_fast(x0 + xx, y0 + yy);
 						float dc = pixelGray - gray;
 						dc = dc*dc/maxColorDistanceSq;
@@ -187,6 +197,8 @@ public class SegmentMeanShiftSearchGray<T extends ImageGray> extends SegmentMean
 						if( sampleX < 0 ||  sampleX > image.width-1 ) {
 							continue;
 						}
+						if( useBins && binSkip[kernelBinRow[yy]+kernelBinCol[xx]] )
+							continue;
 
 						float ds = spacialTable[kernelIndex];
 						float pixelGray = interpolate.get(x0 + xx, y0 + yy);
@@ -214,8 +226,10 @@ public class SegmentMeanShiftSearchGray<T extends ImageGray> extends SegmentMean
 				int px = (int)(peakX+0.5f);
 				int py = (int)(peakY+0.5f);
 
-				int index = pixelToMode.getIndex(px,py);
-				int modeIndex = pixelToMode.data[index];
+				int modeIndex = -1;
+				if( py >= rowStart && py < rowEnd ) {
+					modeIndex = pixelToMode.data[pixelToMode.getIndex(px, py)];
+				}
 				if( modeIndex != -1 ) {
 					// it already knows the solution so stop searching
 					Point2D_I32 modeP = modeLocation.get(modeIndex);
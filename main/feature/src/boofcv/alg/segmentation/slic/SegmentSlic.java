@@ -22,6 +22,8 @@ import boofcv.alg.InputSanityCheck;
 import boofcv.alg.segmentation.ComputeRegionMeanColor;
 import boofcv.alg.segmentation.ms.ClusterLabeledImage;
 import boofcv.alg.segmentation.ms.MergeSmallRegions;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
 import boofcv.factory.segmentation.FactorySegmentationAlg;
 import boofcv.struct.ConnectRule;
 import boofcv.struct.feature.ColorQueue_F32;
@@ -56,6 +58,12 @@ import java.util.Arrays;
  * </p>
  *
  * <p>
+ * The distance to clusters is computed in bands of rows and clusters are updated in blocks, both of which can
+ * be done by up to maxThreads threads, see {@link BoofConcurrency}.  The results don't depend on the number of
+ * threads.
+ * </p>
+ *
+ * <p>
  * [1] Radhakrishna Achanta, Appu Shaji, Kevin Smith, Aurelien Lucchi, Pascal Fua, and Sabine Süsstrunk,
  * SLIC Superpixels, EPFL Technical Report no. 149300, June 2010.
  * </p>
@@ -67,6 +75,16 @@ public abstract class SegmentSlic<T extends ImageBase> {
 	// which can be sampled when computing the gradient
 	public static final int BORDER = 2;
 
+	/**
+	 * Minimum number of rows processed by a thread when computing distances
+	 */
+	public static int MIN_BAND_HEIGHT = 16;
+
+	/**
+	 * Minimum number of clusters updated by a thread
+	 */
+	public static int MIN_CLUSTERS = 8;
+
 	// number of bands in the input image
 	private int numBands;
 
@@ -82,7 +100,7 @@ public abstract class SegmentSlic<T extends ImageBase> {
 	// Space between superpixel centers.  S in the paper
 	protected int gridInterval;
 	// Adjustment to spacial distance.  Computed from m and gridInterval
-	private float adjustSpacial;
+	protected float adjustSpacial;
 
 	// The image being processed
 	protected T input;
@@ -99,9 +117,21 @@ public abstract class SegmentSlic<T extends ImageBase> {
 	// ensures that all pixels in segment are connected
 	protected ClusterLabeledImage segment;
 
-	// storage for clusters and pixel information
+	// storage for clusters
 	protected FastQueue<Cluster> clusters;
-	protected FastQueue<Pixel> pixels = new FastQueue<Pixel>(Pixel.class,true);
+
+	// Information for each pixel.  While iterating it's the sum of distances to all the clusters which can
+	// reach the pixel and the number of those clusters.  When assigning labels it's the distance to and ID of
+	// the closest cluster.
+	protected float pixelDistance[] = new float[0];
+	protected int pixelCluster[] = new int[0];
+
+	// storage for the color of a cluster before it's updated.  One for each block
+	private FastQueue<float[]> workColor;
+
+	private DistanceTask distanceTask = new DistanceTask();
+	private ClosestTask closestTask = new ClosestTask();
+	private UpdateTask updateTask = new UpdateTask();
 
 	// type of input image
 	protected ImageType<T> imageType;
@@ -109,8 +139,21 @@ public abstract class SegmentSlic<T extends ImageBase> {
 	// connectivity rule
 	protected ConnectRule connectRule;
 
+	// maximum number of threads used at once
+	protected int maxThreads;
+
 	public SegmentSlic( int numberOfRegions , float m , int totalIterations ,
 						ConnectRule connectRule , ImageType<T> imageType ) {
+		this(numberOfRegions, m, totalIterations, connectRule, imageType, 1);
+	}
+
+	/**
+	 * @param maxThreads Maximum number of threads it will use.  Also limited by
+	 * {@link BoofConcurrency#getMaxThreads()}.
+	 */
+	public SegmentSlic( int numberOfRegions , float m , int totalIterations ,
+						ConnectRule connectRule , ImageType<T> imageType , int maxThreads ) {
+		this.maxThreads = maxThreads;
 		this.numberOfRegions = numberOfRegions;
 		this.m = m;
 		this.totalIterations = totalIterations;
@@ -122,6 +165,7 @@ public abstract class SegmentSlic<T extends ImageBase> {
 		this.mergeSmall = new MergeSmallRegions<T>(-1,connectRule,regionColor);
 		this.segment = new ClusterLabeledImage(connectRule);
 		this.regionColor = new ColorQueue_F32(numBands);
+		this.workColor = new ColorQueue_F32(numBands);
 
 		// custom declaration for pixel color
 		clusters = new FastQueue<Cluster>(Cluster.class,true) {
@@ -153,7 +197,7 @@ public abstract class SegmentSlic<T extends ImageBase> {
 		}
 
 		// Assign labels to each pixel based on how close it is to a cluster
-		computeClusterDistance();
+		computeClosestCluster();
 		assignLabelsToPixels(initialSegments,regionMemberCount,regionColor);
 
 		// Assign disconnected pixels to the largest cluster they touch
@@ -168,7 +212,11 @@ public abstract class SegmentSlic<T extends ImageBase> {
 	 */
 	protected void initalize(T input) {
 		this.input = input;
-		pixels.resize(input.width * input.height);
+		int N = input.width*input.height;
+		if( pixelDistance.length < N ) {
+			pixelDistance = new float[N];
+			pixelCluster = new int[N];
+		}
 		initialSegments.reshape(input.width, input.height);
 
 		// number of usable pixels that cluster centers can be placed in
@@ -260,80 +308,185 @@ public abstract class SegmentSlic<T extends ImageBase> {
 	public abstract float getIntensity(int x, int y);
 
 	/**
-	 * Computes how far away each cluster is from each pixel.  Expectation step.
+	 * Computes how far away each cluster is from each pixel.  Expectation step.  Only the sum of the distances
+	 * and the number of clusters which can reach each pixel are saved.  The distance to an individual cluster
+	 * is recomputed when the clusters are updated.
 	 */
 	protected void computeClusterDistance() {
-		for( int i = 0; i < pixels.size; i++ ) {
-			pixels.data[i].reset();
-		}
+		BoofConcurrency.loopBlocks(0,input.height,MIN_BAND_HEIGHT,maxThreads,distanceTask);
+	}
 
-		for( int i = 0; i < clusters.size; i++ ) {
-			Cluster c = clusters.data[i];
+	/**
+	 * Finds the cluster which is the closest to each pixel.  Saves the ID of the closest cluster and the
+	 * distance to it.  If no cluster can reach a pixel then the ID is -1.
+	 */
+	protected void computeClosestCluster() {
+		BoofConcurrency.loopBlocks(0,input.height,MIN_BAND_HEIGHT,maxThreads,closestTask);
+	}
 
-			// compute search bounds
-			int centerX = (int)(c.x + 0.5f);
-			int centerY = (int)(c.y + 0.5f);
+	/**
+	 * Computes the sum of distances for pixels in rows y0 to y1-1.  Clusters are processed in the same
+	 * order for every pixel so the results don't depend on how the image was split.
+	 */
+	private class DistanceTask implements IntRangeTask {
+		@Override
+		public void process(int block, int y0, int y1) {
+			int width = input.width;
+			Arrays.fill(pixelDistance,y0*width,y1*width,0);
+			Arrays.fill(pixelCluster,y0*width,y1*width,0);
 
-			int x0 = centerX - gridInterval; int x1 = centerX + gridInterval + 1;
-			int y0 = centerY - gridInterval; int y1 = centerY + gridInterval + 1;
+			for( int i = 0; i < clusters.size; i++ ) {
+				Cluster c = clusters.data[i];
 
-			if( x0 < 0 ) x0 = 0;
-			if( y0 < 0 ) y0 = 0;
-			if( x1 > input.width ) x1 = input.width;
-			if( y1 > input.height ) y1 = input.height;
+				int centerX = (int)(c.x + 0.5f);
+				int centerY = (int)(c.y + 0.5f);
 
-			for( int y = y0; y < y1; y++ ) {
-				int indexPixel = y*input.width + x0;
-				int indexInput = input.startIndex + y*input.stride + x0;
+				int x0 = Math.max(0,centerX - gridInterval);
+				int x1 = Math.min(width,centerX + gridInterval + 1);
+				int cy0 = Math.max(y0,centerY - gridInterval);
+				int cy1 = Math.min(y1,centerY + gridInterval + 1);
 
-				int dy = y-centerY;
+				for( int y = cy0; y < cy1; y++ ) {
+					int indexPixel = y*width + x0;
+					int indexInput = input.startIndex + y*input.stride + x0;
 
-				for( int x = x0; x < x1; x++ ) {
-					int dx = x-centerX;
+					int dy = y-centerY;
 
-					float distanceColor = colorDistance(c.color,indexInput++);
-					float distanceSpacial = dx*dx + dy*dy;
-					pixels.data[indexPixel++].add(c,distanceColor + adjustSpacial*distanceSpacial);
+					for( int x = x0; x < x1; x++ , indexPixel++ ) {
+						int dx = x-centerX;
+
+						float distanceColor = colorDistance(c.color,indexInput++);
+						float distanceSpacial = dx*dx + dy*dy;
+						pixelDistance[indexPixel] += distanceColor + adjustSpacial*distanceSpacial;
+						pixelCluster[indexPixel]++;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the closest cluster for pixels in rows y0 to y1-1
+	 */
+	private class ClosestTask implements IntRangeTask {
+		@Override
+		public void process(int block, int y0, int y1) {
+			int width = input.width;
+			Arrays.fill(pixelDistance,y0*width,y1*width,Float.MAX_VALUE);
+			Arrays.fill(pixelCluster,y0*width,y1*width,-1);
+
+			for( int i = 0; i < clusters.size; i++ ) {
+				Cluster c = clusters.data[i];
+
+				int centerX = (int)(c.x + 0.5f);
+				int centerY = (int)(c.y + 0.5f);
+
+				int x0 = Math.max(0,centerX - gridInterval);
+				int x1 = Math.min(width,centerX + gridInterval + 1);
+				int cy0 = Math.max(y0,centerY - gridInterval);
+				int cy1 = Math.min(y1,centerY + gridInterval + 1);
+
+				for( int y = cy0; y < cy1; y++ ) {
+					int indexPixel = y*width + x0;
+					int indexInput = input.startIndex + y*input.stride + x0;
+
+					int dy = y-centerY;
+
+					for( int x = x0; x < x1; x++ , indexPixel++ ) {
+						int dx = x-centerX;
+
+						float distanceColor = colorDistance(c.color,indexInput++);
+						float distanceSpacial = dx*dx + dy*dy;
+						float distance = distanceColor + adjustSpacial*distanceSpacial;
+
+						// ties go to the cluster which was seen first
+						if( distance < pixelDistance[indexPixel] ) {
+							pixelDistance[indexPixel] = distance;
+							pixelCluster[indexPixel] = c.id;
+						}
+					}
 				}
 			}
 		}
 	}
 
 	/**
-	 * Update the value of each cluster using  Maximization step.
+	 * Update the value of each cluster using  Maximization step.  Each cluster only depends on the pixels
+	 * around it and the distance sums, so clusters are updated independently of each other.  Pixels are added
+	 * to a cluster in the same order as they would be if the whole image was traversed.
 	 */
 	protected void updateClusters() {
-		for( int i = 0; i < clusters.size; i++ ) {
-			clusters.data[i].reset();
+		int numBlocks = Math.max(1,BoofConcurrency.computeNumBlocks(0,clusters.size,MIN_CLUSTERS,maxThreads));
+		workColor.resize(numBlocks);
+		BoofConcurrency.loopBlocks(0,clusters.size,MIN_CLUSTERS,maxThreads,updateTask);
+	}
+
+	/**
+	 * Updates clusters from idx0 to idx1-1
+	 */
+	private class UpdateTask implements IntRangeTask {
+		@Override
+		public void process(int block, int idx0, int idx1) {
+			float[] oldColor = workColor.get(block);
+			for( int i = idx0; i < idx1; i++ ) {
+				updateCluster(clusters.data[i],oldColor);
+			}
 		}
+	}
 
-		int indexPixel = 0;
-		for( int y = 0; y < input.height; y++ ) {
-			int indexInput = input.startIndex + y*input.stride;
-			for( int x =0; x < input.width; x++ , indexPixel++ , indexInput++) {
-				Pixel p = pixels.get(indexPixel);
-
-				// convert the distance each cluster is from the pixel into weights
-				p.computeWeights();
-
-				for( int i = 0; i < p.clusters.size; i++ ) {
-					ClusterDistance d = p.clusters.data[i];
-					d.cluster.x += x*d.distance;
-					d.cluster.y += y*d.distance;
-					d.cluster.totalWeight += d.distance;
-					addColor(d.cluster.color,indexInput,d.distance);
+	/**
+	 * Recomputes the cluster's center and color from the pixels it can reach.  Each pixel's weight is
+	 * one minus the distance to the cluster divided by the sum of distances to all clusters.  If only one
+	 * cluster can reach the pixel then the weight is one.
+	 *
+	 * @param c The cluster being updated
+	 * @param oldColor Storage for the cluster's color before the update
+	 */
+	protected void updateCluster( Cluster c , float[] oldColor ) {
+		int width = input.width;
+
+		// the search window is computed from the center used in the expectation step
+		int centerX = (int)(c.x + 0.5f);
+		int centerY = (int)(c.y + 0.5f);
+		System.arraycopy(c.color,0,oldColor,0,numBands);
+		c.reset();
+
+		int x0 = Math.max(0,centerX - gridInterval);
+		int x1 = Math.min(width,centerX + gridInterval + 1);
+		int y0 = Math.max(0,centerY - gridInterval);
+		int y1 = Math.min(input.height,centerY + gridInterval + 1);
+
+		for( int y = y0; y < y1; y++ ) {
+			int indexPixel = y*width + x0;
+			int indexInput = input.startIndex + y*input.stride + x0;
+
+			int dy = y-centerY;
+
+			for( int x = x0; x < x1; x++ , indexPixel++ , indexInput++ ) {
+				float weight;
+				if( pixelCluster[indexPixel] == 1 ) {
+					weight = 1;
+				} else {
+					int dx = x-centerX;
+					float distanceColor = colorDistance(oldColor,indexInput);
+					float distanceSpacial = dx*dx + dy*dy;
+					float distance = distanceColor + adjustSpacial*distanceSpacial;
+					weight = 1.0f - distance/pixelDistance[indexPixel];
 				}
+
+				c.x += x*weight;
+				c.y += y*weight;
+				c.totalWeight += weight;
+				addColor(c.color,indexInput,weight);
 			}
 		}
 
-		// recompute the center of each cluster
-		for( int i = 0; i < clusters.size; i++ ) {
-			clusters.data[i].update();
-		}
+		c.update();
 	}
 
 	/**
-	 * Selects which region each pixel belongs to based on which cluster it is the closest to
+	 * Selects which region each pixel belongs to based on which cluster it is the closest to.  The closest
+	 * cluster must have already been found by {@link #computeClosestCluster()}.
 	 */
 	public void assignLabelsToPixels( GrayS32 pixelToRegions ,
 									  GrowQueue_I32 regionMemberCount ,
@@ -355,20 +508,10 @@ public abstract class SegmentSlic<T extends ImageBase> {
 		for( int y = 0; y < pixelToRegions.height; y++ ) {
 			int indexOutput = pixelToRegions.startIndex + y*pixelToRegions.stride;
 			for( int x =0; x < pixelToRegions.width; x++ , indexPixel++ , indexOutput++) {
-				Pixel p = pixels.data[indexPixel];
+				int best = pixelCluster[indexPixel];
 
 				// It is possible for a pixel to be unassigned if all the means move too far away from it
 				// Default to a non-existant cluster if that's the case
-				int best = -1;
-				float bestDistance = Float.MAX_VALUE;
-				// find the region/cluster which it is closest to
-				for( int j = 0; j < p.clusters.size; j++ ) {
-					ClusterDistance d = p.clusters.data[j];
-					if( d.distance < bestDistance ) {
-						bestDistance = d.distance;
-						best = d.cluster.id;
-					}
-				}
 				if( best == -1 ) {
 					regionColor.grow();
 					best = regionMemberCount.size();
@@ -389,50 +532,8 @@ public abstract class SegmentSlic<T extends ImageBase> {
 		return clusters;
 	}
 
-	/**
-	 * K-means clustering information for each pixel.  Stores distance from each cluster mean.
-	 */
-	public static class Pixel
-	{
-		// list of clusters it is interacting with
-		public FastQueue<ClusterDistance> clusters = new FastQueue<ClusterDistance>(12,ClusterDistance.class,true);
-
-		public void add( Cluster c , float distance ) {
-			// make sure it isn't already full.  THis should almost never happen
-			ClusterDistance d = clusters.grow();
-
-			d.cluster = c;
-			d.distance = distance;
-		}
-
-		public void computeWeights() {
-			if( clusters.size == 1 ) {
-				clusters.data[0].distance = 1;
-			} else {
-				float sum = 0;
-				for( int i = 0; i < clusters.size; i++ ) {
-					sum += clusters.data[i].distance;
-				}
-				for( int i = 0; i < clusters.size; i++ ) {
-					clusters.data[i].distance =  1.0f - clusters.data[i].distance/sum;
-				}
-			}
-		}
-
-		public void reset() {
-			clusters.reset();
-		}
-	}
-
-	/**
-	 * Stores how far a cluster is from the specified pixel
-	 */
-	public static class ClusterDistance
-	{
-		// the cluster
-		public Cluster cluster;
-		// how far the pixel is from the cluster
-		public float distance;
+	public int getMaxThreads() {
+		return maxThreads;
 	}
 
 	/**
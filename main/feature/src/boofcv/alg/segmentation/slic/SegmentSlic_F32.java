@@ -33,6 +33,11 @@ public class SegmentSlic_F32 extends SegmentSlic<GrayF32> {
 		super(numberOfRegions, m , totalIterations, connectRule,ImageType.single(GrayF32.class));
 	}
 
+	public SegmentSlic_F32(int numberOfRegions, float m, int totalIterations,
+						   ConnectRule connectRule, int maxThreads) {
+		super(numberOfRegions, m , totalIterations, connectRule,ImageType.single(GrayF32.class), maxThreads);
+	}
+
 	@Override
 	public void setColor(float[] color, int x, int y) {
 		color[0] = input.unsafe_get(x,y);
@@ -35,6 +35,11 @@ public class SegmentSlic_PlF32 extends SegmentSlic<Planar<GrayF32>> {
 		super(numberOfRegions, m , totalIterations, connectRule,ImageType.pl(numBands,GrayF32.class));
 	}
 
+	public SegmentSlic_PlF32(int numberOfRegions, float m, int totalIterations,
+							 ConnectRule connectRule, int numBands, int maxThreads) {
+		super(numberOfRegions, m , totalIterations, connectRule,ImageType.pl(numBands,GrayF32.class), maxThreads);
+	}
+
 	@Override
 	public void setColor(float[] color, int x, int y) {
 		final int numBands = input.getNumBands();
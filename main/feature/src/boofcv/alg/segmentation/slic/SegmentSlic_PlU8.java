@@ -34,6 +34,11 @@ public class SegmentSlic_PlU8 extends SegmentSlic<Planar<GrayU8>> {
 		super(numberOfRegions, m , totalIterations, connectRule,ImageType.pl(numBands, GrayU8.class));
 	}
 
+	public SegmentSlic_PlU8(int numberOfRegions, float m, int totalIterations,
+							ConnectRule connectRule , int numBands, int maxThreads) {
+		super(numberOfRegions, m , totalIterations, connectRule,ImageType.pl(numBands, GrayU8.class), maxThreads);
+	}
+
 	@Override
 	public void setColor(float[] color, int x, int y) {
 		final int numBands = input.getNumBands();
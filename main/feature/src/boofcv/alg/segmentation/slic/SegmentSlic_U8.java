@@ -33,6 +33,11 @@ public class SegmentSlic_U8 extends SegmentSlic<GrayU8> {
 		super(numberOfRegions, m , totalIterations, connectRule,ImageType.single(GrayU8.class));
 	}
 
+	public SegmentSlic_U8(int numberOfRegions, float m, int totalIterations,
+						  ConnectRule connectRule , int maxThreads) {
+		super(numberOfRegions, m , totalIterations, connectRule,ImageType.single(GrayU8.class), maxThreads);
+	}
+
 	@Override
 	public void setColor(float[] color, int x, int y) {
 		color[0] = input.unsafe_get(x,y);
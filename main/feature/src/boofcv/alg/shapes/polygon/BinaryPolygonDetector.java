@@ -22,10 +22,12 @@ import boofcv.alg.InputSanityCheck;
 import boofcv.alg.distort.DistortImageOps;
 import boofcv.alg.filter.binary.Contour;
 import boofcv.alg.filter.binary.LinearContourLabelChang2004;
+import boofcv.alg.filter.binary.LinearContourLabelChang2004_MT;
 import boofcv.alg.shapes.edge.PolygonEdgeIntensity;
 import boofcv.alg.shapes.polyline.MinimizeEnergyPrune;
 import boofcv.alg.shapes.polyline.RefinePolyLineCorner;
 import boofcv.alg.shapes.polyline.SplitMergeLineFitLoop;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.ConnectRule;
 import boofcv.struct.distort.PixelTransform_F32;
 import boofcv.struct.image.GrayS32;
@@ -77,7 +79,8 @@ public class BinaryPolygonDetector<T extends ImageGray> {
 	// does the polygon have to be convex
 	private boolean convex;
 
-	private LinearContourLabelChang2004 contourFinder = new LinearContourLabelChang2004(ConnectRule.FOUR);
+	private LinearContourLabelChang2004 contourFinder = BoofConcurrency.USE_CONCURRENT ?
+			new LinearContourLabelChang2004_MT(ConnectRule.FOUR) : new LinearContourLabelChang2004(ConnectRule.FOUR);
 	private GrayS32 labeled = new GrayS32(1,1);
 
 	// finds the initial polygon around a target candidate
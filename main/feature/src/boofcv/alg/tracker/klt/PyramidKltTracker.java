@@ -20,6 +20,9 @@ package boofcv.alg.tracker.klt;
 
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.pyramid.ImagePyramid;
+import org.ddogleg.struct.GrowQueue_B;
+
+import java.util.List;
 
 /**
  * <p>
@@ -70,6 +73,19 @@ public class PyramidKltTracker<InputImage extends ImageGray, DerivativeImage ext
 		return true;
 	}
 
+	/**
+	 * Sets the description of every feature in the list.  See {@link #setDescription(PyramidKltFeature)}.
+	 *
+	 * @param features Features whose descriptions are being setup.
+	 * @param success (Output) true if the description of the feature at the same index was set
+	 */
+	public void setDescription( List<PyramidKltFeature> features , GrowQueue_B success ) {
+		success.resize(features.size());
+		for (int i = 0; i < features.size(); i++) {
+			success.data[i] = setDescription(features.get(i));
+		}
+	}
+
 	/**
 	 * Sets the current input images for the tracker to use.
 	 * @param image Original image pyramid.
@@ -150,6 +166,19 @@ public class PyramidKltTracker<InputImage extends ImageGray, DerivativeImage ext
 		return KltTrackFault.SUCCESS;
 	}
 
+	/**
+	 * Tracks every feature in the list.  See {@link #track(PyramidKltFeature)}.
+	 *
+	 * @param features The features being tracked.
+	 * @param faults (Output) Result of tracking the feature at the same index.  Cleared before being filled.
+	 */
+	public void track( List<PyramidKltFeature> features , List<KltTrackFault> faults ) {
+		faults.clear();
+		for (int i = 0; i < features.size(); i++) {
+			faults.add(track(features.get(i)));
+		}
+	}
+
 	/**
 	 * Average error between track template and the image.
 	 *
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.klt;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link PyramidKltTracker}.  Once the image pyramid and its gradient have been
+ * computed every feature can be tracked independently of the others.  When a list of features is tracked or
+ * described it's split into blocks and each block is processed by its own {@link KltTracker}, since the tracker
+ * modifies internal storage for every feature.  The results are identical to the single threaded implementation.
+ * </p>
+ *
+ * <p>
+ * Functions which process a single feature are not concurrent and use the first tracker.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PyramidKltTracker_MT<InputImage extends ImageGray, DerivativeImage extends ImageGray>
+		extends PyramidKltTracker<InputImage,DerivativeImage>
+{
+	/**
+	 * Minimum number of features processed by a thread
+	 */
+	public static int MIN_FEATURES = 20;
+
+	// single image tracker for each block.  Instances are created as needed
+	FastQueue<KltTracker<InputImage, DerivativeImage>> trackers;
+
+	// pyramid tracker for each block.  Each one wraps the tracker with the same index
+	FastQueue<PyramidKltTracker<InputImage, DerivativeImage>> workers;
+
+	/**
+	 * Configures the tracker
+	 *
+	 * @param trackers Storage for the tracker used by each block.  Must declare new instances.
+	 */
+	public PyramidKltTracker_MT(FastQueue<KltTracker<InputImage, DerivativeImage>> trackers) {
+		super(grow(trackers));
+		this.trackers = trackers;
+
+		workers = new FastQueue<PyramidKltTracker<InputImage, DerivativeImage>>(1,(Class)PyramidKltTracker.class,true) {
+			@Override
+			protected PyramidKltTracker<InputImage, DerivativeImage> createInstance() {
+				// the tracker is assigned when the workers are declared
+				return new PyramidKltTracker<InputImage, DerivativeImage>(null);
+			}
+		};
+	}
+
+	private static <I extends ImageGray, D extends ImageGray>
+	KltTracker<I,D> grow( FastQueue<KltTracker<I,D>> trackers ) {
+		if( !trackers.isDeclareInstances() )
+			throw new IllegalArgumentException("The queue must declare new instances of the tracker");
+		if( trackers.size() == 0 )
+			trackers.grow();
+		return trackers.get(0);
+	}
+
+	@Override
+	public void setDescription(final List<PyramidKltFeature> features, final GrowQueue_B success) {
+		final int N = features.size();
+		success.resize(N);
+
+		declareWorkers(N);
+
+		BoofConcurrency.loopBlocks(0, N, MIN_FEATURES, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				PyramidKltTracker<InputImage, DerivativeImage> worker = workers.get(block);
+				for (int i = idx0; i < idx1; i++) {
+					success.data[i] = worker.setDescription(features.get(i));
+				}
+			}
+		});
+	}
+
+	@Override
+	public void track(final List<PyramidKltFeature> features, final List<KltTrackFault> faults) {
+		final int N = features.size();
+
+		// fill the list first so that each block can write to its own indexes
+		faults.clear();
+		for (int i = 0; i < N; i++) {
+			faults.add(null);
+		}
+
+		declareWorkers(N);
+
+		BoofConcurrency.loopBlocks(0, N, MIN_FEATURES, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				PyramidKltTracker<InputImage, DerivativeImage> worker = workers.get(block);
+				for (int i = idx0; i < idx1; i++) {
+					faults.set(i, worker.track(features.get(i)));
+				}
+			}
+		});
+	}
+
+	/**
+	 * Makes sure there is a tracker for each block and that they all reference the current images
+	 */
+	private void declareWorkers( int numFeatures ) {
+		int numBlocks = Math.max(1,BoofConcurrency.computeNumBlocks(0, numFeatures, MIN_FEATURES));
+		trackers.resize(numBlocks);
+		workers.resize(numBlocks);
+		for (int i = 0; i < numBlocks; i++) {
+			PyramidKltTracker<InputImage, DerivativeImage> w = workers.get(i);
+			w.tracker = trackers.get(i);
+			w.image = image;
+			w.derivX = derivX;
+			w.derivY = derivY;
+		}
+	}
+}
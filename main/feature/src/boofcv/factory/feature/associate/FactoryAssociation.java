@@ -20,6 +20,9 @@ package boofcv.factory.feature.associate;
 
 import boofcv.abst.feature.associate.*;
 import boofcv.alg.feature.associate.AssociateGreedy;
+import boofcv.alg.feature.associate.AssociateGreedy_MT;
+import boofcv.alg.feature.associate.HammingMultiIndex;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.feature.*;
 import org.ddogleg.nn.FactoryNearestNeighbor;
 import org.ddogleg.nn.NearestNeighbor;
@@ -35,7 +38,8 @@ public class FactoryAssociation {
 
 	/**
 	 * Returns an algorithm for associating features together which uses a brute force greedy algorithm.
-	 * See {@link AssociateGreedy} for details.
+	 * See {@link AssociateGreedy} for details.  If {@link BoofConcurrency#USE_CONCURRENT} is true then
+	 * {@link AssociateGreedy_MT} is used, which produces identical results.
 	 * 
 	 * @param score Computes the fit score between two features.
 	 * @param maxError Maximum allowed error/fit score between two features.  To disable set to Double.MAX_VALUE
@@ -49,7 +53,11 @@ public class FactoryAssociation {
 			double maxError ,
 			boolean backwardsValidation )
 	{
-		AssociateGreedy<D> alg = new AssociateGreedy<D>(score,backwardsValidation);
+		AssociateGreedy<D> alg;
+		if( BoofConcurrency.USE_CONCURRENT )
+			alg = new AssociateGreedy_MT<D>(score,backwardsValidation);
+		else
+			alg = new AssociateGreedy<D>(score,backwardsValidation);
 		alg.setMaxFitError(maxError);
 		WrapAssociateGreedy<D> ret = new WrapAssociateGreedy<D>(alg);
 		return ret;
@@ -99,6 +107,32 @@ public class FactoryAssociation {
 		return new AssociateNearestNeighbor<TupleDesc_F64>(nn,dimension);
 	}
 
+	/**
+	 * Association for binary descriptors using Multi-Index Hashing.  Much faster than brute force association
+	 * when the source set is large.
+	 *
+	 * @see AssociateHammingMultiIndex
+	 * @see HammingMultiIndex
+	 *
+	 * @param numBits Number of bits in the descriptor
+	 * @param substringBits Number of bits in each substring.  Try log<sub>2</sub> of the number of source features.
+	 * @param maxSubstringRadius Maximum search radius for each substring.  Controls speed and recall.  If &lt; 0
+	 *                           then the search is exact.  Try 1.
+	 * @param maxError Maximum allowed Hamming distance.  To disable set to Double.MAX_VALUE
+	 * @return Association using multi-index hashing
+	 */
+	public static AssociateDescription<TupleDesc_B> hammingMultiIndex( int numBits ,
+																	   int substringBits ,
+																	   int maxSubstringRadius ,
+																	   double maxError ) {
+		HammingMultiIndex index = new HammingMultiIndex(numBits,substringBits);
+		index.setMaxSubstringRadius(maxSubstringRadius);
+
+		AssociateHammingMultiIndex ret = new AssociateHammingMultiIndex(index);
+		ret.setThreshold(maxError);
+		return ret;
+	}
+
 	/**
 	 * Given a feature descriptor type it returns a "reasonable" default {@link ScoreAssociation}.
 	 *
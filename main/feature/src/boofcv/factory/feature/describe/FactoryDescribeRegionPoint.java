@@ -27,15 +27,18 @@ import boofcv.alg.feature.describe.brief.BinaryCompareDefinition_I32;
 import boofcv.alg.feature.describe.brief.FactoryBriefDefinition;
 import boofcv.alg.feature.detect.interest.SiftScaleSpace;
 import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.filter.blur.FactoryBlurFilter;
 import boofcv.struct.feature.*;
 import boofcv.struct.image.*;
+import org.ddogleg.struct.FastQueue;
 
 import java.util.Random;
 
 
 /**
- * Factory for creating implementations of {@link DescribeRegionPoint}.
+ * Factory for creating implementations of {@link DescribeRegionPoint}.  If {@link BoofConcurrency#USE_CONCURRENT}
+ * is true then SURF, SIFT, and BRIEF descriptors are concurrent implementations of {@link DescribeRegionPointBatch}.
  *
  * @author Peter Abeles
  */
@@ -55,10 +58,21 @@ public class FactoryDescribeRegionPoint {
 	 * @return SURF description extractor
 	 */
 	public static <T extends ImageGray, II extends ImageGray>
-	DescribeRegionPoint<T,BrightFeature> surfFast(ConfigSurfDescribe.Speed config , Class<T> imageType) {
+	DescribeRegionPoint<T,BrightFeature> surfFast(final ConfigSurfDescribe.Speed config , Class<T> imageType) {
 
 
-		Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
+		final Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			FastQueue<DescribePointSurf<II>> algs =
+					new FastQueue<DescribePointSurf<II>>(1,(Class)DescribePointSurf.class,true) {
+						@Override
+						protected DescribePointSurf<II> createInstance() {
+							return FactoryDescribePointAlgs.surfSpeed( config, integralType);
+						}
+					};
+			return new WrapDescribeSurf_MT<T,II>( algs , imageType );
+		}
 
 		DescribePointSurf<II> alg = FactoryDescribePointAlgs.surfSpeed( config, integralType);
 
@@ -105,9 +119,20 @@ public class FactoryDescribeRegionPoint {
 	 * @return SURF description extractor
 	 */
 	public static <T extends ImageGray, II extends ImageGray>
-	DescribeRegionPoint<T,BrightFeature> surfStable(ConfigSurfDescribe.Stability config, Class<T> imageType) {
-
-		Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
+	DescribeRegionPoint<T,BrightFeature> surfStable(final ConfigSurfDescribe.Stability config, Class<T> imageType) {
+
+		final Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			FastQueue<DescribePointSurf<II>> algs =
+					new FastQueue<DescribePointSurf<II>>(1,(Class)DescribePointSurf.class,true) {
+						@Override
+						protected DescribePointSurf<II> createInstance() {
+							return FactoryDescribePointAlgs.surfStability( config, integralType);
+						}
+					};
+			return new WrapDescribeSurf_MT<T,II>( algs , imageType );
+		}
 
 		DescribePointSurf<II> alg = FactoryDescribePointAlgs.surfStability( config, integralType);
 
@@ -156,7 +181,7 @@ public class FactoryDescribeRegionPoint {
 	 */
 	public static <T extends ImageGray>
 	DescribeRegionPoint<T,TupleDesc_F64> sift(
-			ConfigSiftScaleSpace configSS, ConfigSiftDescribe configDescribe, Class<T> imageType)
+			ConfigSiftScaleSpace configSS, final ConfigSiftDescribe configDescribe, Class<T> imageType)
 	{
 		if( configSS == null )
 			configSS = new ConfigSiftScaleSpace();
@@ -165,6 +190,17 @@ public class FactoryDescribeRegionPoint {
 		SiftScaleSpace ss = new SiftScaleSpace(configSS.firstOctave, configSS.lastOctave, configSS.numScales,
 				configSS.sigma0);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			FastQueue<DescribePointSift<GrayF32>> algs =
+					new FastQueue<DescribePointSift<GrayF32>>(1,(Class)DescribePointSift.class,true) {
+						@Override
+						protected DescribePointSift<GrayF32> createInstance() {
+							return FactoryDescribePointAlgs.sift(configDescribe,GrayF32.class);
+						}
+					};
+			return new DescribeRegionPoint_SIFT_MT<T>(ss,algs,imageType);
+		}
+
 		DescribePointSift<GrayF32> alg = FactoryDescribePointAlgs.sift(configDescribe,GrayF32.class);
 
 		return new DescribeRegionPoint_SIFT<T>(ss,alg,imageType);
@@ -194,6 +230,8 @@ public class FactoryDescribeRegionPoint {
 				FactoryBriefDefinition.gaussian2(new Random(123), config.radius, config.numPoints);
 
 		if( config.fixed) {
+			if( BoofConcurrency.USE_CONCURRENT )
+				return new WrapDescribeBrief_MT<T>(FactoryDescribePointAlgs.brief(definition,filter),imageType);
 			return new WrapDescribeBrief<T>(FactoryDescribePointAlgs.brief(definition,filter),imageType);
 		} else {
 			return new WrapDescribeBriefSo<T>(FactoryDescribePointAlgs.briefso(definition, filter),imageType);
@@ -34,11 +34,14 @@ import boofcv.alg.feature.describe.DescribePointSurf;
 import boofcv.alg.feature.describe.DescribePointSurfMod;
 import boofcv.alg.feature.describe.DescribePointSurfPlanar;
 import boofcv.alg.feature.detdesc.CompleteSift;
+import boofcv.alg.feature.detdesc.CompleteSift_MT;
 import boofcv.alg.feature.detdesc.DetectDescribeSurfPlanar;
 import boofcv.alg.feature.detect.interest.FastHessianFeatureDetector;
 import boofcv.alg.feature.detect.interest.SiftScaleSpace;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace_MT;
 import boofcv.alg.feature.orientation.OrientationHistogramSift;
 import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
 import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
 import boofcv.factory.feature.detect.interest.FactoryInterestPointAlgs;
@@ -49,6 +52,7 @@ import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageMultiBand;
 import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.FastQueue;
 
 /**
  * Creates instances of {@link DetectDescribePoint} for different feature detectors/describers.
@@ -73,24 +77,56 @@ public class FactoryDetectDescribe {
 
 		ConfigSiftScaleSpace configSS = config.scaleSpace;
 		ConfigSiftDetector configDetector = config.detector;
-		ConfigSiftOrientation configOri = config.orientation;
-		ConfigSiftDescribe configDesc = config.describe;
+		final ConfigSiftOrientation configOri = config.orientation;
+		final ConfigSiftDescribe configDesc = config.describe;
 
-		SiftScaleSpace scaleSpace = new SiftScaleSpace(
-				configSS.firstOctave,configSS.lastOctave,configSS.numScales,configSS.sigma0);
-		OrientationHistogramSift<GrayF32> orientation = new OrientationHistogramSift<GrayF32>(
-				configOri.histogramSize,configOri.sigmaEnlarge,GrayF32.class);
-		DescribePointSift<GrayF32> describe = new DescribePointSift<GrayF32>(
-				configDesc.widthSubregion,configDesc.widthGrid, configDesc.numHistogramBins,
-				configDesc.sigmaToPixels, configDesc.weightingSigmaFraction,
-				configDesc.maxDescriptorElementValue,GrayF32.class);
+		int maxThreads = config.maxThreads;
+		if( maxThreads <= 0 )
+			maxThreads = BoofConcurrency.USE_CONCURRENT ? BoofConcurrency.getMaxThreads() : 1;
 
 		NonMaxSuppression nns = FactoryFeatureExtractor.nonmax(configDetector.extract);
 		NonMaxLimiter nonMax = new NonMaxLimiter(nns,configDetector.maxFeaturesPerScale);
-		CompleteSift dds = new CompleteSift(scaleSpace,configDetector.edgeR,nonMax,orientation,describe);
+
+		CompleteSift dds;
+		if( maxThreads > 1 ) {
+			SiftScaleSpace scaleSpace = new SiftScaleSpace_MT(
+					configSS.firstOctave,configSS.lastOctave,configSS.numScales,configSS.sigma0,maxThreads);
+			FastQueue<OrientationHistogramSift<GrayF32>> orientation =
+					new FastQueue<OrientationHistogramSift<GrayF32>>(1,(Class)OrientationHistogramSift.class,true) {
+						@Override
+						protected OrientationHistogramSift<GrayF32> createInstance() {
+							return createSiftOrientation(configOri);
+						}
+					};
+			FastQueue<DescribePointSift<GrayF32>> describe =
+					new FastQueue<DescribePointSift<GrayF32>>(1,(Class)DescribePointSift.class,true) {
+						@Override
+						protected DescribePointSift<GrayF32> createInstance() {
+							return createSiftDescribe(configDesc);
+						}
+					};
+			dds = new CompleteSift_MT(scaleSpace,configDetector.edgeR,nonMax,orientation,describe,maxThreads);
+		} else {
+			SiftScaleSpace scaleSpace = new SiftScaleSpace(
+					configSS.firstOctave,configSS.lastOctave,configSS.numScales,configSS.sigma0);
+			dds = new CompleteSift(scaleSpace,configDetector.edgeR,nonMax,
+					createSiftOrientation(configOri),createSiftDescribe(configDesc));
+		}
 		return new DetectDescribe_CompleteSift<T>(dds);
 	}
 
+	private static OrientationHistogramSift<GrayF32> createSiftOrientation( ConfigSiftOrientation configOri ) {
+		return new OrientationHistogramSift<GrayF32>(
+				configOri.histogramSize,configOri.sigmaEnlarge,GrayF32.class);
+	}
+
+	private static DescribePointSift<GrayF32> createSiftDescribe( ConfigSiftDescribe configDesc ) {
+		return new DescribePointSift<GrayF32>(
+				configDesc.widthSubregion,configDesc.widthGrid, configDesc.numHistogramBins,
+				configDesc.sigmaToPixels, configDesc.weightingSigmaFraction,
+				configDesc.maxDescriptorElementValue,GrayF32.class);
+	}
+
 	/**
 	 * <p>
 	 * Creates a SURF descriptor.  SURF descriptors are invariant to illumination, orientation, and scale.
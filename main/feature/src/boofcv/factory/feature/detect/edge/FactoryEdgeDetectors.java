@@ -22,6 +22,7 @@ import boofcv.abst.filter.blur.BlurFilter;
 import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.feature.detect.edge.CannyEdge;
 import boofcv.alg.feature.detect.edge.CannyEdgeDynamic;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.filter.blur.FactoryBlurFilter;
 import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.struct.image.ImageGray;
@@ -53,9 +54,11 @@ public class FactoryEdgeDetectors {
 		BlurFilter<T> blur = FactoryBlurFilter.gaussian(imageType, -1, blurRadius);
 		ImageGradient<T,D> gradient = FactoryDerivative.three(imageType, derivType);
 
+		int maxThreads = BoofConcurrency.USE_CONCURRENT ? BoofConcurrency.getMaxThreads() : 1;
+
 		if( dynamicThreshold )
-			return new CannyEdgeDynamic<T,D>(blur,gradient,saveTrace);
+			return new CannyEdgeDynamic<T,D>(blur,gradient,saveTrace,maxThreads);
 		else
-			return new CannyEdge<T,D>(blur,gradient,saveTrace);
+			return new CannyEdge<T,D>(blur,gradient,saveTrace,maxThreads);
 	}
 }
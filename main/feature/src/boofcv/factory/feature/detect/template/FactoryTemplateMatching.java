@@ -18,10 +18,7 @@
 
 package boofcv.factory.feature.detect.template;
 
-import boofcv.alg.feature.detect.template.TemplateDiffSquared;
-import boofcv.alg.feature.detect.template.TemplateMatching;
-import boofcv.alg.feature.detect.template.TemplateMatchingIntensity;
-import boofcv.alg.feature.detect.template.TemplateNCC;
+import boofcv.alg.feature.detect.template.*;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
@@ -34,9 +31,17 @@ import boofcv.struct.image.ImageGray;
 @SuppressWarnings("unchecked")
 public class FactoryTemplateMatching {
 
+	/**
+	 * Templates with at least this many pixels are matched in the frequency domain by
+	 * {@link #createIntensity(TemplateScoreType, Class)}
+	 */
+	public static int FOURIER_MIN_AREA = 49;
+
 	/**
 	 * Creates {@link TemplateMatchingIntensity} of the specified type.  Likely
 	 * matches can be extracted using {@link boofcv.abst.feature.detect.extract.NonMaxSuppression}.
+	 * Small templates are processed in the spatial domain and large ones in the frequency domain.
+	 * See {@link #FOURIER_MIN_AREA}.
 	 *
 	 * @param type      Type of error function
 	 * @param imageType Image type being processed
@@ -44,24 +49,41 @@ public class FactoryTemplateMatching {
 	 */
 	public static <T extends ImageGray>
 	TemplateMatchingIntensity<T> createIntensity(TemplateScoreType type, Class<T> imageType) {
+		return new TemplateIntensitySelect<T>(
+				createIntensity(type, imageType, false),
+				createIntensity(type, imageType, true), FOURIER_MIN_AREA);
+	}
+
+	/**
+	 * Creates {@link TemplateMatchingIntensity} of the specified type which is computed in either the spatial
+	 * or frequency domain.
+	 *
+	 * @param type      Type of error function
+	 * @param imageType Image type being processed
+	 * @param fourier   If true then the correlation is computed in the frequency domain.
+	 * @return {@link TemplateMatchingIntensity} of the specified type.
+	 */
+	public static <T extends ImageGray>
+	TemplateMatchingIntensity<T> createIntensity(TemplateScoreType type, Class<T> imageType, boolean fourier) {
+		if( imageType != GrayU8.class && imageType != GrayF32.class )
+			throw new IllegalArgumentException("Image type not supported. " + imageType.getSimpleName());
+
 		switch (type) {
 			case SUM_DIFF_SQ:
-				if (imageType == GrayU8.class) {
+				if( fourier )
+					return new TemplateDiffSquaredFourier<T>();
+				else if (imageType == GrayU8.class)
 					return (TemplateMatchingIntensity<T>) new TemplateDiffSquared.U8();
-				} else if (imageType == GrayF32.class) {
+				else
 					return (TemplateMatchingIntensity<T>) new TemplateDiffSquared.F32();
-				} else {
-					throw new IllegalArgumentException("Image type not supported. " + imageType.getSimpleName());
-				}
 
 			case NCC:
-				if (imageType == GrayU8.class) {
+				if( fourier )
+					return new TemplateNCCFourier<T>();
+				else if (imageType == GrayU8.class)
 					return (TemplateMatchingIntensity<T>) new TemplateNCC.U8();
-				} else if (imageType == GrayF32.class) {
+				else
 					return (TemplateMatchingIntensity<T>) new TemplateNCC.F32();
-				} else {
-					throw new IllegalArgumentException("Image type not supported. " + imageType.getSimpleName());
-				}
 		}
 		throw new IllegalArgumentException("Type not found: " + type);
 	}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.factory.feature.disparity;
+
+import boofcv.alg.feature.disparity.sgm.SgmDisparityCost;
+import boofcv.struct.Configuration;
+
+/**
+ * Configuration for {@link boofcv.alg.feature.disparity.sgm.SgmStereoDisparity Semi-Global Matching}.
+ *
+ * @author Peter Abeles
+ */
+public class ConfigDisparitySgm implements Configuration {
+
+	/**
+	 * Minimum disparity that it will check. Must be &ge; 0 and &lt; maxDisparity
+	 */
+	public int minDisparity = 0;
+	/**
+	 * Maximum disparity that it will calculate, exclusive. Must be &gt; minDisparity
+	 */
+	public int maxDisparity = 100;
+
+	/**
+	 * Which cost function is used to match pixels
+	 */
+	public SgmCostType cost = SgmCostType.CENSUS;
+	/**
+	 * Radius of the region used by {@link SgmCostType#ABSOLUTE_DIFFERENCE}.
+	 */
+	public int costRadius = 1;
+	/**
+	 * Amount the hamming distance is multiplied by in {@link SgmCostType#CENSUS}.
+	 */
+	public int censusScale = 4;
+
+	/**
+	 * Penalty for a change in disparity of one.  Depends on the cost function.
+	 */
+	public int penalty1 = 20;
+	/**
+	 * Penalty for a change in disparity more than one.  Depends on the cost function.
+	 */
+	public int penalty2 = 200;
+	/**
+	 * Number of paths costs are aggregated along.  4 or 8.
+	 */
+	public int paths = 8;
+
+	/**
+	 * Tolerance for how different the left to right and right to left disparity can be.  Set to &lt; 0 to
+	 * disable.
+	 */
+	public int validateRtoL = 1;
+
+	/**
+	 * Number of rows in a tile.  Memory used is about 4*width*(tileHeight+2*tileOverlap)*range bytes.  If
+	 * &le; 0 then the whole image is processed at once.
+	 */
+	public int tileHeight = 0;
+	/**
+	 * Number of rows above and below a tile which are processed but not written to.
+	 */
+	public int tileOverlap = 32;
+
+	public ConfigDisparitySgm(int minDisparity, int maxDisparity) {
+		this.minDisparity = minDisparity;
+		this.maxDisparity = maxDisparity;
+	}
+
+	public ConfigDisparitySgm() {
+	}
+
+	@Override
+	public void checkValidity() {
+		if( minDisparity < 0 || minDisparity >= maxDisparity )
+			throw new IllegalArgumentException("Must be 0 <= minDisparity < maxDisparity");
+		if( penalty1 <= 0 || penalty2 <= penalty1 )
+			throw new IllegalArgumentException("Must be 0 < penalty1 < penalty2");
+		if( penalty2 > SgmDisparityCost.MAX_COST )
+			throw new IllegalArgumentException("penalty2 must be <= "+SgmDisparityCost.MAX_COST);
+		if( paths != 4 && paths != 8 )
+			throw new IllegalArgumentException("paths must be 4 or 8");
+	}
+}
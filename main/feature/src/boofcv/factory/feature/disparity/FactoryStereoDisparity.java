@@ -21,15 +21,25 @@ package boofcv.factory.feature.disparity;
 import boofcv.abst.feature.disparity.StereoDisparity;
 import boofcv.abst.feature.disparity.StereoDisparitySparse;
 import boofcv.abst.feature.disparity.WrapDisparitySadRect;
+import boofcv.abst.feature.disparity.WrapDisparitySadRect_MT;
+import boofcv.abst.feature.disparity.WrapDisparitySgm;
 import boofcv.abst.feature.disparity.WrapDisparitySparseSadRect;
 import boofcv.alg.feature.disparity.DisparityScoreRowFormat;
 import boofcv.alg.feature.disparity.DisparitySelect;
 import boofcv.alg.feature.disparity.DisparitySparseScoreSadRect;
 import boofcv.alg.feature.disparity.DisparitySparseSelect;
+import boofcv.alg.feature.disparity.sgm.SgmCostAbsoluteDifference_U8;
+import boofcv.alg.feature.disparity.sgm.SgmCostAggregation;
+import boofcv.alg.feature.disparity.sgm.SgmCostCensus_U8;
+import boofcv.alg.feature.disparity.sgm.SgmDisparityCost;
+import boofcv.alg.feature.disparity.sgm.SgmDisparitySelector;
+import boofcv.alg.feature.disparity.sgm.SgmStereoDisparity;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
 
 import static boofcv.factory.feature.disparity.FactoryStereoDisparityAlgs.*;
 
@@ -52,6 +62,11 @@ import static boofcv.factory.feature.disparity.FactoryStereoDisparityAlgs.*;
  * to computing the disparity for a single pixel at a time as requested by the user,
  * </p>
  *
+ * <p>
+ * If {@link BoofConcurrency#USE_CONCURRENT} is true when a dense algorithm is created then a concurrent
+ * implementation is returned.  Its output is identical to the single threaded version.
+ * </p>
+ *
  * @author Peter Abeles
  */
 @SuppressWarnings("unchecked")
@@ -92,52 +107,8 @@ public class FactoryStereoDisparity {
 		if( whichAlg == DisparityAlgorithms.RECT_FIVE )
 			maxError *= 3;
 
-		DisparitySelect select;
-		if( imageType == GrayU8.class || imageType == GrayS16.class ) {
-			select = selectDisparity_S32((int) maxError, validateRtoL, texture);
-		} else if( imageType == GrayF32.class ) {
-			select = selectDisparity_F32((int) maxError, validateRtoL, texture);
-		} else {
-			throw new IllegalArgumentException("Unknown image type");
-		}
-
-		DisparityScoreRowFormat<T,GrayU8> alg = null;
-
-		switch( whichAlg ) {
-			case RECT:
-				if( imageType == GrayU8.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_U8(minDisparity,
-							maxDisparity,regionRadiusX,regionRadiusY,select);
-				} else if( imageType == GrayS16.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_S16(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
-				} else if( imageType == GrayF32.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_F32(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
-				}
-				break;
-
-			case RECT_FIVE:
-				if( imageType == GrayU8.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_U8(minDisparity,
-							maxDisparity,regionRadiusX,regionRadiusY,select);
-				} else if( imageType == GrayS16.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_S16(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
-				} else if( imageType == GrayF32.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_F32(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
-				}
-				break;
-
-			default:
-				throw new IllegalArgumentException("Unknown algorithms "+whichAlg);
-
-		}
-		if( alg == null)
-			throw new RuntimeException("Image type not supported: "+imageType.getSimpleName() );
-
-		return new WrapDisparitySadRect<T,GrayU8>(alg);
+		return createRowFormat(whichAlg, minDisparity, maxDisparity, regionRadiusX, regionRadiusY,
+				(int)maxError, validateRtoL, texture, false, imageType);
 	}
 
 	/**
@@ -175,16 +146,66 @@ public class FactoryStereoDisparity {
 		if( whichAlg == DisparityAlgorithms.RECT_FIVE )
 			maxError *= 3;
 
-		DisparitySelect select;
+		return createRowFormat(whichAlg, minDisparity, maxDisparity, regionRadiusX, regionRadiusY,
+				(int)maxError, validateRtoL, texture, true, imageType);
+	}
+
+	/**
+	 * Creates a dense disparity algorithm which processes the image one row at a time.  If
+	 * {@link BoofConcurrency#USE_CONCURRENT} is true then a concurrent implementation is returned, which
+	 * has its own copy of the score and select algorithms for each thread.
+	 */
+	private static <T extends ImageGray, D extends ImageGray> StereoDisparity<T,D>
+	createRowFormat( final DisparityAlgorithms whichAlg ,
+					 final int minDisparity , final int maxDisparity,
+					 final int regionRadiusX, final int regionRadiusY ,
+					 final int maxError ,
+					 final int validateRtoL ,
+					 final double texture ,
+					 final boolean subpixel ,
+					 final Class<T> imageType ) {
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			FastQueue<DisparityScoreRowFormat<T,D>> algs =
+					new FastQueue<DisparityScoreRowFormat<T,D>>(1,(Class)DisparityScoreRowFormat.class,true) {
+						@Override
+						protected DisparityScoreRowFormat<T, D> createInstance() {
+							return createScore(whichAlg, minDisparity, maxDisparity, regionRadiusX, regionRadiusY,
+									createSelect(maxError, validateRtoL, texture, subpixel, imageType), imageType);
+						}
+					};
+			return new WrapDisparitySadRect_MT<T,D>(algs);
+		} else {
+			DisparitySelect select = createSelect(maxError, validateRtoL, texture, subpixel, imageType);
+			DisparityScoreRowFormat<T,D> alg = createScore(whichAlg, minDisparity, maxDisparity,
+					regionRadiusX, regionRadiusY, select, imageType);
+			return new WrapDisparitySadRect<T,D>(alg);
+		}
+	}
+
+	private static DisparitySelect createSelect( int maxError , int validateRtoL , double texture ,
+												 boolean subpixel, Class imageType ) {
 		if( imageType == GrayU8.class || imageType == GrayS16.class ) {
-			select = selectDisparitySubpixel_S32((int) maxError, validateRtoL, texture);
+			if( subpixel )
+				return selectDisparitySubpixel_S32(maxError, validateRtoL, texture);
+			else
+				return selectDisparity_S32(maxError, validateRtoL, texture);
 		} else if( imageType == GrayF32.class ) {
-			select = selectDisparitySubpixel_F32((int) maxError, validateRtoL, texture);
+			if( subpixel )
+				return selectDisparitySubpixel_F32(maxError, validateRtoL, texture);
+			else
+				return selectDisparity_F32(maxError, validateRtoL, texture);
 		} else {
 			throw new IllegalArgumentException("Unknown image type");
 		}
+	}
 
-		DisparityScoreRowFormat<T,GrayF32> alg = null;
+	private static <T extends ImageGray, D extends ImageGray> DisparityScoreRowFormat<T,D>
+	createScore( DisparityAlgorithms whichAlg ,
+				 int minDisparity , int maxDisparity,
+				 int regionRadiusX, int regionRadiusY ,
+				 DisparitySelect select ,
+				 Class<T> imageType ) {
+		DisparityScoreRowFormat<T,D> alg = null;
 
 		switch( whichAlg ) {
 			case RECT:
@@ -220,7 +241,66 @@ public class FactoryStereoDisparity {
 		if( alg == null)
 			throw new RuntimeException("Image type not supported: "+imageType.getSimpleName() );
 
-		return new WrapDisparitySadRect<T,GrayF32>(alg);
+		return alg;
+	}
+
+	/**
+	 * <p>
+	 * Dense disparity using Semi-Global Matching (SGM).  Produces much less noisy results than WTA algorithms
+	 * at the cost of more computations and memory.  Disparity is computed up to pixel level accuracy.
+	 * </p>
+	 *
+	 * @see SgmStereoDisparity
+	 *
+	 * @param config Configuration.  If null then default values are used.
+	 * @param imageType Type of input image.  Only {@link GrayU8} is supported.
+	 * @return SGM disparity algorithm
+	 */
+	public static <T extends ImageGray> StereoDisparity<T,GrayU8>
+	sgm( ConfigDisparitySgm config , Class<T> imageType ) {
+		return new WrapDisparitySgm<T,GrayU8>(createSgm(config, imageType), GrayU8.class);
+	}
+
+	/**
+	 * Same as {@link #sgm} but the disparity is computed with sub-pixel accuracy.
+	 *
+	 * @param config Configuration.  If null then default values are used.
+	 * @param imageType Type of input image.  Only {@link GrayU8} is supported.
+	 * @return SGM disparity algorithm
+	 */
+	public static <T extends ImageGray> StereoDisparity<T,GrayF32>
+	sgmSubpixel( ConfigDisparitySgm config , Class<T> imageType ) {
+		return new WrapDisparitySgm<T,GrayF32>(createSgm(config, imageType), GrayF32.class);
+	}
+
+	private static <T extends ImageGray> SgmStereoDisparity<T>
+	createSgm( ConfigDisparitySgm config , Class<T> imageType ) {
+		if( config == null )
+			config = new ConfigDisparitySgm();
+		config.checkValidity();
+
+		if( imageType != GrayU8.class )
+			throw new IllegalArgumentException("Image type not supported: "+imageType.getSimpleName());
+
+		SgmDisparityCost cost;
+		switch( config.cost ) {
+			case CENSUS:
+				cost = new SgmCostCensus_U8(config.censusScale);
+				break;
+
+			case ABSOLUTE_DIFFERENCE:
+				cost = new SgmCostAbsoluteDifference_U8(config.costRadius);
+				break;
+
+			default:
+				throw new IllegalArgumentException("Unknown cost "+config.cost);
+		}
+
+		SgmCostAggregation aggregation = new SgmCostAggregation(config.penalty1,config.penalty2,config.paths);
+		SgmDisparitySelector selector = new SgmDisparitySelector(config.validateRtoL);
+
+		return new SgmStereoDisparity<T>(config.minDisparity,config.maxDisparity,
+				config.tileHeight,config.tileOverlap,cost,aggregation,selector);
 	}
 
 	/**
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.factory.feature.disparity;
+
+/**
+ * Cost functions for matching pixels in {@link boofcv.alg.feature.disparity.sgm.SgmStereoDisparity}
+ *
+ * @author Peter Abeles
+ */
+public enum SgmCostType {
+	/**
+	 * Hamming distance between census transforms
+	 *
+	 * @see boofcv.alg.feature.disparity.sgm.SgmCostCensus_U8
+	 */
+	CENSUS,
+	/**
+	 * Sum of absolute difference across a small region
+	 *
+	 * @see boofcv.alg.feature.disparity.sgm.SgmCostAbsoluteDifference_U8
+	 */
+	ABSOLUTE_DIFFERENCE
+}
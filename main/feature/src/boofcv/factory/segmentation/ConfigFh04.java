@@ -41,7 +41,8 @@ public class ConfigFh04 {
 
 	/**
 	 * If set to a value larger than 0 then an approximate sorting routine will be used.  This improves speed
-	 * by about 40%.  A value of 2000 is recommended.
+	 * by about 40%.  A value of 2000 is recommended.  The concurrent implementation ignores the number of bins
+	 * and uses its own.
 	 */
 	public int approximateSortBins = 0;
 
@@ -47,6 +47,11 @@ public class ConfigSegmentMeanShift {
 	 * Connection rule when segmenting disconnected regions. Try FOUR
 	 */
 	public ConnectRule connectRule = ConnectRule.FOUR;
+	/**
+	 * Size of spacial bins in pixels which are used to skip pixels which are too different in color.  Does not
+	 * change the results.  If &le; 0 then bins are not used.
+	 */
+	public int binSize = 0;
 
 
 	public ConfigSegmentMeanShift() {
@@ -44,6 +44,11 @@ public class ConfigSlic {
 	 * Connection rule that is used when merging small regions.
 	 */
 	public ConnectRule connectRule = ConnectRule.EIGHT;
+	/**
+	 * Maximum number of threads used.  If &le; 0 then {@link boofcv.concurrency.BoofConcurrency} decides,
+	 * one thread unless concurrency has been turned on.
+	 */
+	public int maxThreads = 0;
 
 	public ConfigSlic(int numberOfRegions) {
 		this.numberOfRegions = numberOfRegions;
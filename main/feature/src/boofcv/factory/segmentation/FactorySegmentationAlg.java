@@ -23,16 +23,20 @@ import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.interpolate.TypeInterpolate;
 import boofcv.alg.segmentation.ComputeRegionMeanColor;
 import boofcv.alg.segmentation.fh04.FhEdgeWeights;
+import boofcv.alg.segmentation.fh04.FhEdgeWeightsRow;
 import boofcv.alg.segmentation.fh04.SegmentFelzenszwalbHuttenlocher04;
+import boofcv.alg.segmentation.fh04.SegmentFelzenszwalbHuttenlocher04_MT;
 import boofcv.alg.segmentation.fh04.impl.*;
 import boofcv.alg.segmentation.ms.*;
 import boofcv.alg.segmentation.slic.*;
 import boofcv.alg.segmentation.watershed.WatershedVincentSoille1991;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.border.BorderType;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.ConnectRule;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.FastQueue;
 
 /**
  * Factory for low level segmentation algorithms.
@@ -71,7 +75,8 @@ public class FactorySegmentationAlg {
 
 	/**
 	 * Creates an instance of {@link boofcv.alg.segmentation.ms.SegmentMeanShift}.  Uniform distributions are used for spacial and color
-	 * weights.
+	 * weights.  If {@link BoofConcurrency#USE_CONCURRENT} is true then the mean-shift search is concurrent.  Its
+	 * results don't depend on the number of threads.
 	 *
 	 * @param config Specify configuration for mean-shift
 	 * @param imageType Type of input image
@@ -92,15 +97,42 @@ public class FactorySegmentationAlg {
 		SegmentMeanShiftSearch<T> search;
 
 		if( imageType.getFamily() == ImageType.Family.GRAY) {
-			InterpolatePixelS interp = FactoryInterpolation.bilinearPixelS(imageType.getImageClass(), BorderType.EXTENDED);
-			search = new SegmentMeanShiftSearchGray(maxIterations,convergenceTol,interp,
-					spacialRadius,spacialRadius,colorRadius,config.fast);
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				final Class imageClass = imageType.getImageClass();
+				FastQueue<InterpolatePixelS> interps = new FastQueue<InterpolatePixelS>(1,InterpolatePixelS.class,true) {
+					@Override
+					protected InterpolatePixelS createInstance() {
+						return FactoryInterpolation.bilinearPixelS(imageClass, BorderType.EXTENDED);
+					}
+				};
+				search = new SegmentMeanShiftSearchGray_MT(maxIterations,convergenceTol,interps,
+						spacialRadius,spacialRadius,colorRadius,config.fast);
+			} else {
+				InterpolatePixelS interp = FactoryInterpolation.bilinearPixelS(imageType.getImageClass(), BorderType.EXTENDED);
+				search = new SegmentMeanShiftSearchGray(maxIterations,convergenceTol,interp,
+						spacialRadius,spacialRadius,colorRadius,config.fast);
+			}
 		} else {
-			InterpolatePixelMB interp = FactoryInterpolation.createPixelMB(0,255,
-					TypeInterpolate.BILINEAR, BorderType.EXTENDED,(ImageType)imageType);
-			search = new SegmentMeanShiftSearchColor(maxIterations,convergenceTol,interp,
-					spacialRadius,spacialRadius,colorRadius,config.fast,imageType);
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				final ImageType _imageType = imageType;
+				FastQueue<InterpolatePixelMB> interps = new FastQueue<InterpolatePixelMB>(1,InterpolatePixelMB.class,true) {
+					@Override
+					protected InterpolatePixelMB createInstance() {
+						return FactoryInterpolation.createPixelMB(0,255,
+								TypeInterpolate.BILINEAR, BorderType.EXTENDED,_imageType);
+					}
+				};
+				search = new SegmentMeanShiftSearchColor_MT(maxIterations,convergenceTol,interps,
+						spacialRadius,spacialRadius,colorRadius,config.fast,imageType);
+			} else {
+				InterpolatePixelMB interp = FactoryInterpolation.createPixelMB(0,255,
+						TypeInterpolate.BILINEAR, BorderType.EXTENDED,(ImageType)imageType);
+				search = new SegmentMeanShiftSearchColor(maxIterations,convergenceTol,interp,
+						spacialRadius,spacialRadius,colorRadius,config.fast,imageType);
+			}
 		}
+		// bilinear interpolation is used so the bins don't change the results
+		search.setBinSize(config.binSize);
 
 		ComputeRegionMeanColor<T> regionColor = regionMeanColor(imageType);
 		MergeRegionMeanShift merge = new MergeRegionMeanShift(spacialRadius/2+1,Math.max(1,colorRadius/2));
@@ -151,6 +183,33 @@ public class FactorySegmentationAlg {
 		throw new IllegalArgumentException("Unknown imageType or connect rule");
 	}
 
+	public static <T extends ImageBase>
+	FhEdgeWeightsRow<T> weightsRowFelzenszwalb04( ConnectRule rule , ImageType<T> imageType) {
+		if( imageType.getFamily() == ImageType.Family.GRAY) {
+			switch( imageType.getDataType() ) {
+				case U8:
+					return (FhEdgeWeightsRow)new FhEdgeWeightsRow_U8(rule);
+				case F32:
+					return (FhEdgeWeightsRow)new FhEdgeWeightsRow_F32(rule);
+			}
+		} else if( imageType.getFamily() == ImageType.Family.PLANAR) {
+			int N = imageType.getNumBands();
+			switch( imageType.getDataType() ) {
+				case U8:
+					return (FhEdgeWeightsRow)new FhEdgeWeightsRow_PLU8(rule,N);
+				case F32:
+					return (FhEdgeWeightsRow)new FhEdgeWeightsRow_PLF32(rule,N);
+			}
+		}
+
+		throw new IllegalArgumentException("Unknown imageType");
+	}
+
+	/**
+	 * Creates {@link SegmentFelzenszwalbHuttenlocher04}.  If {@link BoofConcurrency#USE_CONCURRENT} is true then
+	 * {@link SegmentFelzenszwalbHuttenlocher04_MT} is created instead, which produces the same
+	 * segmentation unless an approximate sort is requested.
+	 */
 	public static<T extends ImageBase>
 	SegmentFelzenszwalbHuttenlocher04<T> fh04(ConfigFh04 config, ImageType<T> imageType)
 	{
@@ -158,10 +217,14 @@ public class FactorySegmentationAlg {
 		if( config == null )
 			config = new ConfigFh04();
 
-		FhEdgeWeights<T> edgeWeights = weightsFelzenszwalb04(config.connectRule,imageType);
-
-		SegmentFelzenszwalbHuttenlocher04<T> alg =
-				new SegmentFelzenszwalbHuttenlocher04<T>(config.K,config.minimumRegionSize,edgeWeights);
+		SegmentFelzenszwalbHuttenlocher04<T> alg;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			FhEdgeWeightsRow<T> edgeWeights = weightsRowFelzenszwalb04(config.connectRule,imageType);
+			alg = new SegmentFelzenszwalbHuttenlocher04_MT<T>(config.K,config.minimumRegionSize,edgeWeights);
+		} else {
+			FhEdgeWeights<T> edgeWeights = weightsFelzenszwalb04(config.connectRule,imageType);
+			alg = new SegmentFelzenszwalbHuttenlocher04<T>(config.K,config.minimumRegionSize,edgeWeights);
+		}
 
 		if( config.approximateSortBins > 0 ) {
 			alg.configureApproximateSort(config.approximateSortBins);
@@ -176,24 +239,28 @@ public class FactorySegmentationAlg {
 		if( config == null )
 			throw new IllegalArgumentException("No default configuration since the number of segments must be specified.");
 
+		int maxThreads = config.maxThreads;
+		if( maxThreads <= 0 )
+			maxThreads = BoofConcurrency.USE_CONCURRENT ? BoofConcurrency.getMaxThreads() : 1;
+
 		if( imageType.getFamily() == ImageType.Family.GRAY) {
 				switch( imageType.getDataType() ) {
 					case U8:
 						return (SegmentSlic)new SegmentSlic_U8(config.numberOfRegions,
-								config.spacialWeight,config.totalIterations,config.connectRule);
+								config.spacialWeight,config.totalIterations,config.connectRule,maxThreads);
 					case F32:
 						return (SegmentSlic)new SegmentSlic_F32(config.numberOfRegions,
-								config.spacialWeight,config.totalIterations,config.connectRule);
+								config.spacialWeight,config.totalIterations,config.connectRule,maxThreads);
 				}
 		} else if( imageType.getFamily() == ImageType.Family.PLANAR) {
 			int N = imageType.getNumBands();
 				switch( imageType.getDataType() ) {
 					case U8:
 						return (SegmentSlic)new SegmentSlic_PlU8(config.numberOfRegions,
-								config.spacialWeight,config.totalIterations,config.connectRule,N);
+								config.spacialWeight,config.totalIterations,config.connectRule,N,maxThreads);
 					case F32:
 						return (SegmentSlic)new SegmentSlic_PlF32(config.numberOfRegions,
-								config.spacialWeight,config.totalIterations,config.connectRule,N);
+								config.spacialWeight,config.totalIterations,config.connectRule,N,maxThreads);
 				}
 		}
 		throw new IllegalArgumentException("Unknown imageType or connect rule");
@@ -28,9 +28,12 @@ import boofcv.alg.tracker.klt.KltConfig;
 import boofcv.alg.tracker.klt.KltTracker;
 import boofcv.alg.tracker.klt.PkltConfig;
 import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.alg.tracker.klt.PyramidKltTracker_MT;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
 
 /**
  * Factory for creating feature trackers algorithms.
@@ -66,7 +69,8 @@ public class FactoryTrackerAlg {
 	}
 
 	/**
-	 * Creates a {@link PyramidKltTracker}.
+	 * Creates a {@link PyramidKltTracker}.  If {@link BoofConcurrency#USE_CONCURRENT} is true then
+	 * {@link PyramidKltTracker_MT} is returned, which tracks lists of features concurrently.
 	 *
 	 * NOTE: The pyramid's structure is determined by the input pyramid that is processed.
 	 *
@@ -79,7 +83,7 @@ public class FactoryTrackerAlg {
 	 */
 	public static <I extends ImageGray, D extends ImageGray>
 	PyramidKltTracker<I, D> kltPyramid( KltConfig config,
-										Class<I> imageType ,
+										final Class<I> imageType ,
 										Class<D> derivType )
 	{
 		if( config == null )
@@ -87,6 +91,19 @@ public class FactoryTrackerAlg {
 		if( derivType == null )
 			derivType = GImageDerivativeOps.getDerivativeType(imageType);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			final KltConfig _config = config;
+			final Class<D> _derivType = derivType;
+			FastQueue<KltTracker<I, D>> trackers =
+					new FastQueue<KltTracker<I, D>>(1,(Class)KltTracker.class,true) {
+						@Override
+						protected KltTracker<I, D> createInstance() {
+							return klt(_config, imageType, _derivType);
+						}
+					};
+			return new PyramidKltTracker_MT<I, D>(trackers);
+		}
+
 		InterpolateRectangle<I> interpInput = FactoryInterpolation.<I>bilinearRectangle(imageType);
 		InterpolateRectangle<D> interpDeriv = FactoryInterpolation.<D>bilinearRectangle(derivType);
 
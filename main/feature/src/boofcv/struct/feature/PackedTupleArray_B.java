@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.feature;
+
+/**
+ * <p>
+ * Stores a set of binary descriptors in a single array of longs.  Each descriptor takes up
+ * ceil(numBits/64) consecutive elements.  Compared to a list of {@link TupleDesc_B} this is more
+ * cache friendly and the hamming distance can be computed 64-bits at a time.  Intended for large sets which
+ * are searched many times, e.g. a library of known descriptors.
+ * </p>
+ *
+ * <p>
+ * Bit i in the descriptor is stored in bit (i%64) of the long at (i/64).  Unused bits are zero.
+ * </p>
+ *
+ * @see boofcv.alg.descriptor.DescriptorDistance#hamming(long[], PackedTupleArray_B, int[])
+ *
+ * @author Peter Abeles
+ */
+public class PackedTupleArray_B {
+	// number of bits in each descriptor
+	int numBits;
+	// number of longs used to store each descriptor
+	int numLongs;
+
+	// packed descriptors
+	public long[] data;
+	// number of descriptors
+	int size;
+
+	/**
+	 * @param numBits Number of bits in each descriptor
+	 * @param initialMaxSize Initial number of descriptors there is storage for
+	 */
+	public PackedTupleArray_B(int numBits, int initialMaxSize) {
+		this.numBits = numBits;
+		this.numLongs = lengthPacked(numBits);
+		this.data = new long[numLongs*Math.max(1,initialMaxSize)];
+	}
+
+	public PackedTupleArray_B(int numBits) {
+		this(numBits,10);
+	}
+
+	/**
+	 * Removes all descriptors
+	 */
+	public void reset() {
+		size = 0;
+	}
+
+	/**
+	 * Adds a descriptor to the end of the array.  A copy is made.
+	 */
+	public void add( TupleDesc_B desc ) {
+		if( desc.numBits != numBits )
+			throw new IllegalArgumentException("Descriptor has an unexpected number of bits");
+
+		int length = (size+1)*numLongs;
+		if( data.length < length ) {
+			long[] tmp = new long[Math.max(length,data.length*2)];
+			System.arraycopy(data,0,tmp,0,size*numLongs);
+			data = tmp;
+		}
+		pack(desc,data,size*numLongs);
+		size++;
+	}
+
+	/**
+	 * Copies the descriptor at the specified index into the provided descriptor
+	 */
+	public void get( int index , TupleDesc_B output ) {
+		if( index < 0 || index >= size )
+			throw new IllegalArgumentException("Index out of bounds");
+		int offset = index*numLongs;
+		for (int i = 0; i < output.data.length; i++) {
+			long v = data[offset + i/2];
+			output.data[i] = (int)(i%2 == 0 ? v : v >>> 32);
+		}
+		output.numBits = numBits;
+	}
+
+	/**
+	 * Packs the descriptor into an array of longs
+	 *
+	 * @param desc (Input) Descriptor
+	 * @param output (Output) storage for the packed descriptor
+	 * @param offset First element in output which is written to
+	 */
+	public static void pack( TupleDesc_B desc , long[] output , int offset ) {
+		int N = desc.data.length;
+		int i = 0;
+		for (; i+1 < N; i += 2) {
+			output[offset++] = (desc.data[i] & 0xFFFFFFFFL) | ((long)desc.data[i+1] << 32);
+		}
+		if( i < N ) {
+			output[offset] = desc.data[i] & 0xFFFFFFFFL;
+		}
+	}
+
+	/**
+	 * Number of longs needed to store a descriptor with the specified number of bits
+	 */
+	public static int lengthPacked( int numBits ) {
+		return (numBits+63)/64;
+	}
+
+	/**
+	 * Number of descriptors in the array
+	 */
+	public int size() {
+		return size;
+	}
+
+	public int getNumBits() {
+		return numBits;
+	}
+
+	public int getNumLongs() {
+		return numLongs;
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.alg.feature.associate.HammingMultiIndex;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAssociateHammingMultiIndex {
+
+	Random rand = new Random(234);
+
+	int numBits = 256;
+
+	/**
+	 * Each destination feature should be matched to a source feature with the smallest possible distance
+	 */
+	@Test
+	public void compareToBruteForce() {
+		FastQueue<TupleDesc_B> src = createSet(200);
+		FastQueue<TupleDesc_B> dst = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+		for (int i = 0; i < 100; i++) {
+			TupleDesc_B d = src.get(rand.nextInt(src.size)).copy();
+			for (int j = 0; j < 20; j++) {
+				int bit = rand.nextInt(numBits);
+				d.data[bit/32] ^= 1 << (bit%32);
+			}
+			dst.add(d);
+		}
+		// something that won't match
+		dst.add(createSet(1).get(0));
+
+		AssociateDescription<TupleDesc_B> alg = FactoryAssociation.hammingMultiIndex(numBits,8,-1,Double.MAX_VALUE);
+		alg.setSource(src);
+		alg.setDestination(dst);
+		alg.associate();
+
+		FastQueue<AssociatedIndex> matches = alg.getMatches();
+		assertEquals(dst.size, matches.size);
+		for (int i = 0; i < matches.size; i++) {
+			AssociatedIndex a = matches.get(i);
+			assertEquals(i, a.dst);
+			assertEquals(DescriptorDistance.hamming(src.get(a.src), dst.get(a.dst)), a.fitScore, 1e-8);
+			assertEquals(bruteForce(src, dst.get(i)), a.fitScore, 1e-8);
+		}
+
+		// with a threshold the descriptor which is far away shouldn't be matched
+		alg.setThreshold(40);
+		alg.associate();
+		assertEquals(dst.size-1, alg.getMatches().size);
+		assertEquals(1, alg.getUnassociatedDestination().size);
+		assertEquals(dst.size-1, alg.getUnassociatedDestination().get(0));
+	}
+
+	/**
+	 * Features removed from the index directly shouldn't be reported as unassociated and indexes of features
+	 * added after a removal should be
+	 */
+	@Test
+	public void unassociatedSource_removed() {
+		FastQueue<TupleDesc_B> src = createSet(10);
+		FastQueue<TupleDesc_B> dst = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+		dst.add(src.get(2).copy());
+		dst.add(src.get(9).copy());
+
+		AssociateHammingMultiIndex alg = new AssociateHammingMultiIndex(new HammingMultiIndex(numBits,8));
+		alg.setSource(src);
+		alg.setDestination(dst);
+
+		HammingMultiIndex index = alg.getIndex();
+		index.remove(4);
+		index.remove(6);
+		// recycles one of the removed indexes
+		int added = index.add(createSet(1).get(0));
+		alg.associate();
+
+		assertEquals(2, alg.getMatches().size);
+		GrowQueue_I32 found = alg.getUnassociatedSource();
+		assertEquals(7, found.size);
+		boolean foundAdded = false;
+		for (int i = 0; i < found.size; i++) {
+			int which = found.get(i);
+			assertTrue(which != 2 && which != 9);
+			assertTrue(index.get(which) != null);
+			if( which == added )
+				foundAdded = true;
+		}
+		assertTrue(foundAdded);
+	}
+
+	private int bruteForce( FastQueue<TupleDesc_B> src , TupleDesc_B query ) {
+		int best = Integer.MAX_VALUE;
+		for (int i = 0; i < src.size; i++) {
+			best = Math.min(best, DescriptorDistance.hamming(src.get(i), query));
+		}
+		return best;
+	}
+
+	private FastQueue<TupleDesc_B> createSet( int N ) {
+		FastQueue<TupleDesc_B> ret = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+		for (int i = 0; i < N; i++) {
+			TupleDesc_B d = new TupleDesc_B(numBits);
+			for (int j = 0; j < d.data.length; j++) {
+				d.data[j] = rand.nextInt();
+			}
+			ret.add(d);
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.describe;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.image.GrayF32;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the output of a {@link DescribeRegionPointBatch} against describing each feature one at a time
+ *
+ * @author Peter Abeles
+ */
+public abstract class GenericDescribeRegionPointBatchTests<D extends TupleDesc> {
+
+	Random rand = new Random(234);
+
+	int width = 200;
+	int height = 150;
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		setMinimumFeatures(2);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		restoreMinimumFeatures();
+	}
+
+	/**
+	 * Changes the minimum number of features each thread will process
+	 */
+	protected abstract void setMinimumFeatures( int value );
+
+	protected abstract void restoreMinimumFeatures();
+
+	/**
+	 * Creates an equivalent single threaded implementation
+	 */
+	protected abstract DescribeRegionPoint<GrayF32,D> createSingle();
+
+	protected abstract DescribeRegionPointBatch<GrayF32,D> createBatch();
+
+	@Test
+	public void compareToSingle() {
+		GrayF32 image = new GrayF32(width,height);
+		GImageMiscOps.fillUniform(image,rand,0,200);
+
+		DescribeRegionPoint<GrayF32,D> single = createSingle();
+		DescribeRegionPointBatch<GrayF32,D> batch = createBatch();
+
+		// see if the same instance can be used for batches of different sizes
+		for( int N : new int[]{30,1,45,0} ) {
+			compare(image, single, batch, N);
+		}
+	}
+
+	private void compare(GrayF32 image, DescribeRegionPoint<GrayF32, D> single,
+						 final DescribeRegionPointBatch<GrayF32, D> batch, int N) {
+		List<Point2D_F64> locations = new ArrayList<Point2D_F64>();
+		GrowQueue_F64 orientations = new GrowQueue_F64();
+		GrowQueue_F64 radii = new GrowQueue_F64();
+
+		for (int i = 0; i < N; i++) {
+			// some of the features will touch the image border
+			locations.add(new Point2D_F64(rand.nextDouble()*width, rand.nextDouble()*height));
+			orientations.add((rand.nextDouble()-0.5)*2*Math.PI);
+			radii.add(2 + rand.nextDouble()*10);
+		}
+
+		FastQueue<D> found = new FastQueue<D>(batch.getDescriptionType(),true) {
+			@Override
+			protected D createInstance() {
+				return batch.createDescription();
+			}
+		};
+		GrowQueue_B success = new GrowQueue_B();
+
+		single.setImage(image);
+		batch.setImage(image);
+		batch.process(locations, orientations, radii, found, success);
+
+		assertEquals(N, found.size());
+		assertEquals(N, success.size());
+
+		D expected = single.createDescription();
+		for (int i = 0; i < N; i++) {
+			Point2D_F64 p = locations.get(i);
+			boolean valid = single.process(p.x, p.y, orientations.get(i), radii.get(i), expected);
+			assertEquals(valid, success.get(i));
+			if( !valid )
+				continue;
+
+			D f = found.get(i);
+			for (int j = 0; j < expected.size(); j++) {
+				assertEquals(expected.getDouble(j), f.getDouble(j), 0);
+			}
+		}
+	}
+
+	@Test
+	public void checkCreateDescription() {
+		DescribeRegionPointBatch<GrayF32,D> batch = createBatch();
+		DescribeRegionPoint<GrayF32,D> single = createSingle();
+
+		D a = batch.createDescription();
+		assertTrue(a != null);
+		assertEquals(single.createDescription().size(), a.size());
+		assertEquals(single.getDescriptionType(), batch.getDescriptionType());
+	}
+}
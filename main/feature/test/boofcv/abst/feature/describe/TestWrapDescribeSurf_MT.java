@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.describe;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.describe.FactoryDescribeRegionPoint;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.image.GrayF32;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestWrapDescribeSurf_MT extends GenericDescribeRegionPointBatchTests<BrightFeature> {
+
+	int originalMinFeatures = WrapDescribeSurf_MT.MIN_FEATURES;
+
+	@Override
+	protected void setMinimumFeatures(int value) {
+		WrapDescribeSurf_MT.MIN_FEATURES = value;
+	}
+
+	@Override
+	protected void restoreMinimumFeatures() {
+		WrapDescribeSurf_MT.MIN_FEATURES = originalMinFeatures;
+	}
+
+	@Override
+	protected DescribeRegionPoint<GrayF32, BrightFeature> createSingle() {
+		return FactoryDescribeRegionPoint.surfStable(null, GrayF32.class);
+	}
+
+	@Override
+	protected DescribeRegionPointBatch<GrayF32, BrightFeature> createBatch() {
+		BoofConcurrency.USE_CONCURRENT = true;
+		try {
+			return (DescribeRegionPointBatch)FactoryDescribeRegionPoint.surfStable(null, GrayF32.class);
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = false;
+		}
+	}
+}
@@ -19,6 +19,7 @@
 package boofcv.abst.feature.detdesc;
 
 import boofcv.abst.feature.describe.DescribeRegionPoint;
+import boofcv.abst.feature.describe.DescribeRegionPointBatch;
 import boofcv.abst.feature.detect.interest.InterestPointDetector;
 import boofcv.abst.feature.orientation.OrientationImage;
 import boofcv.factory.feature.describe.FactoryDescribeRegionPoint;
@@ -30,8 +31,13 @@ import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
 import org.junit.Test;
 
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -64,6 +70,31 @@ public class TestDetectDescribeFusion {
 		}
 	}
 
+	/**
+	 * Describes features in a batch.  Features which could not be described should be removed and the order
+	 * of the others preserved
+	 */
+	@Test
+	public void checkFeatureNotInBounds_batch() {
+
+		InterestPointDetector detector = new DummyDetector();
+		DescribeRegionPoint describe = new DummyRegionPointBatch();
+
+		DetectDescribeFusion alg = new DetectDescribeFusion(detector,null,describe);
+
+		alg.detect(new GrayF32(2,2));
+
+		assertEquals(9, alg.getNumberOfFeatures());
+
+		for( int i = 0; i < 9; i++ ) {
+			int expected = i < 5 ? i : i + 1;
+			assertEquals(2,alg.getRadius(i),1e-8);
+			assertEquals(1,alg.getOrientation(i),1e-8);
+			assertEquals(expected,alg.getDescription(i).getDouble(0),1e-8);
+			assertTrue(alg.getLocation(i) != null);
+		}
+	}
+
 	@Test
 	public void checkWithOrientation() {
 		final InterestPointDetector<GrayF32> detector = FactoryInterestPoint.fastHessian(null);
@@ -131,6 +162,20 @@ public class TestDetectDescribeFusion {
 		}
 	}
 
+	public static class DummyRegionPointBatch extends DummyRegionPoint implements DescribeRegionPointBatch {
+		@Override
+		public void process(List locations, GrowQueue_F64 orientations, GrowQueue_F64 radii,
+							FastQueue descriptions, GrowQueue_B success) {
+			descriptions.reset();
+			descriptions.resize(locations.size());
+			success.resize(locations.size());
+			for (int i = 0; i < locations.size(); i++) {
+				((BrightFeature)descriptions.get(i)).value[0] = i;
+				success.data[i] = i != 5;
+			}
+		}
+	}
+
 	public static class DummyRegionPoint implements DescribeRegionPoint {
 
 		int calls = 0;
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.disparity;
+
+import boofcv.alg.feature.disparity.DisparityScoreRowFormat;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.feature.disparity.DisparityAlgorithms;
+import boofcv.factory.feature.disparity.FactoryStereoDisparity;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestWrapDisparitySadRect_MT {
+
+	Random rand = new Random(234);
+
+	int width = 60;
+	// tall enough to be split into several slices
+	int height = 5*DisparityScoreRowFormat.RESTART_PERIOD + 7;
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		BoofConcurrency.USE_CONCURRENT = false;
+	}
+
+	@Test
+	public void compareToSingleThread_U8() {
+		compareToSingleThread(DisparityAlgorithms.RECT, false, GrayU8.class);
+		compareToSingleThread(DisparityAlgorithms.RECT_FIVE, false, GrayU8.class);
+		compareToSingleThread(DisparityAlgorithms.RECT, true, GrayU8.class);
+		compareToSingleThread(DisparityAlgorithms.RECT_FIVE, true, GrayU8.class);
+	}
+
+	@Test
+	public void compareToSingleThread_F32() {
+		compareToSingleThread(DisparityAlgorithms.RECT, false, GrayF32.class);
+		compareToSingleThread(DisparityAlgorithms.RECT_FIVE, false, GrayF32.class);
+		compareToSingleThread(DisparityAlgorithms.RECT, true, GrayF32.class);
+		compareToSingleThread(DisparityAlgorithms.RECT_FIVE, true, GrayF32.class);
+	}
+
+	private <T extends ImageGray> void compareToSingleThread(DisparityAlgorithms which, boolean subpixel, Class<T> type) {
+		T left = GeneralizedImageOps.createSingleBand(type, width, height);
+		T right = GeneralizedImageOps.createSingleBand(type, width, height);
+		GImageMiscOps.fillUniform(left, rand, 0, 100);
+		GImageMiscOps.copy(3, 0, 0, 0, width - 3, height, left, right);
+		GImageMiscOps.addUniform(right, rand, 0, 5);
+
+		BoofConcurrency.USE_CONCURRENT = false;
+		StereoDisparity<T,ImageGray> single = create(which, subpixel, type);
+		BoofConcurrency.USE_CONCURRENT = true;
+		StereoDisparity<T,ImageGray> concurrent = create(which, subpixel, type);
+		assertTrue(concurrent instanceof WrapDisparitySadRect_MT);
+		((WrapDisparitySadRect_MT)concurrent).setMinimumRows(3);
+
+		single.process(left, right);
+		// process twice to make sure state from the previous image doesn't matter
+		concurrent.process(right, left);
+		concurrent.process(left, right);
+
+		BoofTesting.assertEquals(single.getDisparity(), concurrent.getDisparity(), 0);
+	}
+
+	private <T extends ImageGray> StereoDisparity<T,ImageGray> create(DisparityAlgorithms which, boolean subpixel,
+																	  Class<T> type) {
+		if( subpixel )
+			return (StereoDisparity)FactoryStereoDisparity.regionSubpixelWta(which, 1, 12, 2, 3, 30, 1, 0.1, type);
+		else
+			return (StereoDisparity)FactoryStereoDisparity.regionWta(which, 1, 12, 2, 3, 30, 1, 0.1, type);
+	}
+}
@@ -19,6 +19,7 @@
 package boofcv.alg.descriptor;
 
 import boofcv.struct.feature.*;
+import org.ddogleg.struct.FastQueue;
 import org.junit.Test;
 
 import java.util.Random;
@@ -187,6 +188,86 @@ public class TestDescriptorDistance {
 		assertEquals(8,DescriptorDistance.hamming(0xF000000F));
 	}
 
+	/**
+	 * Odd number of integers so the last one can't be combined into a long
+	 */
+	@Test
+	public void hamming_I32_odd() {
+		TupleDesc_B a = new TupleDesc_B(96);
+		TupleDesc_B b = new TupleDesc_B(96);
+
+		for( int numTries = 0; numTries < 20; numTries++ ) {
+			for( int i = 0; i < a.data.length; i++ ) {
+				a.data[i] = rand.nextInt();
+				b.data[i] = rand.nextInt();
+			}
+
+			assertEquals(hamming(a,b),DescriptorDistance.hamming(a, b));
+		}
+	}
+
+	@Test
+	public void hamming_long() {
+		assertEquals(0,DescriptorDistance.hamming(0L));
+		assertEquals(1,DescriptorDistance.hamming(0x0800L));
+		assertEquals(2,DescriptorDistance.hamming(0x8000000000000001L));
+		assertEquals(64,DescriptorDistance.hamming(0xFFFFFFFFFFFFFFFFL));
+	}
+
+	@Test
+	public void hamming_longArray() {
+		long[] a = new long[]{0x0F,0xFFFFFFFFFFFFFFFFL,0};
+		long[] b = new long[]{0x01,0,0x8000000000000001L};
+
+		assertEquals(3+64+2,DescriptorDistance.hamming(a, b));
+	}
+
+	@Test
+	public void hamming_list() {
+		TupleDesc_B a = randomBinary(100);
+		FastQueue<TupleDesc_B> list = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+		for (int i = 0; i < 8; i++) {
+			list.add(randomBinary(100));
+		}
+
+		int[] distances = new int[10];
+		DescriptorDistance.hamming(a, list, distances);
+
+		for (int i = 0; i < list.size; i++) {
+			assertEquals(hamming(a,list.get(i)), distances[i]);
+		}
+	}
+
+	@Test
+	public void hamming_packed() {
+		TupleDesc_B a = randomBinary(100);
+		PackedTupleArray_B set = new PackedTupleArray_B(100,2);
+		TupleDesc_B[] list = new TupleDesc_B[8];
+		for (int i = 0; i < list.length; i++) {
+			list[i] = randomBinary(100);
+			set.add(list[i]);
+		}
+
+		long[] packed = new long[set.getNumLongs()];
+		PackedTupleArray_B.pack(a,packed,0);
+
+		int[] distances = new int[10];
+		DescriptorDistance.hamming(packed, set, distances);
+
+		for (int i = 0; i < list.length; i++) {
+			assertEquals(hamming(a,list[i]), distances[i]);
+		}
+	}
+
+	private TupleDesc_B randomBinary( int numBits ) {
+		TupleDesc_B d = new TupleDesc_B(numBits);
+		for( int i = 0; i < d.data.length; i++ ) {
+			d.data[i] = rand.nextInt();
+		}
+		d.data[d.data.length-1] &= (1 << (numBits%32)) - 1;
+		return d;
+	}
+
 	private int hamming( TupleDesc_B a, TupleDesc_B b) {
 		int ret = 0;
 		for( int i = 0; i < a.data.length; i++ ) {
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateEuclidean_F64;
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAssociateGreedy_MT {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+	int originalMinRows;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalMinRows = AssociateGreedy_MT.MIN_ROWS;
+		BoofConcurrency.setMaxThreads(4);
+		AssociateGreedy_MT.MIN_ROWS = 1;
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		AssociateGreedy_MT.MIN_ROWS = originalMinRows;
+	}
+
+	@Test
+	public void compareToSingleThread_F64() {
+		ScoreAssociation<TupleDesc_F64> score = new ScoreAssociateEuclidean_F64();
+		for( boolean backwards : new boolean[]{false,true}) {
+			compare(score, backwards, Double.MAX_VALUE, createF64(50), createF64(43));
+			compare(score, backwards, 1.0, createF64(50), createF64(43));
+			compare(score, backwards, Double.MAX_VALUE, createF64(7), createF64(60));
+		}
+	}
+
+	@Test
+	public void compareToSingleThread_B() {
+		ScoreAssociation<TupleDesc_B> score = new ScoreAssociateHamming_B();
+		for( boolean backwards : new boolean[]{false,true}) {
+			compare(score, backwards, Double.MAX_VALUE, createB(50), createB(43));
+			compare(score, backwards, 110, createB(50), createB(43));
+		}
+	}
+
+	/**
+	 * Process lists of different sizes with the same instance
+	 */
+	@Test
+	public void changeSize() {
+		ScoreAssociation<TupleDesc_F64> score = new ScoreAssociateEuclidean_F64();
+		AssociateGreedy_MT<TupleDesc_F64> alg = new AssociateGreedy_MT<TupleDesc_F64>(score,true);
+		alg.associate(createF64(60),createF64(60));
+
+		compare(score, true, Double.MAX_VALUE, createF64(10), createF64(12));
+	}
+
+	private <D> void compare( ScoreAssociation<D> score , boolean backwards , double maxError ,
+							  FastQueue<D> src , FastQueue<D> dst ) {
+		AssociateGreedy<D> single = new AssociateGreedy<D>(score,backwards);
+		AssociateGreedy_MT<D> concurrent = new AssociateGreedy_MT<D>(score,backwards);
+		single.setMaxFitError(maxError);
+		concurrent.setMaxFitError(maxError);
+
+		single.associate(src,dst);
+		concurrent.associate(src,dst);
+
+		for (int i = 0; i < src.size; i++) {
+			assertEquals(single.getPairs()[i], concurrent.getPairs()[i]);
+			assertEquals(single.getFitQuality()[i], concurrent.getFitQuality()[i], 0);
+		}
+	}
+
+	private FastQueue<TupleDesc_F64> createF64( int N ) {
+		FastQueue<TupleDesc_F64> ret = new FastQueue<TupleDesc_F64>(TupleDesc_F64.class,false);
+		for (int i = 0; i < N; i++) {
+			TupleDesc_F64 d = new TupleDesc_F64(3);
+			for (int j = 0; j < d.value.length; j++) {
+				// coarse values so that there are ties
+				d.value[j] = rand.nextInt(4);
+			}
+			ret.add(d);
+		}
+		return ret;
+	}
+
+	private FastQueue<TupleDesc_B> createB( int N ) {
+		FastQueue<TupleDesc_B> ret = new FastQueue<TupleDesc_B>(TupleDesc_B.class,false);
+		for (int i = 0; i < N; i++) {
+			TupleDesc_B d = new TupleDesc_B(256);
+			for (int j = 0; j < d.data.length; j++) {
+				d.data[j] = rand.nextInt();
+			}
+			ret.add(d);
+		}
+		return ret;
+	}
+}
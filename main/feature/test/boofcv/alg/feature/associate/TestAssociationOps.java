@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.struct.feature.AssociatedIndex;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAssociationOps {
+
+	@Test
+	public void sortByFitScore() {
+		FastQueue<AssociatedIndex> matches = new FastQueue<AssociatedIndex>(AssociatedIndex.class,true);
+		matches.grow().setAssociation(0,5,3.0);
+		matches.grow().setAssociation(1,4,-1.0);
+		matches.grow().setAssociation(2,3,3.0);
+		matches.grow().setAssociation(3,2,0.5);
+		// this element is not part of the list and should not be touched
+		matches.grow().setAssociation(4,1,-10);
+		matches.removeTail();
+
+		AssociationOps.sortByFitScore(matches);
+
+		assertEquals(4, matches.size);
+		assertEquals(1, matches.get(0).src);
+		assertEquals(3, matches.get(1).src);
+		// stable sort
+		assertEquals(0, matches.get(2).src);
+		assertEquals(2, matches.get(3).src);
+		assertEquals(4, matches.data[4].src);
+	}
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHammingMultiIndex {
+
+	Random rand = new Random(234);
+
+	// not a multiple of the substring size and substrings will cross integer boundaries
+	int numBits = 100;
+	int substringBits = 7;
+
+	@Test
+	public void substring() {
+		HammingMultiIndex alg = new HammingMultiIndex(numBits,substringBits);
+		assertEquals(15,alg.getNumTables());
+
+		TupleDesc_B desc = random();
+		for (int table = 0; table < alg.getNumTables(); table++) {
+			int expected = 0;
+			int length = Math.min(substringBits,numBits-table*substringBits);
+			for (int i = 0; i < length; i++) {
+				if( desc.isBitTrue(table*substringBits+i) )
+					expected |= 1 << i;
+			}
+			assertEquals(expected, alg.substring(desc,table));
+		}
+	}
+
+	@Test
+	public void findNearest_compareToBruteForce() {
+		HammingMultiIndex alg = new HammingMultiIndex(numBits,substringBits);
+		List<TupleDesc_B> list = createSet(alg,300);
+
+		for (int trial = 0; trial < 50; trial++) {
+			TupleDesc_B query = mutate(list.get(rand.nextInt(list.size())), rand.nextInt(30));
+
+			for( int k : new int[]{1,5}) {
+				alg.findNearest(query, k, -1);
+				int[] expected = bruteForceDistances(list,query);
+
+				assertEquals(k, alg.getResultIndexes().size);
+				for (int i = 0; i < k; i++) {
+					int index = alg.getResultIndexes().get(i);
+					assertEquals(expected[i], alg.getResultDistances().get(i));
+					assertEquals(expected[i], DescriptorDistance.hamming(query, list.get(index)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void findNearest_maxDistance() {
+		HammingMultiIndex alg = new HammingMultiIndex(numBits,substringBits);
+		List<TupleDesc_B> list = createSet(alg,50);
+
+		TupleDesc_B query = mutate(list.get(4),6);
+		alg.findNearest(query,1,5);
+		assertEquals(0,alg.getResultIndexes().size);
+		alg.findNearest(query,1,6);
+		assertEquals(1,alg.getResultIndexes().size);
+		assertEquals(4,alg.getResultIndexes().get(0));
+	}
+
+	@Test
+	public void findRadius_compareToBruteForce() {
+		HammingMultiIndex alg = new HammingMultiIndex(numBits,substringBits);
+		List<TupleDesc_B> list = createSet(alg,200);
+		// add several which are close to each other
+		for (int i = 0; i < 20; i++) {
+			TupleDesc_B d = mutate(list.get(0),rand.nextInt(40));
+			list.add(d);
+			alg.add(d);
+		}
+
+		for( int radius : new int[]{0,10,25,40}) {
+			TupleDesc_B query = mutate(list.get(0),3);
+			alg.findRadius(query, radius);
+
+			List<Integer> expected = new ArrayList<Integer>();
+			for (int i = 0; i < list.size(); i++) {
+				if( DescriptorDistance.hamming(query,list.get(i)) <= radius )
+					expected.add(i);
+			}
+
+			GrowQueue_I32 found = alg.getResultIndexes();
+			assertEquals(expected.size(), found.size);
+			for (int i = 0; i < found.size; i++) {
+				assertTrue(expected.contains(found.get(i)));
+				if( i > 0 )
+					assertTrue(alg.getResultDistances().get(i-1) <= alg.getResultDistances().get(i));
+			}
+		}
+	}
+
+	@Test
+	public void addRemove() {
+		HammingMultiIndex alg = new HammingMultiIndex(numBits,substringBits);
+		List<TupleDesc_B> list = createSet(alg,20);
+
+		alg.findNearest(list.get(5),1,0);
+		assertEquals(5,alg.getResultIndexes().get(0));
+
+		alg.remove(5);
+		assertEquals(19,alg.size());
+		assertNull(alg.get(5));
+		alg.findNearest(list.get(5),1,0);
+		assertEquals(0,alg.getResultIndexes().size);
+
+		// the removed index should be recycled
+		TupleDesc_B d = random();
+		assertEquals(5,alg.add(d));
+		assertEquals(20,alg.size());
+		alg.findNearest(d,1,0);
+		assertEquals(5,alg.getResultIndexes().get(0));
+
+		alg.reset();
+		assertEquals(0,alg.size());
+		alg.findNearest(d,1,-1);
+		assertEquals(0,alg.getResultIndexes().size);
+	}
+
+	/**
+	 * Limiting the search radius should still find close matches and every match found should be correct
+	 */
+	@Test
+	public void maxSubstringRadius() {
+		// large substrings so that random descriptors are unlikely to share a key
+		HammingMultiIndex alg = new HammingMultiIndex(numBits,20);
+		List<TupleDesc_B> list = createSet(alg,300);
+		alg.setMaxSubstringRadius(0);
+
+		for (int i = 0; i < 30; i++) {
+			TupleDesc_B query = mutate(list.get(i),2);
+			alg.findNearest(query,1,-1);
+			assertEquals(i, alg.getResultIndexes().get(0));
+		}
+
+		// a query which is far from everything is likely to not be found
+		int total = 0;
+		for (int i = 0; i < 30; i++) {
+			alg.findNearest(random(),1,-1);
+			if( alg.getResultIndexes().size > 0 ) {
+				int index = alg.getResultIndexes().get(0);
+				assertEquals(alg.getResultDistances().get(0),DescriptorDistance.hamming(alg.get(index),alg.query));
+				total++;
+			}
+		}
+		assertTrue(total < 30);
+	}
+
+	private List<TupleDesc_B> createSet( HammingMultiIndex alg , int N ) {
+		List<TupleDesc_B> list = new ArrayList<TupleDesc_B>();
+		for (int i = 0; i < N; i++) {
+			TupleDesc_B d = random();
+			list.add(d);
+			assertEquals(i,alg.add(d));
+		}
+		return list;
+	}
+
+	private int[] bruteForceDistances( List<TupleDesc_B> list , TupleDesc_B query ) {
+		int[] distances = new int[list.size()];
+		for (int i = 0; i < list.size(); i++) {
+			distances[i] = DescriptorDistance.hamming(query,list.get(i));
+		}
+		Arrays.sort(distances);
+		return distances;
+	}
+
+	private TupleDesc_B random() {
+		TupleDesc_B d = new TupleDesc_B(numBits);
+		for (int i = 0; i < d.data.length; i++) {
+			d.data[i] = rand.nextInt();
+		}
+		// bits beyond the descriptor's length are always zero
+		d.data[d.data.length-1] &= (1 << (numBits%32)) - 1;
+		return d;
+	}
+
+	private TupleDesc_B mutate( TupleDesc_B original , int numFlips ) {
+		TupleDesc_B d = original.copy();
+		for (int i = 0; i < numFlips; i++) {
+			int bit = rand.nextInt(numBits);
+			d.data[bit/32] ^= 1 << (bit%32);
+		}
+		return d;
+	}
+}
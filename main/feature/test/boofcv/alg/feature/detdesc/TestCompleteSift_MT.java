@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxLimiter;
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace_MT;
+import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCompleteSift_MT {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+	int originalMinFeatures;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalMinFeatures = CompleteSift_MT.MIN_FEATURES;
+		BoofConcurrency.setMaxThreads(4);
+		CompleteSift_MT.MIN_FEATURES = 2;
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		CompleteSift_MT.MIN_FEATURES = originalMinFeatures;
+	}
+
+	/**
+	 * Features, their order, orientations, and descriptions should be identical to the single threaded version
+	 */
+	@Test
+	public void compareToSingleThread() {
+		GrayF32 image = new GrayF32(300,290);
+
+		CompleteSift expected = createAlg(false);
+		CompleteSift found = createAlg(true);
+
+		// second image makes sure internal storage is correctly reset
+		for (int trial = 0; trial < 2; trial++) {
+			GImageMiscOps.fillUniform(image,rand,0,200);
+
+			expected.process(image);
+			found.process(image);
+
+			FastQueue<ScalePoint> locExpected = expected.getLocations();
+			FastQueue<ScalePoint> locFound = found.getLocations();
+
+			assertTrue(locExpected.size > 10);
+			assertEquals(locExpected.size, locFound.size);
+			assertEquals(locExpected.size, found.getOrientations().size);
+			assertEquals(locExpected.size, found.getDescriptions().size);
+
+			for (int i = 0; i < locExpected.size; i++) {
+				ScalePoint a = locExpected.get(i);
+				ScalePoint b = locFound.get(i);
+
+				assertEquals(a.x, b.x, 0);
+				assertEquals(a.y, b.y, 0);
+				assertEquals(a.scale, b.scale, 0);
+				assertEquals(a.white, b.white);
+				assertEquals(expected.getOrientations().get(i), found.getOrientations().get(i), 0);
+
+				BrightFeature descA = expected.getDescriptions().get(i);
+				BrightFeature descB = found.getDescriptions().get(i);
+				assertEquals(descA.white, descB.white);
+				for (int j = 0; j < descA.size(); j++) {
+					assertEquals(descA.value[j], descB.value[j], 0);
+				}
+			}
+		}
+	}
+
+	private CompleteSift createAlg( boolean concurrent ) {
+		NonMaxSuppression nonmax = FactoryFeatureExtractor.nonmax(new ConfigExtract(1,0,1,true,true,true));
+		NonMaxLimiter limiter = new NonMaxLimiter(nonmax,300);
+
+		if( !concurrent ) {
+			SiftScaleSpace ss = new SiftScaleSpace(-1,4,3,1.6);
+			return new CompleteSift(ss,10,limiter,createOrientation(),createDescribe());
+		}
+
+		SiftScaleSpace ss = new SiftScaleSpace_MT(-1,4,3,1.6,4);
+		FastQueue<OrientationHistogramSift<GrayF32>> ori =
+				new FastQueue<OrientationHistogramSift<GrayF32>>(1,(Class)OrientationHistogramSift.class,true) {
+					@Override
+					protected OrientationHistogramSift<GrayF32> createInstance() {
+						return createOrientation();
+					}
+				};
+		FastQueue<DescribePointSift<GrayF32>> describe =
+				new FastQueue<DescribePointSift<GrayF32>>(1,(Class)DescribePointSift.class,true) {
+					@Override
+					protected DescribePointSift<GrayF32> createInstance() {
+						return createDescribe();
+					}
+				};
+		return new CompleteSift_MT(ss,10,limiter,ori,describe,4);
+	}
+
+	private static OrientationHistogramSift<GrayF32> createOrientation() {
+		return new OrientationHistogramSift<GrayF32>(36,1.5,GrayF32.class);
+	}
+
+	private static DescribePointSift<GrayF32> createDescribe() {
+		return new DescribePointSift<GrayF32>(4,4,8,1.5,0.5,0.2,GrayF32.class);
+	}
+}
@@ -21,6 +21,7 @@ package boofcv.alg.feature.detect.edge;
 import boofcv.abst.filter.blur.BlurFilter;
 import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.filter.blur.FactoryBlurFilter;
 import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.struct.image.GrayS16;
@@ -173,6 +174,48 @@ public class TestCannyEdge {
 		assertEquals(2, alg.getContours().size());
 	}
 
+	/**
+	 * The concurrent implementation should produce identical results
+	 */
+	@Test
+	public void compareToSingleThread() {
+		int originalThreads = BoofConcurrency.getMaxThreads();
+		int originalBand = CannyEdge.MIN_BAND_HEIGHT;
+		int originalMark = HysteresisEdgeTraceMark_MT.MIN_BAND_HEIGHT;
+		int originalPoints = HysteresisEdgeTracePoints_MT.MIN_BAND_HEIGHT;
+		try {
+			BoofConcurrency.setMaxThreads(4);
+			CannyEdge.MIN_BAND_HEIGHT = 5;
+			HysteresisEdgeTraceMark_MT.MIN_BAND_HEIGHT = 5;
+			HysteresisEdgeTracePoints_MT.MIN_BAND_HEIGHT = 5;
+
+			GrayU8 input = new GrayU8(width,height);
+			GrayU8 expected = new GrayU8(width,height);
+			GrayU8 found = new GrayU8(width,height);
+
+			for( int i = 0; i < 5; i++ ) {
+				ImageMiscOps.fillUniform(input,rand,0,200);
+
+				for( boolean saveTrace : new boolean[]{true,false}) {
+					CannyEdge<GrayU8,GrayS16> single = createCanny(saveTrace,1);
+					CannyEdge<GrayU8,GrayS16> alg = createCanny(saveTrace,4);
+
+					single.process(input,20,100,expected);
+					alg.process(input,20,100,found);
+
+					BoofTesting.assertEquals(expected,found,0);
+					if( saveTrace )
+						TestHysteresisEdgeTracePoints_MT.checkEquals(single.getContours(), alg.getContours());
+				}
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(originalThreads);
+			CannyEdge.MIN_BAND_HEIGHT = originalBand;
+			HysteresisEdgeTraceMark_MT.MIN_BAND_HEIGHT = originalMark;
+			HysteresisEdgeTracePoints_MT.MIN_BAND_HEIGHT = originalPoints;
+		}
+	}
+
 	/**
 	 * Makes sure the two output modes are equivalent
 	 */
@@ -212,10 +255,14 @@ public class TestCannyEdge {
 	}
 
 	private CannyEdge<GrayU8,GrayS16> createCanny(boolean saveTrace ) {
+		return createCanny(saveTrace,1);
+	}
+
+	private CannyEdge<GrayU8,GrayS16> createCanny(boolean saveTrace , int maxThreads ) {
 		BlurFilter<GrayU8> blur = FactoryBlurFilter.gaussian(GrayU8.class, -1, 1);
 		ImageGradient<GrayU8,GrayS16> gradient = FactoryDerivative.three(GrayU8.class, GrayS16.class);
 
-		return new CannyEdge<GrayU8,GrayS16>(blur,gradient,saveTrace);
+		return new CannyEdge<GrayU8,GrayS16>(blur,gradient,saveTrace,maxThreads);
 	}
 
 	private void checkNeighbor( List<Point2D_I32> list ) {
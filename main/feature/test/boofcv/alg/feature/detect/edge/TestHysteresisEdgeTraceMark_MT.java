@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.edge;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS8;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHysteresisEdgeTraceMark_MT {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+	int originalBand;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalBand = HysteresisEdgeTraceMark_MT.MIN_BAND_HEIGHT;
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		HysteresisEdgeTraceMark_MT.MIN_BAND_HEIGHT = originalBand;
+	}
+
+	/**
+	 * Random images with many connected edges which cross between bands.  The output and the modified
+	 * intensity image should be identical
+	 */
+	@Test
+	public void compareToSingleThread() {
+		for (int trial = 0; trial < 50; trial++) {
+			HysteresisEdgeTraceMark_MT.MIN_BAND_HEIGHT = 1 + trial%4;
+
+			GrayF32 intensity = randomIntensity(rand, 20+trial, 25);
+			GrayS8 direction = randomDirection(rand, intensity.width, intensity.height);
+
+			GrayF32 intensityMT = intensity.clone();
+			GrayU8 expected = new GrayU8(intensity.width, intensity.height);
+			GrayU8 found = new GrayU8(intensity.width, intensity.height);
+
+			new HysteresisEdgeTraceMark().process(intensity, direction, 3, 7, expected);
+			new HysteresisEdgeTraceMark_MT(4).process(intensityMT, direction, 3, 7, found);
+
+			BoofTesting.assertEquals(expected, found, 0);
+			BoofTesting.assertEquals(intensity, intensityMT, 0);
+		}
+	}
+
+	/**
+	 * Seeds which are below the lower threshold are still traced
+	 */
+	@Test
+	public void upperBelowLower() {
+		HysteresisEdgeTraceMark_MT.MIN_BAND_HEIGHT = 2;
+
+		GrayF32 intensity = randomIntensity(rand, 30, 30);
+		GrayS8 direction = randomDirection(rand, intensity.width, intensity.height);
+
+		GrayF32 intensityMT = intensity.clone();
+		GrayU8 expected = new GrayU8(intensity.width, intensity.height);
+		GrayU8 found = new GrayU8(intensity.width, intensity.height);
+
+		new HysteresisEdgeTraceMark().process(intensity, direction, 6, 4, expected);
+		new HysteresisEdgeTraceMark_MT(4).process(intensityMT, direction, 6, 4, found);
+
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	public static GrayF32 randomIntensity( Random rand , int width , int height ) {
+		GrayF32 intensity = new GrayF32(width, height);
+		for (int i = 0; i < intensity.data.length; i++) {
+			if( rand.nextDouble() < 0.6 )
+				intensity.data[i] = rand.nextFloat()*10;
+		}
+		return intensity;
+	}
+
+	public static GrayS8 randomDirection( Random rand , int width , int height ) {
+		GrayS8 direction = new GrayS8(width, height);
+		for (int i = 0; i < direction.data.length; i++) {
+			direction.data[i] = (byte)(rand.nextInt(4)-1);
+		}
+		return direction;
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.edge;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS8;
+import boofcv.testing.BoofTesting;
+import georegression.struct.point.Point2D_I32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.alg.feature.detect.edge.TestHysteresisEdgeTraceMark_MT.randomDirection;
+import static boofcv.alg.feature.detect.edge.TestHysteresisEdgeTraceMark_MT.randomIntensity;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHysteresisEdgeTracePoints_MT {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+	int originalBand;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalBand = HysteresisEdgeTracePoints_MT.MIN_BAND_HEIGHT;
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		HysteresisEdgeTracePoints_MT.MIN_BAND_HEIGHT = originalBand;
+	}
+
+	/**
+	 * The contours should be identical and in the same order
+	 */
+	@Test
+	public void compareToSingleThread() {
+		HysteresisEdgeTracePoints single = new HysteresisEdgeTracePoints();
+		HysteresisEdgeTracePoints_MT alg = new HysteresisEdgeTracePoints_MT(4);
+
+		for (int trial = 0; trial < 50; trial++) {
+			HysteresisEdgeTracePoints_MT.MIN_BAND_HEIGHT = 1 + trial%4;
+
+			GrayF32 intensity = randomIntensity(rand, 20+trial, 25);
+			GrayS8 direction = randomDirection(rand, intensity.width, intensity.height);
+			GrayF32 intensityMT = intensity.clone();
+
+			single.process(intensity, direction, 3, 7);
+			alg.process(intensityMT, direction, 3, 7);
+
+			BoofTesting.assertEquals(intensity, intensityMT, 0);
+			checkEquals(single.getContours(), alg.getContours());
+		}
+	}
+
+	public static void checkEquals( List<EdgeContour> expected , List<EdgeContour> found ) {
+		assertTrue(expected.size() > 0);
+		assertEquals(expected.size(), found.size());
+		for (int i = 0; i < expected.size(); i++) {
+			List<EdgeSegment> segmentsA = expected.get(i).segments;
+			List<EdgeSegment> segmentsB = found.get(i).segments;
+			assertEquals(segmentsA.size(), segmentsB.size());
+
+			for (int j = 0; j < segmentsA.size(); j++) {
+				EdgeSegment a = segmentsA.get(j);
+				EdgeSegment b = segmentsB.get(j);
+
+				assertEquals(a.index, b.index);
+				assertEquals(a.parent, b.parent);
+				assertEquals(a.parentPixel, b.parentPixel);
+				assertEquals(a.points.size(), b.points.size());
+				for (int k = 0; k < a.points.size(); k++) {
+					Point2D_I32 pa = a.points.get(k);
+					Point2D_I32 pb = b.points.get(k);
+					assertEquals(pa.x, pb.x);
+					assertEquals(pa.y, pb.y);
+				}
+			}
+		}
+	}
+}
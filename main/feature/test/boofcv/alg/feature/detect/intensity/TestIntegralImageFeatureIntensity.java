@@ -87,4 +87,36 @@ public class TestIntegralImageFeatureIntensity {
 			BoofTesting.assertEquals(expected,found, 1e-4f);
 		}
 	}
+
+	/**
+	 * Computes the intensity one range of rows at a time and sees if it produces the same result
+	 * as processing the whole image at once
+	 */
+	@Test
+	public void hessian_rows() {
+		GrayF32 original = new GrayF32(width,height);
+		GrayF32 integral = new GrayF32(width,height);
+		GrayF32 found = new GrayF32(width,height);
+		GrayF32 expected = new GrayF32(width,height);
+
+		GImageMiscOps.fillUniform(original, rand, 0, 50);
+		IntegralImageOps.transform(original,integral);
+
+		int size = 15;
+
+		for( int skip = 1; skip <= 4; skip++ ) {
+			found.reshape(width/skip,height/skip);
+			expected.reshape(width/skip,height/skip);
+			GImageMiscOps.fill(found,-1);
+			IntegralImageFeatureIntensity.hessian(integral,skip,size,expected);
+
+			int step = 3;
+			for( int y0 = 0; y0 < found.height; y0 += step ) {
+				int y1 = Math.min(found.height,y0+step);
+				GIntegralImageFeatureIntensity.hessian(integral,skip,size,found,y0,y1);
+			}
+
+			BoofTesting.assertEquals(expected,found, 1e-8f);
+		}
+	}
 }
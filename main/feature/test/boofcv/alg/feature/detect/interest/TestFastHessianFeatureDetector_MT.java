@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.ii.IntegralImageOps;
+import boofcv.core.image.ConvertImage;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFastHessianFeatureDetector_MT extends GenericFeatureDetectorTests {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+	int originalMinRows;
+
+	public TestFastHessianFeatureDetector_MT() {
+		this.scaleTolerance = 0.3;
+	}
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalMinRows = FastHessianFeatureDetector_MT.MIN_ROWS;
+		BoofConcurrency.setMaxThreads(4);
+		FastHessianFeatureDetector_MT.MIN_ROWS = 5;
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		FastHessianFeatureDetector_MT.MIN_ROWS = originalMinRows;
+	}
+
+	@Override
+	protected Object createDetector( int maxFeatures ) {
+		return new FastHessianFeatureDetector_MT(createExtractors(1,2),maxFeatures, 1, 9,4,4, 6);
+	}
+
+	@SuppressWarnings({"unchecked"})
+	@Override
+	protected int detectFeature(GrayF32 input, Object detector) {
+		FastHessianFeatureDetector<GrayF32> alg = (FastHessianFeatureDetector<GrayF32>)detector;
+		GrayF32 integral = IntegralImageOps.transform(input,null);
+		alg.detect(integral);
+
+		return alg.getFoundPoints().size();
+	}
+
+	/**
+	 * The found features should be identical and in the same order as the single threaded version
+	 */
+	@Test
+	public void compareToSingleThread() {
+		GrayU8 input = new GrayU8(220,190);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+		GrayU8 blurred = BlurImageOps.gaussian(input, null, -1, 2, null);
+
+		GrayS32 integralS32 = IntegralImageOps.transform(blurred,null);
+		GrayF32 integralF32 = IntegralImageOps.transform(ConvertImage.convert(blurred,(GrayF32)null),null);
+
+		for( int skip = 1; skip <= 2; skip++ ) {
+			for( int maxFeatures : new int[]{-1,20} ) {
+				compare(integralS32, skip, maxFeatures, 4);
+				compare(integralF32, skip, maxFeatures, 4);
+				compare(integralS32, skip, maxFeatures, 6);
+			}
+		}
+	}
+
+	/**
+	 * Process images of different sizes with the same instance
+	 */
+	@Test
+	public void changeImageSize() {
+		FastHessianFeatureDetector<GrayS32> single =
+				new FastHessianFeatureDetector<GrayS32>(createExtractors(1)[0],-1, 1, 9,4,4, 6);
+		FastHessianFeatureDetector_MT<GrayS32> concurrent =
+				new FastHessianFeatureDetector_MT<GrayS32>(createExtractors(2),-1, 1, 9,4,4, 6);
+
+		for( int size : new int[]{200,120,240}) {
+			GrayU8 input = new GrayU8(size,size+10);
+			ImageMiscOps.fillUniform(input, rand, 0, 255);
+			GrayU8 blurred = BlurImageOps.gaussian(input, null, -1, 2, null);
+			GrayS32 integral = IntegralImageOps.transform(blurred,null);
+
+			single.detect(integral);
+			concurrent.detect(integral);
+
+			assertIdentical(single.getFoundPoints(), concurrent.getFoundPoints());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void wrongNumberOfExtractors() {
+		new FastHessianFeatureDetector_MT<GrayS32>(createExtractors(3),-1, 1, 9,4,4, 6);
+	}
+
+	private <II extends ImageGray> void compare( II integral , int skip , int maxFeatures , int numScales ) {
+		FastHessianFeatureDetector<II> single =
+				new FastHessianFeatureDetector<II>(createExtractors(1)[0],maxFeatures, skip, 9,numScales,4, 6);
+		FastHessianFeatureDetector_MT<II> concurrent =
+				new FastHessianFeatureDetector_MT<II>(createExtractors(numScales-2),maxFeatures, skip, 9,numScales,4, 6);
+
+		single.detect(integral);
+		concurrent.detect(integral);
+
+		assertTrue(single.getFoundPoints().size() > 0);
+		assertIdentical(single.getFoundPoints(), concurrent.getFoundPoints());
+	}
+
+	private static void assertIdentical( List<ScalePoint> expected , List<ScalePoint> found ) {
+		assertEquals(expected.size(), found.size());
+		for (int i = 0; i < expected.size(); i++) {
+			ScalePoint e = expected.get(i);
+			ScalePoint f = found.get(i);
+			assertEquals(e.x, f.x, 0);
+			assertEquals(e.y, f.y, 0);
+			assertEquals(e.scale, f.scale, 0);
+		}
+	}
+
+	private static NonMaxSuppression[] createExtractors( int N ) {
+		return createExtractors(0,N);
+	}
+
+	private static NonMaxSuppression[] createExtractors( int threshold , int N ) {
+		NonMaxSuppression[] extractors = new NonMaxSuppression[N];
+		for (int i = 0; i < N; i++) {
+			extractors[i] = FactoryFeatureExtractor.nonmax(new ConfigExtract(1, threshold, 5, true));
+		}
+		return extractors;
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.alg.filter.convolve.noborder.ConvolveImageNoBorder_MT;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSiftScaleSpace_MT {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+	int originalMinRows;
+	int originalBand;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalMinRows = SiftScaleSpace_MT.MIN_ROWS;
+		originalBand = ConvolveImageNoBorder_MT.MIN_BAND_HEIGHT;
+		BoofConcurrency.setMaxThreads(4);
+		SiftScaleSpace_MT.MIN_ROWS = 3;
+		ConvolveImageNoBorder_MT.MIN_BAND_HEIGHT = 3;
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		SiftScaleSpace_MT.MIN_ROWS = originalMinRows;
+		ConvolveImageNoBorder_MT.MIN_BAND_HEIGHT = originalBand;
+	}
+
+	/**
+	 * Every scale and difference of Gaussian image in every octave should be identical to the single threaded
+	 * version.  Includes octaves which are smaller than the blur kernel.
+	 */
+	@Test
+	public void compareToSingleThread() {
+		GrayF32 image = new GrayF32(120,97);
+		GImageMiscOps.fillUniform(image,rand,0,200);
+
+		SiftScaleSpace expected = new SiftScaleSpace(-1,4,3,1.6);
+		SiftScaleSpace_MT found = new SiftScaleSpace_MT(-1,4,3,1.6,4);
+
+		// process two images to make sure the buffers are correctly reused
+		for (int trial = 0; trial < 2; trial++) {
+			expected.initialize(image);
+			found.initialize(image);
+
+			do {
+				assertEquals(expected.getCurrentOctave(),found.getCurrentOctave());
+				for (int i = 0; i < expected.getNumScaleImages(); i++) {
+					BoofTesting.assertEquals(expected.getImageScale(i), found.getImageScale(i), 0);
+				}
+				for (int i = 0; i < expected.getNumScaleImages()-1; i++) {
+					BoofTesting.assertEquals(expected.getDifferenceOfGaussian(i), found.getDifferenceOfGaussian(i), 0);
+				}
+			} while( expected.computeNextOctave() & found.computeNextOctave() );
+
+			GImageMiscOps.fillUniform(image,rand,0,200);
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.template;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Checks to see if the frequency domain implementation produces the same intensity image as the spatial one
+ *
+ * @author Peter Abeles
+ */
+public class CompareTemplateFourierToSpatial<T extends ImageGray> {
+
+	Random rand = new Random(234);
+
+	Class<T> imageType;
+	TemplateMatchingIntensity<T> spatial;
+	TemplateMatchingIntensity<T> fourier;
+
+	public CompareTemplateFourierToSpatial(Class<T> imageType,
+										   TemplateMatchingIntensity<T> spatial,
+										   TemplateMatchingIntensity<T> fourier) {
+		this.imageType = imageType;
+		this.spatial = spatial;
+		this.fourier = fourier;
+	}
+
+	public void allTests() {
+		// several of these require the image to be broken up into multiple tiles
+		int sizes[][] = new int[][]{{30,40,5,8},{90,70,11,13},{64,64,20,20},{45,120,30,9}};
+
+		for( int[] s : sizes ) {
+			T image = GeneralizedImageOps.createSingleBand(imageType, s[0], s[1]);
+			T template = GeneralizedImageOps.createSingleBand(imageType, s[2], s[3]);
+			T mask = GeneralizedImageOps.createSingleBand(imageType, s[2], s[3]);
+			GImageMiscOps.fillUniform(image, rand, 0, 200);
+			GImageMiscOps.fillUniform(template, rand, 0, 200);
+			if( imageType == GrayU8.class )
+				GImageMiscOps.fillUniform(mask, rand, 0, 255);
+			else
+				GImageMiscOps.fillUniform(mask, rand, 0, 1);
+
+			compare(image, template, null);
+			compare(image, template, mask);
+			compare(BoofTesting.createSubImageOf(image), BoofTesting.createSubImageOf(template),
+					BoofTesting.createSubImageOf(mask));
+		}
+
+		flatRegions();
+	}
+
+	/**
+	 * The image contains flat regions which are larger than the template.  The spatial and frequency domain
+	 * implementations compute the image's variance differently, so round off error is handled differently
+	 */
+	public void flatRegions() {
+		// the second template is large enough to be broken up into tiles
+		int sizes[][] = new int[][]{{60,50,7,9},{120,100,21,15}};
+
+		for( int[] s : sizes ) {
+			T image = GeneralizedImageOps.createSingleBand(imageType, s[0], s[1]);
+			T template = GeneralizedImageOps.createSingleBand(imageType, s[2], s[3]);
+			GImageMiscOps.fillUniform(image, rand, 0, 200);
+			GImageMiscOps.fillUniform(template, rand, 0, 200);
+
+			// a value which can't be represented exactly
+			double flat = imageType == GrayU8.class ? 123 : 123.4567;
+			GImageMiscOps.fillRectangle(image, flat, 2, 3, s[2]*2, s[3]*2);
+			GImageMiscOps.fillRectangle(image, 0, s[0]-s[2]*2, s[1]-s[3]*2, s[2]*2, s[3]*2);
+
+			compare(image, template, null);
+
+			GrayF32 found = fourier.getIntensity();
+			for (int y = 0; y < found.height; y++) {
+				for (int x = 0; x < found.width; x++) {
+					float v = found.get(x, y);
+					assertFalse(Float.isNaN(v) || Float.isInfinite(v));
+				}
+			}
+		}
+	}
+
+	private void compare( T image , T template , T mask ) {
+		GImageMiscOps.fill(spatial.getIntensity(), 0);
+		GImageMiscOps.fill(fourier.getIntensity(), 0);
+
+		if( mask == null ) {
+			spatial.process(image, template);
+			fourier.process(image, template);
+		} else {
+			spatial.process(image, template, mask);
+			fourier.process(image, template, mask);
+		}
+
+		assertEquals(spatial.getBorderX0(), fourier.getBorderX0());
+		assertEquals(spatial.getBorderY0(), fourier.getBorderY0());
+		assertEquals(spatial.isBorderProcessed(), fourier.isBorderProcessed());
+
+		GrayF32 expected = spatial.getIntensity();
+		GrayF32 found = fourier.getIntensity();
+
+		assertEquals(expected.width, found.width);
+		assertEquals(expected.height, found.height);
+
+		double maxAbs = 0;
+		for (int y = 0; y < expected.height; y++) {
+			for (int x = 0; x < expected.width; x++) {
+				maxAbs = Math.max(maxAbs, Math.abs(expected.get(x, y)));
+			}
+		}
+
+		// pixels which are not written to are still zero in both
+		for (int y = 0; y < expected.height; y++) {
+			for (int x = 0; x < expected.width; x++) {
+				assertEquals(expected.get(x, y), found.get(x, y), maxAbs*1e-4);
+			}
+		}
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.template;
+
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import org.junit.Test;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTemplateDiffSquaredFourier {
+
+	@Test
+	public void instanceF32() {
+		TemplateMatchingIntensity<GrayF32> alg = new TemplateDiffSquaredFourier<GrayF32>();
+
+		new GeneralTemplateMatchTests<GrayF32>(alg, GrayF32.class) {
+		}.allTests();
+	}
+
+	@Test
+	public void instanceU8() {
+		TemplateMatchingIntensity<GrayU8> alg = new TemplateDiffSquaredFourier<GrayU8>();
+
+		new GeneralTemplateMatchTests<GrayU8>(alg, GrayU8.class) {
+		}.allTests();
+	}
+
+	@Test
+	public void compareToSpatial_F32() {
+		new CompareTemplateFourierToSpatial<GrayF32>(GrayF32.class,
+				new TemplateDiffSquared.F32(), new TemplateDiffSquaredFourier<GrayF32>()).allTests();
+	}
+
+	@Test
+	public void compareToSpatial_U8() {
+		new CompareTemplateFourierToSpatial<GrayU8>(GrayU8.class,
+				new TemplateDiffSquared.U8(), new TemplateDiffSquaredFourier<GrayU8>()).allTests();
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.template;
+
+import boofcv.struct.image.GrayF32;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTemplateIntensitySelect {
+
+	@Test
+	public void selectByArea() {
+		TemplateNCC.F32 spatial = new TemplateNCC.F32();
+		TemplateNCCFourier<GrayF32> fourier = new TemplateNCCFourier<GrayF32>();
+		TemplateIntensitySelect<GrayF32> alg = new TemplateIntensitySelect<GrayF32>(spatial,fourier,30);
+
+		GrayF32 image = new GrayF32(40,35);
+
+		alg.process(image, new GrayF32(5,5));
+		assertTrue(spatial == alg.getSelected());
+		assertTrue(spatial.getIntensity() == alg.getIntensity());
+
+		alg.process(image, new GrayF32(5,6), new GrayF32(5,6));
+		assertTrue(fourier == alg.getSelected());
+		assertTrue(fourier.getIntensity() == alg.getIntensity());
+	}
+
+	@Test
+	public void standardTests() {
+		TemplateIntensitySelect<GrayF32> alg = new TemplateIntensitySelect<GrayF32>(
+				new TemplateDiffSquared.F32(),new TemplateDiffSquaredFourier<GrayF32>(),30);
+
+		new GeneralTemplateMatchTests<GrayF32>(alg, GrayF32.class) {
+		}.allTests();
+	}
+}
@@ -18,10 +18,16 @@
 
 package boofcv.alg.feature.detect.template;
 
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.PixelMath;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import org.junit.Test;
 
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
 /**
  * @author Peter Abeles
  */
@@ -42,4 +48,32 @@ public class TestTemplateNCC {
 		new GeneralTemplateMatchTests<GrayU8>(alg, GrayU8.class) {
 		}.allTests();
 	}
+
+	@Test
+	public void offsetIntensity_F32() {
+		checkOffsetIntensity(new TemplateNCC.F32());
+	}
+
+	/**
+	 * NCC is invariant to a constant offset in intensity.  Textured regions with a large offset must not be
+	 * confused with flat regions
+	 */
+	public static void checkOffsetIntensity( TemplateMatchingIntensity<GrayF32> alg ) {
+		Random rand = new Random(234);
+		GrayF32 image = new GrayF32(40,40);
+		GImageMiscOps.fillUniform(image, rand, 0, 1);
+		GrayF32 template = image.subimage(12, 15, 20, 23, null).clone();
+
+		alg.process(image, template);
+		// location of the template's top-left corner inside the intensity image
+		int x = 12 + alg.getBorderX0();
+		int y = 15 + alg.getBorderY0();
+		float expected = alg.getIntensity().get(x, y);
+		assertEquals(64, expected, 1e-2);
+
+		PixelMath.plus(image, 20000, image);
+		PixelMath.plus(template, 20000, template);
+		alg.process(image, template);
+		assertEquals(expected, alg.getIntensity().get(x, y), 0.5);
+	}
 }
@@ -94,7 +94,8 @@ public abstract class ChecksImplDisparityScoreSadRect<Image extends ImageGray,Di
 	 */
 	@Test
 	public void compareToNaive() {
-		int w = 20, h = 25;
+		// tall enough for the running sums to be restarted
+		int w = 20, h = 80;
 		Image left = GeneralizedImageOps.createSingleBand(imageType,w, h);
 		Image right = GeneralizedImageOps.createSingleBand(imageType,w, h);
 
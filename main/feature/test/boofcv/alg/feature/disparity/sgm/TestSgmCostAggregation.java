@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSgmCostAggregation {
+
+	Random rand = new Random(234);
+
+	int width = 25;
+	int height = 18;
+	int rangeDisparity = 7;
+
+	int penalty1 = 10;
+	int penalty2 = 60;
+
+	@After
+	public void after() {
+		BoofConcurrency.USE_CONCURRENT = false;
+	}
+
+	@Test
+	public void compareToNaive() {
+		short[] cost = randomCost();
+
+		for( int numPaths : new int[]{4,8}) {
+			SgmCostAggregation alg = new SgmCostAggregation(penalty1,penalty2,numPaths);
+			alg.process(cost,width,height,rangeDisparity);
+
+			int[] expected = naive(cost,numPaths);
+			short[] found = alg.getAggregated();
+			for (int i = 0; i < expected.length; i++) {
+				assertEquals(expected[i],found[i]);
+			}
+		}
+	}
+
+	/**
+	 * Process different sized inputs with the same instance to make sure old state doesn't leak in
+	 */
+	@Test
+	public void changeShape() {
+		SgmCostAggregation alg = new SgmCostAggregation(penalty1,penalty2,8);
+		alg.process(randomCost(),width,height,rangeDisparity);
+
+		width = 12; height = 9; rangeDisparity = 4;
+		short[] cost = randomCost();
+		alg.process(cost,width,height,rangeDisparity);
+
+		int[] expected = naive(cost,8);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i],alg.getAggregated()[i]);
+		}
+	}
+
+	@Test
+	public void compareToConcurrent() {
+		short[] cost = randomCost();
+
+		SgmCostAggregation single = new SgmCostAggregation(penalty1,penalty2,8);
+		single.process(cost,width,height,rangeDisparity);
+
+		int minPaths = SgmCostAggregation.MIN_PATHS;
+		try {
+			SgmCostAggregation.MIN_PATHS = 2;
+			BoofConcurrency.USE_CONCURRENT = true;
+			SgmCostAggregation concurrent = new SgmCostAggregation(penalty1,penalty2,8);
+			concurrent.process(cost,width,height,rangeDisparity);
+
+			int N = width*height*rangeDisparity;
+			for (int i = 0; i < N; i++) {
+				assertEquals(single.getAggregated()[i],concurrent.getAggregated()[i]);
+			}
+		} finally {
+			SgmCostAggregation.MIN_PATHS = minPaths;
+		}
+	}
+
+	@Test
+	public void maximumCostFitsInShort() {
+		short[] cost = new short[width*height*rangeDisparity];
+		for (int i = 0; i < cost.length; i++) {
+			cost[i] = (short)(i%2 == 0 ? SgmDisparityCost.MAX_COST : 0);
+		}
+
+		SgmCostAggregation alg = new SgmCostAggregation(100,SgmDisparityCost.MAX_COST,8);
+		alg.process(cost,width,height,rangeDisparity);
+
+		int[] expected = naive(cost,8,100,SgmDisparityCost.MAX_COST);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i],alg.getAggregated()[i]);
+		}
+	}
+
+	private short[] randomCost() {
+		short[] cost = new short[width*height*rangeDisparity];
+		for (int i = 0; i < cost.length; i++) {
+			cost[i] = (short)rand.nextInt(100);
+		}
+		return cost;
+	}
+
+	private int[] naive( short[] cost , int numPaths ) {
+		return naive(cost,numPaths,penalty1,penalty2);
+	}
+
+	/**
+	 * Straight forward implementation which computes the path cost using recursion
+	 */
+	private int[] naive( short[] cost , int numPaths , int penalty1 , int penalty2 ) {
+		int[][] directions = new int[][]{{1,0},{-1,0},{0,1},{0,-1},{1,1},{-1,-1},{1,-1},{-1,1}};
+
+		int[] sum = new int[width*height*rangeDisparity];
+		for (int i = 0; i < numPaths; i++) {
+			int dx = directions[i][0], dy = directions[i][1];
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					int[] L = pathCost(cost,x,y,dx,dy,penalty1,penalty2);
+					for (int d = 0; d < rangeDisparity; d++) {
+						sum[(y*width+x)*rangeDisparity+d] += L[d];
+					}
+				}
+			}
+		}
+		return sum;
+	}
+
+	private int[] pathCost( short[] cost , int x , int y , int dx , int dy , int penalty1 , int penalty2 ) {
+		int[] L = new int[rangeDisparity];
+		int index = (y*width+x)*rangeDisparity;
+
+		int px = x-dx, py = y-dy;
+		if( px < 0 || px >= width || py < 0 || py >= height ) {
+			for (int d = 0; d < rangeDisparity; d++) {
+				L[d] = cost[index+d];
+			}
+			return L;
+		}
+
+		int[] prev = pathCost(cost,px,py,dx,dy,penalty1,penalty2);
+		int minPrev = Integer.MAX_VALUE;
+		for (int d = 0; d < rangeDisparity; d++) {
+			minPrev = Math.min(minPrev,prev[d]);
+		}
+
+		for (int d = 0; d < rangeDisparity; d++) {
+			int best = prev[d];
+			if( d > 0 ) best = Math.min(best,prev[d-1]+penalty1);
+			if( d < rangeDisparity-1 ) best = Math.min(best,prev[d+1]+penalty1);
+			best = Math.min(best,minPrev+penalty2);
+			L[d] = cost[index+d] + best - minPrev;
+		}
+		return L;
+	}
+}
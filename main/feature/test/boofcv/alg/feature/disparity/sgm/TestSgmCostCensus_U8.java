@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSgmCostCensus_U8 {
+
+	Random rand = new Random(234);
+
+	int width = 20;
+	int height = 15;
+
+	@Test
+	public void transform() {
+		GrayU8 input = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+		GrayS32 found = new GrayS32(width,height);
+
+		BoofTesting.checkSubImage(this, "transform", true, input, found);
+	}
+
+	public void transform( GrayU8 input , GrayS32 found ) {
+		SgmCostCensus_U8.transform(input, found);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int center = input.get(x,y);
+				int expected = 0;
+				for (int i = -2; i <= 2; i++) {
+					for (int j = -2; j <= 2; j++) {
+						if( i == 0 && j == 0 )
+							continue;
+						int xx = Math.min(width-1,Math.max(0,x+j));
+						int yy = Math.min(height-1,Math.max(0,y+i));
+						expected = (expected << 1) | (input.get(xx,yy) > center ? 1 : 0);
+					}
+				}
+				assertEquals(expected, found.get(x,y));
+			}
+		}
+	}
+
+	@Test
+	public void process() {
+		GrayU8 left = new GrayU8(width,height);
+		GrayU8 right = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(left, rand, 0, 255);
+		ImageMiscOps.fillUniform(right, rand, 0, 255);
+
+		int minDisparity = 2, rangeDisparity = 5, scale = 3;
+		SgmCostCensus_U8 alg = new SgmCostCensus_U8(scale);
+		alg.configure(minDisparity,rangeDisparity);
+		alg.setImages(left,right);
+
+		// only compute a few rows inside the volume
+		int y0 = 4;
+		short[] cost = new short[width*10*rangeDisparity];
+		alg.process(y0, 6, 10, cost);
+
+		GrayS32 censusLeft = new GrayS32(width,height);
+		GrayS32 censusRight = new GrayS32(width,height);
+		SgmCostCensus_U8.transform(left,censusLeft);
+		SgmCostCensus_U8.transform(right,censusRight);
+
+		for (int y = 6; y < 10; y++) {
+			for (int x = 0; x < width; x++) {
+				for (int d = 0; d < rangeDisparity; d++) {
+					int xr = x - minDisparity - d;
+					int expected = xr < 0 ? SgmDisparityCost.MAX_COST :
+							scale*Integer.bitCount(censusLeft.get(x,y) ^ censusRight.get(xr,y));
+					assertEquals(expected, cost[((y-y0)*width+x)*rangeDisparity + d]);
+				}
+			}
+		}
+	}
+}
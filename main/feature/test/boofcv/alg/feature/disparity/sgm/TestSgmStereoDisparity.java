@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSgmStereoDisparity {
+
+	Random rand = new Random(234);
+
+	int width = 70;
+	int height = 45;
+
+	int minDisparity = 2;
+	int maxDisparity = 14;
+
+	GrayU8 left = new GrayU8(width,height);
+	GrayU8 right = new GrayU8(width,height);
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+
+		// the right image is the left image shifted by a constant disparity
+		ImageMiscOps.fillUniform(left, rand, 0, 255);
+		ImageMiscOps.fillUniform(right, rand, 0, 255);
+		ImageMiscOps.copy(7, 0, 0, 0, width - 7, height, left, right);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		BoofConcurrency.USE_CONCURRENT = false;
+	}
+
+	@Test
+	public void constantDisparity() {
+		constantDisparity(new SgmCostCensus_U8(4));
+		constantDisparity(new SgmCostAbsoluteDifference_U8(1));
+	}
+
+	private void constantDisparity( SgmDisparityCost<GrayU8> cost ) {
+		SgmStereoDisparity<GrayU8> alg = create(0, cost);
+		GrayU8 disparity = new GrayU8(width,height);
+		alg.process(left,right,disparity);
+
+		int expected = 7 - minDisparity;
+		int invalid = maxDisparity - minDisparity + 1;
+		for (int y = 0; y < height; y++) {
+			// pixels which can't be seen in the right image must be invalid
+			for (int x = 0; x < minDisparity; x++) {
+				assertEquals(invalid, disparity.get(x, y));
+			}
+			// skip pixels near the left border which could be matched to something else
+			for (int x = maxDisparity+2; x < width; x++) {
+				assertEquals(expected, disparity.get(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void subpixel() {
+		SgmStereoDisparity<GrayU8> alg = create(0, new SgmCostCensus_U8(4));
+		GrayF32 disparity = new GrayF32(width,height);
+		alg.process(left,right,disparity);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = maxDisparity+2; x < width; x++) {
+				assertEquals(7 - minDisparity, disparity.get(x, y), 0.5);
+			}
+		}
+	}
+
+	/**
+	 * If the overlap covers the entire image then tiles should produce the same results as no tiles
+	 */
+	@Test
+	public void tiles() {
+		GrayU8 expected = new GrayU8(width,height);
+		create(0, new SgmCostCensus_U8(4)).process(left, right, expected);
+
+		SgmStereoDisparity<GrayU8> alg = new SgmStereoDisparity<GrayU8>(minDisparity,maxDisparity,10,height,
+				new SgmCostCensus_U8(4),new SgmCostAggregation(20,200,8),new SgmDisparitySelector(1));
+		GrayU8 found = new GrayU8(width,height);
+		alg.process(left, right, found);
+
+		BoofTesting.assertEquals(expected, found, 0);
+
+		// with a small overlap the results will be different but should still be mostly correct
+		alg = new SgmStereoDisparity<GrayU8>(minDisparity,maxDisparity,10,4,
+				new SgmCostCensus_U8(4),new SgmCostAggregation(20,200,8),new SgmDisparitySelector(1));
+		alg.process(left, right, found);
+
+		int correct = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = maxDisparity+2; x < width; x++) {
+				if( found.get(x,y) == 7 - minDisparity )
+					correct++;
+			}
+		}
+		assertTrue(correct > 0.95*height*(width-maxDisparity-2));
+	}
+
+	@Test
+	public void compareToConcurrent() {
+		// add noise so that the solution isn't trivial
+		ImageMiscOps.addUniform(right, rand, -20, 20);
+
+		GrayF32 expected = new GrayF32(width,height);
+		create(15, new SgmCostCensus_U8(4)).process(left, right, expected);
+
+		BoofConcurrency.USE_CONCURRENT = true;
+		GrayF32 found = new GrayF32(width,height);
+		create(15, new SgmCostCensus_U8(4)).process(left, right, found);
+
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	private SgmStereoDisparity<GrayU8> create( int tileHeight , SgmDisparityCost<GrayU8> cost ) {
+		return new SgmStereoDisparity<GrayU8>(minDisparity,maxDisparity,tileHeight,8,
+				cost,new SgmCostAggregation(20,200,8),new SgmDisparitySelector(1));
+	}
+}
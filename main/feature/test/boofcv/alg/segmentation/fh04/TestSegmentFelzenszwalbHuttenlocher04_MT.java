@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.segmentation.fh04;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.segmentation.FactorySegmentationAlg;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSegmentFelzenszwalbHuttenlocher04_MT {
+
+	Random rand = new Random(234);
+
+	int width = 40;
+	int height = 35;
+
+	int originalThreads;
+	int originalBand;
+
+	/**
+	 * Force the image to be split into several small bands, even on a single core machine
+	 */
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalBand = SegmentFelzenszwalbHuttenlocher04_MT.MIN_BAND_HEIGHT;
+		BoofConcurrency.setMaxThreads(4);
+		SegmentFelzenszwalbHuttenlocher04_MT.MIN_BAND_HEIGHT = 2;
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		SegmentFelzenszwalbHuttenlocher04_MT.MIN_BAND_HEIGHT = originalBand;
+	}
+
+	/**
+	 * Test it on a trivial segmentation problem
+	 */
+	@Test
+	public void process() {
+		GrayU8 image = new GrayU8(20,25);
+		ImageMiscOps.fillRectangle(image,100,0,0,10,25);
+		GrayS32 output = new GrayS32(20,25);
+
+		process(image, output);
+		process(BoofTesting.createSubImageOf(image), output);
+	}
+
+	private void process(GrayU8 image, GrayS32 output) {
+		ImageMiscOps.fillUniform(output,rand,0,100);
+
+		SegmentFelzenszwalbHuttenlocher04_MT<GrayU8> alg = new SegmentFelzenszwalbHuttenlocher04_MT<GrayU8>(
+				200,10,FactorySegmentationAlg.weightsRowFelzenszwalb04(ConnectRule.FOUR,image.getImageType()));
+
+		alg.process(image,output);
+
+		int valA = output.get(0,0);
+		int valB = output.get(19,0);
+
+		assertTrue(valA != valB);
+		for( int y = 0; y < 25; y++ ) {
+			for( int x =0; x < 10; x++ )
+				assertEquals(valA, output.get(x, y));
+			for( int x =10; x < 20; x++ )
+				assertEquals(valB,output.get(x,y));
+		}
+	}
+
+	/**
+	 * With an exact sort the output should be identical to the single threaded algorithm.  Integer weights
+	 * have many edges with the same weight, so the order of ties is tested too.
+	 */
+	@Test
+	public void compareToSingle_integer() {
+		compareToSingle(ImageType.single(GrayU8.class), ConnectRule.FOUR);
+		compareToSingle(ImageType.single(GrayU8.class), ConnectRule.EIGHT);
+	}
+
+	/**
+	 * Bins contain many different weights which need to be sorted
+	 */
+	@Test
+	public void compareToSingle_float() {
+		compareToSingle(ImageType.single(GrayF32.class), ConnectRule.FOUR);
+		compareToSingle(ImageType.single(GrayF32.class), ConnectRule.EIGHT);
+		compareToSingle(ImageType.pl(3, GrayU8.class), ConnectRule.EIGHT);
+		compareToSingle(ImageType.pl(3, GrayF32.class), ConnectRule.EIGHT);
+	}
+
+	private <T extends ImageBase> void compareToSingle( ImageType<T> imageType , ConnectRule rule ) {
+		T input = imageType.createImage(width,height);
+		// many edges will have the same weight
+		GImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		GrayS32 expected = new GrayS32(width,height);
+		GrayS32 found = new GrayS32(width,height);
+
+		SegmentFelzenszwalbHuttenlocher04<T> single = new SegmentFelzenszwalbHuttenlocher04<T>(
+				30,5,FactorySegmentationAlg.weightsFelzenszwalb04(rule,imageType));
+		SegmentFelzenszwalbHuttenlocher04_MT<T> alg = new SegmentFelzenszwalbHuttenlocher04_MT<T>(
+				30,5,FactorySegmentationAlg.weightsRowFelzenszwalb04(rule,imageType));
+
+		single.process(input,expected);
+		alg.process(input,found);
+
+		// make sure the image was split up
+		assertTrue(alg.bands.size() > 1);
+
+		BoofTesting.assertEquals(expected, found, 0);
+		assertEquals(single.getRegionId().size, alg.getRegionId().size);
+		for( int i = 0; i < single.getRegionId().size; i++ ) {
+			assertEquals(single.getRegionId().get(i), alg.getRegionId().get(i));
+			assertEquals(single.getRegionSizes().get(i), alg.getRegionSizes().get(i));
+		}
+
+		// processing the image again should produce the same results
+		ImageMiscOps.fill(found,0);
+		alg.process(input,found);
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	/**
+	 * The edges should be sorted by weight, then pixel, then neighbor
+	 */
+	@Test
+	public void sortedEdges() {
+		GrayF32 input = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		SegmentFelzenszwalbHuttenlocher04_MT<GrayF32> alg = new SegmentFelzenszwalbHuttenlocher04_MT<GrayF32>(
+				30,5,FactorySegmentationAlg.weightsRowFelzenszwalb04(ConnectRule.EIGHT,input.getImageType()));
+		alg.process(input,new GrayS32(width,height));
+
+		for( int i = 1; i < alg.sortedEdges.size; i++ ) {
+			float w0 = alg.sortedWeights.get(i-1);
+			float w1 = alg.sortedWeights.get(i);
+			assertTrue(w0 <= w1);
+			if( w0 == w1 )
+				assertTrue(alg.sortedEdges.get(i-1) < alg.sortedEdges.get(i));
+		}
+	}
+
+	@Test
+	public void bin() {
+		// each integer weight has its own bin
+		for( int i = 0; i < 256; i++ ) {
+			assertTrue(SegmentFelzenszwalbHuttenlocher04_MT.bin(i) <
+					SegmentFelzenszwalbHuttenlocher04_MT.bin(i + 1));
+		}
+
+		// order is preserved
+		float previous = 0;
+		for( int i = 0; i < 1000; i++ ) {
+			float weight = previous + rand.nextFloat()*100;
+			int bin = SegmentFelzenszwalbHuttenlocher04_MT.bin(weight);
+			assertTrue(SegmentFelzenszwalbHuttenlocher04_MT.bin(previous) <= bin);
+			assertTrue(bin < SegmentFelzenszwalbHuttenlocher04_MT.NUM_BINS);
+			previous = weight;
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.segmentation.fh04.impl;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.segmentation.fh04.FhEdgeWeights;
+import boofcv.alg.segmentation.fh04.FhEdgeWeightsRow;
+import boofcv.factory.segmentation.FactorySegmentationAlg;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import boofcv.testing.BoofTesting;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static boofcv.alg.segmentation.fh04.SegmentFelzenszwalbHuttenlocher04.Edge;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public abstract class GenericFhEdgeWeightsRowChecks<T extends ImageBase> {
+	ImageType<T> imageType;
+
+	Random rand = new Random(234);
+
+	protected GenericFhEdgeWeightsRowChecks(ImageType<T> imageType) {
+		this.imageType = imageType;
+	}
+
+	public abstract FhEdgeWeightsRow<T> createAlg( ConnectRule rule );
+
+	/**
+	 * Compares the weights against the implementation which creates a list of edges
+	 */
+	@Test
+	public void compareToEdgeList() {
+		compareToEdgeList(ConnectRule.FOUR);
+		compareToEdgeList(ConnectRule.EIGHT);
+	}
+
+	private void compareToEdgeList( ConnectRule rule ) {
+		T input = imageType.createImage(10,12);
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		FhEdgeWeights<T> reference = FactorySegmentationAlg.weightsFelzenszwalb04(rule, imageType);
+		FastQueue<Edge> edges = new FastQueue<Edge>(Edge.class,true);
+		reference.process(input,edges);
+
+		Map<Long,Float> expected = new HashMap<Long,Float>();
+		for( int i = 0; i < edges.size(); i++ ) {
+			Edge e = edges.get(i);
+			int indexA = Math.min(e.indexA,e.indexB);
+			int indexB = Math.max(e.indexA,e.indexB);
+			expected.put((long)indexA*input.width*input.height + indexB, e.weight());
+		}
+
+		FhEdgeWeightsRow<T> alg = createAlg(rule);
+		alg.setImage(input);
+		int N = alg.getNumNeighbors();
+		assertEquals(rule == ConnectRule.FOUR ? 2 : 4, N);
+
+		int[] offsets = new int[]{1,input.width,input.width+1,input.width-1};
+		float[] weights = new float[input.width*N];
+		int total = 0;
+		for( int y = 0; y < input.height; y++ ) {
+			alg.computeRow(y,weights);
+			for( int i = 0; i < weights.length; i++ ) {
+				if( weights[i] < 0 )
+					continue;
+				int indexA = y*input.width + i/N;
+				int indexB = indexA + offsets[i%N];
+
+				Float found = expected.get((long)indexA*input.width*input.height + indexB);
+				assertTrue(found != null);
+				assertEquals(found,weights[i],1e-4f);
+				total++;
+			}
+		}
+
+		// every edge should have been found once
+		assertEquals(edges.size(),total);
+	}
+
+	@Test
+	public void subimage() {
+		T input = imageType.createImage(10,12);
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+		T inputSub = BoofTesting.createSubImageOf(input);
+
+		FhEdgeWeightsRow<T> alg = createAlg(ConnectRule.EIGHT);
+		float[] weights0 = new float[input.width*4];
+		float[] weights1 = new float[input.width*4];
+
+		for( int y = 0; y < input.height; y++ ) {
+			alg.setImage(input);
+			alg.computeRow(y,weights0);
+			alg.setImage(inputSub);
+			alg.computeRow(y,weights1);
+
+			for( int i = 0; i < weights0.length; i++ ) {
+				assertEquals(weights0[i],weights1[i],1e-4f);
+			}
+		}
+	}
+}
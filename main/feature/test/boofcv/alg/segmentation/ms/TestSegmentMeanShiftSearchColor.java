@@ -191,4 +191,31 @@ public class TestSegmentMeanShiftSearchColor {
 			}
 		}
 	}
+
+	/**
+	 * Using spacial bins should not change the results
+	 */
+	@Test
+	public void binSize() {
+		Planar<GrayF32> image = new Planar<GrayF32>(GrayF32.class,40,35,2);
+		for( int i = 0; i < 15; i++ ) {
+			GImageMiscOps.fillRectangle(image, rand.nextInt(256), rand.nextInt(40), rand.nextInt(35), 15, 12);
+		}
+		GImageMiscOps.addUniform(image, rand, 0, 20);
+
+		for( boolean fast : new boolean[]{false,true}) {
+			SegmentMeanShiftSearchColor<Planar<GrayF32>> expected =
+					new SegmentMeanShiftSearchColor<Planar<GrayF32>>(30,0.05f,interp,3,3,30,fast,imageType);
+			expected.process(image);
+
+			InterpolatePixelMB<Planar<GrayF32>> interp2 =
+					FactoryInterpolation.createPixelMB(0,255,TypeInterpolate.BILINEAR, BorderType.EXTENDED,imageType);
+			SegmentMeanShiftSearchColor<Planar<GrayF32>> found =
+					new SegmentMeanShiftSearchColor<Planar<GrayF32>>(30,0.05f,interp2,3,3,30,fast,imageType);
+			found.setBinSize(4);
+			found.process(image);
+
+			TestSegmentMeanShiftSearchGray.checkIdentical(expected, found);
+		}
+	}
 }
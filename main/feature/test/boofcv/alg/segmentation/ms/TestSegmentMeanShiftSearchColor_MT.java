@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.segmentation.ms;
+
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.alg.interpolate.TypeInterpolate;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+import org.ddogleg.struct.FastQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSegmentMeanShiftSearchColor_MT {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+	int originalBand;
+
+	ImageType<Planar<GrayF32>> imageType = ImageType.pl(2,GrayF32.class);
+	Planar<GrayF32> image = new Planar<GrayF32>(GrayF32.class,40,35,2);
+
+	/**
+	 * Force the image to be split into several small bands, even on a single core machine
+	 */
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalBand = SegmentMeanShiftSearchColor_MT.BAND_HEIGHT;
+		BoofConcurrency.setMaxThreads(4);
+		SegmentMeanShiftSearchColor_MT.BAND_HEIGHT = 4;
+
+		for( int i = 0; i < 15; i++ ) {
+			GImageMiscOps.fillRectangle(image, rand.nextInt(256), rand.nextInt(40), rand.nextInt(35), 15, 12);
+		}
+		GImageMiscOps.addUniform(image, rand, 0, 20);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		SegmentMeanShiftSearchColor_MT.BAND_HEIGHT = originalBand;
+	}
+
+	/**
+	 * Without the fast approximation every pixel is searched independently and the results should be identical
+	 */
+	@Test
+	public void compareToSingle() {
+		for( int binSize : new int[]{0,4} ) {
+			SegmentMeanShiftSearchColor<Planar<GrayF32>> expected =
+					new SegmentMeanShiftSearchColor<Planar<GrayF32>>(30,0.05f,createInterp(),3,3,30,false,imageType);
+			expected.process(image);
+
+			SegmentMeanShiftSearchColor_MT<Planar<GrayF32>> found = createAlg(false);
+			found.setBinSize(binSize);
+
+			// process it twice to make sure it's reset correctly
+			found.process(image);
+			found.process(image);
+
+			TestSegmentMeanShiftSearchGray.checkIdentical(expected, found);
+		}
+	}
+
+	/**
+	 * With the fast approximation the results are different but should be repeatable
+	 */
+	@Test
+	public void fast() {
+		SegmentMeanShiftSearchColor_MT<Planar<GrayF32>> alg = createAlg(true);
+		alg.process(image);
+
+		int totalMembers = 0;
+		for( int i = 0; i < alg.getRegionMemberCount().size; i++ ) {
+			totalMembers += alg.getRegionMemberCount().get(i);
+		}
+		assertEquals(image.width*image.height, totalMembers);
+
+		SegmentMeanShiftSearchColor_MT<Planar<GrayF32>> again = createAlg(true);
+		again.process(image);
+		TestSegmentMeanShiftSearchGray.checkIdentical(alg, again);
+	}
+
+	/**
+	 * The bands don't depend on the number of threads, so the fast approximation should produce the same
+	 * results no matter how many threads there are
+	 */
+	@Test
+	public void fast_numberOfThreads() {
+		SegmentMeanShiftSearchColor_MT<Planar<GrayF32>> expected = createAlg(true);
+		expected.process(image);
+
+		for( int threads : new int[]{1,2,3} ) {
+			BoofConcurrency.setMaxThreads(threads);
+			SegmentMeanShiftSearchColor_MT<Planar<GrayF32>> found = createAlg(true);
+			found.process(image);
+			TestSegmentMeanShiftSearchGray.checkIdentical(expected, found);
+		}
+	}
+
+	private InterpolatePixelMB<Planar<GrayF32>> createInterp() {
+		return FactoryInterpolation.createPixelMB(0,255,TypeInterpolate.BILINEAR, BorderType.EXTENDED,imageType);
+	}
+
+	private SegmentMeanShiftSearchColor_MT<Planar<GrayF32>> createAlg( boolean fast ) {
+		FastQueue<InterpolatePixelMB<Planar<GrayF32>>> interps = new FastQueue<InterpolatePixelMB<Planar<GrayF32>>>(
+				1,(Class)InterpolatePixelMB.class,true) {
+			@Override
+			protected InterpolatePixelMB<Planar<GrayF32>> createInstance() {
+				return createInterp();
+			}
+		};
+		return new SegmentMeanShiftSearchColor_MT<Planar<GrayF32>>(30,0.05f,interps,3,3,30,fast,imageType);
+	}
+}
@@ -24,6 +24,7 @@ import boofcv.core.image.border.BorderType;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS32;
+import boofcv.testing.BoofTesting;
 import georegression.struct.point.Point2D_I32;
 import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_I32;
@@ -128,4 +129,49 @@ public class TestSegmentMeanShiftSearchGray {
 		assertEquals( cx , alg.modeX, 0.5f );
 		assertEquals( cy , alg.modeY, 0.5f );
 	}
+
+	/**
+	 * Using spacial bins should not change the results
+	 */
+	@Test
+	public void binSize() {
+		GrayF32 image = new GrayF32(40,35);
+		for( int i = 0; i < 15; i++ ) {
+			ImageMiscOps.fillRectangle(image, rand.nextInt(256), rand.nextInt(40), rand.nextInt(35), 15, 12);
+		}
+		ImageMiscOps.addUniform(image, rand, 0, 20);
+
+		for( boolean fast : new boolean[]{false,true}) {
+			SegmentMeanShiftSearchGray<GrayF32> expected =
+					new SegmentMeanShiftSearchGray<GrayF32>(30,0.05f,interp,3,3,30, fast);
+			expected.process(image);
+
+			InterpolatePixelS<GrayF32> interp2 = FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED);
+			SegmentMeanShiftSearchGray<GrayF32> found =
+					new SegmentMeanShiftSearchGray<GrayF32>(30,0.05f,interp2,3,3,30, fast);
+			found.setBinSize(4);
+			found.process(image);
+
+			checkIdentical(expected, found);
+		}
+	}
+
+	static void checkIdentical( SegmentMeanShiftSearch expected , SegmentMeanShiftSearch found ) {
+		BoofTesting.assertEquals(expected.getPixelToRegion(), found.getPixelToRegion(), 0);
+
+		assertEquals(expected.getModeLocation().size, found.getModeLocation().size);
+		for( int i = 0; i < expected.getModeLocation().size; i++ ) {
+			Point2D_I32 a = (Point2D_I32)expected.getModeLocation().get(i);
+			Point2D_I32 b = (Point2D_I32)found.getModeLocation().get(i);
+			assertEquals(a.x, b.x);
+			assertEquals(a.y, b.y);
+			assertEquals(expected.getRegionMemberCount().get(i), found.getRegionMemberCount().get(i));
+
+			float[] colorA = (float[])expected.getModeColor().get(i);
+			float[] colorB = (float[])found.getModeColor().get(i);
+			for( int band = 0; band < colorA.length; band++ ) {
+				assertEquals(colorA[band], colorB[band], 0);
+			}
+		}
+	}
 }
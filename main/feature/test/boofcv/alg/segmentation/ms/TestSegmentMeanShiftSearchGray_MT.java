@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.segmentation.ms;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.GrayF32;
+import boofcv.testing.BoofTesting;
+import org.ddogleg.struct.FastQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSegmentMeanShiftSearchGray_MT {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+	int originalBand;
+
+	GrayF32 image = new GrayF32(40,35);
+
+	/**
+	 * Force the image to be split into several small bands, even on a single core machine
+	 */
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalBand = SegmentMeanShiftSearchGray_MT.BAND_HEIGHT;
+		BoofConcurrency.setMaxThreads(4);
+		SegmentMeanShiftSearchGray_MT.BAND_HEIGHT = 4;
+
+		for( int i = 0; i < 15; i++ ) {
+			ImageMiscOps.fillRectangle(image, rand.nextInt(256), rand.nextInt(40), rand.nextInt(35), 15, 12);
+		}
+		ImageMiscOps.addUniform(image, rand, 0, 20);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		SegmentMeanShiftSearchGray_MT.BAND_HEIGHT = originalBand;
+	}
+
+	/**
+	 * Without the fast approximation every pixel is searched independently and the results should be identical
+	 */
+	@Test
+	public void compareToSingle() {
+		for( int binSize : new int[]{0,4} ) {
+			SegmentMeanShiftSearchGray<GrayF32> expected = new SegmentMeanShiftSearchGray<GrayF32>(30,0.05f,
+					FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED),3,3,30, false);
+			expected.process(image);
+
+			SegmentMeanShiftSearchGray_MT<GrayF32> found = createAlg(false);
+			found.setBinSize(binSize);
+
+			// process it twice to make sure it's reset correctly
+			found.process(image);
+			found.process(image);
+
+			TestSegmentMeanShiftSearchGray.checkIdentical(expected, found);
+		}
+	}
+
+	/**
+	 * With the fast approximation the results are different but should be self consistent and repeatable
+	 */
+	@Test
+	public void fast() {
+		SegmentMeanShiftSearchGray_MT<GrayF32> alg = createAlg(true);
+		alg.process(image);
+
+		int totalMembers = 0;
+		for( int i = 0; i < alg.getRegionMemberCount().size; i++ ) {
+			assertTrue(alg.getRegionMemberCount().get(i) > 0);
+			totalMembers += alg.getRegionMemberCount().get(i);
+		}
+		assertEquals(image.width*image.height, totalMembers);
+
+		int counts[] = new int[alg.getRegionMemberCount().size];
+		for( int i = 0; i < alg.getPixelToRegion().data.length; i++ ) {
+			counts[alg.getPixelToRegion().data[i]]++;
+		}
+		for( int i = 0; i < counts.length; i++ ) {
+			assertEquals(alg.getRegionMemberCount().get(i), counts[i]);
+		}
+
+		SegmentMeanShiftSearchGray_MT<GrayF32> again = createAlg(true);
+		again.process(image);
+		TestSegmentMeanShiftSearchGray.checkIdentical(alg, again);
+	}
+
+	/**
+	 * The bands don't depend on the number of threads, so the fast approximation should produce the same
+	 * results no matter how many threads there are
+	 */
+	@Test
+	public void fast_numberOfThreads() {
+		SegmentMeanShiftSearchGray_MT<GrayF32> expected = createAlg(true);
+		expected.process(image);
+
+		for( int threads : new int[]{1,2,3} ) {
+			BoofConcurrency.setMaxThreads(threads);
+			SegmentMeanShiftSearchGray_MT<GrayF32> found = createAlg(true);
+			found.process(image);
+			TestSegmentMeanShiftSearchGray.checkIdentical(expected, found);
+		}
+	}
+
+	private SegmentMeanShiftSearchGray_MT<GrayF32> createAlg( boolean fast ) {
+		FastQueue<InterpolatePixelS<GrayF32>> interps = new FastQueue<InterpolatePixelS<GrayF32>>(
+				1,(Class)InterpolatePixelS.class,true) {
+			@Override
+			protected InterpolatePixelS<GrayF32> createInstance() {
+				return FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED);
+			}
+		};
+		return new SegmentMeanShiftSearchGray_MT<GrayF32>(30,0.05f,interps,3,3,30, fast);
+	}
+}
@@ -20,12 +20,14 @@ package boofcv.alg.segmentation.slic;
 
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.alg.segmentation.ImageSegmentationOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.struct.ConnectRule;
 import boofcv.struct.feature.ColorQueue_F32;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
+import boofcv.testing.BoofTesting;
 import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_I32;
 import org.junit.Test;
@@ -47,7 +49,12 @@ public abstract class GeneralSegmentSlicColorChecks<T extends ImageBase> {
 		this.imageType = imageType;
 	}
 
-	public abstract SegmentSlic<T> createAlg( int numberOfRegions, float m, int totalIterations , ConnectRule rule );
+	public abstract SegmentSlic<T> createAlg( int numberOfRegions, float m, int totalIterations , ConnectRule rule ,
+											  int maxThreads );
+
+	public SegmentSlic<T> createAlg( int numberOfRegions, float m, int totalIterations , ConnectRule rule ) {
+		return createAlg(numberOfRegions, m, totalIterations, rule, 1);
+	}
 
 	/**
 	 * Give it an easy image to segment and see how well it does.
@@ -75,6 +82,43 @@ public abstract class GeneralSegmentSlicColorChecks<T extends ImageBase> {
 		}
 	}
 
+	/**
+	 * Using several threads should produce the identical segmentation.  Bands and blocks of clusters
+	 * are made small so that the work is split up even on a single core machine.
+	 */
+	@Test
+	public void concurrent() {
+		T input = imageType.createImage(71,63);
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+		GImageMiscOps.fillRectangle(input, 100, 10, 5, 30, 40);
+
+		GrayS32 expected = new GrayS32(71,63);
+		GrayS32 found = new GrayS32(71,63);
+
+		SegmentSlic<T> alg = createAlg(30,200,10, ConnectRule.EIGHT );
+		alg.process(input,expected);
+		int expectedRegions = alg.getRegionMemberCount().size;
+
+		int originalThreads = BoofConcurrency.getMaxThreads();
+		int originalBand = SegmentSlic.MIN_BAND_HEIGHT;
+		int originalClusters = SegmentSlic.MIN_CLUSTERS;
+		try {
+			BoofConcurrency.setMaxThreads(4);
+			SegmentSlic.MIN_BAND_HEIGHT = 1;
+			SegmentSlic.MIN_CLUSTERS = 1;
+
+			alg = createAlg(30,200,10, ConnectRule.EIGHT, 4);
+			alg.process(input,found);
+		} finally {
+			BoofConcurrency.setMaxThreads(originalThreads);
+			SegmentSlic.MIN_BAND_HEIGHT = originalBand;
+			SegmentSlic.MIN_CLUSTERS = originalClusters;
+		}
+
+		assertEquals(expectedRegions,alg.getRegionMemberCount().size);
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
 	@Test
 	public void setColor() {
 		T input = imageType.createImage(30,40);
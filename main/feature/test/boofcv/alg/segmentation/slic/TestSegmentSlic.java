@@ -18,6 +18,7 @@
 
 package boofcv.alg.segmentation.slic;
 
+import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.ConnectRule;
 import boofcv.struct.feature.ColorQueue_F32;
 import boofcv.struct.image.GrayS32;
@@ -27,6 +28,8 @@ import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_I32;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -101,50 +104,159 @@ public class TestSegmentSlic {
 		for( int y = y0; y < y1; y++ ) {
 			for( int x = x0; x < x1; x++ ) {
 				int index = y*alg.input.width + x;
-				SegmentSlic.Pixel p = alg.pixels.get(index);
 
-				boolean contains = false;
-				for( int i = 0; i < p.clusters.size; i++ ) {
-					if( p.clusters.data[i].cluster == c )
-						contains = true;
-				}
-				assertTrue(contains);
+				// at least this cluster can reach the pixel
+				assertTrue(alg.pixelCluster[index] >= 1);
 			}
 		}
 	}
 
+	/**
+	 * Number of clusters which can reach each pixel is counted and their distances summed
+	 */
 	@Test
-	public void updateClusters() {
-		DummySlic alg = new DummySlic(4,1,10);
+	public void computeClusterDistance_sum() {
+		DummySlic alg = new DummySlic(4,1,10) {
+			@Override
+			public float colorDistance(float[] color, int index) {
+				return color[0];
+			}
+		};
+
+		GrayU8 input = new GrayU8(7,9);
+		alg.initalize(input);
 
 		SegmentSlic.Cluster c0 = alg.clusters.grow();
 		SegmentSlic.Cluster c1 = alg.clusters.grow();
-		SegmentSlic.Cluster c2 = alg.clusters.grow();
 
-		alg.pixels.resize(6);
-		alg.pixels.get(0).add(c0,2); // 0.666666
-		alg.pixels.get(0).add(c1,4); // 0.333333
+		c0.x = 1; c0.y = 1; c0.color[0] = 2;
+		c1.x = 3; c1.y = 1; c1.color[0] = 5;
 
-		alg.pixels.get(1).add(c1,1); // 0.75
-		alg.pixels.get(1).add(c0,3); // 0.25
+		alg.gridInterval = 1;
+		alg.computeClusterDistance();
 
-		for( int i = 2; i < 6; i++ ) {
-			alg.pixels.get(i).add(c2,0.2f);
-		}
+		// only c0
+		assertEquals(1,alg.pixelCluster[1*7+0]);
+		assertEquals(2+1*alg.adjustSpacial,alg.pixelDistance[1*7+0],1e-4f);
+		// both
+		assertEquals(2,alg.pixelCluster[1*7+2]);
+		assertEquals(2+5+2*alg.adjustSpacial,alg.pixelDistance[1*7+2],1e-4f);
+		// only c1
+		assertEquals(1,alg.pixelCluster[2*7+4]);
+		assertEquals(5+2*alg.adjustSpacial,alg.pixelDistance[2*7+4],1e-4f);
+		// none
+		assertEquals(0,alg.pixelCluster[5*7+5]);
+		assertEquals(0,alg.pixelDistance[5*7+5],1e-8f);
+	}
 
-		alg.input = new GrayU8(2,3);
-		alg.updateClusters();
+	@Test
+	public void computeClosestCluster() {
+		DummySlic alg = new DummySlic(4,1,10) {
+			@Override
+			public float colorDistance(float[] color, int index) {
+				return color[0];
+			}
+		};
+
+		GrayU8 input = new GrayU8(7,9);
+		alg.initalize(input);
+
+		SegmentSlic.Cluster c0 = alg.clusters.grow();
+		SegmentSlic.Cluster c1 = alg.clusters.grow();
+
+		c0.id = 0; c0.x = 1; c0.y = 1; c0.color[0] = 2;
+		c1.id = 1; c1.x = 3; c1.y = 1; c1.color[0] = 2;
+
+		alg.gridInterval = 1;
+		alg.computeClosestCluster();
+
+		assertEquals(0,alg.pixelCluster[1*7+1]);
+		assertEquals(2,alg.pixelDistance[1*7+1],1e-4f);
+		// tie goes to the first cluster
+		assertEquals(0,alg.pixelCluster[1*7+2]);
+		assertEquals(1,alg.pixelCluster[2*7+3]);
+		// can't be reached by any cluster
+		assertEquals(-1,alg.pixelCluster[5*7+5]);
+	}
+
+	/**
+	 * Compares the update against weights computed by brute force
+	 */
+	@Test
+	public void updateClusters() {
+		DummySlic alg = new DummySlic(4,1,10) {
+			@Override
+			public float colorDistance(float[] color, int index) {
+				float d = input.data[index] - color[0];
+				return d*d;
+			}
 
-		double w = (2.0/3.0) + 0.25;
-		assertEquals((0*0.666 + 1*0.25)/w,c0.x,1e-4);
-		assertEquals((0*0.666 + 0*0.25)/w,c0.y,1e-4);
+			@Override
+			public void addColor(float[] color, int index, float weight) {
+				color[0] += input.data[index]*weight;
+			}
+		};
+
+		GrayU8 input = new GrayU8(7,9);
+		ImageMiscOps.fillUniform(input,new Random(234),0,20);
+		alg.initalize(input);
+		alg.gridInterval = 2;
+
+		SegmentSlic.Cluster c0 = alg.clusters.grow();
+		SegmentSlic.Cluster c1 = alg.clusters.grow();
+		SegmentSlic.Cluster c2 = alg.clusters.grow();
+		c0.x = 1; c0.y = 2; c0.color[0] = 5;
+		c1.x = 4; c1.y = 2; c1.color[0] = 12;
+		c2.x = 3; c2.y = 6; c2.color[0] = 7;
+
+		// distance of each pixel from each cluster before the update
+		float distance[][] = new float[3][input.width*input.height];
+		for( int i = 0; i < 3; i++ ) {
+			SegmentSlic.Cluster c = alg.clusters.get(i);
+			int cx = (int)(c.x+0.5f), cy = (int)(c.y+0.5f);
+			for( int y = 0; y < input.height; y++ ) {
+				for( int x = 0; x < input.width; x++ ) {
+					if( Math.abs(x-cx) > 2 || Math.abs(y-cy) > 2 )
+						distance[i][y*input.width+x] = -1;
+					else {
+						float d = input.get(x,y) - c.color[0];
+						distance[i][y*input.width+x] = d*d + alg.adjustSpacial*((x-cx)*(x-cx) + (y-cy)*(y-cy));
+					}
+				}
+			}
+		}
 
-		w = (1.0/3.0) + 0.75;
-		assertEquals((0*0.333 + 1*0.75)/w,c1.x,1e-4);
-		assertEquals((0*0.333 + 0*0.75)/w,c1.y,1e-4);
+		float expected[][] = new float[3][4];
+		for( int index = 0; index < input.width*input.height; index++ ) {
+			float sum = 0;
+			int count = 0;
+			for( int i = 0; i < 3; i++ ) {
+				if( distance[i][index] >= 0 ) {
+					sum += distance[i][index];
+					count++;
+				}
+			}
+			int x = index % input.width, y = index / input.width;
+			for( int i = 0; i < 3; i++ ) {
+				if( distance[i][index] < 0 )
+					continue;
+				float w = count == 1 ? 1 : 1.0f - distance[i][index]/sum;
+				expected[i][0] += x*w;
+				expected[i][1] += y*w;
+				expected[i][2] += input.data[index]*w;
+				expected[i][3] += w;
+			}
+		}
 
-		assertEquals(0.5,c2.x,1e-4);
-		assertEquals(1.5,c2.y,1e-4);
+		alg.computeClusterDistance();
+		alg.updateClusters();
+
+		for( int i = 0; i < 3; i++ ) {
+			SegmentSlic.Cluster c = alg.clusters.get(i);
+			assertEquals(expected[i][0]/expected[i][3],c.x,1e-4f);
+			assertEquals(expected[i][1]/expected[i][3],c.y,1e-4f);
+			assertEquals(expected[i][2]/expected[i][3],c.color[0],1e-4f);
+		}
 	}
 
 	@Test
@@ -156,17 +268,12 @@ public class TestSegmentSlic {
 		SegmentSlic.Cluster c2 = alg.clusters.grow();
 		c0.id = 0; c1.id = 1; c2.id = 2;
 
-		alg.pixels.resize(6);
-		alg.pixels.get(0).add(c0,2);
-		alg.pixels.get(0).add(c1,4);
-		alg.pixels.get(0).add(c2,0.1f);
-
-		alg.pixels.get(1).add(c1,1);
-		alg.pixels.get(1).add(c0,2);
-
+		alg.input = new GrayU8(2,3);
+		alg.pixelCluster = new int[6];
+		alg.pixelCluster[0] = 2;
+		alg.pixelCluster[1] = -1;
 		for( int i = 2; i < 6; i++ ) {
-			alg.pixels.get(i).add(c1,0);
-			alg.pixels.get(i).add(c2,0.2f);
+			alg.pixelCluster[i] = 1;
 		}
 
 		GrayS32 image = new GrayS32(2,3);
@@ -175,62 +282,20 @@ public class TestSegmentSlic {
 
 		alg.assignLabelsToPixels(image,regionMemberCount,regionColor);
 
-		assertEquals(3,regionMemberCount.size);
-		assertEquals(3,regionColor.size);
+		// the pixel without a cluster gets its own region
+		assertEquals(4,regionMemberCount.size);
+		assertEquals(4,regionColor.size);
 
 		assertEquals(0,regionMemberCount.get(0));
-		assertEquals(5,regionMemberCount.get(1));
+		assertEquals(4,regionMemberCount.get(1));
 		assertEquals(1,regionMemberCount.get(2));
+		assertEquals(1,regionMemberCount.get(3));
 
 		assertEquals(2,image.get(0,0));
-		assertEquals(1,image.get(1,0));
+		assertEquals(3,image.get(1,0));
 		for( int i = 2; i < 6; i++ ) {
 			assertEquals(1,image.data[i]);
 		}
-
-	}
-
-	@Test
-	public void Pixel_add()
-	{
-		SegmentSlic.Cluster c0 = new SegmentSlic.Cluster();
-		SegmentSlic.Cluster c1 = new SegmentSlic.Cluster();
-
-		SegmentSlic.Pixel p = new SegmentSlic.Pixel();
-
-		assertEquals(0,p.clusters.size);
-
-		p.add(c0, 2.2f);
-		assertEquals(1, p.clusters.size);
-		assertEquals(2.2f, p.clusters.data[0].distance, 1e-4f);
-		assertTrue(c0 == p.clusters.data[0].cluster);
-
-		p.add(c1, 1.2f);
-		assertEquals(2, p.clusters.size);
-		assertEquals(1.2f, p.clusters.data[1].distance, 1e-4f);
-		assertTrue(c1 == p.clusters.data[1].cluster);
-	}
-
-
-	@Test
-	public void Pixel_computeWeights() {
-		SegmentSlic.Pixel p = new SegmentSlic.Pixel();
-
-		p.clusters.grow().distance = 2;
-		p.clusters.grow().distance = 0.3f;
-
-		p.computeWeights();
-
-		assertEquals(1.0f - 2f/2.3f,p.clusters.data[0].distance,1e-4f);
-		assertEquals(1.0f - 0.3f/2.3f,p.clusters.data[1].distance,1e-4f);
-
-		// check special case of 1 item.  The weight will be 1 since it is the only one
-		p.clusters.size = 1;
-		p.clusters.data[0].distance = 2;
-
-		p.computeWeights();
-
-		assertEquals(1.0f,p.clusters.data[0].distance,1e-4f);
 	}
 
 	@Test
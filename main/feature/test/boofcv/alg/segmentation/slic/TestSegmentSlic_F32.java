@@ -32,8 +32,9 @@ public class TestSegmentSlic_F32 extends GeneralSegmentSlicColorChecks<GrayF32>
 	}
 
 	@Override
-	public SegmentSlic<GrayF32> createAlg(int numberOfRegions, float m, int totalIterations, ConnectRule rule) {
-		return new SegmentSlic_F32(numberOfRegions,m,totalIterations,rule);
+	public SegmentSlic<GrayF32> createAlg(int numberOfRegions, float m, int totalIterations, ConnectRule rule,
+													  int maxThreads) {
+		return new SegmentSlic_F32(numberOfRegions,m,totalIterations,rule,maxThreads);
 	}
 
 }
@@ -33,8 +33,9 @@ public class TestSegmentSlic_PLU8 extends GeneralSegmentSlicColorChecks<Planar<G
 	}
 
 	@Override
-	public SegmentSlic<Planar<GrayU8>> createAlg(int numberOfRegions, float m, int totalIterations, ConnectRule rule) {
-		return new SegmentSlic_PlU8(numberOfRegions,m,totalIterations,rule,3);
+	public SegmentSlic<Planar<GrayU8>> createAlg(int numberOfRegions, float m, int totalIterations, ConnectRule rule,
+													  int maxThreads) {
+		return new SegmentSlic_PlU8(numberOfRegions,m,totalIterations,rule,3,maxThreads);
 	}
 
 }
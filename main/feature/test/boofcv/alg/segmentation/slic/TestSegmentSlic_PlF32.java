@@ -33,8 +33,9 @@ public class TestSegmentSlic_PlF32 extends GeneralSegmentSlicColorChecks<Planar<
 	}
 
 	@Override
-	public SegmentSlic<Planar<GrayF32>> createAlg(int numberOfRegions, float m, int totalIterations, ConnectRule rule) {
-		return new SegmentSlic_PlF32(numberOfRegions,m,totalIterations,rule,3);
+	public SegmentSlic<Planar<GrayF32>> createAlg(int numberOfRegions, float m, int totalIterations, ConnectRule rule,
+													  int maxThreads) {
+		return new SegmentSlic_PlF32(numberOfRegions,m,totalIterations,rule,3,maxThreads);
 	}
 
 }
@@ -32,8 +32,9 @@ public class TestSegmentSlic_U8 extends GeneralSegmentSlicColorChecks<GrayU8> {
 	}
 
 	@Override
-	public SegmentSlic<GrayU8> createAlg(int numberOfRegions, float m, int totalIterations, ConnectRule rule) {
-		return new SegmentSlic_U8(numberOfRegions,m,totalIterations,rule);
+	public SegmentSlic<GrayU8> createAlg(int numberOfRegions, float m, int totalIterations, ConnectRule rule,
+													  int maxThreads) {
+		return new SegmentSlic_U8(numberOfRegions,m,totalIterations,rule,maxThreads);
 	}
 
 }
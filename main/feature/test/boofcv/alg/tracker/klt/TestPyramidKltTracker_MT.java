@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.klt;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.pyramid.PyramidOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.factory.transform.pyramid.FactoryPyramid;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPyramidKltTracker_MT {
+	Random rand = new Random(234);
+
+	int width = 120;
+	int height = 100;
+	int featureRadius = 3;
+
+	PyramidDiscrete<GrayF32> pyramid;
+	GrayF32[] derivX;
+	GrayF32[] derivY;
+
+	int originalThreads;
+	int originalMinFeatures;
+
+	/**
+	 * Force the features to be split into several blocks, even on a single core machine
+	 */
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalMinFeatures = PyramidKltTracker_MT.MIN_FEATURES;
+		BoofConcurrency.setMaxThreads(4);
+		PyramidKltTracker_MT.MIN_FEATURES = 5;
+
+		GrayF32 noise = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(noise,rand,0,100);
+		GrayF32 image = BlurImageOps.gaussian(noise,null,-1,2,null);
+
+		pyramid = FactoryPyramid.discreteGaussian(new int[]{1,2,4},-1,2,false,GrayF32.class);
+		pyramid.process(image);
+
+		derivX = PyramidOps.declareOutput(pyramid,GrayF32.class);
+		derivY = PyramidOps.declareOutput(pyramid,GrayF32.class);
+
+		ImageGradient<GrayF32,GrayF32> gradient = FactoryDerivative.sobel(GrayF32.class,GrayF32.class);
+		PyramidOps.gradient(pyramid,gradient,derivX,derivY);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		PyramidKltTracker_MT.MIN_FEATURES = originalMinFeatures;
+	}
+
+	/**
+	 * Describes and tracks the same features with the single threaded and concurrent implementations and
+	 * sees if the results are identical
+	 */
+	@Test
+	public void compareToSingleThread() {
+		PyramidKltTracker<GrayF32,GrayF32> single =
+				new PyramidKltTracker<GrayF32,GrayF32>(TestKltTracker.createDefaultTracker());
+		PyramidKltTracker_MT<GrayF32,GrayF32> concurrent = createConcurrent();
+
+		List<PyramidKltFeature> featuresA = createFeatures();
+		List<PyramidKltFeature> featuresB = createFeatures();
+
+		single.setImage(pyramid,derivX,derivY);
+		concurrent.setImage(pyramid,derivX,derivY);
+
+		GrowQueue_B successA = new GrowQueue_B();
+		GrowQueue_B successB = new GrowQueue_B();
+		single.setDescription(featuresA,successA);
+		concurrent.setDescription(featuresB,successB);
+
+		assertEquals(featuresA.size(),successB.size());
+		for (int i = 0; i < featuresA.size(); i++) {
+			assertEquals(successA.get(i),successB.get(i));
+		}
+
+		// the features will need to move back to where they were described
+		for (int i = 0; i < featuresA.size(); i++) {
+			float dx = rand.nextFloat()*4-2;
+			float dy = rand.nextFloat()*4-2;
+			featuresA.get(i).setPosition(featuresA.get(i).x + dx, featuresA.get(i).y + dy);
+			featuresB.get(i).setPosition(featuresB.get(i).x + dx, featuresB.get(i).y + dy);
+		}
+
+		List<KltTrackFault> faultsA = new ArrayList<KltTrackFault>();
+		List<KltTrackFault> faultsB = new ArrayList<KltTrackFault>();
+		single.track(featuresA,faultsA);
+		concurrent.track(featuresB,faultsB);
+
+		assertEquals(featuresA.size(),faultsB.size());
+		int numSuccess = 0;
+		for (int i = 0; i < featuresA.size(); i++) {
+			assertTrue(faultsA.get(i) == faultsB.get(i));
+			assertEquals(featuresA.get(i).x,featuresB.get(i).x,0);
+			assertEquals(featuresA.get(i).y,featuresB.get(i).y,0);
+			if( faultsA.get(i) == KltTrackFault.SUCCESS )
+				numSuccess++;
+		}
+
+		// sanity check the test
+		assertTrue(numSuccess > featuresA.size()/2);
+	}
+
+	/**
+	 * The same results should be returned when the list is processed a second time by a different number of blocks
+	 */
+	@Test
+	public void changeNumberOfBlocks() {
+		PyramidKltTracker_MT<GrayF32,GrayF32> concurrent = createConcurrent();
+		concurrent.setImage(pyramid,derivX,derivY);
+
+		List<PyramidKltFeature> featuresA = createFeatures();
+		List<PyramidKltFeature> featuresB = createFeatures();
+
+		GrowQueue_B success = new GrowQueue_B();
+		concurrent.setDescription(featuresA,success);
+		BoofConcurrency.setMaxThreads(3);
+		concurrent.setDescription(featuresB,success);
+
+		List<KltTrackFault> faultsA = new ArrayList<KltTrackFault>();
+		List<KltTrackFault> faultsB = new ArrayList<KltTrackFault>();
+		concurrent.track(featuresB,faultsB);
+		BoofConcurrency.setMaxThreads(4);
+		concurrent.track(featuresA,faultsA);
+
+		for (int i = 0; i < featuresA.size(); i++) {
+			assertTrue(faultsA.get(i) == faultsB.get(i));
+			assertEquals(featuresA.get(i).x,featuresB.get(i).x,0);
+			assertEquals(featuresA.get(i).y,featuresB.get(i).y,0);
+		}
+	}
+
+	private PyramidKltTracker_MT<GrayF32,GrayF32> createConcurrent() {
+		FastQueue<KltTracker<GrayF32,GrayF32>> trackers =
+				new FastQueue<KltTracker<GrayF32,GrayF32>>(1,(Class)KltTracker.class,true) {
+					@Override
+					protected KltTracker<GrayF32, GrayF32> createInstance() {
+						return TestKltTracker.createDefaultTracker();
+					}
+				};
+		return new PyramidKltTracker_MT<GrayF32,GrayF32>(trackers);
+	}
+
+	/**
+	 * Creates features in a grid which covers the image, including its border
+	 */
+	private List<PyramidKltFeature> createFeatures() {
+		List<PyramidKltFeature> features = new ArrayList<PyramidKltFeature>();
+		for (int y = 0; y < height; y += 7) {
+			for (int x = 0; x < width; x += 7) {
+				PyramidKltFeature f = new PyramidKltFeature(pyramid.getNumLayers(),featureRadius);
+				f.setPosition(x,y);
+				features.add(f);
+			}
+		}
+		return features;
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.feature;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPackedTupleArray_B {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void add_get() {
+		// odd number of integers and the storage will need to grow
+		int numBits = 70;
+		PackedTupleArray_B alg = new PackedTupleArray_B(numBits,2);
+		assertEquals(2,alg.getNumLongs());
+
+		TupleDesc_B[] list = new TupleDesc_B[10];
+		for (int i = 0; i < list.length; i++) {
+			list[i] = new TupleDesc_B(numBits);
+			for (int j = 0; j < list[i].data.length; j++) {
+				list[i].data[j] = rand.nextInt();
+			}
+			list[i].data[2] &= 0x3F;
+			alg.add(list[i]);
+		}
+		assertEquals(list.length,alg.size());
+
+		TupleDesc_B found = new TupleDesc_B(numBits);
+		for (int i = 0; i < list.length; i++) {
+			alg.get(i,found);
+			for (int j = 0; j < found.data.length; j++) {
+				assertEquals(list[i].data[j],found.data[j]);
+			}
+		}
+
+		alg.reset();
+		assertEquals(0,alg.size());
+	}
+
+	@Test
+	public void pack() {
+		TupleDesc_B desc = new TupleDesc_B(100);
+		for (int i = 0; i < desc.data.length; i++) {
+			desc.data[i] = rand.nextInt();
+		}
+
+		long[] packed = new long[3];
+		PackedTupleArray_B.pack(desc,packed,1);
+
+		assertEquals(0,packed[0]);
+		for (int bit = 0; bit < 100; bit++) {
+			boolean found = ((packed[1 + bit/64] >> (bit%64)) & 1) == 1;
+			assertEquals(desc.isBitTrue(bit),found);
+		}
+	}
+
+	@Test
+	public void lengthPacked() {
+		assertEquals(1,PackedTupleArray_B.lengthPacked(1));
+		assertEquals(1,PackedTupleArray_B.lengthPacked(64));
+		assertEquals(2,PackedTupleArray_B.lengthPacked(65));
+		assertEquals(8,PackedTupleArray_B.lengthPacked(512));
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.tracker;
+
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.tracker.FactoryPointTracker;
+import boofcv.misc.PerformerBase;
+import boofcv.misc.ProfileOperation;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+
+import java.util.Random;
+
+/**
+ * Compares the single threaded and concurrent implementations of the pyramidal KLT point tracker on
+ * 1080p images with a couple thousand tracks.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkKltConcurrent {
+	static int width = 1920;
+	static int height = 1080;
+	static int maxTracks = 2500;
+	static long TEST_TIME = 2000;
+
+	// the same scene with a small amount of motion between the two frames
+	static GrayU8 frames[] = new GrayU8[2];
+
+	public static class Track extends PerformerBase {
+		PointTracker<GrayU8> tracker;
+		int frame = 0;
+
+		public Track() {
+			ConfigGeneralDetector configDetector = new ConfigGeneralDetector(maxTracks, 3, 1);
+			tracker = FactoryPointTracker.klt(new int[]{1, 2, 4, 8}, configDetector, 3, GrayU8.class, GrayS16.class);
+			tracker.process(frames[0]);
+			tracker.spawnTracks();
+		}
+
+		@Override
+		public void process() {
+			frame = (frame + 1) % 2;
+			tracker.process(frames[frame]);
+
+			// keep the number of tracks about the same
+			if( tracker.getActiveTracks(null).size() < maxTracks*0.8 )
+				tracker.spawnTracks();
+		}
+
+		@Override
+		public String getName() {
+			return "KLT "+tracker.getActiveTracks(null).size()+" tracks";
+		}
+	}
+
+	public static void main( String args[] ) {
+		Random rand = new Random(234);
+
+		GrayU8 noise = new GrayU8(width+2,height+2);
+		ImageMiscOps.fillUniform(noise, rand, 0, 255);
+		GrayU8 scene = BlurImageOps.gaussian(noise, null, -1, 3, null);
+
+		frames[0] = scene.subimage(0, 0, width, height, null).clone();
+		frames[1] = scene.subimage(2, 1, width + 2, height + 1, null).clone();
+
+		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
+		System.out.println();
+
+		System.out.println("Single Thread");
+		BoofConcurrency.USE_CONCURRENT = false;
+		ProfileOperation.printOpsPerSec(new Track(), TEST_TIME);
+
+		System.out.println();
+		System.out.println("Concurrent: max threads = "+BoofConcurrency.getMaxThreads());
+		BoofConcurrency.USE_CONCURRENT = true;
+		ProfileOperation.printOpsPerSec(new Track(), TEST_TIME);
+	}
+}
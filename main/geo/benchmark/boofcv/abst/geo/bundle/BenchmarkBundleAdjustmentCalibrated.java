@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.geo.bundle;
+
+import boofcv.abst.geo.BundleAdjustmentCalibrated;
+import boofcv.alg.geo.bundle.CalibPoseAndPointResiduals;
+import boofcv.alg.geo.bundle.CalibratedPoseAndPoint;
+import boofcv.alg.geo.bundle.PointIndexObservation;
+import boofcv.alg.geo.bundle.ViewPointObservations;
+import georegression.geometry.ConvertRotation3D_F64;
+import georegression.struct.EulerType;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the run time of dense and sparse bundle adjustment on synthetic scenes.  A camera moves along the
+ * x-axis and each point is observed by the views closest to it.  The first view is known, the other
+ * views and all the points are corrupted with noise.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkBundleAdjustmentCalibrated {
+
+	// number of views which observe each point
+	static int VIEWS_PER_POINT = 10;
+	// standard deviation of noise added to observations, normalized image coordinates
+	static double OBS_NOISE = 1e-4;
+
+	Random rand = new Random(234);
+
+	CalibratedPoseAndPoint truth = new CalibratedPoseAndPoint();
+	List<ViewPointObservations> observations = new ArrayList<ViewPointObservations>();
+
+	public void createScene( int numViews , int numPoints ) {
+		truth.configure(numViews,numPoints);
+		observations.clear();
+
+		double spacing = 0.1;
+		for( int i = 0; i < numViews; i++ ) {
+			Se3_F64 view = truth.getWorldToCamera(i);
+			ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ,
+					rand.nextGaussian()*1e-2,rand.nextGaussian()*1e-2,rand.nextGaussian()*1e-2,view.getR());
+			view.getT().set(-i*spacing,rand.nextGaussian()*0.01,rand.nextGaussian()*0.01);
+			observations.add(new ViewPointObservations());
+		}
+
+		Point3D_F64 cameraPt = new Point3D_F64();
+		for( int i = 0; i < numPoints; i++ ) {
+			// view which is closest to the point
+			int center = rand.nextInt(numViews);
+
+			Point3D_F64 p = truth.getPoint(i);
+			p.x = center*spacing + rand.nextGaussian()*0.5;
+			p.y = rand.nextGaussian()*0.5;
+			p.z = 3 + rand.nextDouble()*2;
+
+			int first = Math.max(0,Math.min(numViews-VIEWS_PER_POINT,center-VIEWS_PER_POINT/2));
+			int last = Math.min(numViews,first+VIEWS_PER_POINT);
+			for( int view = first; view < last; view++ ) {
+				SePointOps_F64.transform(truth.getWorldToCamera(view),p,cameraPt);
+
+				Point2D_F64 obs = new Point2D_F64();
+				obs.x = cameraPt.x/cameraPt.z + rand.nextGaussian()*OBS_NOISE;
+				obs.y = cameraPt.y/cameraPt.z + rand.nextGaussian()*OBS_NOISE;
+
+				observations.get(view).getPoints().grow().set(i,obs);
+			}
+		}
+	}
+
+	/**
+	 * Creates a copy of the true model and adds noise to it
+	 */
+	public CalibratedPoseAndPoint createInitial() {
+		CalibratedPoseAndPoint model = new CalibratedPoseAndPoint();
+		model.configure(truth.getNumViews(),truth.getNumPoints());
+
+		for( int i = 0; i < truth.getNumViews(); i++ ) {
+			Se3_F64 view = model.getWorldToCamera(i);
+			view.set(truth.getWorldToCamera(i));
+			if( i == 0 ) {
+				model.setViewKnown(i,true);
+			} else {
+				view.getT().x += rand.nextGaussian()*0.01;
+				view.getT().y += rand.nextGaussian()*0.01;
+			}
+		}
+		for( int i = 0; i < truth.getNumPoints(); i++ ) {
+			Point3D_F64 p = model.getPoint(i);
+			p.set(truth.getPoint(i));
+			p.x += rand.nextGaussian()*0.02;
+			p.y += rand.nextGaussian()*0.02;
+			p.z += rand.nextGaussian()*0.02;
+		}
+		return model;
+	}
+
+	public double computeError( CalibratedPoseAndPoint model ) {
+		CalibPoseAndPointResiduals func = new CalibPoseAndPointResiduals();
+		func.configure(null,model,observations);
+		double residuals[] = new double[ func.getNumOfOutputsM() ];
+		func.process(model,residuals);
+
+		double total = 0;
+		for( int i = 0; i < residuals.length; i++ ) {
+			total += residuals[i]*residuals[i];
+		}
+		return Math.sqrt(total/(residuals.length/2));
+	}
+
+	public void evaluate( String name , BundleAdjustmentCalibrated alg ) {
+		CalibratedPoseAndPoint model = createInitial();
+
+		double before = computeError(model);
+		long start = System.currentTimeMillis();
+		alg.process(model,observations);
+		long stop = System.currentTimeMillis();
+		double after = computeError(model);
+
+		System.out.printf("  %-10s time = %7d ms  RMS error before = %8.2e after = %8.2e\n",
+				name,(stop-start),before,after);
+	}
+
+	public void run( int numViews , int numPoints , boolean dense ) {
+		createScene(numViews,numPoints);
+
+		System.out.println("views = "+numViews+"  points = "+numPoints+
+				"  observations/point = "+Math.min(numViews,VIEWS_PER_POINT));
+		if( dense )
+			evaluate("Dense", new BundleAdjustmentCalibratedDense(1e-8,50));
+		evaluate("Sparse", new BundleAdjustmentCalibratedSparse(1e-8,50));
+	}
+
+	public static void main( String args[] ) {
+		BenchmarkBundleAdjustmentCalibrated benchmark = new BenchmarkBundleAdjustmentCalibrated();
+
+		// the dense implementation can only handle small problems
+		benchmark.run(5, 100, true);
+		benchmark.run(8, 200, true);
+		benchmark.run(20, 2000, false);
+		benchmark.run(100, 10000, false);
+		benchmark.run(200, 20000, false);
+	}
+}
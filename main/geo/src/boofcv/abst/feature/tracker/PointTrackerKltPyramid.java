@@ -27,6 +27,7 @@ import boofcv.struct.QueueCorner;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.pyramid.PyramidDiscrete;
 import georegression.struct.point.Point2D_I16;
+import org.ddogleg.struct.GrowQueue_B;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -70,6 +71,12 @@ public class PointTrackerKltPyramid<I extends ImageGray,D extends ImageGray>
 	// the tracker
 	protected PyramidKltTracker<I, D> tracker;
 
+	// storage for the results of tracking and describing a list of features
+	protected List<KltTrackFault> faults = new ArrayList<KltTrackFault>();
+	protected GrowQueue_B success = new GrowQueue_B();
+	// features which were tracked and need their description updated
+	protected List<PyramidKltFeature> tracked = new ArrayList<PyramidKltFeature>();
+
 	// selects point features
 	private GeneralFeatureDetector<I, D> detector;
 	// list of corners which should be ignored by the corner detector
@@ -98,15 +105,35 @@ public class PointTrackerKltPyramid<I extends ImageGray,D extends ImageGray>
 								  InterpolateRectangle<I> interpInput,
 								  InterpolateRectangle<D> interpDeriv,
 								  Class<D> derivType ) {
+		this(config, templateRadius, pyramid, detector, gradient,
+				new PyramidKltTracker<I, D>(new KltTracker<I, D>(interpInput, interpDeriv, config)), derivType);
+	}
+
+	/**
+	 * Constructor which specified the KLT track manager and how the image pyramids are computed.
+	 *
+	 * @param config KLT tracker configuration
+	 * @param templateRadius Radius of square templates that are tracked
+	 * @param pyramid The image pyramid which KLT is tracking inside of
+	 * @param detector Feature detector.   If null then no feature detector will be available and spawn won't work.
+	 * @param gradient Computes gradient image pyramid.
+	 * @param tracker Pyramidal KLT tracker.  Must have been created with the same configuration.
+	 * @param derivType Type of image the gradient is
+	 */
+	public PointTrackerKltPyramid(KltConfig config,
+								  int templateRadius ,
+								  PyramidDiscrete<I> pyramid,
+								  GeneralFeatureDetector<I, D> detector,
+								  ImageGradient<I, D> gradient,
+								  PyramidKltTracker<I, D> tracker,
+								  Class<D> derivType ) {
 
 		this.config = config;
 		this.templateRadius = templateRadius;
 		this.gradient = gradient;
 		this.basePyramid = pyramid;
 		this.derivType = derivType;
-
-		KltTracker<I, D> klt = new KltTracker<I, D>(interpInput, interpDeriv,config);
-		tracker = new PyramidKltTracker<I, D>(klt);
+		this.tracker = tracker;
 
 		if( detector != null) {
 			if (detector.getRequiresHessian())
@@ -240,23 +267,32 @@ public class PointTrackerKltPyramid<I extends ImageGray,D extends ImageGray>
 
 		// track features
 		tracker.setImage(basePyramid,derivX,derivY);
+		tracker.track(active, faults);
+
+		// discard a track if its center drifts outside the image.
+		tracked.clear();
+		for( int i = 0; i < active.size(); i++ ) {
+			PyramidKltFeature t = active.get(i);
+			if( faults.get(i) == KltTrackFault.SUCCESS && image.isInBounds((int)t.x,(int)t.y) )
+				tracked.add(t);
+		}
+		tracker.setDescription(tracked, success);
+
+		// update the lists while preserving the order of the tracks
+		int indexTracked = 0;
 		for( int i = 0; i < active.size(); ) {
 			PyramidKltFeature t = active.get(i);
-			KltTrackFault ret = tracker.track(t);
-
-			boolean success = false;
-
-			if( ret == KltTrackFault.SUCCESS ) {
-				// discard a track if its center drifts outside the image.
-				if( image.isInBounds((int)t.x,(int)t.y) && tracker.setDescription(t) ) {
-					PointTrack p = t.getCookie();
-					p.set(t.x,t.y);
-					i++;
-					success = true;
-				}
+
+			boolean good = false;
+			if( indexTracked < tracked.size() && tracked.get(indexTracked) == t ) {
+				good = success.get(indexTracked++);
 			}
 
-			if( !success ) {
+			if( good ) {
+				PointTrack p = t.getCookie();
+				p.set(t.x,t.y);
+				i++;
+			} else {
 				active.remove(i);
 				dropped.add( t );
 				unused.add( t );
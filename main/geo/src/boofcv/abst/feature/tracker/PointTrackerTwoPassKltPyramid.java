@@ -24,6 +24,7 @@ import boofcv.alg.interpolate.InterpolateRectangle;
 import boofcv.alg.tracker.klt.KltConfig;
 import boofcv.alg.tracker.klt.KltTrackFault;
 import boofcv.alg.tracker.klt.PyramidKltFeature;
+import boofcv.alg.tracker.klt.PyramidKltTracker;
 import boofcv.alg.transform.pyramid.PyramidOps;
 import boofcv.misc.BoofMiscOps;
 import boofcv.struct.image.ImageGray;
@@ -61,6 +62,17 @@ public class PointTrackerTwoPassKltPyramid<I extends ImageGray,D extends ImageGr
 				gradient.getDerivativeType().getImageClass());
 	}
 
+	public PointTrackerTwoPassKltPyramid(KltConfig config,
+										 int templateRadius ,
+										 PyramidDiscrete<I> pyramid,
+										 GeneralFeatureDetector<I, D> detector,
+										 ImageGradient<I, D> gradient,
+										 PyramidKltTracker<I, D> tracker)
+	{
+		super(config, templateRadius, pyramid , detector, gradient, tracker,
+				gradient.getDerivativeType().getImageClass());
+	}
+
 	@Override
 	public void process(I image) {
 		this.input = image;
@@ -83,26 +95,7 @@ public class PointTrackerTwoPassKltPyramid<I extends ImageGray,D extends ImageGr
 		active.clear();
 
 		tracker.setImage(basePyramid,derivX,derivY);
-		for( int i = 0; i < originalActive.size(); i++ ) {
-			PyramidKltFeature t = originalActive.get(i);
-			KltTrackFault ret = tracker.track(t);
-
-			boolean success = false;
-
-			if( ret == KltTrackFault.SUCCESS ) {
-				// discard a track if its center drifts outside the image.
-				if( BoofMiscOps.checkInside(input, t.x, t.y)) {
-					active.add(t);
-					PointTrack p = t.getCookie();
-					p.set(t.x,t.y);
-					success = true;
-				}
-			}
-
-			if( !success ) {
-				candidateDrop.add(t);
-			}
-		}
+		trackOriginal();
 	}
 
 	@Override
@@ -110,22 +103,32 @@ public class PointTrackerTwoPassKltPyramid<I extends ImageGray,D extends ImageGr
 		candidateDrop.clear();
 		active.clear();
 
+		trackOriginal();
+	}
+
+	/**
+	 * Tracks all the features in the original active list.  Features which are successfully tracked are added to
+	 * the active list and the others are added to the candidate drop list.
+	 */
+	private void trackOriginal() {
+		tracker.track(originalActive, faults);
+
 		for( int i = 0; i < originalActive.size(); i++ ) {
 			PyramidKltFeature t = originalActive.get(i);
-			KltTrackFault ret = tracker.track(t);
 
 			boolean success = false;
 
-			if( ret == KltTrackFault.SUCCESS ) {
+			if( faults.get(i) == KltTrackFault.SUCCESS ) {
 				// discard a track if its center drifts outside the image.
-				if(BoofMiscOps.checkInside(input, t.x, t.y)) {
+				if( BoofMiscOps.checkInside(input, t.x, t.y)) {
 					active.add(t);
 					PointTrack p = t.getCookie();
 					p.set(t.x,t.y);
 					success = true;
 				}
 			}
-			if( !success) {
+
+			if( !success ) {
 				candidateDrop.add(t);
 			}
 		}
@@ -133,9 +136,10 @@ public class PointTrackerTwoPassKltPyramid<I extends ImageGray,D extends ImageGr
 
 	@Override
 	public void finishTracking() {
-		for( int i = 0; i < active.size(); ) {
+		tracker.setDescription(active, success);
+		for( int i = 0, indexSuccess = 0; i < active.size(); indexSuccess++ ) {
 			PyramidKltFeature t = active.get(i);
-			if( tracker.setDescription(t) ) {
+			if( success.get(indexSuccess) ) {
 				i++;
 			} else {
 				candidateDrop.add(t);
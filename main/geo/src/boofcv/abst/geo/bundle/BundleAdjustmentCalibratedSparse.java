@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.geo.bundle;
+
+import boofcv.abst.geo.BundleAdjustmentCalibrated;
+import boofcv.alg.geo.bundle.*;
+import georegression.struct.se.Se3_F64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Performs bundle adjustment using sparse matrices and the Schur complement.  Only the non-zero blocks of the
+ * Jacobian are computed, see {@link CalibPoseAndPointRodriguesBlockJacobian}, and each step is found by
+ * eliminating the point parameters, see {@link CalibPoseAndPointSchurStep}.  Memory and computations grow linearly
+ * with the number of observations and the number of points, making it suitable for problems with thousands of points
+ * and hundreds of views.  The model is parametrized the same way as {@link BundleAdjustmentCalibratedDense}.
+ * </p>
+ *
+ * <p>
+ * Optimization is done with Levenberg-Marquardt.  If a step reduces the cost it's accepted and the damping is
+ * reduced, otherwise the damping is increased and a new step is computed.  Convergence is declared when the
+ * gradient's largest element or the relative reduction in cost of an accepted step is less than the tolerance.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentCalibratedSparse
+		implements BundleAdjustmentCalibrated
+{
+	// initial value of the damping parameter
+	public static final double INITIAL_LAMBDA = 1e-3;
+	// if the damping parameter becomes larger than this then no step can reduce the cost
+	public static final double MAX_LAMBDA = 1e16;
+
+	// converts to and from a parameterized version of the model
+	CalibPoseAndPointRodriguesCodec codec = new CalibPoseAndPointRodriguesCodec();
+	// computes residuals for least-squares
+	CalibPoseAndPointResiduals func = new CalibPoseAndPointResiduals();
+	CalibPoseAndPointRodriguesBlockJacobian jacobian = new CalibPoseAndPointRodriguesBlockJacobian();
+	// computes the step using the Schur complement
+	CalibPoseAndPointSchurStep schur = new CalibPoseAndPointSchurStep();
+
+	// storage for model parameters and the candidate parameters
+	double param[] = new double[0];
+	double candidate[] = new double[0];
+	double step[] = new double[0];
+	// storage for residuals
+	double residuals[] = new double[0];
+	double candidateResiduals[] = new double[0];
+	// non-zero blocks in the Jacobian
+	double viewBlocks[] = new double[0];
+	double pointBlocks[] = new double[0];
+
+	int maxIterations;
+	double convergenceTol;
+
+	// number of iterations in the previous call to process
+	int iterations;
+
+	public BundleAdjustmentCalibratedSparse(double convergenceTol,
+											int maxIterations ) {
+		this.convergenceTol = convergenceTol;
+		this.maxIterations = maxIterations;
+	}
+
+	@Override
+	public boolean process(CalibratedPoseAndPoint initialModel,
+						   List<ViewPointObservations> observations)
+	{
+		int numViews = initialModel.getNumViews();
+		int numPoints = initialModel.getNumPoints();
+		int numViewsUnknown = initialModel.getNumUnknownViews();
+		boolean known[] = initialModel.getKnownArray();
+
+		codec.configure(numViews,numPoints,numViewsUnknown,known);
+
+		Se3_F64 extrinsic[] = new Se3_F64[numViews];
+		for( int i = 0; i < extrinsic.length; i++ ) {
+			if( known[i]) {
+				extrinsic[i] = initialModel.getWorldToCamera(i).copy();
+			}
+		}
+
+		func.configure(codec,initialModel,observations);
+		jacobian.configure(observations,numPoints,extrinsic);
+		schur.configure(known,observations,numPoints);
+
+		declareStorage(codec.getParamLength(), jacobian.getNumObservations());
+
+		codec.encode(initialModel,param);
+		func.process(param,residuals);
+		double cost = computeCost(residuals);
+
+		double lambda = INITIAL_LAMBDA;
+		int N = codec.getParamLength();
+
+		for( iterations = 0; iterations < maxIterations; iterations++ ) {
+			jacobian.process(param,viewBlocks,pointBlocks);
+			schur.computeNormal(viewBlocks,pointBlocks,residuals);
+
+			if( schur.getGradientNormInf() <= convergenceTol )
+				break;
+
+			boolean converged = false;
+			while( true ) {
+				if( !schur.computeStep(lambda,step) ) {
+					lambda *= 10;
+				} else {
+					for( int i = 0; i < N; i++ ) {
+						candidate[i] = param[i] + step[i];
+					}
+					func.process(candidate,candidateResiduals);
+					double candidateCost = computeCost(candidateResiduals);
+
+					if( candidateCost < cost ) {
+						converged = cost - candidateCost <= convergenceTol*cost;
+						cost = candidateCost;
+
+						double tmp[] = param; param = candidate; candidate = tmp;
+						tmp = residuals; residuals = candidateResiduals; candidateResiduals = tmp;
+
+						lambda = Math.max(1e-12,lambda/10);
+						break;
+					}
+					lambda *= 10;
+				}
+
+				if( lambda > MAX_LAMBDA ) {
+					converged = true;
+					break;
+				}
+			}
+
+			if( converged )
+				break;
+		}
+
+		codec.decode(param, initialModel);
+
+		return true;
+	}
+
+	private void declareStorage( int numParam , int numObservations ) {
+		if( param.length < numParam ) {
+			param = new double[numParam];
+			candidate = new double[numParam];
+			step = new double[numParam];
+		}
+		if( residuals.length < numObservations*2 ) {
+			residuals = new double[numObservations*2];
+			candidateResiduals = new double[numObservations*2];
+			viewBlocks = new double[numObservations*12];
+			pointBlocks = new double[numObservations*6];
+		}
+	}
+
+	private double computeCost( double[] residuals ) {
+		int M = func.getNumOfOutputsM();
+		double total = 0;
+		for( int i = 0; i < M; i++ ) {
+			total += residuals[i]*residuals[i];
+		}
+		return total;
+	}
+
+	/**
+	 * Number of iterations in the previous call to process
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+}
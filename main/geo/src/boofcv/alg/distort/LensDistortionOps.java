@@ -107,6 +107,46 @@ public class LensDistortionOps {
 		return distort;
 	}
 
+	/**
+	 * <p>
+	 * Creates a {@link RemapTable} which will remove the lens distortion.  The table can be applied to
+	 * gray scale, planar, and interleaved images by {@link RemapImageOps}, and shared between threads.
+	 * Pixels outside the distorted image are handled the same as {@link BorderType#EXTENDED}.  To reuse
+	 * tables across image streams see {@link LensRemapCache}.
+	 * </p>
+	 *
+	 * @param type The type of adjustment it will do
+	 * @param param Original intrinsic parameters.
+	 * @param paramAdj (output) Intrinsic parameters which reflect the undistorted image.  Can be null.
+	 * @param compact If true the table will save integer coordinates as shorts
+	 * @return Table which removes lens distortion
+	 */
+	public static RemapTable remapRemoveDistortion(AdjustmentType type,
+												   IntrinsicParameters param, IntrinsicParameters paramAdj,
+												   boolean compact)
+	{
+		PointTransform_F32 undistToDist;
+		switch( type ) {
+			case EXPAND:
+			case FULL_VIEW:
+				undistToDist = transform_F32(type, param, paramAdj, true);
+				break;
+
+			case NONE:
+				undistToDist = transformPoint(param).distort_F32(true, true);
+				// the undistorted image has the same calibration matrix
+				if( paramAdj != null )
+					paramAdj.fsetK(param.fx, param.fy, param.skew, param.cx, param.cy, param.width, param.height);
+				break;
+
+			default:
+				throw new IllegalArgumentException("Unsupported type "+type);
+		}
+
+		return new RemapTable(new PointToPixelTransform_F32(undistToDist),
+				param.width, param.height, param.width, param.height, compact);
+	}
+
 	/**
 	 * Creates a {@link PointTransform_F32} for adding and removing lens distortion.
 	 *
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.struct.calib.IntrinsicParameters;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Bounded cache of {@link RemapTable tables} which remove lens distortion.  Tables are looked up by camera
+ * model, which includes the image shape, the type of adjustment, and if the table is compact.  When the
+ * cache is full the least recently used table is discarded.  Tables are immutable, so the same table is
+ * returned to every thread which requests it.  Several cameras which share the same model, or the same
+ * camera opened several times, will only compute the table once.
+ * </p>
+ *
+ * <p>
+ * All functions are thread safe.  A missing table is computed without holding the lock so that threads
+ * looking up other cameras are not blocked.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LensRemapCache {
+
+	// maximum number of tables in the cache
+	private final int maxTables;
+
+	// tables ordered from least to most recently used
+	private final LinkedHashMap<Key,Entry> tables;
+
+	/**
+	 * Creates a cache
+	 *
+	 * @param maxTables Maximum number of tables in the cache.  Must be &ge; 1.
+	 */
+	public LensRemapCache( final int maxTables ) {
+		if( maxTables < 1 )
+			throw new IllegalArgumentException("The cache must be able to hold at least one table");
+		this.maxTables = maxTables;
+		this.tables = new LinkedHashMap<Key,Entry>(16,0.75f,true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key,Entry> eldest) {
+				return size() > LensRemapCache.this.maxTables;
+			}
+		};
+	}
+
+	/**
+	 * Returns a table which removes lens distortion, computing it if it's not in the cache.
+	 *
+	 * @see LensDistortionOps#remapRemoveDistortion
+	 *
+	 * @param type The type of adjustment it will do
+	 * @param param Original intrinsic parameters.  A copy is saved.
+	 * @param paramAdj (output) Intrinsic parameters which reflect the undistorted image.  Can be null.
+	 * @param compact If true the table will save integer coordinates as shorts
+	 * @return Table which removes lens distortion
+	 */
+	public RemapTable removeDistortion( AdjustmentType type , IntrinsicParameters param ,
+										IntrinsicParameters paramAdj , boolean compact ) {
+		Key key = new Key(type, param, compact);
+
+		Entry entry;
+		synchronized (tables) {
+			entry = tables.get(key);
+		}
+
+		if( entry == null ) {
+			IntrinsicParameters adjusted = new IntrinsicParameters();
+			RemapTable table = LensDistortionOps.remapRemoveDistortion(type, param, adjusted, compact);
+
+			synchronized (tables) {
+				// another thread might have computed it first.  Return its table so they're all the same
+				Entry found = tables.get(key);
+				if( found == null ) {
+					entry = new Entry(table, adjusted);
+					tables.put(key, entry);
+				} else {
+					entry = found;
+				}
+			}
+		}
+
+		if( paramAdj != null )
+			paramAdj.set(entry.paramAdj);
+
+		return entry.table;
+	}
+
+	/**
+	 * Number of tables in the cache
+	 */
+	public int size() {
+		synchronized (tables) {
+			return tables.size();
+		}
+	}
+
+	/**
+	 * Removes all the tables from the cache
+	 */
+	public void clear() {
+		synchronized (tables) {
+			tables.clear();
+		}
+	}
+
+	public int getMaxTables() {
+		return maxTables;
+	}
+
+	/**
+	 * Table and the intrinsic parameters of the undistorted image
+	 */
+	private static class Entry {
+		RemapTable table;
+		IntrinsicParameters paramAdj;
+
+		Entry(RemapTable table, IntrinsicParameters paramAdj) {
+			this.table = table;
+			this.paramAdj = paramAdj;
+		}
+	}
+
+	/**
+	 * Copy of everything which determines the contents of a table
+	 */
+	private static class Key {
+		AdjustmentType type;
+		boolean compact;
+		int width, height;
+		// fx, fy, skew, cx, cy, t1, t2
+		double values[];
+		double radial[];
+
+		Key(AdjustmentType type, IntrinsicParameters param, boolean compact) {
+			this.type = type;
+			this.compact = compact;
+			this.width = param.width;
+			this.height = param.height;
+			this.values = new double[]{param.fx, param.fy, param.skew, param.cx, param.cy, param.t1, param.t2};
+			this.radial = param.radial == null ? null : param.radial.clone();
+		}
+
+		/**
+		 * Doubles are compared the same way as {@link #hashCode()} so that 0.0 and -0.0 are different keys
+		 */
+		@Override
+		public boolean equals(Object o) {
+			if( !(o instanceof Key) )
+				return false;
+			Key k = (Key)o;
+			return type == k.type && compact == k.compact && width == k.width && height == k.height &&
+					Arrays.equals(values, k.values) && Arrays.equals(radial, k.radial);
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = type.hashCode();
+			hash = 31*hash + (compact ? 1 : 0);
+			hash = 31*hash + width;
+			hash = 31*hash + height;
+			hash = 31*hash + Arrays.hashCode(values);
+			hash = 31*hash + Arrays.hashCode(radial);
+			return hash;
+		}
+	}
+}
@@ -0,0 +1,379 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.factory.LinearSolverFactory;
+import org.ejml.interfaces.linsol.LinearSolver;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * Computes a damped Gauss-Newton (Levenberg-Marquardt) step for bundle adjustment using the Schur complement.
+ * The normal equations have the following block structure:
+ * </p>
+ * <pre>
+ * [ U   W ] [ da ]    [ ga ]
+ * [ W'  V ] [ db ] = -[ gb ]
+ * </pre>
+ * <p>
+ * where 'a' are the view parameters and 'b' are the point parameters.  V is block diagonal with a 3x3 block
+ * for each point, so the point parameters are eliminated and the much smaller reduced camera system is solved:
+ * </p>
+ * <pre>
+ * (U - W*inv(V)*W')*da = -ga + W*inv(V)*gb
+ * db = inv(V)*(-gb - W'*da)
+ * </pre>
+ * <p>
+ * Only the non-zero blocks of the normal equations are computed and stored.  The reduced camera system has
+ * 6 rows for each view with unknown extrinsic parameters and is solved using a Cholesky decomposition.
+ * Views are typically several orders of magnitude less numerous than points.
+ * </p>
+ *
+ * <p>
+ * Damping is applied to the diagonal elements of U and V: d &rarr; d + &lambda;*d, where d is clamped to
+ * a minimum value so that parameters with no information are still constrained.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CalibPoseAndPointSchurStep {
+
+	// minimum value of a diagonal element when computing the damping
+	public static final double MIN_DIAGONAL = 1e-6;
+
+	// number of views with unknown extrinsic parameters
+	int numViewsUnknown;
+	// number of points
+	int numPoints;
+	// number of observations
+	int numObservations;
+
+	// index of the unknown view each observation belongs to.  -1 if the view is known
+	int obsView[] = new int[0];
+	// index of the point in each observation
+	int obsPoint[] = new int[0];
+	// observations of each point.  Observations of point 'i' are from pointObsStart[i] to pointObsStart[i+1]
+	int pointObsStart[] = new int[0];
+	int pointObs[] = new int[0];
+
+	// diagonal blocks of the normal equations for views and their gradient
+	double U[] = new double[0];
+	double ga[] = new double[0];
+	// diagonal blocks of the normal equations for points and their gradient
+	double V[] = new double[0];
+	double gb[] = new double[0];
+	// off diagonal block for each observation
+	double W[] = new double[0];
+
+	// storage for inv(V) of a point and W*inv(V) for each of its observations
+	double Vinv[] = new double[9];
+	double Y[] = new double[0];
+
+	// reduced camera system
+	DenseMatrix64F S = new DenseMatrix64F(1,1);
+	DenseMatrix64F b = new DenseMatrix64F(1,1);
+	DenseMatrix64F x = new DenseMatrix64F(1,1);
+	LinearSolver<DenseMatrix64F> solver;
+
+	/**
+	 * Specifies the structure of the problem.
+	 *
+	 * @param knownView Which views have known extrinsic parameters
+	 * @param observations Observations in each view
+	 * @param numPoints Number of points
+	 */
+	public void configure( boolean knownView[] , List<ViewPointObservations> observations , int numPoints ) {
+		int numViews = observations.size();
+		this.numPoints = numPoints;
+
+		numViewsUnknown = 0;
+		numObservations = 0;
+		for( int i = 0; i < numViews; i++ ) {
+			if( !knownView[i] )
+				numViewsUnknown++;
+			numObservations += observations.get(i).points.size;
+		}
+
+		if( obsView.length < numObservations ) {
+			obsView = new int[numObservations];
+			obsPoint = new int[numObservations];
+			pointObs = new int[numObservations];
+			W = new double[numObservations*18];
+			Y = new double[numObservations*18];
+		}
+		if( pointObsStart.length < numPoints+1 ) {
+			pointObsStart = new int[numPoints+1];
+			V = new double[numPoints*9];
+			gb = new double[numPoints*3];
+		}
+		if( U.length < numViewsUnknown*36 ) {
+			U = new double[numViewsUnknown*36];
+			ga = new double[numViewsUnknown*6];
+		}
+
+		int N = numViewsUnknown*6;
+		S.reshape(N,N);
+		b.reshape(N,1);
+		x.reshape(N,1);
+		solver = LinearSolverFactory.symmPosDef(Math.max(1,N));
+
+		// index observations by point using a counting sort
+		Arrays.fill(pointObsStart,0,numPoints+1,0);
+		int indexObs = 0;
+		int indexUnknown = 0;
+		for( int i = 0; i < numViews; i++ ) {
+			ViewPointObservations v = observations.get(i);
+			int view = knownView[i] ? -1 : indexUnknown++;
+			for( int j = 0; j < v.points.size; j++ , indexObs++ ) {
+				int point = v.points.get(j).pointIndex;
+				obsView[indexObs] = view;
+				obsPoint[indexObs] = point;
+				pointObsStart[point+1]++;
+			}
+		}
+		for( int i = 0; i < numPoints; i++ ) {
+			pointObsStart[i+1] += pointObsStart[i];
+		}
+		int fill[] = Arrays.copyOf(pointObsStart,numPoints);
+		for( int i = 0; i < numObservations; i++ ) {
+			pointObs[fill[obsPoint[i]]++] = i;
+		}
+	}
+
+	/**
+	 * Computes the undamped blocks of the normal equations and the gradient.
+	 *
+	 * @param viewBlocks Jacobian of view parameters.  See {@link CalibPoseAndPointRodriguesBlockJacobian}
+	 * @param pointBlocks Jacobian of point parameters.  See {@link CalibPoseAndPointRodriguesBlockJacobian}
+	 * @param residuals Residuals.  See {@link CalibPoseAndPointResiduals}
+	 */
+	public void computeNormal( double[] viewBlocks , double[] pointBlocks , double[] residuals ) {
+		Arrays.fill(U,0,numViewsUnknown*36,0);
+		Arrays.fill(ga,0,numViewsUnknown*6,0);
+		Arrays.fill(V,0,numPoints*9,0);
+		Arrays.fill(gb,0,numPoints*3,0);
+
+		for( int k = 0; k < numObservations; k++ ) {
+			double r0 = residuals[k*2];
+			double r1 = residuals[k*2+1];
+
+			// V += B'*B and gb += B'*r
+			int indexB = k*6;
+			int indexV = obsPoint[k]*9;
+			int indexGB = obsPoint[k]*3;
+			for( int i = 0; i < 3; i++ ) {
+				double b0 = pointBlocks[indexB+i];
+				double b1 = pointBlocks[indexB+3+i];
+				for( int j = 0; j < 3; j++ ) {
+					V[indexV+i*3+j] += b0*pointBlocks[indexB+j] + b1*pointBlocks[indexB+3+j];
+				}
+				gb[indexGB+i] += b0*r0 + b1*r1;
+			}
+
+			int view = obsView[k];
+			if( view < 0 )
+				continue;
+
+			// U += A'*A , ga += A'*r, and W = A'*B
+			int indexA = k*12;
+			int indexU = view*36;
+			int indexGA = view*6;
+			int indexW = k*18;
+			for( int i = 0; i < 6; i++ ) {
+				double a0 = viewBlocks[indexA+i];
+				double a1 = viewBlocks[indexA+6+i];
+				for( int j = 0; j < 6; j++ ) {
+					U[indexU+i*6+j] += a0*viewBlocks[indexA+j] + a1*viewBlocks[indexA+6+j];
+				}
+				for( int j = 0; j < 3; j++ ) {
+					W[indexW+i*3+j] = a0*pointBlocks[indexB+j] + a1*pointBlocks[indexB+3+j];
+				}
+				ga[indexGA+i] += a0*r0 + a1*r1;
+			}
+		}
+	}
+
+	/**
+	 * Returns the largest absolute value of an element in the gradient
+	 */
+	public double getGradientNormInf() {
+		double max = 0;
+		for( int i = 0; i < numViewsUnknown*6; i++ ) {
+			max = Math.max(max,Math.abs(ga[i]));
+		}
+		for( int i = 0; i < numPoints*3; i++ ) {
+			max = Math.max(max,Math.abs(gb[i]));
+		}
+		return max;
+	}
+
+	/**
+	 * Computes the damped step using the normal equations from the last call to
+	 * {@link #computeNormal(double[], double[], double[])}.
+	 *
+	 * @param lambda Damping parameter.  &ge; 0
+	 * @param step (Output) change in parameters.  Same order as {@link CalibPoseAndPointRodriguesCodec}.
+	 * @return true if successful or false if the reduced camera system could not be solved
+	 */
+	public boolean computeStep( double lambda , double[] step ) {
+		int N = numViewsUnknown*6;
+
+		// S = damped U and b = -ga
+		S.zero();
+		for( int view = 0; view < numViewsUnknown; view++ ) {
+			int indexU = view*36;
+			int row0 = view*6;
+			for( int i = 0; i < 6; i++ ) {
+				for( int j = 0; j < 6; j++ ) {
+					S.data[(row0+i)*N + row0+j] = U[indexU+i*6+j];
+				}
+				S.data[(row0+i)*N + row0+i] += lambda*Math.max(MIN_DIAGONAL,U[indexU+i*7]);
+				b.data[row0+i] = -ga[view*6+i];
+			}
+		}
+
+		// eliminate the points
+		for( int point = 0; point < numPoints; point++ ) {
+			if( !invertDampedV(point, lambda) )
+				return false;
+
+			int start = pointObsStart[point];
+			int end = pointObsStart[point+1];
+			double gb0 = gb[point*3], gb1 = gb[point*3+1], gb2 = gb[point*3+2];
+
+			// Y = W*inv(V) and b += Y*gb
+			for( int idx = start; idx < end; idx++ ) {
+				int k = pointObs[idx];
+				int view = obsView[k];
+				if( view < 0 )
+					continue;
+				int indexW = k*18;
+				for( int i = 0; i < 6; i++ ) {
+					double w0 = W[indexW+i*3], w1 = W[indexW+i*3+1], w2 = W[indexW+i*3+2];
+					double y0 = w0*Vinv[0] + w1*Vinv[3] + w2*Vinv[6];
+					double y1 = w0*Vinv[1] + w1*Vinv[4] + w2*Vinv[7];
+					double y2 = w0*Vinv[2] + w1*Vinv[5] + w2*Vinv[8];
+					Y[indexW+i*3] = y0;
+					Y[indexW+i*3+1] = y1;
+					Y[indexW+i*3+2] = y2;
+					b.data[view*6+i] += y0*gb0 + y1*gb1 + y2*gb2;
+				}
+			}
+
+			// S -= Y*W' for every pair of views which observe this point
+			for( int idxA = start; idxA < end; idxA++ ) {
+				int kA = pointObs[idxA];
+				int viewA = obsView[kA];
+				if( viewA < 0 )
+					continue;
+				int indexY = kA*18;
+				for( int idxB = start; idxB < end; idxB++ ) {
+					int kB = pointObs[idxB];
+					int viewB = obsView[kB];
+					if( viewB < 0 )
+						continue;
+					int indexW = kB*18;
+					for( int i = 0; i < 6; i++ ) {
+						double y0 = Y[indexY+i*3], y1 = Y[indexY+i*3+1], y2 = Y[indexY+i*3+2];
+						int indexS = (viewA*6+i)*N + viewB*6;
+						for( int j = 0; j < 6; j++ ) {
+							S.data[indexS+j] -= y0*W[indexW+j*3] + y1*W[indexW+j*3+1] + y2*W[indexW+j*3+2];
+						}
+					}
+				}
+			}
+		}
+
+		// solve for the view parameters
+		if( N > 0 ) {
+			if( !solver.setA(S) )
+				return false;
+			solver.solve(b,x);
+			System.arraycopy(x.data,0,step,0,N);
+		}
+
+		// back substitute to find the point parameters
+		for( int point = 0; point < numPoints; point++ ) {
+			invertDampedV(point, lambda);
+
+			double t0 = -gb[point*3], t1 = -gb[point*3+1], t2 = -gb[point*3+2];
+			for( int idx = pointObsStart[point]; idx < pointObsStart[point+1]; idx++ ) {
+				int k = pointObs[idx];
+				int view = obsView[k];
+				if( view < 0 )
+					continue;
+				int indexW = k*18;
+				for( int i = 0; i < 6; i++ ) {
+					double da = step[view*6+i];
+					t0 -= W[indexW+i*3]*da;
+					t1 -= W[indexW+i*3+1]*da;
+					t2 -= W[indexW+i*3+2]*da;
+				}
+			}
+
+			int indexStep = N + point*3;
+			step[indexStep  ] = Vinv[0]*t0 + Vinv[1]*t1 + Vinv[2]*t2;
+			step[indexStep+1] = Vinv[3]*t0 + Vinv[4]*t1 + Vinv[5]*t2;
+			step[indexStep+2] = Vinv[6]*t0 + Vinv[7]*t1 + Vinv[8]*t2;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Inverts the damped 3x3 block of a point and stores the results in Vinv
+	 */
+	private boolean invertDampedV( int point , double lambda ) {
+		int i = point*9;
+		double a11 = V[i  ] + lambda*Math.max(MIN_DIAGONAL,V[i]);
+		double a12 = V[i+1], a13 = V[i+2];
+		double a21 = V[i+3];
+		double a22 = V[i+4] + lambda*Math.max(MIN_DIAGONAL,V[i+4]);
+		double a23 = V[i+5];
+		double a31 = V[i+6], a32 = V[i+7];
+		double a33 = V[i+8] + lambda*Math.max(MIN_DIAGONAL,V[i+8]);
+
+		double c11 = a22*a33 - a23*a32;
+		double c12 = -(a21*a33 - a23*a31);
+		double c13 = a21*a32 - a22*a31;
+
+		double det = a11*c11 + a12*c12 + a13*c13;
+		if( det == 0 || Double.isNaN(det) || Double.isInfinite(det) )
+			return false;
+
+		Vinv[0] = c11/det;
+		Vinv[1] = -(a12*a33 - a13*a32)/det;
+		Vinv[2] = (a12*a23 - a13*a22)/det;
+		Vinv[3] = c12/det;
+		Vinv[4] = (a11*a33 - a13*a31)/det;
+		Vinv[5] = -(a11*a23 - a13*a21)/det;
+		Vinv[6] = c13/det;
+		Vinv[7] = -(a11*a32 - a12*a31)/det;
+		Vinv[8] = (a11*a22 - a12*a21)/det;
+
+		return true;
+	}
+
+	public int getNumParameters() {
+		return numViewsUnknown*6 + numPoints*3;
+	}
+}
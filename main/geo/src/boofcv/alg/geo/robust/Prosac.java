@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.robust;
+
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * PROgressive SAmple Consensus (PROSAC) [1].  Like RANSAC, but the input points must be sorted by the quality
+ * of the match, with the best match first.  Samples are initially drawn from a small set of the best matches,
+ * which is slowly grown until it contains all the points.  When the quality of a match is correlated with it
+ * being an inlier, a good model is found in far fewer iterations than RANSAC.  When they are not correlated,
+ * it behaves like RANSAC.  For associated features the matches can be sorted using their fit score.
+ * </p>
+ *
+ * <p>
+ * Hypotheses are scored against all the points.  Iterations stop once the probability of having missed a model
+ * with more inliers inside of a set of the best matches is less than 1 - confidence (maximality) and the number
+ * of inliers in that set is unlikely to be caused by chance (non-randomness).  A normal approximation to the
+ * binomial distribution is used for the non-randomness test.
+ * </p>
+ *
+ * <p>
+ * [1] Chum, Ondrej, and Jiri Matas. "Matching with PROSAC-progressive sample consensus." CVPR 2005.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Prosac<Model,Point> implements ModelMatcher<Model,Point> {
+
+	// used to create and copy models
+	ModelManager<Model> manager;
+	ModelGenerator<Model,Point> generator;
+	DistanceFromModel<Model,Point> distance;
+
+	Random rand;
+
+	// maximum number of iterations
+	int maxIterations;
+	// if the distance of a point is less than this it's an inlier
+	double thresholdFit;
+	// number of points in a sample
+	int sampleSize;
+
+	// probability that a model with more inliers has not been missed
+	double confidence = 0.99;
+	// probability that a point is consistent with an incorrect model
+	double beta = 0.05;
+	// standard deviations above the mean for a set of inliers to not be random. 1.645 = 5% chance
+	double nonRandomSigma = 1.645;
+	// number of samples after which PROSAC draws samples just like RANSAC
+	double growthMaxSamples = 200000;
+	// the smallest set of best matches which is considered when checking for termination
+	int minTerminationLength = 20;
+
+	// number of iterations in the last call to process
+	int iterations;
+
+	// storage for the sample
+	List<Point> sample = new ArrayList<Point>();
+	GrowQueue_I32 sampleIndexes = new GrowQueue_I32();
+
+	Model candidate;
+	GrowQueue_I32 candidateInliers = new GrowQueue_I32();
+
+	Model bestModel;
+	GrowQueue_I32 bestInliers = new GrowQueue_I32();
+	List<Point> bestMatchSet = new ArrayList<Point>();
+
+	public Prosac(long randSeed, ModelManager<Model> manager,
+				  ModelGenerator<Model,Point> generator,
+				  DistanceFromModel<Model,Point> distance,
+				  int maxIterations, double thresholdFit) {
+		this.rand = new Random(randSeed);
+		this.manager = manager;
+		this.generator = generator;
+		this.distance = distance;
+		this.maxIterations = maxIterations;
+		this.thresholdFit = thresholdFit;
+
+		sampleSize = generator.getMinimumPoints();
+		candidate = manager.createModelInstance();
+		bestModel = manager.createModelInstance();
+	}
+
+	/**
+	 * Finds the model with the most inliers
+	 *
+	 * @param points Points sorted by quality of the match.  Best match is first.
+	 * @return true if a model was found
+	 */
+	@Override
+	public boolean process(List<Point> points) {
+		bestInliers.reset();
+		bestMatchSet.clear();
+		iterations = 0;
+
+		final int N = points.size();
+		final int m = sampleSize;
+		if( N < m )
+			return false;
+
+		// size of the set samples are drawn from and the growth function
+		int n = m;
+		double Tn = growthMaxSamples;
+		for( int i = 0; i < m; i++ ) {
+			Tn *= (n-i)/(double)(N-i);
+		}
+		int TnPrime = 1;
+
+		// termination conditions
+		int nStar = N;
+		int stopIterations = maxIterations;
+
+		for( int t = 1; t <= stopIterations; t++ ) {
+			iterations = t;
+
+			// grow the set of points samples are drawn from
+			if( t == TnPrime && n < nStar ) {
+				double TnNext = Tn*(n+1)/(double)(n+1-m);
+				TnPrime += (int)Math.ceil(TnNext-Tn);
+				Tn = TnNext;
+				n++;
+			}
+
+			// the newest point is always included until the schedule says otherwise
+			if( TnPrime < t ) {
+				drawSample(points, n, -1);
+			} else {
+				drawSample(points, n-1, n-1);
+			}
+
+			if( !generator.generate(sample,candidate) )
+				continue;
+
+			if( !scoreHypothesis(points) )
+				continue;
+
+			GrowQueue_I32 tmp = bestInliers;
+			bestInliers = candidateInliers;
+			candidateInliers = tmp;
+			manager.copyModel(candidate,bestModel);
+
+			if( bestInliers.size == N )
+				break;
+
+			// see if the new model changes when it should stop
+			int found[] = selectTermination(N);
+			if( found != null ) {
+				nStar = found[0];
+				stopIterations = Math.min(maxIterations,Math.max(t,found[1]));
+			}
+		}
+
+		for( int i = 0; i < bestInliers.size; i++ ) {
+			bestMatchSet.add(points.get(bestInliers.data[i]));
+		}
+
+		return bestInliers.size > 0;
+	}
+
+	/**
+	 * Randomly draws a sample without replacement
+	 *
+	 * @param limit Points are selected from 0 to limit-1
+	 * @param required If not -1, then this point is always in the sample
+	 */
+	private void drawSample( List<Point> points , int limit , int required ) {
+		sampleIndexes.reset();
+		if( required >= 0 )
+			sampleIndexes.add(required);
+
+		while( sampleIndexes.size < sampleSize ) {
+			int index = rand.nextInt(limit);
+			boolean duplicate = false;
+			for( int i = 0; i < sampleIndexes.size; i++ ) {
+				if( sampleIndexes.data[i] == index ) {
+					duplicate = true;
+					break;
+				}
+			}
+			if( !duplicate )
+				sampleIndexes.add(index);
+		}
+
+		sample.clear();
+		for( int i = 0; i < sampleSize; i++ ) {
+			sample.add(points.get(sampleIndexes.data[i]));
+		}
+	}
+
+	/**
+	 * Finds the inliers of the candidate model.  Scoring stops once it can't have more inliers than the best model.
+	 *
+	 * @return true if it has more inliers than the best model
+	 */
+	private boolean scoreHypothesis( List<Point> points ) {
+		candidateInliers.reset();
+		distance.setModel(candidate);
+
+		final int N = points.size();
+		for( int i = 0; i < N; i++ ) {
+			if( distance.computeDistance(points.get(i)) < thresholdFit ) {
+				candidateInliers.add(i);
+			}
+			if( candidateInliers.size + (N-i-1) <= bestInliers.size )
+				return false;
+		}
+		return candidateInliers.size > bestInliers.size;
+	}
+
+	/**
+	 * Searches for the set of best matches which requires the fewest iterations to be confident that the best
+	 * model has been found in it.  Sets with inlier counts which could be caused by chance are skipped.
+	 *
+	 * @return [n*, iterations] or null if no set passed the non-randomness test
+	 */
+	int[] selectTermination( int N ) {
+		final int m = sampleSize;
+		int best[] = null;
+		double bestK = Double.MAX_VALUE;
+
+		// number of inliers in the first n points
+		int In = 0;
+		int indexInlier = 0;
+		for( int n = 1; n <= N; n++ ) {
+			if( indexInlier < bestInliers.size && bestInliers.data[indexInlier] == n-1 ) {
+				In++;
+				indexInlier++;
+			}
+
+			if( n < Math.max(m+1,minTerminationLength) )
+				continue;
+
+			// non-randomness
+			double mean = beta*(n-m);
+			double sigma = Math.sqrt(beta*(1.0-beta)*(n-m));
+			if( In < m + mean + nonRandomSigma*sigma )
+				continue;
+
+			// maximality
+			double k = requiredIterations(In,n);
+			if( k < bestK ) {
+				bestK = k;
+				best = new int[]{n,(int)Math.min(Integer.MAX_VALUE,Math.ceil(k))};
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Number of samples needed to draw at least one sample with only inliers from the first n points
+	 *
+	 * @param In Number of inliers in the first n points
+	 */
+	double requiredIterations( int In , int n ) {
+		double P = 1;
+		for( int j = 0; j < sampleSize; j++ ) {
+			P *= (In-j)/(double)(n-j);
+		}
+		if( P >= 1 )
+			return 0;
+		if( P <= 0 )
+			return Double.MAX_VALUE;
+		return Math.log(1.0-confidence)/Math.log(1.0-P);
+	}
+
+	@Override
+	public Model getModelParameters() {
+		return bestModel;
+	}
+
+	@Override
+	public List<Point> getMatchSet() {
+		return bestMatchSet;
+	}
+
+	@Override
+	public int getInputIndex(int matchIndex) {
+		return bestInliers.get(matchIndex);
+	}
+
+	@Override
+	public double getFitQuality() {
+		return bestInliers.size;
+	}
+
+	@Override
+	public int getMinimumSize() {
+		return sampleSize;
+	}
+
+	/**
+	 * Number of iterations in the last call to process
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	public double getThresholdFit() {
+		return thresholdFit;
+	}
+
+	public void setThresholdFit(double thresholdFit) {
+		this.thresholdFit = thresholdFit;
+	}
+
+	public double getConfidence() {
+		return confidence;
+	}
+
+	public void setConfidence(double confidence) {
+		this.confidence = confidence;
+	}
+
+	public double getBeta() {
+		return beta;
+	}
+
+	public void setBeta(double beta) {
+		this.beta = beta;
+	}
+
+	public int getMinTerminationLength() {
+		return minTerminationLength;
+	}
+
+	public void setMinTerminationLength(int minTerminationLength) {
+		this.minTerminationLength = minTerminationLength;
+	}
+}
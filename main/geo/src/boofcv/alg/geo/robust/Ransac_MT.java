@@ -0,0 +1,419 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.robust;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * RANSAC which generates and scores hypotheses concurrently.  Hypotheses are processed in batches of
+ * a fixed size.  Each batch is split into blocks of contiguous hypotheses and each block has its own copy of the
+ * {@link ModelGenerator} and {@link DistanceFromModel}.  Samples are drawn from a single random number generator
+ * before the batch is processed and ties are resolved in favor of the earlier hypothesis, so the results do not
+ * depend on the number of threads.
+ * </p>
+ *
+ * <p>
+ * Scoring of a hypothesis stops once it can't have more inliers than the best model found in a previous batch.
+ * This doesn't change the results.  Optionally, the Sequential Probability Ratio Test (SPRT) [1] can be used
+ * to reject a hypothesis after only a few points have been checked.  After each point the likelihood ratio of
+ * the hypothesis being bad is updated and if it exceeds a threshold A the hypothesis is rejected.  The probability
+ * of a point being an inlier to a bad model (&delta;) is estimated from rejected hypotheses and the probability of
+ * it being an inlier to a good model (&epsilon;) from the best model so far.  SPRT is much faster when there are
+ * many points but will occasionally reject a good model.
+ * </p>
+ *
+ * <p>
+ * [1] Chum, Ondrej, and Jiri Matas. "Optimal randomized RANSAC." IEEE Transactions on Pattern Analysis and
+ * Machine Intelligence 30.8 (2008): 1472-1482.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Ransac_MT<Model,Point> implements ModelMatcher<Model,Point> {
+
+	/**
+	 * Minimum number of hypotheses processed by a thread
+	 */
+	public static int MIN_HYPOTHESES = 2;
+
+	// used to create and copy models
+	ModelManager<Model> manager;
+
+	// storage for each block
+	FastQueue<BlockStorage> blocks;
+
+	// random number generator used to select samples
+	Random rand;
+
+	// maximum number of hypotheses it will consider
+	int maxIterations;
+	// number of hypotheses in each batch
+	int batchSize = 32;
+	// maximum number of threads
+	int maxThreads;
+
+	// if the distance of a point is less than this it's an inlier
+	double thresholdFit;
+	// number of points needed to generate a model
+	int sampleSize;
+
+	// If true then SPRT is used to reject hypotheses early
+	boolean sprt;
+	// time to generate a hypothesis relative to scoring a single point
+	double sprtTimeModel = 200;
+	// initial estimates of SPRT parameters
+	double sprtInitialEpsilon = 0.1;
+	double sprtInitialDelta = 0.01;
+	// current SPRT parameters
+	double epsilon, delta, thresholdA;
+
+	// input points
+	List<Point> points;
+	// indexes of samples for every hypothesis in the batch
+	int samples[] = new int[0];
+	// storage for drawing samples
+	GrowQueue_I32 shuffled = new GrowQueue_I32();
+
+	// best model found so far
+	Model bestModel;
+	// inliers of the best model
+	GrowQueue_I32 bestInliers = new GrowQueue_I32();
+	List<Point> bestMatchSet = new ArrayList<Point>();
+
+	/**
+	 * Configures RANSAC.
+	 *
+	 * @param randSeed Seed for the random number generator
+	 * @param manager Creates and copies models
+	 * @param generators Storage for the model generator used by each block.  Must declare new instances.
+	 * @param distances Storage for the distance function used by each block.  Must declare new instances.
+	 * @param maxIterations Maximum number of hypotheses it will generate
+	 * @param thresholdFit Points with a distance less than this are inliers
+	 * @param sprt If true then the Sequential Probability Ratio Test is used to reject hypotheses early
+	 * @param maxThreads Maximum number of threads it will use.  Also limited by
+	 * {@link BoofConcurrency#getMaxThreads()}.
+	 */
+	public Ransac_MT(long randSeed, final ModelManager<Model> manager,
+					 final FastQueue<ModelGenerator<Model,Point>> generators,
+					 final FastQueue<DistanceFromModel<Model,Point>> distances,
+					 int maxIterations, double thresholdFit , boolean sprt , int maxThreads ) {
+		if( !generators.isDeclareInstances() || !distances.isDeclareInstances() )
+			throw new IllegalArgumentException("The queues must declare new instances");
+
+		this.rand = new Random(randSeed);
+		this.manager = manager;
+		this.maxIterations = maxIterations;
+		this.thresholdFit = thresholdFit;
+		this.sprt = sprt;
+		this.maxThreads = maxThreads;
+
+		blocks = new FastQueue<BlockStorage>(1,(Class)BlockStorage.class,true) {
+			@Override
+			protected BlockStorage createInstance() {
+				BlockStorage b = new BlockStorage();
+				b.generator = generators.grow();
+				b.distance = distances.grow();
+				b.candidate = manager.createModelInstance();
+				b.best = manager.createModelInstance();
+				return b;
+			}
+		};
+		bestModel = manager.createModelInstance();
+		sampleSize = blocks.grow().generator.getMinimumPoints();
+	}
+
+	@Override
+	public boolean process(List<Point> points) {
+		bestInliers.reset();
+		bestMatchSet.clear();
+
+		if( points.size() < sampleSize )
+			return false;
+
+		this.points = points;
+		epsilon = sprtInitialEpsilon;
+		delta = sprtInitialDelta;
+		thresholdA = computeThresholdA(epsilon,delta);
+
+		shuffled.resize(points.size());
+		for (int i = 0; i < points.size(); i++) {
+			shuffled.data[i] = i;
+		}
+		if( samples.length < batchSize*sampleSize )
+			samples = new int[batchSize*sampleSize];
+
+		for( int iteration = 0; iteration < maxIterations && bestInliers.size != points.size(); ) {
+			final int N = Math.min(batchSize,maxIterations-iteration);
+
+			// samples are selected in the calling thread so that the results don't depend on the number of threads
+			for( int i = 0; i < N; i++ ) {
+				drawSample(i*sampleSize);
+			}
+
+			int numBlocks = Math.max(1,BoofConcurrency.computeNumBlocks(0,N,MIN_HYPOTHESES,maxThreads));
+			blocks.resize(numBlocks);
+
+			final int bestCount = bestInliers.size;
+			BoofConcurrency.loopBlocks(0,N,MIN_HYPOTHESES,maxThreads,new IntRangeTask() {
+				@Override
+				public void process(int block, int idx0, int idx1) {
+					processHypotheses(blocks.get(block),idx0,idx1,bestCount);
+				}
+			});
+
+			// select the best model in this batch.  Ties go to the earlier hypothesis
+			BlockStorage best = null;
+			int rejectedTested = 0, rejectedConsistent = 0;
+			for( int block = 0; block < blocks.size; block++ ) {
+				BlockStorage b = blocks.get(block);
+				rejectedTested += b.rejectedTested;
+				rejectedConsistent += b.rejectedConsistent;
+				if( b.bestInliers.size > bestInliers.size &&
+						(best == null || b.bestInliers.size > best.bestInliers.size) ) {
+					best = b;
+				}
+			}
+
+			if( best != null ) {
+				manager.copyModel(best.best,bestModel);
+				bestInliers.resize(best.bestInliers.size);
+				System.arraycopy(best.bestInliers.data,0,bestInliers.data,0,bestInliers.size);
+			}
+
+			if( sprt )
+				updateSprt(best != null, rejectedTested, rejectedConsistent);
+
+			iteration += N;
+		}
+
+		for( int i = 0; i < bestInliers.size; i++ ) {
+			bestMatchSet.add(points.get(bestInliers.data[i]));
+		}
+
+		return bestInliers.size > 0;
+	}
+
+	/**
+	 * Generates and scores the hypotheses in a block
+	 */
+	private void processHypotheses( BlockStorage b , int idx0 , int idx1 , int bestCount ) {
+		b.bestInliers.reset();
+		b.rejectedTested = 0;
+		b.rejectedConsistent = 0;
+
+		for( int hypothesis = idx0; hypothesis < idx1; hypothesis++ ) {
+			b.sample.clear();
+			for( int i = 0; i < sampleSize; i++ ) {
+				b.sample.add(points.get(samples[hypothesis*sampleSize+i]));
+			}
+
+			if( !b.generator.generate(b.sample,b.candidate) )
+				continue;
+
+			// Only the best model from previous batches is used to stop scoring early, that way how the batch
+			// is split into blocks has no influence on the results
+			if( scoreHypothesis(b,bestCount) && b.candidateInliers.size > b.bestInliers.size ) {
+				GrowQueue_I32 tmp = b.bestInliers;
+				b.bestInliers = b.candidateInliers;
+				b.candidateInliers = tmp;
+				manager.copyModel(b.candidate,b.best);
+			}
+		}
+	}
+
+	/**
+	 * Finds the inliers of the candidate model.  Scoring stops early if it can't have more than 'mustExceed'
+	 * inliers or if SPRT rejects it.
+	 *
+	 * @return true if it has more than 'mustExceed' inliers
+	 */
+	private boolean scoreHypothesis( BlockStorage b , int mustExceed ) {
+		GrowQueue_I32 inliers = b.candidateInliers;
+		inliers.reset();
+
+		b.distance.setModel(b.candidate);
+
+		final int N = points.size();
+		double likelihood = 1.0;
+		double ratioInlier = delta/epsilon;
+		double ratioOutlier = (1.0-delta)/(1.0-epsilon);
+
+		for( int i = 0; i < N; i++ ) {
+			if( b.distance.computeDistance(points.get(i)) < thresholdFit ) {
+				inliers.add(i);
+				likelihood *= ratioInlier;
+			} else {
+				likelihood *= ratioOutlier;
+			}
+
+			// not enough points remain for it to be the best
+			if( inliers.size + (N-i-1) <= mustExceed )
+				return false;
+
+			if( sprt && likelihood > thresholdA ) {
+				b.rejectedTested += i+1;
+				b.rejectedConsistent += inliers.size;
+				return false;
+			}
+		}
+		return inliers.size > mustExceed;
+	}
+
+	/**
+	 * Selects the points for a hypothesis using a partial Fisher-Yates shuffle
+	 */
+	private void drawSample( int offset ) {
+		int N = shuffled.size;
+		for( int i = 0; i < sampleSize; i++ ) {
+			int j = i + rand.nextInt(N-i);
+			int tmp = shuffled.data[i];
+			shuffled.data[i] = shuffled.data[j];
+			shuffled.data[j] = tmp;
+			samples[offset+i] = shuffled.data[i];
+		}
+	}
+
+	/**
+	 * Updates the SPRT parameters using the best model and hypotheses which were rejected in the last batch
+	 */
+	private void updateSprt( boolean foundBetter , int rejectedTested , int rejectedConsistent ) {
+		boolean changed = false;
+		if( foundBetter ) {
+			epsilon = Math.max(epsilon,bestInliers.size/(double)points.size());
+			changed = true;
+		}
+		if( rejectedTested > 0 ) {
+			double found = Math.max(1e-4,rejectedConsistent/(double)rejectedTested);
+			if( Math.abs(found-delta)/delta > 0.05 ) {
+				delta = found;
+				changed = true;
+			}
+		}
+		if( changed )
+			thresholdA = computeThresholdA(epsilon,delta);
+	}
+
+	/**
+	 * Computes the SPRT decision threshold.  If a good model is no more likely to have an inlier than a bad model
+	 * then SPRT is effectively turned off.
+	 */
+	double computeThresholdA( double epsilon , double delta ) {
+		if( epsilon <= delta || epsilon >= 1.0 )
+			return Double.MAX_VALUE;
+
+		double C = (1.0-delta)*Math.log((1.0-delta)/(1.0-epsilon)) + delta*Math.log(delta/epsilon);
+		double a = sprtTimeModel*C + 1.0;
+		double A = a;
+		for( int i = 0; i < 10; i++ ) {
+			A = a + Math.log(A);
+		}
+		return A;
+	}
+
+	@Override
+	public Model getModelParameters() {
+		return bestModel;
+	}
+
+	@Override
+	public List<Point> getMatchSet() {
+		return bestMatchSet;
+	}
+
+	@Override
+	public int getInputIndex(int matchIndex) {
+		return bestInliers.get(matchIndex);
+	}
+
+	@Override
+	public double getFitQuality() {
+		return bestInliers.size;
+	}
+
+	@Override
+	public int getMinimumSize() {
+		return sampleSize;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Number of hypotheses in each batch.  Changing this changes which hypotheses are compared against
+	 * each other when scoring stops early.
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	public double getThresholdFit() {
+		return thresholdFit;
+	}
+
+	public void setThresholdFit(double thresholdFit) {
+		this.thresholdFit = thresholdFit;
+	}
+
+	public boolean isSprt() {
+		return sprt;
+	}
+
+	public void setSprt(boolean sprt) {
+		this.sprt = sprt;
+	}
+
+	/**
+	 * Storage used by each block
+	 */
+	class BlockStorage {
+		ModelGenerator<Model,Point> generator;
+		DistanceFromModel<Model,Point> distance;
+		List<Point> sample = new ArrayList<Point>();
+		// candidate model and its inliers
+		Model candidate;
+		GrowQueue_I32 candidateInliers = new GrowQueue_I32();
+		// best model in this block and its inliers
+		Model best;
+		GrowQueue_I32 bestInliers = new GrowQueue_I32();
+		// statistics of hypotheses rejected by SPRT
+		int rejectedTested;
+		int rejectedConsistent;
+	}
+}
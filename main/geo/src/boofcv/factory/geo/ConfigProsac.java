@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.factory.geo;
+
+import boofcv.struct.Configuration;
+
+/**
+ * Standard configuration for {@link boofcv.alg.geo.robust.Prosac PROSAC}.
+ *
+ * @author Peter Abeles
+ */
+public class ConfigProsac implements Configuration {
+	/**
+	 * Random seed that's used internally
+	 */
+	public long randSeed = 0xDEADBEEF;
+	/**
+	 * Maximum number of iterations PROSAC will perform
+	 */
+	public int maxIterations;
+	/**
+	 * Inlier threshold.
+	 */
+	public double inlierThreshold;
+	/**
+	 * Iterations stop once the probability that a model with more inliers was missed is less than 1 - confidence.
+	 */
+	public double confidence = 0.99;
+
+	public ConfigProsac(int maxIterations, double inlierThreshold) {
+		this.maxIterations = maxIterations;
+		this.inlierThreshold = inlierThreshold;
+	}
+
+	public ConfigProsac() {
+	}
+
+	@Override
+	public void checkValidity() {
+		if( confidence <= 0 || confidence >= 1 )
+			throw new IllegalArgumentException("confidence must be between 0 and 1, exclusive");
+	}
+}
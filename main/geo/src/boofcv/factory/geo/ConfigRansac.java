@@ -21,7 +21,8 @@ package boofcv.factory.geo;
 import boofcv.struct.Configuration;
 
 /**
- * Standard configuration for {@link org.ddogleg.fitting.modelset.ransac.Ransac RANSAC}.
+ * Standard configuration for {@link org.ddogleg.fitting.modelset.ransac.Ransac RANSAC}.  Also used by the
+ * concurrent {@link boofcv.alg.geo.robust.Ransac_MT}.
  *
  * @author Peter Abeles
  */
@@ -38,6 +39,12 @@ public class ConfigRansac implements Configuration {
 	 * Inlier threshold.
 	 */
 	public double inlierThreshold;
+	/**
+	 * If true then the Sequential Probability Ratio Test (SPRT) is used to stop scoring a hypothesis once it's
+	 * unlikely to be the best.  Much faster when there are many points, but it will occasionally reject
+	 * a good hypothesis.  Only used by {@link boofcv.alg.geo.robust.Ransac_MT}.
+	 */
+	public boolean sprt = false;
 
 	public ConfigRansac(int maxIterations, double inlierThreshold) {
 		this.maxIterations = maxIterations;
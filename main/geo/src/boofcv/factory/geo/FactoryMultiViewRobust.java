@@ -26,7 +26,10 @@ import boofcv.alg.geo.pose.PnPDistanceReprojectionSq;
 import boofcv.alg.geo.robust.DistanceHomographySq;
 import boofcv.alg.geo.robust.DistanceSe3SymmetricSq;
 import boofcv.alg.geo.robust.GenerateHomographyLinear;
+import boofcv.alg.geo.robust.Prosac;
+import boofcv.alg.geo.robust.Ransac_MT;
 import boofcv.alg.geo.robust.Se3FromEssentialGenerator;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.calib.IntrinsicParameters;
 import boofcv.struct.geo.AssociatedPair;
 import boofcv.struct.geo.Point2D3D;
@@ -37,8 +40,10 @@ import georegression.struct.se.Se3_F64;
 import org.ddogleg.fitting.modelset.DistanceFromModel;
 import org.ddogleg.fitting.modelset.ModelGenerator;
 import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.fitting.modelset.ModelMatcher;
 import org.ddogleg.fitting.modelset.lmeds.LeastMedianOfSquares;
 import org.ddogleg.fitting.modelset.ransac.Ransac;
+import org.ddogleg.struct.FastQueue;
 
 /**
  * Factory for creating robust false-positive tolerant estimation algorithms in multi-view geometry.  These
@@ -89,17 +94,71 @@ public class FactoryMultiViewRobust {
 	public static Ransac<Se3_F64, Point2D3D> pnpRansac( ConfigPnP pnp,
 														ConfigRansac ransac)
 	{
-		Estimate1ofPnP estimatorPnP = FactoryMultiView.computePnP_1(pnp.which, -1, pnp.numResolve);
-		DistanceModelMonoPixels<Se3_F64,Point2D3D> distance = new PnPDistanceReprojectionSq();
-		distance.setIntrinsic(pnp.intrinsic.fx,pnp.intrinsic.fy,pnp.intrinsic.skew);
-		ModelManagerSe3_F64 manager = new ModelManagerSe3_F64();
-		EstimatorToGenerator<Se3_F64,Point2D3D> generator =
-				new EstimatorToGenerator<Se3_F64,Point2D3D>(estimatorPnP);
+		// convert from pixels to pixels squared
+		double threshold = ransac.inlierThreshold*ransac.inlierThreshold;
+
+		return new Ransac<Se3_F64, Point2D3D>(ransac.randSeed, new ModelManagerSe3_F64(),
+				pnpGenerators(pnp).grow(), pnpDistances(pnp).grow(), ransac.maxIterations, threshold);
+	}
 
+	/**
+	 * Same as {@link #pnpRansac} but uses the concurrent {@link Ransac_MT}.  The maximum number of threads
+	 * is specified by {@link BoofConcurrency}.
+	 *
+	 * @param pnp PnP parameters.  Can't be null.
+	 * @param ransac Parameters for RANSAC.  Can't be null.
+	 * @return Robust Se3_F64 estimator
+	 */
+	public static ModelMatcher<Se3_F64, Point2D3D> pnpRansac_MT( ConfigPnP pnp,
+																 ConfigRansac ransac)
+	{
 		// convert from pixels to pixels squared
 		double threshold = ransac.inlierThreshold*ransac.inlierThreshold;
 
-		return new Ransac<Se3_F64, Point2D3D>(ransac.randSeed, manager, generator, distance,ransac.maxIterations,threshold);
+		return createRansac_MT(ransac,new ModelManagerSe3_F64(),pnpGenerators(pnp),pnpDistances(pnp),threshold);
+	}
+
+	/**
+	 * Robust solution to PnP problem using {@link Prosac PROSAC}.  Input observations are in normalized
+	 * image coordinates and must be sorted by the quality of the match, best first.
+	 *
+	 * <p>See code for all the details.</p>
+	 *
+	 * @see boofcv.alg.feature.associate.AssociationOps#sortByFitScore
+	 *
+	 * @param pnp PnP parameters.  Can't be null.
+	 * @param prosac Parameters for PROSAC.  Can't be null.
+	 * @return Robust Se3_F64 estimator
+	 */
+	public static ModelMatcher<Se3_F64, Point2D3D> pnpProsac( ConfigPnP pnp,
+															  ConfigProsac prosac)
+	{
+		// convert from pixels to pixels squared
+		double threshold = prosac.inlierThreshold*prosac.inlierThreshold;
+
+		return createProsac(prosac,new ModelManagerSe3_F64(),pnpGenerators(pnp).grow(),pnpDistances(pnp).grow(),
+				threshold);
+	}
+
+	private static FastQueue<ModelGenerator<Se3_F64,Point2D3D>> pnpGenerators( final ConfigPnP pnp ) {
+		return new FastQueue<ModelGenerator<Se3_F64,Point2D3D>>(1,(Class)ModelGenerator.class,true) {
+			@Override
+			protected ModelGenerator<Se3_F64,Point2D3D> createInstance() {
+				Estimate1ofPnP estimatorPnP = FactoryMultiView.computePnP_1(pnp.which, -1, pnp.numResolve);
+				return new EstimatorToGenerator<Se3_F64,Point2D3D>(estimatorPnP);
+			}
+		};
+	}
+
+	private static FastQueue<DistanceFromModel<Se3_F64,Point2D3D>> pnpDistances( final ConfigPnP pnp ) {
+		return new FastQueue<DistanceFromModel<Se3_F64,Point2D3D>>(1,(Class)DistanceFromModel.class,true) {
+			@Override
+			protected DistanceFromModel<Se3_F64,Point2D3D> createInstance() {
+				DistanceModelMonoPixels<Se3_F64,Point2D3D> distance = new PnPDistanceReprojectionSq();
+				distance.setIntrinsic(pnp.intrinsic.fx,pnp.intrinsic.fy,pnp.intrinsic.skew);
+				return distance;
+			}
+		};
 	}
 
 	/**
@@ -156,24 +215,81 @@ public class FactoryMultiViewRobust {
 
 		essential.checkValidity();
 
-		Estimate1ofEpipolar essentialAlg = FactoryMultiView.
-				computeFundamental_1(essential.which, essential.numResolve);
-		TriangulateTwoViewsCalibrated triangulate = FactoryMultiView.triangulateTwoGeometric();
-		ModelManager<Se3_F64> manager = new ModelManagerSe3_F64();
-		ModelGenerator<Se3_F64, AssociatedPair> generateEpipolarMotion =
-				new Se3FromEssentialGenerator(essentialAlg, triangulate);
+		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold * 2.0;
 
-		IntrinsicParameters intrinsic = essential.intrinsic;
+		return new Ransac<Se3_F64, AssociatedPair>(ransac.randSeed, new ModelManagerSe3_F64(),
+				essentialGenerators(essential).grow(), essentialDistances(essential).grow(),
+				ransac.maxIterations, ransacTOL);
+	}
 
-		DistanceFromModel<Se3_F64, AssociatedPair> distanceSe3 =
-				new DistanceSe3SymmetricSq(triangulate,
-						intrinsic.fx, intrinsic.fy, intrinsic.skew,
-						intrinsic.fx, intrinsic.fy, intrinsic.skew);
+	/**
+	 * Same as {@link #essentialRansac} but uses the concurrent {@link Ransac_MT}.  The maximum number of threads
+	 * is specified by {@link BoofConcurrency}.
+	 *
+	 * @param essential Essential matrix estimation parameters.  Can't be null.
+	 * @param ransac Parameters for RANSAC.  Can't be null.
+	 * @return Robust Se3_F64 estimator
+	 */
+	public static ModelMatcher<Se3_F64, AssociatedPair> essentialRansac_MT( ConfigEssential essential,
+																			ConfigRansac ransac ) {
+
+		essential.checkValidity();
 
 		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold * 2.0;
 
-		return new Ransac<Se3_F64, AssociatedPair>(ransac.randSeed, manager, generateEpipolarMotion, distanceSe3,
-				ransac.maxIterations, ransacTOL);
+		return createRansac_MT(ransac,new ModelManagerSe3_F64(),
+				essentialGenerators(essential),essentialDistances(essential),ransacTOL);
+	}
+
+	/**
+	 * Robust solution for estimating {@link Se3_F64} using epipolar geometry from two views with
+	 * {@link Prosac PROSAC}.  Input observations are in normalized image coordinates and must be sorted by the
+	 * quality of the match, best first.
+	 *
+	 * <p>See code for all the details.</p>
+	 *
+	 * @see boofcv.alg.feature.associate.AssociationOps#sortByFitScore
+	 *
+	 * @param essential Essential matrix estimation parameters.  Can't be null.
+	 * @param prosac Parameters for PROSAC.  Can't be null.
+	 * @return Robust Se3_F64 estimator
+	 */
+	public static ModelMatcher<Se3_F64, AssociatedPair> essentialProsac( ConfigEssential essential,
+																		 ConfigProsac prosac ) {
+
+		essential.checkValidity();
+
+		double tol = prosac.inlierThreshold * prosac.inlierThreshold * 2.0;
+
+		return createProsac(prosac,new ModelManagerSe3_F64(),
+				essentialGenerators(essential).grow(),essentialDistances(essential).grow(),tol);
+	}
+
+	private static FastQueue<ModelGenerator<Se3_F64,AssociatedPair>>
+	essentialGenerators( final ConfigEssential essential ) {
+		return new FastQueue<ModelGenerator<Se3_F64,AssociatedPair>>(1,(Class)ModelGenerator.class,true) {
+			@Override
+			protected ModelGenerator<Se3_F64,AssociatedPair> createInstance() {
+				Estimate1ofEpipolar essentialAlg = FactoryMultiView.
+						computeFundamental_1(essential.which, essential.numResolve);
+				TriangulateTwoViewsCalibrated triangulate = FactoryMultiView.triangulateTwoGeometric();
+				return new Se3FromEssentialGenerator(essentialAlg, triangulate);
+			}
+		};
+	}
+
+	private static FastQueue<DistanceFromModel<Se3_F64,AssociatedPair>>
+	essentialDistances( final ConfigEssential essential ) {
+		return new FastQueue<DistanceFromModel<Se3_F64,AssociatedPair>>(1,(Class)DistanceFromModel.class,true) {
+			@Override
+			protected DistanceFromModel<Se3_F64,AssociatedPair> createInstance() {
+				IntrinsicParameters intrinsic = essential.intrinsic;
+				TriangulateTwoViewsCalibrated triangulate = FactoryMultiView.triangulateTwoGeometric();
+				return new DistanceSe3SymmetricSq(triangulate,
+						intrinsic.fx, intrinsic.fy, intrinsic.skew,
+						intrinsic.fx, intrinsic.fy, intrinsic.skew);
+			}
+		};
 	}
 
 	/**
@@ -226,13 +342,106 @@ public class FactoryMultiViewRobust {
 		if( homography == null )
 			homography = new ConfigHomography();
 
-		ModelManager<Homography2D_F64> manager = new ModelManagerHomography2D_F64();
-		GenerateHomographyLinear modelFitter = new GenerateHomographyLinear(homography.normalize);
-		DistanceHomographySq distance = new DistanceHomographySq();
+		double ransacTol = ransac.inlierThreshold*ransac.inlierThreshold;
+
+		return new Ransac<Homography2D_F64,AssociatedPair>(ransac.randSeed,new ModelManagerHomography2D_F64(),
+				homographyGenerators(homography).grow(),homographyDistances().grow(),ransac.maxIterations,ransacTol);
+	}
+
+	/**
+	 * Same as {@link #homographyRansac} but uses the concurrent {@link Ransac_MT}.  The maximum number of threads
+	 * is specified by {@link BoofConcurrency}.
+	 *
+	 * @param homography Homography estimation parameters.  If null default is used.
+	 * @param ransac Parameters for RANSAC.  Can't be null.
+	 * @return Homography estimator
+	 */
+	public static ModelMatcher<Homography2D_F64,AssociatedPair>
+	homographyRansac_MT( ConfigHomography homography , ConfigRansac ransac )
+	{
+		if( homography == null )
+			homography = new ConfigHomography();
 
 		double ransacTol = ransac.inlierThreshold*ransac.inlierThreshold;
 
-		return new Ransac<Homography2D_F64,AssociatedPair>
-				(ransac.randSeed,manager,modelFitter,distance,ransac.maxIterations,ransacTol);
+		return createRansac_MT(ransac,new ModelManagerHomography2D_F64(),
+				homographyGenerators(homography),homographyDistances(),ransacTol);
+	}
+
+	/**
+	 * Robust solution for estimating {@link Homography2D_F64} with {@link Prosac PROSAC}.  Input
+	 * observations are in pixel coordinates and must be sorted by the quality of the match, best first.
+	 *
+	 * <ul>
+	 *     <li>Four point linear is used internally</p>
+	 *     <li>inlierThreshold is in pixels</p>
+	 * </ul>
+	 *
+	 * <p>See code for all the details.</p>
+	 *
+	 * @see boofcv.alg.feature.associate.AssociationOps#sortByFitScore
+	 *
+	 * @param homography Homography estimation parameters.  If null default is used.
+	 * @param prosac Parameters for PROSAC.  Can't be null.
+	 * @return Homography estimator
+	 */
+	public static ModelMatcher<Homography2D_F64,AssociatedPair>
+	homographyProsac( ConfigHomography homography , ConfigProsac prosac )
+	{
+		if( homography == null )
+			homography = new ConfigHomography();
+
+		double tol = prosac.inlierThreshold*prosac.inlierThreshold;
+
+		return createProsac(prosac,new ModelManagerHomography2D_F64(),
+				homographyGenerators(homography).grow(),homographyDistances().grow(),tol);
+	}
+
+	private static FastQueue<ModelGenerator<Homography2D_F64,AssociatedPair>>
+	homographyGenerators( ConfigHomography homography ) {
+		final boolean normalize = homography.normalize;
+		return new FastQueue<ModelGenerator<Homography2D_F64,AssociatedPair>>(1,(Class)ModelGenerator.class,true) {
+			@Override
+			protected ModelGenerator<Homography2D_F64,AssociatedPair> createInstance() {
+				return new GenerateHomographyLinear(normalize);
+			}
+		};
+	}
+
+	private static FastQueue<DistanceFromModel<Homography2D_F64,AssociatedPair>> homographyDistances() {
+		return new FastQueue<DistanceFromModel<Homography2D_F64,AssociatedPair>>(1,(Class)DistanceFromModel.class,true) {
+			@Override
+			protected DistanceFromModel<Homography2D_F64,AssociatedPair> createInstance() {
+				return new DistanceHomographySq();
+			}
+		};
+	}
+
+	/**
+	 * Creates {@link Ransac_MT}.  Generators and distance functions are created by the queues since it needs a
+	 * copy for each thread.
+	 */
+	private static <Model,Point> ModelMatcher<Model,Point>
+	createRansac_MT( ConfigRansac ransac , ModelManager<Model> manager ,
+					 FastQueue<ModelGenerator<Model,Point>> generators ,
+					 FastQueue<DistanceFromModel<Model,Point>> distances ,
+					 double threshold )
+	{
+		return new Ransac_MT<Model,Point>(ransac.randSeed,manager,generators,distances,
+				ransac.maxIterations,threshold,ransac.sprt,BoofConcurrency.getMaxThreads());
+	}
+
+	private static <Model,Point> ModelMatcher<Model,Point>
+	createProsac( ConfigProsac prosac , ModelManager<Model> manager ,
+				  ModelGenerator<Model,Point> generator ,
+				  DistanceFromModel<Model,Point> distance ,
+				  double threshold )
+	{
+		prosac.checkValidity();
+
+		Prosac<Model,Point> alg = new Prosac<Model,Point>(prosac.randSeed,manager,generator,distance,
+				prosac.maxIterations,threshold);
+		alg.setConfidence(prosac.confidence);
+		return alg;
 	}
 }
@@ -20,11 +20,15 @@ package boofcv.abst.feature.tracker;
 
 import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
 import boofcv.alg.tracker.klt.*;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.tracker.FactoryPointTracker;
 import boofcv.struct.image.GrayF32;
 import org.junit.Test;
 
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -157,6 +161,55 @@ public class TestPointTrackerKltPyramid extends StandardPointTracker<GrayF32> {
 
 	}
 
+	/**
+	 * The concurrent tracker should produce exactly the same tracks as the single threaded tracker
+	 */
+	@Test
+	public void compareToConcurrent() {
+		PointTracker<GrayF32> single = createTracker();
+
+		boolean originalConcurrent = BoofConcurrency.USE_CONCURRENT;
+		int originalThreads = BoofConcurrency.getMaxThreads();
+		int originalMinFeatures = PyramidKltTracker_MT.MIN_FEATURES;
+		try {
+			BoofConcurrency.USE_CONCURRENT = true;
+			BoofConcurrency.setMaxThreads(4);
+			PyramidKltTracker_MT.MIN_FEATURES = 1;
+
+			PointTrackerKltPyramid<GrayF32,GrayF32> concurrent =
+					(PointTrackerKltPyramid<GrayF32,GrayF32>)createTracker();
+			assertTrue(concurrent.tracker instanceof PyramidKltTracker_MT);
+
+			GrayF32 frame = image.clone();
+			for (int i = 0; i < 4; i++) {
+				single.process(frame);
+				concurrent.process(frame);
+				single.spawnTracks();
+				concurrent.spawnTracks();
+
+				List<PointTrack> expected = single.getActiveTracks(null);
+				List<PointTrack> found = concurrent.getActiveTracks(null);
+
+				assertTrue(expected.size() > 0);
+				assertEquals(expected.size(), found.size());
+				for (int j = 0; j < expected.size(); j++) {
+					assertEquals(expected.get(j).featureId, found.get(j).featureId);
+					assertEquals(expected.get(j).x, found.get(j).x, 0);
+					assertEquals(expected.get(j).y, found.get(j).y, 0);
+				}
+				assertEquals(single.getDroppedTracks(null).size(), concurrent.getDroppedTracks(null).size());
+
+				// shift the image by one pixel and add noise so that tracks move and some are dropped
+				ImageMiscOps.copy(0, 0, 1, 0, width - 1, height, image, frame);
+				ImageMiscOps.addUniform(frame, rand, -5, 5);
+			}
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = originalConcurrent;
+			BoofConcurrency.setMaxThreads(originalThreads);
+			PyramidKltTracker_MT.MIN_FEATURES = originalMinFeatures;
+		}
+	}
+
 	/**
 	 * Don't change the track state
 	 */
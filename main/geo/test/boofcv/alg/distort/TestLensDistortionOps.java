@@ -19,9 +19,14 @@
 package boofcv.alg.distort;
 
 import boofcv.alg.geo.PerspectiveOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.core.image.border.BorderType;
 import boofcv.struct.calib.IntrinsicParameters;
 import boofcv.struct.distort.PointTransform_F32;
 import boofcv.struct.distort.PointTransform_F64;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import boofcv.testing.BoofTesting;
 import georegression.struct.affine.Affine2D_F32;
 import georegression.struct.affine.Affine2D_F64;
 import georegression.struct.point.Point2D_F32;
@@ -30,6 +35,8 @@ import georegression.struct.shapes.RectangleLength2D_F32;
 import georegression.struct.shapes.RectangleLength2D_F64;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -43,6 +50,37 @@ public class TestLensDistortionOps {
 	int width = 300;
 	int height = 350;
 
+	/**
+	 * The table should produce almost the same image as the ImageDistort and the same adjusted parameters
+	 */
+	@Test
+	public void remapRemoveDistortion() {
+		IntrinsicParameters param = new IntrinsicParameters().
+				fsetK(300, 320, 0, 150, 130, width, height).fsetRadial(0.1, 0.05);
+
+		GrayF32 input = new GrayF32(width, height);
+		ImageMiscOps.fillUniform(input, new Random(234), 0, 100);
+		GrayF32 expected = new GrayF32(width, height);
+		GrayF32 found = new GrayF32(width, height);
+
+		for( AdjustmentType type : new AdjustmentType[]{AdjustmentType.EXPAND, AdjustmentType.FULL_VIEW} ) {
+			IntrinsicParameters adjExpected = new IntrinsicParameters();
+			IntrinsicParameters adjFound = new IntrinsicParameters();
+
+			ImageDistort<GrayF32,GrayF32> distort = LensDistortionOps.imageRemoveDistortion(
+					type, BorderType.EXTENDED, param, adjExpected, ImageType.single(GrayF32.class));
+			distort.apply(input, expected);
+
+			RemapTable table = LensDistortionOps.remapRemoveDistortion(type, param, adjFound, true);
+			RemapImageOps.apply(table, input, found, true);
+
+			// difference is caused by fixed point coordinates
+			BoofTesting.assertEquals(expected, found, 0.5);
+			assertEquals(adjExpected.fx, adjFound.fx, 1e-8);
+			assertEquals(adjExpected.cx, adjFound.cx, 1e-8);
+		}
+	}
+
 	/**
 	 * Checks the border of the returned transform.  Makes sure that the entire original image is visible.
 	 * Also makes sure that the requested inverse transform is actually the inverse.
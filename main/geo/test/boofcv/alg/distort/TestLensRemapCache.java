@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.struct.calib.IntrinsicParameters;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLensRemapCache {
+
+	IntrinsicParameters param = new IntrinsicParameters().
+			fsetK(100, 110, 0, 50, 45, 100, 90).fsetRadial(0.1, 0.05);
+
+	@Test
+	public void sameModelSameTable() {
+		LensRemapCache alg = new LensRemapCache(3);
+
+		IntrinsicParameters adjA = new IntrinsicParameters();
+		IntrinsicParameters adjB = new IntrinsicParameters();
+
+		RemapTable a = alg.removeDistortion(AdjustmentType.EXPAND, param, adjA, false);
+		// an identical copy of the parameters should find the same table
+		RemapTable b = alg.removeDistortion(AdjustmentType.EXPAND, new IntrinsicParameters(param), adjB, false);
+
+		assertTrue(a == b);
+		assertEquals(1, alg.size());
+		assertEquals(adjA.fx, adjB.fx, 1e-8);
+		assertEquals(adjA.cy, adjB.cy, 1e-8);
+		assertTrue(adjA.fx != param.fx);
+	}
+
+	@Test
+	public void differentKey() {
+		LensRemapCache alg = new LensRemapCache(10);
+
+		RemapTable a = alg.removeDistortion(AdjustmentType.EXPAND, param, null, false);
+		assertTrue(a != alg.removeDistortion(AdjustmentType.FULL_VIEW, param, null, false));
+		assertTrue(a != alg.removeDistortion(AdjustmentType.EXPAND, param, null, true));
+
+		IntrinsicParameters other = new IntrinsicParameters(param);
+		other.radial[1] = 0.06;
+		assertTrue(a != alg.removeDistortion(AdjustmentType.EXPAND, other, null, false));
+
+		other = new IntrinsicParameters(param);
+		other.width = 120;
+		RemapTable c = alg.removeDistortion(AdjustmentType.EXPAND, other, null, false);
+		assertEquals(120, c.getWidth());
+
+		assertEquals(5, alg.size());
+	}
+
+	/**
+	 * The least recently used table should be discarded
+	 */
+	@Test
+	public void bounded() {
+		LensRemapCache alg = new LensRemapCache(2);
+
+		IntrinsicParameters paramB = new IntrinsicParameters(param);
+		paramB.fx = 120;
+		IntrinsicParameters paramC = new IntrinsicParameters(param);
+		paramC.fx = 130;
+
+		RemapTable a = alg.removeDistortion(AdjustmentType.EXPAND, param, null, false);
+		RemapTable b = alg.removeDistortion(AdjustmentType.EXPAND, paramB, null, false);
+		// use A so that B is the oldest
+		assertTrue(a == alg.removeDistortion(AdjustmentType.EXPAND, param, null, false));
+		alg.removeDistortion(AdjustmentType.EXPAND, paramC, null, false);
+
+		assertEquals(2, alg.size());
+		assertTrue(a == alg.removeDistortion(AdjustmentType.EXPAND, param, null, false));
+		assertTrue(b != alg.removeDistortion(AdjustmentType.EXPAND, paramB, null, false));
+	}
+
+	/**
+	 * The adjusted parameters should be the same as when the table is computed without the cache
+	 */
+	@Test
+	public void adjustedSameAsUncached() {
+		for( AdjustmentType type : AdjustmentType.values() ) {
+			LensRemapCache alg = new LensRemapCache(3);
+
+			IntrinsicParameters expected = new IntrinsicParameters();
+			LensDistortionOps.remapRemoveDistortion(type, param, expected, false);
+
+			// first call computes the table and the second finds it in the cache
+			for (int i = 0; i < 2; i++) {
+				IntrinsicParameters found = new IntrinsicParameters();
+				alg.removeDistortion(type, param, found, false);
+
+				assertEquals(expected.fx, found.fx, 1e-8);
+				assertEquals(expected.cy, found.cy, 1e-8);
+				assertEquals(expected.width, found.width);
+				assertTrue(found.radial == null);
+			}
+		}
+	}
+
+	/**
+	 * Keys which are equal must have the same hash code, even when a value is negative zero
+	 */
+	@Test
+	public void negativeZero() {
+		LensRemapCache alg = new LensRemapCache(10);
+
+		IntrinsicParameters paramA = new IntrinsicParameters(param);
+		paramA.skew = 0.0;
+		IntrinsicParameters paramB = new IntrinsicParameters(param);
+		paramB.skew = -0.0;
+
+		RemapTable a = alg.removeDistortion(AdjustmentType.EXPAND, paramA, null, false);
+		assertTrue(a == alg.removeDistortion(AdjustmentType.EXPAND, new IntrinsicParameters(paramA), null, false));
+		alg.removeDistortion(AdjustmentType.EXPAND, paramB, null, false);
+		assertTrue(a == alg.removeDistortion(AdjustmentType.EXPAND, paramA, null, false));
+		assertEquals(2, alg.size());
+	}
+}
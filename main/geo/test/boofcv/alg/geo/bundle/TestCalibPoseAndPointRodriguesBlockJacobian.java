@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import georegression.struct.se.Se3_F64;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createModel;
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createObservations;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCalibPoseAndPointRodriguesBlockJacobian {
+
+	Random rand = new Random(48854);
+	int numViews = 3;
+	int numPoints = 4;
+
+	@Test
+	public void allUnknown() {
+		check(false,false,false);
+	}
+
+	@Test
+	public void someKnown() {
+		check(true,false,true);
+	}
+
+	/**
+	 * Compares the blocks against the dense Jacobian
+	 */
+	private void check( boolean ...known ) {
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+
+		Se3_F64 extrinsic[] = new Se3_F64[known.length];
+		for( int i = 0; i < known.length; i++ ) {
+			model.setViewKnown(i,known[i]);
+			if( known[i] ) {
+				extrinsic[i] = model.getWorldToCamera(i).copy();
+			}
+		}
+
+		CalibPoseAndPointRodriguesCodec codec = new CalibPoseAndPointRodriguesCodec();
+		codec.configure(numViews,numPoints,model.getNumUnknownViews(),known);
+		double []param = new double[ codec.getParamLength() ];
+		codec.encode(model,param);
+
+		CalibPoseAndPointRodriguesJacobian dense = new CalibPoseAndPointRodriguesJacobian();
+		dense.configure(observations,numPoints,extrinsic);
+		int N = dense.getNumOfInputsN();
+		double expected[] = new double[ dense.getNumOfOutputsM()*N ];
+		dense.process(param,expected);
+
+		CalibPoseAndPointRodriguesBlockJacobian alg = new CalibPoseAndPointRodriguesBlockJacobian();
+		alg.configure(observations,numPoints,extrinsic);
+		int numObs = alg.getNumObservations();
+		double viewBlocks[] = new double[numObs*12];
+		double pointBlocks[] = new double[numObs*6];
+		alg.process(param,viewBlocks,pointBlocks);
+
+		int indexFirstPoint = model.getNumUnknownViews()*6;
+		int obsIndex = 0;
+		int unknownIndex = 0;
+		for( int view = 0; view < numViews; view++ ) {
+			List<PointIndexObservation> points = observations.get(view).getPoints().toList();
+			for( int j = 0; j < points.size(); j++, obsIndex++ ) {
+				int pointIndex = points.get(j).pointIndex;
+				for( int row = 0; row < 2; row++ ) {
+					int rowStart = (obsIndex*2+row)*N;
+					if( !known[view] ) {
+						for( int col = 0; col < 6; col++ ) {
+							assertEquals(expected[rowStart+unknownIndex*6+col],
+									viewBlocks[obsIndex*12+row*6+col],1e-8);
+						}
+					}
+					for( int col = 0; col < 3; col++ ) {
+						assertEquals(expected[rowStart+indexFirstPoint+pointIndex*3+col],
+								pointBlocks[obsIndex*6+row*3+col],1e-8);
+					}
+				}
+			}
+			if( !known[view] )
+				unknownIndex++;
+		}
+	}
+}
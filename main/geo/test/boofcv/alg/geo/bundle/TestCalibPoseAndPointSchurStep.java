@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import georegression.struct.se.Se3_F64;
+import org.ejml.data.DenseMatrix64F;
+import org.ejml.ops.CommonOps;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createModel;
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createObservations;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCalibPoseAndPointSchurStep {
+
+	Random rand = new Random(48854);
+	int numViews = 4;
+	int numPoints = 6;
+
+	@Test
+	public void allUnknown() {
+		check(0.1, false, false, false, false);
+	}
+
+	@Test
+	public void someKnown() {
+		check(0.01, true, false, false, true);
+	}
+
+	@Test
+	public void allKnown() {
+		check(0.5, true, true, true, true);
+	}
+
+	/**
+	 * Compares the step against the solution found using the dense normal equations
+	 */
+	private void check( double lambda , boolean ...known ) {
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+
+		Se3_F64 extrinsic[] = new Se3_F64[known.length];
+		for( int i = 0; i < known.length; i++ ) {
+			model.setViewKnown(i,known[i]);
+			if( known[i] ) {
+				extrinsic[i] = model.getWorldToCamera(i).copy();
+			}
+		}
+
+		CalibPoseAndPointRodriguesCodec codec = new CalibPoseAndPointRodriguesCodec();
+		codec.configure(numViews,numPoints,model.getNumUnknownViews(),known);
+		double []param = new double[ codec.getParamLength() ];
+		codec.encode(model,param);
+
+		// perturb the parameters so that the residuals are not zero
+		for( int i = 0; i < param.length; i++ ) {
+			param[i] += rand.nextGaussian()*0.01;
+		}
+
+		CalibPoseAndPointResiduals func = new CalibPoseAndPointResiduals();
+		func.configure(codec,model,observations);
+		int M = func.getNumOfOutputsM();
+		int N = func.getNumOfInputsN();
+		double residuals[] = new double[M];
+		func.process(param,residuals);
+
+		// dense solution
+		CalibPoseAndPointRodriguesJacobian dense = new CalibPoseAndPointRodriguesJacobian();
+		dense.configure(observations,numPoints,extrinsic);
+		DenseMatrix64F J = new DenseMatrix64F(M,N);
+		dense.process(param,J.data);
+
+		DenseMatrix64F A = new DenseMatrix64F(N,N);
+		CommonOps.multTransA(J,J,A);
+		for( int i = 0; i < N; i++ ) {
+			A.add(i,i,lambda*Math.max(CalibPoseAndPointSchurStep.MIN_DIAGONAL,A.get(i,i)));
+		}
+		DenseMatrix64F g = new DenseMatrix64F(N,1);
+		CommonOps.multTransA(J,DenseMatrix64F.wrap(M,1,residuals),g);
+		CommonOps.scale(-1,g);
+		DenseMatrix64F expected = new DenseMatrix64F(N,1);
+		assertTrue(CommonOps.solve(A,g,expected));
+
+		// sparse solution
+		CalibPoseAndPointRodriguesBlockJacobian jacobian = new CalibPoseAndPointRodriguesBlockJacobian();
+		jacobian.configure(observations,numPoints,extrinsic);
+		double viewBlocks[] = new double[M*6];
+		double pointBlocks[] = new double[M*3];
+		jacobian.process(param,viewBlocks,pointBlocks);
+
+		CalibPoseAndPointSchurStep alg = new CalibPoseAndPointSchurStep();
+		alg.configure(known,observations,numPoints);
+		assertEquals(N,alg.getNumParameters());
+		alg.computeNormal(viewBlocks,pointBlocks,residuals);
+
+		double maxGradient = CommonOps.elementMaxAbs(g);
+		assertEquals(maxGradient,alg.getGradientNormInf(),1e-8);
+
+		double found[] = new double[N];
+		assertTrue(alg.computeStep(lambda,found));
+
+		for( int i = 0; i < N; i++ ) {
+			assertEquals(expected.data[i],found[i],1e-6*Math.max(1,Math.abs(expected.data[i])));
+		}
+	}
+}
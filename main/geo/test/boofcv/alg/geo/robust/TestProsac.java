@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.robust;
+
+import boofcv.struct.geo.AssociatedPair;
+import georegression.fitting.se.ModelManagerSe2_F64;
+import georegression.fitting.se.MotionSe2PointSVD_F64;
+import georegression.struct.se.Se2_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestProsac {
+
+	Random rand = new Random(234);
+
+	Se2_F64 motion = new Se2_F64(10,-5,0.3);
+
+	/**
+	 * The best matches are mostly inliers.  It should find all the inliers in far fewer iterations than RANSAC
+	 * would need for the overall inlier ratio.
+	 */
+	@Test
+	public void sortedByQuality() {
+		List<AssociatedPair> points = new ArrayList<AssociatedPair>();
+		List<Boolean> inlier = new ArrayList<Boolean>();
+		addPoints(50, 0.9, points, inlier);
+		addPoints(950, 0.1, points, inlier);
+
+		Prosac<Se2_F64,AssociatedPair> alg = createAlg(5000);
+
+		assertTrue(alg.process(points));
+		checkInliers(alg, points, inlier);
+
+		double fraction = countInliers(inlier)/(double)points.size();
+		double ransacIterations = Math.log(0.01)/Math.log(1-Math.pow(fraction,alg.getMinimumSize()));
+		assertTrue(alg.getIterations() < ransacIterations/5);
+	}
+
+	/**
+	 * When the order has nothing to do with being an inlier it should still find the inliers
+	 */
+	@Test
+	public void randomOrder() {
+		List<AssociatedPair> points = new ArrayList<AssociatedPair>();
+		List<Boolean> inlier = new ArrayList<Boolean>();
+		addPoints(300, 0.3, points, inlier);
+
+		Prosac<Se2_F64,AssociatedPair> alg = createAlg(5000);
+
+		assertTrue(alg.process(points));
+		checkInliers(alg, points, inlier);
+		assertTrue(alg.getIterations() < 5000);
+	}
+
+	@Test
+	public void tooFewPoints() {
+		List<AssociatedPair> points = new ArrayList<AssociatedPair>();
+		List<Boolean> inlier = new ArrayList<Boolean>();
+		addPoints(1, 1, points, inlier);
+
+		Prosac<Se2_F64,AssociatedPair> alg = createAlg(100);
+		assertFalse(alg.process(points));
+		assertEquals(0, alg.getMatchSet().size());
+	}
+
+	@Test
+	public void requiredIterations() {
+		Prosac<Se2_F64,AssociatedPair> alg = createAlg(100);
+		int m = alg.getMinimumSize();
+
+		assertEquals(0, alg.requiredIterations(20,20), 0);
+		assertEquals(Double.MAX_VALUE, alg.requiredIterations(m-1,20), 0);
+
+		double P = 1;
+		for( int j = 0; j < m; j++ ) {
+			P *= (10.0-j)/(40.0-j);
+		}
+		assertEquals(Math.log(0.01)/Math.log(1-P), alg.requiredIterations(10,40), 1e-8);
+	}
+
+	private void checkInliers( Prosac<Se2_F64,AssociatedPair> alg ,
+							   List<AssociatedPair> points , List<Boolean> inlier ) {
+		assertEquals(countInliers(inlier), alg.getMatchSet().size());
+		for( int i = 0; i < alg.getMatchSet().size(); i++ ) {
+			int index = alg.getInputIndex(i);
+			assertTrue(inlier.get(index));
+			assertTrue(points.get(index) == alg.getMatchSet().get(i));
+		}
+		assertEquals(motion.T.x, alg.getModelParameters().T.x, 1e-6);
+		assertEquals(motion.getYaw(), alg.getModelParameters().getYaw(), 1e-6);
+	}
+
+	private int countInliers( List<Boolean> inlier ) {
+		int total = 0;
+		for( boolean b : inlier )
+			if( b ) total++;
+		return total;
+	}
+
+	private void addPoints( int N , double fractionInlier , List<AssociatedPair> points , List<Boolean> inlier ) {
+		for( int i = 0; i < N; i++ ) {
+			AssociatedPair p = new AssociatedPair();
+			p.p1.set(rand.nextDouble()*600, rand.nextDouble()*400);
+			boolean good = rand.nextDouble() < fractionInlier;
+			if( good ) {
+				SePointOps_F64.transform(motion,p.p1,p.p2);
+			} else {
+				p.p2.set(rand.nextDouble()*600, rand.nextDouble()*400);
+			}
+			points.add(p);
+			inlier.add(good);
+		}
+	}
+
+	private Prosac<Se2_F64,AssociatedPair> createAlg( int maxIterations ) {
+		return new Prosac<Se2_F64,AssociatedPair>(234,new ModelManagerSe2_F64(),
+				new GenerateSe2_AssociatedPair(new MotionSe2PointSVD_F64()),new DistanceSe2Sq(),
+				maxIterations,2*2);
+	}
+}
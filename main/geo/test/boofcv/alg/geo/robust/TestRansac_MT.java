@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.robust;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.geo.AssociatedPair;
+import georegression.fitting.MotionTransformPoint;
+import georegression.fitting.se.ModelManagerSe2_F64;
+import georegression.fitting.se.MotionSe2PointSVD_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.se.Se2_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.struct.FastQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRansac_MT {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+	int originalMinHypotheses;
+
+	Se2_F64 H = new Se2_F64(10,-5,0.3);
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalMinHypotheses = Ransac_MT.MIN_HYPOTHESES;
+		BoofConcurrency.setMaxThreads(4);
+		Ransac_MT.MIN_HYPOTHESES = 1;
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		Ransac_MT.MIN_HYPOTHESES = originalMinHypotheses;
+	}
+
+	@Test
+	public void findInliers() {
+		findInliers(false);
+	}
+
+	@Test
+	public void findInliers_sprt() {
+		findInliers(true);
+	}
+
+	/**
+	 * Noise free inliers and random outliers.  It should find all the inliers and only the inliers
+	 */
+	private void findInliers( boolean sprt ) {
+		List<AssociatedPair> points = new ArrayList<AssociatedPair>();
+		boolean inlier[] = createPoints(500, 0.6, points);
+
+		Ransac_MT<Se2_F64,AssociatedPair> alg = createAlg(sprt,4);
+
+		assertTrue(alg.process(points));
+
+		int numInliers = 0;
+		for( int i = 0; i < inlier.length; i++ )
+			if( inlier[i] ) numInliers++;
+
+		assertEquals(numInliers, alg.getMatchSet().size());
+		assertEquals(numInliers, alg.getFitQuality(), 0);
+		for( int i = 0; i < alg.getMatchSet().size(); i++ ) {
+			int index = alg.getInputIndex(i);
+			assertTrue(inlier[index]);
+			assertTrue(points.get(index) == alg.getMatchSet().get(i));
+		}
+
+		Se2_F64 found = alg.getModelParameters();
+		assertEquals(H.T.x, found.T.x, 1e-6);
+		assertEquals(H.T.y, found.T.y, 1e-6);
+		assertEquals(H.getYaw(), found.getYaw(), 1e-6);
+	}
+
+	/**
+	 * The number of threads should have no influence on the results
+	 */
+	@Test
+	public void independentOfThreads() {
+		List<AssociatedPair> points = new ArrayList<AssociatedPair>();
+		createPoints(300, 0.3, points);
+
+		// add a bit of noise so that the best model depends on which samples are drawn
+		for( AssociatedPair p : points ) {
+			p.p2.x += rand.nextGaussian()*0.5;
+			p.p2.y += rand.nextGaussian()*0.5;
+		}
+
+		for( boolean sprt : new boolean[]{false,true}) {
+			Ransac_MT<Se2_F64,AssociatedPair> single = createAlg(sprt,1);
+			Ransac_MT<Se2_F64,AssociatedPair> multi = createAlg(sprt,4);
+
+			assertTrue(single.process(points));
+			assertTrue(multi.process(points));
+
+			assertEquals(single.getMatchSet().size(), multi.getMatchSet().size());
+			for( int i = 0; i < single.getMatchSet().size(); i++ ) {
+				assertEquals(single.getInputIndex(i), multi.getInputIndex(i));
+			}
+			assertEquals(single.getModelParameters().T.x, multi.getModelParameters().T.x, 0);
+			assertEquals(single.getModelParameters().getYaw(), multi.getModelParameters().getYaw(), 0);
+		}
+	}
+
+	@Test
+	public void tooFewPoints() {
+		List<AssociatedPair> points = new ArrayList<AssociatedPair>();
+		createPoints(1, 1, points);
+
+		Ransac_MT<Se2_F64,AssociatedPair> alg = createAlg(false,4);
+		assertFalse(alg.process(points));
+		assertEquals(0, alg.getMatchSet().size());
+	}
+
+	@Test
+	public void computeThresholdA() {
+		Ransac_MT<Se2_F64,AssociatedPair> alg = createAlg(true,4);
+
+		// SPRT is turned off when good and bad models can't be told apart
+		assertEquals(Double.MAX_VALUE, alg.computeThresholdA(0.1,0.2), 0);
+
+		// the more inliers a good model has the larger the decision threshold A, so the likelihood ratio
+		// must grow larger before a model is rejected
+		double A0 = alg.computeThresholdA(0.2,0.01);
+		double A1 = alg.computeThresholdA(0.6,0.01);
+		assertTrue(A0 > 1);
+		assertTrue(A1 > A0);
+
+		// A = a + log(A)
+		double C = 0.99*Math.log(0.99/0.8) + 0.01*Math.log(0.01/0.2);
+		assertEquals(200*C + 1 + Math.log(A0), A0, 1e-6);
+	}
+
+	private boolean[] createPoints( int N , double fractionInlier , List<AssociatedPair> points ) {
+		boolean inlier[] = new boolean[N];
+		for( int i = 0; i < N; i++ ) {
+			AssociatedPair p = new AssociatedPair();
+			p.p1.set(rand.nextDouble()*600, rand.nextDouble()*400);
+			if( rand.nextDouble() < fractionInlier ) {
+				SePointOps_F64.transform(H,p.p1,p.p2);
+				inlier[i] = true;
+			} else {
+				p.p2.set(rand.nextDouble()*600, rand.nextDouble()*400);
+			}
+			points.add(p);
+		}
+		return inlier;
+	}
+
+	private Ransac_MT<Se2_F64,AssociatedPair> createAlg( boolean sprt , int maxThreads ) {
+		FastQueue<ModelGenerator<Se2_F64,AssociatedPair>> generators =
+				new FastQueue<ModelGenerator<Se2_F64,AssociatedPair>>(1,(Class)ModelGenerator.class,true) {
+					@Override
+					protected ModelGenerator<Se2_F64,AssociatedPair> createInstance() {
+						MotionTransformPoint<Se2_F64, Point2D_F64> estimate = new MotionSe2PointSVD_F64();
+						return new GenerateSe2_AssociatedPair(estimate);
+					}
+				};
+		FastQueue<DistanceFromModel<Se2_F64,AssociatedPair>> distances =
+				new FastQueue<DistanceFromModel<Se2_F64,AssociatedPair>>(1,(Class)DistanceFromModel.class,true) {
+					@Override
+					protected DistanceFromModel<Se2_F64,AssociatedPair> createInstance() {
+						return new DistanceSe2Sq();
+					}
+				};
+
+		Ransac_MT<Se2_F64,AssociatedPair> alg = new Ransac_MT<Se2_F64,AssociatedPair>(
+				234,new ModelManagerSe2_F64(),generators,distances,400,2*2,sprt,maxThreads);
+		alg.setBatchSize(16);
+		return alg;
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.convolve;
+
+import boofcv.alg.filter.convolve.ConvolveImageNoBorder;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.misc.PerformerBase;
+import boofcv.misc.ProfileOperation;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.convolve.Kernel1D_I32;
+import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+
+import java.util.Random;
+
+/**
+ * Compares the single threaded and concurrent implementations of {@link ConvolveImageNoBorder}
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkConvolveConcurrent {
+	static int width = 4000;
+	static int height = 3000;
+	static int radius = 5;
+	static long TEST_TIME = 1000;
+
+	static Kernel1D_F32 kernelF32 = FactoryKernelGaussian.gaussian(Kernel1D_F32.class, -1, radius);
+	static Kernel1D_I32 kernelI32 = FactoryKernelGaussian.gaussian(Kernel1D_I32.class, -1, radius);
+	static Kernel2D_F32 kernel2D_F32 = FactoryKernelGaussian.gaussian(Kernel2D_F32.class, -1, radius);
+
+	static GrayF32 input_F32 = new GrayF32(width,height);
+	static GrayF32 out_F32 = new GrayF32(width,height);
+	static GrayU8 input_U8 = new GrayU8(width,height);
+	static GrayS16 out_S16 = new GrayS16(width,height);
+
+	public static class Horizontal_F32 extends PerformerBase {
+		@Override
+		public void process() {
+			ConvolveImageNoBorder.horizontal(kernelF32, input_F32, out_F32);
+		}
+	}
+
+	public static class Vertical_F32 extends PerformerBase {
+		@Override
+		public void process() {
+			ConvolveImageNoBorder.vertical(kernelF32, input_F32, out_F32);
+		}
+	}
+
+	public static class Convolve2D_F32 extends PerformerBase {
+		@Override
+		public void process() {
+			ConvolveImageNoBorder.convolve(kernel2D_F32, input_F32, out_F32);
+		}
+	}
+
+	public static class Horizontal_U8_I16 extends PerformerBase {
+		@Override
+		public void process() {
+			ConvolveImageNoBorder.horizontal(kernelI32, input_U8, out_S16);
+		}
+	}
+
+	public static class Vertical_U8_I16 extends PerformerBase {
+		@Override
+		public void process() {
+			ConvolveImageNoBorder.vertical(kernelI32, input_U8, out_S16);
+		}
+	}
+
+	private static void profileAll() {
+		ProfileOperation.printOpsPerSec(new Horizontal_F32(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Vertical_F32(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Convolve2D_F32(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Horizontal_U8_I16(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Vertical_U8_I16(), TEST_TIME);
+	}
+
+	public static void main( String args[] ) {
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(input_U8, rand, 0, 100);
+		ImageMiscOps.fillUniform(input_F32, rand, 0, 100);
+
+		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
+		System.out.println();
+
+		System.out.println("Single Thread");
+		BoofConcurrency.USE_CONCURRENT = false;
+		profileAll();
+
+		System.out.println();
+		System.out.println("Concurrent: max threads = "+BoofConcurrency.getMaxThreads());
+		BoofConcurrency.USE_CONCURRENT = true;
+		profileAll();
+	}
+}
@@ -19,6 +19,8 @@
 package boofcv.alg.distort;
 
 import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.core.image.border.BorderType;
 import boofcv.factory.distort.FactoryDistort;
@@ -27,6 +29,7 @@ import boofcv.misc.PerformerBase;
 import boofcv.misc.ProfileOperation;
 import boofcv.struct.distort.PixelTransform_F32;
 import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import georegression.struct.homography.Homography2D_F32;
 
@@ -103,6 +106,20 @@ public class BenchmarkImageDistort<T extends ImageGray> {
 		}
 	}
 
+	public class RemapTable_F32 extends PerformerBase {
+		RemapTable table;
+
+		public RemapTable_F32( Homography2D_F32 homography , boolean compact ) {
+			PixelTransform_F32 tran = new PixelTransformHomography_F32(homography);
+			table = new RemapTable(tran, imgWidth, imgHeight, imgWidth, imgHeight, compact);
+		}
+
+		@Override
+		public void process() {
+			RemapImageOps.apply(table, src_F32, dst_F32, true);
+		}
+	}
+
 	private void benchmark() {
 		Random rand = new Random(234);
 
@@ -111,19 +128,33 @@ public class BenchmarkImageDistort<T extends ImageGray> {
 				(float)rand.nextGaussian(),(float)rand.nextGaussian(),(float)rand.nextGaussian(),
 				(float)rand.nextGaussian());
 
+		GImageMiscOps.fillUniform(src_F32, rand, 0, 200);
+
 		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
 		System.out.println();
 
+		System.out.println("Single Thread");
+		BoofConcurrency.USE_CONCURRENT = false;
 		ProfileOperation.printOpsPerSec(new MapBilinear_F32(affine),TEST_TIME);
 		ProfileOperation.printOpsPerSec(new HomographyBilinear_F32(affine),TEST_TIME);
 		ProfileOperation.printOpsPerSec(new HomographyBilinearCrop_F32(affine),TEST_TIME);
+		ProfileOperation.printOpsPerSec(new RemapTable_F32(affine,false),TEST_TIME);
+		ProfileOperation.printOpsPerSec(new RemapTable_F32(affine,true),TEST_TIME);
 
+		System.out.println();
+		System.out.println("Concurrent: max threads = "+BoofConcurrency.getMaxThreads());
+		BoofConcurrency.USE_CONCURRENT = true;
+		ProfileOperation.printOpsPerSec(new RemapTable_F32(affine,false),TEST_TIME);
+		ProfileOperation.printOpsPerSec(new RemapTable_F32(affine,true),TEST_TIME);
 	}
 
 
 	public static void main( String args[] ) {
 		BenchmarkImageDistort benchmark = new BenchmarkImageDistort(GrayF32.class);
+		benchmark.benchmark();
 
+		System.out.println();
+		benchmark = new BenchmarkImageDistort(GrayU8.class);
 		benchmark.benchmark();
 	}
 }
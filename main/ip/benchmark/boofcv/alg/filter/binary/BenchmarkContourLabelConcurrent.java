@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.PerformerBase;
+import boofcv.misc.ProfileOperation;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+
+import java.util.Random;
+
+/**
+ * Compares the single threaded and concurrent implementations of {@link LinearContourLabelChang2004} on
+ * an 8 mega pixel image
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkContourLabelConcurrent {
+
+	static final long TEST_TIME = 2000;
+
+	static int imgWidth = 3264;
+	static int imgHeight = 2448;
+
+	static GrayU8 input = new GrayU8(imgWidth, imgHeight);
+	static GrayS32 output = new GrayS32(imgWidth, imgHeight);
+
+	public static class Label extends PerformerBase {
+
+		LinearContourLabelChang2004 alg;
+
+		public Label(ConnectRule rule) {
+			if( BoofConcurrency.USE_CONCURRENT )
+				alg = new LinearContourLabelChang2004_MT(rule);
+			else
+				alg = new LinearContourLabelChang2004(rule);
+		}
+
+		@Override
+		public void process() {
+			alg.process(input,output);
+		}
+
+		@Override
+		public String getName() {
+			return "Rule "+alg.getRule();
+		}
+	}
+
+	private static void profileAll() {
+		ProfileOperation.printOpsPerSec(new Label(ConnectRule.EIGHT), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Label(ConnectRule.FOUR), TEST_TIME);
+	}
+
+	public static void main(String args[]) {
+		System.out.println("=========  Profile Image Size "+ imgWidth +" x "+ imgHeight  +" ==========");
+		System.out.println();
+
+		// blurred noise creates blobs of different shapes and sizes, many with holes
+		Random rand = new Random(234);
+		GrayU8 noise = new GrayU8(imgWidth, imgHeight);
+		ImageMiscOps.fillUniform(noise, rand, 0, 256);
+		GrayU8 blurred = BlurImageOps.mean(noise, null, 4, null);
+		ThresholdImageOps.threshold(blurred, input, 127, false);
+
+		System.out.println("Single Thread");
+		BoofConcurrency.USE_CONCURRENT = false;
+		profileAll();
+
+		System.out.println();
+		System.out.println("Concurrent: max threads = "+BoofConcurrency.getMaxThreads());
+		BoofConcurrency.USE_CONCURRENT = true;
+		profileAll();
+	}
+}
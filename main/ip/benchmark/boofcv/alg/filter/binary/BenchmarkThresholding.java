@@ -22,12 +22,14 @@ import boofcv.alg.filter.binary.impl.ThresholdSauvola;
 import boofcv.alg.filter.binary.impl.ThresholdSquareBlockMinMax_F32;
 import boofcv.alg.filter.binary.impl.ThresholdSquareBlockMinMax_U8;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.ConvertImage;
 import boofcv.misc.PerformerBase;
 import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
 
 import java.util.Random;
 
@@ -111,8 +113,36 @@ public class BenchmarkThresholding {
 		}
 	}
 
+	public static class LocalIntegral extends PerformerBase {
+		ThresholdLocalIntegral<ImageGray> alg;
+		boolean useF32;
+
+		public LocalIntegral(ThresholdLocalIntegral<ImageGray> alg, boolean useF32) {
+			this.alg = alg;
+			this.useF32 = useF32;
+		}
+
+		@Override
+		public void process() {
+			alg.process(useF32 ? inputF32 : input, output_U8);
+		}
+
+		@Override
+		public String getName() {
+			return alg.getClass().getSimpleName()+(useF32 ? "_F32" : "_U8");
+		}
+	}
+
+	private static void profileIntegral( int maxThreads ) {
+		ProfileOperation.printOpsPerSec(new LocalIntegral(new ThresholdLocalMean<ImageGray>(adaptiveRadius,0.95f,true,maxThreads),false), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new LocalIntegral(new ThresholdLocalNiblack<ImageGray>(adaptiveRadius,-0.2f,true,maxThreads),false), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new LocalIntegral(new ThresholdLocalSauvola<ImageGray>(adaptiveRadius,0.3f,true,maxThreads),false), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new LocalIntegral(new ThresholdLocalSauvola<ImageGray>(adaptiveRadius,0.3f,true,maxThreads),true), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new LocalIntegral(new ThresholdLocalWolf<ImageGray>(adaptiveRadius,0.5f,true,maxThreads),false), TEST_TIME);
+	}
 
 	public static void main(String args[]) {
+		new BenchmarkThresholding();
 
 		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
 		System.out.println();
@@ -125,5 +155,12 @@ public class BenchmarkThresholding {
 		ProfileOperation.printOpsPerSec(new SquareBlockMinMax_F32(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new SquareBlockMinMax_U8(), TEST_TIME);
 
+		System.out.println();
+		System.out.println("Integral Image, Single Thread");
+		profileIntegral(1);
+
+		System.out.println();
+		System.out.println("Integral Image, Concurrent: max threads = "+BoofConcurrency.getMaxThreads());
+		profileIntegral(BoofConcurrency.getMaxThreads());
 	}
 }
@@ -20,17 +20,19 @@ package boofcv.alg.filter.blur;
 
 import boofcv.alg.filter.blur.impl.ImplMedianHistogramInner;
 import boofcv.alg.filter.blur.impl.ImplMedianHistogramInnerNaive;
+import boofcv.alg.filter.blur.impl.ImplMedianPerreault2007;
 import boofcv.alg.filter.blur.impl.ImplMedianSortNaive;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.PerformerBase;
+import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
-import boofcv.struct.image.GrayS16;
-import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.GrayU8;
 
 import java.util.Random;
 
 /**
- * Benchmark for different convolution operations.
+ * Benchmark for different median filter implementations.
  * @author Peter Abeles
  */
 public class BenchmarkMedianFilter  {
@@ -41,60 +43,90 @@ public class BenchmarkMedianFilter  {
 	static GrayF32 imgFloat32 = new GrayF32(imgWidth,imgHeight);
 	static GrayF32 out_F32 = new GrayF32(imgWidth,imgHeight);
 	static GrayU8 imgInt8 = new GrayU8(imgWidth,imgHeight);
-	static GrayS16 imgInt16 = new GrayS16(imgWidth,imgHeight);
 	static GrayU8 out_I8 = new GrayU8(imgWidth,imgHeight);
-	static GrayS16 out_I16 = new GrayS16(imgWidth,imgHeight);
-	static GrayS32 out_I32 = new GrayS32(imgWidth,imgHeight);
 
-	// iterate through different sized kernel radius
-	private int radius;
+	static ImplMedianPerreault2007 perreault = new ImplMedianPerreault2007();
 
-	public BenchmarkMedianFilter() {
-		Random rand = new Random(234);
-		ImageMiscOps.fillUniform(imgInt8,rand, 0, 100);
-		ImageMiscOps.fillUniform(imgFloat32,rand,0,200);
-	}
+	// iterate through different sized kernel radius
+	static int radius;
 
-	public int timeBlurImageOps_I8(int reps) {
-		for( int i = 0; i < reps; i++ )
+	public static class BlurImageOps_I8 extends PerformerBase {
+		@Override
+		public void process() {
 			BlurImageOps.median(imgInt8, out_I8, radius);
-		return 0;
+		}
 	}
 
-	public int timeBlurImageOps_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
+	public static class BlurImageOps_F32 extends PerformerBase {
+		@Override
+		public void process() {
 			BlurImageOps.median(imgFloat32,out_F32,radius);
-		return 0;
+		}
 	}
 
-	public int timeHistogramNaive_I8(int reps) {
-		for( int i = 0; i < reps; i++ )
+	public static class HistogramNaive_I8 extends PerformerBase {
+		@Override
+		public void process() {
 			ImplMedianHistogramInnerNaive.process(imgInt8, out_I8, radius, null, null);
-		return 0;
+		}
 	}
 
-	public int timeHistogram_I8(int reps) {
-		for( int i = 0; i < reps; i++ )
+	public static class Histogram_I8 extends PerformerBase {
+		@Override
+		public void process() {
 			ImplMedianHistogramInner.process(imgInt8,out_I8,radius,null,null);
-		return 0;
+		}
+	}
+
+	public static class Perreault2007_I8 extends PerformerBase {
+		@Override
+		public void process() {
+			perreault.process(imgInt8,out_I8,radius);
+		}
 	}
 
-	public int timeSortNaive_I8(int reps) {
-		for( int i = 0; i < reps; i++ )
+	public static class SortNaive_I8 extends PerformerBase {
+		@Override
+		public void process() {
 			ImplMedianSortNaive.process(imgInt8,out_I8,radius,null);
-		return 0;
+		}
 	}
 
-	public int timeSortNaive_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplMedianSortNaive.process(imgFloat32,out_F32,radius,null);
-		return 0;
+	private static void profileAll( int radii[] , boolean slow ) {
+		for( int r : radii ) {
+			radius = r;
+			System.out.println("radius = "+radius);
+			ProfileOperation.printOpsPerSec(new Histogram_I8(), TEST_TIME);
+			ProfileOperation.printOpsPerSec(new Perreault2007_I8(), TEST_TIME);
+			ProfileOperation.printOpsPerSec(new BlurImageOps_I8(), TEST_TIME);
+			if( slow ) {
+				ProfileOperation.printOpsPerSec(new HistogramNaive_I8(), TEST_TIME);
+				ProfileOperation.printOpsPerSec(new SortNaive_I8(), TEST_TIME);
+				ProfileOperation.printOpsPerSec(new BlurImageOps_F32(), TEST_TIME);
+			}
+		}
 	}
 
 	public static void main( String args[] ) {
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(imgInt8,rand, 0, 100);
+		ImageMiscOps.fillUniform(imgFloat32,rand,0,200);
+
+		int radii[] = new int[]{2,7,15,31};
+
 		System.out.println("=========  Profile Image Size "+imgWidth+" x "+imgHeight+" ==========");
 		System.out.println();
 
-//		Runner.main(BenchmarkMedianFilter.class, args);
+		System.out.println("Single Thread");
+		BoofConcurrency.USE_CONCURRENT = false;
+		perreault = new ImplMedianPerreault2007(1);
+		profileAll(new int[]{2},true);
+		profileAll(radii,false);
+
+		System.out.println();
+		System.out.println("Concurrent: max threads = "+BoofConcurrency.getMaxThreads());
+		BoofConcurrency.USE_CONCURRENT = true;
+		perreault = new ImplMedianPerreault2007(BoofConcurrency.getMaxThreads());
+		profileAll(radii,false);
 	}
 }
@@ -20,6 +20,7 @@ package boofcv.alg.transform.fft;
 
 import boofcv.abst.transform.fft.DiscreteFourierTransform;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.misc.PerformerBase;
 import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.GrayF32;
@@ -28,22 +29,27 @@ import boofcv.struct.image.InterleavedF32;
 import java.util.Random;
 
 /**
+ * Compares the single threaded and concurrent transforms for an image and square images with a size
+ * that's a power of two.
+ *
  * @author Peter Abeles
  */
 public class BenchmarkFastFourierTransform {
 
-	static int width = 640;
-	static int height = 480;
+	static int sizes[] = new int[]{512,1024,2048,4096};
 	static long TEST_TIME = 1000;
 
-	static GrayF32 input = new GrayF32(width,height);
-	static InterleavedF32 fourier = new InterleavedF32(width,height,2);
-	static GrayF32 output = new GrayF32(width,height);
-
+	static GrayF32 input;
+	static InterleavedF32 fourier;
+	static GrayF32 output;
 
 	public static class ComputeFFT extends PerformerBase {
 
-		DiscreteFourierTransform dft = DiscreteFourierTransformOps.createTransformF32();
+		DiscreteFourierTransform<GrayF32,InterleavedF32> dft;
+
+		public ComputeFFT(DiscreteFourierTransform<GrayF32, InterleavedF32> dft) {
+			this.dft = dft;
+		}
 
 		@Override
 		public void process() {
@@ -52,14 +58,27 @@ public class BenchmarkFastFourierTransform {
 		}
 	}
 
-	public static void main( String args[] ) {
-
+	private static void profile( int width , int height ) {
 		Random rand = new Random(234);
+		input = new GrayF32(width,height);
+		fourier = new InterleavedF32(width,height,2);
+		output = new GrayF32(width,height);
 		ImageMiscOps.fillUniform(input, rand, 0, 100);
 
 		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
 		System.out.println();
+		System.out.println("Single Thread");
+		ProfileOperation.printOpsPerSec(new ComputeFFT(DiscreteFourierTransformOps.createTransformF32()), TEST_TIME);
+		System.out.println("Concurrent: max threads = "+BoofConcurrency.getMaxThreads());
+		ProfileOperation.printOpsPerSec(new ComputeFFT(
+				DiscreteFourierTransformOps.createTransformF32(BoofConcurrency.getMaxThreads())), TEST_TIME);
+		System.out.println();
+	}
 
-		ProfileOperation.printOpsPerSec(new ComputeFFT(), TEST_TIME);
+	public static void main( String args[] ) {
+		profile(640,480);
+		for( int s : sizes ) {
+			profile(s,s);
+		}
 	}
 }
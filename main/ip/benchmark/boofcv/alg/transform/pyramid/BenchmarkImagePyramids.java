@@ -18,12 +18,13 @@
 
 package boofcv.alg.transform.pyramid;
 
+import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.misc.ImageMiscOps;
-import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.factory.transform.pyramid.FactoryPyramid;
 import boofcv.misc.PerformerBase;
 import boofcv.misc.ProfileOperation;
-import boofcv.struct.convolve.Kernel1D_F32;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.pyramid.PyramidDiscrete;
 import boofcv.struct.pyramid.PyramidFloat;
@@ -49,6 +50,10 @@ public class BenchmarkImagePyramids {
 	static PyramidDiscrete<GrayF32> pyramidD;
 	static PyramidFloat<GrayF32> pyramidF;
 
+	static ImageGradient<GrayF32,GrayF32> gradient = FactoryDerivative.sobel(GrayF32.class,GrayF32.class);
+	static GrayF32[] derivX;
+	static GrayF32[] derivY;
+
 	static Class<GrayF32> imageType = GrayF32.class;
 
 	public static class Float_F32 extends PerformerBase {
@@ -67,24 +72,48 @@ public class BenchmarkImagePyramids {
 		}
 	}
 
+	public static class DiscreteGradient_F32 extends PerformerBase {
+
+		@Override
+		public void process() {
+			pyramidD.process(input);
+			PyramidOps.gradient(pyramidD, gradient, derivX, derivY);
+		}
+	}
+
 	private static void createUpdate() {
-		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,-1.0,2);
-		pyramidD = new PyramidDiscreteSampleBlur<GrayF32>(kernel,2,GrayF32.class,true,scalesD);
+		pyramidD = FactoryPyramid.discreteGaussian(scalesD,-1,2,true,GrayF32.class);
 
 		pyramidF = FactoryPyramid.scaleSpacePyramid(scalesF, GrayF32.class);
 
+		pyramidD.process(input);
+		derivX = PyramidOps.declareOutput(pyramidD,GrayF32.class);
+		derivY = PyramidOps.declareOutput(pyramidD,GrayF32.class);
+	}
+
+	private static void profileAll() {
+		createUpdate();
+
+		ProfileOperation.printOpsPerSec(new Float_F32(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Discrete_F32(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new DiscreteGradient_F32(), TEST_TIME);
 	}
 
 	public static void main(String args[]) {
 
 		Random rand = new Random(234);
 		ImageMiscOps.fillUniform(input, rand, 0, 100);
-		createUpdate();
 
 		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
 		System.out.println();
 
-		ProfileOperation.printOpsPerSec(new Float_F32(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new Discrete_F32(), TEST_TIME);
+		System.out.println("Single Thread");
+		BoofConcurrency.USE_CONCURRENT = false;
+		profileAll();
+
+		System.out.println();
+		System.out.println("Concurrent: max threads = "+BoofConcurrency.getMaxThreads());
+		BoofConcurrency.USE_CONCURRENT = true;
+		profileAll();
 	}
 }
@@ -48,6 +48,8 @@ public class GenerateImplIntegralImageOps extends CodeGeneratorBase {
 		printTwoInput(AutoTypeImage.U8, AutoTypeImage.S32);
 		printTwoInput(AutoTypeImage.S32, AutoTypeImage.S32);
 		printTwoInput(AutoTypeImage.S64, AutoTypeImage.S64);
+		printTransformSquared(AutoTypeImage.U8);
+		printTransformSquared(AutoTypeImage.F32);
 		singleInput(AutoTypeImage.F32);
 		singleInput(AutoTypeImage.S32);
 		singleInput(AutoTypeImage.F64);
@@ -126,6 +128,47 @@ public class GenerateImplIntegralImageOps extends CodeGeneratorBase {
 				"\t}\n\n");
 	}
 
+	private void printTransformSquared( AutoTypeImage imageIn ) {
+
+		String bitWise = imageIn.getBitWise();
+
+		out.print("\tpublic static void transformSquared( final "+imageIn.getSingleBandName()+" input , final GrayF64 transformed ,\n" +
+				"\t\t\t\t\t\t\t\t\t\t final GrayF64 transformedSq )\n" +
+				"\t{\n" +
+				"\t\tint indexSrc = input.startIndex;\n" +
+				"\t\tint indexDst = transformed.startIndex;\n" +
+				"\t\tint indexSq = transformedSq.startIndex;\n" +
+				"\t\tint end = indexSrc + input.width;\n" +
+				"\n" +
+				"\t\tdouble total = 0, totalSq = 0;\n" +
+				"\t\tfor( ; indexSrc < end; indexSrc++ ) {\n" +
+				"\t\t\tdouble value = input.data[indexSrc]"+bitWise+";\n" +
+				"\t\t\ttransformed.data[indexDst++] = total += value;\n" +
+				"\t\t\ttransformedSq.data[indexSq++] = totalSq += value*value;\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\tfor( int y = 1; y < input.height; y++ ) {\n" +
+				"\t\t\tindexSrc = input.startIndex + input.stride*y;\n" +
+				"\t\t\tindexDst = transformed.startIndex + transformed.stride*y;\n" +
+				"\t\t\tindexSq = transformedSq.startIndex + transformedSq.stride*y;\n" +
+				"\t\t\tint indexPrev = indexDst - transformed.stride;\n" +
+				"\t\t\tint indexPrevSq = indexSq - transformedSq.stride;\n" +
+				"\n" +
+				"\t\t\tend = indexSrc + input.width;\n" +
+				"\n" +
+				"\t\t\ttotal = 0;\n" +
+				"\t\t\ttotalSq = 0;\n" +
+				"\t\t\tfor( ; indexSrc < end; indexSrc++ ) {\n" +
+				"\t\t\t\tdouble value = input.data[indexSrc]"+bitWise+";\n" +
+				"\t\t\t\ttotal += value;\n" +
+				"\t\t\t\ttotalSq += value*value;\n" +
+				"\t\t\t\ttransformed.data[indexDst++] = transformed.data[indexPrev++] + total;\n" +
+				"\t\t\t\ttransformedSq.data[indexSq++] = transformedSq.data[indexPrevSq++] + totalSq;\n" +
+				"\t\t\t}\n" +
+				"\t\t}\n" +
+				"\t}\n\n");
+	}
+
 	private void printConvolve( AutoTypeImage imageIn , AutoTypeImage imageOut) {
 		out.print("\tpublic static void convolve( "+imageIn.getSingleBandName()+" integral ,\n" +
 				"\t\t\t\t\t\t\t\t IntegralKernel kernel,\n" +
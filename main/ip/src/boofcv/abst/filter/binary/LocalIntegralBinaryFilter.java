@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.binary;
+
+import boofcv.alg.filter.binary.ThresholdLocalIntegral;
+import boofcv.core.image.GConvertImage;
+import boofcv.struct.image.*;
+
+/**
+ * Wrapper around {@link ThresholdLocalIntegral}.  Images which are not {@link GrayU8} or {@link GrayF32}
+ * are converted into {@link GrayF32} first.
+ *
+ * @author Peter Abeles
+ */
+public class LocalIntegralBinaryFilter<T extends ImageGray> implements InputToBinary<T> {
+
+	ImageType<T> inputType;
+
+	ThresholdLocalIntegral<ImageGray> alg;
+	GrayF32 input;
+
+	/**
+	 * @param alg The threshold.  Processes the input image or, if the input isn't {@link GrayU8} or
+	 *            {@link GrayF32}, the input after it has been converted into {@link GrayF32}.
+	 * @param inputType Type of input image
+	 */
+	public LocalIntegralBinaryFilter(ThresholdLocalIntegral<ImageGray> alg, ImageType<T> inputType) {
+		this.alg = alg;
+		this.inputType = inputType;
+
+		ImageDataType dataType = inputType.getDataType();
+		if( dataType != ImageDataType.F32 && dataType != ImageDataType.U8 ) {
+			input = new GrayF32(1,1);
+		}
+	}
+
+	@Override
+	public void process(T input, GrayU8 output) {
+		if( this.input == null )
+			alg.process(input,output);
+		else {
+			this.input.reshape(input.width,input.height);
+			GConvertImage.convert(input,this.input);
+			alg.process(this.input,output);
+		}
+	}
+
+	public ThresholdLocalIntegral<ImageGray> getAlgorithm() {
+		return alg;
+	}
+
+	@Override
+	public int getHorizontalBorder() {
+		return 0;
+	}
+
+	@Override
+	public int getVerticalBorder() {
+		return 0;
+	}
+
+	@Override
+	public ImageType<T> getInputType() {
+		return inputType;
+	}
+
+	@Override
+	public ImageType<GrayU8> getOutputType() {
+		return ImageType.single(GrayU8.class);
+	}
+}
@@ -18,8 +18,12 @@
 
 package boofcv.abst.filter.blur;
 
+import boofcv.alg.filter.blur.BlurImageOps;
 import boofcv.alg.filter.blur.GBlurImageOps;
+import boofcv.alg.filter.blur.impl.ImplMedianPerreault2007;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
@@ -129,9 +133,16 @@ public class BlurStorageFilter<T extends ImageGray> implements BlurFilter<T> {
 	}
 
 	private class MedianOperator implements BlurOperation {
+		// histograms for large regions are saved between calls
+		ImplMedianPerreault2007 storage = new ImplMedianPerreault2007(
+				BoofConcurrency.USE_CONCURRENT ? BoofConcurrency.getMaxThreads() : 1);
+
 		@Override
 		public void process(ImageBase input, ImageBase output) {
-			GBlurImageOps.median(input,output,radius);
+			if( input instanceof GrayU8 )
+				BlurImageOps.median((GrayU8)input,(GrayU8)output,radius,storage);
+			else
+				GBlurImageOps.median(input,output,radius);
 		}
 	}
 }
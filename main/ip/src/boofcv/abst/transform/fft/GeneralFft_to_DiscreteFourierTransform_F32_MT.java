@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.transform.fft;
+
+import boofcv.alg.transform.fft.DiscreteFourierTransformOps;
+import boofcv.alg.transform.fft.GeneralPurposeFFT_F32_2D_MT;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.InterleavedF32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wrapper around {@link GeneralPurposeFFT_F32_2D_MT} which implements {@link DiscreteFourierTransform}.  The
+ * transforms for the most recently used image sizes are saved, so that switching between a few sizes does not
+ * require the tables to be computed again.
+ *
+ * @author Peter Abeles
+ */
+public class GeneralFft_to_DiscreteFourierTransform_F32_MT
+		implements DiscreteFourierTransform<GrayF32,InterleavedF32>
+{
+	// maximum number of threads used by a transform
+	private int maxThreads;
+
+	// maximum number of transforms which are saved
+	private int maxPlans;
+
+	// transforms for recently used image sizes.  The most recently used one is first
+	private List<GeneralPurposeFFT_F32_2D_MT> plans = new ArrayList<GeneralPurposeFFT_F32_2D_MT>();
+
+	// storage for temporary results
+	private InterleavedF32 tmp = new InterleavedF32(1,1,2);
+
+	// if true then it can modify the input images
+	private boolean modifyInputs = false;
+
+	/**
+	 * Configures the transform
+	 *
+	 * @param maxThreads Maximum number of threads used by a transform.
+	 * @param maxPlans Maximum number of image sizes whose transforms are saved.
+	 */
+	public GeneralFft_to_DiscreteFourierTransform_F32_MT(int maxThreads, int maxPlans) {
+		if( maxThreads < 1 )
+			throw new IllegalArgumentException("Maximum number of threads must be at least one");
+		if( maxPlans < 1 )
+			throw new IllegalArgumentException("Must save at least one transform");
+		this.maxThreads = maxThreads;
+		this.maxPlans = maxPlans;
+	}
+
+	@Override
+	public void forward(GrayF32 image, InterleavedF32 transform ) {
+		DiscreteFourierTransformOps.checkImageArguments(image,transform);
+		if( image.isSubimage() || transform.isSubimage() )
+			throw new IllegalArgumentException("Subimages are not supported");
+
+		GeneralPurposeFFT_F32_2D_MT alg = lookupAlg(image);
+
+		int N = image.width*image.height;
+		System.arraycopy(image.data,0,transform.data,0,N);
+
+		// the transform over writes the input data
+		alg.realForwardFull(transform.data);
+	}
+
+	@Override
+	public void inverse(InterleavedF32 transform, GrayF32 image ) {
+		DiscreteFourierTransformOps.checkImageArguments(image,transform);
+		if( image.isSubimage() || transform.isSubimage() )
+			throw new IllegalArgumentException("Subimages are not supported");
+
+		GeneralPurposeFFT_F32_2D_MT alg = lookupAlg(image);
+
+		// If he user lets us, modify the transform
+		InterleavedF32 workImage;
+		if(modifyInputs) {
+			workImage = transform;
+		} else {
+			tmp.reshape(transform.width,transform.height);
+			tmp.setTo(transform);
+			workImage = tmp;
+		}
+
+		alg.complexInverse(workImage.data, true);
+
+		// copy the real portion.  imaginary should be zeros
+		int N = image.width*image.height;
+		for( int i = 0; i < N; i++ ) {
+			image.data[i] = workImage.data[i*2];
+		}
+	}
+
+	/**
+	 * Returns the transform for the image's size.  If one has not been saved then it's created and the least
+	 * recently used transform might be discarded.
+	 */
+	private GeneralPurposeFFT_F32_2D_MT lookupAlg(GrayF32 image) {
+		for (int i = 0; i < plans.size(); i++) {
+			GeneralPurposeFFT_F32_2D_MT alg = plans.get(i);
+			if( alg.getRows() == image.height && alg.getColumns() == image.width ) {
+				if( i != 0 ) {
+					plans.remove(i);
+					plans.add(0, alg);
+				}
+				return alg;
+			}
+		}
+
+		GeneralPurposeFFT_F32_2D_MT alg = new GeneralPurposeFFT_F32_2D_MT(image.height,image.width,maxThreads);
+		if( plans.size() >= maxPlans )
+			plans.remove(plans.size()-1);
+		plans.add(0, alg);
+		return alg;
+	}
+
+	/**
+	 * Number of transforms which have been saved
+	 */
+	public int getNumberOfPlans() {
+		return plans.size();
+	}
+
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	@Override
+	public void setModifyInputs(boolean modify) {
+		this.modifyInputs = modify;
+	}
+
+	@Override
+	public boolean isModifyInputs() {
+		return modifyInputs;
+	}
+}
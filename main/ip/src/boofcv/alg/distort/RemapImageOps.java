@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.distort.impl.ImplRemapImage;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.*;
+
+/**
+ * <p>
+ * Functions for applying a {@link RemapTable} to an image using bilinear interpolation.  None of the functions
+ * modify the table or keep any state, so the same table can be applied by several threads at once.  When
+ * {@link BoofConcurrency#USE_CONCURRENT} is true the image is split into bands of rows which are
+ * processed concurrently.
+ * </p>
+ *
+ * <p>
+ * If renderAll is true then every pixel in the output image is written to, with pixels outside the source image
+ * set to the value at the closest point on its border.  Otherwise pixels which map outside the source image
+ * are not modified.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RemapImageOps {
+
+	/**
+	 * Minimum number of rows in a band which is processed by a thread
+	 */
+	public static int MIN_BAND_HEIGHT = 16;
+
+	public static void apply( RemapTable table , final GrayU8 src , final GrayU8 dst , final boolean renderAll ) {
+		checkShape(table, src, dst);
+		processRows(table, new RowProcessor() {
+			@Override
+			public void process(int y, int[] srcX, int[] srcY, int[] weightX, int[] weightY) {
+				ImplRemapImage.row(src, dst, y, 0, dst.width, srcX, srcY, weightX, weightY, renderAll);
+			}
+		});
+	}
+
+	public static void apply( RemapTable table , final GrayF32 src , final GrayF32 dst , final boolean renderAll ) {
+		checkShape(table, src, dst);
+		processRows(table, new RowProcessor() {
+			@Override
+			public void process(int y, int[] srcX, int[] srcY, int[] weightX, int[] weightY) {
+				ImplRemapImage.row(src, dst, y, 0, dst.width, srcX, srcY, weightX, weightY, renderAll);
+			}
+		});
+	}
+
+	public static void apply( RemapTable table , final InterleavedU8 src , final InterleavedU8 dst ,
+							  final boolean renderAll ) {
+		checkShape(table, src, dst);
+		checkBands(src.numBands, dst.numBands);
+		processRows(table, new RowProcessor() {
+			@Override
+			public void process(int y, int[] srcX, int[] srcY, int[] weightX, int[] weightY) {
+				ImplRemapImage.row(src, dst, y, 0, dst.width, srcX, srcY, weightX, weightY, renderAll);
+			}
+		});
+	}
+
+	public static void apply( RemapTable table , final InterleavedF32 src , final InterleavedF32 dst ,
+							  final boolean renderAll ) {
+		checkShape(table, src, dst);
+		checkBands(src.numBands, dst.numBands);
+		processRows(table, new RowProcessor() {
+			@Override
+			public void process(int y, int[] srcX, int[] srcY, int[] weightX, int[] weightY) {
+				ImplRemapImage.row(src, dst, y, 0, dst.width, srcX, srcY, weightX, weightY, renderAll);
+			}
+		});
+	}
+
+	/**
+	 * Applies the table to each band in the image.  Coordinates in a row are decoded once and used by every band.
+	 * Bands must be of type {@link GrayU8} or {@link GrayF32}.
+	 */
+	public static <T extends ImageGray>
+	void apply( RemapTable table , final Planar<T> src , final Planar<T> dst , final boolean renderAll ) {
+		checkShape(table, src, dst);
+		checkBands(src.getNumBands(), dst.getNumBands());
+
+		final Class type = src.getBandType();
+		if( type != GrayU8.class && type != GrayF32.class )
+			throw new IllegalArgumentException("Unsupported band type "+type.getSimpleName());
+
+		processRows(table, new RowProcessor() {
+			@Override
+			public void process(int y, int[] srcX, int[] srcY, int[] weightX, int[] weightY) {
+				for (int band = 0; band < src.getNumBands(); band++) {
+					if( type == GrayU8.class ) {
+						ImplRemapImage.row((GrayU8)src.getBand(band), (GrayU8)dst.getBand(band), y, 0, dst.width,
+								srcX, srcY, weightX, weightY, renderAll);
+					} else {
+						ImplRemapImage.row((GrayF32)src.getBand(band), (GrayF32)dst.getBand(band), y, 0, dst.width,
+								srcX, srcY, weightX, weightY, renderAll);
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Applies the table to any supported image type.
+	 *
+	 * @param table The table which is applied
+	 * @param src Input image. Not modified.
+	 * @param dst Output image. Modified.
+	 * @param renderAll If true every pixel in the output image is rendered.
+	 */
+	public static <T extends ImageBase> void apply( RemapTable table , T src , T dst , boolean renderAll ) {
+		if( src instanceof GrayU8 ) {
+			apply(table, (GrayU8)src, (GrayU8)dst, renderAll);
+		} else if( src instanceof GrayF32 ) {
+			apply(table, (GrayF32)src, (GrayF32)dst, renderAll);
+		} else if( src instanceof InterleavedU8 ) {
+			apply(table, (InterleavedU8)src, (InterleavedU8)dst, renderAll);
+		} else if( src instanceof InterleavedF32 ) {
+			apply(table, (InterleavedF32)src, (InterleavedF32)dst, renderAll);
+		} else if( src instanceof Planar ) {
+			apply(table, (Planar)src, (Planar)dst, renderAll);
+		} else {
+			throw new IllegalArgumentException("Unsupported image type "+src.getClass().getSimpleName());
+		}
+	}
+
+	private static void checkShape( RemapTable table , ImageBase src , ImageBase dst ) {
+		if( !table.isCompatible(src.width, src.height, dst.width, dst.height) )
+			throw new IllegalArgumentException("Image shapes don't match the table");
+	}
+
+	private static void checkBands( int srcBands , int dstBands ) {
+		if( srcBands != dstBands )
+			throw new IllegalArgumentException("Number of bands must be the same");
+	}
+
+	/**
+	 * Decodes each row in the table and passes it to the processor.  Each band of rows has its own storage.
+	 */
+	private static void processRows( final RemapTable table , final RowProcessor processor ) {
+		IntRangeTask task = new IntRangeTask() {
+			@Override
+			public void process(int block, int y0, int y1) {
+				int width = table.getWidth();
+				int[] srcX = new int[width];
+				int[] srcY = new int[width];
+				int[] weightX = new int[width];
+				int[] weightY = new int[width];
+
+				for (int y = y0; y < y1; y++) {
+					table.decodeRow(y, 0, width, srcX, srcY, weightX, weightY);
+					processor.process(y, srcX, srcY, weightX, weightY);
+				}
+			}
+		};
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopBlocks(0, table.getHeight(), MIN_BAND_HEIGHT, task);
+		} else {
+			task.process(0, 0, table.getHeight());
+		}
+	}
+
+	private interface RowProcessor {
+		void process( int y , int[] srcX , int[] srcY , int[] weightX , int[] weightY );
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.struct.distort.PixelTransform_F32;
+
+/**
+ * <p>
+ * Immutable look up table which specifies where each pixel in the output image is sampled from in the
+ * source image.  Computing a distortion, such as removing lens distortion, is often more expensive than
+ * the interpolation.  Computing it once and saving the result in a table allows it to be applied to any
+ * number of images.  Since the table can't be modified after it has been created, a single instance can be
+ * shared between threads, image streams, and image types.  See {@link RemapImageOps} for applying it.
+ * </p>
+ *
+ * <p>
+ * Source coordinates are saved in fixed point, with an integer part and an 8-bit fractional part, which
+ * is the weight used by bilinear interpolation.  Coordinates outside the source image are clamped to its
+ * border, which produces the same results as {@link boofcv.core.image.border.BorderType#EXTENDED}, and
+ * are marked so that they can be skipped.  Integer coordinates are saved as ints or, if the table is
+ * compact, as unsigned shorts.  A compact table uses 7 bytes per pixel instead of 11 and is limited to
+ * source images with a width and height of at most 65536.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RemapTable {
+
+	/**
+	 * Number of bits in the fractional part of a coordinate
+	 */
+	public static final int FRAC_BITS = 8;
+	public static final int FRAC_ONE = 1 << FRAC_BITS;
+
+	/**
+	 * Value which is added to the decoded fractional part of a coordinate outside the source image
+	 */
+	public static final int OUTSIDE = FRAC_ONE;
+
+	// shape of the output image
+	private final int width, height;
+	// shape of the source image
+	private final int srcWidth, srcHeight;
+
+	// integer part of the source coordinate.  Only one pair is used
+	private final int[] intX, intY;
+	private final char[] shortX, shortY;
+	// fractional part of the source coordinate
+	private final byte[] fracX, fracY;
+	// true if the coordinate is inside the source image
+	private final boolean[] inside;
+
+	/**
+	 * Computes the table by applying a transform to every pixel in the output image.
+	 *
+	 * @param dstToSrc Transform from output pixels to source pixels.  Only used inside the constructor.
+	 * @param width Width of the output image
+	 * @param height Height of the output image
+	 * @param srcWidth Width of the source image
+	 * @param srcHeight Height of the source image
+	 * @param compact If true the integer coordinates are saved as shorts
+	 */
+	public RemapTable(PixelTransform_F32 dstToSrc, int width, int height,
+					  int srcWidth, int srcHeight, boolean compact) {
+		if( width <= 0 || height <= 0 || srcWidth <= 0 || srcHeight <= 0 )
+			throw new IllegalArgumentException("Image shapes must be positive");
+		if( compact && (srcWidth > 65536 || srcHeight > 65536) )
+			throw new IllegalArgumentException("Source image is too large for a compact table");
+
+		this.width = width;
+		this.height = height;
+		this.srcWidth = srcWidth;
+		this.srcHeight = srcHeight;
+
+		int N = width*height;
+		if( compact ) {
+			intX = intY = null;
+			shortX = new char[N];
+			shortY = new char[N];
+		} else {
+			intX = new int[N];
+			intY = new int[N];
+			shortX = shortY = null;
+		}
+		fracX = new byte[N];
+		fracY = new byte[N];
+		inside = new boolean[N];
+
+		float maxX = srcWidth-1;
+		float maxY = srcHeight-1;
+
+		int index = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++, index++) {
+				dstToSrc.compute(x,y);
+				float sx = dstToSrc.distX;
+				float sy = dstToSrc.distY;
+
+				// the negated comparisons are also true for NaN
+				inside[index] = sx >= 0 && sx <= maxX && sy >= 0 && sy <= maxY;
+
+				int fixedX = toFixed(sx, maxX);
+				int fixedY = toFixed(sy, maxY);
+
+				if( compact ) {
+					shortX[index] = (char)(fixedX >> FRAC_BITS);
+					shortY[index] = (char)(fixedY >> FRAC_BITS);
+				} else {
+					intX[index] = fixedX >> FRAC_BITS;
+					intY[index] = fixedY >> FRAC_BITS;
+				}
+				fracX[index] = (byte)(fixedX & (FRAC_ONE-1));
+				fracY[index] = (byte)(fixedY & (FRAC_ONE-1));
+			}
+		}
+	}
+
+	/**
+	 * Clamps the coordinate to be inside the image and converts it into fixed point
+	 */
+	private static int toFixed( float value , float max ) {
+		if( !(value > 0) )
+			return 0;
+		if( value >= max )
+			return (int)max << FRAC_BITS;
+		int fixed = (int)(value*FRAC_ONE + 0.5f);
+		return Math.min(fixed, (int)max << FRAC_BITS);
+	}
+
+	/**
+	 * Decodes the coordinates of pixels in a row of the output image.  If the neighbor to the right or below
+	 * is outside the source image then the fractional part is zero and the neighbor can be ignored.
+	 *
+	 * @param y Row in the output image
+	 * @param x0 First column, inclusive
+	 * @param x1 Last column, exclusive
+	 * @param srcX (Output) Integer x-coordinate.  Index 0 is x0.
+	 * @param srcY (Output) Integer y-coordinate.
+	 * @param weightX (Output) Fractional part of the x-coordinate, 0 to {@link #FRAC_ONE}-1.  {@link #OUTSIDE} is
+	 *                added if the source coordinate is outside the source image.
+	 * @param weightY (Output) Fractional part of the y-coordinate, 0 to {@link #FRAC_ONE}-1.
+	 */
+	public void decodeRow( int y , int x0 , int x1 , int[] srcX , int[] srcY , int[] weightX , int[] weightY ) {
+		int index = y*width + x0;
+		int N = x1-x0;
+
+		if( intX != null ) {
+			System.arraycopy(intX, index, srcX, 0, N);
+			System.arraycopy(intY, index, srcY, 0, N);
+		} else {
+			for (int i = 0; i < N; i++) {
+				srcX[i] = shortX[index+i];
+				srcY[i] = shortY[index+i];
+			}
+		}
+
+		for (int i = 0; i < N; i++, index++) {
+			weightX[i] = (fracX[index] & 0xFF) + (inside[index] ? 0 : OUTSIDE);
+			weightY[i] = fracY[index] & 0xFF;
+		}
+	}
+
+	/**
+	 * Returns true if the table can be applied to images with the specified shapes
+	 */
+	public boolean isCompatible( int srcWidth , int srcHeight , int dstWidth , int dstHeight ) {
+		return this.srcWidth == srcWidth && this.srcHeight == srcHeight &&
+				width == dstWidth && height == dstHeight;
+	}
+
+	public boolean isCompact() {
+		return shortX != null;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getSrcWidth() {
+		return srcWidth;
+	}
+
+	public int getSrcHeight() {
+		return srcHeight;
+	}
+}
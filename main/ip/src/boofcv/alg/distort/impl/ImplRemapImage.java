@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort.impl;
+
+import boofcv.alg.distort.RemapTable;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.InterleavedF32;
+import boofcv.struct.image.InterleavedU8;
+
+import static boofcv.alg.distort.RemapTable.FRAC_ONE;
+import static boofcv.alg.distort.RemapTable.OUTSIDE;
+
+/**
+ * Implementations of functions which apply a {@link RemapTable} to a single row, using bilinear interpolation.
+ * The row's coordinates must have already been decoded with {@link RemapTable#decodeRow}.  If the fractional
+ * part of a coordinate is zero then the neighbor is not read, which keeps reads inside the source image.
+ *
+ * @author Peter Abeles
+ */
+public class ImplRemapImage {
+
+	private static final int MASK = FRAC_ONE-1;
+	private static final int ROUND = FRAC_ONE*FRAC_ONE/2;
+	private static final int SHIFT = 2*RemapTable.FRAC_BITS;
+	private static final float SCALE = 1.0f/FRAC_ONE;
+
+	public static void row( GrayU8 src , GrayU8 dst , int y , int x0 , int x1 ,
+							int[] srcX , int[] srcY , int[] weightX , int[] weightY , boolean renderAll ) {
+		int indexDst = dst.startIndex + y*dst.stride + x0;
+		for (int i = 0; i < x1-x0; i++, indexDst++) {
+			int wx = weightX[i];
+			if( wx >= OUTSIDE ) {
+				if( !renderAll )
+					continue;
+				wx &= MASK;
+			}
+			int wy = weightY[i];
+
+			int index = src.startIndex + srcY[i]*src.stride + srcX[i];
+			int dx = wx != 0 ? 1 : 0;
+			int dy = wy != 0 ? src.stride : 0;
+
+			int top = (src.data[index] & 0xFF)*(FRAC_ONE-wx) + (src.data[index+dx] & 0xFF)*wx;
+			int bottom = (src.data[index+dy] & 0xFF)*(FRAC_ONE-wx) + (src.data[index+dy+dx] & 0xFF)*wx;
+
+			dst.data[indexDst] = (byte)((top*(FRAC_ONE-wy) + bottom*wy + ROUND) >> SHIFT);
+		}
+	}
+
+	public static void row( GrayF32 src , GrayF32 dst , int y , int x0 , int x1 ,
+							int[] srcX , int[] srcY , int[] weightX , int[] weightY , boolean renderAll ) {
+		int indexDst = dst.startIndex + y*dst.stride + x0;
+		for (int i = 0; i < x1-x0; i++, indexDst++) {
+			int wx = weightX[i];
+			if( wx >= OUTSIDE ) {
+				if( !renderAll )
+					continue;
+				wx &= MASK;
+			}
+			int wy = weightY[i];
+
+			int index = src.startIndex + srcY[i]*src.stride + srcX[i];
+			int dx = wx != 0 ? 1 : 0;
+			int dy = wy != 0 ? src.stride : 0;
+
+			float ax = wx*SCALE;
+			float ay = wy*SCALE;
+
+			float top = src.data[index]*(1.0f-ax) + src.data[index+dx]*ax;
+			float bottom = src.data[index+dy]*(1.0f-ax) + src.data[index+dy+dx]*ax;
+
+			dst.data[indexDst] = top*(1.0f-ay) + bottom*ay;
+		}
+	}
+
+	public static void row( InterleavedU8 src , InterleavedU8 dst , int y , int x0 , int x1 ,
+							int[] srcX , int[] srcY , int[] weightX , int[] weightY , boolean renderAll ) {
+		final int numBands = src.numBands;
+		int indexDst = dst.startIndex + y*dst.stride + x0*numBands;
+		for (int i = 0; i < x1-x0; i++, indexDst += numBands) {
+			int wx = weightX[i];
+			if( wx >= OUTSIDE ) {
+				if( !renderAll )
+					continue;
+				wx &= MASK;
+			}
+			int wy = weightY[i];
+
+			int index = src.startIndex + srcY[i]*src.stride + srcX[i]*numBands;
+			int dx = wx != 0 ? numBands : 0;
+			int dy = wy != 0 ? src.stride : 0;
+
+			for (int band = 0; band < numBands; band++, index++) {
+				int top = (src.data[index] & 0xFF)*(FRAC_ONE-wx) + (src.data[index+dx] & 0xFF)*wx;
+				int bottom = (src.data[index+dy] & 0xFF)*(FRAC_ONE-wx) + (src.data[index+dy+dx] & 0xFF)*wx;
+
+				dst.data[indexDst+band] = (byte)((top*(FRAC_ONE-wy) + bottom*wy + ROUND) >> SHIFT);
+			}
+		}
+	}
+
+	public static void row( InterleavedF32 src , InterleavedF32 dst , int y , int x0 , int x1 ,
+							int[] srcX , int[] srcY , int[] weightX , int[] weightY , boolean renderAll ) {
+		final int numBands = src.numBands;
+		int indexDst = dst.startIndex + y*dst.stride + x0*numBands;
+		for (int i = 0; i < x1-x0; i++, indexDst += numBands) {
+			int wx = weightX[i];
+			if( wx >= OUTSIDE ) {
+				if( !renderAll )
+					continue;
+				wx &= MASK;
+			}
+			int wy = weightY[i];
+
+			int index = src.startIndex + srcY[i]*src.stride + srcX[i]*numBands;
+			int dx = wx != 0 ? numBands : 0;
+			int dy = wy != 0 ? src.stride : 0;
+
+			float ax = wx*SCALE;
+			float ay = wy*SCALE;
+
+			for (int band = 0; band < numBands; band++, index++) {
+				float top = src.data[index]*(1.0f-ax) + src.data[index+dx]*ax;
+				float bottom = src.data[index+dy]*(1.0f-ax) + src.data[index+dy+dx]*ax;
+
+				dst.data[indexDst+band] = top*(1.0f-ay) + bottom*ay;
+			}
+		}
+	}
+}
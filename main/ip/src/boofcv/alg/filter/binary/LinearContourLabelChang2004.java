@@ -56,16 +56,19 @@ import java.util.List;
  */
 public class LinearContourLabelChang2004 {
 
+	// connectivity rule
+	protected ConnectRule rule;
+
 	// traces edge pixels
-	private ContourTracer tracer;
+	protected ContourTracer tracer;
 
 	// binary image with a border of zero.
-	private GrayU8 border = new GrayU8(1,1);
+	protected GrayU8 border = new GrayU8(1,1);
 
 	// predeclared/recycled data structures
-	private FastQueue<Point2D_I32> storagePoints = new FastQueue<Point2D_I32>(Point2D_I32.class,true);
-	private FastQueue<List<Point2D_I32>> storageLists = new FastQueue<List<Point2D_I32>>((Class)ArrayList.class,true);
-	private FastQueue<Contour> contours = new FastQueue<Contour>(Contour.class,true);
+	protected FastQueue<Point2D_I32> storagePoints = new FastQueue<Point2D_I32>(Point2D_I32.class,true);
+	protected FastQueue<List<Point2D_I32>> storageLists = new FastQueue<List<Point2D_I32>>((Class)ArrayList.class,true);
+	protected FastQueue<Contour> contours = new FastQueue<Contour>(Contour.class,true);
 
 	// internal book keeping variables
 	private int x,y,indexIn,indexOut;
@@ -76,6 +79,7 @@ public class LinearContourLabelChang2004 {
 	 * @param rule Connectivity rule.  4 or 8
 	 */
 	public LinearContourLabelChang2004( ConnectRule rule ) {
+		this.rule = rule;
 		tracer = new ContourTracer(rule);
 	}
 
@@ -87,13 +91,7 @@ public class LinearContourLabelChang2004 {
 	 */
 	public void process(GrayU8 binary , GrayS32 labeled ) {
 		// initialize data structures
-
-		// ensure that the image border pixels are filled with zero by enlarging the image
-		if( border.width != binary.width+2 || border.height != binary.height+2)  {
-			border.reshape(binary.width + 2, binary.height + 2);
-			ImageMiscOps.fillBorder(border, 0, 1);
-		}
-		border.subimage(1,1,border.width-1,border.height-1, null).setTo(binary);
+		copyToBorder(binary);
 
 		// labeled image must initially be filled with zeros
 		ImageMiscOps.fill(labeled,0);
@@ -137,6 +135,23 @@ public class LinearContourLabelChang2004 {
 		}
 	}
 
+	/**
+	 * Copies the binary image into the center of {@link #border}.  The outside border of
+	 * {@link #border} is filled with zeros.
+	 */
+	protected void copyToBorder(GrayU8 binary) {
+		// ensure that the image border pixels are filled with zero by enlarging the image
+		if( border.width != binary.width+2 || border.height != binary.height+2)  {
+			border.reshape(binary.width + 2, binary.height + 2);
+			ImageMiscOps.fillBorder(border, 0, 1);
+		}
+		border.subimage(1,1,border.width-1,border.height-1, null).setTo(binary);
+	}
+
+	public ConnectRule getRule() {
+		return rule;
+	}
+
 	public FastQueue<Contour> getContours() {
 		return contours;
 	}
@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link LinearContourLabelChang2004}.  The labeled image and list of contours
+ * are identical to what the single threaded implementation produces.
+ * </p>
+ *
+ * <p>
+ * Instead of a single raster scan the image is split into bands of rows which are labeled independently using
+ * a union-find equivalence table.  Both blobs and the background are labeled, the background using the
+ * complementary connectivity rule.  The bands are then merged along the rows where they meet.  Each equivalence
+ * set's root is the first pixel of the set in raster order, which is the pixel where the single threaded
+ * algorithm would have encountered it:
+ * </p>
+ * <ul>
+ * <li>Blobs are numbered in the order of their roots and their external contour is traced from the root.</li>
+ * <li>Every background region, other than the one around the image, is a hole inside a blob.  Its internal
+ * contour is traced from the pixel above its root.</li>
+ * </ul>
+ * <p>
+ * Once the labels are known every contour is traced independently of the others.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearContourLabelChang2004_MT extends LinearContourLabelChang2004 {
+
+	/**
+	 * Minimum number of rows in a band which is labeled by a thread
+	 */
+	public static int MIN_BAND_HEIGHT = 32;
+
+	/**
+	 * Minimum number of contours traced by a thread
+	 */
+	public static int MIN_CONTOURS = 20;
+
+	// union-find equivalence table.  One element for each pixel in the bordered binary image.  After the
+	// labels have been resolved a root contains the negative of the blob's label
+	private int parent[] = new int[0];
+
+	// storage for each block
+	private FastQueue<BlockStorage> blocks = new FastQueue<BlockStorage>(1,(Class)BlockStorage.class,true) {
+		@Override
+		protected BlockStorage createInstance() {
+			return new BlockStorage(rule);
+		}
+	};
+
+	// root of every blob and every hole, in raster order
+	private GrowQueue_I32 blobRoots = new GrowQueue_I32();
+	private GrowQueue_I32 holeRoots = new GrowQueue_I32();
+
+	// the image being labeled
+	private GrayS32 labeled;
+
+	/**
+	 * Configures the algorithm.
+	 *
+	 * @param rule Connectivity rule.  4 or 8
+	 */
+	public LinearContourLabelChang2004_MT(ConnectRule rule) {
+		super(rule);
+	}
+
+	@Override
+	public void process(GrayU8 binary, GrayS32 labeled) {
+		copyToBorder(binary);
+		this.labeled = labeled;
+
+		final int N = border.width*border.height;
+		if( parent.length < N )
+			parent = new int[N];
+
+		contours.reset();
+		storageLists.reset();
+		blobRoots.reset();
+		holeRoots.reset();
+
+		int numBands = Math.max(1,BoofConcurrency.computeNumBlocks(0, border.height, MIN_BAND_HEIGHT));
+		blocks.resize(Math.max(numBands, BoofConcurrency.getMaxThreads()));
+		for (int i = 0; i < blocks.size; i++) {
+			blocks.get(i).reset(border, labeled);
+		}
+
+		// label each band independently
+		BoofConcurrency.loopBlocks(0, border.height, MIN_BAND_HEIGHT, new IntRangeTask() {
+			@Override
+			public void process(int block, int y0, int y1) {
+				labelBand(y0, y1);
+			}
+		});
+
+		// merge the bands along the rows where they meet
+		for (int band = 1; band < numBands; band++) {
+			mergeRow(BoofConcurrency.blockStart(0, border.height, numBands, band));
+		}
+
+		// point every pixel directly at its root and find the roots
+		BoofConcurrency.loopBlocks(0, border.height, MIN_BAND_HEIGHT, new IntRangeTask() {
+			@Override
+			public void process(int block, int y0, int y1) {
+				flattenBand(blocks.get(block), y0, y1);
+			}
+		});
+
+		// blobs are numbered in raster order of their roots
+		for (int band = 0; band < numBands; band++) {
+			BlockStorage s = blocks.get(band);
+			for (int i = 0; i < s.blobs.size; i++) {
+				int root = s.blobs.data[i];
+				parent[root] = -(blobRoots.size+1);
+				blobRoots.add(root);
+
+				Contour c = contours.grow();
+				c.reset();
+				c.id = contours.size;
+			}
+			holeRoots.addAll(s.holes);
+		}
+
+		// write the labeled image
+		BoofConcurrency.loopBlocks(0, labeled.height, MIN_BAND_HEIGHT, new IntRangeTask() {
+			@Override
+			public void process(int block, int y0, int y1) {
+				writeLabels(y0, y1);
+			}
+		});
+
+		traceExternal();
+		traceInternal();
+	}
+
+	/**
+	 * Labels pixels inside the band.  Only neighbors which have already been visited and are inside the band
+	 * are considered.
+	 */
+	private void labelBand( int y0 , int y1 ) {
+		final byte[] data = border.data;
+		final int w = border.width;
+		final boolean eightBlob = rule == ConnectRule.EIGHT;
+
+		for (int y = y0; y < y1; y++) {
+			int index = y*w;
+			// root of the previous pixel.  Unions only happen at the current pixel so it's still a root
+			int prevRoot = -1;
+			for (int x = 0; x < w; x++, index++) {
+				boolean blob = data[index] == 1;
+
+				int root;
+				boolean left = x > 0 && (data[index-1] == 1) == blob;
+				if( left )
+					root = prevRoot;
+				else
+					root = index;
+				parent[index] = root;
+
+				if( y > y0 ) {
+					int above = index-w;
+					if( (data[above] == 1) == blob ) {
+						// the diagonal pixels touch 'above' so they are already in the same set
+						root = union(root, above);
+					} else if( blob == eightBlob ) {
+						// the upper left pixel touches the left pixel
+						if( !left && x > 0 && (data[above-1] == 1) == blob )
+							root = union(root, above-1);
+						if( x < w-1 && (data[above+1] == 1) == blob )
+							root = union(root, above+1);
+					}
+				}
+				prevRoot = root;
+			}
+		}
+	}
+
+	/**
+	 * Connects pixels in row y to their neighbors in the row above
+	 */
+	private void mergeRow( int y ) {
+		final byte[] data = border.data;
+		final int w = border.width;
+		final boolean eightBlob = rule == ConnectRule.EIGHT;
+
+		int index = y*w;
+		for (int x = 0; x < w; x++, index++) {
+			boolean blob = data[index] == 1;
+			int above = index-w;
+
+			int root = find(index);
+			if( (data[above] == 1) == blob )
+				root = union(root, above);
+			if( blob == eightBlob ) {
+				if( x > 0 && (data[above-1] == 1) == blob )
+					root = union(root, above-1);
+				if( x < w-1 && (data[above+1] == 1) == blob )
+					root = union(root, above+1);
+			}
+		}
+	}
+
+	/**
+	 * Sets every pixel in the band to its root and saves the roots.  Roots in earlier bands can be read
+	 * while they are being modified by another thread, which is fine since any value read is on the path
+	 * to the same root.
+	 */
+	private void flattenBand( BlockStorage storage , int y0 , int y1 ) {
+		final byte[] data = border.data;
+		final int w = border.width;
+
+		storage.blobs.reset();
+		storage.holes.reset();
+
+		int end = y1*w;
+		for (int index = y0*w; index < end; index++) {
+			int p = parent[index];
+			if( p == index ) {
+				if( data[index] == 1 )
+					storage.blobs.add(index);
+				else if( index != 0 )
+					// the first pixel is part of the border, everything not connected to it is a hole
+					storage.holes.add(index);
+			} else {
+				while( parent[p] != p )
+					p = parent[p];
+				parent[index] = p;
+			}
+		}
+	}
+
+	private void writeLabels( int y0 , int y1 ) {
+		final byte[] data = border.data;
+		final int w = border.width;
+
+		for (int y = y0; y < y1; y++) {
+			int indexIn = (y+1)*w + 1;
+			int indexOut = labeled.startIndex + y*labeled.stride;
+			int end = indexOut + labeled.width;
+
+			for( ; indexOut < end; indexOut++, indexIn++ ) {
+				if( data[indexIn] == 1 )
+					labeled.data[indexOut] = labelOf(indexIn);
+				else
+					labeled.data[indexOut] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Traces the external contour of each blob starting from its root
+	 */
+	private void traceExternal() {
+		BoofConcurrency.loopBlocks(0, contours.size, MIN_CONTOURS, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				ContourTracer tracer = blocks.get(block).tracer;
+				final int w = border.width;
+				for (int i = idx0; i < idx1; i++) {
+					int root = blobRoots.data[i];
+					tracer.trace(i+1, root%w, root/w, true, contours.get(i).external);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Traces the internal contour of each hole, starting from the blob pixel above its root.  Holes are
+	 * added to their blob in raster order.
+	 */
+	private void traceInternal() {
+		for (int i = 0; i < holeRoots.size; i++) {
+			storageLists.grow().clear();
+		}
+
+		BoofConcurrency.loopBlocks(0, holeRoots.size, MIN_CONTOURS, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				ContourTracer tracer = blocks.get(block).tracer;
+				final int w = border.width;
+				for (int i = idx0; i < idx1; i++) {
+					int start = holeRoots.data[i] - w;
+					tracer.trace(labelOf(start), start%w, start/w, false, storageLists.get(i));
+				}
+			}
+		});
+
+		for (int i = 0; i < holeRoots.size; i++) {
+			int label = labelOf(holeRoots.data[i] - border.width);
+			contours.get(label-1).internal.add(storageLists.get(i));
+		}
+	}
+
+	/**
+	 * Looks up the label of a blob pixel once the roots have been assigned labels
+	 */
+	private int labelOf( int index ) {
+		int p = parent[index];
+		return p < 0 ? -p : -parent[p];
+	}
+
+	/**
+	 * Joins the sets which contain pixel 'index' and 'root'.  'root' must be the root of its set.  The smaller
+	 * pixel index becomes the new root, which is returned.
+	 */
+	private int union( int root , int index ) {
+		int other = find(index);
+		if( other == root )
+			return root;
+		if( other < root ) {
+			parent[root] = other;
+			return other;
+		} else {
+			parent[other] = root;
+			return root;
+		}
+	}
+
+	private int find( int index ) {
+		while( parent[index] != index ) {
+			parent[index] = parent[parent[index]];
+			index = parent[index];
+		}
+		return index;
+	}
+
+	/**
+	 * Storage for each band or block of contours
+	 */
+	private static class BlockStorage {
+		ContourTracer tracer;
+		FastQueue<Point2D_I32> points = new FastQueue<Point2D_I32>(Point2D_I32.class,true);
+		GrowQueue_I32 blobs = new GrowQueue_I32();
+		GrowQueue_I32 holes = new GrowQueue_I32();
+
+		public BlockStorage( ConnectRule rule ) {
+			tracer = new ContourTracer(rule);
+		}
+
+		public void reset( GrayU8 border , GrayS32 labeled ) {
+			points.reset();
+			tracer.setInputs(border, labeled, points);
+		}
+	}
+}
@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.transform.ii.IntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayF64;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Base class for locally adaptive thresholds which are computed from the mean and standard deviation of
+ * the pixels inside a square region centered around each pixel.  The statistics are computed from an
+ * integral image of the input and of the input squared, making the cost of each pixel independent of the
+ * region's size.  Next to the image border the region is cropped so that it's inside the image.
+ * </p>
+ *
+ * <p>
+ * If thresholding down then pixels with a value &le; their threshold are set to 1, otherwise pixels with a
+ * value &ge; their threshold are set to 1.
+ * </p>
+ *
+ * <p>
+ * The image is thresholded in bands of rows which are processed by up to maxThreads threads, see
+ * {@link BoofConcurrency}.  The results do not depend on the number of threads.  Computing the integral
+ * images is a single threaded operation.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class ThresholdLocalIntegral<T extends ImageGray> {
+
+	/**
+	 * Minimum number of rows in a band which is thresholded by a thread
+	 */
+	public static int MIN_BAND_HEIGHT = 16;
+
+	// radius of the local region
+	protected int radius;
+	// should it threshold down or up
+	protected boolean down;
+
+	// true if the local standard deviation is used by the threshold
+	protected boolean useStdev;
+	// true if the image wide statistics are used by the threshold
+	protected boolean useGlobal;
+
+	// maximum number of threads used at once
+	protected int maxThreads;
+
+	// image wide statistics: maximum local standard deviation and minimum pixel value
+	protected float maxStdev;
+	protected float minValue;
+
+	// integral image of the input and the input squared
+	protected GrayF64 integral = new GrayF64(1,1);
+	protected GrayF64 integralSq = new GrayF64(1,1);
+
+	// 1/(width of the local region) for each column
+	private double invWidth[] = new double[0];
+	// a row of zeros, used to sum regions which start at the first row
+	private double zeros[] = new double[0];
+
+	// storage for each band
+	private FastQueue<RowStorage> storage = new FastQueue<RowStorage>(1,(Class)RowStorage.class,true) {
+		@Override
+		protected RowStorage createInstance() {
+			return new RowStorage();
+		}
+	};
+
+	// the images being processed
+	private T input;
+	private GrayU8 output;
+
+	/**
+	 * Configures the threshold
+	 *
+	 * @param radius Radius of the local square region.
+	 * @param down Should it threshold down or up.
+	 * @param useStdev true if the local standard deviation is used
+	 * @param useGlobal true if the maximum local standard deviation and minimum pixel value are used
+	 * @param maxThreads Maximum number of threads it will use.  Also limited by
+	 * {@link BoofConcurrency#getMaxThreads()}.
+	 */
+	protected ThresholdLocalIntegral(int radius, boolean down, boolean useStdev, boolean useGlobal, int maxThreads) {
+		this.maxThreads = maxThreads;
+		this.radius = radius;
+		this.down = down;
+		this.useStdev = useStdev || useGlobal;
+		this.useGlobal = useGlobal;
+	}
+
+	/**
+	 * Converts the input image into a binary image.
+	 *
+	 * @param input Input image.  {@link GrayU8} or {@link GrayF32}.  Not modified.
+	 * @param output Output binary image.  Modified.
+	 */
+	public void process(T input , GrayU8 output ) {
+		InputSanityCheck.checkSameShape(input,output);
+
+		if( input instanceof GrayU8 ) {
+			IntegralImageOps.transformSquared((GrayU8)input, integral, integralSq);
+		} else if( input instanceof GrayF32 ) {
+			IntegralImageOps.transformSquared((GrayF32)input, integral, integralSq);
+		} else {
+			throw new IllegalArgumentException("Unsupported image type "+input.getClass().getSimpleName());
+		}
+
+		this.input = input;
+		this.output = output;
+
+		final int height = input.height;
+		storage.resize(Math.max(1,BoofConcurrency.computeNumBlocks(0, height, MIN_BAND_HEIGHT, maxThreads)));
+		for (int i = 0; i < storage.size; i++) {
+			storage.get(i).reshape(input.width);
+		}
+		declareColumns(input.width);
+
+		if( useGlobal ) {
+			loopRows(height, new IntRangeTask() {
+				@Override
+				public void process(int block, int y0, int y1) {
+					computeGlobalBand(storage.get(block), y0, y1);
+				}
+			});
+
+			maxStdev = -Float.MAX_VALUE;
+			minValue = Float.MAX_VALUE;
+			for (int i = 0; i < storage.size; i++) {
+				maxStdev = Math.max(maxStdev, storage.get(i).maxStdev);
+				minValue = Math.min(minValue, storage.get(i).minValue);
+			}
+		}
+
+		loopRows(height, new IntRangeTask() {
+			@Override
+			public void process(int block, int y0, int y1) {
+				thresholdBand(storage.get(block), y0, y1);
+			}
+		});
+
+		this.input = null;
+		this.output = null;
+	}
+
+	/**
+	 * Computes the width of the local region for each column
+	 */
+	private void declareColumns( int width ) {
+		if( invWidth.length < width ) {
+			invWidth = new double[width];
+			zeros = new double[width];
+		}
+		for (int x = 0; x < width; x++) {
+			int x0 = Math.max(0, x - radius);
+			int x1 = Math.min(width, x + radius + 1);
+			invWidth[x] = 1.0/(x1-x0);
+		}
+	}
+
+	/**
+	 * Processes every row, in bands if more than one thread can be used
+	 */
+	private void loopRows( int height , IntRangeTask task ) {
+		BoofConcurrency.loopBlocks(0, height, MIN_BAND_HEIGHT, maxThreads, task);
+	}
+
+	/**
+	 * Finds the maximum local standard deviation and minimum pixel value inside the band.  The maximum
+	 * variance is found instead so that the square root is only computed once.
+	 */
+	private void computeGlobalBand( RowStorage s , int y0 , int y1 ) {
+		float maxVariance = 0;
+		float minValue = Float.MAX_VALUE;
+
+		for (int y = y0; y < y1; y++) {
+			loadRow(y, s.values);
+			computeStatistics(s, y, false);
+			for (int x = 0; x < input.width; x++) {
+				maxVariance = Math.max(maxVariance, s.stdev[x]);
+				minValue = Math.min(minValue, s.values[x]);
+			}
+		}
+
+		s.maxStdev = (float)Math.sqrt(maxVariance);
+		s.minValue = minValue;
+	}
+
+	private void thresholdBand( RowStorage s , int y0 , int y1 ) {
+		final int width = input.width;
+		final float values[] = s.values;
+		final float threshold[] = s.threshold;
+
+		for (int y = y0; y < y1; y++) {
+			loadRow(y, values);
+			computeStatistics(s, y, true);
+			computeThresholds(s.mean, s.stdev, threshold, width);
+
+			int indexOut = output.startIndex + y*output.stride;
+			if( down ) {
+				for (int x = 0; x < width; x++) {
+					output.data[indexOut++] = (byte)(values[x] <= threshold[x] ? 1 : 0);
+				}
+			} else {
+				for (int x = 0; x < width; x++) {
+					output.data[indexOut++] = (byte)(values[x] >= threshold[x] ? 1 : 0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Copies a row in the input image into a float array
+	 */
+	private void loadRow( int y , float values[] ) {
+		final int width = input.width;
+		if( input instanceof GrayU8 ) {
+			GrayU8 img = (GrayU8)input;
+			int index = img.startIndex + y*img.stride;
+			for (int x = 0; x < width; x++) {
+				values[x] = img.data[index++] & 0xFF;
+			}
+		} else {
+			GrayF32 img = (GrayF32)input;
+			System.arraycopy(img.data, img.startIndex + y*img.stride, values, 0, width);
+		}
+	}
+
+	/**
+	 * Computes the mean and standard deviation of the local region around each pixel in the row.  The
+	 * standard deviation is only computed if needed.
+	 *
+	 * @param sqrt If true the standard deviation is computed, otherwise the variance
+	 */
+	private void computeStatistics( RowStorage s , int y , boolean sqrt ) {
+		final int width = integral.width;
+
+		// rows in the integral image which bound the region.  Exclusive and inclusive
+		int rowA = Math.max(0, y - radius) - 1;
+		int rowB = Math.min(integral.height, y + radius + 1) - 1;
+		double invHeight = 1.0/(rowB - rowA);
+
+		final float mean[] = s.mean;
+		final float stdev[] = s.stdev;
+		final double sum[] = s.sum;
+		final double sumSq[] = s.sumSq;
+
+		sumRow(integral, rowA, rowB, sum);
+		if( !useStdev ) {
+			for (int x = 0; x < width; x++) {
+				mean[x] = (float)(sum[x]*invWidth[x]*invHeight);
+			}
+			return;
+		}
+
+		sumRow(integralSq, rowA, rowB, sumSq);
+		for (int x = 0; x < width; x++) {
+			double invArea = invWidth[x]*invHeight;
+			double m = sum[x]*invArea;
+			mean[x] = (float)m;
+
+			double variance = sumSq[x]*invArea - m*m;
+			// round off error can cause it to be slightly negative
+			if( variance <= 0 )
+				stdev[x] = 0;
+			else
+				stdev[x] = sqrt ? (float)Math.sqrt(variance) : (float)variance;
+		}
+	}
+
+	/**
+	 * Sums up the local region around each pixel in a row using an integral image.  The region is bounded by
+	 * rowA (exclusive) and rowB (inclusive).  If rowA is -1 then the region starts at the first row.
+	 */
+	private void sumRow( GrayF64 ii , int rowA , int rowB , double sum[] ) {
+		final int width = ii.width;
+		final double data[] = ii.data;
+		final int indexB = ii.startIndex + rowB*ii.stride;
+
+		// above the image the integral image is zero
+		final double dataA[] = rowA >= 0 ? data : zeros;
+		final int indexA = rowA >= 0 ? ii.startIndex + rowA*ii.stride : 0;
+
+		// left border, where the region starts at the first column
+		int x = 0;
+		int end = Math.min(width, radius+1);
+		for (; x < end; x++) {
+			int colB = Math.min(width-1, x + radius);
+			sum[x] = data[indexB+colB] - dataA[indexA+colB];
+		}
+
+		// inner columns
+		end = width - radius;
+		for (; x < end; x++) {
+			int colA = x - radius - 1;
+			int colB = x + radius;
+			sum[x] = data[indexB+colB] - data[indexB+colA] - dataA[indexA+colB] + dataA[indexA+colA];
+		}
+
+		// right border, where the region ends at the last column
+		for (; x < width; x++) {
+			int colA = x - radius - 1;
+			sum[x] = data[indexB+width-1] - data[indexB+colA] - dataA[indexA+width-1] + dataA[indexA+colA];
+		}
+	}
+
+	/**
+	 * Computes the threshold for each pixel in a row from its local statistics.  The image wide statistics,
+	 * {@link #maxStdev} and {@link #minValue}, are available if requested in the constructor.
+	 *
+	 * @param mean Mean of each pixel's local region
+	 * @param stdev Standard deviation of each pixel's local region.  Only valid if requested in the constructor.
+	 * @param threshold (Output) The threshold of each pixel
+	 * @param width Number of pixels in the row
+	 */
+	protected abstract void computeThresholds( float mean[] , float stdev[] , float threshold[] , int width );
+
+	/**
+	 * Specifies the storage used for the integral images.  Allows the memory to be shared with other
+	 * algorithms.  The images are reshaped as needed.
+	 *
+	 * @param integral Storage for the integral image of the input
+	 * @param integralSq Storage for the integral image of the input squared
+	 */
+	public void setWorkspace( GrayF64 integral , GrayF64 integralSq ) {
+		this.integral = integral;
+		this.integralSq = integralSq;
+	}
+
+	public GrayF64 getIntegral() {
+		return integral;
+	}
+
+	public GrayF64 getIntegralSq() {
+		return integralSq;
+	}
+
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	public int getRadius() {
+		return radius;
+	}
+
+	public void setRadius(int radius) {
+		this.radius = radius;
+	}
+
+	public boolean isDown() {
+		return down;
+	}
+
+	public void setDown(boolean down) {
+		this.down = down;
+	}
+
+	/**
+	 * Storage for the rows in a band
+	 */
+	private static class RowStorage {
+		float values[] = new float[0];
+		float mean[] = new float[0];
+		float stdev[] = new float[0];
+		float threshold[] = new float[0];
+		double sum[] = new double[0];
+		double sumSq[] = new double[0];
+
+		float maxStdev;
+		float minValue;
+
+		public void reshape( int width ) {
+			if( values.length < width ) {
+				values = new float[width];
+				mean = new float[width];
+				stdev = new float[width];
+				threshold = new float[width];
+				sum = new double[width];
+				sumSq = new double[width];
+			}
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * Local adaptive threshold computed from the mean of a square region around each pixel.  The mean is found
+ * using integral images, so unlike {@link ThresholdImageOps#localSquare} the cost does not depend on the
+ * region's size.<br>
+ * T(x,y) = m(x,y) * scale<br>
+ * where T(x,y) is the pixel's threshold, m(x,y) is the local mean, and scale is a user specified adjustment.
+ * </p>
+ *
+ * @see ThresholdLocalIntegral
+ *
+ * @author Peter Abeles
+ */
+public class ThresholdLocalMean<T extends ImageGray> extends ThresholdLocalIntegral<T> {
+
+	// scale factor applied to the mean
+	float scale;
+
+	/**
+	 * Configures the threshold
+	 *
+	 * @param radius Radius of the local square region.
+	 * @param scale Scale factor applied to the local mean.  1.0 means no change.  Try 0.95
+	 * @param down Should it threshold down or up.
+	 */
+	public ThresholdLocalMean(int radius, float scale, boolean down) {
+		this(radius, scale, down, 1);
+	}
+
+	/**
+	 * Same as {@link #ThresholdLocalMean(int, float, boolean)} but it uses up to maxThreads threads.
+	 */
+	public ThresholdLocalMean(int radius, float scale, boolean down, int maxThreads) {
+		super(radius, down, false, false, maxThreads);
+		this.scale = scale;
+	}
+
+	@Override
+	protected void computeThresholds(float[] mean, float[] stdev, float[] threshold, int width) {
+		for (int x = 0; x < width; x++) {
+			threshold[x] = mean[x]*scale;
+		}
+	}
+
+	public float getScale() {
+		return scale;
+	}
+
+	public void setScale(float scale) {
+		this.scale = scale;
+	}
+}
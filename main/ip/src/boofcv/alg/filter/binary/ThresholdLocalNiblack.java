@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * Niblack's local adaptive threshold.  Each pixel's threshold is found from the mean and standard deviation
+ * of a square region around it:<br>
+ * T(x,y) = m(x,y) + k * s(x,y)<br>
+ * where T(x,y) is the pixel's threshold, m(x,y) is the local mean, s(x,y) is the local standard deviation,
+ * and k is a user specified adjustment.  For dark text on a light background threshold down with k around -0.2.
+ * </p>
+ *
+ * <p>
+ * [1] W. Niblack, "An Introduction to Digital Image Processing" Prentice Hall, 1986
+ * </p>
+ *
+ * @see ThresholdLocalIntegral
+ *
+ * @author Peter Abeles
+ */
+public class ThresholdLocalNiblack<T extends ImageGray> extends ThresholdLocalIntegral<T> {
+
+	// weight of the standard deviation
+	float k;
+
+	/**
+	 * Configures the threshold
+	 *
+	 * @param radius Radius of the local square region.  Try 15
+	 * @param k Weight of the local standard deviation.  Try -0.2
+	 * @param down Should it threshold down or up.
+	 */
+	public ThresholdLocalNiblack(int radius, float k, boolean down) {
+		this(radius, k, down, 1);
+	}
+
+	/**
+	 * Same as {@link #ThresholdLocalNiblack(int, float, boolean)} but it uses up to maxThreads threads.
+	 */
+	public ThresholdLocalNiblack(int radius, float k, boolean down, int maxThreads) {
+		super(radius, down, true, false, maxThreads);
+		this.k = k;
+	}
+
+	@Override
+	protected void computeThresholds(float[] mean, float[] stdev, float[] threshold, int width) {
+		for (int x = 0; x < width; x++) {
+			threshold[x] = mean[x] + k*stdev[x];
+		}
+	}
+
+	public float getK() {
+		return k;
+	}
+
+	public void setK(float k) {
+		this.k = k;
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * Sauvola's local adaptive threshold.  Intended for use as a preprocessing step in OCR.  Each pixel's
+ * threshold is found from the mean and standard deviation of a square region around it:<br>
+ * T(x,y) = m(x,y) * [ 1 + k * (s(x,y)/R - 1)]<br>
+ * where T(x,y) is the pixel's threshold, m(x,y) is the local mean, s(x,y) is the local standard deviation,
+ * R is the maximum local standard deviation in the image, and k is a user specified adjustment.
+ * Computes the same threshold as {@link boofcv.alg.filter.binary.impl.ThresholdSauvola} but the cost does
+ * not depend on the region's size.
+ * </p>
+ *
+ * <p>
+ * [1] J. Sauvola and M. Pietikainen, "Adaptive document image binarization" Pattern Recognition, 2000
+ * </p>
+ *
+ * @see ThresholdLocalIntegral
+ *
+ * @author Peter Abeles
+ */
+public class ThresholdLocalSauvola<T extends ImageGray> extends ThresholdLocalIntegral<T> {
+
+	// user specified threshold adjustment
+	float k;
+
+	/**
+	 * Configures the threshold
+	 *
+	 * @param radius Radius of the local square region.  Try 15
+	 * @param k User specified threshold adjustment factor.  Must be positive. Try 0.3
+	 * @param down Should it threshold down or up.
+	 */
+	public ThresholdLocalSauvola(int radius, float k, boolean down) {
+		this(radius, k, down, 1);
+	}
+
+	/**
+	 * Same as {@link #ThresholdLocalSauvola(int, float, boolean)} but it uses up to maxThreads threads.
+	 */
+	public ThresholdLocalSauvola(int radius, float k, boolean down, int maxThreads) {
+		super(radius, down, true, true, maxThreads);
+		this.k = k;
+	}
+
+	@Override
+	protected void computeThresholds(float[] mean, float[] stdev, float[] threshold, int width) {
+		// avoid dividing by zero in an image with no variation
+		float R = maxStdev > 0 ? maxStdev : 1;
+		for (int x = 0; x < width; x++) {
+			threshold[x] = mean[x]*(1.0f + k*(stdev[x]/R - 1.0f));
+		}
+	}
+
+	public float getK() {
+		return k;
+	}
+
+	public void setK(float k) {
+		this.k = k;
+	}
+}
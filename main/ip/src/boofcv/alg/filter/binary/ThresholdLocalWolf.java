@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * Wolf's local adaptive threshold.  A variant of Sauvola's threshold which normalizes by the image's contrast,
+ * making it less sensitive to the choice of k on low contrast documents:<br>
+ * T(x,y) = (1-k)*m(x,y) + k*M + k*(s(x,y)/R)*(m(x,y) - M)<br>
+ * where T(x,y) is the pixel's threshold, m(x,y) is the local mean, s(x,y) is the local standard deviation,
+ * R is the maximum local standard deviation in the image, M is the minimum pixel value in the image,
+ * and k is a user specified adjustment.
+ * </p>
+ *
+ * <p>
+ * [1] C. Wolf, J-M. Jolion, and F. Chassaing, "Text localization, enhancement and binarization in
+ * multimedia documents" ICPR, 2002
+ * </p>
+ *
+ * @see ThresholdLocalIntegral
+ *
+ * @author Peter Abeles
+ */
+public class ThresholdLocalWolf<T extends ImageGray> extends ThresholdLocalIntegral<T> {
+
+	// user specified threshold adjustment
+	float k;
+
+	/**
+	 * Configures the threshold
+	 *
+	 * @param radius Radius of the local square region.  Try 15
+	 * @param k User specified threshold adjustment factor.  Try 0.5
+	 * @param down Should it threshold down or up.
+	 */
+	public ThresholdLocalWolf(int radius, float k, boolean down) {
+		this(radius, k, down, 1);
+	}
+
+	/**
+	 * Same as {@link #ThresholdLocalWolf(int, float, boolean)} but it uses up to maxThreads threads.
+	 */
+	public ThresholdLocalWolf(int radius, float k, boolean down, int maxThreads) {
+		super(radius, down, true, true, maxThreads);
+		this.k = k;
+	}
+
+	@Override
+	protected void computeThresholds(float[] mean, float[] stdev, float[] threshold, int width) {
+		// avoid dividing by zero in an image with no variation
+		float R = maxStdev > 0 ? maxStdev : 1;
+		float M = minValue;
+		for (int x = 0; x < width; x++) {
+			float m = mean[x];
+			threshold[x] = (1.0f - k)*m + k*M + k*(stdev[x]/R)*(m - M);
+		}
+	}
+
+	public float getK() {
+		return k;
+	}
+
+	public void setK(float k) {
+		this.k = k;
+	}
+}
@@ -20,10 +20,13 @@ package boofcv.alg.filter.blur;
 
 import boofcv.alg.InputSanityCheck;
 import boofcv.alg.filter.blur.impl.ImplMedianHistogramInner;
+import boofcv.alg.filter.blur.impl.ImplMedianHistogramInner_MT;
+import boofcv.alg.filter.blur.impl.ImplMedianPerreault2007;
 import boofcv.alg.filter.blur.impl.ImplMedianSortEdgeNaive;
 import boofcv.alg.filter.blur.impl.ImplMedianSortNaive;
 import boofcv.alg.filter.convolve.ConvolveImageMean;
 import boofcv.alg.filter.convolve.ConvolveNormalized;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
 import boofcv.struct.convolve.Kernel1D_F32;
@@ -39,6 +42,12 @@ import boofcv.struct.image.*;
  */
 public class BlurImageOps {
 
+	/**
+	 * Radius at which the median filter for {@link GrayU8} switches to {@link ImplMedianPerreault2007}, whose
+	 * cost per pixel does not depend on the radius.  Below it the window histogram is faster.
+	 */
+	public static int MEDIAN_CONSTANT_RADIUS = 4;
+
 	/**
 	 * Applies a mean box filter.
 	 *
@@ -71,21 +80,54 @@ public class BlurImageOps {
 	 * @return Output blurred image.
 	 */
 	public static GrayU8 median(GrayU8 input, GrayU8 output, int radius) {
+		return median(input, output, radius, null);
+	}
+
+	/**
+	 * Applies a median filter.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param radius Radius of the median blur function.
+	 * @param storage (Optional) Used when the radius is at least {@link #MEDIAN_CONSTANT_RADIUS}.  Pass in the
+	 *                same instance to avoid declaring its histograms each time.  It also specifies the number of
+	 *                threads used.  Can be null.
+	 * @return Output blurred image.
+	 */
+	public static GrayU8 median(GrayU8 input, GrayU8 output, int radius, ImplMedianPerreault2007 storage) {
 		if( radius <= 0 )
 			throw new IllegalArgumentException("Radius must be > 0");
 
 		output = InputSanityCheck.checkDeclare(input,output);
 
+		if( radius >= MEDIAN_CONSTANT_RADIUS ) {
+			if( storage == null )
+				storage = new ImplMedianPerreault2007(medianThreads());
+			storage.process(input, output, radius);
+			return output;
+		}
+
 		int w = radius*2+1;
 		int offset[] = new int[ w*w ];
-		int histogram[] = new int[ 256 ];
 
-		ImplMedianHistogramInner.process(input, output, radius, offset, histogram);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplMedianHistogramInner_MT.process(input, output, radius);
+		} else {
+			int histogram[] = new int[ 256 ];
+			ImplMedianHistogramInner.process(input, output, radius, offset, histogram);
+		}
 		ImplMedianSortEdgeNaive.process(input, output, radius, offset);
 
 		return output;
 	}
 
+	/**
+	 * Number of threads used by {@link ImplMedianPerreault2007} when the caller doesn't provide one
+	 */
+	private static int medianThreads() {
+		return BoofConcurrency.USE_CONCURRENT ? BoofConcurrency.getMaxThreads() : 1;
+	}
+
 	/**
 	 * Applies Gaussian blur.
 	 *
@@ -262,8 +304,16 @@ public class BlurImageOps {
 		if( output == null )
 			output = input._createNew(input.width,input.height);
 
+		// the same histograms are used for every band
+		ImplMedianPerreault2007 storage = null;
+		if( input.getBandType() == GrayU8.class && radius >= MEDIAN_CONSTANT_RADIUS )
+			storage = new ImplMedianPerreault2007(medianThreads());
+
 		for( int band = 0; band < input.getNumBands(); band++ ) {
-			GBlurImageOps.median(input.getBand(band),output.getBand(band),radius);
+			if( storage != null )
+				median((GrayU8)input.getBand(band),(GrayU8)output.getBand(band),radius,storage);
+			else
+				GBlurImageOps.median(input.getBand(band),output.getBand(band),radius);
 		}
 		return output;
 	}
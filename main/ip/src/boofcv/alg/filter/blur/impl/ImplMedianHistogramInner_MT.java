@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.GrayU8;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link ImplMedianHistogramInner}.  The inner portion of the image is split into
+ * bands of rows which are processed in parallel, each with its own histogram.  A band is processed by the single
+ * threaded code applied to a sub-image which has been expanded by the radius above and below the band, so the
+ * output is identical.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplMedianHistogramInner_MT {
+
+	/**
+	 * Bands with fewer rows than this are not worth the overhead of being processed on their own
+	 */
+	public static int MIN_BAND_HEIGHT = 16;
+
+	/**
+	 * Applies a median image filter.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Filtered output image. Modified.
+	 * @param radius Size of the filter region.
+	 */
+	public static void process(final GrayU8 input, final GrayU8 output , final int radius ) {
+		BoofConcurrency.loopBlocks(radius, input.height-radius, MIN_BAND_HEIGHT, new IntRangeTask() {
+			@Override
+			public void process(int block, int y0, int y1) {
+				int w = 2*radius+1;
+				int offset[] = new int[ w*w ];
+				int histogram[] = new int[ 256 ];
+
+				GrayU8 subInput = input.subimage(0, y0-radius, input.width, y1+radius, null);
+				GrayU8 subOutput = output.subimage(0, y0-radius, output.width, y1+radius, null);
+
+				ImplMedianHistogramInner.process(subInput, subOutput, radius, offset, histogram);
+			}
+		});
+	}
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.GrayU8;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Median filter for {@link GrayU8} images whose cost per pixel does not depend on the radius.  A histogram is
+ * maintained for each column, covering the rows inside the filter's region.  When moving to the next row one
+ * pixel is removed from and one pixel added to each column's histogram.  The region's histogram is then found by
+ * adding and subtracting whole column histograms as the region moves along the row.  See [1] for the details.
+ * </p>
+ *
+ * <p>
+ * Histograms are split into a coarse level with 16 bins and a fine level with 256 bins.  Only the coarse
+ * level of the region's histogram is updated for every pixel.  A block of 16 fine bins is updated only when
+ * the median is inside of it, by adding and removing the columns which have changed since it was last used.
+ * </p>
+ *
+ * <p>
+ * The entire image is processed.  Next to the image border the region is cropped so that it's inside the
+ * image, and the median of the pixels inside the cropped region is used, the same as
+ * {@link ImplMedianSortEdgeNaive}.  The image is split into bands of rows which are processed by up to
+ * maxThreads threads, each with its own column histograms.
+ * </p>
+ *
+ * <p>
+ * [1] S. Perreault and P. Hebert, "Median Filtering in Constant Time" IEEE Trans. Image Processing, 2007
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplMedianPerreault2007 {
+
+	/**
+	 * Minimum number of rows in a band which is processed by a thread.  A band must also have at least as
+	 * many rows as the filter's width, since each band starts by filling its column histograms.
+	 */
+	public static int MIN_BAND_HEIGHT = 32;
+
+	// storage for each band
+	private FastQueue<BandStorage> bands = new FastQueue<BandStorage>(1,(Class)BandStorage.class,true) {
+		@Override
+		protected BandStorage createInstance() {
+			return new BandStorage();
+		}
+	};
+
+	// maximum number of threads used at once
+	private int maxThreads;
+
+	// the images being processed
+	private GrayU8 input;
+	private GrayU8 output;
+	private int radius;
+
+	/**
+	 * Processes the image using a single thread
+	 */
+	public ImplMedianPerreault2007() {
+		this(1);
+	}
+
+	/**
+	 * @param maxThreads Maximum number of threads it will use.  Also limited by
+	 * {@link BoofConcurrency#getMaxThreads()}.
+	 */
+	public ImplMedianPerreault2007( int maxThreads ) {
+		this.maxThreads = maxThreads;
+	}
+
+	/**
+	 * Applies a median filter to the entire image
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Filtered output image. Modified.
+	 * @param radius Size of the filter region.
+	 */
+	public void process(GrayU8 input, GrayU8 output, int radius) {
+		this.input = input;
+		this.output = output;
+		this.radius = radius;
+
+		final int minRows = Math.max(MIN_BAND_HEIGHT, 2*radius+1);
+		IntRangeTask task = new IntRangeTask() {
+			@Override
+			public void process(int block, int y0, int y1) {
+				processBand(bands.get(block), y0, y1);
+			}
+		};
+
+		bands.resize(Math.max(1,BoofConcurrency.computeNumBlocks(0, input.height, minRows, maxThreads)));
+		BoofConcurrency.loopBlocks(0, input.height, minRows, maxThreads, task);
+
+		this.input = null;
+		this.output = null;
+	}
+
+	private void processBand( BandStorage s , int y0 , int y1 ) {
+		final int width = input.width;
+		final int height = input.height;
+		final int r = radius;
+
+		s.reshape(width);
+		final int colCoarse[] = s.colCoarse;
+		final int colFine[] = s.colFine;
+		final int coarse[] = s.coarse;
+		final int segLo[] = s.segLo;
+		final int segHi[] = s.segHi;
+
+		// column histograms for the first row
+		for (int i = 0; i < width*16; i++) {
+			colCoarse[i] = 0;
+		}
+		for (int i = 0; i < width*256; i++) {
+			colFine[i] = 0;
+		}
+		int rowEnd = Math.min(height-1, y0+r);
+		for (int y = Math.max(0, y0-r); y <= rowEnd; y++) {
+			updateColumns(y, 1, colCoarse, colFine);
+		}
+
+		for (int y = y0; y < y1; y++) {
+			if( y > y0 ) {
+				if( y-r-1 >= 0 )
+					updateColumns(y-r-1, -1, colCoarse, colFine);
+				if( y+r < height )
+					updateColumns(y+r, 1, colCoarse, colFine);
+			}
+			int rows = Math.min(height-1, y+r) - Math.max(0, y-r) + 1;
+
+			// region's histogram for the first pixel in the row.  Fine bins are filled in when needed
+			for (int b = 0; b < 16; b++) {
+				coarse[b] = 0;
+				segLo[b] = 0;
+				segHi[b] = -1;
+			}
+			int lo = 0;
+			int hi = Math.min(width-1, r);
+			for (int c = lo; c <= hi; c++) {
+				addCoarse(coarse, colCoarse, c*16);
+			}
+
+			int indexOut = output.startIndex + y*output.stride;
+			for (int x = 0; x < width; x++) {
+				// index of the median in the sorted list of pixels inside the region
+				int target = rows*(hi-lo+1)/2;
+
+				// find the coarse bin which contains the median
+				int count = 0;
+				int b = 0;
+				while( count + coarse[b] <= target ) {
+					count += coarse[b++];
+				}
+
+				// find the median inside the fine bins
+				updateFine(s, b, lo, hi);
+				int v = b*16;
+				while( count + s.fine[v] <= target ) {
+					count += s.fine[v++];
+				}
+				output.data[indexOut++] = (byte)v;
+
+				// move the region to the next pixel
+				if( x-r >= 0 ) {
+					subtractCoarse(coarse, colCoarse, (x-r)*16);
+					lo = x-r+1;
+				}
+				if( x+r+1 < width ) {
+					addCoarse(coarse, colCoarse, (x+r+1)*16);
+					hi = x+r+1;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds or removes the pixels in row 'y' from the column histograms
+	 */
+	private void updateColumns( int y , int amount , int colCoarse[] , int colFine[] ) {
+		int index = input.startIndex + y*input.stride;
+		for (int x = 0; x < input.width; x++) {
+			int v = input.data[index++] & 0xFF;
+			colCoarse[x*16 + (v >> 4)] += amount;
+			colFine[x*256 + v] += amount;
+		}
+	}
+
+	/**
+	 * Updates a block of 16 fine bins so that it contains columns lo to hi, inclusive
+	 */
+	private static void updateFine( BandStorage s , int b , int lo , int hi ) {
+		final int fine[] = s.fine;
+		final int colFine[] = s.colFine;
+		final int offset = b*16;
+
+		int segLo = s.segLo[b];
+		int segHi = s.segHi[b];
+
+		if( segHi < lo ) {
+			// nothing in common with the previous columns, compute it from scratch
+			for (int i = 0; i < 16; i++) {
+				fine[offset+i] = 0;
+			}
+			for (int c = lo; c <= hi; c++) {
+				int idx = c*256 + offset;
+				for (int i = 0; i < 16; i++) {
+					fine[offset+i] += colFine[idx+i];
+				}
+			}
+		} else {
+			for (int c = segLo; c < lo; c++) {
+				int idx = c*256 + offset;
+				for (int i = 0; i < 16; i++) {
+					fine[offset+i] -= colFine[idx+i];
+				}
+			}
+			for (int c = segHi+1; c <= hi; c++) {
+				int idx = c*256 + offset;
+				for (int i = 0; i < 16; i++) {
+					fine[offset+i] += colFine[idx+i];
+				}
+			}
+		}
+
+		s.segLo[b] = lo;
+		s.segHi[b] = hi;
+	}
+
+	private static void addCoarse( int coarse[] , int colCoarse[] , int index ) {
+		for (int i = 0; i < 16; i++) {
+			coarse[i] += colCoarse[index+i];
+		}
+	}
+
+	private static void subtractCoarse( int coarse[] , int colCoarse[] , int index ) {
+		for (int i = 0; i < 16; i++) {
+			coarse[i] -= colCoarse[index+i];
+		}
+	}
+
+	/**
+	 * Histograms used to process a band
+	 */
+	private static class BandStorage {
+		// coarse and fine histogram of each column
+		int colCoarse[] = new int[0];
+		int colFine[] = new int[0];
+
+		// coarse and fine histogram of the region
+		int coarse[] = new int[16];
+		int fine[] = new int[256];
+
+		// columns which have been added to each block of fine bins, inclusive
+		int segLo[] = new int[16];
+		int segHi[] = new int[16];
+
+		public void reshape( int width ) {
+			if( colCoarse.length < width*16 ) {
+				colCoarse = new int[width*16];
+				colFine = new int[width*256];
+			}
+		}
+	}
+
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+}
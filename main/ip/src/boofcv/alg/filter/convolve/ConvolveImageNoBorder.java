@@ -20,6 +20,7 @@ package boofcv.alg.filter.convolve;
 
 import boofcv.alg.InputSanityCheck;
 import boofcv.alg.filter.convolve.noborder.*;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.convolve.*;
 import boofcv.struct.image.*;
 
@@ -45,7 +46,11 @@ import boofcv.struct.image.*;
  */
 @SuppressWarnings({"ForLoopReplaceableByForEach"})
 public class ConvolveImageNoBorder {
-
+	/**
+	 * Kernels which are at least this wide are convolved in the frequency domain by
+	 * {@link #convolveAuto(Kernel2D_F32, GrayF32, GrayF32, CorrelateFourier)}.
+	 */
+	public static int FOURIER_KERNEL_WIDTH = 13;
 	/**
 	 * Performs a horizontal 1D convolution across the image.  The horizontal border is not processed.
 	 *
@@ -57,6 +62,11 @@ public class ConvolveImageNoBorder {
 								  GrayF32 input, GrayF32 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.horizontal(kernel, input, output);
+			return;
+		}
+
 		if (!ConvolveImageUnrolled_F32_F32.horizontal(kernel, input, output))
 			ConvolveImageStandard.horizontal(kernel, input, output);
 	}
@@ -72,6 +82,11 @@ public class ConvolveImageNoBorder {
 								  GrayF64 input, GrayF64 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.horizontal(kernel, input, output);
+			return;
+		}
+
 		if (!ConvolveImageUnrolled_F64_F64.horizontal(kernel, input, output))
 			ConvolveImageStandard.horizontal(kernel, input, output);
 	}
@@ -87,6 +102,11 @@ public class ConvolveImageNoBorder {
 								  GrayU8 input, GrayI8 output, int divisor ) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.horizontal(kernel, input, output, divisor);
+			return;
+		}
+
 		if( !ConvolveImageUnrolled_U8_I8_Div.horizontal(kernel, input,  output, divisor))
 			ConvolveImageStandard.horizontal(kernel, input,  output, divisor);
 	}
@@ -101,6 +121,11 @@ public class ConvolveImageNoBorder {
 	public static void horizontal(Kernel1D_I32 kernel, GrayU8 input, GrayI16 output ) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.horizontal(kernel, input, output);
+			return;
+		}
+
 		if (!ConvolveImageUnrolled_U8_I16.horizontal(kernel, input,  output ))
 			ConvolveImageStandard.horizontal(kernel, input,  output);
 	}
@@ -116,6 +141,11 @@ public class ConvolveImageNoBorder {
 								  GrayU8 input, GrayS32 output ) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.horizontal(kernel, input, output);
+			return;
+		}
+
 		// todo add unroll
 		ConvolveImageStandard.horizontal(kernel, input, output);
 	}
@@ -130,6 +160,11 @@ public class ConvolveImageNoBorder {
 	public static void horizontal(Kernel1D_I32 kernel, GrayS16 input, GrayI16 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.horizontal(kernel, input, output);
+			return;
+		}
+
 		if (!ConvolveImageUnrolled_S16_I16.horizontal(kernel, input, output))
 			ConvolveImageStandard.horizontal(kernel, input, output);
 	}
@@ -146,6 +181,11 @@ public class ConvolveImageNoBorder {
 								  GrayS16 input, GrayI16 output, int divisor) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.horizontal(kernel, input, output, divisor);
+			return;
+		}
+
 		if (!ConvolveImageUnrolled_S16_I16_Div.horizontal(kernel, input, output, divisor))
 			ConvolveImageStandard.horizontal(kernel, input, output, divisor);
 	}
@@ -162,6 +202,11 @@ public class ConvolveImageNoBorder {
 								  GrayS32 input, GrayS32 output, int divisor) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.horizontal(kernel, input, output, divisor);
+			return;
+		}
+
 		if (!ConvolveImageUnrolled_S32_S32_Div.horizontal(kernel, input, output, divisor))
 			ConvolveImageStandard.horizontal(kernel, input, output, divisor);
 	}
@@ -177,6 +222,11 @@ public class ConvolveImageNoBorder {
 	public static void vertical(Kernel1D_F32 kernel, GrayF32 input, GrayF32 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.vertical(kernel, input, output);
+			return;
+		}
+
 		if (!ConvolveImageUnrolled_F32_F32.vertical(kernel, input,  output))
 			ConvolveImageStandard.vertical(kernel, input,  output);
 	}
@@ -192,6 +242,11 @@ public class ConvolveImageNoBorder {
 	public static void vertical(Kernel1D_F64 kernel, GrayF64 input, GrayF64 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.vertical(kernel, input, output);
+			return;
+		}
+
 		if (!ConvolveImageUnrolled_F64_F64.vertical(kernel, input,  output))
 			ConvolveImageStandard.vertical(kernel, input,  output);
 	}
@@ -208,6 +263,11 @@ public class ConvolveImageNoBorder {
 								GrayU8 input, GrayI8 output, int divisor) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.vertical(kernel, input, output, divisor);
+			return;
+		}
+
 		if( !ConvolveImageUnrolled_U8_I8_Div.vertical(kernel, input,  output, divisor))
 			ConvolveImageStandard.vertical(kernel, input,  output, divisor);
 	}
@@ -224,6 +284,11 @@ public class ConvolveImageNoBorder {
 								GrayU16 input, GrayI8 output, int divisor) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.vertical(kernel, input, output, divisor);
+			return;
+		}
+
 		// TODO unroll
 		ConvolveImageStandard.vertical(kernel, input,  output, divisor);
 	}
@@ -239,6 +304,11 @@ public class ConvolveImageNoBorder {
 	public static void vertical(Kernel1D_I32 kernel, GrayU8 input, GrayI16 output ) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.vertical(kernel, input, output);
+			return;
+		}
+
 		if (!ConvolveImageUnrolled_U8_I16.vertical(kernel, input,  output))
 			ConvolveImageStandard.vertical(kernel, input,  output);
 	}
@@ -254,6 +324,11 @@ public class ConvolveImageNoBorder {
 	public static void vertical(Kernel1D_I32 kernel, GrayU8 input, GrayS32 output ) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.vertical(kernel, input, output);
+			return;
+		}
+
 		// todo add unroll
 		ConvolveImageStandard.vertical(kernel, input,  output);
 	}
@@ -268,6 +343,11 @@ public class ConvolveImageNoBorder {
 	public static void vertical(Kernel1D_I32 kernel, GrayS16 input, GrayI16 output ) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.vertical(kernel, input, output);
+			return;
+		}
+
 		if (!ConvolveImageUnrolled_S16_I16.vertical(kernel, input,  output))
 			ConvolveImageStandard.vertical(kernel, input,  output);
 	}
@@ -284,6 +364,11 @@ public class ConvolveImageNoBorder {
 	public static void vertical(Kernel1D_I32 kernel, GrayS16 input, GrayI16 output, int divisor ) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.vertical(kernel, input, output, divisor);
+			return;
+		}
+
 		if (!ConvolveImageUnrolled_S16_I16_Div.vertical(kernel, input, output, divisor))
 			ConvolveImageStandard.vertical(kernel, input, output, divisor);
 	}
@@ -300,6 +385,11 @@ public class ConvolveImageNoBorder {
 	public static void vertical(Kernel1D_I32 kernel, GrayS32 input, GrayI16 output, int divisor ) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.vertical(kernel, input, output, divisor);
+			return;
+		}
+
 		// todo unroll
 		ConvolveImageStandard.vertical(kernel, input, output, divisor);
 	}
@@ -316,6 +406,11 @@ public class ConvolveImageNoBorder {
 	public static void vertical(Kernel1D_I32 kernel, GrayS32 input, GrayS32 output, int divisor ) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.vertical(kernel, input, output, divisor);
+			return;
+		}
+
 		if (!ConvolveImageUnrolled_S32_S32_Div.vertical(kernel, input, output, divisor))
 			ConvolveImageStandard.vertical(kernel, input, output, divisor);
 	}
@@ -330,6 +425,11 @@ public class ConvolveImageNoBorder {
 	public static void convolve(Kernel2D_F32 kernel, GrayF32 input, GrayF32 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.convolve(kernel, input, output);
+			return;
+		}
+
 		if( !ConvolveImageUnrolled_F32_F32.convolve(kernel,input,output))
 			ConvolveImageStandard.convolve(kernel, input,  output);
 	}
@@ -344,6 +444,11 @@ public class ConvolveImageNoBorder {
 	public static void convolve(Kernel2D_F64 kernel, GrayF64 input, GrayF64 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.convolve(kernel, input, output);
+			return;
+		}
+
 		if( !ConvolveImageUnrolled_F64_F64.convolve(kernel,input,output))
 			ConvolveImageStandard.convolve(kernel, input,  output);
 	}
@@ -360,6 +465,11 @@ public class ConvolveImageNoBorder {
 								GrayU8 input, GrayI8 output, int divisor) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.convolve(kernel, input, output, divisor);
+			return;
+		}
+
 		if( !ConvolveImageUnrolled_U8_I8_Div.convolve(kernel,input,output,divisor))
 			ConvolveImageStandard.convolve(kernel, input,  output, divisor);
 	}
@@ -374,6 +484,11 @@ public class ConvolveImageNoBorder {
 	public static void convolve(Kernel2D_I32 kernel, GrayU8 input, GrayI16 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.convolve(kernel, input, output);
+			return;
+		}
+
 		if( !ConvolveImageUnrolled_U8_I16.convolve(kernel,input,output))
 			ConvolveImageStandard.convolve(kernel, input,  output);
 	}
@@ -388,6 +503,11 @@ public class ConvolveImageNoBorder {
 	public static void convolve(Kernel2D_I32 kernel, GrayU8 input, GrayS32 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.convolve(kernel, input, output);
+			return;
+		}
+
 		// todo add unrolled
 		ConvolveImageStandard.convolve(kernel, input,  output);
 	}
@@ -402,6 +522,11 @@ public class ConvolveImageNoBorder {
 	public static void convolve(Kernel2D_I32 kernel, GrayS16 input, GrayI16 output) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.convolve(kernel, input, output);
+			return;
+		}
+
 		if( !ConvolveImageUnrolled_S16_I16.convolve(kernel,input,output))
 			ConvolveImageStandard.convolve(kernel, input,  output);
 	}
@@ -417,7 +542,70 @@ public class ConvolveImageNoBorder {
 	public static void convolve(Kernel2D_I32 kernel, GrayS16 input, GrayI16 output, int divisor ) {
 		InputSanityCheck.checkSameShape(input, output);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConvolveImageNoBorder_MT.convolve(kernel, input, output, divisor);
+			return;
+		}
+
 		if( !ConvolveImageUnrolled_S16_I16_Div.convolve(kernel,input,output,divisor))
 			ConvolveImageStandard.convolve(kernel, input,  output, divisor);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Convolves the image with the kernel in the frequency domain.  Only pixels where the kernel is entirely
+	 * inside the image are written to, so nothing is written if the kernel is larger than the image.  The output
+	 * matches {@link #convolve(Kernel2D_F32, GrayF32, GrayF32)} to within round off error and is faster for large
+	 * kernels.  A new {@link CorrelateFourier} is created each time.  To reuse the kernel's transform between
+	 * calls use {@link #convolveFourier(Kernel2D, ImageGray, ImageGray, CorrelateFourier)}.
+	 */
+	public static void convolveFourier(Kernel2D kernel, ImageGray input, ImageGray output) {
+		convolveFourier(kernel, input, output, new CorrelateFourier());
+	}
+
+	/**
+	 * Same as {@link #convolveFourier(Kernel2D, ImageGray, ImageGray)} but the caller provides the correlator.
+	 * The kernel's transform is reused between calls with the same kernel and a similar sized image.  If the
+	 * kernel is larger than the image then every pixel is in the border and the output is not modified.
+	 *
+	 * @param alg Computes the correlation.  Its kernel is modified.
+	 */
+	public static void convolveFourier(Kernel2D kernel, ImageGray input, ImageGray output, CorrelateFourier alg) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		if( input.width < kernel.width || input.height < kernel.width )
+			return;
+
+		int offsetL = kernel.offset;
+		int offsetR = kernel.width-kernel.offset-1;
+
+		alg.setKernel(kernel);
+		alg.process(input, false, output.subimage(offsetL, offsetL, input.width-offsetR, input.height-offsetR, null));
+	}
+
+	/**
+	 * Convolves the image in the spatial domain if the kernel is narrower than {@link #FOURIER_KERNEL_WIDTH} and
+	 * in the frequency domain otherwise, whichever is faster.  Results from the frequency domain only match
+	 * {@link #convolve(Kernel2D_F32, GrayF32, GrayF32)} to within round off error.
+	 *
+	 * @param kernel A square kernel that will be convolved across the source image
+	 * @param input  The source image that is to be convolved
+	 * @param output   The results of the convolution
+	 * @param storage Used to convolve large kernels.  Reuse it to avoid recomputing the kernel's transform.
+	 */
+	public static void convolveAuto(Kernel2D_F32 kernel, GrayF32 input, GrayF32 output, CorrelateFourier storage) {
+		if( kernel.width >= FOURIER_KERNEL_WIDTH )
+			convolveFourier(kernel, input, output, storage);
+		else
+			convolve(kernel, input, output);
+	}
+
+	/**
+	 * Same as {@link #convolveAuto(Kernel2D_F32, GrayF32, GrayF32, CorrelateFourier)} but for F64 images.
+	 */
+	public static void convolveAuto(Kernel2D_F64 kernel, GrayF64 input, GrayF64 output, CorrelateFourier storage) {
+		if( kernel.width >= FOURIER_KERNEL_WIDTH )
+			convolveFourier(kernel, input, output, storage);
+		else
+			convolve(kernel, input, output);
+	}
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.abst.transform.fft.DiscreteFourierTransform;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.transform.fft.DiscreteFourierTransformOps;
+import boofcv.core.image.FactoryGImageGray;
+import boofcv.core.image.GImageGray;
+import boofcv.struct.convolve.Kernel2D;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayF64;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.InterleavedF64;
+
+/**
+ * <p>
+ * Computes the correlation between an image and a kernel using the Fast Fourier Transform (FFT).  The output is
+ * only computed where the kernel lies entirely inside the image:
+ * </p>
+ *
+ * <p> out(x,y) = &sum;<sub>(i,j)</sub> K(i,j) I(x+i,y+j) </p>
+ *
+ * <p>
+ * which makes the output (w-kw+1) by (h-kh+1) pixels.  The image is broken up into tiles and the correlation of
+ * each tile is added to the output (overlap-add).  Tiles are zero padded to a power of two that's several times
+ * larger than the kernel, so the memory used only depends on the kernel's size and not the image's.  The
+ * transform of the kernel is computed once and reused until the kernel or the tile size changes.
+ * </p>
+ *
+ * <p>
+ * The cost of each output pixel grows with the log of the kernel's size, instead of its area as it does when
+ * computed in the spatial domain, making this much faster for large kernels.  Computations are done in double
+ * precision so that large sums which are later subtracted from each other, as in template matching, don't lose
+ * accuracy.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CorrelateFourier {
+	/**
+	 * Each side of a tile is the power of two which is closest to but not less than this multiple of the kernel's
+	 * size.  Larger tiles waste less of each transform on padding, but each transform is more expensive.
+	 */
+	public static int TILE_SCALE = 4;
+
+	// computes the Fourier transform
+	private DiscreteFourierTransform<GrayF64,InterleavedF64> dft;
+
+	// copy of the kernel
+	private GrayF64 kernel = new GrayF64(1,1);
+	// Fourier transform of the zero padded kernel
+	private InterleavedF64 kernelFourier = new InterleavedF64(1,1,2);
+	// true if the kernel has changed since its transform was computed
+	private boolean kernelChanged = true;
+
+	// the zero padded tile and its transform
+	private GrayF64 tile = new GrayF64(1,1);
+	private InterleavedF64 tileFourier = new InterleavedF64(1,1,2);
+
+	// used to read pixels from any type of image
+	private GImageGray wrapper;
+
+	/**
+	 * Uses the transform returned by {@link DiscreteFourierTransformOps#createTransformF64()}
+	 */
+	public CorrelateFourier() {
+		this(DiscreteFourierTransformOps.createTransformF64());
+	}
+
+	/**
+	 * Specifies the transform
+	 *
+	 * @param dft The Fourier transform used to process each tile.
+	 */
+	public CorrelateFourier(DiscreteFourierTransform<GrayF64, InterleavedF64> dft) {
+		this.dft = dft;
+		// the transform of a tile is never needed again once its inverse has been computed
+		dft.setModifyInputs(true);
+	}
+
+	/**
+	 * Specifies the kernel.  A copy of the kernel is saved internally.
+	 *
+	 * @param kernel The kernel.  Not modified.
+	 */
+	public void setKernel( ImageGray kernel ) {
+		reshapeKernel(kernel.width, kernel.height);
+		GImageGray k = FactoryGImageGray.wrap(kernel);
+		for (int y = 0; y < kernel.height; y++) {
+			for (int x = 0; x < kernel.width; x++) {
+				setKernelValue(x, y, k.unsafe_getD(x, y));
+			}
+		}
+	}
+
+	/**
+	 * Specifies the kernel.  A copy of the kernel is saved internally.
+	 *
+	 * @param kernel The kernel.  Not modified.
+	 */
+	public void setKernel( Kernel2D kernel ) {
+		reshapeKernel(kernel.width, kernel.width);
+		for (int y = 0; y < kernel.width; y++) {
+			for (int x = 0; x < kernel.width; x++) {
+				setKernelValue(x, y, kernel.getDouble(x, y));
+			}
+		}
+	}
+
+	/**
+	 * Changes the shape of the internal copy of the kernel.  The kernel's transform is only recomputed if the
+	 * shape or a value changes, so setting the same kernel again is cheap.
+	 */
+	private void reshapeKernel( int width , int height ) {
+		if( this.kernel.width != width || this.kernel.height != height ) {
+			this.kernel.reshape(width, height);
+			kernelChanged = true;
+		}
+	}
+
+	private void setKernelValue( int x , int y , double value ) {
+		if( this.kernel.unsafe_get(x, y) != value ) {
+			this.kernel.unsafe_set(x, y, value);
+			kernelChanged = true;
+		}
+	}
+
+	/**
+	 * Computes the correlation between the image and the kernel.
+	 *
+	 * @param image The image.  Must be at least as large as the kernel.  Not modified.
+	 * @param square If true then each pixel in the image is squared before the correlation is computed.
+	 * @param output The correlation.  Must be {@link GrayF32} or {@link GrayF64} and (w-kw+1) by (h-kh+1).
+	 *               Sub-images are allowed.  Modified.
+	 */
+	public void process( ImageGray image , boolean square , ImageGray output ) {
+		if( image.width < kernel.width || image.height < kernel.height )
+			throw new IllegalArgumentException("The kernel can't be larger than the image");
+		int outputWidth = image.width - kernel.width + 1;
+		int outputHeight = image.height - kernel.height + 1;
+		if( output.width != outputWidth || output.height != outputHeight )
+			throw new IllegalArgumentException("Expected the output to be "+outputWidth+" x "+outputHeight);
+		if( !(output instanceof GrayF32 || output instanceof GrayF64) )
+			throw new IllegalArgumentException("The output must be GrayF32 or GrayF64");
+
+		int tileWidth = selectTileLength(kernel.width, image.width);
+		int tileHeight = selectTileLength(kernel.height, image.height);
+
+		if( kernelChanged || kernelFourier.width != tileWidth || kernelFourier.height != tileHeight ) {
+			transformKernel(tileWidth, tileHeight);
+		}
+		tile.reshape(tileWidth, tileHeight);
+		tileFourier.reshape(tileWidth, tileHeight);
+
+		// the wrapper can only be reused with images of the same type
+		if( wrapper == null || wrapper.getImageType() != image.getClass() )
+			wrapper = FactoryGImageGray.wrap(image);
+		else
+			wrapper.wrap(image);
+		GImageMiscOps.fill(output, 0);
+
+		// number of image pixels in a tile.  The rest of the tile is padding
+		int stepX = tileWidth - kernel.width + 1;
+		int stepY = tileHeight - kernel.height + 1;
+
+		for (int y0 = 0; y0 < image.height; y0 += stepY) {
+			int y1 = Math.min(image.height, y0 + stepY);
+			for (int x0 = 0; x0 < image.width; x0 += stepX) {
+				int x1 = Math.min(image.width, x0 + stepX);
+
+				loadTile(x0, y0, x1, y1, square);
+
+				dft.forward(tile, tileFourier);
+				multiplyConjugate(tileFourier, kernelFourier);
+				dft.inverse(tileFourier, tile);
+
+				if( output instanceof GrayF32 )
+					addTile((GrayF32)output, x0, y0, x1, y1);
+				else
+					addTile((GrayF64)output, x0, y0, x1, y1);
+			}
+		}
+
+		// dereference the image
+		wrapper.wrap(null);
+	}
+
+	/**
+	 * Selects the length of a tile's side
+	 *
+	 * @param kernelLength Length of the kernel along this axis
+	 * @param imageLength Length of the image along this axis
+	 * @return length of the tile
+	 */
+	public static int selectTileLength( int kernelLength , int imageLength ) {
+		int preferred = DiscreteFourierTransformOps.nextPow2(TILE_SCALE * kernelLength);
+		// if the image is small then a single tile is enough
+		int single = DiscreteFourierTransformOps.nextPow2(imageLength + kernelLength - 1);
+		return Math.min(preferred, single);
+	}
+
+	/**
+	 * Computes the transform of the kernel after it has been zero padded to the tile size
+	 */
+	private void transformKernel( int tileWidth , int tileHeight ) {
+		tile.reshape(tileWidth, tileHeight);
+		kernelFourier.reshape(tileWidth, tileHeight);
+		GImageMiscOps.fill(tile, 0);
+		tile.subimage(0, 0, kernel.width, kernel.height, null).setTo(kernel);
+		dft.forward(tile, kernelFourier);
+		kernelChanged = false;
+	}
+
+	/**
+	 * Copies the image's pixels inside the rectangle into the top left corner of the tile and sets all the other
+	 * pixels to zero.
+	 */
+	private void loadTile( int x0 , int y0 , int x1 , int y1 , boolean square ) {
+		GImageMiscOps.fill(tile, 0);
+		for (int y = y0; y < y1; y++) {
+			int index = (y - y0) * tile.stride;
+			for (int x = x0; x < x1; x++) {
+				double value = wrapper.unsafe_getD(x, y);
+				tile.data[index++] = square ? value * value : value;
+			}
+		}
+	}
+
+	/**
+	 * Multiplies each element in a by the conjugate of the same element in b.  Multiplying by the conjugate
+	 * turns convolution into correlation.
+	 */
+	private static void multiplyConjugate( InterleavedF64 a , InterleavedF64 b ) {
+		int N = a.width * a.height * 2;
+		for (int i = 0; i < N; i += 2) {
+			double realA = a.data[i];
+			double imgA = a.data[i + 1];
+			double realB = b.data[i];
+			double imgB = b.data[i + 1];
+
+			a.data[i] = realA * realB + imgA * imgB;
+			a.data[i + 1] = imgA * realB - realA * imgB;
+		}
+	}
+
+	/**
+	 * Adds the correlation of the tile which starts at (x0,y0) to the output.  The tile's correlation extends
+	 * to the left and above the tile by the kernel's size minus one.  Those values are stored at the end of each
+	 * row and column since the correlation wraps around.
+	 */
+	private void addTile( GrayF32 output , int x0 , int y0 , int x1 , int y1 ) {
+		int outX0 = Math.max(0, x0 - kernel.width + 1);
+		int outX1 = Math.min(output.width, x1);
+		int outY0 = Math.max(0, y0 - kernel.height + 1);
+		int outY1 = Math.min(output.height, y1);
+
+		for (int y = outY0; y < outY1; y++) {
+			int tileRow = ((y - y0 + tile.height) % tile.height) * tile.stride;
+			int indexOut = output.startIndex + y * output.stride + outX0;
+			for (int x = outX0; x < outX1; x++) {
+				output.data[indexOut++] += tile.data[tileRow + (x - x0 + tile.width) % tile.width];
+			}
+		}
+	}
+
+	/**
+	 * @see #addTile(GrayF32, int, int, int, int)
+	 */
+	private void addTile( GrayF64 output , int x0 , int y0 , int x1 , int y1 ) {
+		int outX0 = Math.max(0, x0 - kernel.width + 1);
+		int outX1 = Math.min(output.width, x1);
+		int outY0 = Math.max(0, y0 - kernel.height + 1);
+		int outY1 = Math.min(output.height, y1);
+
+		for (int y = outY0; y < outY1; y++) {
+			int tileRow = ((y - y0 + tile.height) % tile.height) * tile.stride;
+			int indexOut = output.startIndex + y * output.stride + outX0;
+			for (int x = outX0; x < outX1; x++) {
+				output.data[indexOut++] += tile.data[tileRow + (x - x0 + tile.width) % tile.width];
+			}
+		}
+	}
+
+	public GrayF64 getKernel() {
+		return kernel;
+	}
+}
@@ -0,0 +1,403 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve.noborder;
+
+import boofcv.alg.filter.convolve.ConvolveImageNoBorder;
+import boofcv.alg.filter.convolve.CorrelateFourier;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.convolve.*;
+import boofcv.struct.image.*;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link boofcv.alg.filter.convolve.ConvolveImageNoBorder}.  The image is split into
+ * horizontal bands of rows which are processed in parallel using {@link BoofConcurrency}.  Each band is
+ * convolved by the same single threaded code, applied to a sub-image, so the output is identical.
+ * </p>
+ *
+ * <p>
+ * Horizontal convolution only needs the rows inside a band.  For vertical and 2D convolution the input
+ * sub-image is expanded by the kernel's extent above and below the band, which causes the single threaded
+ * code to write to exactly the rows inside the band.
+ * </p>
+ *
+ * <p>
+ * DO NOT CALL DIRECTLY.  Input images are not checked.  Use {@link boofcv.alg.filter.convolve.ConvolveImageNoBorder}
+ * with {@link BoofConcurrency#USE_CONCURRENT} set to true instead.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ConvolveImageNoBorder_MT {
+
+	/**
+	 * Bands with fewer rows than this are not worth the overhead of being processed on their own
+	 */
+	public static int MIN_BAND_HEIGHT = 16;
+
+	/**
+	 * Minimum number of rows in a band when large kernels are convolved in the frequency domain.  Each band
+	 * is padded by the kernel's size, so short bands waste most of their transforms.
+	 */
+	public static int MIN_FOURIER_BAND_HEIGHT = 128;
+
+	public static void horizontal(final Kernel1D_F32 kernel, final GrayF32 input, final GrayF32 output) {
+		horizontal(kernel, input, output, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Same as {@link #horizontal(Kernel1D_F32, GrayF32, GrayF32)} but it uses at most maxThreads threads.
+	 * Used by algorithms which let the user limit the number of threads.
+	 */
+	public static void horizontal(final Kernel1D_F32 kernel, final GrayF32 input, final GrayF32 output,
+								  int maxThreads ) {
+		rows(input, output, 0, 0, MIN_BAND_HEIGHT, maxThreads, new RowBand<GrayF32,GrayF32>() {
+			@Override
+			public void process(GrayF32 input, GrayF32 output) {
+				if (!ConvolveImageUnrolled_F32_F32.horizontal(kernel, input, output))
+					ConvolveImageStandard.horizontal(kernel, input, output);
+			}
+		});
+	}
+
+	public static void horizontal(final Kernel1D_F64 kernel, final GrayF64 input, final GrayF64 output) {
+		rows(input, output, 0, 0, new RowBand<GrayF64,GrayF64>() {
+			@Override
+			public void process(GrayF64 input, GrayF64 output) {
+				if (!ConvolveImageUnrolled_F64_F64.horizontal(kernel, input, output))
+					ConvolveImageStandard.horizontal(kernel, input, output);
+			}
+		});
+	}
+
+	public static void horizontal(final Kernel1D_I32 kernel, final GrayU8 input, final GrayI8 output, final int divisor) {
+		rows(input, output, 0, 0, new RowBand<GrayU8,GrayI8>() {
+			@Override
+			public void process(GrayU8 input, GrayI8 output) {
+				if( !ConvolveImageUnrolled_U8_I8_Div.horizontal(kernel, input,  output, divisor))
+					ConvolveImageStandard.horizontal(kernel, input,  output, divisor);
+			}
+		});
+	}
+
+	public static void horizontal(final Kernel1D_I32 kernel, final GrayU8 input, final GrayI16 output) {
+		rows(input, output, 0, 0, new RowBand<GrayU8,GrayI16>() {
+			@Override
+			public void process(GrayU8 input, GrayI16 output) {
+				if (!ConvolveImageUnrolled_U8_I16.horizontal(kernel, input,  output ))
+					ConvolveImageStandard.horizontal(kernel, input,  output);
+			}
+		});
+	}
+
+	public static void horizontal(final Kernel1D_I32 kernel, final GrayU8 input, final GrayS32 output) {
+		rows(input, output, 0, 0, new RowBand<GrayU8,GrayS32>() {
+			@Override
+			public void process(GrayU8 input, GrayS32 output) {
+				ConvolveImageStandard.horizontal(kernel, input, output);
+			}
+		});
+	}
+
+	public static void horizontal(final Kernel1D_I32 kernel, final GrayS16 input, final GrayI16 output) {
+		rows(input, output, 0, 0, new RowBand<GrayS16,GrayI16>() {
+			@Override
+			public void process(GrayS16 input, GrayI16 output) {
+				if (!ConvolveImageUnrolled_S16_I16.horizontal(kernel, input, output))
+					ConvolveImageStandard.horizontal(kernel, input, output);
+			}
+		});
+	}
+
+	public static void horizontal(final Kernel1D_I32 kernel, final GrayS16 input, final GrayI16 output, final int divisor) {
+		rows(input, output, 0, 0, new RowBand<GrayS16,GrayI16>() {
+			@Override
+			public void process(GrayS16 input, GrayI16 output) {
+				if (!ConvolveImageUnrolled_S16_I16_Div.horizontal(kernel, input, output, divisor))
+					ConvolveImageStandard.horizontal(kernel, input, output, divisor);
+			}
+		});
+	}
+
+	public static void horizontal(final Kernel1D_I32 kernel, final GrayS32 input, final GrayS32 output, final int divisor) {
+		rows(input, output, 0, 0, new RowBand<GrayS32,GrayS32>() {
+			@Override
+			public void process(GrayS32 input, GrayS32 output) {
+				if (!ConvolveImageUnrolled_S32_S32_Div.horizontal(kernel, input, output, divisor))
+					ConvolveImageStandard.horizontal(kernel, input, output, divisor);
+			}
+		});
+	}
+
+	public static void vertical(final Kernel1D_F32 kernel, final GrayF32 input, final GrayF32 output) {
+		vertical(kernel, input, output, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Same as {@link #vertical(Kernel1D_F32, GrayF32, GrayF32)} but it uses at most maxThreads threads.
+	 * Used by algorithms which let the user limit the number of threads.
+	 */
+	public static void vertical(final Kernel1D_F32 kernel, final GrayF32 input, final GrayF32 output,
+								int maxThreads ) {
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, MIN_BAND_HEIGHT, maxThreads,
+				new RowBand<GrayF32,GrayF32>() {
+			@Override
+			public void process(GrayF32 input, GrayF32 output) {
+				if (!ConvolveImageUnrolled_F32_F32.vertical(kernel, input,  output))
+					ConvolveImageStandard.vertical(kernel, input,  output);
+			}
+		});
+	}
+
+	public static void vertical(final Kernel1D_F64 kernel, final GrayF64 input, final GrayF64 output) {
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, new RowBand<GrayF64,GrayF64>() {
+			@Override
+			public void process(GrayF64 input, GrayF64 output) {
+				if (!ConvolveImageUnrolled_F64_F64.vertical(kernel, input,  output))
+					ConvolveImageStandard.vertical(kernel, input,  output);
+			}
+		});
+	}
+
+	public static void vertical(final Kernel1D_I32 kernel, final GrayU8 input, final GrayI8 output, final int divisor) {
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, new RowBand<GrayU8,GrayI8>() {
+			@Override
+			public void process(GrayU8 input, GrayI8 output) {
+				if( !ConvolveImageUnrolled_U8_I8_Div.vertical(kernel, input,  output, divisor))
+					ConvolveImageStandard.vertical(kernel, input,  output, divisor);
+			}
+		});
+	}
+
+	public static void vertical(final Kernel1D_I32 kernel, final GrayU16 input, final GrayI8 output, final int divisor) {
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, new RowBand<GrayU16,GrayI8>() {
+			@Override
+			public void process(GrayU16 input, GrayI8 output) {
+				ConvolveImageStandard.vertical(kernel, input,  output, divisor);
+			}
+		});
+	}
+
+	public static void vertical(final Kernel1D_I32 kernel, final GrayU8 input, final GrayI16 output) {
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, new RowBand<GrayU8,GrayI16>() {
+			@Override
+			public void process(GrayU8 input, GrayI16 output) {
+				if (!ConvolveImageUnrolled_U8_I16.vertical(kernel, input,  output))
+					ConvolveImageStandard.vertical(kernel, input,  output);
+			}
+		});
+	}
+
+	public static void vertical(final Kernel1D_I32 kernel, final GrayU8 input, final GrayS32 output) {
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, new RowBand<GrayU8,GrayS32>() {
+			@Override
+			public void process(GrayU8 input, GrayS32 output) {
+				ConvolveImageStandard.vertical(kernel, input,  output);
+			}
+		});
+	}
+
+	public static void vertical(final Kernel1D_I32 kernel, final GrayS16 input, final GrayI16 output) {
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, new RowBand<GrayS16,GrayI16>() {
+			@Override
+			public void process(GrayS16 input, GrayI16 output) {
+				if (!ConvolveImageUnrolled_S16_I16.vertical(kernel, input,  output))
+					ConvolveImageStandard.vertical(kernel, input,  output);
+			}
+		});
+	}
+
+	public static void vertical(final Kernel1D_I32 kernel, final GrayS16 input, final GrayI16 output, final int divisor) {
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, new RowBand<GrayS16,GrayI16>() {
+			@Override
+			public void process(GrayS16 input, GrayI16 output) {
+				if (!ConvolveImageUnrolled_S16_I16_Div.vertical(kernel, input, output, divisor))
+					ConvolveImageStandard.vertical(kernel, input, output, divisor);
+			}
+		});
+	}
+
+	public static void vertical(final Kernel1D_I32 kernel, final GrayS32 input, final GrayI16 output, final int divisor) {
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, new RowBand<GrayS32,GrayI16>() {
+			@Override
+			public void process(GrayS32 input, GrayI16 output) {
+				ConvolveImageStandard.vertical(kernel, input, output, divisor);
+			}
+		});
+	}
+
+	public static void vertical(final Kernel1D_I32 kernel, final GrayS32 input, final GrayS32 output, final int divisor) {
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, new RowBand<GrayS32,GrayS32>() {
+			@Override
+			public void process(GrayS32 input, GrayS32 output) {
+				if (!ConvolveImageUnrolled_S32_S32_Div.vertical(kernel, input, output, divisor))
+					ConvolveImageStandard.vertical(kernel, input, output, divisor);
+			}
+		});
+	}
+
+	public static void convolve(final Kernel2D_F32 kernel, final GrayF32 input, final GrayF32 output) {
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, new RowBand<GrayF32,GrayF32>() {
+			@Override
+			public void process(GrayF32 input, GrayF32 output) {
+				if( !ConvolveImageUnrolled_F32_F32.convolve(kernel,input,output))
+					ConvolveImageStandard.convolve(kernel, input,  output);
+			}
+		});
+	}
+
+	public static void convolve(final Kernel2D_F64 kernel, final GrayF64 input, final GrayF64 output) {
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, new RowBand<GrayF64,GrayF64>() {
+			@Override
+			public void process(GrayF64 input, GrayF64 output) {
+				if( !ConvolveImageUnrolled_F64_F64.convolve(kernel,input,output))
+					ConvolveImageStandard.convolve(kernel, input,  output);
+			}
+		});
+	}
+
+	public static void convolve(final Kernel2D_I32 kernel, final GrayU8 input, final GrayI8 output, final int divisor) {
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, new RowBand<GrayU8,GrayI8>() {
+			@Override
+			public void process(GrayU8 input, GrayI8 output) {
+				if( !ConvolveImageUnrolled_U8_I8_Div.convolve(kernel,input,output,divisor))
+					ConvolveImageStandard.convolve(kernel, input,  output, divisor);
+			}
+		});
+	}
+
+	public static void convolve(final Kernel2D_I32 kernel, final GrayU8 input, final GrayI16 output) {
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, new RowBand<GrayU8,GrayI16>() {
+			@Override
+			public void process(GrayU8 input, GrayI16 output) {
+				if( !ConvolveImageUnrolled_U8_I16.convolve(kernel,input,output))
+					ConvolveImageStandard.convolve(kernel, input,  output);
+			}
+		});
+	}
+
+	public static void convolve(final Kernel2D_I32 kernel, final GrayU8 input, final GrayS32 output) {
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, new RowBand<GrayU8,GrayS32>() {
+			@Override
+			public void process(GrayU8 input, GrayS32 output) {
+				ConvolveImageStandard.convolve(kernel, input,  output);
+			}
+		});
+	}
+
+	public static void convolve(final Kernel2D_I32 kernel, final GrayS16 input, final GrayI16 output) {
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, new RowBand<GrayS16,GrayI16>() {
+			@Override
+			public void process(GrayS16 input, GrayI16 output) {
+				if( !ConvolveImageUnrolled_S16_I16.convolve(kernel,input,output))
+					ConvolveImageStandard.convolve(kernel, input,  output);
+			}
+		});
+	}
+
+	public static void convolve(final Kernel2D_I32 kernel, final GrayS16 input, final GrayI16 output, final int divisor) {
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, new RowBand<GrayS16,GrayI16>() {
+			@Override
+			public void process(GrayS16 input, GrayI16 output) {
+				if( !ConvolveImageUnrolled_S16_I16_Div.convolve(kernel,input,output,divisor))
+					ConvolveImageStandard.convolve(kernel, input,  output, divisor);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link ConvolveImageNoBorder#convolveFourier(Kernel2D, ImageGray, ImageGray)}.  Each
+	 * band of rows is transformed on its own.  Bands use different tile sizes than the whole image would, so the
+	 * output only matches the single threaded code to within round off error.
+	 *
+	 * @param storage Correlator used by each band.  Resized to the number of bands.
+	 */
+	public static <T extends ImageGray> void convolveFourier( final Kernel2D kernel , T input , T output ,
+															 final FastQueue<CorrelateFourier> storage ) {
+		int minHeight = Math.max(MIN_FOURIER_BAND_HEIGHT, kernel.width);
+		storage.resize(Math.max(1,BoofConcurrency.computeNumBlocks(0, output.height, minHeight)));
+		rows(input, output, kernel.offset, kernel.width-kernel.offset-1, minHeight, Integer.MAX_VALUE,
+				new BlockBand<T,T>() {
+			@Override
+			public void process(int block, T input, T output) {
+				ConvolveImageNoBorder.convolveFourier(kernel, input, output, storage.get(block));
+			}
+		});
+	}
+
+	private static <I extends ImageGray, O extends ImageGray>
+	void rows( final I input , final O output , final int padTop , final int padBottom ,
+			   final RowBand<I,O> band ) {
+		rows(input, output, padTop, padBottom, MIN_BAND_HEIGHT, Integer.MAX_VALUE, band);
+	}
+
+	/**
+	 * Splits the image into bands of rows and convolves each band in parallel.
+	 *
+	 * @param padTop Number of rows above an output row which are read from the input image
+	 * @param padBottom Number of rows below an output row which are read from the input image
+	 * @param minHeight Minimum number of rows in a band
+	 * @param maxThreads Maximum number of bands
+	 */
+	private static <I extends ImageGray, O extends ImageGray>
+	void rows( final I input , final O output , final int padTop , final int padBottom , int minHeight,
+			   int maxThreads , final RowBand<I,O> band )
+	{
+		rows(input, output, padTop, padBottom, minHeight, maxThreads, new BlockBand<I,O>() {
+			@Override
+			public void process(int block, I input, O output) {
+				band.process(input, output);
+			}
+		});
+	}
+
+	private static <I extends ImageGray, O extends ImageGray>
+	void rows( final I input , final O output , final int padTop , final int padBottom , int minHeight,
+			   int maxThreads , final BlockBand<I,O> band )
+	{
+		BoofConcurrency.loopBlocks(0, output.height, minHeight, maxThreads, new IntRangeTask() {
+			@Override
+			public void process(int block, int y0, int y1) {
+				int expandedY0 = Math.max(0, y0 - padTop);
+				int expandedY1 = Math.min(output.height, y1 + padBottom);
+
+				I subInput = (I)input.subimage(0, expandedY0, input.width, expandedY1, null);
+				O subOutput = (O)output.subimage(0, expandedY0, output.width, expandedY1, null);
+
+				band.process(block, subInput, subOutput);
+			}
+		});
+	}
+
+	/**
+	 * Convolves a band of rows using the single threaded code
+	 */
+	private interface RowBand<I extends ImageGray, O extends ImageGray> {
+		void process( I input , O output );
+	}
+
+	/**
+	 * Processes a band of rows using storage which belongs to that block
+	 */
+	private interface BlockBand<I extends ImageGray, O extends ImageGray> {
+		void process( int block , I input , O output );
+	}
+}
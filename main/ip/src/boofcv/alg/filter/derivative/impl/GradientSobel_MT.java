@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.derivative.impl;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * Concurrent implementation of the inner image Sobel gradient used by {@link boofcv.alg.filter.derivative.GradientSobel}.
+ * The image is split into bands of rows.  Each band is expanded by one row above and below and passed in as
+ * a sub-image to the single threaded code, which then writes to exactly the rows inside the band.  The output
+ * is identical to the single threaded code.
+ * </p>
+ *
+ * <p>
+ * DO NOT CALL DIRECTLY.  Input images are not checked.  Use {@link boofcv.alg.filter.derivative.GradientSobel}
+ * with {@link BoofConcurrency#USE_CONCURRENT} set to true instead.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GradientSobel_MT {
+
+	/**
+	 * Bands with fewer rows than this are not worth the overhead of being processed on their own
+	 */
+	public static int MIN_BAND_HEIGHT = 16;
+
+	public static void process_I8_sub(GrayU8 orig, GrayS16 derivX, GrayS16 derivY) {
+		rows(orig, derivX, derivY, new RowBand<GrayU8, GrayS16>() {
+			@Override
+			public void process(GrayU8 orig, GrayS16 derivX, GrayS16 derivY) {
+				GradientSobel_Outer.process_I8_sub(orig, derivX, derivY);
+			}
+		});
+	}
+
+	public static void process_I8_sub(GrayS16 orig, GrayS16 derivX, GrayS16 derivY) {
+		rows(orig, derivX, derivY, new RowBand<GrayS16, GrayS16>() {
+			@Override
+			public void process(GrayS16 orig, GrayS16 derivX, GrayS16 derivY) {
+				GradientSobel_Outer.process_I8_sub(orig, derivX, derivY);
+			}
+		});
+	}
+
+	public static void process_F32_sub(GrayF32 orig, GrayF32 derivX, GrayF32 derivY) {
+		rows(orig, derivX, derivY, new RowBand<GrayF32, GrayF32>() {
+			@Override
+			public void process(GrayF32 orig, GrayF32 derivX, GrayF32 derivY) {
+				GradientSobel_UnrolledOuter.process_F32_sub(orig, derivX, derivY);
+			}
+		});
+	}
+
+	/**
+	 * Splits the inner rows of the image into bands and processes them concurrently
+	 */
+	private static <I extends ImageGray, D extends ImageGray>
+	void rows( final I orig , final D derivX , final D derivY , final RowBand<I,D> band )
+	{
+		final int height = orig.height;
+
+		// the first and last rows are never written to by the inner gradient
+		BoofConcurrency.loopBlocks(1, height - 1, MIN_BAND_HEIGHT, new IntRangeTask() {
+			@Override
+			public void process(int block, int y0, int y1) {
+				I subOrig = (I)orig.subimage(0, y0 - 1, orig.width, y1 + 1, null);
+				D subX = (D)derivX.subimage(0, y0 - 1, derivX.width, y1 + 1, null);
+				D subY = (D)derivY.subimage(0, y0 - 1, derivY.width, y1 + 1, null);
+
+				band.process(subOrig, subX, subY);
+			}
+		});
+	}
+
+	/**
+	 * Computes the gradient inside a band of rows using the single threaded code
+	 */
+	private interface RowBand<I extends ImageGray, D extends ImageGray> {
+		void process( I orig , D derivX , D derivY );
+	}
+}
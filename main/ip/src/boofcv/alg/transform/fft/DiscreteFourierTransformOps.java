@@ -20,8 +20,11 @@ package boofcv.alg.transform.fft;
 
 import boofcv.abst.transform.fft.DiscreteFourierTransform;
 import boofcv.abst.transform.fft.GeneralFft_to_DiscreteFourierTransform_F32;
+import boofcv.abst.transform.fft.GeneralFft_to_DiscreteFourierTransform_F32_MT;
 import boofcv.abst.transform.fft.GeneralFft_to_DiscreteFourierTransform_F64;
+import boofcv.abst.transform.fft.GeneralFft_to_DiscreteFourierTransform_F64_MT;
 import boofcv.alg.InputSanityCheck;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.*;
 
 /**
@@ -32,27 +35,59 @@ import boofcv.struct.image.*;
 public class DiscreteFourierTransformOps {
 
 	/**
-	 * Creates a {@link DiscreteFourierTransform} for images of type {@link GrayF32}.
+	 * Creates a {@link DiscreteFourierTransform} for images of type {@link GrayF32}.  If
+	 * {@link BoofConcurrency#USE_CONCURRENT} is true then the concurrent implementation is returned.
 	 *
 	 * @see GeneralPurposeFFT_F32_2D
 	 *
 	 * @return {@link DiscreteFourierTransform}
 	 */
 	public static DiscreteFourierTransform<GrayF32,InterleavedF32>  createTransformF32() {
+		if( BoofConcurrency.USE_CONCURRENT )
+			return createTransformF32(BoofConcurrency.getMaxThreads());
 		return new GeneralFft_to_DiscreteFourierTransform_F32();
 	}
 
 	/**
-	 * Creates a {@link DiscreteFourierTransform} for images of type {@link GrayF64}.
+	 * Creates a concurrent {@link DiscreteFourierTransform} for images of type {@link GrayF32}.  Transforms
+	 * for the most recently used image sizes are saved.
+	 *
+	 * @see GeneralPurposeFFT_F32_2D_MT
+	 *
+	 * @param maxThreads Maximum number of threads used by a single transform.
+	 * @return {@link DiscreteFourierTransform}
+	 */
+	public static DiscreteFourierTransform<GrayF32,InterleavedF32>  createTransformF32( int maxThreads ) {
+		return new GeneralFft_to_DiscreteFourierTransform_F32_MT(maxThreads,4);
+	}
+
+	/**
+	 * Creates a {@link DiscreteFourierTransform} for images of type {@link GrayF64}.  If
+	 * {@link BoofConcurrency#USE_CONCURRENT} is true then the concurrent implementation is returned.
 	 *
 	 * @see GeneralPurposeFFT_F64_2D
 	 *
 	 * @return {@link DiscreteFourierTransform}
 	 */
 	public static DiscreteFourierTransform<GrayF64,InterleavedF64>  createTransformF64() {
+		if( BoofConcurrency.USE_CONCURRENT )
+			return createTransformF64(BoofConcurrency.getMaxThreads());
 		return new GeneralFft_to_DiscreteFourierTransform_F64();
 	}
 
+	/**
+	 * Creates a concurrent {@link DiscreteFourierTransform} for images of type {@link GrayF64}.  Transforms
+	 * for the most recently used image sizes are saved.
+	 *
+	 * @see GeneralPurposeFFT_F64_2D_MT
+	 *
+	 * @param maxThreads Maximum number of threads used by a single transform.
+	 * @return {@link DiscreteFourierTransform}
+	 */
+	public static DiscreteFourierTransform<GrayF64,InterleavedF64>  createTransformF64( int maxThreads ) {
+		return new GeneralFft_to_DiscreteFourierTransform_F64_MT(maxThreads,4);
+	}
+
 	/**
 	 * true if the number provided is a power of two
 	 * @param x number
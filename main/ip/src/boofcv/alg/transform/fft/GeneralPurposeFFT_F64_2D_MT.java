@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Concurrent implementation of a 2D Discrete Fourier Transform using the same data layout as
+ * {@link GeneralPurposeFFT_F64_2D}.  The transform is computed by applying a 1D transform to every row and then
+ * to every column.  Each of those 1D transforms is independent of the others, so rows and columns are split into
+ * blocks and each block is processed by its own {@link GeneralPurposeFFT_F64_1D}, since they modify internal
+ * storage.  Groups of adjacent columns are copied into a block's local storage before being transformed.
+ * </p>
+ *
+ * <p>
+ * When the input is real only half of the columns need to be transformed.  The other half is found using the
+ * symmetry of the output, i.e. F(k1,k2) = conj(F(-k1,-k2)).
+ * </p>
+ *
+ * <p>
+ * Results are within doubleing point round off of {@link GeneralPurposeFFT_F64_2D}, but are not identical
+ * since power of two sizes are computed using a different algorithm.  One instance should not be used by
+ * more than one thread at the same time.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GeneralPurposeFFT_F64_2D_MT {
+	/**
+	 * Minimum number of rows or columns transformed by a thread
+	 */
+	public static int MIN_LINES = 16;
+
+	private final int rows;
+	private final int columns;
+
+	// maximum number of threads the transform can be split across
+	private final int maxThreads;
+
+	// storage for each block
+	private FastQueue<Worker> workers;
+
+	/**
+	 * Creates the transform and computes the tables needed by the 1D transforms.
+	 *
+	 * @param rows number of rows
+	 * @param columns number of columns
+	 * @param maxThreads Maximum number of threads it will use.  The limit set in
+	 *                   {@link BoofConcurrency#getMaxThreads()} also applies.
+	 */
+	public GeneralPurposeFFT_F64_2D_MT(int rows, int columns, int maxThreads) {
+		if (rows < 1 || columns < 1 ) {
+			throw new IllegalArgumentException("rows and columns must be greater than 0");
+		}
+		if( maxThreads < 1 )
+			throw new IllegalArgumentException("Maximum number of threads must be at least one");
+
+		this.rows = rows;
+		this.columns = columns;
+		this.maxThreads = maxThreads;
+
+		workers = new FastQueue<Worker>(1,Worker.class,true) {
+			@Override
+			protected Worker createInstance() {
+				return new Worker(GeneralPurposeFFT_F64_2D_MT.this.rows,GeneralPurposeFFT_F64_2D_MT.this.columns);
+			}
+		};
+		// the first worker is always needed and declaring it here also precomputes the tables
+		workers.grow();
+	}
+
+	/**
+	 * Computes 2D forward DFT of complex data leaving the result in <code>a</code>.  See
+	 * {@link GeneralPurposeFFT_F64_2D#complexForward(double[])} for the data layout.
+	 *
+	 * @param a data to transform
+	 */
+	public void complexForward(final double[] a) {
+		if( rows == 1 || columns == 1 ) {
+			if( rows > 1 )
+				workers.get(0).columnFft.complexForward(a);
+			else
+				workers.get(0).rowFft.complexForward(a);
+			return;
+		}
+
+		declareWorkers();
+
+		BoofConcurrency.loopBlocks(0, rows, MIN_LINES, maxThreads, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				GeneralPurposeFFT_F64_1D fft = workers.get(block).rowFft;
+				for (int r = idx0; r < idx1; r++) {
+					fft.complexForward(a, r * 2 * columns);
+				}
+			}
+		});
+
+		BoofConcurrency.loopBlocks(0, columns, MIN_LINES, maxThreads, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				workers.get(block).transformColumns(a, idx0, idx1, true, false);
+			}
+		});
+	}
+
+	/**
+	 * Computes 2D inverse DFT of complex data leaving the result in <code>a</code>.  See
+	 * {@link GeneralPurposeFFT_F64_2D#complexInverse(double[], boolean)} for the data layout.
+	 *
+	 * @param a data to transform
+	 * @param scale if true then scaling is performed
+	 */
+	public void complexInverse(final double[] a, final boolean scale) {
+		if( rows == 1 || columns == 1 ) {
+			if( rows > 1 )
+				workers.get(0).columnFft.complexInverse(a, scale);
+			else
+				workers.get(0).rowFft.complexInverse(a, scale);
+			return;
+		}
+
+		declareWorkers();
+
+		BoofConcurrency.loopBlocks(0, rows, MIN_LINES, maxThreads, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				GeneralPurposeFFT_F64_1D fft = workers.get(block).rowFft;
+				for (int r = idx0; r < idx1; r++) {
+					fft.complexInverse(a, r * 2 * columns, scale);
+				}
+			}
+		});
+
+		BoofConcurrency.loopBlocks(0, columns, MIN_LINES, maxThreads, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				workers.get(block).transformColumns(a, idx0, idx1, false, scale);
+			}
+		});
+	}
+
+	/**
+	 * Computes 2D forward DFT of real data leaving the result in <code>a</code>.  See
+	 * {@link GeneralPurposeFFT_F64_2D#realForwardFull(double[])} for the data layout.
+	 *
+	 * @param a data to transform
+	 */
+	public void realForwardFull(final double[] a) {
+		if( rows == 1 || columns == 1 ) {
+			int N = rows * columns;
+			Arrays.fill(a, N, 2 * N, 0);
+			if( rows > 1 )
+				workers.get(0).columnFft.realForwardFull(a);
+			else
+				workers.get(0).rowFft.realForwardFull(a);
+			return;
+		}
+
+		declareWorkers();
+
+		// move each row to the start of where its complex output goes.  Starting at the last row ensures that
+		// rows are not over written before they are moved
+		for (int r = rows - 1; r > 0; r--) {
+			System.arraycopy(a, r * columns, a, r * 2 * columns, columns);
+		}
+
+		BoofConcurrency.loopBlocks(0, rows, MIN_LINES, maxThreads, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				GeneralPurposeFFT_F64_1D fft = workers.get(block).rowFft;
+				for (int r = idx0; r < idx1; r++) {
+					// the 1D transform expects the second half of its output to be zero
+					int index = r * 2 * columns;
+					Arrays.fill(a, index + columns, index + 2 * columns, 0);
+					fft.realForwardFull(a, index);
+				}
+			}
+		});
+
+		// only the first half of the columns needs to be transformed
+		final int half = columns / 2 + 1;
+		BoofConcurrency.loopBlocks(0, half, MIN_LINES, maxThreads, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				workers.get(block).transformColumns(a, idx0, idx1, true, false);
+			}
+		});
+
+		// fill in the other half using symmetry.  Only columns which have been transformed are read
+		BoofConcurrency.loopBlocks(0, rows, MIN_LINES, maxThreads, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				int rowspan = 2 * columns;
+				for (int r = idx0; r < idx1; r++) {
+					int indexDst = r * rowspan + 2 * half;
+					int indexSrc = ((rows - r) % rows) * rowspan + 2 * (columns - half);
+					for (int c = half; c < columns; c++, indexDst += 2, indexSrc -= 2) {
+						a[indexDst] = a[indexSrc];
+						a[indexDst + 1] = -a[indexSrc + 1];
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Makes sure there is storage for every block
+	 */
+	private void declareWorkers() {
+		int numBlocks = BoofConcurrency.computeNumBlocks(0, Math.max(rows, columns), MIN_LINES, maxThreads);
+		if( workers.size() < numBlocks )
+			workers.resize(numBlocks);
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public int getColumns() {
+		return columns;
+	}
+
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	/**
+	 * Storage used by a block.  The 1D transforms have internal work space and can't be shared between threads.
+	 */
+	private static class Worker {
+		// number of columns which are copied at the same time.  Reading several adjacent columns in one pass
+		// makes much better use of the cache than reading one column at a time
+		static final int GROUP = 8;
+
+		// transform along a row, length = columns
+		GeneralPurposeFFT_F64_1D rowFft;
+		// transform along a column, length = rows
+		GeneralPurposeFFT_F64_1D columnFft;
+
+		int rows;
+		int rowspan;
+
+		// interleaved complex values of a group of columns.  One column after another.
+		double[] group;
+
+		Worker(int rows, int columns) {
+			columnFft = new GeneralPurposeFFT_F64_1D(rows);
+			if( rows == columns )
+				rowFft = columnFft;
+			else
+				rowFft = new GeneralPurposeFFT_F64_1D(columns);
+			this.rows = rows;
+			this.rowspan = 2 * columns;
+			group = new double[GROUP * 2 * rows];
+		}
+
+		/**
+		 * Applies the 1D transform to columns c0 to c1-1
+		 */
+		void transformColumns( double[] a , int c0 , int c1 , boolean forward , boolean scale ) {
+			int colspan = 2 * rows;
+			for (int c = c0; c < c1; c += GROUP) {
+				int N = Math.min(GROUP, c1 - c);
+
+				for (int r = 0; r < rows; r++) {
+					int indexA = r * rowspan + 2 * c;
+					for (int i = 0, indexG = 2 * r; i < N; i++, indexG += colspan) {
+						group[indexG] = a[indexA++];
+						group[indexG + 1] = a[indexA++];
+					}
+				}
+
+				for (int i = 0; i < N; i++) {
+					if( forward )
+						columnFft.complexForward(group, i * colspan);
+					else
+						columnFft.complexInverse(group, i * colspan, scale);
+				}
+
+				for (int r = 0; r < rows; r++) {
+					int indexA = r * rowspan + 2 * c;
+					for (int i = 0, indexG = 2 * r; i < N; i++, indexG += colspan) {
+						a[indexA++] = group[indexG];
+						a[indexA++] = group[indexG + 1];
+					}
+				}
+			}
+		}
+	}
+}
@@ -108,6 +108,38 @@ public class IntegralImageOps {
 		return transformed;
 	}
 
+	/**
+	 * Computes the integral image of the input image and the integral image of the input image squared in a
+	 * single pass.  Together they provide the mean and variance inside any rectangle in constant time.  Double
+	 * precision is used so that the squared sums of large images remain exact.
+	 *
+	 * @param input Regular image. Not modified.
+	 * @param transformed Integral image.  Reshaped to match the input. Modified.
+	 * @param transformedSq Integral image of the squared input.  Reshaped to match the input. Modified.
+	 */
+	public static void transformSquared(GrayU8 input , GrayF64 transformed , GrayF64 transformedSq ) {
+		transformed.reshape(input.width,input.height);
+		transformedSq.reshape(input.width,input.height);
+
+		ImplIntegralImageOps.transformSquared(input, transformed, transformedSq);
+	}
+
+	/**
+	 * Computes the integral image of the input image and the integral image of the input image squared in a
+	 * single pass.  Together they provide the mean and variance inside any rectangle in constant time.  Double
+	 * precision is used so that the squared sums of large images remain exact.
+	 *
+	 * @param input Regular image. Not modified.
+	 * @param transformed Integral image.  Reshaped to match the input. Modified.
+	 * @param transformedSq Integral image of the squared input.  Reshaped to match the input. Modified.
+	 */
+	public static void transformSquared(GrayF32 input , GrayF64 transformed , GrayF64 transformedSq ) {
+		transformed.reshape(input.width,input.height);
+		transformedSq.reshape(input.width,input.height);
+
+		ImplIntegralImageOps.transformSquared(input, transformed, transformedSq);
+	}
+
 	/**
 	 * General code for convolving a box filter across an image using the integral image.
 	 *
@@ -166,6 +166,78 @@ public class ImplIntegralImageOps {
 		}
 	}
 
+	public static void transformSquared( final GrayU8 input , final GrayF64 transformed ,
+										 final GrayF64 transformedSq )
+	{
+		int indexSrc = input.startIndex;
+		int indexDst = transformed.startIndex;
+		int indexSq = transformedSq.startIndex;
+		int end = indexSrc + input.width;
+
+		double total = 0, totalSq = 0;
+		for( ; indexSrc < end; indexSrc++ ) {
+			double value = input.data[indexSrc]& 0xFF;
+			transformed.data[indexDst++] = total += value;
+			transformedSq.data[indexSq++] = totalSq += value*value;
+		}
+
+		for( int y = 1; y < input.height; y++ ) {
+			indexSrc = input.startIndex + input.stride*y;
+			indexDst = transformed.startIndex + transformed.stride*y;
+			indexSq = transformedSq.startIndex + transformedSq.stride*y;
+			int indexPrev = indexDst - transformed.stride;
+			int indexPrevSq = indexSq - transformedSq.stride;
+
+			end = indexSrc + input.width;
+
+			total = 0;
+			totalSq = 0;
+			for( ; indexSrc < end; indexSrc++ ) {
+				double value = input.data[indexSrc]& 0xFF;
+				total += value;
+				totalSq += value*value;
+				transformed.data[indexDst++] = transformed.data[indexPrev++] + total;
+				transformedSq.data[indexSq++] = transformedSq.data[indexPrevSq++] + totalSq;
+			}
+		}
+	}
+
+	public static void transformSquared( final GrayF32 input , final GrayF64 transformed ,
+										 final GrayF64 transformedSq )
+	{
+		int indexSrc = input.startIndex;
+		int indexDst = transformed.startIndex;
+		int indexSq = transformedSq.startIndex;
+		int end = indexSrc + input.width;
+
+		double total = 0, totalSq = 0;
+		for( ; indexSrc < end; indexSrc++ ) {
+			double value = input.data[indexSrc];
+			transformed.data[indexDst++] = total += value;
+			transformedSq.data[indexSq++] = totalSq += value*value;
+		}
+
+		for( int y = 1; y < input.height; y++ ) {
+			indexSrc = input.startIndex + input.stride*y;
+			indexDst = transformed.startIndex + transformed.stride*y;
+			indexSq = transformedSq.startIndex + transformedSq.stride*y;
+			int indexPrev = indexDst - transformed.stride;
+			int indexPrevSq = indexSq - transformedSq.stride;
+
+			end = indexSrc + input.width;
+
+			total = 0;
+			totalSq = 0;
+			for( ; indexSrc < end; indexSrc++ ) {
+				double value = input.data[indexSrc];
+				total += value;
+				totalSq += value*value;
+				transformed.data[indexDst++] = transformed.data[indexPrev++] + total;
+				transformedSq.data[indexSq++] = transformedSq.data[indexPrevSq++] + totalSq;
+			}
+		}
+	}
+
 	public static void convolve( GrayF32 integral ,
 								 IntegralKernel kernel,
 								 GrayF32 output )
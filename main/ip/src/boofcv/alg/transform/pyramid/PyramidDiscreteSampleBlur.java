@@ -47,7 +47,7 @@ import boofcv.struct.pyramid.PyramidDiscrete;
 public class PyramidDiscreteSampleBlur<T extends ImageGray> extends PyramidDiscrete<T> {
 
 	// stores the results from the first convolution
-	private T temp;
+	protected T temp;
 	GenericConvolveDown<T,T> horizontal;
 	GenericConvolveDown<T,T> vertical;
 
@@ -101,27 +101,29 @@ public class PyramidDiscreteSampleBlur<T extends ImageGray> extends PyramidDiscr
 				getLayer(0).setTo(input);
 			}
 		} else {
-			int skip = scale[0];
-
-			horizontal.setSkip(skip);
-			vertical.setSkip(skip);
-
-			temp.reshape(input.width/skip,input.height);
-			horizontal.process(input,temp);
-			vertical.process(temp,getLayer(0));
+			blurDown(input,getLayer(0),scale[0]);
 		}
 
 		for (int index = 1; index < getNumLayers(); index++) {
 			int skip = scale[index]/scale[index-1];
-			T prev = getLayer(index-1);
-			temp.reshape(prev.width/skip,prev.height);
+			blurDown(getLayer(index-1),getLayer(index),skip);
+		}
+	}
 
-			horizontal.setSkip(skip);
-			vertical.setSkip(skip);
+	/**
+	 * Blurs the previous layer and down samples it into the next layer
+	 *
+	 * @param prev (Input) Previous layer
+	 * @param layer (Output) The layer being computed
+	 * @param skip Down sampling factor between the two layers
+	 */
+	protected void blurDown( T prev , T layer , int skip ) {
+		horizontal.setSkip(skip);
+		vertical.setSkip(skip);
 
-			horizontal.process(prev,temp);
-			vertical.process(temp,getLayer(index));
-		}
+		temp.reshape(prev.width/skip,prev.height);
+		horizontal.process(prev,temp);
+		vertical.process(temp,layer);
 	}
 
 	/**
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.pyramid;
+
+import boofcv.alg.filter.convolve.down.UtilDownConvolve;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link PyramidDiscreteSampleBlur}.  Each layer is split into horizontal bands
+ * of rows.  For each band the rows of the previous layer it depends on are blurred horizontally and down sampled
+ * into a small strip, which is then blurred vertically and down sampled into the band.  Both passes are done
+ * while the strip is still in the cache and the full sized intermediate image is never created.
+ * </p>
+ *
+ * <p>
+ * Strips are aligned to the sampling grid and extend past the band by at least the kernel's radius, which causes
+ * every pixel inside the band to be computed by exactly the same code as the single threaded implementation.
+ * The output is identical.  Storage for each band is saved and reused, so once the image size stops changing
+ * no more memory is declared.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"unchecked"})
+public class PyramidDiscreteSampleBlur_MT<T extends ImageGray> extends PyramidDiscreteSampleBlur<T> {
+
+	/**
+	 * Minimum number of rows in the output layer processed by a thread
+	 */
+	public static int MIN_ROWS = 16;
+
+	// the blur kernel
+	Kernel1D kernel;
+
+	// storage for each band
+	FastQueue<BandStorage> bands = new FastQueue<BandStorage>(1,(Class)BandStorage.class,true) {
+		@Override
+		protected BandStorage createInstance() {
+			return new BandStorage();
+		}
+	};
+
+	/**
+	 * @see PyramidDiscreteSampleBlur#PyramidDiscreteSampleBlur(Kernel1D, double, Class, boolean, int...)
+	 */
+	public PyramidDiscreteSampleBlur_MT(Kernel1D kernel, double sigma, Class<T> imageType,
+										boolean saveOriginalReference, int... scaleFactors)
+	{
+		super(kernel, sigma, imageType, saveOriginalReference, scaleFactors);
+		this.kernel = kernel;
+	}
+
+	@Override
+	protected void blurDown(final T prev, final T layer, final int skip) {
+		// only rows which are computed by the single threaded code are processed
+		final int rows = prev.height/skip;
+
+		// bands need to be larger than the kernel so that the same code is used on each pixel
+		int minRows = Math.max(MIN_ROWS, kernel.getWidth()+1);
+
+		int numBlocks = BoofConcurrency.computeNumBlocks(0, rows, minRows);
+		if( numBlocks <= 1 ) {
+			super.blurDown(prev, layer, skip);
+			return;
+		}
+
+		horizontal.setSkip(skip);
+		vertical.setSkip(skip);
+
+		// number of rows the strip extends past the band. Must be aligned to the sampling grid and
+		// large enough for the kernel to be entirely inside the strip
+		int offset = UtilDownConvolve.computeOffset(skip, kernel.getRadius());
+		final int pad = skip*((offset + skip - 1)/skip);
+
+		while( bands.size() < numBlocks )
+			bands.grow();
+
+		BoofConcurrency.loopBlocks(0, rows, minRows, new IntRangeTask() {
+			@Override
+			public void process(int block, int row0, int row1) {
+				BandStorage b = bands.get(block);
+
+				// rows in the previous layer which the strip covers
+				int y0 = row0 == 0 ? 0 : row0*skip - pad;
+				int y1 = row1 == rows ? prev.height : row1*skip + pad;
+
+				b.input = (T)prev.subimage(0, y0, prev.width, y1, b.input);
+
+				if( b.temp == null ) {
+					b.temp = (T)prev._createNew(1,1);
+					b.strip = (T)prev._createNew(1,1);
+				}
+				b.temp.reshape(prev.width/skip, y1 - y0);
+				b.strip.reshape(b.temp.width, (y1 - y0)/skip);
+
+				horizontal.process(b.input, b.temp);
+				vertical.process(b.temp, b.strip);
+
+				// copy the band from the strip into the layer
+				int stripRow0 = row0 - y0/skip;
+				b.stripBand = (T)b.strip.subimage(0, stripRow0, b.strip.width, stripRow0 + row1 - row0, b.stripBand);
+				b.layerBand = (T)layer.subimage(0, row0, b.strip.width, row1, b.layerBand);
+				b.layerBand.setTo(b.stripBand);
+			}
+		});
+	}
+
+	/**
+	 * Storage used to process a single band.  Sub-images are saved to avoid declaring new ones
+	 */
+	class BandStorage {
+		// rows from the previous layer the strip depends on
+		T input;
+		// strip after the horizontal pass
+		T temp;
+		// strip after both passes
+		T strip;
+		// rows in the strip and the layer which belong to the band
+		T stripBand;
+		T layerBand;
+	}
+}
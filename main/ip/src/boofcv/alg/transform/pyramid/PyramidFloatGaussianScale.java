@@ -18,12 +18,15 @@
 
 package boofcv.alg.transform.pyramid;
 
-import boofcv.abst.filter.blur.BlurStorageFilter;
-import boofcv.alg.distort.DistortImageOps;
+import boofcv.alg.distort.ImageDistort;
 import boofcv.alg.distort.PixelTransformAffine_F32;
 import boofcv.alg.distort.impl.DistortSupport;
+import boofcv.alg.filter.convolve.GConvolveImageOps;
 import boofcv.alg.interpolate.InterpolatePixelS;
-import boofcv.factory.filter.blur.FactoryBlurFilter;
+import boofcv.factory.distort.FactoryDistort;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel1D;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.pyramid.PyramidFloat;
 
@@ -51,6 +54,18 @@ public class PyramidFloatGaussianScale< T extends ImageGray> extends PyramidFloa
 
 	// used to store the blurred image
 	protected T tempImage;
+	// stores the results from the horizontal blur
+	protected T storage;
+
+	// Gaussian kernel which is applied to each layer.  null if no blur is applied
+	protected Kernel1D[] kernels;
+
+	// re-samples the blurred image
+	protected ImageDistort<T,T> distort;
+	protected PixelTransformAffine_F32 model = new PixelTransformAffine_F32();
+
+	// type of image being processed
+	protected Class<T> imageType;
 
 	// how much each layer is blurred before sub-sampling
 	protected float[] sigmaLayers;
@@ -73,10 +88,21 @@ public class PyramidFloatGaussianScale< T extends ImageGray> extends PyramidFloa
 			throw new IllegalArgumentException("Number of scales and sigmas must be the same");
 
 		this.interpolate = interpolate;
+		this.imageType = imageType;
 		this.sigmaLayers = new float[ sigmaLayers.length ];
 		for( int i = 0; i < sigmaLayers.length; i++ )
 			this.sigmaLayers[i] = (float) sigmaLayers[i];
 
+		// the kernels only depend on the sigmas, so they are declared once instead of for each image
+		Class<Kernel1D> kernelType = FactoryKernel.getKernelType(imageType,1);
+		kernels = new Kernel1D[ sigmaLayers.length ];
+		for( int i = 0; i < sigmaLayers.length; i++ ) {
+			if( sigmaLayers[i] > 0 )
+				kernels[i] = FactoryKernelGaussian.gaussian(kernelType, this.sigmaLayers[i], -1);
+		}
+
+		declareDistort();
+
 		sigma = new double[ sigmaLayers.length ];
 		sigma[0] = sigmaLayers[0];
 		for( int i = 1; i < scales.length; i++ ) {
@@ -96,6 +122,7 @@ public class PyramidFloatGaussianScale< T extends ImageGray> extends PyramidFloa
 
 		if( tempImage == null ) {
 			tempImage = (T)input._createNew(input.width,input.height);
+			storage = (T)input._createNew(input.width,input.height);
 		}
 
 		for( int i = 0; i < scale.length; i++ ) {
@@ -103,16 +130,21 @@ public class PyramidFloatGaussianScale< T extends ImageGray> extends PyramidFloa
 			T layer = getLayer(i);
 
 			// Apply the requested blur to the previous layer
-			BlurStorageFilter<T> blur = (BlurStorageFilter<T>) FactoryBlurFilter.gaussian(layer.getClass(), sigmaLayers[i],-1);
-			tempImage.reshape(prev.width,prev.height);
-			blur.process(prev,tempImage);
+			if( kernels[i] == null ) {
+				tempImage.setTo(prev);
+			} else {
+				tempImage.reshape(prev.width,prev.height);
+				storage.reshape(prev.width,prev.height);
+				GConvolveImageOps.horizontalNormalized(kernels[i], prev, storage);
+				GConvolveImageOps.verticalNormalized(kernels[i], storage, tempImage);
+			}
 
 			// Resample the blurred image
 			if( scale[i] == 1 ) {
 				layer.setTo(tempImage);
 			} else {
-				PixelTransformAffine_F32 model = DistortSupport.transformScale(layer,tempImage, null);
-				DistortImageOps.distortSingle(tempImage,layer, true, model,interpolate);
+				DistortSupport.transformScale(layer,tempImage, model);
+				distort.apply(tempImage,layer);
 			}
 		}
 	}
@@ -123,6 +155,13 @@ public class PyramidFloatGaussianScale< T extends ImageGray> extends PyramidFloa
 
 	public void setInterpolate(InterpolatePixelS<T> interpolate) {
 		this.interpolate = interpolate;
+		declareDistort();
+	}
+
+	private void declareDistort() {
+		distort = FactoryDistort.distortSB(false, interpolate, imageType);
+		distort.setRenderAll(true);
+		distort.setModel(model);
 	}
 
 	@Override
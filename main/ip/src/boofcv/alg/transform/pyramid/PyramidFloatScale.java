@@ -18,10 +18,11 @@
 
 package boofcv.alg.transform.pyramid;
 
-import boofcv.alg.distort.DistortImageOps;
+import boofcv.alg.distort.ImageDistort;
 import boofcv.alg.distort.PixelTransformAffine_F32;
 import boofcv.alg.distort.impl.DistortSupport;
 import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.factory.distort.FactoryDistort;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.pyramid.PyramidFloat;
 
@@ -41,9 +42,17 @@ public class PyramidFloatScale< T extends ImageGray>
 	// interpolation algorithm
 	protected InterpolatePixelS<T> interpolate;
 
+	// re-samples the previous layer
+	protected ImageDistort<T,T> distort;
+	protected PixelTransformAffine_F32 model = new PixelTransformAffine_F32();
+
 	public PyramidFloatScale(InterpolatePixelS<T> interpolate, double scaleFactors[] , Class<T> imageType) {
 		super(imageType,scaleFactors);
 		this.interpolate = interpolate;
+
+		distort = FactoryDistort.distortSB(false, interpolate, imageType);
+		distort.setRenderAll(true);
+		distort.setModel(model);
 	}
 
 	@Override
@@ -57,8 +66,8 @@ public class PyramidFloatScale< T extends ImageGray>
 			T prev = i == 0 ? input : getLayer(i-1);
 			T layer = getLayer(i);
 
-			PixelTransformAffine_F32 model = DistortSupport.transformScale(layer,prev, null);
-			DistortImageOps.distortSingle(prev,layer, true, model,interpolate);
+			DistortSupport.transformScale(layer,prev, model);
+			distort.apply(prev,layer);
 		}
 	}
 
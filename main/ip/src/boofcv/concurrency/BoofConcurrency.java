@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * <p>
+ * Global settings and a shared thread pool for concurrent implementations of algorithms.  A loop is split into
+ * blocks of contiguous indexes, the blocks are processed by the pool, and the calling thread is blocked until
+ * all of them have finished.  How the loop is split into blocks only depends on its length and the maximum
+ * number of threads, so that algorithms which keep per-block storage produce the same results every time.
+ * </p>
+ *
+ * <p>
+ * If a loop is started from inside a worker thread then all of its blocks are processed by the calling thread.
+ * This prevents the pool from dead locking when a concurrent algorithm calls another concurrent algorithm.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BoofConcurrency {
+	/**
+	 * If true then functions which have a concurrent implementation will use it.  Off by default.
+	 */
+	public static boolean USE_CONCURRENT = false;
+
+	// maximum number of threads which will process a loop at the same time
+	private static int maxThreads = Runtime.getRuntime().availableProcessors();
+
+	// shared thread pool.  Lazily created
+	private static ExecutorService pool;
+
+	/**
+	 * Specifies the maximum number of threads which will be used.  The existing pool is shut down and a new one
+	 * is created the next time it's needed.
+	 *
+	 * @param maxThreads Maximum number of threads.  Must be &ge; 1.
+	 */
+	public static synchronized void setMaxThreads( int maxThreads ) {
+		if( maxThreads < 1 )
+			throw new IllegalArgumentException("Maximum number of threads must be at least one");
+		if( BoofConcurrency.maxThreads == maxThreads )
+			return;
+		BoofConcurrency.maxThreads = maxThreads;
+		if( pool != null ) {
+			pool.shutdown();
+			pool = null;
+		}
+	}
+
+	public static synchronized int getMaxThreads() {
+		return maxThreads;
+	}
+
+	/**
+	 * Returns the shared thread pool.  Threads in the pool are daemon threads.
+	 */
+	public static synchronized ExecutorService getPool() {
+		if( pool == null ) {
+			pool = Executors.newFixedThreadPool(maxThreads, new ThreadFactory() {
+				int count = 0;
+
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new WorkerThread(r,"BoofConcurrency-"+(count++));
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return pool;
+	}
+
+	/**
+	 * Returns true if the calling thread belongs to the shared pool
+	 */
+	public static boolean isWorkerThread() {
+		return Thread.currentThread() instanceof WorkerThread;
+	}
+
+	/**
+	 * Computes the number of blocks a loop will be split into
+	 *
+	 * @param start First index, inclusive
+	 * @param end Last index, exclusive
+	 * @param minBlockSize The minimum number of indexes in a block
+	 * @return number of blocks.  Zero if the range is empty.
+	 */
+	public static int computeNumBlocks( int start , int end , int minBlockSize ) {
+		return computeNumBlocks(start,end,minBlockSize,Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Computes the number of blocks a loop will be split into
+	 *
+	 * @param start First index, inclusive
+	 * @param end Last index, exclusive
+	 * @param minBlockSize The minimum number of indexes in a block
+	 * @param maxBlocks The maximum number of blocks.  The maximum number of threads is also a limit.
+	 * @return number of blocks.  Zero if the range is empty.
+	 */
+	public static int computeNumBlocks( int start , int end , int minBlockSize , int maxBlocks ) {
+		int length = end-start;
+		if( length <= 0 )
+			return 0;
+		int limit = Math.min(getMaxThreads(),Math.max(1,maxBlocks));
+		return Math.max(1,Math.min(limit,length/Math.max(1,minBlockSize)));
+	}
+
+	/**
+	 * First index in a block.  The last index of the block is the first index of the next block.
+	 */
+	public static int blockStart( int start , int end , int numBlocks , int block ) {
+		return start + (int)(((long)block*(end-start))/numBlocks);
+	}
+
+	/**
+	 * Splits the range into blocks and processes them concurrently.
+	 *
+	 * @see #loopBlocks(int, int, int, IntRangeTask)
+	 */
+	public static void loopBlocks( int start , int end , IntRangeTask task ) {
+		loopBlocks(start,end,1,task);
+	}
+
+	/**
+	 * Splits the range into blocks and processes them concurrently.  Returns after every block has been processed.
+	 * Exceptions thrown by a task are rethrown in the calling thread.
+	 *
+	 * @param start First index, inclusive
+	 * @param end Last index, exclusive
+	 * @param minBlockSize The minimum number of indexes in a block
+	 * @param task The task which processes each block
+	 */
+	public static void loopBlocks( final int start , final int end , int minBlockSize , final IntRangeTask task ) {
+		loopBlocks(start,end,minBlockSize,Integer.MAX_VALUE,task);
+	}
+
+	/**
+	 * Splits the range into at most maxBlocks blocks and processes them concurrently.  Used by algorithms
+	 * which let the user limit the number of threads they use.
+	 *
+	 * @param start First index, inclusive
+	 * @param end Last index, exclusive
+	 * @param minBlockSize The minimum number of indexes in a block
+	 * @param maxBlocks The maximum number of blocks.  The maximum number of threads is also a limit.
+	 * @param task The task which processes each block
+	 */
+	public static void loopBlocks( final int start , final int end , int minBlockSize , int maxBlocks ,
+								   final IntRangeTask task ) {
+		final int numBlocks = computeNumBlocks(start,end,minBlockSize,maxBlocks);
+		if( numBlocks == 0 )
+			return;
+
+		if( numBlocks == 1 || isWorkerThread() ) {
+			for (int block = 0; block < numBlocks; block++) {
+				task.process(block, blockStart(start, end, numBlocks, block),
+						blockStart(start, end, numBlocks, block + 1));
+			}
+			return;
+		}
+
+		ExecutorService pool = getPool();
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (int block = 1; block < numBlocks; block++) {
+			final int b = block;
+			futures.add(pool.submit(new Runnable() {
+				@Override
+				public void run() {
+					task.process(b, blockStart(start, end, numBlocks, b), blockStart(start, end, numBlocks, b + 1));
+				}
+			}));
+		}
+
+		// the calling thread does its share of the work instead of waiting
+		RuntimeException failure = null;
+		try {
+			task.process(0, start, blockStart(start, end, numBlocks, 1));
+		} catch( RuntimeException e ) {
+			failure = e;
+		}
+
+		for (int i = 0; i < futures.size(); i++) {
+			try {
+				futures.get(i).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				if( failure == null )
+					failure = new RuntimeException(e);
+			} catch (ExecutionException e) {
+				if( failure != null )
+					continue;
+				Throwable cause = e.getCause();
+				if( cause instanceof RuntimeException )
+					failure = (RuntimeException)cause;
+				else if( cause instanceof Error )
+					throw (Error)cause;
+				else
+					failure = new RuntimeException(cause);
+			}
+		}
+
+		if( failure != null )
+			throw failure;
+	}
+
+	/**
+	 * Threads created by the shared pool
+	 */
+	private static class WorkerThread extends Thread {
+		public WorkerThread(Runnable target, String name) {
+			super(target, name);
+		}
+	}
+}
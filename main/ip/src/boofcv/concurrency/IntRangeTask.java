@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+/**
+ * Task which processes a contiguous range of indexes.  Used by {@link BoofConcurrency} to split
+ * a loop into blocks which are processed in parallel.
+ *
+ * @author Peter Abeles
+ */
+public interface IntRangeTask {
+
+	/**
+	 * Processes indexes from idx0 to idx1-1.
+	 *
+	 * @param block Index of the block being processed.  0 to number of blocks - 1.  Can be used to select
+	 *              scratch storage which belongs to this block.
+	 * @param idx0 First index in the range, inclusive.
+	 * @param idx1 Last index in the range, exclusive.
+	 */
+	void process( int block , int idx0 , int idx1 );
+}
@@ -58,9 +58,24 @@ public class ConfigThreshold implements Configuration {
 	 * Positive parameter used to tune threshold in Savola.  Try 0.3
 	 *
 	 * @see ThresholdType#LOCAL_SAVOLA
+	 * @see ThresholdType#LOCAL_SAVOLA_INTEGRAL
 	 */
 	public float savolaK = 0.3f;
 
+	/**
+	 * Weight of the local standard deviation in Niblack.  Try -0.2
+	 *
+	 * @see ThresholdType#LOCAL_NIBLACK
+	 */
+	public float niblackK = -0.2f;
+
+	/**
+	 * Parameter used to tune threshold in Wolf.  Try 0.5
+	 *
+	 * @see ThresholdType#LOCAL_WOLF
+	 */
+	public float wolfK = 0.5f;
+
 	/**
 	 * Minimum pixel value.  Only used for some algorithms.
 	 */
@@ -121,6 +136,8 @@ public class ConfigThreshold implements Configuration {
 				", down=" + down +
 				", radius=" + radius +
 				", savolaK=" + savolaK +
+				", niblackK=" + niblackK +
+				", wolfK=" + wolfK +
 				", minPixelValue=" + minPixelValue +
 				", maxPixelValue=" + maxPixelValue +
 				'}';
@@ -19,6 +19,11 @@
 package boofcv.factory.filter.binary;
 
 import boofcv.abst.filter.binary.*;
+import boofcv.alg.filter.binary.ThresholdLocalMean;
+import boofcv.alg.filter.binary.ThresholdLocalNiblack;
+import boofcv.alg.filter.binary.ThresholdLocalSauvola;
+import boofcv.alg.filter.binary.ThresholdLocalWolf;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
@@ -58,6 +63,69 @@ public class FactoryThresholdBinary {
 		return new LocalSauvolaBinaryFilter<T>(radius,k,down,ImageType.single(inputType));
 	}
 
+	/**
+	 * Same as {@link #localSauvola} but the local statistics are computed using integral images, making the
+	 * cost of each pixel independent of the radius.
+	 *
+	 * @see ThresholdLocalSauvola
+	 *
+	 * @param radius Radius of local region.  Try 15
+	 * @param k User specified threshold adjustment factor.  Must be positive. Try 0.3
+	 * @param down Should it threshold up or down.
+	 * @param inputType Type of input image
+	 * @return Filter to binary
+	 */
+	public static <T extends ImageGray>
+	InputToBinary<T> localSauvolaIntegral(int radius, float k, boolean down, Class<T> inputType) {
+		return new LocalIntegralBinaryFilter<T>(new ThresholdLocalSauvola<ImageGray>(radius,k,down,maxThreads()),
+				ImageType.single(inputType));
+	}
+
+	/**
+	 * @see ThresholdLocalNiblack
+	 *
+	 * @param radius Radius of local region.  Try 15
+	 * @param k Weight of the local standard deviation.  Try -0.2
+	 * @param down Should it threshold up or down.
+	 * @param inputType Type of input image
+	 * @return Filter to binary
+	 */
+	public static <T extends ImageGray>
+	InputToBinary<T> localNiblack(int radius, float k, boolean down, Class<T> inputType) {
+		return new LocalIntegralBinaryFilter<T>(new ThresholdLocalNiblack<ImageGray>(radius,k,down,maxThreads()),
+				ImageType.single(inputType));
+	}
+
+	/**
+	 * @see ThresholdLocalWolf
+	 *
+	 * @param radius Radius of local region.  Try 15
+	 * @param k User specified threshold adjustment factor.  Try 0.5
+	 * @param down Should it threshold up or down.
+	 * @param inputType Type of input image
+	 * @return Filter to binary
+	 */
+	public static <T extends ImageGray>
+	InputToBinary<T> localWolf(int radius, float k, boolean down, Class<T> inputType) {
+		return new LocalIntegralBinaryFilter<T>(new ThresholdLocalWolf<ImageGray>(radius,k,down,maxThreads()),
+				ImageType.single(inputType));
+	}
+
+	/**
+	 * @see ThresholdLocalMean
+	 *
+	 * @param radius Radius of square region.
+	 * @param scale Scale factor adjust for threshold.  1.0 means no change.
+	 * @param down Should it threshold up or down.
+	 * @param inputType Type of input image
+	 * @return Filter to binary
+	 */
+	public static <T extends ImageGray>
+	InputToBinary<T> localMean(int radius, double scale, boolean down, Class<T> inputType) {
+		return new LocalIntegralBinaryFilter<T>(new ThresholdLocalMean<ImageGray>(radius,(float)scale,down,maxThreads()),
+				ImageType.single(inputType));
+	}
+
 	/**
 	 * @see boofcv.alg.filter.binary.GThresholdImageOps#localSquare(ImageGray, GrayU8, int, double, boolean, ImageGray, ImageGray)
 	 *
@@ -145,9 +213,21 @@ public class FactoryThresholdBinary {
 			case LOCAL_SAVOLA:
 				return localSauvola(config.radius, config.savolaK, config.down, inputType);
 
+			case LOCAL_SAVOLA_INTEGRAL:
+				return localSauvolaIntegral(config.radius, config.savolaK, config.down, inputType);
+
 			case LOCAL_SQUARE:
 				return localSquare(config.radius, config.scale, config.down, inputType);
 
+			case LOCAL_MEAN:
+				return localMean(config.radius, config.scale, config.down, inputType);
+
+			case LOCAL_NIBLACK:
+				return localNiblack(config.radius, config.niblackK, config.down, inputType);
+
+			case LOCAL_WOLF:
+				return localWolf(config.radius, config.wolfK, config.down, inputType);
+
 			case LOCAL_SQUARE_BLOCK_MIN_MAX: {
 				ConfigThresholdBlockMinMax c = (ConfigThresholdBlockMinMax) config;
 				return localSquareBlockMinMax(c.radius * 2 + 1, c.scale , c.down, c.minimumSpread, inputType);
@@ -155,4 +235,10 @@ public class FactoryThresholdBinary {
 		}
 		throw new IllegalArgumentException("Unknown type "+config.type);
 	}
+	/**
+	 * Number of threads the integral image thresholds are allowed to use
+	 */
+	private static int maxThreads() {
+		return BoofConcurrency.USE_CONCURRENT ? BoofConcurrency.getMaxThreads() : 1;
+	}
 }
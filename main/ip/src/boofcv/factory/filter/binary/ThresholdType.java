@@ -67,7 +67,31 @@ public enum ThresholdType {
 	 *
 	 * @see boofcv.alg.filter.binary.impl.ThresholdSauvola
 	 */
-	LOCAL_SAVOLA(true,false);
+	LOCAL_SAVOLA(true,false),
+	/**
+	 * Locally adaptive computed using Savola's method, with the local statistics found using integral images
+	 *
+	 * @see boofcv.alg.filter.binary.ThresholdLocalSauvola
+	 */
+	LOCAL_SAVOLA_INTEGRAL(true,false),
+	/**
+	 * Locally adaptive computed from the mean inside a square region, found using integral images
+	 *
+	 * @see boofcv.alg.filter.binary.ThresholdLocalMean
+	 */
+	LOCAL_MEAN(true,false),
+	/**
+	 * Locally adaptive computed using Niblack's method
+	 *
+	 * @see boofcv.alg.filter.binary.ThresholdLocalNiblack
+	 */
+	LOCAL_NIBLACK(true,false),
+	/**
+	 * Locally adaptive computed using Wolf's method
+	 *
+	 * @see boofcv.alg.filter.binary.ThresholdLocalWolf
+	 */
+	LOCAL_WOLF(true,false);
 
 	boolean adaptive;
 	boolean global;
@@ -20,7 +20,9 @@ package boofcv.factory.transform.pyramid;
 
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.transform.pyramid.PyramidDiscreteSampleBlur;
+import boofcv.alg.transform.pyramid.PyramidDiscreteSampleBlur_MT;
 import boofcv.alg.transform.pyramid.PyramidFloatGaussianScale;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.border.BorderType;
 import boofcv.factory.filter.kernel.FactoryKernel;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
@@ -40,7 +42,8 @@ public class FactoryPyramid {
 
 	/**
 	 * Creates an updater for discrete pyramids where a Gaussian is convolved across the input
-	 * prior to sub-sampling.
+	 * prior to sub-sampling.  If {@link BoofConcurrency#USE_CONCURRENT} is true then each layer is
+	 * computed concurrently.
 	 *
 	 * @param imageType Type of input image.
 	 * @param sigma Gaussian sigma.  If < 0 then a sigma is selected using the radius.  Try -1.
@@ -55,6 +58,8 @@ public class FactoryPyramid {
 
 		Kernel1D kernel = FactoryKernelGaussian.gaussian(kernelType,sigma,radius);
 
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new PyramidDiscreteSampleBlur_MT<T>(kernel,sigma,imageType,saveOriginalReference,scaleFactors);
 		return new PyramidDiscreteSampleBlur<T>(kernel,sigma,imageType,saveOriginalReference,scaleFactors);
 	}
 
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.transform.fft;
+
+import boofcv.abst.transform.fft.DiscreteFourierTransform;
+import boofcv.abst.transform.fft.GeneralFft_to_DiscreteFourierTransform_F64_MT;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.fft.GeneralPurposeFFT_F64_2D_MT;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF64;
+import boofcv.struct.image.InterleavedF64;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGeneralFft_to_DiscreteFourierTransform_F64_MT
+		extends GenericTestDiscreteFourierTransform<GrayF64,InterleavedF64> {
+
+	int originalThreads;
+	int originalLines;
+
+	public TestGeneralFft_to_DiscreteFourierTransform_F64_MT() {
+		super(false,1e-3);
+	}
+
+	/**
+	 * Force the transform to be split into several blocks, even on a single core machine
+	 */
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalLines = GeneralPurposeFFT_F64_2D_MT.MIN_LINES;
+		BoofConcurrency.setMaxThreads(4);
+		GeneralPurposeFFT_F64_2D_MT.MIN_LINES = 1;
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		GeneralPurposeFFT_F64_2D_MT.MIN_LINES = originalLines;
+	}
+
+	/**
+	 * Only the most recently used sizes should be saved and they should still produce correct results
+	 */
+	@Test
+	public void savedPlans() {
+		GeneralFft_to_DiscreteFourierTransform_F64_MT alg = new GeneralFft_to_DiscreteFourierTransform_F64_MT(4,2);
+
+		int sizes[] = new int[]{20,30,20,40,20,30};
+		int expected[] = new int[]{1,2,2,2,2,2};
+		for (int i = 0; i < sizes.length; i++) {
+			int s = sizes[i];
+			GrayF64 input = createImage(s,s+3);
+			InterleavedF64 transform = createTransform(s,s+3);
+			GrayF64 found = createImage(s,s+3);
+			ImageMiscOps.fillUniform(input,rand,-20,20);
+
+			alg.forward(input,transform);
+			alg.inverse(transform, found);
+
+			BoofTesting.assertEquals(input, found, tolerance);
+			assertEquals(expected[i], alg.getNumberOfPlans());
+		}
+	}
+
+	@Override
+	public DiscreteFourierTransform<GrayF64,InterleavedF64> createAlgorithm() {
+		return new GeneralFft_to_DiscreteFourierTransform_F64_MT(4,4);
+	}
+
+	@Override
+	public GrayF64 createImage(int width, int height) {
+		return new GrayF64(width,height);
+	}
+
+	@Override
+	public InterleavedF64 createTransform(int width, int height) {
+		return new InterleavedF64(width,height,2);
+	}
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.distort.PixelTransform_F32;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import georegression.struct.affine.Affine2D_F32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRemapImageOps {
+
+	Random rand = new Random(234);
+
+	int srcWidth = 30, srcHeight = 35;
+	int width = 25, height = 40;
+
+	// rotates and scales the image so that part of the output is outside the source image
+	PixelTransform_F32 dstToSrc = new PixelTransformAffine_F32(new Affine2D_F32(0.9f,0.3f,-0.25f,1.1f,-2.3f,1.7f));
+
+	int originalThreads;
+	int originalBand;
+	boolean originalConcurrent;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalBand = RemapImageOps.MIN_BAND_HEIGHT;
+		originalConcurrent = BoofConcurrency.USE_CONCURRENT;
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		RemapImageOps.MIN_BAND_HEIGHT = originalBand;
+		BoofConcurrency.USE_CONCURRENT = originalConcurrent;
+	}
+
+	/**
+	 * Compare against bilinear interpolation with an extended border
+	 */
+	@Test
+	public void compareToInterpolation_U8() {
+		GrayU8 src = new GrayU8(srcWidth, srcHeight);
+		ImageMiscOps.fillUniform(src, rand, 0, 100);
+		GrayU8 dst = new GrayU8(width, height);
+
+		RemapTable table = new RemapTable(dstToSrc, width, height, srcWidth, srcHeight, false);
+
+		BoofTesting.checkSubImage(this, "compareToInterpolation", true, table, src, dst, 1.0);
+	}
+
+	@Test
+	public void compareToInterpolation_F32() {
+		GrayF32 src = new GrayF32(srcWidth, srcHeight);
+		ImageMiscOps.fillUniform(src, rand, 0, 100);
+		GrayF32 dst = new GrayF32(width, height);
+
+		RemapTable table = new RemapTable(dstToSrc, width, height, srcWidth, srcHeight, false);
+
+		BoofTesting.checkSubImage(this, "compareToInterpolation", true, table, src, dst, 0.5);
+	}
+
+	public void compareToInterpolation( RemapTable table , ImageGray src , ImageGray dst , double tol ) {
+		InterpolatePixelS interp = FactoryInterpolation.bilinearPixelS(src.getClass(), BorderType.EXTENDED);
+		interp.setImage(src);
+
+		RemapImageOps.apply(table, src, dst, true);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				dstToSrc.compute(x, y);
+				float sx = clamp(dstToSrc.distX, srcWidth-1);
+				float sy = clamp(dstToSrc.distY, srcHeight-1);
+
+				double expected = interp.get(sx, sy);
+				assertEquals(expected, GeneralizedImageOps.get(dst, x, y), tol);
+			}
+		}
+	}
+
+	private static float clamp( float value , float max ) {
+		return Math.max(0, Math.min(max, value));
+	}
+
+	/**
+	 * Pixels outside the source image should not be modified
+	 */
+	@Test
+	public void renderAll_false() {
+		GrayU8 src = new GrayU8(srcWidth, srcHeight);
+		ImageMiscOps.fillUniform(src, rand, 0, 100);
+		GrayU8 dst = new GrayU8(width, height);
+		ImageMiscOps.fill(dst, 200);
+
+		RemapTable table = new RemapTable(dstToSrc, width, height, srcWidth, srcHeight, false);
+		RemapImageOps.apply(table, src, dst, false);
+
+		int outside = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				dstToSrc.compute(x, y);
+				boolean inside = dstToSrc.distX >= 0 && dstToSrc.distX <= srcWidth-1 &&
+						dstToSrc.distY >= 0 && dstToSrc.distY <= srcHeight-1;
+				if( inside ) {
+					assertTrue(dst.get(x, y) < 100);
+				} else {
+					assertEquals(200, dst.get(x, y));
+					outside++;
+				}
+			}
+		}
+		// sanity check the test
+		assertTrue(outside > 0);
+	}
+
+	/**
+	 * A compact table should produce identical results
+	 */
+	@Test
+	public void compact() {
+		GrayF32 src = new GrayF32(srcWidth, srcHeight);
+		ImageMiscOps.fillUniform(src, rand, 0, 100);
+		GrayF32 expected = new GrayF32(width, height);
+		GrayF32 found = new GrayF32(width, height);
+
+		RemapTable table = new RemapTable(dstToSrc, width, height, srcWidth, srcHeight, false);
+		RemapTable compact = new RemapTable(dstToSrc, width, height, srcWidth, srcHeight, true);
+		assertFalse(table.isCompact());
+		assertTrue(compact.isCompact());
+
+		RemapImageOps.apply(table, src, expected, true);
+		RemapImageOps.apply(compact, src, found, true);
+
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	@Test
+	public void planar() {
+		Planar<GrayU8> src = new Planar<GrayU8>(GrayU8.class, srcWidth, srcHeight, 3);
+		GImageMiscOps.fillUniform(src, rand, 0, 100);
+		Planar<GrayU8> dst = new Planar<GrayU8>(GrayU8.class, width, height, 3);
+
+		RemapTable table = new RemapTable(dstToSrc, width, height, srcWidth, srcHeight, true);
+		RemapImageOps.apply(table, src, dst, true);
+
+		GrayU8 expected = new GrayU8(width, height);
+		for (int band = 0; band < 3; band++) {
+			RemapImageOps.apply(table, src.getBand(band), expected, true);
+			BoofTesting.assertEquals(expected, dst.getBand(band), 0);
+		}
+	}
+
+	@Test
+	public void interleaved_U8() {
+		InterleavedU8 src = new InterleavedU8(srcWidth, srcHeight, 3);
+		GImageMiscOps.fillUniform(src, rand, 0, 100);
+		InterleavedU8 dst = new InterleavedU8(width, height, 3);
+
+		RemapTable table = new RemapTable(dstToSrc, width, height, srcWidth, srcHeight, false);
+		RemapImageOps.apply(table, src, dst, true);
+
+		GrayU8 band = new GrayU8(srcWidth, srcHeight);
+		GrayU8 expected = new GrayU8(width, height);
+		for (int i = 0; i < 3; i++) {
+			for (int y = 0; y < srcHeight; y++) {
+				for (int x = 0; x < srcWidth; x++) {
+					band.set(x, y, src.getBand(x, y, i));
+				}
+			}
+			RemapImageOps.apply(table, band, expected, true);
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					assertEquals(expected.get(x, y), dst.getBand(x, y, i));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void interleaved_F32() {
+		InterleavedF32 src = new InterleavedF32(srcWidth, srcHeight, 2);
+		GImageMiscOps.fillUniform(src, rand, 0, 100);
+		InterleavedF32 dst = new InterleavedF32(width, height, 2);
+
+		RemapTable table = new RemapTable(dstToSrc, width, height, srcWidth, srcHeight, false);
+		RemapImageOps.apply(table, src, dst, true);
+
+		GrayF32 band = new GrayF32(srcWidth, srcHeight);
+		GrayF32 expected = new GrayF32(width, height);
+		for (int i = 0; i < 2; i++) {
+			for (int y = 0; y < srcHeight; y++) {
+				for (int x = 0; x < srcWidth; x++) {
+					band.set(x, y, src.getBand(x, y, i));
+				}
+			}
+			RemapImageOps.apply(table, band, expected, true);
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					assertEquals(expected.get(x, y), dst.getBand(x, y, i), 0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void compareToSingleThread() {
+		BoofConcurrency.setMaxThreads(4);
+		RemapImageOps.MIN_BAND_HEIGHT = 1;
+
+		GrayU8 src = new GrayU8(srcWidth, srcHeight);
+		ImageMiscOps.fillUniform(src, rand, 0, 100);
+		GrayU8 expected = new GrayU8(width, height);
+		GrayU8 found = new GrayU8(width, height);
+
+		RemapTable table = new RemapTable(dstToSrc, width, height, srcWidth, srcHeight, false);
+
+		BoofConcurrency.USE_CONCURRENT = false;
+		RemapImageOps.apply(table, src, expected, true);
+		BoofConcurrency.USE_CONCURRENT = true;
+		RemapImageOps.apply(table, src, found, true);
+
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void checkShape() {
+		RemapTable table = new RemapTable(dstToSrc, width, height, srcWidth, srcHeight, false);
+		RemapImageOps.apply(table, new GrayU8(srcWidth, srcHeight), new GrayU8(width+1, height), true);
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLinearContourLabelChang2004_MT {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+	int originalBand;
+	int originalContours;
+
+	/**
+	 * Force the image to be split into several small bands, even on a single core machine
+	 */
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalBand = LinearContourLabelChang2004_MT.MIN_BAND_HEIGHT;
+		originalContours = LinearContourLabelChang2004_MT.MIN_CONTOURS;
+		BoofConcurrency.setMaxThreads(4);
+		LinearContourLabelChang2004_MT.MIN_BAND_HEIGHT = 1;
+		LinearContourLabelChang2004_MT.MIN_CONTOURS = 1;
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		LinearContourLabelChang2004_MT.MIN_BAND_HEIGHT = originalBand;
+		LinearContourLabelChang2004_MT.MIN_CONTOURS = originalContours;
+	}
+
+	/**
+	 * Compare against the single threaded implementation using the hand crafted test images
+	 */
+	@Test
+	public void compareToSingleThread_examples() {
+		compare(create(13, 8, TestLinearContourLabelChang2004.TEST1));
+		compare(create(13, 8, TestLinearContourLabelChang2004.TEST2));
+		compare(create(5, 7, TestLinearContourLabelChang2004.TEST3));
+		compare(create(7, 8, TestLinearContourLabelChang2004.TEST4));
+	}
+
+	/**
+	 * Random images have a large number of blobs, holes, and blobs inside of holes
+	 */
+	@Test
+	public void compareToSingleThread_random() {
+		for (int trial = 0; trial < 10; trial++) {
+			GrayU8 input = new GrayU8(20 + rand.nextInt(40), 20 + rand.nextInt(40));
+			ImageMiscOps.fillUniform(input, rand, 0, 2);
+			compare(input);
+		}
+	}
+
+	/**
+	 * Large blobs with holes which cross several bands
+	 */
+	@Test
+	public void compareToSingleThread_rings() {
+		GrayU8 input = new GrayU8(60, 50);
+		for (int i = 0; i < 6; i++) {
+			int x0 = rand.nextInt(40), y0 = rand.nextInt(30);
+			int x1 = x0 + 5 + rand.nextInt(15), y1 = y0 + 5 + rand.nextInt(15);
+			ImageMiscOps.fillRectangle(input, 1, x0, y0, x1 - x0, y1 - y0);
+			ImageMiscOps.fillRectangle(input, 0, x0 + 2, y0 + 2, x1 - x0 - 4, y1 - y0 - 4);
+		}
+		compare(input);
+	}
+
+	@Test
+	public void subimage() {
+		GrayU8 input = new GrayU8(35, 40);
+		ImageMiscOps.fillUniform(input, rand, 0, 2);
+
+		GrayU8 subInput = BoofTesting.createSubImageOf(input);
+		GrayS32 expected = new GrayS32(input.width, input.height);
+		GrayS32 found = BoofTesting.createSubImageOf(expected.createSameShape());
+
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR, ConnectRule.EIGHT}) {
+			LinearContourLabelChang2004 single = new LinearContourLabelChang2004(rule);
+			LinearContourLabelChang2004_MT alg = new LinearContourLabelChang2004_MT(rule);
+
+			single.process(input, expected);
+			alg.process(subInput, found);
+
+			BoofTesting.assertEquals(expected, found, 0);
+			compare(single.getContours(), alg.getContours());
+		}
+	}
+
+	private void compare( GrayU8 input ) {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR, ConnectRule.EIGHT}) {
+			LinearContourLabelChang2004 single = new LinearContourLabelChang2004(rule);
+			LinearContourLabelChang2004_MT alg = new LinearContourLabelChang2004_MT(rule);
+
+			GrayS32 expected = new GrayS32(input.width, input.height);
+			GrayS32 found = new GrayS32(input.width, input.height);
+			// the output must be completely overwritten
+			ImageMiscOps.fill(found, 5);
+
+			single.process(input, expected);
+			alg.process(input, found);
+
+			BoofTesting.assertEquals(expected, found, 0);
+			compare(single.getContours(), alg.getContours());
+
+			// process it a second time to make sure the internal state is reset
+			alg.process(input, found);
+			BoofTesting.assertEquals(expected, found, 0);
+			compare(single.getContours(), alg.getContours());
+		}
+	}
+
+	private void compare( FastQueue<Contour> expected , FastQueue<Contour> found ) {
+		assertEquals(expected.size, found.size);
+		for (int i = 0; i < expected.size; i++) {
+			Contour e = expected.get(i);
+			Contour f = found.get(i);
+
+			assertEquals(e.id, f.id);
+			compare(e.external, f.external);
+			assertEquals(e.internal.size(), f.internal.size());
+			for (int j = 0; j < e.internal.size(); j++) {
+				compare(e.internal.get(j), f.internal.get(j));
+			}
+		}
+	}
+
+	private void compare( List<Point2D_I32> expected , List<Point2D_I32> found ) {
+		assertEquals(expected.size(), found.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).x, found.get(i).x);
+			assertEquals(expected.get(i).y, found.get(i).y);
+		}
+	}
+
+	private static GrayU8 create( int width , int height , byte data[] ) {
+		GrayU8 input = new GrayU8(width, height);
+		input.data = data.clone();
+		return input;
+	}
+}
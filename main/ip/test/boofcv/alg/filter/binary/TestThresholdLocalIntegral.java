@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.FactoryGImageGray;
+import boofcv.core.image.GImageGray;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Tests all the thresholds which are derived from {@link ThresholdLocalIntegral}
+ *
+ * @author Peter Abeles
+ */
+public class TestThresholdLocalIntegral {
+
+	Random rand = new Random(234);
+
+	Class imageTypes[] = new Class[]{GrayU8.class, GrayF32.class};
+
+	int originalThreads;
+	int originalBand;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalBand = ThresholdLocalIntegral.MIN_BAND_HEIGHT;
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		ThresholdLocalIntegral.MIN_BAND_HEIGHT = originalBand;
+	}
+
+	@Test
+	public void mean() {
+		for( boolean down : new boolean[]{true,false}) {
+			checkBruteForce(new ThresholdLocalMean(3, 0.95f, down), new Equation() {
+				@Override
+				public double compute(double mean, double stdev, double R, double M) {
+					return mean*0.95f;
+				}
+			});
+		}
+	}
+
+	@Test
+	public void niblack() {
+		for( boolean down : new boolean[]{true,false}) {
+			checkBruteForce(new ThresholdLocalNiblack(3, -0.2f, down), new Equation() {
+				@Override
+				public double compute(double mean, double stdev, double R, double M) {
+					return mean - 0.2*stdev;
+				}
+			});
+		}
+	}
+
+	@Test
+	public void sauvola() {
+		for( boolean down : new boolean[]{true,false}) {
+			checkBruteForce(new ThresholdLocalSauvola(3, 0.3f, down), new Equation() {
+				@Override
+				public double compute(double mean, double stdev, double R, double M) {
+					return mean*(1.0 + 0.3*(stdev/R - 1.0));
+				}
+			});
+		}
+	}
+
+	@Test
+	public void wolf() {
+		for( boolean down : new boolean[]{true,false}) {
+			checkBruteForce(new ThresholdLocalWolf(3, 0.5f, down), new Equation() {
+				@Override
+				public double compute(double mean, double stdev, double R, double M) {
+					return 0.5*mean + 0.5*M + 0.5*(stdev/R)*(mean - M);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Compares against a brute force computation for each image type, with and without sub-images
+	 */
+	private void checkBruteForce( ThresholdLocalIntegral alg , Equation equation ) {
+		for( Class type : imageTypes ) {
+			ImageGray input = GeneralizedImageOps.createSingleBand(type, 25, 30);
+			GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+			GrayU8 expected = bruteForce(input, alg.getRadius(), alg.isDown(), equation);
+			GrayU8 found = new GrayU8(input.width, input.height);
+
+			alg.process(input, found);
+			BoofTesting.assertEquals(expected, found, 0);
+
+			ImageGray subInput = BoofTesting.createSubImageOf(input);
+			GrayU8 subFound = BoofTesting.createSubImageOf(found);
+			alg.process(subInput, subFound);
+			BoofTesting.assertEquals(expected, subFound, 0);
+		}
+	}
+
+	/**
+	 * The results should be the same no matter how many threads are used
+	 */
+	@Test
+	public void compareToSingleThread() {
+		BoofConcurrency.setMaxThreads(4);
+		ThresholdLocalIntegral.MIN_BAND_HEIGHT = 1;
+
+		ThresholdLocalIntegral single[] = new ThresholdLocalIntegral[]{
+				new ThresholdLocalMean(4, 0.95f, true), new ThresholdLocalNiblack(4, -0.2f, true),
+				new ThresholdLocalSauvola(4, 0.3f, true), new ThresholdLocalWolf(4, 0.5f, false)};
+		ThresholdLocalIntegral multi[] = new ThresholdLocalIntegral[]{
+				new ThresholdLocalMean(4, 0.95f, true, 4), new ThresholdLocalNiblack(4, -0.2f, true, 4),
+				new ThresholdLocalSauvola(4, 0.3f, true, 4), new ThresholdLocalWolf(4, 0.5f, false, 4)};
+
+		for( Class type : imageTypes ) {
+			ImageGray input = GeneralizedImageOps.createSingleBand(type, 40, 35);
+			GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+			for (int i = 0; i < single.length; i++) {
+				GrayU8 expected = new GrayU8(input.width, input.height);
+				GrayU8 found = new GrayU8(input.width, input.height);
+
+				single[i].process(input, expected);
+				multi[i].process(input, found);
+
+				BoofTesting.assertEquals(expected, found, 0);
+			}
+		}
+	}
+
+	private GrayU8 bruteForce( ImageGray input , int radius , boolean down , Equation equation ) {
+		GImageGray in = FactoryGImageGray.wrap(input);
+		int w = input.width, h = input.height;
+
+		double mean[] = new double[w*h];
+		double stdev[] = new double[w*h];
+		double R = 0;
+		double M = Double.MAX_VALUE;
+
+		for (int y = 0; y < h; y++) {
+			for (int x = 0; x < w; x++) {
+				double sum = 0, sumSq = 0;
+				int N = 0;
+				for (int i = Math.max(0,y-radius); i <= Math.min(h-1,y+radius); i++) {
+					for (int j = Math.max(0,x-radius); j <= Math.min(w-1,x+radius); j++) {
+						double v = in.get(j,i).doubleValue();
+						sum += v;
+						sumSq += v*v;
+						N++;
+					}
+				}
+				double m = sum/N;
+				mean[y*w+x] = m;
+				stdev[y*w+x] = Math.sqrt(Math.max(0,sumSq/N - m*m));
+				R = Math.max(R, stdev[y*w+x]);
+				M = Math.min(M, in.get(x,y).doubleValue());
+			}
+		}
+
+		GrayU8 output = new GrayU8(w,h);
+		for (int y = 0; y < h; y++) {
+			for (int x = 0; x < w; x++) {
+				double threshold = equation.compute(mean[y*w+x], stdev[y*w+x], R, M);
+				double v = in.get(x,y).doubleValue();
+				if( down )
+					output.set(x, y, v <= threshold ? 1 : 0);
+				else
+					output.set(x, y, v >= threshold ? 1 : 0);
+			}
+		}
+		return output;
+	}
+
+	private interface Equation {
+		double compute( double mean , double stdev , double R , double M );
+	}
+}
@@ -18,12 +18,15 @@
 
 package boofcv.alg.filter.blur;
 
+import boofcv.alg.filter.blur.impl.ImplMedianHistogramInner_MT;
+import boofcv.alg.filter.blur.impl.ImplMedianPerreault2007;
 import boofcv.alg.filter.blur.impl.ImplMedianSortNaive;
 import boofcv.alg.filter.convolve.ConvolveNormalized;
 import boofcv.alg.filter.convolve.normalized.ConvolveNormalizedNaive;
 import boofcv.alg.filter.kernel.KernelMath;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
 import boofcv.struct.convolve.Kernel1D_I32;
 import boofcv.struct.convolve.Kernel2D_F32;
@@ -130,7 +133,7 @@ public class TestBlurImageOps {
 
 		GImageMiscOps.fillUniform(input, rand, 0, 20);
 
-		for( int radius = 1; radius <= 4; radius++ ) {
+		for( int radius = 1; radius <= 6; radius++ ) {
 			ImplMedianSortNaive.process(input,expected,radius,null);
 			BlurImageOps.median(input,found,radius);
 
@@ -138,6 +141,50 @@ public class TestBlurImageOps {
 		}
 	}
 
+	/**
+	 * Both the histogram and the constant time filter should produce the same results when run concurrently
+	 */
+	@Test
+	public void median_U8_concurrent() {
+		int originalThreads = BoofConcurrency.getMaxThreads();
+		boolean originalConcurrent = BoofConcurrency.USE_CONCURRENT;
+		int originalHistogram = ImplMedianHistogramInner_MT.MIN_BAND_HEIGHT;
+		int originalConstant = ImplMedianPerreault2007.MIN_BAND_HEIGHT;
+		try {
+			// force the image to be split into several bands
+			BoofConcurrency.setMaxThreads(4);
+			BoofConcurrency.USE_CONCURRENT = true;
+			ImplMedianHistogramInner_MT.MIN_BAND_HEIGHT = 1;
+			ImplMedianPerreault2007.MIN_BAND_HEIGHT = 1;
+			median_U8();
+		} finally {
+			BoofConcurrency.setMaxThreads(originalThreads);
+			BoofConcurrency.USE_CONCURRENT = originalConcurrent;
+			ImplMedianHistogramInner_MT.MIN_BAND_HEIGHT = originalHistogram;
+			ImplMedianPerreault2007.MIN_BAND_HEIGHT = originalConstant;
+		}
+	}
+
+	/**
+	 * The same storage is used for several images and radii
+	 */
+	@Test
+	public void median_U8_storage() {
+		GrayU8 input = new GrayU8(width,height);
+		GrayU8 found = new GrayU8(width,height);
+		GrayU8 expected = new GrayU8(width,height);
+
+		ImplMedianPerreault2007 storage = new ImplMedianPerreault2007();
+		for( int radius = 1; radius <= 6; radius++ ) {
+			GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+			ImplMedianSortNaive.process(input,expected,radius,null);
+			BlurImageOps.median(input,found,radius,storage);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
 	@Test
 	public void median_F32() {
 		GrayF32 input = new GrayF32(width,height);
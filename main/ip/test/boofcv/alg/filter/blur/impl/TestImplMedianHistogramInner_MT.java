@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplMedianHistogramInner_MT {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+	int originalBand;
+
+	/**
+	 * Force the image to be split into several small bands, even on a single core machine
+	 */
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalBand = ImplMedianHistogramInner_MT.MIN_BAND_HEIGHT;
+		BoofConcurrency.setMaxThreads(4);
+		ImplMedianHistogramInner_MT.MIN_BAND_HEIGHT = 1;
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		ImplMedianHistogramInner_MT.MIN_BAND_HEIGHT = originalBand;
+	}
+
+	@Test
+	public void compareToSingleThread() {
+		GrayU8 image = new GrayU8(25,40);
+		ImageMiscOps.fillUniform(image, rand, 0, 256);
+
+		GrayU8 found = new GrayU8( image.width , image.height );
+		GrayU8 expected = new GrayU8( image.width , image.height );
+
+		BoofTesting.checkSubImage(this, "compareToSingleThread", true, image, found, expected);
+	}
+
+	public void compareToSingleThread(GrayU8 image, GrayU8 found, GrayU8 expected) {
+		for( int radius = 1; radius <= 10; radius += 3 ) {
+			ImageMiscOps.fill(found, 0);
+			ImageMiscOps.fill(expected, 0);
+
+			ImplMedianHistogramInner.process(image,expected,radius,null,null);
+			ImplMedianHistogramInner_MT.process(image,found,radius);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+}
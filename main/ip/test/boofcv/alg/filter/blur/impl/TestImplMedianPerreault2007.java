@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplMedianPerreault2007 {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+	int originalBand;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalBand = ImplMedianPerreault2007.MIN_BAND_HEIGHT;
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		ImplMedianPerreault2007.MIN_BAND_HEIGHT = originalBand;
+	}
+
+	@Test
+	public void compareToSort() {
+		GrayU8 image = new GrayU8(20,30);
+		ImageMiscOps.fillUniform(image, rand, 0, 256);
+
+		GrayU8 found = new GrayU8( image.width , image.height );
+		GrayU8 expected = new GrayU8( image.width , image.height );
+
+		BoofTesting.checkSubImage(this, "compareToSort", true, image, found, expected);
+	}
+
+	public void compareToSort(GrayU8 image, GrayU8 found, GrayU8 expected) {
+		ImplMedianPerreault2007 alg = new ImplMedianPerreault2007();
+
+		// include a region which is larger than the image
+		for( int radius = 1; radius <= 16; radius += 3 ) {
+			ImplMedianSortNaive.process(image,expected,radius,null);
+			alg.process(image,found,radius);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
+	/**
+	 * Few distinct values will cause the median to be at the edge of a fine block
+	 */
+	@Test
+	public void compareToSort_fewValues() {
+		GrayU8 image = new GrayU8(35,27);
+		ImageMiscOps.fillUniform(image, rand, 14, 18);
+
+		GrayU8 found = new GrayU8( image.width , image.height );
+		GrayU8 expected = new GrayU8( image.width , image.height );
+
+		ImplMedianPerreault2007 alg = new ImplMedianPerreault2007();
+		for( int radius = 1; radius <= 4; radius++ ) {
+			ImplMedianSortNaive.process(image,expected,radius,null);
+			alg.process(image,found,radius);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
+	@Test
+	public void compareToSingleThread() {
+		BoofConcurrency.setMaxThreads(4);
+		ImplMedianPerreault2007.MIN_BAND_HEIGHT = 1;
+
+		GrayU8 image = new GrayU8(30,45);
+		ImageMiscOps.fillUniform(image, rand, 0, 256);
+
+		GrayU8 found = new GrayU8( image.width , image.height );
+		GrayU8 expected = new GrayU8( image.width , image.height );
+
+		ImplMedianPerreault2007 single = new ImplMedianPerreault2007(1);
+		ImplMedianPerreault2007 multi = new ImplMedianPerreault2007(4);
+		for( int radius = 1; radius <= 5; radius += 2 ) {
+			single.process(image,expected,radius);
+			multi.process(image,found,radius);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+}
@@ -18,13 +18,27 @@
 
 package boofcv.alg.filter.convolve;
 
+import boofcv.alg.filter.convolve.noborder.ConvolveImageStandard;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.convolve.Kernel2D_F64;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayF64;
+import boofcv.testing.BoofTesting;
 import org.junit.Test;
 
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
 /**
  * @author Peter Abeles
  */
 public class TestConvolveImageNoBorder {
 
+	Random rand = new Random(234);
+
 	@Test
 	public void compareToStandard_symmetric() {
 		CompareToStandardConvolution a = new CompareToStandardConvolution(ConvolveImageNoBorder.class);
@@ -48,4 +62,95 @@ public class TestConvolveImageNoBorder {
 		a.setOffset(3);
 		a.performTests(25);
 	}
+
+	/**
+	 * The frequency domain convolution should match the spatial convolution to within round off error and
+	 * not modify the image border
+	 */
+	@Test
+	public void convolveFourier() {
+		Kernel2D_F32 kernel32 = FactoryKernel.random2D_F32(15, 6, -1, 1, rand);
+		GrayF32 input32 = new GrayF32(40,50);
+		ImageMiscOps.fillUniform(input32, rand, 0, 100);
+		GrayF32 expected32 = new GrayF32(input32.width, input32.height);
+		GrayF32 found32 = new GrayF32(input32.width, input32.height);
+		ImageMiscOps.fill(expected32, -1);
+		ImageMiscOps.fill(found32, -1);
+
+		ConvolveImageStandard.convolve(kernel32, input32, expected32);
+		ConvolveImageNoBorder.convolveFourier(kernel32, input32, found32);
+		BoofTesting.assertEquals(expected32, found32, 1e-2);
+
+		Kernel2D_F64 kernel64 = FactoryKernel.random2D_F64(15, 6, -1, 1, rand);
+		GrayF64 input64 = new GrayF64(40,50);
+		ImageMiscOps.fillUniform(input64, rand, 0, 100);
+		GrayF64 expected64 = new GrayF64(input64.width, input64.height);
+		GrayF64 found64 = new GrayF64(input64.width, input64.height);
+		ImageMiscOps.fill(expected64, -1);
+		ImageMiscOps.fill(found64, -1);
+
+		ConvolveImageStandard.convolve(kernel64, input64, expected64);
+		ConvolveImageNoBorder.convolveFourier(kernel64, input64, found64, new CorrelateFourier());
+		BoofTesting.assertEquals(expected64, found64, 1e-8);
+	}
+
+	/**
+	 * Mismatched input and output images should be rejected
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void convolveFourier_shape() {
+		Kernel2D_F32 kernel = FactoryKernel.random2D_F32(15, 6, -1, 1, rand);
+		ConvolveImageNoBorder.convolveFourier(kernel, new GrayF32(40,50), new GrayF32(40,51), new CorrelateFourier());
+	}
+
+	/**
+	 * Narrow kernels should produce the same output as the spatial convolution and wide kernels should be
+	 * convolved in the frequency domain
+	 */
+	@Test
+	public void convolveAuto() {
+		int original = ConvolveImageNoBorder.FOURIER_KERNEL_WIDTH;
+		try {
+			ConvolveImageNoBorder.FOURIER_KERNEL_WIDTH = 9;
+			CorrelateFourier storage = new CorrelateFourier();
+
+			GrayF32 input = new GrayF32(40,50);
+			ImageMiscOps.fillUniform(input, rand, 0, 100);
+			GrayF32 expected = new GrayF32(input.width, input.height);
+			GrayF32 found = new GrayF32(input.width, input.height);
+
+			// spatial
+			Kernel2D_F32 kernel = FactoryKernel.random2D_F32(7, 3, -1, 1, rand);
+			ConvolveImageNoBorder.convolve(kernel, input, expected);
+			ConvolveImageNoBorder.convolveAuto(kernel, input, found, storage);
+			BoofTesting.assertEquals(expected, found, 0);
+			// the correlator should not have been used
+			assertEquals(1, storage.getKernel().width);
+
+			// frequency
+			kernel = FactoryKernel.random2D_F32(9, 4, -1, 1, rand);
+			ImageMiscOps.fill(expected, -1);
+			ImageMiscOps.fill(found, -1);
+			ConvolveImageStandard.convolve(kernel, input, expected);
+			ConvolveImageNoBorder.convolveAuto(kernel, input, found, storage);
+			BoofTesting.assertEquals(expected, found, 1e-2);
+			assertEquals(9, storage.getKernel().width);
+
+			// F64
+			GrayF64 input64 = new GrayF64(40,50);
+			ImageMiscOps.fillUniform(input64, rand, 0, 100);
+			GrayF64 expected64 = new GrayF64(input64.width, input64.height);
+			GrayF64 found64 = new GrayF64(input64.width, input64.height);
+			for( int width : new int[]{7,9} ) {
+				Kernel2D_F64 kernel64 = FactoryKernel.random2D_F64(width, width/2, -1, 1, rand);
+				ImageMiscOps.fill(expected64, -1);
+				ImageMiscOps.fill(found64, -1);
+				ConvolveImageStandard.convolve(kernel64, input64, expected64);
+				ConvolveImageNoBorder.convolveAuto(kernel64, input64, found64, storage);
+				BoofTesting.assertEquals(expected64, found64, 1e-8);
+			}
+		} finally {
+			ConvolveImageNoBorder.FOURIER_KERNEL_WIDTH = original;
+		}
+	}
 }
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.alg.filter.kernel.KernelMath;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayF64;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCorrelateFourier {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against a brute force implementation for several image and kernel sizes.  Several of the cases
+	 * require more than one tile
+	 */
+	@Test
+	public void compareToBruteForce() {
+		int sizes[][] = new int[][]{{20,25,3,3},{20,25,4,7},{100,90,7,7},{64,64,20,9},{33,70,33,5},{150,45,12,30}};
+
+		for( int[] s : sizes ) {
+			GrayF32 image = new GrayF32(s[0],s[1]);
+			GrayF32 kernel = new GrayF32(s[2],s[3]);
+			ImageMiscOps.fillUniform(image, rand, -10, 10);
+			ImageMiscOps.fillUniform(kernel, rand, -1, 1);
+
+			CorrelateFourier alg = new CorrelateFourier();
+			alg.setKernel(kernel);
+
+			for( boolean square : new boolean[]{false,true}) {
+				GrayF64 expected = bruteForce(image, kernel, square);
+				GrayF64 found = new GrayF64(expected.width, expected.height);
+				alg.process(image, square, found);
+
+				BoofTesting.assertEquals(expected, found, 1e-8);
+			}
+		}
+	}
+
+	@Test
+	public void outputTypes_and_subimage() {
+		GrayU8 image = new GrayU8(60,50);
+		GrayF32 kernel = new GrayF32(9,6);
+		ImageMiscOps.fillUniform(image, rand, 0, 255);
+		ImageMiscOps.fillUniform(kernel, rand, -1, 1);
+
+		GrayF64 expected = bruteForce(image, kernel, false);
+
+		CorrelateFourier alg = new CorrelateFourier();
+		alg.setKernel(kernel);
+
+		GrayF32 found32 = new GrayF32(expected.width, expected.height);
+		alg.process(image, false, found32);
+		BoofTesting.assertEquals(expected, found32, 1e-2);
+
+		GrayF64 found64 = BoofTesting.createSubImageOf(new GrayF64(expected.width, expected.height));
+		alg.process(BoofTesting.createSubImageOf(image), false, found64);
+		BoofTesting.assertEquals(expected, found64, 1e-8);
+	}
+
+	/**
+	 * The transform of the kernel is saved.  Make sure it's recomputed when the kernel changes
+	 */
+	@Test
+	public void changeKernel() {
+		GrayF32 image = new GrayF32(70,60);
+		ImageMiscOps.fillUniform(image, rand, -10, 10);
+
+		CorrelateFourier alg = new CorrelateFourier();
+		for (int trial = 0; trial < 3; trial++) {
+			Kernel2D_F32 kernel = new Kernel2D_F32(5+trial*4);
+			for (int i = 0; i < kernel.data.length; i++) {
+				kernel.data[i] = rand.nextFloat();
+			}
+			alg.setKernel(kernel);
+
+			GrayF64 expected = bruteForce(image, KernelMath.convertToImage(kernel), false);
+			GrayF64 found = new GrayF64(expected.width, expected.height);
+			alg.process(image, false, found);
+			BoofTesting.assertEquals(expected, found, 1e-8);
+		}
+	}
+
+	/**
+	 * The kernel's transform is only recomputed when the kernel changes.  Change a single value and see if
+	 * that's detected
+	 */
+	@Test
+	public void changeKernel_sameShape() {
+		GrayF32 image = new GrayF32(70,60);
+		ImageMiscOps.fillUniform(image, rand, -10, 10);
+
+		Kernel2D_F32 kernel = new Kernel2D_F32(9);
+		for (int i = 0; i < kernel.data.length; i++) {
+			kernel.data[i] = rand.nextFloat();
+		}
+
+		CorrelateFourier alg = new CorrelateFourier();
+		for (int trial = 0; trial < 3; trial++) {
+			// the second trial sets the same kernel again and the third changes a single value
+			if( trial == 2 )
+				kernel.data[40] += 2;
+			alg.setKernel(kernel);
+
+			GrayF64 expected = bruteForce(image, KernelMath.convertToImage(kernel), false);
+			GrayF64 found = new GrayF64(expected.width, expected.height);
+			alg.process(image, false, found);
+			BoofTesting.assertEquals(expected, found, 1e-8);
+		}
+	}
+
+	/**
+	 * The same instance is used to process images of different types
+	 */
+	@Test
+	public void changeImageType() {
+		GrayF32 kernel = new GrayF32(7,7);
+		ImageMiscOps.fillUniform(kernel, rand, -1, 1);
+
+		CorrelateFourier alg = new CorrelateFourier();
+		alg.setKernel(kernel);
+
+		ImageGray images[] = new ImageGray[]{new GrayF32(40,30), new GrayU8(40,30), new GrayF64(40,30)};
+		for( ImageGray image : images ) {
+			GImageMiscOps.fillUniform(image, rand, 0, 100);
+
+			GrayF64 expected = bruteForce(image, kernel, false);
+			GrayF64 found = new GrayF64(expected.width, expected.height);
+			alg.process(image, false, found);
+			BoofTesting.assertEquals(expected, found, 1e-8);
+		}
+	}
+
+	@Test
+	public void selectTileLength() {
+		// a single tile is enough for small images
+		assertEquals(32, CorrelateFourier.selectTileLength(5, 20));
+		// large images are broken up into tiles
+		assertEquals(32, CorrelateFourier.selectTileLength(5, 1000));
+		assertEquals(1024, CorrelateFourier.selectTileLength(200, 4000));
+	}
+
+	@Test
+	public void badArguments() {
+		CorrelateFourier alg = new CorrelateFourier();
+		alg.setKernel(new GrayF32(10,12));
+
+		try {
+			alg.process(new GrayF32(9,20), false, new GrayF32(1,1));
+			fail("Kernel is larger than the image");
+		} catch( IllegalArgumentException ignore ){}
+		try {
+			alg.process(new GrayF32(20,20), false, new GrayF32(10,10));
+			fail("Output is the wrong size");
+		} catch( IllegalArgumentException ignore ){}
+		try {
+			alg.process(new GrayF32(20,20), false, new GrayU8(11,9));
+			fail("Output is the wrong type");
+		} catch( IllegalArgumentException ignore ){}
+	}
+
+	private static GrayF64 bruteForce( ImageGray image , GrayF32 kernel , boolean square ) {
+		GrayF64 out = new GrayF64(image.width-kernel.width+1, image.height-kernel.height+1);
+		for (int y = 0; y < out.height; y++) {
+			for (int x = 0; x < out.width; x++) {
+				double total = 0;
+				for (int i = 0; i < kernel.height; i++) {
+					for (int j = 0; j < kernel.width; j++) {
+						double v = GeneralizedImageOps.get(image, x+j, y+i);
+						if( square )
+							v *= v;
+						total += v*kernel.get(j,i);
+					}
+				}
+				out.set(x,y,total);
+			}
+		}
+		return out;
+	}
+}
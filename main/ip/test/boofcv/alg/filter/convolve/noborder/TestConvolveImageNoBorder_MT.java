@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve.noborder;
+
+import boofcv.alg.filter.convolve.CompareToStandardConvolution;
+import boofcv.alg.filter.convolve.CorrelateFourier;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.convolve.Kernel2D_F64;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayF64;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConvolveImageNoBorder_MT {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+	int originalBand;
+	int originalFourierBand;
+
+	/**
+	 * Force the image to be split into several small bands, even on a single core machine
+	 */
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalBand = ConvolveImageNoBorder_MT.MIN_BAND_HEIGHT;
+		originalFourierBand = ConvolveImageNoBorder_MT.MIN_FOURIER_BAND_HEIGHT;
+		BoofConcurrency.setMaxThreads(4);
+		ConvolveImageNoBorder_MT.MIN_BAND_HEIGHT = 1;
+		ConvolveImageNoBorder_MT.MIN_FOURIER_BAND_HEIGHT = 1;
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		ConvolveImageNoBorder_MT.MIN_BAND_HEIGHT = originalBand;
+		ConvolveImageNoBorder_MT.MIN_FOURIER_BAND_HEIGHT = originalFourierBand;
+	}
+
+	@Test
+	public void compareToStandard_symmetric() {
+		CompareToStandardConvolution a = new CompareToStandardConvolution(ConvolveImageNoBorder_MT.class);
+		a.setKernelWidth(5);
+		a.setOffset(2);
+		a.performTests(25);
+	}
+
+	@Test
+	public void compareToStandard_UNsymmetric() {
+		CompareToStandardConvolution a = new CompareToStandardConvolution(ConvolveImageNoBorder_MT.class);
+		a.setKernelWidth(5);
+		a.setOffset(1);
+		a.performTests(25);
+	}
+
+	@Test
+	public void compareToStandard_even() {
+		CompareToStandardConvolution a = new CompareToStandardConvolution(ConvolveImageNoBorder_MT.class);
+		a.setKernelWidth(4);
+		a.setOffset(3);
+		a.performTests(25);
+	}
+
+	/**
+	 * Limiting the number of threads should not change the output
+	 */
+	@Test
+	public void maxThreads_F32() {
+		Kernel1D_F32 kernel = FactoryKernel.random1D_F32(7, 2, -1, 1, rand);
+
+		GrayF32 input = new GrayF32(30,40);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+		GrayF32 expected = new GrayF32(input.width, input.height);
+		GrayF32 found = new GrayF32(input.width, input.height);
+
+		for (int maxThreads = 1; maxThreads <= 3; maxThreads++) {
+			ImageMiscOps.fill(expected, -1);
+			ImageMiscOps.fill(found, -1);
+			ConvolveImageStandard.horizontal(kernel, input, expected);
+			ConvolveImageNoBorder_MT.horizontal(kernel, input, found, maxThreads);
+			BoofTesting.assertEquals(expected, found, 1e-4);
+
+			ImageMiscOps.fill(expected, -1);
+			ImageMiscOps.fill(found, -1);
+			ConvolveImageStandard.vertical(kernel, input, expected);
+			ConvolveImageNoBorder_MT.vertical(kernel, input, found, maxThreads);
+			BoofTesting.assertEquals(expected, found, 1e-4);
+		}
+	}
+
+	/**
+	 * Large 2D kernels are convolved spatially in each band, so the output is identical to the single threaded code
+	 */
+	@Test
+	public void largeKernel_F32() {
+		Kernel2D_F32 kernel = FactoryKernel.random2D_F32(15, 6, -1, 1, rand);
+
+		GrayF32 input = new GrayF32(70,90);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+		GrayF32 expected = new GrayF32(input.width, input.height);
+		GrayF32 found = new GrayF32(input.width, input.height);
+		ImageMiscOps.fill(expected, -1);
+		ImageMiscOps.fill(found, -1);
+
+		if( !ConvolveImageUnrolled_F32_F32.convolve(kernel, input, expected))
+			ConvolveImageStandard.convolve(kernel, input, expected);
+		ConvolveImageNoBorder_MT.convolve(kernel, input, found);
+
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	@Test
+	public void largeKernel_F64() {
+		Kernel2D_F64 kernel = FactoryKernel.random2D_F64(15, 6, -1, 1, rand);
+
+		GrayF64 input = new GrayF64(70,90);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+		GrayF64 expected = new GrayF64(input.width, input.height);
+		GrayF64 found = new GrayF64(input.width, input.height);
+		ImageMiscOps.fill(expected, -1);
+		ImageMiscOps.fill(found, -1);
+
+		if( !ConvolveImageUnrolled_F64_F64.convolve(kernel, input, expected))
+			ConvolveImageStandard.convolve(kernel, input, expected);
+		ConvolveImageNoBorder_MT.convolve(kernel, input, found);
+
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	/**
+	 * Frequency domain convolution is done one band at a time.  The output should match the spatial convolution
+	 * to within round off error and the border should not be modified
+	 */
+	@Test
+	public void convolveFourier() {
+		Kernel2D_F32 kernel = FactoryKernel.random2D_F32(15, 6, -1, 1, rand);
+
+		GrayF32 input = new GrayF32(70,90);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+		GrayF32 expected = new GrayF32(input.width, input.height);
+		GrayF32 found = new GrayF32(input.width, input.height);
+		ImageMiscOps.fill(expected, -1);
+		ImageMiscOps.fill(found, -1);
+
+		FastQueue<CorrelateFourier> storage = new FastQueue<CorrelateFourier>(CorrelateFourier.class, true);
+
+		ConvolveImageStandard.convolve(kernel, input, expected);
+		ConvolveImageNoBorder_MT.convolveFourier(kernel, input, found, storage);
+		BoofTesting.assertEquals(expected, found, 1e-2);
+
+		// the correlators should be reused
+		ImageMiscOps.fill(found, -1);
+		ConvolveImageNoBorder_MT.convolveFourier(kernel, input, found, storage);
+		BoofTesting.assertEquals(expected, found, 1e-2);
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.derivative.impl;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGradientSobel_MT {
+
+	Random rand = new Random(234);
+
+	int width = 30;
+	int height = 41;
+
+	int originalThreads;
+	int originalBand;
+
+	/**
+	 * Force the image to be split into several small bands, even on a single core machine
+	 */
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalBand = GradientSobel_MT.MIN_BAND_HEIGHT;
+		BoofConcurrency.setMaxThreads(4);
+		GradientSobel_MT.MIN_BAND_HEIGHT = 1;
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		GradientSobel_MT.MIN_BAND_HEIGHT = originalBand;
+	}
+
+	@Test
+	public void process_I8_sub() {
+		GrayU8 img = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(img, rand, 0, 100);
+
+		GrayS16 derivX = new GrayS16(width, height);
+		GrayS16 derivY = new GrayS16(width, height);
+
+		BoofTesting.checkSubImage(this, "process_I8_sub", true, img, derivX, derivY);
+	}
+
+	public void process_I8_sub(GrayU8 img, GrayS16 derivX, GrayS16 derivY) {
+		GrayS16 expectedX = new GrayS16(width, height);
+		GrayS16 expectedY = new GrayS16(width, height);
+
+		GradientSobel_Outer.process_I8_sub(img, expectedX, expectedY);
+		GradientSobel_MT.process_I8_sub(img, derivX, derivY);
+
+		BoofTesting.assertEquals(expectedX, derivX, 0);
+		BoofTesting.assertEquals(expectedY, derivY, 0);
+	}
+
+	@Test
+	public void process_S16_sub() {
+		GrayS16 img = new GrayS16(width, height);
+		ImageMiscOps.fillUniform(img, rand, -100, 100);
+
+		GrayS16 derivX = new GrayS16(width, height);
+		GrayS16 derivY = new GrayS16(width, height);
+
+		BoofTesting.checkSubImage(this, "process_S16_sub", true, img, derivX, derivY);
+	}
+
+	public void process_S16_sub(GrayS16 img, GrayS16 derivX, GrayS16 derivY) {
+		GrayS16 expectedX = new GrayS16(width, height);
+		GrayS16 expectedY = new GrayS16(width, height);
+
+		GradientSobel_Outer.process_I8_sub(img, expectedX, expectedY);
+		GradientSobel_MT.process_I8_sub(img, derivX, derivY);
+
+		BoofTesting.assertEquals(expectedX, derivX, 0);
+		BoofTesting.assertEquals(expectedY, derivY, 0);
+	}
+
+	@Test
+	public void process_F32_sub() {
+		GrayF32 img = new GrayF32(width, height);
+		ImageMiscOps.fillUniform(img, rand, 0, 255);
+
+		GrayF32 derivX = new GrayF32(width, height);
+		GrayF32 derivY = new GrayF32(width, height);
+
+		BoofTesting.checkSubImage(this, "process_F32_sub", true, img, derivX, derivY);
+	}
+
+	public void process_F32_sub(GrayF32 img, GrayF32 derivX, GrayF32 derivY) {
+		GrayF32 expectedX = new GrayF32(width, height);
+		GrayF32 expectedY = new GrayF32(width, height);
+
+		GradientSobel_UnrolledOuter.process_F32_sub(img, expectedX, expectedY);
+		GradientSobel_MT.process_F32_sub(img, derivX, derivY);
+
+		BoofTesting.assertEquals(expectedX, derivX, 0);
+		BoofTesting.assertEquals(expectedY, derivY, 0);
+	}
+}
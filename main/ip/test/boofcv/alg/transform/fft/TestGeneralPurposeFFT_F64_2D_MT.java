@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGeneralPurposeFFT_F64_2D_MT {
+
+	double tol = 1e-8;
+
+	Random rand = new Random(234);
+
+	int sizes[] = new int[]{1,2,3,16,32,100,103};
+
+	int originalThreads;
+	int originalLines;
+
+	/**
+	 * Force the transform to be split into several blocks, even on a single core machine
+	 */
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalLines = GeneralPurposeFFT_F64_2D_MT.MIN_LINES;
+		BoofConcurrency.setMaxThreads(4);
+		GeneralPurposeFFT_F64_2D_MT.MIN_LINES = 1;
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		GeneralPurposeFFT_F64_2D_MT.MIN_LINES = originalLines;
+	}
+
+	@Test
+	public void realForwardFull() {
+		for( int i = 0; i < sizes.length; i++ ) {
+			for( int j = 0; j < sizes.length; j++ ) {
+				checkRealForwardFull(sizes[i], sizes[j]);
+			}
+		}
+	}
+
+	private void checkRealForwardFull(int numRows, int numColumns) {
+		double expected[] = new double[numRows*numColumns*2];
+		for( int i = 0; i < expected.length/2; i++ ) {
+			expected[i] = rand.nextGaussian();
+		}
+		double found[] = expected.clone();
+
+		new GeneralPurposeFFT_F64_2D(numRows,numColumns).realForwardFull(expected);
+		new GeneralPurposeFFT_F64_2D_MT(numRows,numColumns,4).realForwardFull(found);
+
+		checkEquals(expected, found);
+	}
+
+	@Test
+	public void complexForward() {
+		for( int i = 0; i < sizes.length; i++ ) {
+			for( int j = 0; j < sizes.length; j++ ) {
+				checkComplex(sizes[i], sizes[j], true);
+			}
+		}
+	}
+
+	@Test
+	public void complexInverse() {
+		for( int i = 0; i < sizes.length; i++ ) {
+			for( int j = 0; j < sizes.length; j++ ) {
+				checkComplex(sizes[i], sizes[j], false);
+			}
+		}
+	}
+
+	private void checkComplex(int numRows , int numColumns, boolean forward ) {
+		double expected[] = new double[numRows*numColumns*2];
+		for( int i = 0; i < expected.length; i++ ) {
+			expected[i] = rand.nextGaussian();
+		}
+		double found[] = expected.clone();
+
+		GeneralPurposeFFT_F64_2D single = new GeneralPurposeFFT_F64_2D(numRows,numColumns);
+		GeneralPurposeFFT_F64_2D_MT alg = new GeneralPurposeFFT_F64_2D_MT(numRows,numColumns,4);
+
+		if( forward ) {
+			single.complexForward(expected);
+			alg.complexForward(found);
+		} else {
+			single.complexInverse(expected, true);
+			alg.complexInverse(found, true);
+		}
+
+		checkEquals(expected, found);
+	}
+
+	/**
+	 * The same instance is used multiple times and the number of threads it's allowed to use is less
+	 * than the global limit
+	 */
+	@Test
+	public void multipleCalls_limitThreads() {
+		int numRows = 40, numColumns = 35;
+		GeneralPurposeFFT_F64_2D single = new GeneralPurposeFFT_F64_2D(numRows,numColumns);
+		GeneralPurposeFFT_F64_2D_MT alg = new GeneralPurposeFFT_F64_2D_MT(numRows,numColumns,2);
+
+		for (int trial = 0; trial < 3; trial++) {
+			double expected[] = new double[numRows*numColumns*2];
+			for( int i = 0; i < expected.length/2; i++ ) {
+				expected[i] = rand.nextGaussian();
+			}
+			double found[] = expected.clone();
+
+			single.realForwardFull(expected);
+			alg.realForwardFull(found);
+			checkEquals(expected, found);
+
+			single.complexInverse(expected, true);
+			alg.complexInverse(found, true);
+			checkEquals(expected, found);
+		}
+	}
+
+	@Test
+	public void badArguments() {
+		try {
+			new GeneralPurposeFFT_F64_2D_MT(0,10,2);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ){}
+		try {
+			new GeneralPurposeFFT_F64_2D_MT(10,10,0);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ){}
+	}
+
+	private void checkEquals(double[] expected, double[] found) {
+		for( int i = 0; i < expected.length; i++ ) {
+			assertEquals(expected[i],found[i],tol*Math.max(1,Math.abs(expected[i])));
+		}
+	}
+}
@@ -41,6 +41,15 @@ public class TestIntegralImageOps {
 		assertEquals(expected, found);
 	}
 
+	@Test
+	public void transformSquared() {
+		int expected = countName("transformSquared",IntegralImageOps.class);
+		int found = countName("transformSquared",ImplIntegralImageOps.class);
+
+		assertTrue(found != 0 );
+		assertEquals(expected, found);
+	}
+
 	@Test
 	public void convolve() {
 		int expected = countName("convolve",IntegralImageOps.class);
@@ -30,6 +30,7 @@ import boofcv.core.image.border.FactoryImageBorderAlgs;
 import boofcv.core.image.border.ImageBorder_S32;
 import boofcv.struct.ImageRectangle;
 import boofcv.struct.convolve.Kernel2D_I32;
+import boofcv.struct.image.GrayF64;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
@@ -94,6 +95,49 @@ public class TestImplIntegralImageOps {
 		}
 	}
 
+	@Test
+	public void transformSquared() {
+		int numFound = BoofTesting.findMethodThenCall(this,"transformSquared",ImplIntegralImageOps.class,"transformSquared");
+		Assert.assertEquals(2, numFound);
+	}
+
+	public void transformSquared( Method m ) {
+		Class inputType = m.getParameterTypes()[0];
+
+		ImageGray input = GeneralizedImageOps.createSingleBand(inputType, width, height);
+		GrayF64 integral = new GrayF64(width, height);
+		GrayF64 integralSq = new GrayF64(width, height);
+
+		GImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		BoofTesting.checkSubImage(this,"checkTransformSquaredResults",true,m,input,integral,integralSq);
+	}
+
+	public void checkTransformSquaredResults(Method m , ImageGray a, GrayF64 b, GrayF64 c)
+			throws InvocationTargetException, IllegalAccessException {
+
+		m.invoke(null,a,b,c);
+
+		GImageGray aa = FactoryGImageGray.wrap(a);
+
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				double total = 0, totalSq = 0;
+
+				for( int i = 0; i <= y; i++ ) {
+					for( int j = 0; j <= x; j++ ) {
+						double v = aa.get(j,i).doubleValue();
+						total += v;
+						totalSq += v*v;
+					}
+				}
+
+				Assert.assertEquals(x+" "+y,total,b.get(x,y),1e-1);
+				Assert.assertEquals(x+" "+y,totalSq,c.get(x,y),1e-1);
+			}
+		}
+	}
+
 	@Test
 	public void convolve() {
 		int numFound = BoofTesting.findMethodThenCall(this,"convolve",ImplIntegralImageOps.class,"convolve");
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.pyramid;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.ImagePyramid;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPyramidDiscreteSampleBlur_MT extends GenericPyramidTests<GrayF32> {
+
+	int originalThreads;
+	int originalMinRows;
+
+	public TestPyramidDiscreteSampleBlur_MT() {
+		super(GrayF32.class);
+	}
+
+	/**
+	 * Force the layers to be split into several bands, even on a single core machine
+	 */
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		originalMinRows = PyramidDiscreteSampleBlur_MT.MIN_ROWS;
+		BoofConcurrency.setMaxThreads(4);
+		PyramidDiscreteSampleBlur_MT.MIN_ROWS = 1;
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		PyramidDiscreteSampleBlur_MT.MIN_ROWS = originalMinRows;
+	}
+
+	/**
+	 * The concurrent implementation should produce exactly the same pyramid
+	 */
+	@Test
+	public void compareToSingleThread() {
+		compareToSingleThread(GrayF32.class, 2, 1, 2, 4, 8);
+		compareToSingleThread(GrayF32.class, 3, 2, 4);
+		compareToSingleThread(GrayU8.class, 2, 1, 2, 4, 8);
+		compareToSingleThread(GrayU8.class, 1, 1, 2, 4);
+	}
+
+	private <T extends ImageGray> void compareToSingleThread( Class<T> imageType , int radius , int ...scales ) {
+		Kernel1D kernel = FactoryKernelGaussian.gaussian(FactoryKernel.getKernelType(imageType,1),-1,radius);
+
+		PyramidDiscreteSampleBlur<T> single =
+				new PyramidDiscreteSampleBlur<T>(kernel,-1,imageType,false,scales);
+		PyramidDiscreteSampleBlur_MT<T> concurrent =
+				new PyramidDiscreteSampleBlur_MT<T>(kernel,-1,imageType,false,scales);
+
+		// odd sizes and a change in size between images
+		int[][] shapes = new int[][]{{width,height},{width+1,height+3},{width+1,height+3},{width/2,height/2+1}};
+
+		for( int[] shape : shapes ) {
+			T input = GeneralizedImageOps.createSingleBand(imageType, shape[0], shape[1]);
+			GImageMiscOps.fillUniform(input, rand, 0, 100);
+
+			single.process(input);
+			concurrent.process(input);
+
+			for (int i = 0; i < single.getNumLayers(); i++) {
+				BoofTesting.assertEquals(single.getLayer(i), concurrent.getLayer(i), 0);
+			}
+		}
+	}
+
+	/**
+	 * Sub-images should be handled correctly
+	 */
+	@Test
+	public void subimage() {
+		GrayF32 input = new GrayF32(width,height);
+		GImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		BoofTesting.checkSubImage(this, "subimage", true, input);
+	}
+
+	public void subimage(GrayF32 input) {
+		PyramidDiscreteSampleBlur<GrayF32> single = createSingle(2,4);
+		ImagePyramid<GrayF32> concurrent = createPyramid(2,4);
+
+		single.process(input);
+		concurrent.process(input);
+
+		for (int i = 0; i < single.getNumLayers(); i++) {
+			BoofTesting.assertEquals(single.getLayer(i), concurrent.getLayer(i), 0);
+		}
+	}
+
+	private PyramidDiscreteSampleBlur<GrayF32> createSingle( int... scales ) {
+		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,-1,3);
+		return new PyramidDiscreteSampleBlur<GrayF32>(kernel,3,GrayF32.class,false,scales);
+	}
+
+	@Override
+	protected ImagePyramid<GrayF32> createPyramid(int... scales) {
+		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,-1,3);
+		return new PyramidDiscreteSampleBlur_MT<GrayF32>(kernel,3,GrayF32.class,false,scales);
+	}
+}
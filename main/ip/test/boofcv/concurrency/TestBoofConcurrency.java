@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBoofConcurrency {
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(3);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	@Test
+	public void computeNumBlocks() {
+		assertEquals(0, BoofConcurrency.computeNumBlocks(5, 5, 1));
+		assertEquals(1, BoofConcurrency.computeNumBlocks(0, 5, 10));
+		assertEquals(2, BoofConcurrency.computeNumBlocks(0, 20, 10));
+		assertEquals(3, BoofConcurrency.computeNumBlocks(0, 100, 10));
+	}
+
+	@Test
+	public void computeNumBlocks_maxBlocks() {
+		assertEquals(0, BoofConcurrency.computeNumBlocks(5, 5, 1, 2));
+		assertEquals(2, BoofConcurrency.computeNumBlocks(0, 100, 10, 2));
+		assertEquals(3, BoofConcurrency.computeNumBlocks(0, 100, 10, 10));
+		assertEquals(1, BoofConcurrency.computeNumBlocks(0, 100, 10, 0));
+	}
+
+	@Test
+	public void loopBlocks_maxBlocks() {
+		final int[] counts = new int[50];
+		final int[] maxBlock = new int[1];
+
+		BoofConcurrency.loopBlocks(0, 50, 1, 2, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				synchronized (maxBlock) {
+					maxBlock[0] = Math.max(maxBlock[0], block);
+				}
+				for (int i = idx0; i < idx1; i++) {
+					counts[i]++;
+				}
+			}
+		});
+
+		for (int i = 0; i < counts.length; i++) {
+			assertEquals(1, counts[i]);
+		}
+		assertEquals(1, maxBlock[0]);
+	}
+
+	/**
+	 * Every index should be processed exactly once and blocks should be contiguous
+	 */
+	@Test
+	public void loopBlocks() {
+		final int[] counts = new int[103];
+		final int[] blockOf = new int[103];
+
+		BoofConcurrency.loopBlocks(2, 101, 5, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				for (int i = idx0; i < idx1; i++) {
+					counts[i]++;
+					blockOf[i] = block;
+				}
+			}
+		});
+
+		for (int i = 0; i < counts.length; i++) {
+			assertEquals(i >= 2 && i < 101 ? 1 : 0, counts[i]);
+		}
+		for (int i = 3; i < 101; i++) {
+			assertTrue(blockOf[i] >= blockOf[i - 1]);
+		}
+		assertEquals(0, blockOf[2]);
+		assertEquals(2, blockOf[100]);
+	}
+
+	/**
+	 * A loop inside of a loop should not dead lock and should be split the same way
+	 */
+	@Test
+	public void loopBlocks_nested() {
+		final int[] counts = new int[3];
+
+		BoofConcurrency.loopBlocks(0, 3, new IntRangeTask() {
+			@Override
+			public void process(int block, int idx0, int idx1) {
+				final int outer = block;
+				BoofConcurrency.loopBlocks(0, 30, new IntRangeTask() {
+					@Override
+					public void process(int block, int idx0, int idx1) {
+						synchronized (counts) {
+							counts[outer] += idx1 - idx0;
+						}
+					}
+				});
+			}
+		});
+
+		for (int i = 0; i < counts.length; i++) {
+			assertEquals(30, counts[i]);
+		}
+	}
+
+	@Test
+	public void loopBlocks_exception() {
+		try {
+			BoofConcurrency.loopBlocks(0, 30, new IntRangeTask() {
+				@Override
+				public void process(int block, int idx0, int idx1) {
+					if (block == 2)
+						throw new IllegalArgumentException("Test");
+				}
+			});
+			fail("Exception should have been thrown");
+		} catch (IllegalArgumentException ignore) {
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2011-2016, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.factory.filter.binary;
+
+import boofcv.abst.filter.binary.InputToBinary;
+import boofcv.abst.filter.binary.LocalIntegralBinaryFilter;
+import boofcv.abst.filter.binary.LocalSauvolaBinaryFilter;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFactoryThresholdBinary {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Each Sauvola type creates its own implementation.  They compute the same threshold so the output should
+	 * be almost identical
+	 */
+	@Test
+	public void sauvola() {
+		InputToBinary<GrayF32> standard =
+				FactoryThresholdBinary.threshold(ConfigThreshold.local(ThresholdType.LOCAL_SAVOLA, 6), GrayF32.class);
+		InputToBinary<GrayF32> integral =
+				FactoryThresholdBinary.threshold(ConfigThreshold.local(ThresholdType.LOCAL_SAVOLA_INTEGRAL, 6), GrayF32.class);
+
+		assertTrue(standard instanceof LocalSauvolaBinaryFilter);
+		assertTrue(integral instanceof LocalIntegralBinaryFilter);
+
+		GrayF32 input = new GrayF32(60,50);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+
+		GrayU8 expected = new GrayU8(input.width, input.height);
+		GrayU8 found = new GrayU8(input.width, input.height);
+		standard.process(input, expected);
+		integral.process(input, found);
+
+		int different = 0;
+		for (int i = 0; i < expected.data.length; i++) {
+			if( expected.data[i] != found.data[i] )
+				different++;
+		}
+		// round off error can change the value of pixels right at the threshold
+		assertTrue(different <= expected.data.length/100);
+	}
+}
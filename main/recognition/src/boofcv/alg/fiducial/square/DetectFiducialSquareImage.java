@@ -65,6 +65,8 @@ public class DetectFiducialSquareImage<T extends ImageGray>
 	private final static int squareLength=w*4; // this must be a multiple of 16
 	// length of description in 16bit units
 	private final static int DESC_LENGTH = squareLength*squareLength/16;
+	// length of the packed description in 64bit units
+	private final static int PACKED_LENGTH = DESC_LENGTH/4;
 
 	// converts the input image into a binary one
 	private GrayU8 binary = new GrayU8(squareLength,squareLength);
@@ -74,6 +76,8 @@ public class DetectFiducialSquareImage<T extends ImageGray>
 
 	// description of the current target candidate
 	private  short squareDef[] = new short[DESC_LENGTH];
+	// description of the current target candidate packed into longs
+	private long squarePacked[] = new long[PACKED_LENGTH];
 
 	// storage for no border sub-image
 	private GrayF32 grayNoBorder = new GrayF32();
@@ -151,6 +155,7 @@ public class DetectFiducialSquareImage<T extends ImageGray>
 		binaryToDef(binary, def.desc[2]);
 		ImageMiscOps.rotateCCW(binary);
 		binaryToDef(binary, def.desc[3]);
+		def.updatePacked();
 
 		int index = targets.size();
 		targets.add( def );
@@ -184,14 +189,16 @@ public class DetectFiducialSquareImage<T extends ImageGray>
 
 //		binary.printBinary();
 		binaryToDef(binary, squareDef);
+		pack(squareDef, squarePacked);
 
 		boolean matched = false;
 		int bestScore = hammingThreshold+1;
 		for (int i = 0; i < targets.size(); i++) {
 			FiducialDef def = targets.get(i);
+			long[][] packed = def.packed;
 
 			for (int j = 0; j < 4; j++) {
-				int score = hamming(def.desc[j], squareDef);
+				int score = hamming(packed[j], squarePacked);
 				if( score < bestScore ) {
 					bestScore = score;
 					result.rotation = j;
@@ -216,6 +223,24 @@ public class DetectFiducialSquareImage<T extends ImageGray>
 		return distance;
 	}
 
+	/**
+	 * Computes the hamming score between two packed descriptions, 64 bits at a time.
+	 */
+	protected int hamming(long[] a, long[] b) {
+		return DescriptorDistance.hamming(a,b);
+	}
+
+	/**
+	 * Packs four 16bit units of a description into each long.  The order of the bits is not changed.
+	 */
+	protected static void pack( short[] desc , long[] packed ) {
+		for (int i = 0; i < packed.length; i++) {
+			int j = i*4;
+			packed[i] = (desc[j]&0xFFFFL) | (desc[j+1]&0xFFFFL) << 16 |
+					(desc[j+2]&0xFFFFL) << 32 | (desc[j+3]&0xFFFFL) << 48;
+		}
+	}
+
 	public List<FiducialDef> getTargets() {
 		return targets;
 	}
@@ -227,5 +252,17 @@ public class DetectFiducialSquareImage<T extends ImageGray>
 	{
 		public short[][] desc = new short[4][DESC_LENGTH];
 		public double lengthSide;
+
+		// desc packed into longs.  This is what's used when matching
+		long[][] packed = new long[4][PACKED_LENGTH];
+
+		/**
+		 * Updates the packed description used when matching.  Must be called after {@link #desc} is modified.
+		 */
+		public void updatePacked() {
+			for (int i = 0; i < 4; i++) {
+				pack(desc[i], packed[i]);
+			}
+		}
 	}
 }
@@ -190,6 +190,41 @@ public class TestDetectFiducialSquareImage {
 		compare(desc,def.desc[3]);
 	}
 
+	/**
+	 * The packed description should be computed when a pattern is added and updated after the description
+	 * is modified
+	 */
+	@Test
+	public void updatePacked() {
+		GrayU8 pattern = new GrayU8(16*4,16*4);
+		ImageMiscOps.fillUniform(pattern, rand, 0, 2);
+
+		DetectFiducialSquareImage<GrayU8> alg =
+				new DetectFiducialSquareImage<GrayU8>(inputToBinary,squareDetector,0.25,0.65,0.1,GrayU8.class);
+
+		alg.addPattern(pattern, 1.0);
+		DetectFiducialSquareImage.FiducialDef def = alg.getTargets().get(0);
+		checkPacked(def);
+
+		for (int i = 0; i < 4; i++) {
+			for (int j = 0; j < def.desc[i].length; j++) {
+				def.desc[i][j] = (short)~def.desc[i][j];
+			}
+		}
+		def.updatePacked();
+		checkPacked(def);
+	}
+
+	private void checkPacked( DetectFiducialSquareImage.FiducialDef def ) {
+		long[] expected = new long[def.packed[0].length];
+		for (int i = 0; i < 4; i++) {
+			DetectFiducialSquareImage.pack(def.desc[i], expected);
+			for (int j = 0; j < expected.length; j++) {
+				assertEquals(expected[j], def.packed[i][j]);
+			}
+		}
+	}
+
 	private void compare( short a[] , short b[] ) {
 		assertEquals(a.length, b.length);
 		for (int i = 0; i < a.length; i++) {
@@ -239,6 +274,43 @@ public class TestDetectFiducialSquareImage {
 		assertEquals(expected, found);
 	}
 
+	@Test
+	public void hamming_packed() {
+		short[] a = new short[8];
+		short[] b = new short[8];
+
+		for (int i = 0; i < a.length; i++) {
+			a[i] = (short)rand.nextInt();
+			b[i] = (short)rand.nextInt();
+		}
+
+		long[] packedA = new long[2];
+		long[] packedB = new long[2];
+		DetectFiducialSquareImage.pack(a, packedA);
+		DetectFiducialSquareImage.pack(b, packedB);
+
+		DetectFiducialSquareImage alg = new DetectFiducialSquareImage(inputToBinary,squareDetector,0.25,0.65,0.1,GrayF32.class);
+		assertEquals(alg.hamming(a, b), alg.hamming(packedA, packedB));
+	}
+
+	@Test
+	public void pack() {
+		short[] desc = new short[8];
+		for (int i = 0; i < desc.length; i++) {
+			desc[i] = (short)rand.nextInt();
+		}
+
+		long[] packed = new long[2];
+		DetectFiducialSquareImage.pack(desc, packed);
+
+		for (int i = 0; i < 16*8; i++) {
+			int expected = (desc[i/16] >> (i%16)) & 1;
+			int found = (int)((packed[i/64] >> (i%64)) & 1);
+
+			assertEquals(expected,found);
+		}
+	}
+
 	/**
 	 * See if it can process a border that isn't 0.25
 	 */